@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.benchmarks.analysis.differentiation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.analysis.differentiation.DSCompiler;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark for {@link DSCompiler} low level operations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DSCompilerBenchmark {
+
+    /** Number of free parameters. */
+    @Param({"1", "3", "6"})
+    private int parameters;
+
+    /** Derivation order. */
+    @Param({"1", "2", "4"})
+    private int order;
+
+    /** Compiler. */
+    private DSCompiler compiler;
+
+    /** Left hand side operand. */
+    private double[] lhs;
+
+    /** Right hand side operand. */
+    private double[] rhs;
+
+    /** Value and derivatives of the composed function. */
+    private double[] f;
+
+    /** Result array. */
+    private double[] result;
+
+    /** Set up operands.
+     */
+    @Setup
+    public void setUp() {
+        final RandomGenerator random = new Well19937a(0x3a5c7e9b1d2f4068l);
+        compiler = DSCompiler.getCompiler(parameters, order);
+        lhs      = new double[compiler.getSize()];
+        rhs      = new double[compiler.getSize()];
+        f        = new double[order + 1];
+        result   = new double[compiler.getSize()];
+        for (int i = 0; i < lhs.length; ++i) {
+            lhs[i] = random.nextDouble();
+            rhs[i] = random.nextDouble();
+        }
+        for (int i = 0; i < f.length; ++i) {
+            f[i] = random.nextDouble();
+        }
+    }
+
+    /** Benchmark for {@link DSCompiler#multiply(double[], int, double[], int, double[], int)}.
+     * @return result array
+     */
+    @Benchmark
+    public double[] multiply() {
+        compiler.multiply(lhs, 0, rhs, 0, result, 0);
+        return result;
+    }
+
+    /** Benchmark for {@link DSCompiler#compose(double[], int, double[], double[], int)}.
+     * @return result array
+     */
+    @Benchmark
+    public double[] compose() {
+        compiler.compose(lhs, 0, f, result, 0);
+        return result;
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.benchmarks.linear;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.linear.BlockRealMatrix;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark for {@link BlockRealMatrix} products.
+ * <p>
+ * The sizes are chosen to cover a single block, a few blocks
+ * and many blocks with partial blocks at the edges.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockRealMatrixMultiplyBenchmark {
+
+    /** Matrices dimension. */
+    @Param({"52", "200", "500"})
+    private int size;
+
+    /** Left hand side operand. */
+    private BlockRealMatrix a;
+
+    /** Right hand side operand. */
+    private BlockRealMatrix b;
+
+    /** Set up operands.
+     */
+    @Setup
+    public void setUp() {
+        final RandomGenerator random = new Well19937a(0x4b6e5b09f8b7a3d4l);
+        a = createMatrix(random, size);
+        b = createMatrix(random, size);
+    }
+
+    /** Benchmark for {@link BlockRealMatrix#multiply(BlockRealMatrix)}.
+     * @return product
+     */
+    @Benchmark
+    public BlockRealMatrix multiply() {
+        return a.multiply(b);
+    }
+
+    /** Benchmark for {@link BlockRealMatrix#multiply(BlockRealMatrix, ForkJoinPool)}
+     * using the common pool.
+     * @return product
+     */
+    @Benchmark
+    public BlockRealMatrix multiplyParallel() {
+        return a.multiply(b, ForkJoinPool.commonPool());
+    }
+
+    /** Benchmark for {@link BlockRealMatrix#multiplyTransposed(BlockRealMatrix)}.
+     * @return product
+     */
+    @Benchmark
+    public BlockRealMatrix multiplyTransposed() {
+        return a.multiplyTransposed(b);
+    }
+
+    /** Benchmark for {@link BlockRealMatrix#transposeMultiply(BlockRealMatrix)}.
+     * @return product
+     */
+    @Benchmark
+    public BlockRealMatrix transposeMultiply() {
+        return a.transposeMultiply(b);
+    }
+
+    /** Create a random square matrix.
+     * @param random random generator
+     * @param n matrix dimension
+     * @return random matrix
+     */
+    static BlockRealMatrix createMatrix(final RandomGenerator random, final int n) {
+        final BlockRealMatrix m = new BlockRealMatrix(n, n);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                m.setEntry(i, j, 2 * random.nextDouble() - 1);
+            }
+        }
+        return m;
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.benchmarks.linear;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.linear.BlockCholeskyDecomposition;
+import org.hipparchus.linear.BlockLUDecomposition;
+import org.hipparchus.linear.BlockRealMatrix;
+import org.hipparchus.linear.CholeskyDecomposition;
+import org.hipparchus.linear.EigenDecomposition;
+import org.hipparchus.linear.LUDecomposition;
+import org.hipparchus.linear.QRDecomposition;
+import org.hipparchus.linear.ReusableLUDecomposition;
+import org.hipparchus.linear.ReusableQRDecomposition;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark for dense matrix decompositions.
+ * <p>
+ * LU and QR decompositions are applied to a general random matrix,
+ * eigen and Cholesky decompositions are applied to a symmetric
+ * positive definite matrix built from it.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecompositionBenchmark {
+
+    /** Matrix dimension. */
+    @Param({"10", "100", "400"})
+    private int size;
+
+    /** General matrix. */
+    private BlockRealMatrix general;
+
+    /** Symmetric positive definite matrix. */
+    private BlockRealMatrix spd;
+
+    /** Reusable LU workspace. */
+    private ReusableLUDecomposition reusableLU;
+
+    /** Reusable QR workspace. */
+    private ReusableQRDecomposition reusableQR;
+
+    /** Set up matrices.
+     */
+    @Setup
+    public void setUp() {
+        final RandomGenerator random = new Well19937a(0x1e2c5d7f2a9b3c41l);
+        general = BlockRealMatrixMultiplyBenchmark.createMatrix(random, size);
+        spd     = general.transposeMultiply(general);
+        for (int i = 0; i < size; ++i) {
+            spd.addToEntry(i, i, size);
+        }
+        reusableLU = new ReusableLUDecomposition(general);
+        reusableQR = new ReusableQRDecomposition(general);
+    }
+
+    /** Benchmark for {@link LUDecomposition}.
+     * @return decomposition
+     */
+    @Benchmark
+    public LUDecomposition lu() {
+        return new LUDecomposition(general);
+    }
+
+    /** Benchmark for {@link ReusableLUDecomposition}.
+     * @return decomposition
+     */
+    @Benchmark
+    public ReusableLUDecomposition reusableLu() {
+        reusableLU.reset(general);
+        return reusableLU;
+    }
+
+    /** Benchmark for {@link BlockLUDecomposition} using the common pool.
+     * @return decomposition
+     */
+    @Benchmark
+    public BlockLUDecomposition blockLu() {
+        return new BlockLUDecomposition(general, ForkJoinPool.commonPool());
+    }
+
+    /** Benchmark for {@link QRDecomposition}.
+     * @return decomposition
+     */
+    @Benchmark
+    public QRDecomposition qr() {
+        return new QRDecomposition(general);
+    }
+
+    /** Benchmark for {@link ReusableQRDecomposition}.
+     * @return decomposition
+     */
+    @Benchmark
+    public ReusableQRDecomposition reusableQr() {
+        reusableQR.reset(general);
+        return reusableQR;
+    }
+
+    /** Benchmark for {@link CholeskyDecomposition}.
+     * @return decomposition
+     */
+    @Benchmark
+    public CholeskyDecomposition cholesky() {
+        return new CholeskyDecomposition(spd);
+    }
+
+    /** Benchmark for {@link BlockCholeskyDecomposition} using the common pool.
+     * @return decomposition
+     */
+    @Benchmark
+    public BlockCholeskyDecomposition blockCholesky() {
+        return new BlockCholeskyDecomposition(spd, ForkJoinPool.commonPool());
+    }
+
+    /** Benchmark for {@link EigenDecomposition} of a symmetric matrix.
+     * @return decomposition
+     */
+    @Benchmark
+    public EigenDecomposition eigenSymmetric() {
+        return new EigenDecomposition(spd);
+    }
+
+    /** Benchmark for {@link EigenDecomposition} of a general matrix.
+     * @return decomposition
+     */
+    @Benchmark
+    public EigenDecomposition eigenGeneral() {
+        return new EigenDecomposition(general);
+    }
+
+}
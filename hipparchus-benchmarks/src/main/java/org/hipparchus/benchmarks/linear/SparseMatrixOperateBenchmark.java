@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.benchmarks.linear;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.linear.CompressedColumnRealMatrix;
+import org.hipparchus.linear.CompressedMatrixBuilder;
+import org.hipparchus.linear.CompressedRowRealMatrix;
+import org.hipparchus.linear.OpenMapRealMatrix;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark for sparse matrix-vector products.
+ * <p>
+ * The matrices are 2D five-point Laplacians, which is the typical
+ * operator of iterative solvers.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SparseMatrixOperateBenchmark {
+
+    /** Number of grid points along each side of the Laplacian. */
+    @Param({"30", "70"})
+    private int side;
+
+    /** Hash map storage. */
+    private OpenMapRealMatrix openMap;
+
+    /** Compressed sparse row storage. */
+    private CompressedRowRealMatrix csr;
+
+    /** Compressed sparse column storage. */
+    private CompressedColumnRealMatrix csc;
+
+    /** Vector operand. */
+    private double[] x;
+
+    /** Set up operands.
+     */
+    @Setup
+    public void setUp() {
+        final int n = side * side;
+        openMap = new OpenMapRealMatrix(n, n);
+        for (int i = 0; i < side; ++i) {
+            for (int j = 0; j < side; ++j) {
+                final int k = i * side + j;
+                openMap.setEntry(k, k, 4.0);
+                if (i > 0) {
+                    openMap.setEntry(k, k - side, -1.0);
+                }
+                if (i < side - 1) {
+                    openMap.setEntry(k, k + side, -1.0);
+                }
+                if (j > 0) {
+                    openMap.setEntry(k, k - 1, -1.0);
+                }
+                if (j < side - 1) {
+                    openMap.setEntry(k, k + 1, -1.0);
+                }
+            }
+        }
+        csr = new CompressedMatrixBuilder(openMap).buildRowCompressed();
+        csc = csr.toColumnCompressed();
+        final RandomGenerator random = new Well19937a(0x7d3a9e5b1c2f4e68l);
+        x = new double[n];
+        for (int i = 0; i < n; ++i) {
+            x[i] = 2 * random.nextDouble() - 1;
+        }
+    }
+
+    /** Benchmark for {@link OpenMapRealMatrix#operate(double[])}.
+     * @return product
+     */
+    @Benchmark
+    public double[] operateOpenMap() {
+        return openMap.operate(x);
+    }
+
+    /** Benchmark for {@link CompressedRowRealMatrix#operate(double[])}.
+     * @return product
+     */
+    @Benchmark
+    public double[] operateRowCompressed() {
+        return csr.operate(x);
+    }
+
+    /** Benchmark for {@link CompressedColumnRealMatrix#operate(double[])}.
+     * @return product
+     */
+    @Benchmark
+    public double[] operateColumnCompressed() {
+        return csc.operate(x);
+    }
+
+    /** Benchmark for {@link CompressedRowRealMatrix#preMultiply(double[])}.
+     * @return product
+     */
+    @Benchmark
+    public double[] preMultiplyRowCompressed() {
+        return csr.preMultiply(x);
+    }
+
+}
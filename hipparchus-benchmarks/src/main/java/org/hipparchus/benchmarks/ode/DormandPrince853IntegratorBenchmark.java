@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.benchmarks.ode;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.ode.ODEState;
+import org.hipparchus.ode.ODEStateAndDerivative;
+import org.hipparchus.ode.OrdinaryDifferentialEquation;
+import org.hipparchus.ode.nonstiff.DormandPrince853Integrator;
+import org.hipparchus.util.FastMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark for {@link DormandPrince853Integrator}.
+ * <p>
+ * The problem is a Keplerian orbit with eccentricity 0.1 integrated
+ * over ten periods, i.e. a small 4 dimensions system for which the
+ * integrator overhead is significant with respect to the cost of
+ * the derivatives.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DormandPrince853IntegratorBenchmark {
+
+    /** Relative and absolute tolerance. */
+    @Param({"1.0e-6", "1.0e-10"})
+    private double tolerance;
+
+    /** Integrator. */
+    private DormandPrince853Integrator integrator;
+
+    /** Equations. */
+    private OrdinaryDifferentialEquation kepler;
+
+    /** Initial state. */
+    private ODEState initialState;
+
+    /** Set up problem.
+     */
+    @Setup
+    public void setUp() {
+        integrator   = new DormandPrince853Integrator(1.0e-8, 10.0, tolerance, tolerance);
+        kepler       = new Kepler();
+        final double e = 0.1;
+        initialState = new ODEState(0.0,
+                                    new double[] {
+                                        1 - e, 0, 0, FastMath.sqrt((1 + e) / (1 - e))
+                                    });
+    }
+
+    /** Benchmark for {@link DormandPrince853Integrator#integrate(OrdinaryDifferentialEquation, ODEState, double)}.
+     * @return final state
+     */
+    @Benchmark
+    public ODEStateAndDerivative integrate() {
+        return integrator.integrate(kepler, initialState, 20 * FastMath.PI);
+    }
+
+    /** Keplerian motion with unit gravitational parameter. */
+    private static class Kepler implements OrdinaryDifferentialEquation {
+
+        /** {@inheritDoc} */
+        @Override
+        public int getDimension() {
+            return 4;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double[] computeDerivatives(final double t, final double[] y) {
+            final double r2 = y[0] * y[0] + y[1] * y[1];
+            final double f  = -1.0 / (r2 * FastMath.sqrt(r2));
+            return new double[] {
+                y[2], y[3], f * y[0], f * y[1]
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.benchmarks.stat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.hipparchus.stat.descriptive.rank.Percentile;
+import org.hipparchus.stat.descriptive.rank.Percentile.EstimationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark for {@link Percentile}.
+ * <p>
+ * The {@code cached} benchmark sets the data once and evaluates several
+ * quantiles, hence taking advantage of the cached pivots, whereas the
+ * {@code uncached} benchmark evaluates one quantile from raw data.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PercentileBenchmark {
+
+    /** Number of samples. */
+    @Param({"1000", "100000"})
+    private int size;
+
+    /** Estimation type. */
+    @Param({"LEGACY", "R_7"})
+    private EstimationType estimationType;
+
+    /** Sample. */
+    private double[] sample;
+
+    /** Percentile estimator. */
+    private Percentile percentile;
+
+    /** Set up sample.
+     */
+    @Setup
+    public void setUp() {
+        final RandomGenerator random = new Well19937a(0x5d1b3f7a9c2e4806l);
+        sample = new double[size];
+        for (int i = 0; i < size; ++i) {
+            sample[i] = random.nextGaussian();
+        }
+        percentile = new Percentile().withEstimationType(estimationType);
+    }
+
+    /** Benchmark for {@link Percentile#evaluate(double[], double)}.
+     * @return median
+     */
+    @Benchmark
+    public double uncached() {
+        return percentile.evaluate(sample, 50.0);
+    }
+
+    /** Benchmark for {@link Percentile#evaluate(double)} on quartiles and deciles.
+     * @return sum of the estimated quantiles
+     */
+    @Benchmark
+    public double cached() {
+        percentile.setData(sample);
+        return percentile.evaluate(10.0) + percentile.evaluate(25.0) + percentile.evaluate(50.0) +
+               percentile.evaluate(75.0) + percentile.evaluate(90.0);
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.benchmarks.transform;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.complex.Complex;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.hipparchus.transform.DftNormalization;
+import org.hipparchus.transform.FastFourierTransformer;
+import org.hipparchus.transform.TransformType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark for {@link FastFourierTransformer}.
+ * <p>
+ * The in-place transform uses unitary normalization, so the data can be
+ * transformed over and over without copying it and without overflowing.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FastFourierTransformerBenchmark {
+
+    /** Number of samples. */
+    @Param({"1024", "65536", "1048576"})
+    private int size;
+
+    /** Real and imaginary parts of the data. */
+    private double[][] dataRI;
+
+    /** Real data. */
+    private double[] real;
+
+    /** Transformer. */
+    private FastFourierTransformer transformer;
+
+    /** Set up data.
+     */
+    @Setup
+    public void setUp() {
+        final RandomGenerator random = new Well19937a(0x7f3b9e1d2c4a6b85l);
+        dataRI = new double[2][size];
+        real   = new double[size];
+        for (int i = 0; i < size; ++i) {
+            dataRI[0][i] = random.nextGaussian();
+            dataRI[1][i] = random.nextGaussian();
+            real[i]      = random.nextGaussian();
+        }
+        transformer = new FastFourierTransformer(DftNormalization.STANDARD);
+    }
+
+    /** Benchmark for {@link FastFourierTransformer#transformInPlace(double[][], DftNormalization, TransformType)}.
+     * @return transformed data
+     */
+    @Benchmark
+    public double[][] transformInPlace() {
+        FastFourierTransformer.transformInPlace(dataRI, DftNormalization.UNITARY, TransformType.FORWARD);
+        return dataRI;
+    }
+
+    /** Benchmark for {@link FastFourierTransformer#transform(double[], TransformType)}.
+     * @return transformed data
+     */
+    @Benchmark
+    public Complex[] transformReal() {
+        return transformer.transform(real, TransformType.FORWARD);
+    }
+
+}
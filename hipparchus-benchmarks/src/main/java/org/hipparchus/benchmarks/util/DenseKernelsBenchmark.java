@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.benchmarks.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.hipparchus.util.DenseKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmark for {@link DenseKernels}.
+ * <p>
+ * The vectorized kernels are used only if the benchmark JVM resolves the
+ * incubating vector module, so comparing scalar and vectorized kernels
+ * requires two runs, one of them with
+ * {@code -jvmArgsAppend "--add-modules jdk.incubator.vector"}.
+ * The matrix kernels work on a single 52 &times; 52 block, as in
+ * {@link org.hipparchus.linear.BlockRealMatrix}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DenseKernelsBenchmark {
+
+    /** Block size. */
+    private static final int BLOCK_SIZE = 52;
+
+    /** Vectors length. */
+    @Param({"64", "1024", "65536"})
+    private int length;
+
+    /** First vector. */
+    private double[] x;
+
+    /** Second vector. */
+    private double[] y;
+
+    /** Result vector. */
+    private double[] z;
+
+    /** First block. */
+    private double[] a;
+
+    /** Second block. */
+    private double[] b;
+
+    /** Result block. */
+    private double[] c;
+
+    /** Set up operands.
+     */
+    @Setup
+    public void setUp() {
+        final RandomGenerator random = new Well19937a(0x2c7f9a41e6d03b58l);
+        x = createArray(random, length);
+        y = createArray(random, length);
+        z = new double[length];
+        a = createArray(random, BLOCK_SIZE * BLOCK_SIZE);
+        b = createArray(random, BLOCK_SIZE * BLOCK_SIZE);
+        c = new double[BLOCK_SIZE * BLOCK_SIZE];
+    }
+
+    /** Benchmark for {@link DenseKernels#dotProduct(double[], int, double[], int, int)}.
+     * @return dot product
+     */
+    @Benchmark
+    public double dotProduct() {
+        return DenseKernels.dotProduct(x, 0, y, 0, length);
+    }
+
+    /** Benchmark for {@link DenseKernels#accurateDotProduct(double[], double[], int)}.
+     * @return dot product
+     */
+    @Benchmark
+    public double accurateDotProduct() {
+        return DenseKernels.accurateDotProduct(x, y, length);
+    }
+
+    /** Benchmark for {@link DenseKernels#combine(double, double[], double, double[], double[], int)}.
+     * @return linear combination
+     */
+    @Benchmark
+    public double[] combine() {
+        DenseKernels.combine(0.5, x, -1.5, y, z, length);
+        return z;
+    }
+
+    /** Benchmark for {@link DenseKernels#matrixMultiplyAdd(double[], double[], double[], int, int, int)}.
+     * @return updated block
+     */
+    @Benchmark
+    public double[] matrixMultiplyAdd() {
+        DenseKernels.matrixMultiplyAdd(a, b, c, BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
+        return c;
+    }
+
+    /** Benchmark for {@link DenseKernels#matrixVectorMultiplyAdd(double[], int, int, double[], int, double[], int)}.
+     * @return updated vector
+     */
+    @Benchmark
+    public double[] matrixVectorMultiplyAdd() {
+        DenseKernels.matrixVectorMultiplyAdd(a, BLOCK_SIZE, BLOCK_SIZE, x, 0, z, 0);
+        return z;
+    }
+
+    /** Create a random array.
+     * @param random random generator
+     * @param n array length
+     * @return random array
+     */
+    private static double[] createArray(final RandomGenerator random, final int n) {
+        final double[] array = new double[n];
+        for (int i = 0; i < n; ++i) {
+            array[i] = 2 * random.nextDouble() - 1;
+        }
+        return array;
+    }
+
+}
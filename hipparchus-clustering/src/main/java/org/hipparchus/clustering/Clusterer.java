@@ -21,6 +21,7 @@
  */
 package org.hipparchus.clustering;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -38,13 +39,17 @@ public abstract class Clusterer<T extends Clusterable> {
     /** The distance measure to use. */
     private DistanceMeasure measure;
 
+    /** Indicator for subclasses overriding {@link #distance(Clusterable, Clusterable)}. */
+    private final boolean distanceOverridden;
+
     /**
      * Build a new clusterer with the given {@link DistanceMeasure}.
      *
      * @param measure the distance measure to use
      */
     protected Clusterer(final DistanceMeasure measure) {
-        this.measure = measure;
+        this.measure            = measure;
+        this.distanceOverridden = overridesDistance(getClass());
     }
 
     /**
@@ -81,4 +86,62 @@ public abstract class Clusterer<T extends Clusterable> {
         return measure.compute(p1.getPoint(), p2.getPoint());
     }
 
+    /**
+     * Calculates the distance between two points stored in larger arrays.
+     * <p>
+     * This method is used by the clusterers working on {@link PackedPoints}.
+     * If a subclass overrides {@link #distance(Clusterable, Clusterable)},
+     * copies of the points are wrapped in {@link DoublePoint} instances and
+     * passed to this override, so it remains effective. Otherwise the
+     * configured {@link DistanceMeasure} is called directly on the arrays,
+     * without any allocation.
+     * </p>
+     *
+     * @param a array containing the first point
+     * @param aOffset index of the first coordinate of the first point in {@code a}
+     * @param b array containing the second point
+     * @param bOffset index of the first coordinate of the second point in {@code b}
+     * @param dimension dimension of the points
+     * @return the distance between the two points
+     * @since 1.7
+     */
+    protected double distance(final double[] a, final int aOffset,
+                              final double[] b, final int bOffset,
+                              final int dimension) {
+        if (distanceOverridden) {
+            return distance(new DoublePoint(Arrays.copyOfRange(a, aOffset, aOffset + dimension)),
+                            new DoublePoint(Arrays.copyOfRange(b, bOffset, bOffset + dimension)));
+        }
+        return measure.compute(a, aOffset, b, bOffset, dimension);
+    }
+
+    /**
+     * Check if this clusterer overrides {@link #distance(Clusterable, Clusterable)}.
+     *
+     * @return true if {@link #distance(Clusterable, Clusterable)} is overridden
+     * @since 1.7
+     */
+    boolean isDistanceOverridden() {
+        return distanceOverridden;
+    }
+
+    /**
+     * Check if a class overrides {@link #distance(Clusterable, Clusterable)}.
+     *
+     * @param type class to check
+     * @return true if the class or one of its superclasses below
+     * {@link Clusterer} overrides the method
+     */
+    private static boolean overridesDistance(final Class<?> type) {
+        for (Class<?> c = type; c != Clusterer.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("distance", Clusterable.class, Clusterable.class);
+                return true;
+            } catch (NoSuchMethodException nsme) {
+                // not overridden at this level, check the superclass
+            }
+        }
+        return false;
+    }
+
 }
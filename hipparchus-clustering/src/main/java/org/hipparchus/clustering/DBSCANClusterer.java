@@ -22,6 +22,7 @@
 package org.hipparchus.clustering;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,6 +32,11 @@ import java.util.Set;
 
 import org.hipparchus.clustering.distance.DistanceMeasure;
 import org.hipparchus.clustering.distance.EuclideanDistance;
+import org.hipparchus.clustering.neighbors.BruteForceNeighborSearch;
+import org.hipparchus.clustering.neighbors.KDTreeNeighborSearch;
+import org.hipparchus.clustering.neighbors.NeighborIndex;
+import org.hipparchus.clustering.neighbors.NeighborSearch;
+import org.hipparchus.clustering.neighbors.PackedNeighborIndex;
 import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.NullArgumentException;
@@ -54,6 +60,13 @@ import org.hipparchus.util.MathUtils;
  *   <li>eps: the distance that defines the &epsilon;-neighborhood of a point
  *   <li>minPoints: the minimum number of density-connected points required to form a cluster
  * </ul>
+ * <p>
+ * Neighborhood queries are delegated to a {@link NeighborSearch}. By default,
+ * a {@link KDTreeNeighborSearch k-d tree} is used when the distance measure
+ * supports it, and a {@link BruteForceNeighborSearch brute force} search otherwise.
+ * The clusters found do not depend on the search strategy. If a subclass overrides
+ * {@link #distance(Clusterable, Clusterable)}, the configured search is bypassed and
+ * a brute force search going through this override is used instead.
  *
  * @param <T> type of the points to cluster
  * @see <a href="http://en.wikipedia.org/wiki/DBSCAN">DBSCAN (wikipedia)</a>
@@ -68,6 +81,11 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
     /** Minimum number of points needed for a cluster. */
     private final int                 minPts;
 
+    /** Neighbor search strategy.
+     * @since 1.7
+     */
+    private final NeighborSearch      neighborSearch;
+
     /** Status of a point during the clustering process. */
     private enum PointStatus {
         /** The point has is considered to be noise. */
@@ -92,6 +110,11 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
 
     /**
      * Creates a new instance of a DBSCANClusterer.
+     * <p>
+     * A {@link KDTreeNeighborSearch k-d tree} neighbor search will be used if it
+     * {@link NeighborSearch#supports(DistanceMeasure) supports} the distance
+     * measure, otherwise a {@link BruteForceNeighborSearch brute force} search
+     * will be used.
      *
      * @param eps maximum radius of the neighborhood to be considered
      * @param minPts minimum number of points needed for a cluster
@@ -100,6 +123,24 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
      */
     public DBSCANClusterer(final double eps, final int minPts, final DistanceMeasure measure)
         throws MathIllegalArgumentException {
+        this(eps, minPts, measure, defaultNeighborSearch(measure));
+    }
+
+    /**
+     * Creates a new instance of a DBSCANClusterer.
+     *
+     * @param eps maximum radius of the neighborhood to be considered
+     * @param minPts minimum number of points needed for a cluster
+     * @param measure the distance measure to use
+     * @param neighborSearch neighbor search strategy
+     * @throws MathIllegalArgumentException if {@code eps < 0.0} or {@code minPts < 0}
+     * or if the neighbor search does not support the distance measure
+     * @throws NullArgumentException if neighbor search is null
+     * @since 1.7
+     */
+    public DBSCANClusterer(final double eps, final int minPts, final DistanceMeasure measure,
+                           final NeighborSearch neighborSearch)
+        throws MathIllegalArgumentException, NullArgumentException {
         super(measure);
 
         if (eps < 0.0d) {
@@ -108,8 +149,25 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
         if (minPts < 0) {
             throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL, minPts, 0);
         }
+        MathUtils.checkNotNull(neighborSearch);
+        if (!neighborSearch.supports(measure)) {
+            throw new MathIllegalArgumentException(LocalizedClusteringFormats.UNSUPPORTED_DISTANCE_MEASURE,
+                                                   measure == null ? null : measure.getClass().getName(),
+                                                   neighborSearch.getClass().getName());
+        }
         this.eps = eps;
         this.minPts = minPts;
+        this.neighborSearch = neighborSearch;
+    }
+
+    /**
+     * Select the default neighbor search strategy for a distance measure.
+     * @param measure the distance measure to use
+     * @return k-d tree neighbor search if it supports the measure, brute force search otherwise
+     */
+    private static NeighborSearch defaultNeighborSearch(final DistanceMeasure measure) {
+        final NeighborSearch kdTree = new KDTreeNeighborSearch();
+        return kdTree.supports(measure) ? kdTree : new BruteForceNeighborSearch();
     }
 
     /**
@@ -128,6 +186,15 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
         return minPts;
     }
 
+    /**
+     * Returns the neighbor search strategy.
+     * @return neighbor search strategy
+     * @since 1.7
+     */
+    public NeighborSearch getNeighborSearch() {
+        return neighborSearch;
+    }
+
     /**
      * Performs DBSCAN cluster analysis.
      *
@@ -143,16 +210,19 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
 
         final List<Cluster<T>> clusters = new ArrayList<>();
         final Map<Clusterable, PointStatus> visited = new HashMap<>();
+        final NeighborIndex<T> index = isDistanceOverridden() ?
+                                       distanceIndex(points) :
+                                       neighborSearch.index(points, getDistanceMeasure());
 
         for (final T point : points) {
             if (visited.get(point) != null) {
                 continue;
             }
-            final List<T> neighbors = getNeighbors(point, points);
+            final List<T> neighbors = index.getNeighbors(point, eps);
             if (neighbors.size() >= minPts) {
                 // DBSCAN does not care about center points
                 final Cluster<T> cluster = new Cluster<>();
-                clusters.add(expandCluster(cluster, point, neighbors, points, visited));
+                clusters.add(expandCluster(cluster, point, neighbors, index, visited));
             } else {
                 visited.put(point, PointStatus.NOISE);
             }
@@ -161,34 +231,134 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
         return clusters;
     }
 
+    /**
+     * Performs DBSCAN cluster analysis on packed points.
+     * <p>
+     * Points are identified by their index, so points with identical
+     * coordinates are handled as distinct points. Clusters are numbered
+     * in the order they are found, which is the order of the list returned
+     * by {@link #cluster(Collection)}, and points that do not belong to any
+     * cluster are labeled as {@link PackedClustering#NOISE noise}.
+     * </p>
+     *
+     * @param points the points to cluster
+     * @return clustering with one label per point (without centers)
+     * @throws NullArgumentException if the data points are null
+     * @since 1.7
+     */
+    public PackedClustering clusterPacked(final PackedPoints points) throws NullArgumentException {
+
+        // sanity checks
+        MathUtils.checkNotNull(points);
+
+        final int size = points.getSize();
+        final PackedNeighborIndex index = isDistanceOverridden() ?
+                                          distanceIndex(points) :
+                                          neighborSearch.index(points, getDistanceMeasure());
+        final PointStatus[] visited = new PointStatus[size];
+        final int[] labels = new int[size];
+        Arrays.fill(labels, PackedClustering.NOISE);
+
+        // seeds of the cluster being expanded, marked with cluster number
+        final int[] seeds    = new int[size];
+        final int[] seedMark = new int[size];
+        Arrays.fill(seedMark, -1);
+
+        int nbClusters = 0;
+        for (int point = 0; point < size; ++point) {
+            if (visited[point] != null) {
+                continue;
+            }
+            final int[] neighbors = index.getNeighbors(point, eps);
+            if (neighbors.length >= minPts) {
+                expandCluster(nbClusters++, point, neighbors, index, visited, labels, seeds, seedMark);
+            } else {
+                visited[point] = PointStatus.NOISE;
+            }
+        }
+
+        return new PackedClustering(nbClusters, labels, null, null);
+    }
+
+    /**
+     * Build a brute force neighbor index going through {@link #distance(Clusterable, Clusterable)}.
+     * <p>
+     * This index is used when a subclass overrides the distance, as neither
+     * the configured neighbor search nor the distance measure know about the override.
+     * </p>
+     *
+     * @param points the points to index
+     * @return neighbors index over the data set
+     */
+    private NeighborIndex<T> distanceIndex(final Collection<T> points) {
+        final List<T> indexed = new ArrayList<>(points);
+        return (point, radius) -> {
+            final List<T> neighbors = new ArrayList<>();
+            for (final T neighbor : indexed) {
+                if (point != neighbor && distance(neighbor, point) <= radius) {
+                    neighbors.add(neighbor);
+                }
+            }
+            return neighbors;
+        };
+    }
+
+    /**
+     * Build a brute force neighbor index over packed points going through
+     * {@link #distance(double[], int, double[], int, int)}, and hence through
+     * an overridden {@link #distance(Clusterable, Clusterable)}.
+     *
+     * @param points the points to index
+     * @return neighbors index over the data set
+     */
+    private PackedNeighborIndex distanceIndex(final PackedPoints points) {
+        return (i, radius) -> {
+            final double[] data      = points.getData();
+            final int      dimension = points.getDimension();
+            final int      offset    = points.getOffset(i);
+            int[] neighbors = new int[16];
+            int   n         = 0;
+            for (int j = 0; j < points.getSize(); ++j) {
+                if (j != i && distance(data, points.getOffset(j), data, offset, dimension) <= radius) {
+                    if (n == neighbors.length) {
+                        neighbors = Arrays.copyOf(neighbors, 2 * n);
+                    }
+                    neighbors[n++] = j;
+                }
+            }
+            return Arrays.copyOf(neighbors, n);
+        };
+    }
+
     /**
      * Expands the cluster to include density-reachable items.
      *
      * @param cluster Cluster to expand
      * @param point Point to add to cluster
      * @param neighbors List of neighbors
-     * @param points the data set
+     * @param index neighbors index over the data set
      * @param visited the set of already visited points
      * @return the expanded cluster
      */
     private Cluster<T> expandCluster(final Cluster<T> cluster,
                                      final T point,
                                      final List<T> neighbors,
-                                     final Collection<T> points,
+                                     final NeighborIndex<T> index,
                                      final Map<Clusterable, PointStatus> visited) {
         cluster.addPoint(point);
         visited.put(point, PointStatus.PART_OF_CLUSTER);
 
-        List<T> seeds = new ArrayList<>(neighbors);
-        int index = 0;
-        while (index < seeds.size()) {
-            final T current = seeds.get(index);
+        final List<T> seeds   = new ArrayList<>(neighbors);
+        final Set<T>  seedSet = new HashSet<>(neighbors);
+        int next = 0;
+        while (next < seeds.size()) {
+            final T current = seeds.get(next);
             PointStatus pStatus = visited.get(current);
             // only check non-visited points
             if (pStatus == null) {
-                final List<T> currentNeighbors = getNeighbors(current, points);
+                final List<T> currentNeighbors = index.getNeighbors(current, eps);
                 if (currentNeighbors.size() >= minPts) {
-                    seeds = merge(seeds, currentNeighbors);
+                    merge(seeds, seedSet, currentNeighbors);
                 }
             }
 
@@ -197,42 +367,90 @@ public class DBSCANClusterer<T extends Clusterable> extends Clusterer<T> {
                 cluster.addPoint(current);
             }
 
-            index++;
+            next++;
         }
         return cluster;
     }
 
     /**
-     * Returns a list of density-reachable neighbors of a {@code point}.
+     * Expands a cluster of packed points to include density-reachable points.
      *
-     * @param point the point to look for
-     * @param points possible neighbors
-     * @return the List of neighbors
-     */
-    private List<T> getNeighbors(final T point, final Collection<T> points) {
-        final List<T> neighbors = new ArrayList<>();
-        for (final T neighbor : points) {
-            if (point != neighbor && distance(neighbor, point) <= eps) {
-                neighbors.add(neighbor);
+     * @param cluster index of the cluster to expand
+     * @param point index of the point to add to cluster
+     * @param neighbors indices of the neighbors of the point
+     * @param index neighbors index over the data set
+     * @param visited the status of already visited points
+     * @param labels the points labels
+     * @param seeds placeholder for the seeds
+     * @param seedMark index of the last cluster for which each point was a seed
+     */
+    private void expandCluster(final int cluster,
+                               final int point,
+                               final int[] neighbors,
+                               final PackedNeighborIndex index,
+                               final PointStatus[] visited,
+                               final int[] labels,
+                               final int[] seeds,
+                               final int[] seedMark) {
+        labels[point]  = cluster;
+        visited[point] = PointStatus.PART_OF_CLUSTER;
+
+        int nbSeeds = merge(seeds, 0, seedMark, cluster, neighbors);
+        for (int next = 0; next < nbSeeds; ++next) {
+            final int current = seeds[next];
+            final PointStatus pStatus = visited[current];
+            // only check non-visited points
+            if (pStatus == null) {
+                final int[] currentNeighbors = index.getNeighbors(current, eps);
+                if (currentNeighbors.length >= minPts) {
+                    nbSeeds = merge(seeds, nbSeeds, seedMark, cluster, currentNeighbors);
+                }
+            }
+
+            if (pStatus != PointStatus.PART_OF_CLUSTER) {
+                visited[current] = PointStatus.PART_OF_CLUSTER;
+                labels[current]  = cluster;
             }
         }
-        return neighbors;
     }
 
     /**
-     * Merges two lists together.
+     * Merges new points into the seeds array.
      *
-     * @param one first list
-     * @param two second list
-     * @return merged lists
-     */
-    private List<T> merge(final List<T> one, final List<T> two) {
-        final Set<T> oneSet = new HashSet<>(one);
-        for (T item : two) {
-            if (!oneSet.contains(item)) {
-                one.add(item);
+     * @param seeds seeds array, to which new points are appended
+     * @param nbSeeds number of seeds already in the array
+     * @param seedMark index of the last cluster for which each point was a seed
+     * @param cluster index of the cluster being expanded
+     * @param items indices of the points to merge
+     * @return new number of seeds
+     */
+    private int merge(final int[] seeds, final int nbSeeds, final int[] seedMark,
+                      final int cluster, final int[] items) {
+        int n = nbSeeds;
+        for (final int item : items) {
+            if (seedMark[item] != cluster) {
+                seedMark[item] = cluster;
+                seeds[n++]     = item;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Merges new items into the seeds list.
+     * <p>
+     * The seeds set is kept in sync with the list, so that it is not
+     * rebuilt at each merge.
+     *
+     * @param seeds seeds list, to which new items are appended
+     * @param seedSet set containing the same items as the seeds list
+     * @param items items to merge
+     */
+    private void merge(final List<T> seeds, final Set<T> seedSet, final List<T> items) {
+        for (T item : items) {
+            if (seedSet.add(item)) {
+                seeds.add(item);
             }
         }
-        return one;
     }
 }
@@ -22,6 +22,7 @@
 package org.hipparchus.clustering;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -288,79 +289,157 @@ public class FuzzyKMeansClusterer<T extends Clusterable> extends Clusterer<T> {
         points = Collections.unmodifiableList(new ArrayList<>(dataPoints));
         clusters = new ArrayList<>();
         membershipMatrix = new double[size][k];
-        final double[][] oldMatrix = new double[size][k];
 
         // if no points are provided, return an empty list of clusters
         if (size == 0) {
             return clusters;
         }
 
-        initializeMembershipMatrix();
+        final PackedClustering packed = run(new PackedPoints(points));
 
-        // there is at least one point
-        final int pointDimension = points.get(0).getPoint().length;
-        for (int i = 0; i < k; i++) {
-            clusters.add(new CentroidCluster<T>(new DoublePoint(new double[pointDimension])));
+        // unpack the memberships and clusters
+        final double[] memberships = packed.getMemberships();
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(memberships, i * k, membershipMatrix[i], 0, k);
         }
+        final int      dimension = points.get(0).getPoint().length;
+        final double[] centers   = packed.getCenters();
+        for (int j = 0; j < k; j++) {
+            clusters.add(new CentroidCluster<T>(new DoublePoint(Arrays.copyOfRange(centers,
+                                                                                   j * dimension,
+                                                                                   (j + 1) * dimension))));
+        }
+        final int[] labels = packed.getLabels();
+        for (int i = 0; i < size; i++) {
+            clusters.get(labels[i]).addPoint(points.get(i));
+        }
+
+        return clusters;
+    }
+
+    /**
+     * Performs Fuzzy K-Means cluster analysis on packed points.
+     * <p>
+     * The result is the same as the one of {@link #cluster(Collection)} on a
+     * list of points with the same coordinates, provided the random generator
+     * is in the same state. The labels correspond to the clusters with the
+     * highest membership. This method does not change the data points, clusters
+     * and membership matrix associated with the last call to {@link #cluster(Collection)}.
+     * </p>
+     *
+     * @param dataPoints the points to cluster
+     * @return clustering with one label per point, packed centers and packed memberships
+     * @throws MathIllegalArgumentException if the data points are null or the number
+     *     of clusters is larger than the number of data points
+     * @since 1.7
+     */
+    public PackedClustering clusterPacked(final PackedPoints dataPoints)
+            throws MathIllegalArgumentException {
+
+        // sanity checks
+        MathUtils.checkNotNull(dataPoints);
+
+        // number of clusters has to be smaller or equal the number of data points
+        if (dataPoints.getSize() < k) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL_BOUND_EXCLUDED,
+                                                   dataPoints.getSize(), k);
+        }
+
+        return run(dataPoints);
+
+    }
+
+    /**
+     * Runs the Fuzzy K-Means iterations.
+     *
+     * @param dataPoints the points to cluster
+     * @return clustering with one label per point, packed centers and packed memberships
+     */
+    private PackedClustering run(final PackedPoints dataPoints) {
+
+        final int      size           = dataPoints.getSize();
+        final double[] memberships    = new double[size * k];
+        final double[] oldMemberships = new double[size * k];
+        final double[] centers        = new double[k * dataPoints.getDimension()];
+        final int[]    labels         = new int[size];
+
+        initializeMembershipMatrix(memberships, size);
 
         int iteration = 0;
         final int max = (maxIterations < 0) ? Integer.MAX_VALUE : maxIterations;
         double difference = 0.0;
 
         do {
-            saveMembershipMatrix(oldMatrix);
-            updateClusterCenters();
-            updateMembershipMatrix();
-            difference = calculateMaxMembershipChange(oldMatrix);
+            System.arraycopy(memberships, 0, oldMemberships, 0, memberships.length);
+            updateClusterCenters(dataPoints, memberships, centers);
+            updateMembershipMatrix(dataPoints, centers, memberships, labels);
+            difference = calculateMaxMembershipChange(memberships, oldMemberships);
         } while (difference > epsilon && ++iteration < max);
 
-        return clusters;
+        return new PackedClustering(k, labels, centers, memberships);
+
     }
 
     /**
      * Update the cluster centers.
+     *
+     * @param dataPoints the points to cluster
+     * @param memberships the packed membership matrix
+     * @param centers the packed clusters centers, updated by this method
      */
-    private void updateClusterCenters() {
-        int j = 0;
-        final List<CentroidCluster<T>> newClusters = new ArrayList<>(k);
-        for (final CentroidCluster<T> cluster : clusters) {
-            final Clusterable center = cluster.getCenter();
-            int i = 0;
-            double[] arr = new double[center.getPoint().length];
+    private void updateClusterCenters(final PackedPoints dataPoints, final double[] memberships,
+                                      final double[] centers) {
+        final double[] data      = dataPoints.getData();
+        final int      dimension = dataPoints.getDimension();
+        Arrays.fill(centers, 0.0);
+        for (int j = 0; j < k; j++) {
+            final int offset = j * dimension;
             double sum = 0.0;
-            for (final T point : points) {
-                final double u = FastMath.pow(membershipMatrix[i][j], fuzziness);
-                final double[] pointArr = point.getPoint();
-                for (int idx = 0; idx < arr.length; idx++) {
-                    arr[idx] += u * pointArr[idx];
+            for (int i = 0; i < dataPoints.getSize(); i++) {
+                final double u = FastMath.pow(memberships[i * k + j], fuzziness);
+                final int pointOffset = dataPoints.getOffset(i);
+                for (int idx = 0; idx < dimension; idx++) {
+                    centers[offset + idx] += u * data[pointOffset + idx];
                 }
                 sum += u;
-                i++;
             }
-            MathArrays.scaleInPlace(1.0 / sum, arr);
-            newClusters.add(new CentroidCluster<T>(new DoublePoint(arr)));
-            j++;
+            final double scale = 1.0 / sum;
+            for (int idx = 0; idx < dimension; idx++) {
+                centers[offset + idx] *= scale;
+            }
         }
-        clusters.clear();
-        clusters = newClusters;
     }
 
     /**
      * Updates the membership matrix and assigns the points to the cluster with
      * the highest membership.
+     *
+     * @param dataPoints the points to cluster
+     * @param centers the packed clusters centers
+     * @param memberships the packed membership matrix, updated by this method
+     * @param labels the index of the cluster with highest membership for each point,
+     * updated by this method
      */
-    private void updateMembershipMatrix() {
-        for (int i = 0; i < points.size(); i++) {
-            final T point = points.get(i);
+    private void updateMembershipMatrix(final PackedPoints dataPoints, final double[] centers,
+                                        final double[] memberships, final int[] labels) {
+        final int      dimension = dataPoints.getDimension();
+        final double[] distances = new double[k];
+        for (int i = 0; i < dataPoints.getSize(); i++) {
+
+            // the distances to all centers are used k times, compute them only once
+            for (int j = 0; j < k; j++) {
+                distances[j] = FastMath.abs(distance(dataPoints.getData(), dataPoints.getOffset(i),
+                                                     centers, j * dimension, dimension));
+            }
+
             double maxMembership = Double.MIN_VALUE;
             int newCluster = -1;
-            for (int j = 0; j < clusters.size(); j++) {
+            for (int j = 0; j < k; j++) {
                 double sum = 0.0;
-                final double distA = FastMath.abs(distance(point, clusters.get(j).getCenter()));
+                final double distA = distances[j];
 
                 if (distA != 0.0) {
-                    for (final CentroidCluster<T> c : clusters) {
-                        final double distB = FastMath.abs(distance(point, c.getCenter()));
+                    for (final double distB : distances) {
                         if (distB == 0.0) {
                             sum = Double.POSITIVE_INFINITY;
                             break;
@@ -377,26 +456,30 @@ public class FuzzyKMeansClusterer<T extends Clusterable> extends Clusterer<T> {
                 } else {
                     membership = 1.0 / sum;
                 }
-                membershipMatrix[i][j] = membership;
+                memberships[i * k + j] = membership;
 
-                if (membershipMatrix[i][j] > maxMembership) {
-                    maxMembership = membershipMatrix[i][j];
+                if (membership > maxMembership) {
+                    maxMembership = membership;
                     newCluster = j;
                 }
             }
-            clusters.get(newCluster).addPoint(point);
+            labels[i] = newCluster;
         }
     }
 
     /**
      * Initialize the membership matrix with random values.
+     *
+     * @param memberships the packed membership matrix to initialize
+     * @param size number of points
      */
-    private void initializeMembershipMatrix() {
-        for (int i = 0; i < points.size(); i++) {
+    private void initializeMembershipMatrix(final double[] memberships, final int size) {
+        final double[] row = new double[k];
+        for (int i = 0; i < size; i++) {
             for (int j = 0; j < k; j++) {
-                membershipMatrix[i][j] = random.nextDouble();
+                row[j] = random.nextDouble();
             }
-            membershipMatrix[i] = MathArrays.normalizeArray(membershipMatrix[i], 1.0);
+            System.arraycopy(MathArrays.normalizeArray(row, 1.0), 0, memberships, i * k, k);
         }
     }
 
@@ -404,29 +487,17 @@ public class FuzzyKMeansClusterer<T extends Clusterable> extends Clusterer<T> {
      * Calculate the maximum element-by-element change of the membership matrix
      * for the current iteration.
      *
-     * @param matrix the membership matrix of the previous iteration
+     * @param memberships the packed membership matrix
+     * @param oldMemberships the packed membership matrix of the previous iteration
      * @return the maximum membership matrix change
      */
-    private double calculateMaxMembershipChange(final double[][] matrix) {
+    private double calculateMaxMembershipChange(final double[] memberships, final double[] oldMemberships) {
         double maxMembership = 0.0;
-        for (int i = 0; i < points.size(); i++) {
-            for (int j = 0; j < clusters.size(); j++) {
-                double v = FastMath.abs(membershipMatrix[i][j] - matrix[i][j]);
-                maxMembership = FastMath.max(v, maxMembership);
-            }
+        for (int i = 0; i < memberships.length; i++) {
+            double v = FastMath.abs(memberships[i] - oldMemberships[i]);
+            maxMembership = FastMath.max(v, maxMembership);
         }
         return maxMembership;
     }
 
-    /**
-     * Copy the membership matrix into the provided matrix.
-     *
-     * @param matrix the place to store the membership matrix
-     */
-    private void saveMembershipMatrix(final double[][] matrix) {
-        for (int i = 0; i < points.size(); i++) {
-            System.arraycopy(membershipMatrix[i], 0, matrix[i], 0, clusters.size());
-        }
-    }
-
 }
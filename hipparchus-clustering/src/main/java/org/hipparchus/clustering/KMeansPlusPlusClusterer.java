@@ -23,9 +23,11 @@
 package org.hipparchus.clustering;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.hipparchus.clustering.distance.DistanceMeasure;
 import org.hipparchus.clustering.distance.EuclideanDistance;
@@ -35,6 +37,7 @@ import org.hipparchus.exception.MathIllegalStateException;
 import org.hipparchus.random.JDKRandomGenerator;
 import org.hipparchus.random.RandomGenerator;
 import org.hipparchus.stat.descriptive.moment.Variance;
+import org.hipparchus.util.FastMath;
 import org.hipparchus.util.MathUtils;
 
 /**
@@ -61,6 +64,37 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
 
     }
 
+    /** Strategies to use for assigning points to their nearest cluster.
+     * @since 1.7
+     */
+    public enum AssignmentStrategy {
+
+        /** Compute the distances from each point to all centers at each iteration. */
+        EXHAUSTIVE,
+
+        /** Use Hamerly's upper and lower distance bounds to skip distance computations.
+         * <p>
+         * The bounds are updated using the displacement of the centers between
+         * iterations, and a point is only compared to all centers when the
+         * bounds cannot prove its assignment is unchanged. This relies on the
+         * triangle inequality, so the distance measure must be a metric (which
+         * is the case of all measures in the {@link org.hipparchus.clustering.distance
+         * distance} package). Assignments are the same as with {@link #EXHAUSTIVE},
+         * except for points exactly equidistant to several centers.
+         * </p>
+         * @see <a href="https://epubs.siam.org/doi/abs/10.1137/1.9781611972801.12">G. Hamerly,
+         * Making k-means even faster, SIAM International Conference on Data Mining, 2010</a>
+         */
+        HAMERLY_BOUNDS
+
+    }
+
+    /** Minimum number of points per task in parallel assignment. */
+    private static final int MIN_POINTS_PER_TASK = 1024;
+
+    /** Number of tasks per pool thread in parallel assignment. */
+    private static final int TASKS_PER_THREAD = 4;
+
     /** The number of clusters. */
     private final int k;
 
@@ -73,6 +107,16 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
     /** Selected strategy for empty clusters. */
     private final EmptyClusterStrategy emptyStrategy;
 
+    /** Selected strategy for points assignment.
+     * @since 1.7
+     */
+    private final AssignmentStrategy assignmentStrategy;
+
+    /** Pool for parallel points assignment (null for sequential assignment).
+     * @since 1.7
+     */
+    private final ForkJoinPool pool;
+
     /** Build a clusterer.
      * <p>
      * The default strategy for handling empty clusters that may appear during
@@ -146,11 +190,42 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
                                    final DistanceMeasure measure,
                                    final RandomGenerator random,
                                    final EmptyClusterStrategy emptyStrategy) {
+        this(k, maxIterations, measure, random, emptyStrategy, AssignmentStrategy.EXHAUSTIVE, null);
+    }
+
+    /** Build a clusterer.
+     * <p>
+     * If a pool is provided, the points are split in several partitions
+     * that are assigned to their nearest clusters concurrently. In this
+     * case the distance measure must be thread-safe. The resulting clusters
+     * do not depend on the pool.
+     * </p>
+     *
+     * @param k the number of clusters to split the data into
+     * @param maxIterations the maximum number of iterations to run the algorithm for.
+     *   If negative, no maximum will be used.
+     * @param measure the distance measure to use
+     * @param random random generator to use for choosing initial centers
+     * @param emptyStrategy strategy to use for handling empty clusters that
+     * may appear during algorithm iterations
+     * @param assignmentStrategy strategy to use for assigning points to clusters
+     * @param pool pool to use for parallel points assignment
+     * (may be null for sequential assignment)
+     * @since 1.7
+     */
+    public KMeansPlusPlusClusterer(final int k, final int maxIterations,
+                                   final DistanceMeasure measure,
+                                   final RandomGenerator random,
+                                   final EmptyClusterStrategy emptyStrategy,
+                                   final AssignmentStrategy assignmentStrategy,
+                                   final ForkJoinPool pool) {
         super(measure);
-        this.k             = k;
-        this.maxIterations = maxIterations;
-        this.random        = random;
-        this.emptyStrategy = emptyStrategy;
+        this.k                  = k;
+        this.maxIterations      = maxIterations;
+        this.random             = random;
+        this.emptyStrategy      = emptyStrategy;
+        this.assignmentStrategy = assignmentStrategy;
+        this.pool               = pool;
     }
 
     /**
@@ -185,6 +260,24 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
         return emptyStrategy;
     }
 
+    /**
+     * Returns the {@link AssignmentStrategy} used by this instance.
+     * @return the {@link AssignmentStrategy}
+     * @since 1.7
+     */
+    public AssignmentStrategy getAssignmentStrategy() {
+        return assignmentStrategy;
+    }
+
+    /**
+     * Returns the pool used for parallel points assignment.
+     * @return pool used for parallel points assignment (null for sequential assignment)
+     * @since 1.7
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
     /**
      * Runs the K-means++ clustering algorithm.
      *
@@ -208,129 +301,253 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
                                                    points.size(), k);
         }
 
-        // create the initial clusters
-        List<CentroidCluster<T>> clusters = chooseInitialCenters(points);
+        // convert to list for indexed access and pack the coordinates
+        final List<T> pointList = new ArrayList<>(points);
+        final int[] sources = new int[k];
+        final PackedClustering packed = run(new PackedPoints(pointList), sources);
+
+        // build the clusters, initial centers and replacements
+        // for empty clusters are taken from the data points
+        final int dimension = pointList.get(0).getPoint().length;
+        final List<CentroidCluster<T>> clusters = new ArrayList<>(k);
+        for (int j = 0; j < k; ++j) {
+            final Clusterable center;
+            if (sources[j] >= 0) {
+                center = pointList.get(sources[j]);
+            } else {
+                center = new DoublePoint(Arrays.copyOfRange(packed.getCenters(),
+                                                            j * dimension, (j + 1) * dimension));
+            }
+            clusters.add(new CentroidCluster<T>(center));
+        }
+        final int[] labels = packed.getLabels();
+        for (int i = 0; i < labels.length; ++i) {
+            clusters.get(labels[i]).addPoint(pointList.get(i));
+        }
+
+        return clusters;
+
+    }
+
+    /**
+     * Runs the K-means++ clustering algorithm on packed points.
+     * <p>
+     * The result is the same as the one of {@link #cluster(Collection)} on a
+     * list of points with the same coordinates, provided the random generator
+     * is in the same state.
+     * </p>
+     *
+     * @param points the points to cluster
+     * @return clustering with one label per point and packed centers
+     * @throws MathIllegalArgumentException if the data points are null or the number
+     *     of clusters is larger than the number of data points
+     * @throws MathIllegalStateException if an empty cluster is encountered and the
+     * {@link #emptyStrategy} is set to {@code ERROR}
+     * @since 1.7
+     */
+    public PackedClustering clusterPacked(final PackedPoints points)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+
+        // sanity checks
+        MathUtils.checkNotNull(points);
+
+        // number of clusters has to be smaller or equal the number of data points
+        if (points.getSize() < k) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL_BOUND_EXCLUDED,
+                                                   points.getSize(), k);
+        }
+
+        return run(points, new int[k]);
+
+    }
+
+    /**
+     * Runs the K-means++ iterations.
+     *
+     * @param points the points to cluster
+     * @param sources placeholder for the indices of the points used as centers
+     * (-1 for centers computed as centroids)
+     * @return clustering with one label per point and packed centers
+     * @throws MathIllegalStateException if an empty cluster is encountered and the
+     * {@link #emptyStrategy} is set to {@code ERROR}
+     */
+    private PackedClustering run(final PackedPoints points, final int[] sources)
+        throws MathIllegalStateException {
+
+        final int dimension = points.getDimension();
+
+        // create the initial centers
+        double[] centers = chooseInitialCenters(points, sources);
 
         // create an array containing the latest assignment of a point to a cluster
         // no need to initialize the array, as it will be filled with the first assignment
-        int[] assignments = new int[points.size()];
-        assignPointsToClusters(clusters, points, assignments);
+        final int[] assignments = new int[points.getSize()];
+        final Bounds bounds = (assignmentStrategy == AssignmentStrategy.HAMERLY_BOUNDS) ?
+                              new Bounds(points.getSize()) : null;
+        assignPointsToClusters(points, centers, null, assignments, bounds);
 
         // iterate through updating the centers until we're done
         final int max = (maxIterations < 0) ? Integer.MAX_VALUE : maxIterations;
         for (int count = 0; count < max; count++) {
             boolean emptyCluster = false;
-            List<CentroidCluster<T>> newClusters = new ArrayList<>();
-            for (final CentroidCluster<T> cluster : clusters) {
-                final Clusterable newCenter;
-                if (cluster.getPoints().isEmpty()) {
+            final Members members = new Members(assignments);
+            final double[] newCenters = new double[k * dimension];
+            for (int j = 0; j < k; ++j) {
+                if (members.size(j) == 0) {
+                    final int selected;
                     switch (emptyStrategy) {
                         case LARGEST_VARIANCE :
-                            newCenter = getPointFromLargestVarianceCluster(clusters);
+                            selected = getPointFromLargestVarianceCluster(points, centers, members);
                             break;
                         case LARGEST_POINTS_NUMBER :
-                            newCenter = getPointFromLargestNumberCluster(clusters);
+                            selected = getPointFromLargestNumberCluster(members);
                             break;
                         case FARTHEST_POINT :
-                            newCenter = getFarthestPoint(clusters);
+                            selected = getFarthestPoint(points, centers, members);
                             break;
                         default :
                             throw new MathIllegalStateException(LocalizedClusteringFormats.EMPTY_CLUSTER_IN_K_MEANS);
                     }
+                    System.arraycopy(points.getData(), points.getOffset(selected),
+                                     newCenters, j * dimension, dimension);
+                    sources[j] = selected;
                     emptyCluster = true;
                 } else {
-                    newCenter = centroidOf(cluster.getPoints(), cluster.getCenter().getPoint().length);
+                    centroidOf(points, members, j, newCenters);
+                    sources[j] = -1;
                 }
-                newClusters.add(new CentroidCluster<T>(newCenter));
             }
-            int changes = assignPointsToClusters(newClusters, points, assignments);
-            clusters = newClusters;
+            int changes = assignPointsToClusters(points, newCenters, centers, assignments, bounds);
+            centers = newCenters;
 
             // if there were no more changes in the point-to-cluster assignment
             // and there are no empty clusters left, return the current clusters
             if (changes == 0 && !emptyCluster) {
-                return clusters;
+                break;
             }
         }
-        return clusters;
+
+        return new PackedClustering(k, assignments, centers, null);
+
     }
 
     /**
-     * Adds the given points to the closest {@link Cluster}.
+     * Assigns the given points to the closest cluster.
      *
-     * @param clusters the {@link Cluster}s to add the points to
-     * @param points the points to add to the given {@link Cluster}s
-     * @param assignments points assignments to clusters
+     * @param points the points to assign
+     * @param centers the packed clusters centers
+     * @param previous the packed clusters centers from previous iteration (null at first iteration)
+     * @param assignments points assignments to clusters, updated by this method
+     * @param bounds distance bounds (null if {@link AssignmentStrategy#EXHAUSTIVE}
+     * strategy is used)
      * @return the number of points assigned to different clusters as the iteration before
      */
-    private int assignPointsToClusters(final List<CentroidCluster<T>> clusters,
-                                       final Collection<T> points,
-                                       final int[] assignments) {
+    private int assignPointsToClusters(final PackedPoints points,
+                                       final double[] centers,
+                                       final double[] previous,
+                                       final int[] assignments,
+                                       final Bounds bounds) {
+
+        if (bounds != null) {
+            bounds.updateCenters(points.getDimension(), centers, previous);
+        }
+
+        // find the nearest cluster of each point, possibly in parallel
+        final int   size    = points.getSize();
+        final int[] nearest = new int[size];
+        final int nbTasks = (pool == null) ?
+                            1 :
+                            FastMath.min(size / MIN_POINTS_PER_TASK,
+                                         TASKS_PER_THREAD * pool.getParallelism());
+        if (nbTasks < 2) {
+            findNearestClusters(points, centers, assignments, bounds, nearest, 0, size);
+        } else {
+            final List<ForkJoinTask<?>> tasks = new ArrayList<>(nbTasks);
+            for (int t = 0; t < nbTasks; ++t) {
+                final int from = (int) (((long) t * size) / nbTasks);
+                final int to   = (int) (((long) (t + 1) * size) / nbTasks);
+                tasks.add(pool.submit(() ->
+                    findNearestClusters(points, centers, assignments, bounds, nearest, from, to)));
+            }
+            for (final ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        }
+
+        // update the assignments
         int assignedDifferently = 0;
-        int pointIndex = 0;
-        for (final T p : points) {
-            int clusterIndex = getNearestCluster(clusters, p);
-            if (clusterIndex != assignments[pointIndex]) {
+        for (int i = 0; i < size; ++i) {
+            if (nearest[i] != assignments[i]) {
                 assignedDifferently++;
             }
-
-            CentroidCluster<T> cluster = clusters.get(clusterIndex);
-            cluster.addPoint(p);
-            assignments[pointIndex++] = clusterIndex;
+            assignments[i] = nearest[i];
         }
 
         return assignedDifferently;
     }
 
+    /**
+     * Find the nearest cluster of a range of points.
+     *
+     * @param points the points to assign
+     * @param centers the packed clusters centers
+     * @param assignments points assignments to clusters at previous iteration
+     * @param bounds distance bounds (null if {@link AssignmentStrategy#EXHAUSTIVE}
+     * strategy is used)
+     * @param nearest placeholder for the index of the nearest cluster of each point
+     * @param from index of the first point to assign (inclusive)
+     * @param to index of the last point to assign (exclusive)
+     */
+    private void findNearestClusters(final PackedPoints points, final double[] centers,
+                                     final int[] assignments, final Bounds bounds,
+                                     final int[] nearest, final int from, final int to) {
+        for (int i = from; i < to; ++i) {
+            nearest[i] = (bounds == null) ?
+                         getNearestCluster(points, i, centers) :
+                         bounds.getNearestCluster(points, i, centers, assignments[i]);
+        }
+    }
+
     /**
      * Use K-means++ to choose the initial centers.
      *
      * @param points the points to choose the initial centers from
-     * @return the initial centers
+     * @param sources placeholder for the indices of the points used as centers
+     * @return the packed initial centers
      */
-    private List<CentroidCluster<T>> chooseInitialCenters(final Collection<T> points) {
-
-        // Convert to list for indexed access. Make it unmodifiable, since removal of items
-        // would screw up the logic of this method.
-        final List<T> pointList = Collections.unmodifiableList(new ArrayList<T> (points));
+    private double[] chooseInitialCenters(final PackedPoints points, final int[] sources) {
 
         // The number of points in the list.
-        final int numPoints = pointList.size();
+        final int numPoints = points.getSize();
 
         // Set the corresponding element in this array to indicate when
-        // elements of pointList are no longer available.
+        // points are no longer available.
         final boolean[] taken = new boolean[numPoints];
 
-        // The resulting list of initial centers.
-        final List<CentroidCluster<T>> resultSet = new ArrayList<>();
-
         // Choose one center uniformly at random from among the data points.
         final int firstPointIndex = random.nextInt(numPoints);
-
-        final T firstPoint = pointList.get(firstPointIndex);
-
-        resultSet.add(new CentroidCluster<T>(firstPoint));
+        int nbCenters = 0;
+        sources[nbCenters++] = firstPointIndex;
 
         // Must mark it as taken
         taken[firstPointIndex] = true;
 
-        // To keep track of the minimum distance squared of elements of
-        // pointList to elements of resultSet.
+        // To keep track of the minimum distance squared of points
+        // to already selected centers.
         final double[] minDistSquared = new double[numPoints];
 
-        // Initialize the elements.  Since the only point in resultSet is firstPoint,
+        // Initialize the elements.  Since the only center is the first point,
         // this is very easy.
         for (int i = 0; i < numPoints; i++) {
             if (i != firstPointIndex) { // That point isn't considered
-                double d = distance(firstPoint, pointList.get(i));
+                double d = distance(points, firstPointIndex, i);
                 minDistSquared[i] = d*d;
             }
         }
 
-        while (resultSet.size() < k) {
+        while (nbCenters < k) {
 
-            // Sum up the squared distances for the points in pointList not
-            // already taken.
+            // Sum up the squared distances for the points not already taken.
             double distSqSum = 0.0;
 
             for (int i = 0; i < numPoints; i++) {
@@ -343,7 +560,7 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
             // probability proportional to D(x)2
             final double r = random.nextDouble() * distSqSum;
 
-            // The index of the next point to be added to the resultSet.
+            // The index of the next point to be added as a center.
             int nextPointIndex = -1;
 
             // Sum through the squared min distances again, stopping when
@@ -361,7 +578,8 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
 
             // If it's not set to >= 0, the point wasn't found in the previous
             // for loop, probably because distances are extremely small.  Just pick
-            // the last available point.
+            // the last available point. As there are at least k points, one is
+            // always available.
             if (nextPointIndex == -1) {
                 for (int i = numPoints - 1; i >= 0; i--) {
                     if (!taken[i]) {
@@ -372,198 +590,409 @@ public class KMeansPlusPlusClusterer<T extends Clusterable> extends Clusterer<T>
             }
 
             // We found one.
-            if (nextPointIndex >= 0) {
-
-                final T p = pointList.get(nextPointIndex);
-
-                resultSet.add(new CentroidCluster<T> (p));
-
-                // Mark it as taken.
-                taken[nextPointIndex] = true;
-
-                if (resultSet.size() < k) {
-                    // Now update elements of minDistSquared.  We only have to compute
-                    // the distance to the new center to do this.
-                    for (int j = 0; j < numPoints; j++) {
-                        // Only have to worry about the points still not taken.
-                        if (!taken[j]) {
-                            double d = distance(p, pointList.get(j));
-                            double d2 = d * d;
-                            if (d2 < minDistSquared[j]) {
-                                minDistSquared[j] = d2;
-                            }
+            sources[nbCenters++] = nextPointIndex;
+
+            // Mark it as taken.
+            taken[nextPointIndex] = true;
+
+            if (nbCenters < k) {
+                // Now update elements of minDistSquared.  We only have to compute
+                // the distance to the new center to do this.
+                for (int j = 0; j < numPoints; j++) {
+                    // Only have to worry about the points still not taken.
+                    if (!taken[j]) {
+                        double d = distance(points, nextPointIndex, j);
+                        double d2 = d * d;
+                        if (d2 < minDistSquared[j]) {
+                            minDistSquared[j] = d2;
                         }
                     }
                 }
-
-            } else {
-                // None found --
-                // Break from the while loop to prevent
-                // an infinite loop.
-                break;
             }
+
+        }
+
+        // pack the centers
+        final int dimension = points.getDimension();
+        final double[] centers = new double[k * dimension];
+        for (int j = 0; j < k; ++j) {
+            System.arraycopy(points.getData(), points.getOffset(sources[j]), centers, j * dimension, dimension);
         }
+        return centers;
 
-        return resultSet;
     }
 
     /**
-     * Get a random point from the {@link Cluster} with the largest distance variance.
+     * Get a random point from the cluster with the largest distance variance.
      *
-     * @param clusters the {@link Cluster}s to search
-     * @return a random point from the selected cluster
+     * @param points the points to cluster
+     * @param centers the packed clusters centers
+     * @param members the clusters members
+     * @return index of a random point from the selected cluster, removed from the cluster
      * @throws MathIllegalStateException if clusters are all empty
      */
-    private T getPointFromLargestVarianceCluster(final Collection<CentroidCluster<T>> clusters)
+    private int getPointFromLargestVarianceCluster(final PackedPoints points, final double[] centers,
+                                                   final Members members)
             throws MathIllegalStateException {
 
         double maxVariance = Double.NEGATIVE_INFINITY;
-        Cluster<T> selected = null;
-        for (final CentroidCluster<T> cluster : clusters) {
-            if (!cluster.getPoints().isEmpty()) {
+        int selected = -1;
+        for (int j = 0; j < k; ++j) {
+            if (members.size(j) > 0) {
 
                 // compute the distance variance of the current cluster
-                final Clusterable center = cluster.getCenter();
                 final Variance stat = new Variance();
-                for (final T point : cluster.getPoints()) {
-                    stat.increment(distance(point, center));
+                for (int r = 0; r < members.size(j); ++r) {
+                    stat.increment(distance(points, members.get(j, r), centers, j));
                 }
                 final double variance = stat.getResult();
 
                 // select the cluster with the largest variance
                 if (variance > maxVariance) {
                     maxVariance = variance;
-                    selected = cluster;
+                    selected = j;
                 }
 
             }
         }
 
         // did we find at least one non-empty cluster ?
-        if (selected == null) {
+        if (selected < 0) {
             throw new MathIllegalStateException(LocalizedClusteringFormats.EMPTY_CLUSTER_IN_K_MEANS);
         }
 
         // extract a random point from the cluster
-        final List<T> selectedPoints = selected.getPoints();
-        return selectedPoints.remove(random.nextInt(selectedPoints.size()));
+        return members.remove(selected, random.nextInt(members.size(selected)));
 
     }
 
     /**
-     * Get a random point from the {@link Cluster} with the largest number of points
+     * Get a random point from the cluster with the largest number of points
      *
-     * @param clusters the {@link Cluster}s to search
-     * @return a random point from the selected cluster
+     * @param members the clusters members
+     * @return index of a random point from the selected cluster, removed from the cluster
      * @throws MathIllegalStateException if clusters are all empty
      */
-    private T getPointFromLargestNumberCluster(final Collection<? extends Cluster<T>> clusters)
+    private int getPointFromLargestNumberCluster(final Members members)
             throws MathIllegalStateException {
 
         int maxNumber = 0;
-        Cluster<T> selected = null;
-        for (final Cluster<T> cluster : clusters) {
+        int selected = -1;
+        for (int j = 0; j < k; ++j) {
 
             // get the number of points of the current cluster
-            final int number = cluster.getPoints().size();
+            final int number = members.size(j);
 
             // select the cluster with the largest number of points
             if (number > maxNumber) {
                 maxNumber = number;
-                selected = cluster;
+                selected = j;
             }
 
         }
 
         // did we find at least one non-empty cluster ?
-        if (selected == null) {
+        if (selected < 0) {
             throw new MathIllegalStateException(LocalizedClusteringFormats.EMPTY_CLUSTER_IN_K_MEANS);
         }
 
         // extract a random point from the cluster
-        final List<T> selectedPoints = selected.getPoints();
-        return selectedPoints.remove(random.nextInt(selectedPoints.size()));
+        return members.remove(selected, random.nextInt(members.size(selected)));
 
     }
 
     /**
      * Get the point farthest to its cluster center
      *
-     * @param clusters the {@link Cluster}s to search
-     * @return point farthest to its cluster center
+     * @param points the points to cluster
+     * @param centers the packed clusters centers
+     * @param members the clusters members
+     * @return index of the point farthest to its cluster center, removed from its cluster
      * @throws MathIllegalStateException if clusters are all empty
      */
-    private T getFarthestPoint(final Collection<CentroidCluster<T>> clusters) throws MathIllegalStateException {
+    private int getFarthestPoint(final PackedPoints points, final double[] centers,
+                                 final Members members)
+        throws MathIllegalStateException {
 
         double maxDistance = Double.NEGATIVE_INFINITY;
-        Cluster<T> selectedCluster = null;
+        int selectedCluster = -1;
         int selectedPoint = -1;
-        for (final CentroidCluster<T> cluster : clusters) {
+        for (int j = 0; j < k; ++j) {
 
             // get the farthest point
-            final Clusterable center = cluster.getCenter();
-            final List<T> points = cluster.getPoints();
-            for (int i = 0; i < points.size(); ++i) {
-                final double distance = distance(points.get(i), center);
+            for (int r = 0; r < members.size(j); ++r) {
+                final double distance = distance(points, members.get(j, r), centers, j);
                 if (distance > maxDistance) {
                     maxDistance     = distance;
-                    selectedCluster = cluster;
-                    selectedPoint   = i;
+                    selectedCluster = j;
+                    selectedPoint   = r;
                 }
             }
 
         }
 
         // did we find at least one non-empty cluster ?
-        if (selectedCluster == null) {
+        if (selectedCluster < 0) {
             throw new MathIllegalStateException(LocalizedClusteringFormats.EMPTY_CLUSTER_IN_K_MEANS);
         }
 
-        return selectedCluster.getPoints().remove(selectedPoint);
+        return members.remove(selectedCluster, selectedPoint);
 
     }
 
     /**
-     * Returns the nearest {@link Cluster} to the given point
+     * Returns the nearest cluster to the given point
      *
-     * @param clusters the {@link Cluster}s to search
-     * @param point the point to find the nearest {@link Cluster} for
-     * @return the index of the nearest {@link Cluster} to the given point
+     * @param points the points to cluster
+     * @param i index of the point to find the nearest cluster for
+     * @param centers the packed clusters centers
+     * @return the index of the nearest cluster to the given point
      */
-    private int getNearestCluster(final Collection<CentroidCluster<T>> clusters, final T point) {
+    private int getNearestCluster(final PackedPoints points, final int i, final double[] centers) {
         double minDistance = Double.MAX_VALUE;
-        int clusterIndex = 0;
         int minCluster = 0;
-        for (final CentroidCluster<T> c : clusters) {
-            final double distance = distance(point, c.getCenter());
+        for (int clusterIndex = 0; clusterIndex < k; ++clusterIndex) {
+            final double distance = distance(points, i, centers, clusterIndex);
             if (distance < minDistance) {
                 minDistance = distance;
                 minCluster = clusterIndex;
             }
-            clusterIndex++;
         }
         return minCluster;
     }
 
     /**
-     * Computes the centroid for a set of points.
+     * Computes the centroid of a cluster.
      *
-     * @param points the set of points
-     * @param dimension the point dimension
-     * @return the computed centroid for the set of points
+     * @param points the points to cluster
+     * @param members the clusters members
+     * @param j index of the cluster
+     * @param centers the packed clusters centers, where centroid will be stored
      */
-    private Clusterable centroidOf(final Collection<T> points, final int dimension) {
-        final double[] centroid = new double[dimension];
-        for (final T p : points) {
-            final double[] point = p.getPoint();
-            for (int i = 0; i < centroid.length; i++) {
-                centroid[i] += point[i];
+    private void centroidOf(final PackedPoints points, final Members members,
+                            final int j, final double[] centers) {
+        final double[] data      = points.getData();
+        final int      dimension = points.getDimension();
+        final int      offset    = j * dimension;
+        for (int r = 0; r < members.size(j); ++r) {
+            final int pointOffset = points.getOffset(members.get(j, r));
+            for (int i = 0; i < dimension; i++) {
+                centers[offset + i] += data[pointOffset + i];
             }
         }
-        for (int i = 0; i < centroid.length; i++) {
-            centroid[i] /= points.size();
+        for (int i = 0; i < dimension; i++) {
+            centers[offset + i] /= members.size(j);
         }
-        return new DoublePoint(centroid);
+    }
+
+    /**
+     * Calculates the distance between two points.
+     *
+     * @param points the points to cluster
+     * @param i1 index of the first point
+     * @param i2 index of the second point
+     * @return the distance between the two points
+     */
+    private double distance(final PackedPoints points, final int i1, final int i2) {
+        return distance(points.getData(), points.getOffset(i1),
+                        points.getData(), points.getOffset(i2),
+                        points.getDimension());
+    }
+
+    /**
+     * Calculates the distance between a point and a cluster center.
+     *
+     * @param points the points to cluster
+     * @param i index of the point
+     * @param centers the packed clusters centers
+     * @param j index of the cluster
+     * @return the distance between the point and the cluster center
+     */
+    private double distance(final PackedPoints points, final int i, final double[] centers, final int j) {
+        return distance(points.getData(), points.getOffset(i),
+                        centers, j * points.getDimension(),
+                        points.getDimension());
+    }
+
+    /** Members of all clusters, as points indices in increasing order. */
+    private class Members {
+
+        /** Indices of the points belonging to each cluster. */
+        private final int[][] indices;
+
+        /** Number of points in each cluster. */
+        private final int[] sizes;
+
+        /** Simple constructor.
+         * @param assignments points assignments to clusters
+         */
+        Members(final int[] assignments) {
+            sizes = new int[k];
+            for (final int assignment : assignments) {
+                ++sizes[assignment];
+            }
+            indices = new int[k][];
+            for (int j = 0; j < k; ++j) {
+                indices[j] = new int[sizes[j]];
+                sizes[j]   = 0;
+            }
+            for (int i = 0; i < assignments.length; ++i) {
+                final int j = assignments[i];
+                indices[j][sizes[j]++] = i;
+            }
+        }
+
+        /** Get the number of points in a cluster.
+         * @param j index of the cluster
+         * @return number of points in cluster {@code j}
+         */
+        int size(final int j) {
+            return sizes[j];
+        }
+
+        /** Get the index of one point in a cluster.
+         * @param j index of the cluster
+         * @param r rank of the point in the cluster
+         * @return index of the point
+         */
+        int get(final int j, final int r) {
+            return indices[j][r];
+        }
+
+        /** Remove one point from a cluster.
+         * @param j index of the cluster
+         * @param r rank of the point in the cluster
+         * @return index of the removed point
+         */
+        int remove(final int j, final int r) {
+            final int removed = indices[j][r];
+            System.arraycopy(indices[j], r + 1, indices[j], r, sizes[j] - r - 1);
+            --sizes[j];
+            return removed;
+        }
+
+    }
+
+    /** Distance bounds for Hamerly's algorithm. */
+    private class Bounds {
+
+        /** Upper bounds of the distances between points and their assigned centers. */
+        private final double[] upper;
+
+        /** Lower bounds of the distances between points and their second closest centers. */
+        private final double[] lower;
+
+        /** Half distance from each center to its closest other center. */
+        private double[] halfSeparation;
+
+        /** Distance traveled by each center since previous iteration. */
+        private double[] moves;
+
+        /** Index of the center that traveled the most. */
+        private int maxMoveIndex;
+
+        /** Largest distance traveled by a center. */
+        private double maxMove;
+
+        /** Second largest distance traveled by a center. */
+        private double secondMaxMove;
+
+        /** Simple constructor.
+         * @param n number of points
+         */
+        Bounds(final int n) {
+            this.upper = new double[n];
+            this.lower = new double[n];
+        }
+
+        /** Update centers related data.
+         * @param dimension dimension of the points
+         * @param centers new packed centers
+         * @param previous packed centers from previous iteration (null at first iteration)
+         */
+        void updateCenters(final int dimension, final double[] centers, final double[] previous) {
+
+            halfSeparation = new double[k];
+            for (int j = 0; j < k; ++j) {
+                double min = Double.POSITIVE_INFINITY;
+                for (int l = 0; l < k; ++l) {
+                    if (l != j) {
+                        min = FastMath.min(min, distance(centers, j * dimension,
+                                                         centers, l * dimension,
+                                                         dimension));
+                    }
+                }
+                halfSeparation[j] = 0.5 * min;
+            }
+
+            moves         = null;
+            maxMoveIndex  = -1;
+            maxMove       = 0;
+            secondMaxMove = 0;
+            if (previous != null) {
+                moves = new double[k];
+                for (int j = 0; j < k; ++j) {
+                    moves[j] = distance(previous, j * dimension, centers, j * dimension, dimension);
+                    if (moves[j] > maxMove) {
+                        secondMaxMove = maxMove;
+                        maxMove       = moves[j];
+                        maxMoveIndex  = j;
+                    } else if (moves[j] > secondMaxMove) {
+                        secondMaxMove = moves[j];
+                    }
+                }
+            }
+
+        }
+
+        /** Get the nearest cluster of a point, updating its bounds.
+         * @param points the points to cluster
+         * @param i index of the point
+         * @param centers the packed clusters centers
+         * @param assigned index of the cluster the point was assigned to at previous iteration
+         * @return index of the nearest cluster
+         */
+        int getNearestCluster(final PackedPoints points, final int i,
+                              final double[] centers, final int assigned) {
+
+            if (moves != null) {
+                // shift the bounds according to centers displacements
+                upper[i] += moves[assigned];
+                lower[i] -= (assigned == maxMoveIndex) ? secondMaxMove : maxMove;
+
+                final double threshold = FastMath.max(lower[i], halfSeparation[assigned]);
+                if (upper[i] <= threshold) {
+                    // no other center can be closer
+                    return assigned;
+                }
+
+                // tighten the upper bound and check again
+                upper[i] = distance(points, i, centers, assigned);
+                if (upper[i] <= threshold) {
+                    return assigned;
+                }
+            }
+
+            // the bounds are not sufficient, we need to check all centers
+            double minDistance       = Double.MAX_VALUE;
+            double secondMinDistance = Double.POSITIVE_INFINITY;
+            int    minCluster        = 0;
+            for (int j = 0; j < k; ++j) {
+                final double distance = distance(points, i, centers, j);
+                if (distance < minDistance) {
+                    secondMinDistance = minDistance;
+                    minDistance       = distance;
+                    minCluster        = j;
+                } else if (distance < secondMinDistance) {
+                    secondMinDistance = distance;
+                }
+            }
+            upper[i] = minDistance;
+            lower[i] = secondMinDistance;
+            return minCluster;
+
+        }
+
     }
 
 }
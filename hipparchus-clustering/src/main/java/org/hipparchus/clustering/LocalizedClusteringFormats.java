@@ -47,7 +47,10 @@ public enum LocalizedClusteringFormats implements Localizable {
     // CHECKSTYLE: stop MultipleVariableDeclarations
     // CHECKSTYLE: stop JavadocVariable
 
-    EMPTY_CLUSTER_IN_K_MEANS("empty cluster in k-means");
+    EMPTY_CLUSTER_IN_K_MEANS("empty cluster in k-means"),
+    UNSUPPORTED_DISTANCE_MEASURE("distance measure {0} is not supported by neighbor search {1}"),
+    PACKED_POINTS_LENGTH("array length {0} is not a multiple of points dimension {1}"),
+    CONCURRENT_TRIALS_NEED_FACTORY("clusterer {0} cannot be duplicated for concurrent trials without a factory");
 
     // CHECKSTYLE: resume JavadocVariable
     // CHECKSTYLE: resume MultipleVariableDeclarations
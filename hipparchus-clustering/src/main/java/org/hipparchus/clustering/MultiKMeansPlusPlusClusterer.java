@@ -22,13 +22,19 @@
 
 package org.hipparchus.clustering;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
 
 import org.hipparchus.clustering.evaluation.ClusterEvaluator;
 import org.hipparchus.clustering.evaluation.SumOfClusterVariances;
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937c;
 
 /**
  * A wrapper around a k-means++ clustering algorithm which performs multiple trials
@@ -46,6 +52,16 @@ public class MultiKMeansPlusPlusClusterer<T extends Clusterable> extends Cluster
     /** The cluster evaluator to use. */
     private final ClusterEvaluator<T> evaluator;
 
+    /** Pool for running trials concurrently (null for sequential trials).
+     * @since 1.7
+     */
+    private final ForkJoinPool pool;
+
+    /** Factory for the clusterers used in concurrent trials (null for plain k-means++ copies).
+     * @since 1.7
+     */
+    private final Function<RandomGenerator, ? extends KMeansPlusPlusClusterer<T>> trialFactory;
+
     /** Build a clusterer.
      * @param clusterer the k-means clusterer to use
      * @param numTrials number of trial runs
@@ -63,10 +79,79 @@ public class MultiKMeansPlusPlusClusterer<T extends Clusterable> extends Cluster
     public MultiKMeansPlusPlusClusterer(final KMeansPlusPlusClusterer<T> clusterer,
                                         final int numTrials,
                                         final ClusterEvaluator<T> evaluator) {
+        this(clusterer, numTrials, evaluator, null);
+    }
+
+    /** Build a clusterer.
+     * <p>
+     * If a pool is provided, the trials are run concurrently. As random generators
+     * are not thread-safe, each trial then uses its own {@link Well19937c} generator,
+     * seeded from the random generator of the embedded clusterer. The result is
+     * therefore reproducible, but differs from the one obtained with sequential trials.
+     * The distance measure and evaluator must be thread-safe in this case.
+     * </p>
+     * <p>
+     * Each concurrent trial runs a plain {@link KMeansPlusPlusClusterer} configured
+     * like the embedded one, so the embedded clusterer cannot be a subclass when a
+     * pool is provided, as its overridden methods would be lost. Use
+     * {@link #MultiKMeansPlusPlusClusterer(KMeansPlusPlusClusterer, int, ClusterEvaluator,
+     * ForkJoinPool, Function)} with a trial clusterer factory in this case.
+     * </p>
+     * @param clusterer the k-means clusterer to use
+     * @param numTrials number of trial runs
+     * @param evaluator the cluster evaluator to use
+     * @param pool pool to use for running trials concurrently
+     * (may be null for sequential trials)
+     * @throws MathIllegalArgumentException if a pool is provided and the
+     * clusterer is a subclass of {@link KMeansPlusPlusClusterer}
+     * @since 1.7
+     */
+    public MultiKMeansPlusPlusClusterer(final KMeansPlusPlusClusterer<T> clusterer,
+                                        final int numTrials,
+                                        final ClusterEvaluator<T> evaluator,
+                                        final ForkJoinPool pool)
+        throws MathIllegalArgumentException {
+        this(clusterer, numTrials, evaluator, pool, null);
+    }
+
+    /** Build a clusterer.
+     * <p>
+     * This constructor is similar to {@link #MultiKMeansPlusPlusClusterer(KMeansPlusPlusClusterer,
+     * int, ClusterEvaluator, ForkJoinPool)}, but the clusterers used by concurrent
+     * trials are built by a factory, which allows them to be instances of a
+     * {@link KMeansPlusPlusClusterer} subclass. The factory is called once per
+     * trial, with the random generator the trial clusterer must use. It is not
+     * used when trials are run sequentially.
+     * </p>
+     * @param clusterer the k-means clusterer to use
+     * @param numTrials number of trial runs
+     * @param evaluator the cluster evaluator to use
+     * @param pool pool to use for running trials concurrently
+     * (may be null for sequential trials)
+     * @param trialFactory factory building the clusterer for one concurrent trial
+     * from its random generator (may be null if the clusterer is not a subclass
+     * of {@link KMeansPlusPlusClusterer})
+     * @throws MathIllegalArgumentException if a pool is provided, the factory is
+     * null and the clusterer is a subclass of {@link KMeansPlusPlusClusterer}
+     * @since 1.7
+     */
+    public MultiKMeansPlusPlusClusterer(final KMeansPlusPlusClusterer<T> clusterer,
+                                        final int numTrials,
+                                        final ClusterEvaluator<T> evaluator,
+                                        final ForkJoinPool pool,
+                                        final Function<RandomGenerator,
+                                                       ? extends KMeansPlusPlusClusterer<T>> trialFactory)
+        throws MathIllegalArgumentException {
         super(clusterer.getDistanceMeasure());
-        this.clusterer = clusterer;
-        this.numTrials = numTrials;
-        this.evaluator = evaluator;
+        if (pool != null && trialFactory == null && clusterer.getClass() != KMeansPlusPlusClusterer.class) {
+            throw new MathIllegalArgumentException(LocalizedClusteringFormats.CONCURRENT_TRIALS_NEED_FACTORY,
+                                                   clusterer.getClass().getName());
+        }
+        this.clusterer    = clusterer;
+        this.numTrials    = numTrials;
+        this.evaluator    = evaluator;
+        this.pool         = pool;
+        this.trialFactory = trialFactory;
     }
 
     /**
@@ -93,6 +178,15 @@ public class MultiKMeansPlusPlusClusterer<T extends Clusterable> extends Cluster
        return evaluator;
     }
 
+    /**
+     * Returns the pool used for running trials concurrently.
+     * @return pool used for running trials concurrently (null for sequential trials)
+     * @since 1.7
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
     /**
      * Runs the K-means++ clustering algorithm.
      *
@@ -108,6 +202,10 @@ public class MultiKMeansPlusPlusClusterer<T extends Clusterable> extends Cluster
     public List<CentroidCluster<T>> cluster(final Collection<T> points)
         throws MathIllegalArgumentException, MathIllegalStateException {
 
+        if (pool != null) {
+            return clusterConcurrently(points);
+        }
+
         // at first, we have not found any clusters list yet
         List<CentroidCluster<T>> best = null;
         double bestVarianceSum = Double.POSITIVE_INFINITY;
@@ -134,4 +232,51 @@ public class MultiKMeansPlusPlusClusterer<T extends Clusterable> extends Cluster
 
     }
 
+    /**
+     * Runs the K-means++ clustering trials concurrently.
+     *
+     * @param points the points to cluster
+     * @return a list of clusters containing the points
+     * @throws MathIllegalArgumentException if the data points are null or the number
+     *   of clusters is larger than the number of data points
+     * @throws MathIllegalStateException if an empty cluster is encountered and the
+     *   underlying {@link KMeansPlusPlusClusterer} has its
+     *   {@link KMeansPlusPlusClusterer.EmptyClusterStrategy} is set to {@code ERROR}.
+     */
+    private List<CentroidCluster<T>> clusterConcurrently(final Collection<T> points)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+
+        // launch all trials, each one with its own random generator
+        final List<ForkJoinTask<List<CentroidCluster<T>>>> trials = new ArrayList<>(numTrials);
+        for (int i = 0; i < numTrials; ++i) {
+            final RandomGenerator trialRandom = new Well19937c(clusterer.getRandomGenerator().nextLong());
+            final KMeansPlusPlusClusterer<T> trialClusterer =
+                            (trialFactory != null) ?
+                            trialFactory.apply(trialRandom) :
+                            new KMeansPlusPlusClusterer<>(clusterer.getK(),
+                                                          clusterer.getMaxIterations(),
+                                                          clusterer.getDistanceMeasure(),
+                                                          trialRandom,
+                                                          clusterer.getEmptyClusterStrategy(),
+                                                          clusterer.getAssignmentStrategy(),
+                                                          clusterer.getPool());
+            trials.add(pool.submit(() -> trialClusterer.cluster(points)));
+        }
+
+        // select the best clusters list, in trials order
+        List<CentroidCluster<T>> best = null;
+        double bestVarianceSum = Double.POSITIVE_INFINITY;
+        for (final ForkJoinTask<List<CentroidCluster<T>>> trial : trials) {
+            final List<CentroidCluster<T>> clusters = trial.join();
+            final double varianceSum = evaluator.score(clusters);
+            if (evaluator.isBetterScore(varianceSum, bestVarianceSum)) {
+                best            = clusters;
+                bestVarianceSum = varianceSum;
+            }
+        }
+
+        return best;
+
+    }
+
 }
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.clustering;
+
+/**
+ * Result of a clustering of {@link PackedPoints packed points}.
+ * <p>
+ * Clusters are reported as one label per point, i.e. the index of the
+ * cluster the point belongs to, or {@link #NOISE} for points that do
+ * not belong to any cluster. For centroid-based algorithms, the centers
+ * are packed in a row-major array, center {@code j} being at indices
+ * {@code j * dimension} to {@code (j + 1) * dimension - 1}.
+ * </p>
+ * <p>
+ * For efficiency reasons, the getters return references to the internal
+ * arrays, not copies.
+ * </p>
+ * @see PackedPoints
+ * @since 1.7
+ */
+public class PackedClustering {
+
+    /** Label of points that do not belong to any cluster. */
+    public static final int NOISE = -1;
+
+    /** Number of clusters. */
+    private final int numberOfClusters;
+
+    /** Label of each point. */
+    private final int[] labels;
+
+    /** Packed centers (null if clustering algorithm does not compute centers). */
+    private final double[] centers;
+
+    /** Packed memberships (null if clustering algorithm does not compute memberships). */
+    private final double[] memberships;
+
+    /** Simple constructor.
+     * @param numberOfClusters number of clusters
+     * @param labels label of each point (index of its cluster or {@link #NOISE})
+     * @param centers packed centers (null if clustering algorithm does not compute centers)
+     * @param memberships packed memberships (null if clustering algorithm does not compute memberships)
+     */
+    public PackedClustering(final int numberOfClusters, final int[] labels,
+                            final double[] centers, final double[] memberships) {
+        this.numberOfClusters = numberOfClusters;
+        this.labels           = labels;
+        this.centers          = centers;
+        this.memberships      = memberships;
+    }
+
+    /** Get the number of clusters.
+     * @return number of clusters
+     */
+    public int getNumberOfClusters() {
+        return numberOfClusters;
+    }
+
+    /** Get the labels of all points.
+     * @return label of each point, i.e. the index of its cluster or {@link #NOISE}
+     */
+    public int[] getLabels() {
+        return labels;
+    }
+
+    /** Get the packed centers.
+     * @return packed centers, or null if clustering algorithm does not compute centers
+     */
+    public double[] getCenters() {
+        return centers;
+    }
+
+    /** Get the packed memberships.
+     * <p>
+     * Membership of point {@code i} to cluster {@code j} is at index
+     * {@code i * getNumberOfClusters() + j}.
+     * </p>
+     * @return packed memberships, or null if clustering algorithm does not compute memberships
+     */
+    public double[] getMemberships() {
+        return memberships;
+    }
+
+    /** Get the indices of the points belonging to one cluster.
+     * @param cluster index of the cluster (may be {@link #NOISE})
+     * @return indices of the points belonging to the cluster, in increasing order
+     */
+    public int[] getPointIndices(final int cluster) {
+        int count = 0;
+        for (final int label : labels) {
+            if (label == cluster) {
+                ++count;
+            }
+        }
+        final int[] indices = new int[count];
+        count = 0;
+        for (int i = 0; i < labels.length; ++i) {
+            if (labels[i] == cluster) {
+                indices[count++] = i;
+            }
+        }
+        return indices;
+    }
+
+}
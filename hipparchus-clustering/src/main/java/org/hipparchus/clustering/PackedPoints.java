@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.clustering;
+
+import java.util.Collection;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.util.MathUtils;
+
+/**
+ * Set of points packed in a single row-major array.
+ * <p>
+ * Point {@code i} has coordinates {@code data[i * dimension]} to
+ * {@code data[(i + 1) * dimension - 1]}. Compared to a collection of
+ * {@link Clusterable} instances, this layout avoids one object and one
+ * array per point and allows distance loops to scan memory sequentially,
+ * which matters for large data sets.
+ * </p>
+ * <p>
+ * Instances of this class do not copy the array they are built from, so
+ * changing it afterwards changes the points.
+ * </p>
+ * @see PackedClustering
+ * @since 1.7
+ */
+public class PackedPoints {
+
+    /** Packed coordinates. */
+    private final double[] data;
+
+    /** Dimension of the points. */
+    private final int dimension;
+
+    /** Number of points. */
+    private final int size;
+
+    /** Build a set of points from a packed array.
+     * @param data packed coordinates (not copied)
+     * @param dimension dimension of the points
+     * @exception MathIllegalArgumentException if array is empty, if {@code dimension < 1}
+     * or array length is not a multiple of dimension
+     */
+    public PackedPoints(final double[] data, final int dimension)
+        throws MathIllegalArgumentException {
+        MathUtils.checkNotNull(data);
+        if (data.length == 0) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NO_DATA);
+        }
+        if (dimension < 1) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL, dimension, 1);
+        }
+        if (data.length % dimension != 0) {
+            throw new MathIllegalArgumentException(LocalizedClusteringFormats.PACKED_POINTS_LENGTH,
+                                                   data.length, dimension);
+        }
+        this.data      = data;
+        this.dimension = dimension;
+        this.size      = data.length / dimension;
+    }
+
+    /** Build a set of points by packing the coordinates of clusterable instances.
+     * @param points points to pack
+     * @exception MathIllegalArgumentException if the collection is empty
+     * or points do not all have the same dimension
+     */
+    public PackedPoints(final Collection<? extends Clusterable> points)
+        throws MathIllegalArgumentException {
+        MathUtils.checkNotNull(points);
+        if (points.isEmpty()) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NO_DATA);
+        }
+        this.size      = points.size();
+        this.dimension = points.iterator().next().getPoint().length;
+        this.data      = new double[size * dimension];
+        int offset = 0;
+        for (final Clusterable point : points) {
+            final double[] p = point.getPoint();
+            if (p.length != dimension) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       p.length, dimension);
+            }
+            System.arraycopy(p, 0, data, offset, dimension);
+            offset += dimension;
+        }
+    }
+
+    /** Get the packed coordinates.
+     * @return packed coordinates (a reference to the internal array, not a copy)
+     */
+    public double[] getData() {
+        return data;
+    }
+
+    /** Get the dimension of the points.
+     * @return dimension of the points
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /** Get the number of points.
+     * @return number of points
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /** Get the offset of a point in the packed array.
+     * @param i index of the point
+     * @return index of the first coordinate of point {@code i} in the packed array
+     */
+    public int getOffset(final int i) {
+        return i * dimension;
+    }
+
+    /** Get a copy of the coordinates of one point.
+     * @param i index of the point
+     * @return coordinates of point {@code i}
+     */
+    public double[] getPoint(final int i) {
+        final double[] point = new double[dimension];
+        System.arraycopy(data, i * dimension, point, 0, dimension);
+        return point;
+    }
+
+}
@@ -48,4 +48,31 @@ public class CanberraDistance implements DistanceMeasure {
         return sum;
     }
 
+    /** {@inheritDoc}
+     * <p>
+     * Subclasses that override {@link #compute(double[], double[])} without
+     * overriding this method get the default copying implementation,
+     * so both methods remain consistent.
+     * </p>
+     * @since 1.7
+     */
+    @Override
+    public double compute(final double[] a, final int aOffset,
+                          final double[] b, final int bOffset,
+                          final int dimension) {
+        if (getClass() != CanberraDistance.class) {
+            // subclasses may have overridden compute(double[], double[])
+            return DistanceMeasure.super.compute(a, aOffset, b, bOffset, dimension);
+        }
+        double sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            final double ai    = a[aOffset + i];
+            final double bi    = b[bOffset + i];
+            final double num   = FastMath.abs(ai - bi);
+            final double denom = FastMath.abs(ai) + FastMath.abs(bi);
+            sum += num == 0.0 && denom == 0.0 ? 0.0 : num / denom;
+        }
+        return sum;
+    }
+
 }
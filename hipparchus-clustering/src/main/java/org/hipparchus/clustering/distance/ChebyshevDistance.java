@@ -22,6 +22,7 @@
 package org.hipparchus.clustering.distance;
 
 import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.util.FastMath;
 import org.hipparchus.util.MathArrays;
 
 /**
@@ -40,4 +41,27 @@ public class ChebyshevDistance implements DistanceMeasure {
         return MathArrays.distanceInf(a, b);
     }
 
+    /** {@inheritDoc}
+     * <p>
+     * Subclasses that override {@link #compute(double[], double[])} without
+     * overriding this method get the default copying implementation,
+     * so both methods remain consistent.
+     * </p>
+     * @since 1.7
+     */
+    @Override
+    public double compute(final double[] a, final int aOffset,
+                          final double[] b, final int bOffset,
+                          final int dimension) {
+        if (getClass() != ChebyshevDistance.class) {
+            // subclasses may have overridden compute(double[], double[])
+            return DistanceMeasure.super.compute(a, aOffset, b, bOffset, dimension);
+        }
+        double max = 0;
+        for (int i = 0; i < dimension; i++) {
+            max = FastMath.max(max, FastMath.abs(a[aOffset + i] - b[bOffset + i]));
+        }
+        return max;
+    }
+
 }
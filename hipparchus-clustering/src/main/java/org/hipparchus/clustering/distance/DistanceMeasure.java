@@ -22,6 +22,7 @@
 package org.hipparchus.clustering.distance;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 import org.hipparchus.exception.MathIllegalArgumentException;
 
@@ -42,4 +43,38 @@ public interface DistanceMeasure extends Serializable {
      * @throws MathIllegalArgumentException if the array lengths differ.
      */
     double compute(double[] a, double[] b) throws MathIllegalArgumentException;
+
+    /**
+     * Compute the distance between two n-dimensional vectors stored in larger arrays.
+     * <p>
+     * This method allows to compute distances between points stored contiguously
+     * in flat arrays, as in {@link org.hipparchus.clustering.PackedPoints PackedPoints}.
+     * The default implementation copies the vectors and delegates to
+     * {@link #compute(double[], double[])}, implementations should override it
+     * to avoid allocations.
+     * </p>
+     * <p>
+     * Both methods must return the same result for the same coordinates, as
+     * clusterers may use either one. Implementations overriding this method
+     * must therefore keep it consistent with {@link #compute(double[], double[])}.
+     * The distances provided by Hipparchus fall back to the default copying
+     * implementation when they are subclassed, so overriding only
+     * {@link #compute(double[], double[])} in a subclass remains safe.
+     * </p>
+     *
+     * @param a array containing the first vector
+     * @param aOffset index of the first component of the first vector in {@code a}
+     * @param b array containing the second vector
+     * @param bOffset index of the first component of the second vector in {@code b}
+     * @param dimension dimension of the vectors
+     * @return the distance between the two vectors
+     * @since 1.7
+     */
+    default double compute(final double[] a, final int aOffset,
+                           final double[] b, final int bOffset,
+                           final int dimension) {
+        return compute(Arrays.copyOfRange(a, aOffset, aOffset + dimension),
+                       Arrays.copyOfRange(b, bOffset, bOffset + dimension));
+    }
+
 }
@@ -50,4 +50,31 @@ public class EarthMoversDistance implements DistanceMeasure {
         }
         return totalDistance;
     }
+
+    /** {@inheritDoc}
+     * <p>
+     * Subclasses that override {@link #compute(double[], double[])} without
+     * overriding this method get the default copying implementation,
+     * so both methods remain consistent.
+     * </p>
+     * @since 1.7
+     */
+    @Override
+    public double compute(final double[] a, final int aOffset,
+                          final double[] b, final int bOffset,
+                          final int dimension) {
+        if (getClass() != EarthMoversDistance.class) {
+            // subclasses may have overridden compute(double[], double[])
+            return DistanceMeasure.super.compute(a, aOffset, b, bOffset, dimension);
+        }
+        double lastDistance = 0;
+        double totalDistance = 0;
+        for (int i = 0; i < dimension; i++) {
+            final double currentDistance = (a[aOffset + i] + lastDistance) - b[bOffset + i];
+            totalDistance += FastMath.abs(currentDistance);
+            lastDistance = currentDistance;
+        }
+        return totalDistance;
+    }
+
 }
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.clustering.neighbors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.hipparchus.clustering.Clusterable;
+import org.hipparchus.clustering.PackedPoints;
+import org.hipparchus.clustering.distance.DistanceMeasure;
+
+/**
+ * Exhaustive neighbor search.
+ * <p>
+ * This strategy computes the distance from the reference point to all
+ * indexed points, so each query costs O(n). It supports any distance measure.
+ * </p>
+ * @since 1.7
+ */
+public class BruteForceNeighborSearch implements NeighborSearch {
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean supports(final DistanceMeasure measure) {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T extends Clusterable> NeighborIndex<T> index(final Collection<T> points,
+                                                          final DistanceMeasure measure) {
+        final List<T> indexed = new ArrayList<>(points);
+        return (point, radius) -> {
+            final double[] p = point.getPoint();
+            final List<T> neighbors = new ArrayList<>();
+            for (final T neighbor : indexed) {
+                if (point != neighbor && measure.compute(neighbor.getPoint(), p) <= radius) {
+                    neighbors.add(neighbor);
+                }
+            }
+            return neighbors;
+        };
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PackedNeighborIndex index(final PackedPoints points, final DistanceMeasure measure) {
+        return (i, radius) -> {
+            final double[] data      = points.getData();
+            final int      dimension = points.getDimension();
+            final int      offset    = points.getOffset(i);
+            int[] neighbors = new int[16];
+            int   n         = 0;
+            for (int j = 0; j < points.getSize(); ++j) {
+                if (j != i && measure.compute(data, points.getOffset(j), data, offset, dimension) <= radius) {
+                    if (n == neighbors.length) {
+                        neighbors = Arrays.copyOf(neighbors, 2 * n);
+                    }
+                    neighbors[n++] = j;
+                }
+            }
+            return Arrays.copyOf(neighbors, n);
+        };
+    }
+
+}
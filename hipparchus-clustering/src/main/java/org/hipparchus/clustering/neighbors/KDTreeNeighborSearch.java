@@ -0,0 +1,390 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.clustering.neighbors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.hipparchus.clustering.Clusterable;
+import org.hipparchus.clustering.LocalizedClusteringFormats;
+import org.hipparchus.clustering.PackedPoints;
+import org.hipparchus.clustering.distance.ChebyshevDistance;
+import org.hipparchus.clustering.distance.DistanceMeasure;
+import org.hipparchus.clustering.distance.EuclideanDistance;
+import org.hipparchus.clustering.distance.ManhattanDistance;
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+
+/**
+ * Neighbor search based on a k-d tree.
+ * <p>
+ * The tree is built once in O(n log n) by splitting point sets at the
+ * median of their widest coordinate, and radius queries then only visit
+ * the cells that intersect the search ball, which is O(log n) for
+ * well-spread data and small radii.
+ * </p>
+ * <p>
+ * Pruning relies on the distance between two points being at least the
+ * absolute difference of any of their coordinates. This holds for
+ * the {@link EuclideanDistance Euclidean}, {@link ManhattanDistance Manhattan}
+ * and {@link ChebyshevDistance Chebyshev} distances, which are the only
+ * supported measures. Subclasses of these measures are not supported as
+ * they may override the distance computation.
+ * </p>
+ * @since 1.7
+ */
+public class KDTreeNeighborSearch implements NeighborSearch {
+
+    /** Default maximum number of points in a leaf. */
+    public static final int DEFAULT_LEAF_SIZE = 16;
+
+    /** Maximum number of points in a leaf. */
+    private final int leafSize;
+
+    /** Build a k-d tree neighbor search with default leaf size.
+     */
+    public KDTreeNeighborSearch() {
+        this(DEFAULT_LEAF_SIZE);
+    }
+
+    /** Build a k-d tree neighbor search.
+     * @param leafSize maximum number of points in a leaf
+     * @exception MathIllegalArgumentException if {@code leafSize < 1}
+     */
+    public KDTreeNeighborSearch(final int leafSize)
+        throws MathIllegalArgumentException {
+        if (leafSize < 1) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL, leafSize, 1);
+        }
+        this.leafSize = leafSize;
+    }
+
+    /** Get the maximum number of points in a leaf.
+     * @return maximum number of points in a leaf
+     */
+    public int getLeafSize() {
+        return leafSize;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean supports(final DistanceMeasure measure) {
+        if (measure == null) {
+            return false;
+        }
+        final Class<?> c = measure.getClass();
+        return c == EuclideanDistance.class || c == ManhattanDistance.class || c == ChebyshevDistance.class;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public PackedNeighborIndex index(final PackedPoints points, final DistanceMeasure measure)
+        throws MathIllegalArgumentException {
+        checkSupported(measure);
+        return new PackedTree(points, measure, leafSize);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public <T extends Clusterable> NeighborIndex<T> index(final Collection<T> points,
+                                                          final DistanceMeasure measure)
+        throws MathIllegalArgumentException {
+        checkSupported(measure);
+        return new Tree<>(points, measure, leafSize);
+    }
+
+    /** Check a distance measure is supported.
+     * @param measure distance measure to check
+     * @exception MathIllegalArgumentException if the measure is not supported
+     */
+    private void checkSupported(final DistanceMeasure measure)
+        throws MathIllegalArgumentException {
+        if (!supports(measure)) {
+            throw new MathIllegalArgumentException(LocalizedClusteringFormats.UNSUPPORTED_DISTANCE_MEASURE,
+                                                   measure == null ? null : measure.getClass().getName(),
+                                                   getClass().getName());
+        }
+    }
+
+    /** Node of the tree.
+     * <p>
+     * Leaf nodes have a negative split dimension and no children.
+     * </p>
+     */
+    private static class Node {
+
+        /** Start of the node points in the permutation array (inclusive). */
+        private final int lo;
+
+        /** End of the node points in the permutation array (exclusive). */
+        private final int hi;
+
+        /** Split dimension (negative for leaves). */
+        private int dim;
+
+        /** Split value. */
+        private double split;
+
+        /** Child containing points with coordinate lower than or equal to split value. */
+        private Node left;
+
+        /** Child containing points with coordinate greater than or equal to split value. */
+        private Node right;
+
+        /** Simple constructor.
+         * @param lo start of the node points in the permutation array (inclusive)
+         * @param hi end of the node points in the permutation array (exclusive)
+         */
+        Node(final int lo, final int hi) {
+            this.lo  = lo;
+            this.hi  = hi;
+            this.dim = -1;
+        }
+
+    }
+
+    /** Index implementation.
+     * @param <T> type of the indexed points
+     */
+    private static class Tree<T extends Clusterable> implements NeighborIndex<T> {
+
+        /** Indexed points, in collection order. */
+        private final List<T> points;
+
+        /** Tree over the packed coordinates of the points (null for empty sets). */
+        private final PackedTree tree;
+
+        /** Build the tree.
+         * @param points points to index
+         * @param measure distance measure
+         * @param leafSize maximum number of points in a leaf
+         * @exception MathIllegalArgumentException if points do not all have the same dimension
+         */
+        Tree(final Collection<T> points, final DistanceMeasure measure, final int leafSize)
+            throws MathIllegalArgumentException {
+            this.points = new ArrayList<>(points);
+            this.tree   = points.isEmpty() ? null : new PackedTree(new PackedPoints(this.points), measure, leafSize);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public List<T> getNeighbors(final T point, final double radius) {
+            final List<T> neighbors = new ArrayList<>();
+            if (tree != null) {
+                for (final int index : tree.query(point.getPoint(), 0, radius, -1)) {
+                    final T neighbor = points.get(index);
+                    if (neighbor != point) {
+                        neighbors.add(neighbor);
+                    }
+                }
+            }
+            return neighbors;
+        }
+
+    }
+
+    /** Index implementation for packed points. */
+    private static class PackedTree implements PackedNeighborIndex {
+
+        /** Indexed points. */
+        private final PackedPoints points;
+
+        /** Permutation of point indices, grouped by tree cells. */
+        private final int[] permutation;
+
+        /** Distance measure. */
+        private final DistanceMeasure measure;
+
+        /** Maximum number of points in a leaf. */
+        private final int leafSize;
+
+        /** Root node (null for empty sets). */
+        private final Node root;
+
+        /** Build the tree.
+         * @param points points to index
+         * @param measure distance measure
+         * @param leafSize maximum number of points in a leaf
+         */
+        PackedTree(final PackedPoints points, final DistanceMeasure measure, final int leafSize) {
+            this.points      = points;
+            this.measure     = measure;
+            this.leafSize    = leafSize;
+            this.permutation = new int[points.getSize()];
+            for (int i = 0; i < permutation.length; ++i) {
+                permutation[i] = i;
+            }
+            this.root = permutation.length == 0 ? null : build(0, permutation.length);
+        }
+
+        /** Get one coordinate of a point.
+         * @param i index of the point
+         * @param dim index of the coordinate
+         * @return coordinate {@code dim} of point {@code i}
+         */
+        private double coordinate(final int i, final int dim) {
+            return points.getData()[points.getOffset(i) + dim];
+        }
+
+        /** Recursively build a subtree.
+         * @param lo start of the points in the permutation array (inclusive)
+         * @param hi end of the points in the permutation array (exclusive)
+         * @return subtree root
+         */
+        private Node build(final int lo, final int hi) {
+
+            final Node node = new Node(lo, hi);
+            if (hi - lo <= leafSize) {
+                return node;
+            }
+
+            // select the dimension with the widest spread
+            int    bestDim    = -1;
+            double bestSpread = 0;
+            for (int d = 0; d < points.getDimension(); ++d) {
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int i = lo; i < hi; ++i) {
+                    final double x = coordinate(permutation[i], d);
+                    min = Math.min(min, x);
+                    max = Math.max(max, x);
+                }
+                if (max - min > bestSpread) {
+                    bestDim    = d;
+                    bestSpread = max - min;
+                }
+            }
+            if (bestDim < 0) {
+                // all points are identical, there is nothing to split
+                return node;
+            }
+
+            final int mid = (lo + hi) >>> 1;
+            select(lo, hi - 1, mid, bestDim);
+            node.dim   = bestDim;
+            node.split = coordinate(permutation[mid], bestDim);
+            node.left  = build(lo, mid);
+            node.right = build(mid, hi);
+            return node;
+
+        }
+
+        /** Partially sort the permutation so that element k is at its sorted place.
+         * <p>
+         * After this call, all elements before k have a coordinate lower than
+         * or equal to the one of element k and all elements after k have a
+         * coordinate greater than or equal to it.
+         * </p>
+         * @param left start of the range (inclusive)
+         * @param right end of the range (inclusive)
+         * @param k index to select
+         * @param dim dimension to use for ordering
+         */
+        private void select(final int left, final int right, final int k, final int dim) {
+            int l = left;
+            int r = right;
+            while (r > l) {
+                final double pivot = coordinate(permutation[(l + r) >>> 1], dim);
+                int i = l;
+                int j = r;
+                while (i <= j) {
+                    while (coordinate(permutation[i], dim) < pivot) {
+                        ++i;
+                    }
+                    while (coordinate(permutation[j], dim) > pivot) {
+                        --j;
+                    }
+                    if (i <= j) {
+                        final int tmp = permutation[i];
+                        permutation[i++] = permutation[j];
+                        permutation[j--] = tmp;
+                    }
+                }
+                if (k <= j) {
+                    r = j;
+                } else if (k >= i) {
+                    l = i;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int[] getNeighbors(final int i, final double radius) {
+            return query(points.getData(), points.getOffset(i), radius, i);
+        }
+
+        /** Find the indexed points lying within a radius of a reference point.
+         * @param q array containing the reference point coordinates
+         * @param qOffset index of the first coordinate of the reference point in {@code q}
+         * @param radius search radius (inclusive)
+         * @param excluded index of a point to exclude from the result (-1 if none)
+         * @return indices of the neighbors of the reference point, in increasing order
+         */
+        int[] query(final double[] q, final int qOffset, final double radius, final int excluded) {
+
+            if (root == null) {
+                return new int[0];
+            }
+
+            final double[] data      = points.getData();
+            final int      dimension = points.getDimension();
+            int[] found = new int[16];
+            int   n     = 0;
+
+            // depth-first traversal using an explicit stack
+            final Node[] stack = new Node[64];
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                final Node node = stack[--top];
+                if (node.dim < 0) {
+                    for (int i = node.lo; i < node.hi; ++i) {
+                        final int index = permutation[i];
+                        if (index != excluded &&
+                            measure.compute(data, points.getOffset(index), q, qOffset, dimension) <= radius) {
+                            if (n == found.length) {
+                                found = Arrays.copyOf(found, 2 * n);
+                            }
+                            found[n++] = index;
+                        }
+                    }
+                } else {
+                    final double delta = q[qOffset + node.dim] - node.split;
+                    if (delta <= radius) {
+                        stack[top++] = node.left;
+                    }
+                    if (-delta <= radius) {
+                        stack[top++] = node.right;
+                    }
+                }
+            }
+
+            // restore points order, so results do not depend on tree layout
+            final int[] neighbors = Arrays.copyOf(found, n);
+            Arrays.sort(neighbors);
+            return neighbors;
+
+        }
+
+    }
+
+}
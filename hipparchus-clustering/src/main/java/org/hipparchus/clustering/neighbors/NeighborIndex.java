@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.clustering.neighbors;
+
+import java.util.List;
+
+import org.hipparchus.clustering.Clusterable;
+
+/**
+ * Index over a fixed set of points allowing radius queries.
+ * @param <T> type of the indexed points
+ * @see NeighborSearch
+ * @since 1.7
+ */
+public interface NeighborIndex<T extends Clusterable> {
+
+    /** Get the indexed points lying within a radius of a reference point.
+     * <p>
+     * The reference point itself (i.e. the same instance) is never
+     * included in the result, but other instances at distance 0 are.
+     * Neighbors are returned in the iteration order of the indexed
+     * collection, regardless of the search strategy.
+     * </p>
+     * @param point reference point
+     * @param radius search radius (inclusive)
+     * @return neighbors of the reference point
+     */
+    List<T> getNeighbors(T point, double radius);
+
+}
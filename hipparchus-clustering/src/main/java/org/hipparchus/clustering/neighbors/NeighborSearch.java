@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.clustering.neighbors;
+
+import java.util.Collection;
+
+import org.hipparchus.clustering.Clusterable;
+import org.hipparchus.clustering.PackedPoints;
+import org.hipparchus.clustering.distance.DistanceMeasure;
+import org.hipparchus.exception.MathIllegalArgumentException;
+
+/**
+ * Strategy for finding neighbors of points within a given radius.
+ * <p>
+ * Implementations may rely on properties of the distance measure to
+ * prune the search space (for example triangle-like inequalities on
+ * coordinates). The {@link #supports(DistanceMeasure)} method allows
+ * callers to check beforehand whether a measure can be used.
+ * </p>
+ * @since 1.7
+ */
+public interface NeighborSearch {
+
+    /** Check if a distance measure is supported by this search strategy.
+     * @param measure distance measure to check
+     * @return true if the measure can be used to build an index
+     */
+    boolean supports(DistanceMeasure measure);
+
+    /** Build an index for a set of points.
+     * @param points points to index
+     * @param measure distance measure to use
+     * @param <T> type of the points
+     * @return an index that can be queried for neighbors
+     * @exception MathIllegalArgumentException if the measure is not supported
+     * or points do not all have the same dimension
+     */
+    <T extends Clusterable> NeighborIndex<T> index(Collection<T> points, DistanceMeasure measure)
+        throws MathIllegalArgumentException;
+
+    /** Build an index for a set of packed points.
+     * @param points points to index
+     * @param measure distance measure to use
+     * @return an index that can be queried for neighbors
+     * @exception MathIllegalArgumentException if the measure is not supported
+     */
+    PackedNeighborIndex index(PackedPoints points, DistanceMeasure measure)
+        throws MathIllegalArgumentException;
+
+}
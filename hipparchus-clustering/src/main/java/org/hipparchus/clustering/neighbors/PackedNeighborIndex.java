@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.clustering.neighbors;
+
+/**
+ * Index over a fixed set of {@link org.hipparchus.clustering.PackedPoints packed points}
+ * allowing radius queries.
+ * @see NeighborSearch
+ * @since 1.7
+ */
+public interface PackedNeighborIndex {
+
+    /** Get the indices of the indexed points lying within a radius of one of them.
+     * @param i index of the reference point
+     * @param radius search radius (inclusive)
+     * @return indices of the neighbors of the reference point, in increasing
+     * order, excluding {@code i} itself
+     */
+    int[] getNeighbors(int i, double radius);
+
+}
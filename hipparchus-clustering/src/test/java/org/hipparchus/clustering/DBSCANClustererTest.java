@@ -21,11 +21,19 @@
  */
 package org.hipparchus.clustering;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.hipparchus.clustering.distance.CanberraDistance;
+import org.hipparchus.clustering.distance.EuclideanDistance;
+import org.hipparchus.clustering.distance.ManhattanDistance;
+import org.hipparchus.clustering.neighbors.BruteForceNeighborSearch;
+import org.hipparchus.clustering.neighbors.KDTreeNeighborSearch;
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.NullArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -186,10 +194,135 @@ public class DBSCANClustererTest {
         new DBSCANClusterer<DoublePoint>(2.0, -5);
     }
 
+    @Test
+    public void testDefaultNeighborSearch() {
+        Assert.assertTrue(new DBSCANClusterer<DoublePoint>(2.0, 5).getNeighborSearch()
+                          instanceof KDTreeNeighborSearch);
+        Assert.assertTrue(new DBSCANClusterer<DoublePoint>(2.0, 5, new CanberraDistance()).getNeighborSearch()
+                          instanceof BruteForceNeighborSearch);
+    }
+
+    @Test
+    public void testNeighborSearchEquivalence() {
+        final RandomGenerator random = new Well1024a(0x2f1c3b8a6d5e4907l);
+        final List<DoublePoint> points = new ArrayList<>();
+        for (int i = 0; i < 1500; ++i) {
+            // a few dense blobs over uniform noise
+            final int blob = random.nextInt(4);
+            final double x = (i % 3 == 0) ? 10 * random.nextDouble() : 2 * blob + 0.3 * random.nextGaussian();
+            final double y = (i % 3 == 0) ? 10 * random.nextDouble() : 3 * blob + 0.3 * random.nextGaussian();
+            points.add(new DoublePoint(new double[] { x, y }));
+        }
+        final List<Cluster<DoublePoint>> expected =
+                new DBSCANClusterer<DoublePoint>(0.2, 6, new ManhattanDistance(),
+                                                 new BruteForceNeighborSearch()).cluster(points);
+        final List<Cluster<DoublePoint>> actual =
+                new DBSCANClusterer<DoublePoint>(0.2, 6, new ManhattanDistance(),
+                                                 new KDTreeNeighborSearch(8)).cluster(points);
+        Assert.assertTrue(expected.size() > 1);
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            final List<DoublePoint> e = expected.get(i).getPoints();
+            final List<DoublePoint> a = actual.get(i).getPoints();
+            Assert.assertEquals(e.size(), a.size());
+            for (int j = 0; j < e.size(); ++j) {
+                Assert.assertSame(e.get(j), a.get(j));
+            }
+        }
+    }
+
+    @Test
+    public void testOverriddenDistance() {
+        final RandomGenerator random = new Well1024a(0x5d3e07a19c42b86fl);
+        final double[] data = new double[1200];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = (i % 6 < 2) ? 10 * random.nextDouble() : ((i / 2) % 3) * 3 + 0.4 * random.nextGaussian();
+        }
+        final PackedPoints packed = new PackedPoints(data, 2);
+        final List<DoublePoint> points = new ArrayList<>();
+        for (int i = 0; i < packed.getSize(); ++i) {
+            points.add(new DoublePoint(packed.getPoint(i)));
+        }
+
+        // halving the distance is equivalent to doubling eps, the override
+        // must be honored even though the default search is a k-d tree
+        final DBSCANClusterer<DoublePoint> halved = new DBSCANClusterer<DoublePoint>(0.1, 5) {
+            @Override
+            protected double distance(final Clusterable p1, final Clusterable p2) {
+                return 0.5 * super.distance(p1, p2);
+            }
+        };
+        final DBSCANClusterer<DoublePoint> reference = new DBSCANClusterer<>(0.2, 5);
+        Assert.assertTrue(halved.getNeighborSearch() instanceof KDTreeNeighborSearch);
+
+        final List<Cluster<DoublePoint>> expected = reference.cluster(points);
+        final List<Cluster<DoublePoint>> actual   = halved.cluster(points);
+        Assert.assertTrue(expected.size() > 1);
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            Assert.assertEquals(expected.get(i).getPoints(), actual.get(i).getPoints());
+        }
+
+        final PackedClustering expectedPacked = reference.clusterPacked(packed);
+        final PackedClustering actualPacked   = halved.clusterPacked(packed);
+        Assert.assertEquals(expectedPacked.getNumberOfClusters(), actualPacked.getNumberOfClusters());
+        for (int i = PackedClustering.NOISE; i < expectedPacked.getNumberOfClusters(); ++i) {
+            Assert.assertArrayEquals(expectedPacked.getPointIndices(i), actualPacked.getPointIndices(i));
+        }
+    }
+
+    @Test(expected = MathIllegalArgumentException.class)
+    public void testUnsupportedNeighborSearch() {
+        new DBSCANClusterer<DoublePoint>(2.0, 5, new CanberraDistance(), new KDTreeNeighborSearch());
+    }
+
+    @Test(expected = NullArgumentException.class)
+    public void testNullNeighborSearch() {
+        new DBSCANClusterer<DoublePoint>(2.0, 5, new ManhattanDistance(), null);
+    }
+
     @Test(expected = NullArgumentException.class)
     public void testNullDataset() {
         DBSCANClusterer<DoublePoint> clusterer = new DBSCANClusterer<DoublePoint>(2.0, 5);
         clusterer.cluster(null);
     }
 
+    @Test
+    public void testPacked() {
+        final RandomGenerator random = new Well1024a(0x7a4e91c05b3d28f6l);
+        final double[] data = new double[3000];
+        for (int i = 0; i < data.length; ++i) {
+            // clustered and scattered points, with no duplicates
+            data[i] = (i % 6 < 2) ? 10 * random.nextDouble() : ((i / 2) % 3) * 3 + 0.4 * random.nextGaussian();
+        }
+        final PackedPoints packed = new PackedPoints(data, 2);
+        final List<DoublePoint> points = new ArrayList<>();
+        for (int i = 0; i < packed.getSize(); ++i) {
+            points.add(new DoublePoint(packed.getPoint(i)));
+        }
+
+        for (final DBSCANClusterer<DoublePoint> clusterer :
+             Arrays.asList(new DBSCANClusterer<DoublePoint>(0.25, 5),
+                           new DBSCANClusterer<DoublePoint>(0.25, 5, new EuclideanDistance(),
+                                                            new BruteForceNeighborSearch()))) {
+            final List<Cluster<DoublePoint>> clusters = clusterer.cluster(points);
+            final PackedClustering clustering = clusterer.clusterPacked(packed);
+            Assert.assertTrue(clusters.size() > 1);
+            Assert.assertEquals(clusters.size(), clustering.getNumberOfClusters());
+            Assert.assertNull(clustering.getCenters());
+            int clustered = 0;
+            for (int j = 0; j < clusters.size(); ++j) {
+                final int[] indices = clustering.getPointIndices(j);
+                final List<DoublePoint> clusterPoints = clusters.get(j).getPoints();
+                Assert.assertEquals(clusterPoints.size(), indices.length);
+                for (final int index : indices) {
+                    Assert.assertTrue(clusterPoints.contains(points.get(index)));
+                }
+                clustered += indices.length;
+            }
+            Assert.assertEquals(points.size() - clustered,
+                                clustering.getPointIndices(PackedClustering.NOISE).length);
+        }
+    }
+
 }
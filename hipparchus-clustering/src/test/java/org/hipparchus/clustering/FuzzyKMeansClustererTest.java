@@ -32,6 +32,7 @@ import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.NullArgumentException;
 import org.hipparchus.random.JDKRandomGenerator;
 import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -136,4 +137,49 @@ public class FuzzyKMeansClustererTest {
         Assert.assertEquals(3, clusters.size());
     }
 
+    @Test
+    public void testPacked() {
+        final RandomGenerator generator = new Well1024a(0x9d2b6e0c47a1f358l);
+        final double[] data = new double[300];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = (i % 4) + 0.5 * generator.nextGaussian();
+        }
+        final PackedPoints packed = new PackedPoints(data, 3);
+        final List<DoublePoint> points = new ArrayList<DoublePoint>();
+        for (int i = 0; i < packed.getSize(); ++i) {
+            points.add(new DoublePoint(packed.getPoint(i)));
+        }
+
+        final FuzzyKMeansClusterer<DoublePoint> reference =
+                        new FuzzyKMeansClusterer<DoublePoint>(4, 2.0, 100, new CanberraDistance(),
+                                                              1.0e-6, new JDKRandomGenerator(0x47e1));
+        final List<CentroidCluster<DoublePoint>> clusters = reference.cluster(points);
+        final FuzzyKMeansClusterer<DoublePoint> transformer =
+                        new FuzzyKMeansClusterer<DoublePoint>(4, 2.0, 100, new CanberraDistance(),
+                                                              1.0e-6, new JDKRandomGenerator(0x47e1));
+        final PackedClustering clustering = transformer.clusterPacked(packed);
+
+        Assert.assertEquals(clusters.size(), clustering.getNumberOfClusters());
+        for (int j = 0; j < clusters.size(); ++j) {
+            Assert.assertArrayEquals(clusters.get(j).getCenter().getPoint(),
+                                     Arrays.copyOfRange(clustering.getCenters(), 3 * j, 3 * j + 3),
+                                     0.0);
+            final int[] indices = clustering.getPointIndices(j);
+            Assert.assertEquals(clusters.get(j).getPoints().size(), indices.length);
+            for (int r = 0; r < indices.length; ++r) {
+                Assert.assertSame(points.get(indices[r]), clusters.get(j).getPoints().get(r));
+            }
+        }
+        for (int i = 0; i < points.size(); ++i) {
+            for (int j = 0; j < clusters.size(); ++j) {
+                Assert.assertEquals(reference.getMembershipMatrix().getEntry(i, j),
+                                    clustering.getMemberships()[i * clusters.size() + j],
+                                    0.0);
+            }
+        }
+
+        // packed clustering does not change the state of the clusterer
+        Assert.assertNull(transformer.getClusters());
+    }
+
 }
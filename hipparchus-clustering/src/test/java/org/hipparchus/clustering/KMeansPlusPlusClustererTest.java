@@ -26,11 +26,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import org.hipparchus.clustering.distance.DistanceMeasure;
 import org.hipparchus.clustering.distance.EuclideanDistance;
+import org.hipparchus.clustering.distance.ManhattanDistance;
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.random.JDKRandomGenerator;
 import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
+import org.hipparchus.util.FastMath;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -176,6 +181,65 @@ public class KMeansPlusPlusClustererTest {
     /**
      * 2 variables cannot be clustered into 3 clusters. See issue MATH-436.
      */
+    @Test
+    public void testHamerlyBoundsEuclidean() {
+        checkAssignmentStrategies(new EuclideanDistance(), 3, 8);
+    }
+
+    @Test
+    public void testHamerlyBoundsManhattan() {
+        checkAssignmentStrategies(new ManhattanDistance(), 2, 5);
+    }
+
+    private void checkAssignmentStrategies(final DistanceMeasure measure, final int dimension, final int k) {
+
+        final RandomGenerator generator = new Well1024a(0x5b3c1e8f04d2a967l);
+        final List<DoublePoint> points = new ArrayList<>();
+        final double[][] blobs = new double[k][dimension];
+        for (final double[] blob : blobs) {
+            for (int j = 0; j < dimension; ++j) {
+                blob[j] = 10 * generator.nextDouble();
+            }
+        }
+        for (int i = 0; i < 5000; ++i) {
+            final double[] blob = blobs[i % k];
+            final double[] p = new double[dimension];
+            for (int j = 0; j < dimension; ++j) {
+                p[j] = blob[j] + 2 * generator.nextGaussian();
+            }
+            points.add(new DoublePoint(p));
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            final List<CentroidCluster<DoublePoint>> reference =
+                new KMeansPlusPlusClusterer<DoublePoint>(k, 100, measure, new JDKRandomGenerator(0x3f2a),
+                                                         KMeansPlusPlusClusterer.EmptyClusterStrategy.LARGEST_VARIANCE,
+                                                         KMeansPlusPlusClusterer.AssignmentStrategy.EXHAUSTIVE,
+                                                         null).cluster(points);
+            for (final KMeansPlusPlusClusterer.AssignmentStrategy strategy :
+                 KMeansPlusPlusClusterer.AssignmentStrategy.values()) {
+                final KMeansPlusPlusClusterer<DoublePoint> clusterer =
+                    new KMeansPlusPlusClusterer<DoublePoint>(k, 100, measure, new JDKRandomGenerator(0x3f2a),
+                                                             KMeansPlusPlusClusterer.EmptyClusterStrategy.LARGEST_VARIANCE,
+                                                             strategy, pool);
+                Assert.assertEquals(strategy, clusterer.getAssignmentStrategy());
+                Assert.assertSame(pool, clusterer.getPool());
+                final List<CentroidCluster<DoublePoint>> clusters = clusterer.cluster(points);
+                Assert.assertEquals(reference.size(), clusters.size());
+                for (int i = 0; i < clusters.size(); ++i) {
+                    Assert.assertArrayEquals(reference.get(i).getCenter().getPoint(),
+                                             clusters.get(i).getCenter().getPoint(),
+                                             1.0e-15);
+                    Assert.assertEquals(reference.get(i).getPoints(), clusters.get(i).getPoints());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+    }
+
     @Test(expected=MathIllegalArgumentException.class)
     public void testPerformClusterAnalysisToManyClusters() {
         KMeansPlusPlusClusterer<DoublePoint> transformer =
@@ -193,4 +257,74 @@ public class KMeansPlusPlusClustererTest {
 
     }
 
+    @Test
+    public void testPacked() {
+        for (final KMeansPlusPlusClusterer.EmptyClusterStrategy strategy :
+             KMeansPlusPlusClusterer.EmptyClusterStrategy.values()) {
+            if (strategy != KMeansPlusPlusClusterer.EmptyClusterStrategy.ERROR) {
+                checkPacked(strategy);
+            }
+        }
+    }
+
+    private void checkPacked(final KMeansPlusPlusClusterer.EmptyClusterStrategy strategy) {
+
+        // points on a coarse grid, with many duplicates, so empty clusters do appear
+        final RandomGenerator generator = new Well1024a(0x61f0b4c2d83e9a57l);
+        final double[] data = new double[400];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = generator.nextInt(4);
+        }
+        final PackedPoints packed = new PackedPoints(data, 2);
+        final List<DoublePoint> points = new ArrayList<DoublePoint>();
+        for (int i = 0; i < packed.getSize(); ++i) {
+            points.add(new DoublePoint(packed.getPoint(i)));
+        }
+
+        final List<CentroidCluster<DoublePoint>> clusters =
+            new KMeansPlusPlusClusterer<DoublePoint>(12, 100, new EuclideanDistance(),
+                                                     new JDKRandomGenerator(0x2c5b), strategy).cluster(points);
+        final PackedClustering clustering =
+            new KMeansPlusPlusClusterer<DoublePoint>(12, 100, new EuclideanDistance(),
+                                                     new JDKRandomGenerator(0x2c5b), strategy).clusterPacked(packed);
+
+        Assert.assertEquals(clusters.size(), clustering.getNumberOfClusters());
+        Assert.assertNull(clustering.getMemberships());
+        for (int j = 0; j < clusters.size(); ++j) {
+            Assert.assertArrayEquals(clusters.get(j).getCenter().getPoint(),
+                                     Arrays.copyOfRange(clustering.getCenters(), 2 * j, 2 * j + 2),
+                                     0.0);
+            final int[] indices = clustering.getPointIndices(j);
+            Assert.assertEquals(clusters.get(j).getPoints().size(), indices.length);
+            for (int r = 0; r < indices.length; ++r) {
+                Assert.assertSame(points.get(indices[r]), clusters.get(j).getPoints().get(r));
+            }
+        }
+
+    }
+
+    @Test
+    public void testOverriddenDistance() {
+        // with the overridden distance, only the first coordinate matters
+        final KMeansPlusPlusClusterer<DoublePoint> clusterer =
+            new KMeansPlusPlusClusterer<DoublePoint>(2, 100, new EuclideanDistance(), random) {
+                @Override
+                protected double distance(final Clusterable p1, final Clusterable p2) {
+                    return FastMath.abs(p1.getPoint()[0] - p2.getPoint()[0]);
+                }
+            };
+        final List<DoublePoint> points = Arrays.asList(new DoublePoint(new double[] { 0, 0 }),
+                                                       new DoublePoint(new double[] { 0, 100 }),
+                                                       new DoublePoint(new double[] { 1, 0 }),
+                                                       new DoublePoint(new double[] { 1, 100 }));
+        final List<CentroidCluster<DoublePoint>> clusters = clusterer.cluster(points);
+        Assert.assertEquals(2, clusters.size());
+        for (final CentroidCluster<DoublePoint> cluster : clusters) {
+            Assert.assertEquals(2, cluster.getPoints().size());
+            Assert.assertEquals(cluster.getPoints().get(0).getPoint()[0],
+                                cluster.getPoints().get(1).getPoint()[0],
+                                0.0);
+        }
+    }
+
 }
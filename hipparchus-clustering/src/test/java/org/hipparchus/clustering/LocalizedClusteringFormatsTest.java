@@ -32,7 +32,7 @@ public class LocalizedClusteringFormatsTest extends LocalizedFormatsAbstractTest
 
     @Override
     protected int getExpectedNumber() {
-        return 1;
+        return 4;
     }
 
 }
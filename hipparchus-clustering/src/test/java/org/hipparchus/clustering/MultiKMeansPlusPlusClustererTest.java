@@ -23,9 +23,18 @@
 package org.hipparchus.clustering;
 
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import org.hipparchus.clustering.distance.EuclideanDistance;
+import org.hipparchus.clustering.evaluation.SumOfClusterVariances;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.random.JDKRandomGenerator;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
+import org.hipparchus.util.FastMath;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -36,6 +45,116 @@ public class MultiKMeansPlusPlusClustererTest {
         MultiKMeansPlusPlusClusterer<DoublePoint> transformer =
             new MultiKMeansPlusPlusClusterer<DoublePoint>(
                     new KMeansPlusPlusClusterer<DoublePoint>(3, 10), 5);
+        Assert.assertNull(transformer.getPool());
+        checkDimension2(transformer);
+    }
+
+    @Test
+    public void dimension2Concurrent() {
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            MultiKMeansPlusPlusClusterer<DoublePoint> transformer =
+                new MultiKMeansPlusPlusClusterer<DoublePoint>(
+                        new KMeansPlusPlusClusterer<DoublePoint>(3, 10), 5,
+                        new SumOfClusterVariances<DoublePoint>(new EuclideanDistance()), pool);
+            Assert.assertSame(pool, transformer.getPool());
+            checkDimension2(transformer);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void concurrentReproducibility() {
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            final double[][] centers = new double[2][];
+            for (int run = 0; run < centers.length; ++run) {
+                final JDKRandomGenerator random = new JDKRandomGenerator(0x1e7dl);
+                final MultiKMeansPlusPlusClusterer<DoublePoint> transformer =
+                    new MultiKMeansPlusPlusClusterer<DoublePoint>(
+                            new KMeansPlusPlusClusterer<DoublePoint>(4, 50, new EuclideanDistance(), random), 8,
+                            new SumOfClusterVariances<DoublePoint>(new EuclideanDistance()), pool);
+                final List<DoublePoint> points = new ArrayList<>();
+                for (int i = 0; i < 400; ++i) {
+                    points.add(new DoublePoint(new double[] { random.nextGaussian(), random.nextGaussian() }));
+                }
+                final List<CentroidCluster<DoublePoint>> clusters = transformer.cluster(points);
+                centers[run] = new double[2 * clusters.size()];
+                for (int i = 0; i < clusters.size(); ++i) {
+                    System.arraycopy(clusters.get(i).getCenter().getPoint(), 0, centers[run], 2 * i, 2);
+                }
+            }
+            Assert.assertArrayEquals(centers[0], centers[1], 0.0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void subclassSequentialAndConcurrent() {
+        final RandomGenerator random = new Well1024a(0x64b1f3c2a5e7d908l);
+        final List<DoublePoint> points = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            // two groups separated along x, spread widely along y
+            final double x = 10 * (i % 2) + 0.5 * random.nextGaussian();
+            points.add(new DoublePoint(new double[] { x, 100 * random.nextDouble() }));
+        }
+
+        // sequential trials use the embedded clusterer itself
+        final MultiKMeansPlusPlusClusterer<DoublePoint> sequential =
+            new MultiKMeansPlusPlusClusterer<DoublePoint>(new AbscissaKMeans(new JDKRandomGenerator(0x17l)), 4);
+        checkSplitAlongX(sequential.cluster(points));
+
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            // concurrent trials use clusterers built by the factory
+            final MultiKMeansPlusPlusClusterer<DoublePoint> concurrent =
+                new MultiKMeansPlusPlusClusterer<DoublePoint>(new AbscissaKMeans(new JDKRandomGenerator(0x17l)), 4,
+                                                              new SumOfClusterVariances<>(new EuclideanDistance()),
+                                                              pool, AbscissaKMeans::new);
+            checkSplitAlongX(concurrent.cluster(points));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = MathIllegalArgumentException.class)
+    public void subclassConcurrentWithoutFactory() {
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            new MultiKMeansPlusPlusClusterer<DoublePoint>(new AbscissaKMeans(new JDKRandomGenerator(0x17l)), 4,
+                                                          new SumOfClusterVariances<>(new EuclideanDistance()),
+                                                          pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void checkSplitAlongX(final List<CentroidCluster<DoublePoint>> clusters) {
+        // with the overridden distance, clusters follow the x groups, not the wider y spread
+        Assert.assertEquals(2, clusters.size());
+        for (final CentroidCluster<DoublePoint> cluster : clusters) {
+            Assert.assertEquals(100, cluster.getPoints().size());
+            final boolean right = cluster.getCenter().getPoint()[0] > 5;
+            for (final DoublePoint point : cluster.getPoints()) {
+                Assert.assertEquals(right, point.getPoint()[0] > 5);
+            }
+        }
+    }
+
+    /** K-means++ clusterer considering only the first coordinate. */
+    private static class AbscissaKMeans extends KMeansPlusPlusClusterer<DoublePoint> {
+        AbscissaKMeans(final RandomGenerator random) {
+            super(2, 100, new EuclideanDistance(), random);
+        }
+        @Override
+        protected double distance(final Clusterable p1, final Clusterable p2) {
+            return FastMath.abs(p1.getPoint()[0] - p2.getPoint()[0]);
+        }
+    }
+
+    private void checkDimension2(final MultiKMeansPlusPlusClusterer<DoublePoint> transformer) {
 
         DoublePoint[] points = new DoublePoint[] {
 
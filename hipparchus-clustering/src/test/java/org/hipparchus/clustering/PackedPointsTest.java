@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.clustering;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PackedPointsTest {
+
+    @Test
+    public void testFromArray() {
+        final double[] data = { 1, 2, 3, 4, 5, 6 };
+        final PackedPoints points = new PackedPoints(data, 3);
+        Assert.assertSame(data, points.getData());
+        Assert.assertEquals(3, points.getDimension());
+        Assert.assertEquals(2, points.getSize());
+        Assert.assertEquals(3, points.getOffset(1));
+        Assert.assertArrayEquals(new double[] { 4, 5, 6 }, points.getPoint(1), 0.0);
+        data[4] = -5;
+        Assert.assertArrayEquals(new double[] { 4, -5, 6 }, points.getPoint(1), 0.0);
+    }
+
+    @Test
+    public void testFromCollection() {
+        final PackedPoints points =
+                        new PackedPoints(Arrays.asList(new DoublePoint(new double[] { 1, 2 }),
+                                                       new DoublePoint(new double[] { 3, 4 }),
+                                                       new DoublePoint(new double[] { 5, 6 })));
+        Assert.assertEquals(2, points.getDimension());
+        Assert.assertEquals(3, points.getSize());
+        Assert.assertArrayEquals(new double[] { 1, 2, 3, 4, 5, 6 }, points.getData(), 0.0);
+    }
+
+    @Test
+    public void testWrongLength() {
+        try {
+            new PackedPoints(new double[7], 3);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedClusteringFormats.PACKED_POINTS_LENGTH, miae.getSpecifier());
+            Assert.assertEquals(7, miae.getParts()[0]);
+            Assert.assertEquals(3, miae.getParts()[1]);
+        }
+    }
+
+    @Test
+    public void testWrongDimension() {
+        try {
+            new PackedPoints(new double[6], 0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testEmptyArray() {
+        try {
+            new PackedPoints(new double[0], 3);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NO_DATA, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testEmptyCollection() {
+        try {
+            new PackedPoints(new ArrayList<DoublePoint>());
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NO_DATA, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testDimensionMismatch() {
+        try {
+            new PackedPoints(Arrays.asList(new DoublePoint(new double[] { 1, 2 }),
+                                           new DoublePoint(new double[] { 3, 4, 5 })));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testPointIndices() {
+        final PackedClustering clustering =
+                        new PackedClustering(2, new int[] { 1, PackedClustering.NOISE, 0, 1, 1 }, null, null);
+        Assert.assertEquals(2, clustering.getNumberOfClusters());
+        Assert.assertNull(clustering.getCenters());
+        Assert.assertNull(clustering.getMemberships());
+        Assert.assertArrayEquals(new int[] { 2 },       clustering.getPointIndices(0));
+        Assert.assertArrayEquals(new int[] { 0, 3, 4 }, clustering.getPointIndices(1));
+        Assert.assertArrayEquals(new int[] { 1 },       clustering.getPointIndices(PackedClustering.NOISE));
+    }
+
+}
@@ -44,4 +44,14 @@ public class ChebyshevDistanceTest {
         Assert.assertEquals(expected, distance.compute(a, b), 0d);
         Assert.assertEquals(expected, distance.compute(b, a), 0d);
     }
+
+    @Test
+    public void testPacked() {
+        final double[] a = { 1, -2, 3, 4 };
+        final double[] b = { -5, -6, 0, 8 };
+        final double[] packed = { 9, 9, 1, -2, 3, 4, -5, -6, 0, 8, 9 };
+        Assert.assertEquals(distance.compute(a, b), distance.compute(packed, 2, packed, 6, 4), 0d);
+        Assert.assertEquals(distance.compute(b, a), distance.compute(packed, 6, packed, 2, 4), 0d);
+        Assert.assertEquals(0, distance.compute(packed, 2, a, 0, 4), 0d);
+    }
 }
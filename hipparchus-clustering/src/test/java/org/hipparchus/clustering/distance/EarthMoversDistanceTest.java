@@ -50,4 +50,14 @@ public class EarthMoversDistanceTest {
         Assert.assertEquals(expected, distance.compute(a, b), 1e-10);
         Assert.assertEquals(expected, distance.compute(b, a), 1e-10);
     }
+
+    @Test
+    public void testPacked() {
+        final double[] a = { 1, -2, 3, 4 };
+        final double[] b = { -5, -6, 0, 8 };
+        final double[] packed = { 9, 9, 1, -2, 3, 4, -5, -6, 0, 8, 9 };
+        Assert.assertEquals(distance.compute(a, b), distance.compute(packed, 2, packed, 6, 4), 0d);
+        Assert.assertEquals(distance.compute(b, a), distance.compute(packed, 6, packed, 2, 4), 0d);
+        Assert.assertEquals(0, distance.compute(packed, 2, a, 0, 4), 0d);
+    }
 }
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.clustering.neighbors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hipparchus.clustering.DoublePoint;
+import org.hipparchus.clustering.LocalizedClusteringFormats;
+import org.hipparchus.clustering.PackedPoints;
+import org.hipparchus.clustering.distance.CanberraDistance;
+import org.hipparchus.clustering.distance.ChebyshevDistance;
+import org.hipparchus.clustering.distance.DistanceMeasure;
+import org.hipparchus.clustering.distance.EuclideanDistance;
+import org.hipparchus.clustering.distance.ManhattanDistance;
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KDTreeNeighborSearchTest {
+
+    @Test
+    public void testSupports() {
+        final KDTreeNeighborSearch search = new KDTreeNeighborSearch();
+        Assert.assertEquals(KDTreeNeighborSearch.DEFAULT_LEAF_SIZE, search.getLeafSize());
+        Assert.assertTrue(search.supports(new EuclideanDistance()));
+        Assert.assertTrue(search.supports(new ManhattanDistance()));
+        Assert.assertTrue(search.supports(new ChebyshevDistance()));
+        Assert.assertFalse(search.supports(new CanberraDistance()));
+        Assert.assertFalse(search.supports(new EuclideanDistance() {
+            private static final long serialVersionUID = 1L;
+            @Override
+            public double compute(double[] a, double[] b) {
+                return 2 * super.compute(a, b);
+            }
+        }));
+        Assert.assertFalse(search.supports(null));
+        Assert.assertTrue(new BruteForceNeighborSearch().supports(new CanberraDistance()));
+    }
+
+    @Test
+    public void testUnsupportedMeasure() {
+        try {
+            new KDTreeNeighborSearch().index(Collections.<DoublePoint>emptyList(), new CanberraDistance());
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedClusteringFormats.UNSUPPORTED_DISTANCE_MEASURE, miae.getSpecifier());
+            Assert.assertEquals(CanberraDistance.class.getName(), miae.getParts()[0]);
+            Assert.assertEquals(KDTreeNeighborSearch.class.getName(), miae.getParts()[1]);
+        }
+    }
+
+    @Test
+    public void testWrongLeafSize() {
+        try {
+            new KDTreeNeighborSearch(0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testDimensionMismatch() {
+        try {
+            new KDTreeNeighborSearch().index(Arrays.asList(new DoublePoint(new double[] { 0, 1 }),
+                                                           new DoublePoint(new double[] { 0, 1, 2 })),
+                                             new EuclideanDistance());
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        final NeighborIndex<DoublePoint> index =
+                        new KDTreeNeighborSearch().index(Collections.<DoublePoint>emptyList(), new EuclideanDistance());
+        Assert.assertTrue(index.getNeighbors(new DoublePoint(new double[] { 0, 0 }), 1.0).isEmpty());
+    }
+
+    @Test
+    public void testEuclidean() {
+        checkAgainstBruteForce(new EuclideanDistance(), 3, 2000, 0.1, 16);
+    }
+
+    @Test
+    public void testManhattan() {
+        checkAgainstBruteForce(new ManhattanDistance(), 2, 2000, 0.05, 4);
+    }
+
+    @Test
+    public void testChebyshev() {
+        checkAgainstBruteForce(new ChebyshevDistance(), 5, 1000, 0.2, 1);
+    }
+
+    @Test
+    public void testIdenticalPoints() {
+        final List<DoublePoint> points = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            points.add(new DoublePoint(new double[] { 1.0, 2.0 }));
+        }
+        final NeighborIndex<DoublePoint> index = new KDTreeNeighborSearch(4).index(points, new EuclideanDistance());
+        final List<DoublePoint> neighbors = index.getNeighbors(points.get(10), 0.0);
+        Assert.assertEquals(99, neighbors.size());
+        for (final DoublePoint neighbor : neighbors) {
+            Assert.assertNotSame(points.get(10), neighbor);
+        }
+    }
+
+    private void checkAgainstBruteForce(final DistanceMeasure measure, final int dimension,
+                                        final int n, final double radius, final int leafSize) {
+        final RandomGenerator random = new Well1024a(0x8e4e2c3ad5ae4b47l);
+        final List<DoublePoint> points = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            final double[] p = new double[dimension];
+            for (int j = 0; j < dimension; ++j) {
+                // use a coarse grid so that many points are at the exact search radius
+                p[j] = FastMath.rint(40 * random.nextDouble()) / 40;
+            }
+            points.add(new DoublePoint(p));
+        }
+        final NeighborIndex<DoublePoint> reference = new BruteForceNeighborSearch().index(points, measure);
+        final NeighborIndex<DoublePoint> tree      = new KDTreeNeighborSearch(leafSize).index(points, measure);
+        int total = 0;
+        for (final DoublePoint point : points) {
+            final List<DoublePoint> expected = reference.getNeighbors(point, radius);
+            final List<DoublePoint> actual   = tree.getNeighbors(point, radius);
+            Assert.assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); ++i) {
+                Assert.assertSame(expected.get(i), actual.get(i));
+            }
+            total += actual.size();
+        }
+        Assert.assertTrue(total > n);
+    }
+
+    @Test
+    public void testPacked() {
+        final RandomGenerator random = new Well1024a(0x0c4f7d29e83b156al);
+        final double[] data = new double[3 * 1500];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = FastMath.rint(20 * random.nextDouble()) / 20;
+        }
+        final PackedPoints points = new PackedPoints(data, 3);
+        final DistanceMeasure measure = new ManhattanDistance();
+        final PackedNeighborIndex reference = new BruteForceNeighborSearch().index(points, measure);
+        final PackedNeighborIndex tree      = new KDTreeNeighborSearch(8).index(points, measure);
+        int total = 0;
+        for (int i = 0; i < points.getSize(); ++i) {
+            final int[] neighbors = tree.getNeighbors(i, 0.15);
+            Assert.assertArrayEquals(reference.getNeighbors(i, 0.15), neighbors);
+            total += neighbors.length;
+        }
+        Assert.assertTrue(total > points.getSize());
+    }
+
+    @Test
+    public void testPackedUnsupportedMeasure() {
+        try {
+            new KDTreeNeighborSearch().index(new PackedPoints(new double[4], 2), new CanberraDistance());
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedClusteringFormats.UNSUPPORTED_DISTANCE_MEASURE, miae.getSpecifier());
+        }
+    }
+
+}
@@ -230,6 +230,7 @@ public enum LocalizedCoreFormats implements Localizable {
     SIMPLE_MESSAGE("{0}"),
     SINGULAR_MATRIX("matrix is singular"), /* keep */
     SINGULAR_OPERATOR("operator is singular"),
+    SPARSITY_PATTERN_MISMATCH("entry ({0}, {1}) is outside of the sparsity pattern used for symbolic analysis"),
     SUBARRAY_ENDS_AFTER_ARRAY_END("subarray ends after array end"),
     TOO_LARGE_CUTOFF_SINGULAR_VALUE("cutoff singular value is {0}, should be at most {1}"),
     TOO_MANY_ELEMENTS_TO_DISCARD_FROM_ARRAY("cannot discard {0} elements from a {1} elements array"),
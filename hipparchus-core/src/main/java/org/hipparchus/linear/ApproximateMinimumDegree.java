@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.Arrays;
+
+import org.hipparchus.util.FastMath;
+
+/** Approximate minimum degree ordering for sparse symmetric matrices.
+ * <p>
+ * This class computes a fill-reducing ordering of the rows and columns of a
+ * sparse matrix with symmetric pattern, to be used before a sparse Cholesky
+ * or LU factorization. It follows the approximate minimum degree algorithm
+ * of Amestoy, Davis and Duff: eliminated nodes are represented as elements
+ * in a quotient graph, so the graph never grows, and the degree of each
+ * variable is replaced by a cheap upper bound of its external degree.
+ * Elements whose variables are all adjacent to the new pivot element are
+ * absorbed. Supervariables are not detected, so the ordering cost is higher
+ * than in the reference implementation for matrices with many identical
+ * rows, but the quality of the ordering is similar.
+ * </p>
+ * @see SparseCholeskyDecomposition
+ * @see SparseLUDecomposition
+ * @since 1.7
+ */
+final class ApproximateMinimumDegree {
+
+    /** Private constructor for a utility class.
+     */
+    private ApproximateMinimumDegree() {
+        // nothing to do
+    }
+
+    /** Compute an ordering.
+     * <p>
+     * Only the pattern of the matrix is used, and it is symmetrized, so
+     * the ordering is computed for the pattern of A + A<sup>T</sup>.
+     * </p>
+     * @param pattern storage of a square matrix
+     * @return permutation array, element k is the index of the k<sup>th</sup> pivot
+     */
+    static int[] order(final CompressedStorage pattern) {
+
+        final int n = pattern.getMajorDimension();
+
+        // variables adjacency, from the pattern of A + A^T without diagonal
+        final int[][] adjacency = symmetrize(pattern);
+        final int[]   adjLength = new int[n];
+
+        // elements adjacency of variables, and variables of elements
+        final int[][] elements  = new int[n][];
+        final int[]   elemLength = new int[n];
+        final int[][] members   = new int[n][];
+        final boolean[] eliminated = new boolean[n];
+        final boolean[] absorbed   = new boolean[n];
+
+        // degree lists
+        final int[] degree = new int[n];
+        final int[] head   = new int[n];
+        final int[] next   = new int[n];
+        final int[] prev   = new int[n];
+        Arrays.fill(head, -1);
+        int minDegree = n;
+        for (int i = 0; i < n; ++i) {
+            adjLength[i] = adjacency[i].length;
+            elements[i]  = new int[4];
+            degree[i]    = adjLength[i];
+            minDegree    = insert(i, degree[i], head, next, prev, minDegree);
+        }
+
+        // work arrays
+        final int[] mark       = new int[n];
+        final int[] external   = new int[n];
+        final int[] stamp      = new int[n];
+        Arrays.fill(mark,  -1);
+        Arrays.fill(stamp, -1);
+
+        final int[] permutation = new int[n];
+        for (int k = 0; k < n; ++k) {
+
+            // select pivot with minimum approximate degree
+            while (head[minDegree] < 0) {
+                ++minDegree;
+            }
+            final int p = head[minDegree];
+            remove(p, degree[p], head, next, prev);
+            permutation[k] = p;
+            eliminated[p]  = true;
+
+            // build the new element L_p = (A_p U (U_{e in E_p} L_e)) \ {p}
+            int[] lp = new int[adjLength[p]];
+            int   lpLength = 0;
+            mark[p] = k;
+            for (int q = 0; q < adjLength[p]; ++q) {
+                final int i = adjacency[p][q];
+                if (!eliminated[i] && mark[i] != k) {
+                    mark[i] = k;
+                    lp[lpLength++] = i;
+                }
+            }
+            for (int q = 0; q < elemLength[p]; ++q) {
+                final int e = elements[p][q];
+                if (absorbed[e]) {
+                    continue;
+                }
+                for (final int i : members[e]) {
+                    if (!eliminated[i] && mark[i] != k) {
+                        mark[i] = k;
+                        if (lpLength == lp.length) {
+                            lp = Arrays.copyOf(lp, 2 * lpLength + 1);
+                        }
+                        lp[lpLength++] = i;
+                    }
+                }
+                // the element is now included in L_p
+                absorbed[e] = true;
+                members[e]  = null;
+            }
+            members[p]   = Arrays.copyOf(lp, lpLength);
+            adjacency[p] = null;
+            elements[p]  = null;
+
+            // update the quotient graph around the new element,
+            // and compute |L_e \ L_p| for all other elements adjacent to L_p
+            for (int q = 0; q < lpLength; ++q) {
+                final int i = lp[q];
+                remove(i, degree[i], head, next, prev);
+
+                // prune variables adjacency: p and all of L_p are now reachable through element p
+                int kept = 0;
+                for (int r = 0; r < adjLength[i]; ++r) {
+                    final int j = adjacency[i][r];
+                    if (!eliminated[j] && mark[j] != k) {
+                        adjacency[i][kept++] = j;
+                    }
+                }
+                adjLength[i] = kept;
+
+                // remove absorbed elements and add the new one
+                kept = 0;
+                for (int r = 0; r < elemLength[i]; ++r) {
+                    final int e = elements[i][r];
+                    if (!absorbed[e]) {
+                        elements[i][kept++] = e;
+                        if (stamp[e] != k) {
+                            stamp[e]    = k;
+                            external[e] = members[e].length;
+                        }
+                        --external[e];
+                    }
+                }
+                if (kept == elements[i].length) {
+                    elements[i] = Arrays.copyOf(elements[i], 2 * kept);
+                }
+                elements[i][kept++] = p;
+                elemLength[i] = kept;
+            }
+
+            // compute approximate degrees of variables in L_p
+            final int remaining = n - k - 1;
+            for (int q = 0; q < lpLength; ++q) {
+                final int i = lp[q];
+                long d = adjLength[i] + lpLength - 1;
+                int kept = 0;
+                for (int r = 0; r < elemLength[i]; ++r) {
+                    final int e = elements[i][r];
+                    if (e == p) {
+                        elements[i][kept++] = e;
+                    } else if (external[e] > 0) {
+                        d += external[e];
+                        elements[i][kept++] = e;
+                    } else {
+                        // all variables of this element belong to L_p: aggressive absorption
+                        absorbed[e] = true;
+                        members[e]  = null;
+                    }
+                }
+                elemLength[i] = kept;
+                degree[i] = (int) FastMath.min(FastMath.min(d, (long) degree[i] + lpLength - 1),
+                                                    remaining - 1);
+                minDegree = insert(i, degree[i], head, next, prev, minDegree);
+            }
+
+        }
+
+        return permutation;
+
+    }
+
+    /** Symmetrize the pattern of a matrix.
+     * @param pattern storage of a square matrix
+     * @return adjacency lists of A + A<sup>T</sup>, without the diagonal
+     */
+    private static int[][] symmetrize(final CompressedStorage pattern) {
+        final int   n        = pattern.getMajorDimension();
+        final int[] pointers = pattern.getPointers();
+        final int[] indices  = pattern.getIndices();
+
+        // count entries, each off-diagonal entry appears in both lists
+        final int[] count = new int[n];
+        for (int i = 0; i < n; ++i) {
+            for (int p = pointers[i]; p < pointers[i + 1]; ++p) {
+                final int j = indices[p];
+                if (j != i) {
+                    ++count[i];
+                    ++count[j];
+                }
+            }
+        }
+        final int[][] lists = new int[n][];
+        for (int i = 0; i < n; ++i) {
+            lists[i] = new int[count[i]];
+        }
+        Arrays.fill(count, 0);
+        for (int i = 0; i < n; ++i) {
+            for (int p = pointers[i]; p < pointers[i + 1]; ++p) {
+                final int j = indices[p];
+                if (j != i) {
+                    lists[i][count[i]++] = j;
+                    lists[j][count[j]++] = i;
+                }
+            }
+        }
+
+        // remove duplicates (entries present in both A and A^T)
+        final int[] mark = new int[n];
+        Arrays.fill(mark, -1);
+        for (int i = 0; i < n; ++i) {
+            int kept = 0;
+            for (int q = 0; q < lists[i].length; ++q) {
+                final int j = lists[i][q];
+                if (mark[j] != i) {
+                    mark[j] = i;
+                    lists[i][kept++] = j;
+                }
+            }
+            if (kept < lists[i].length) {
+                lists[i] = Arrays.copyOf(lists[i], kept);
+            }
+        }
+
+        return lists;
+
+    }
+
+    /** Insert a variable in a degree list.
+     * @param i variable
+     * @param d degree of the variable
+     * @param head heads of degree lists
+     * @param next next variable in degree lists
+     * @param prev previous variable in degree lists
+     * @param minDegree current minimum degree
+     * @return updated minimum degree
+     */
+    private static int insert(final int i, final int d,
+                              final int[] head, final int[] next, final int[] prev,
+                              final int minDegree) {
+        next[i] = head[d];
+        prev[i] = -1;
+        if (head[d] >= 0) {
+            prev[head[d]] = i;
+        }
+        head[d] = i;
+        return FastMath.min(minDegree, d);
+    }
+
+    /** Remove a variable from a degree list.
+     * @param i variable
+     * @param d degree of the variable
+     * @param head heads of degree lists
+     * @param next next variable in degree lists
+     * @param prev previous variable in degree lists
+     */
+    private static void remove(final int i, final int d,
+                               final int[] head, final int[] next, final int[] prev) {
+        if (prev[i] >= 0) {
+            next[prev[i]] = next[i];
+        } else {
+            head[d] = next[i];
+        }
+        if (next[i] >= 0) {
+            prev[next[i]] = prev[i];
+        }
+    }
+
+}
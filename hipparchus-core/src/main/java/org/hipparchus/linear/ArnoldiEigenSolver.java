@@ -0,0 +1,348 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.hipparchus.complex.Complex;
+import org.hipparchus.complex.ComplexField;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.exception.MathRuntimeException;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.Incrementor;
+
+/** Implicitly restarted Arnoldi solver for the largest magnitude eigenpairs of an operator.
+ * <p>
+ * This solver computes the k eigenvalues with largest modulus and the
+ * associated eigenvectors of a general (non-symmetric) {@link RealLinearOperator},
+ * using only operator applications. As the operator is real, complex eigenvalues
+ * come in conjugate pairs, and the eigenvalue with positive imaginary part is
+ * returned first. If the k<sup>th</sup> eigenvalue is the first half of a pair,
+ * its conjugate is not returned.
+ * </p>
+ * <p>
+ * The Krylov subspace dimension is m = min(n, max(2k + 1, 20)). Each cycle
+ * expands the Arnoldi basis up to m vectors (with full re-orthogonalization),
+ * computes the Ritz pairs from the small projected Hessenberg matrix and,
+ * if the k wanted ones have not converged yet, restarts by keeping an orthonormal
+ * basis of the best Ritz vectors (using real and imaginary parts for complex ones).
+ * This Krylov-Schur form of restart is equivalent to implicit restart with exact
+ * shifts. Memory is therefore O(k n) and each cycle costs O(k) operator applications,
+ * i.e. O(k nnz) for a sparse matrix, plus O(k<sup>2</sup> n) for orthogonalization.
+ * </p>
+ * <p>
+ * A Ritz pair (&theta;, x) is considered converged when ||A x - &theta; x|| &le;
+ * &epsilon; max|&theta;<sub>i</sub>|, the maximum being taken over all current Ritz values.
+ * </p>
+ * <p>
+ * For symmetric operators, {@link LanczosEigenSolver} is more efficient and accurate.
+ * </p>
+ * @see LanczosEigenSolver
+ * @see ComplexEigenDecomposition
+ * @since 1.7
+ */
+public class ArnoldiEigenSolver {
+
+    /** Threshold under which a restart vector is considered dependent on the previous ones. */
+    private static final double DEPENDENCY_THRESHOLD = 1.0e-8;
+
+    /** Maximum number of restarts. */
+    private final int maxRestarts;
+
+    /** Relative tolerance for residuals. */
+    private final double epsilon;
+
+    /** Simple constructor.
+     * @param maxRestarts maximum number of restarts
+     * @param epsilon relative tolerance for residuals
+     */
+    public ArnoldiEigenSolver(final int maxRestarts, final double epsilon) {
+        this.maxRestarts = maxRestarts;
+        this.epsilon     = epsilon;
+    }
+
+    /** Compute the largest magnitude eigenpairs of an operator, using a default start vector.
+     * @param a square operator
+     * @param k number of wanted eigenpairs
+     * @return the k largest magnitude eigenpairs, sorted in decreasing modulus order
+     * @exception MathIllegalArgumentException if operator is not square or
+     * if k is not between 1 and the operator dimension
+     * @exception MathIllegalStateException if the maximum number of restarts is exceeded
+     * @exception MathRuntimeException if the projected matrix has zero norm
+     */
+    public PartialComplexEigenDecomposition solve(final RealLinearOperator a, final int k)
+        throws MathIllegalArgumentException, MathIllegalStateException, MathRuntimeException {
+        return solve(a, k, null);
+    }
+
+    /** Compute the largest magnitude eigenpairs of an operator.
+     * @param a square operator
+     * @param k number of wanted eigenpairs
+     * @param start start vector (if null, a pseudo-random vector with a fixed seed is used)
+     * @return the k largest magnitude eigenpairs, sorted in decreasing modulus order
+     * @exception MathIllegalArgumentException if operator is not square,
+     * if k is not between 1 and the operator dimension or if start vector
+     * dimension does not match operator dimension
+     * @exception MathIllegalStateException if the maximum number of restarts is exceeded
+     * @exception MathRuntimeException if the projected matrix has zero norm
+     */
+    public PartialComplexEigenDecomposition solve(final RealLinearOperator a, final int k, final RealVector start)
+        throws MathIllegalArgumentException, MathIllegalStateException, MathRuntimeException {
+
+        final KrylovDecomposition krylov = KrylovDecomposition.create(a, k, start);
+        final int m                      = krylov.getMaxDimension();
+        final Incrementor restarts       = new Incrementor(maxRestarts);
+
+        while (true) {
+
+            krylov.expand();
+
+            // Ritz pairs, from the projected Hessenberg matrix
+            final List<RitzPair> pairs = ritzPairs(krylov.getH(), krylov.getResidualNorm());
+            double largest = 0;
+            for (final RitzPair pair : pairs) {
+                largest = FastMath.max(largest, pair.modulus);
+            }
+            pairs.sort(Comparator.comparingDouble((RitzPair pair) -> -pair.modulus).
+                       thenComparingDouble(pair -> -pair.re));
+
+            final double threshold = epsilon * largest;
+            boolean converged = true;
+            for (int i = 0, count = 0; count < k && converged; ++i) {
+                final RitzPair pair = pairs.get(i);
+                converged = pair.residual <= threshold;
+                count    += pair.dimension();
+            }
+
+            if (converged) {
+                return buildDecomposition(krylov, pairs, k);
+            }
+
+            restarts.increment();
+
+            // restart on an orthonormal basis of the best Ritz vectors
+            final int target = FastMath.min(m - 1, k + (m - k) / 2);
+            final List<double[]> columns = new ArrayList<>();
+            for (final RitzPair pair : pairs) {
+                if (columns.size() + pair.dimension() > target) {
+                    if (pair.dimension() == 2 && columns.size() + 2 < m) {
+                        // don't split a complex conjugate pair
+                        pair.addColumns(columns);
+                    }
+                    break;
+                }
+                pair.addColumns(columns);
+            }
+            final int p = orthonormalize(columns);
+            final double[][] q = new double[m][p];
+            for (int c = 0; c < p; ++c) {
+                final double[] column = columns.get(c);
+                for (int i = 0; i < m; ++i) {
+                    q[i][c] = column[i];
+                }
+            }
+            krylov.restart(q, p);
+
+        }
+
+    }
+
+    /** Compute the Ritz pairs of the projected matrix.
+     * @param h projected matrix
+     * @param beta norm of the Krylov decomposition residual
+     * @return Ritz pairs (complex conjugate pairs count as one)
+     */
+    private static List<RitzPair> ritzPairs(final double[][] h, final double beta) {
+        final int m = h.length;
+        final EigenDecomposition ed = new EigenDecomposition(MatrixUtils.createRealMatrix(h));
+        final List<RitzPair> pairs = new ArrayList<>(m);
+        for (int i = 0; i < m; ++i) {
+            final double re = ed.getRealEigenvalue(i);
+            final double im = ed.getImagEigenvalue(i);
+            if (im == 0) {
+                pairs.add(new RitzPair(re, 0, ed.getEigenvector(i).toArray(), null, beta));
+            } else {
+                // real and imaginary parts of the eigenvector are stored in consecutive columns
+                pairs.add(new RitzPair(re, FastMath.abs(im),
+                                       ed.getEigenvector(i).toArray(), ed.getEigenvector(i + 1).toArray(),
+                                       beta));
+                ++i;
+            }
+        }
+        return pairs;
+    }
+
+    /** Orthonormalize columns in place, using modified Gram-Schmidt with re-orthogonalization.
+     * <p>
+     * Columns that are numerically dependent on the previous ones are removed.
+     * </p>
+     * @param columns columns to orthonormalize
+     * @return number of remaining columns
+     */
+    private static int orthonormalize(final List<double[]> columns) {
+        int p = 0;
+        for (final double[] column : columns) {
+            final double initial = norm(column);
+            for (int pass = 0; pass < 2; ++pass) {
+                for (int c = 0; c < p; ++c) {
+                    final double[] previous = columns.get(c);
+                    double dot = 0;
+                    for (int i = 0; i < column.length; ++i) {
+                        dot += previous[i] * column[i];
+                    }
+                    for (int i = 0; i < column.length; ++i) {
+                        column[i] -= dot * previous[i];
+                    }
+                }
+            }
+            final double remaining = norm(column);
+            if (remaining > DEPENDENCY_THRESHOLD * initial) {
+                for (int i = 0; i < column.length; ++i) {
+                    column[i] /= remaining;
+                }
+                columns.set(p++, column);
+            }
+        }
+        return p;
+    }
+
+    /** Compute the Euclidean norm of an array.
+     * @param x array
+     * @return Euclidean norm of x
+     */
+    private static double norm(final double[] x) {
+        double sum = 0;
+        for (final double xi : x) {
+            sum += xi * xi;
+        }
+        return FastMath.sqrt(sum);
+    }
+
+    /** Build the decomposition from converged Ritz pairs.
+     * @param krylov Krylov decomposition
+     * @param pairs sorted Ritz pairs
+     * @param k number of wanted eigenpairs
+     * @return partial eigen decomposition
+     */
+    private static PartialComplexEigenDecomposition buildDecomposition(final KrylovDecomposition krylov,
+                                                                       final List<RitzPair> pairs,
+                                                                       final int k) {
+        final Complex[] eigenvalues = new Complex[k];
+        @SuppressWarnings("unchecked")
+        final ArrayFieldVector<Complex>[] eigenvectors =
+                        (ArrayFieldVector<Complex>[]) new ArrayFieldVector<?>[k];
+        int count = 0;
+        for (int i = 0; count < k; ++i) {
+            final RitzPair pair = pairs.get(i);
+            final double[] x = krylov.ritzVector(pair.x);
+            final double[] y = pair.y == null ? new double[x.length] : krylov.ritzVector(pair.y);
+            final double scale = 1.0 / FastMath.sqrt(norm(x) * norm(x) + norm(y) * norm(y));
+            final Complex[] z = new Complex[x.length];
+            for (int l = 0; l < z.length; ++l) {
+                z[l] = new Complex(scale * x[l], scale * y[l]);
+            }
+            eigenvalues[count]    = new Complex(pair.re, pair.im);
+            eigenvectors[count++] = new ArrayFieldVector<>(ComplexField.getInstance(), z, false);
+            if (pair.y != null && count < k) {
+                final Complex[] conjugate = new Complex[z.length];
+                for (int l = 0; l < z.length; ++l) {
+                    conjugate[l] = z[l].conjugate();
+                }
+                eigenvalues[count]    = eigenvalues[count - 1].conjugate();
+                eigenvectors[count++] = new ArrayFieldVector<>(ComplexField.getInstance(), conjugate, false);
+            }
+        }
+        return new PartialComplexEigenDecomposition(eigenvalues, eigenvectors);
+    }
+
+    /** Ritz pair of the projected matrix. */
+    private static class RitzPair {
+
+        /** Real part of the Ritz value. */
+        private final double re;
+
+        /** Non-negative imaginary part of the Ritz value. */
+        private final double im;
+
+        /** Modulus of the Ritz value. */
+        private final double modulus;
+
+        /** Real part of the normalized eigenvector of the projected matrix. */
+        private final double[] x;
+
+        /** Imaginary part of the normalized eigenvector of the projected matrix (null for real Ritz values). */
+        private final double[] y;
+
+        /** Residual norm of the Ritz pair with respect to the operator. */
+        private final double residual;
+
+        /** Simple constructor.
+         * @param re real part of the Ritz value
+         * @param im non-negative imaginary part of the Ritz value
+         * @param x real part of the eigenvector of the projected matrix
+         * @param y imaginary part of the eigenvector of the projected matrix (null for real Ritz values)
+         * @param beta norm of the Krylov decomposition residual
+         */
+        RitzPair(final double re, final double im, final double[] x, final double[] y, final double beta) {
+            this.re      = re;
+            this.im      = im;
+            this.modulus = FastMath.hypot(re, im);
+            this.x       = x;
+            this.y       = y;
+
+            // normalize the eigenvector
+            final int m = x.length;
+            double norm2 = 0;
+            for (int i = 0; i < m; ++i) {
+                norm2 += x[i] * x[i] + (y == null ? 0 : y[i] * y[i]);
+            }
+            final double inv = 1.0 / FastMath.sqrt(norm2);
+            for (int i = 0; i < m; ++i) {
+                x[i] *= inv;
+                if (y != null) {
+                    y[i] *= inv;
+                }
+            }
+
+            // ||A V z - theta V z|| = beta |z_m|
+            this.residual = beta * FastMath.hypot(x[m - 1], y == null ? 0 : y[m - 1]);
+
+        }
+
+        /** Get the number of eigenvalues covered by this pair.
+         * @return 1 for a real Ritz value, 2 for a complex conjugate pair
+         */
+        int dimension() {
+            return y == null ? 1 : 2;
+        }
+
+        /** Add the columns spanning the invariant subspace of this pair.
+         * @param columns list where to add the columns (copies of the eigenvector parts)
+         */
+        void addColumns(final List<double[]> columns) {
+            columns.add(x.clone());
+            if (y != null) {
+                columns.add(y.clone());
+            }
+        }
+
+    }
+
+}
@@ -29,6 +29,7 @@ import org.hipparchus.analysis.UnivariateFunction;
 import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.NullArgumentException;
+import org.hipparchus.util.DenseKernels;
 import org.hipparchus.util.FastMath;
 import org.hipparchus.util.MathUtils;
 
@@ -457,11 +458,7 @@ public class ArrayRealVector extends RealVector implements Serializable {
         if (v instanceof ArrayRealVector) {
             final double[] vData = ((ArrayRealVector) v).data;
             checkVectorDimensions(vData.length);
-            double dot = 0;
-            for (int i = 0; i < data.length; i++) {
-                dot += data[i] * vData[i];
-            }
-            return dot;
+            return DenseKernels.dotProduct(data, 0, vData, 0, data.length);
         }
         return super.dotProduct(v);
     }
@@ -851,9 +848,7 @@ public class ArrayRealVector extends RealVector implements Serializable {
         if (y instanceof ArrayRealVector) {
             final double[] yData = ((ArrayRealVector) y).data;
             checkVectorDimensions(yData.length);
-            for (int i = 0; i < this.data.length; i++) {
-                data[i] = a * data[i] + b * yData[i];
-            }
+            DenseKernels.combine(a, data, b, yData, data, data.length);
         } else {
             checkVectorDimensions(y);
             for (int i = 0; i < this.data.length; i++) {
@@ -0,0 +1,473 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.NullArgumentException;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathUtils;
+
+/**
+ * Calculates the Cholesky decomposition of a {@link BlockRealMatrix} using a blocked algorithm.
+ * <p>The decomposition is the same as the one computed by {@link CholeskyDecomposition}:
+ * A = LL<sup>T</sup>. It is however computed directly in blocks layout, using a
+ * right-looking algorithm: for each block column, the diagonal block is factored,
+ * then the blocks below it are computed by triangular solve, and finally the lower
+ * part of the trailing matrix is updated using block products. The triangular solves
+ * and trailing updates, which concentrate almost all floating point operations, are
+ * split between the threads of a fork/join pool.</p>
+ * <p>As operations are not performed in the same order as in {@link CholeskyDecomposition},
+ * the results of both classes may differ in the last bits.</p>
+ *
+ * @see CholeskyDecomposition
+ * @see CholeskyDecomposer#CholeskyDecomposer(double, double, ForkJoinPool)
+ * @since 1.7
+ */
+public class BlockCholeskyDecomposition {
+
+    /** Block size. */
+    private static final int BLOCK_SIZE = BlockRealMatrix.BLOCK_SIZE;
+
+    /** Pool to use for parallel computation. */
+    private final ForkJoinPool pool;
+
+    /** Dimension of the matrix. */
+    private final int n;
+
+    /** Number of block rows (and block columns) of the matrix. */
+    private final int nb;
+
+    /** Entries of L in the lower blocks (upper blocks are meaningless). */
+    private final double[][] blocks;
+
+    /** Cached value of L. */
+    private RealMatrix cachedL;
+
+    /** Cached value of LT. */
+    private RealMatrix cachedLT;
+
+    /**
+     * Calculates the Cholesky decomposition of the given matrix.
+     * <p>
+     * Calling this constructor is equivalent to call {@link
+     * #BlockCholeskyDecomposition(BlockRealMatrix, double, double, ForkJoinPool)}
+     * with the thresholds set to the default values {@link
+     * CholeskyDecomposition#DEFAULT_RELATIVE_SYMMETRY_THRESHOLD} and {@link
+     * CholeskyDecomposition#DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD}
+     * </p>
+     * @param matrix the matrix to decompose
+     * @param pool pool to use for parallel computation
+     * @throws MathIllegalArgumentException if the matrix is not square.
+     * @throws MathIllegalArgumentException if the matrix is not symmetric.
+     * @throws MathIllegalArgumentException if the matrix is not
+     * strictly positive definite.
+     * @throws NullArgumentException if pool is null
+     */
+    public BlockCholeskyDecomposition(final BlockRealMatrix matrix, final ForkJoinPool pool) {
+        this(matrix,
+             CholeskyDecomposition.DEFAULT_RELATIVE_SYMMETRY_THRESHOLD,
+             CholeskyDecomposition.DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD,
+             pool);
+    }
+
+    /**
+     * Calculates the Cholesky decomposition of the given matrix.
+     * @param matrix the matrix to decompose
+     * @param relativeSymmetryThreshold threshold above which off-diagonal
+     * elements are considered too different and matrix not symmetric
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     * @param pool pool to use for parallel computation
+     * @throws MathIllegalArgumentException if the matrix is not square.
+     * @throws MathIllegalArgumentException if the matrix is not symmetric.
+     * @throws MathIllegalArgumentException if the matrix is not
+     * strictly positive definite.
+     * @throws NullArgumentException if pool is null
+     */
+    public BlockCholeskyDecomposition(final BlockRealMatrix matrix,
+                                      final double relativeSymmetryThreshold,
+                                      final double absolutePositivityThreshold,
+                                      final ForkJoinPool pool) {
+
+        MathUtils.checkNotNull(pool);
+        if (!matrix.isSquare()) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NON_SQUARE_MATRIX,
+                                                   matrix.getRowDimension(), matrix.getColumnDimension());
+        }
+
+        this.pool = pool;
+        n         = matrix.getRowDimension();
+        nb        = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        blocks    = matrix.copy().getBlocks();
+        cachedL   = null;
+        cachedLT  = null;
+
+        // check the matrix before transformation
+        checkSymmetry(relativeSymmetryThreshold);
+
+        // Loop over block columns
+        for (int kBlock = 0; kBlock < nb; ++kBlock) {
+
+            // factor diagonal block
+            factorDiagonalBlock(kBlock, absolutePositivityThreshold);
+
+            final int k         = kBlock;
+            final int remaining = nb - kBlock - 1;
+            if (remaining > 0) {
+
+                // compute the blocks of L below the diagonal block
+                BlockProductTask.compute(pool, remaining, 1,
+                                         index -> solveLowerBlock(k, k + 1 + index));
+
+                // update lower part of trailing matrix
+                BlockProductTask.compute(pool, remaining * (remaining + 1) / 2, 1,
+                                         index -> {
+                                             // convert linear index to lower triangular position
+                                             int row = (int) ((FastMath.sqrt(8.0 * index + 1) - 1) / 2);
+                                             while (row * (row + 1) / 2 > index) {
+                                                 --row;
+                                             }
+                                             while ((row + 1) * (row + 2) / 2 <= index) {
+                                                 ++row;
+                                             }
+                                             final int column = index - row * (row + 1) / 2;
+                                             updateTrailingBlock(k, k + 1 + row, k + 1 + column);
+                                         });
+
+            }
+
+        }
+
+    }
+
+    /** Check matrix symmetry.
+     * @param relativeSymmetryThreshold threshold above which off-diagonal
+     * elements are considered too different and matrix not symmetric
+     * @throws MathIllegalArgumentException if the matrix is not symmetric.
+     */
+    private void checkSymmetry(final double relativeSymmetryThreshold) {
+        for (int iBlock = 0; iBlock < nb; ++iBlock) {
+            final int iSize = blockSize(iBlock);
+            for (int jBlock = iBlock; jBlock < nb; ++jBlock) {
+                final int      jSize = blockSize(jBlock);
+                final double[] upper = blocks[iBlock * nb + jBlock];
+                final double[] lower = blocks[jBlock * nb + iBlock];
+                for (int p = 0; p < iSize; ++p) {
+                    for (int q = (iBlock == jBlock) ? p + 1 : 0; q < jSize; ++q) {
+                        final double lIJ = upper[p * jSize + q];
+                        final double lJI = lower[q * iSize + p];
+                        final double maxDelta =
+                            relativeSymmetryThreshold * FastMath.max(FastMath.abs(lIJ), FastMath.abs(lJI));
+                        if (FastMath.abs(lIJ - lJI) > maxDelta) {
+                            throw new MathIllegalArgumentException(LocalizedCoreFormats.NON_SYMMETRIC_MATRIX,
+                                                                   iBlock * BLOCK_SIZE + p,
+                                                                   jBlock * BLOCK_SIZE + q,
+                                                                   relativeSymmetryThreshold);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** Factor one diagonal block.
+     * @param kBlock index of the diagonal block
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     * @throws MathIllegalArgumentException if the matrix is not
+     * strictly positive definite.
+     */
+    private void factorDiagonalBlock(final int kBlock, final double absolutePositivityThreshold) {
+        final double[] diag = blocks[kBlock * nb + kBlock];
+        final int      size = blockSize(kBlock);
+        for (int j = 0; j < size; ++j) {
+
+            // check diagonal element
+            final int jj = j * size + j;
+            if (diag[jj] <= absolutePositivityThreshold) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.NOT_POSITIVE_DEFINITE_MATRIX);
+            }
+
+            diag[jj] = FastMath.sqrt(diag[jj]);
+            final double inverse = 1.0 / diag[jj];
+
+            for (int i = j + 1; i < size; ++i) {
+                diag[i * size + j] *= inverse;
+            }
+            for (int i = j + 1; i < size; ++i) {
+                final double lIJ = diag[i * size + j];
+                for (int q = j + 1; q <= i; ++q) {
+                    diag[i * size + q] -= lIJ * diag[q * size + j];
+                }
+            }
+
+        }
+    }
+
+    /** Compute one block of L below a diagonal block.
+     * @param kBlock index of the diagonal block
+     * @param iBlock index of the block row to compute
+     */
+    private void solveLowerBlock(final int kBlock, final int iBlock) {
+        final double[] diag    = blocks[kBlock * nb + kBlock];
+        final double[] block   = blocks[iBlock * nb + kBlock];
+        final int      size    = blockSize(kBlock);
+        final int      iHeight = blockSize(iBlock);
+        // solve X.LT = B, where L is the lower triangular part of the diagonal block
+        for (int p = 0; p < iHeight; ++p) {
+            final int row = p * size;
+            for (int j = 0; j < size; ++j) {
+                double x = block[row + j];
+                for (int q = 0; q < j; ++q) {
+                    x -= block[row + q] * diag[j * size + q];
+                }
+                block[row + j] = x / diag[j * size + j];
+            }
+        }
+    }
+
+    /** Update one block of the lower part of the trailing matrix.
+     * @param kBlock index of the current block column
+     * @param iBlock block row of the block to update
+     * @param jBlock block column of the block to update (must be less than or equal to iBlock)
+     */
+    private void updateTrailingBlock(final int kBlock, final int iBlock, final int jBlock) {
+        final double[] cBlock  = blocks[iBlock * nb + jBlock];
+        final double[] aBlock  = blocks[iBlock * nb + kBlock];
+        final double[] bBlock  = blocks[jBlock * nb + kBlock];
+        final int      iHeight = blockSize(iBlock);
+        final int      jHeight = blockSize(jBlock);
+        final int      kWidth  = blockSize(kBlock);
+        for (int p = 0; p < iHeight; ++p) {
+            final int aRow = p * kWidth;
+            final int qEnd = (iBlock == jBlock) ? p + 1 : jHeight;
+            for (int q = 0; q < qEnd; ++q) {
+                final int bRow = q * kWidth;
+                double sum = 0;
+                for (int r = 0; r < kWidth; ++r) {
+                    sum += aBlock[aRow + r] * bBlock[bRow + r];
+                }
+                cBlock[p * jHeight + q] -= sum;
+            }
+        }
+    }
+
+    /** Get the size of a block row or block column.
+     * @param index index of the block row or block column
+     * @return size of the block row or block column
+     */
+    private int blockSize(final int index) {
+        return (index == nb - 1) ? n - index * BLOCK_SIZE : BLOCK_SIZE;
+    }
+
+    /**
+     * Returns the matrix L of the decomposition.
+     * <p>L is an lower-triangular matrix</p>
+     * @return the L matrix
+     */
+    public RealMatrix getL() {
+        if (cachedL == null) {
+            final BlockRealMatrix l = new BlockRealMatrix(n, n);
+            final double[][] lBlocks = l.getBlocks();
+            for (int iBlock = 0; iBlock < nb; ++iBlock) {
+                for (int jBlock = 0; jBlock < iBlock; ++jBlock) {
+                    final int index = iBlock * nb + jBlock;
+                    System.arraycopy(blocks[index], 0, lBlocks[index], 0, blocks[index].length);
+                }
+                final double[] diag  = blocks[iBlock * nb + iBlock];
+                final double[] lDiag = lBlocks[iBlock * nb + iBlock];
+                final int      size  = blockSize(iBlock);
+                for (int p = 0; p < size; ++p) {
+                    System.arraycopy(diag, p * size, lDiag, p * size, p + 1);
+                }
+            }
+            cachedL = l;
+        }
+        return cachedL;
+    }
+
+    /**
+     * Returns the transpose of the matrix L of the decomposition.
+     * <p>L<sup>T</sup> is an upper-triangular matrix</p>
+     * @return the transpose of the matrix L of the decomposition
+     */
+    public RealMatrix getLT() {
+        if (cachedLT == null) {
+            cachedLT = getL().transpose();
+        }
+        return cachedLT;
+    }
+
+    /**
+     * Return the determinant of the matrix
+     * @return determinant of the matrix
+     */
+    public double getDeterminant() {
+        double determinant = 1.0;
+        for (int iBlock = 0; iBlock < nb; ++iBlock) {
+            final double[] diag = blocks[iBlock * nb + iBlock];
+            final int      size = blockSize(iBlock);
+            for (int p = 0; p < size; ++p) {
+                final double lPP = diag[p * size + p];
+                determinant *= lPP * lPP;
+            }
+        }
+        return determinant;
+    }
+
+    /**
+     * Get a solver for finding the A &times; X = B solution in least square sense.
+     * <p>
+     * When solving for several right hand sides, the columns of B are split
+     * between the threads of the pool used for the decomposition.
+     * </p>
+     * @return a solver
+     */
+    public DecompositionSolver getSolver() {
+        return new Solver();
+    }
+
+    /** Specialized solver. */
+    private class Solver implements DecompositionSolver {
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isNonSingular() {
+            // if we get this far, the matrix was positive definite, hence non-singular
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public RealVector solve(final RealVector b) {
+            if (b.getDimension() != n) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       b.getDimension(), n);
+            }
+            final double[] x = b.toArray();
+            solveInPlace(x);
+            return new ArrayRealVector(x, false);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public RealMatrix solve(final RealMatrix b) {
+
+            if (b.getRowDimension() != n) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       b.getRowDimension(), n);
+            }
+
+            // solve independently for each column of b, using one
+            // block product as the cost unit for parallel splitting
+            final int nColB = b.getColumnDimension();
+            final double[][] columns = new double[nColB][];
+            final long cost = ((long) n) * n / (BLOCK_SIZE * BLOCK_SIZE * BLOCK_SIZE);
+            BlockProductTask.compute(pool, nColB, (int) FastMath.min(cost, Integer.MAX_VALUE),
+                                     col -> {
+                                         final double[] x = b.getColumn(col);
+                                         solveInPlace(x);
+                                         columns[col] = x;
+                                     });
+
+            final double[][] x = new double[n][nColB];
+            for (int col = 0; col < nColB; ++col) {
+                final double[] column = columns[col];
+                for (int row = 0; row < n; ++row) {
+                    x[row][col] = column[row];
+                }
+            }
+
+            return new Array2DRowRealMatrix(x, false);
+
+        }
+
+        /**
+         * Get the inverse of the decomposed matrix.
+         *
+         * @return the inverse matrix.
+         */
+        @Override
+        public RealMatrix getInverse() {
+            return solve(MatrixUtils.createRealIdentityMatrix(n));
+        }
+
+        /** Solve L.L<sup>T</sup>.X = B in place.
+         * @param x right hand side, replaced by solution on output
+         */
+        private void solveInPlace(final double[] x) {
+
+            // Solve LY = b
+            for (int iBlock = 0; iBlock < nb; ++iBlock) {
+                final int iStart  = iBlock * BLOCK_SIZE;
+                final int iHeight = blockSize(iBlock);
+                for (int jBlock = 0; jBlock < iBlock; ++jBlock) {
+                    final double[] block  = blocks[iBlock * nb + jBlock];
+                    final int      jStart = jBlock * BLOCK_SIZE;
+                    final int      jWidth = blockSize(jBlock);
+                    for (int p = 0; p < iHeight; ++p) {
+                        double sum = 0;
+                        for (int q = 0; q < jWidth; ++q) {
+                            sum += block[p * jWidth + q] * x[jStart + q];
+                        }
+                        x[iStart + p] -= sum;
+                    }
+                }
+                final double[] diag = blocks[iBlock * nb + iBlock];
+                for (int p = 0; p < iHeight; ++p) {
+                    double sum = x[iStart + p];
+                    for (int q = 0; q < p; ++q) {
+                        sum -= diag[p * iHeight + q] * x[iStart + q];
+                    }
+                    x[iStart + p] = sum / diag[p * iHeight + p];
+                }
+            }
+
+            // Solve LTX = Y
+            for (int iBlock = nb - 1; iBlock >= 0; --iBlock) {
+                final int iStart  = iBlock * BLOCK_SIZE;
+                final int iHeight = blockSize(iBlock);
+                for (int jBlock = iBlock + 1; jBlock < nb; ++jBlock) {
+                    // use transpose of block below diagonal
+                    final double[] block   = blocks[jBlock * nb + iBlock];
+                    final int      jStart  = jBlock * BLOCK_SIZE;
+                    final int      jHeight = blockSize(jBlock);
+                    for (int q = 0; q < jHeight; ++q) {
+                        final double xQ = x[jStart + q];
+                        for (int p = 0; p < iHeight; ++p) {
+                            x[iStart + p] -= block[q * iHeight + p] * xQ;
+                        }
+                    }
+                }
+                final double[] diag = blocks[iBlock * nb + iBlock];
+                for (int p = iHeight - 1; p >= 0; --p) {
+                    double sum = x[iStart + p];
+                    for (int q = p + 1; q < iHeight; ++q) {
+                        sum -= diag[q * iHeight + p] * x[iStart + q];
+                    }
+                    x[iStart + p] = sum / diag[p * iHeight + p];
+                }
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,572 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.NullArgumentException;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathUtils;
+
+/**
+ * Calculates the LUP-decomposition of a square {@link BlockRealMatrix} using a blocked algorithm.
+ * <p>The decomposition is the same as the one computed by {@link LUDecomposition}:
+ * P&times;A = L&times;U, with partial pivoting. It is however computed directly in
+ * blocks layout, using a right-looking algorithm: for each block column, the panel
+ * is factored, then the corresponding block row of U is computed by triangular solve,
+ * and finally the trailing matrix is updated using block products. The triangular
+ * solves and trailing updates, which concentrate almost all floating point operations,
+ * are split between the threads of a fork/join pool.</p>
+ * <p>As operations are not performed in the same order as in {@link LUDecomposition},
+ * the results of both classes may differ in the last bits.</p>
+ *
+ * @see LUDecomposition
+ * @see LUDecomposer#LUDecomposer(double, ForkJoinPool)
+ * @since 1.7
+ */
+public class BlockLUDecomposition {
+
+    /** Default bound to determine effective singularity in LU decomposition. */
+    private static final double DEFAULT_TOO_SMALL = 1e-11;
+
+    /** Block size. */
+    private static final int BLOCK_SIZE = BlockRealMatrix.BLOCK_SIZE;
+
+    /** Pool to use for parallel computation. */
+    private final ForkJoinPool pool;
+
+    /** Dimension of the matrix. */
+    private final int n;
+
+    /** Number of block rows (and block columns) of the matrix. */
+    private final int nb;
+
+    /** Entries of LU decomposition, in blocks layout. */
+    private final double[][] blocks;
+
+    /** Pivot permutation associated with LU decomposition. */
+    private final int[] pivot;
+
+    /** Parity of the permutation associated with the LU decomposition. */
+    private boolean even;
+
+    /** Singularity indicator. */
+    private boolean singular;
+
+    /** Cached value of L. */
+    private RealMatrix cachedL;
+
+    /** Cached value of U. */
+    private RealMatrix cachedU;
+
+    /** Cached value of P. */
+    private RealMatrix cachedP;
+
+    /**
+     * Calculates the LU-decomposition of the given matrix.
+     * This constructor uses 1e-11 as default value for the singularity
+     * threshold.
+     *
+     * @param matrix Matrix to decompose.
+     * @param pool pool to use for parallel computation
+     * @throws MathIllegalArgumentException if matrix is not square.
+     * @throws NullArgumentException if pool is null
+     */
+    public BlockLUDecomposition(final BlockRealMatrix matrix, final ForkJoinPool pool) {
+        this(matrix, DEFAULT_TOO_SMALL, pool);
+    }
+
+    /**
+     * Calculates the LU-decomposition of the given matrix.
+     * @param matrix The matrix to decompose.
+     * @param singularityThreshold threshold (based on partial row norm)
+     * under which a matrix is considered singular
+     * @param pool pool to use for parallel computation
+     * @throws MathIllegalArgumentException if matrix is not square
+     * @throws NullArgumentException if pool is null
+     */
+    public BlockLUDecomposition(final BlockRealMatrix matrix, final double singularityThreshold,
+                                final ForkJoinPool pool) {
+
+        MathUtils.checkNotNull(pool);
+        if (!matrix.isSquare()) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NON_SQUARE_MATRIX,
+                                                   matrix.getRowDimension(), matrix.getColumnDimension());
+        }
+
+        this.pool = pool;
+        n         = matrix.getRowDimension();
+        nb        = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        blocks    = matrix.copy().getBlocks();
+        pivot     = new int[n];
+        cachedL   = null;
+        cachedU   = null;
+        cachedP   = null;
+
+        // Initialize permutation array and parity
+        for (int row = 0; row < n; row++) {
+            pivot[row] = row;
+        }
+        even     = true;
+        singular = false;
+
+        // Loop over block columns
+        for (int kBlock = 0; kBlock < nb; ++kBlock) {
+
+            // factor the panel, i.e. the block column on and below diagonal
+            if (!factorPanel(kBlock, singularityThreshold)) {
+                singular = true;
+                return;
+            }
+
+            final int k         = kBlock;
+            final int remaining = nb - kBlock - 1;
+            if (remaining > 0) {
+
+                // compute the block row of U on the right of the diagonal block
+                BlockProductTask.compute(pool, remaining, 1,
+                                         index -> solveUpperBlock(k, k + 1 + index));
+
+                // update trailing matrix
+                BlockProductTask.compute(pool, remaining * remaining, 1,
+                                         index -> updateTrailingBlock(k,
+                                                                      k + 1 + index / remaining,
+                                                                      k + 1 + index % remaining));
+
+            }
+
+        }
+
+    }
+
+    /** Factor one panel, using partial pivoting.
+     * @param kBlock index of the block column
+     * @param singularityThreshold threshold (based on partial row norm)
+     * under which a matrix is considered singular
+     * @return false if matrix is singular
+     */
+    private boolean factorPanel(final int kBlock, final double singularityThreshold) {
+
+        final int      kStart    = kBlock * BLOCK_SIZE;
+        final int      kWidth    = blockSize(kBlock);
+        final double[] diagBlock = blocks[kBlock * nb + kBlock];
+
+        for (int c = 0; c < kWidth; ++c) {
+            final int col = kStart + c;
+
+            // find best permutation choice
+            int max = col;
+            double largest = Double.NEGATIVE_INFINITY;
+            for (int iBlock = kBlock; iBlock < nb; ++iBlock) {
+                final double[] block = blocks[iBlock * nb + kBlock];
+                final int      iEnd  = blockSize(iBlock);
+                for (int p = (iBlock == kBlock) ? c : 0; p < iEnd; ++p) {
+                    final double abs = FastMath.abs(block[p * kWidth + c]);
+                    if (abs > largest) {
+                        largest = abs;
+                        max     = iBlock * BLOCK_SIZE + p;
+                    }
+                }
+            }
+
+            // Singularity check
+            if (FastMath.abs(getEntry(max, col)) < singularityThreshold) {
+                return false;
+            }
+
+            // Pivot if necessary
+            if (max != col) {
+                swapRows(max, col);
+                final int temp = pivot[max];
+                pivot[max] = pivot[col];
+                pivot[col] = temp;
+                even = !even;
+            }
+
+            // divide the lower elements by the "winning" diagonal element
+            // and update the remaining columns of the panel
+            final int    diagRow = c * kWidth;
+            final double luDiag  = diagBlock[diagRow + c];
+            for (int iBlock = kBlock; iBlock < nb; ++iBlock) {
+                final double[] block = blocks[iBlock * nb + kBlock];
+                final int      iEnd  = blockSize(iBlock);
+                for (int p = (iBlock == kBlock) ? c + 1 : 0; p < iEnd; ++p) {
+                    final int    row = p * kWidth;
+                    final double l   = block[row + c] / luDiag;
+                    block[row + c] = l;
+                    for (int q = c + 1; q < kWidth; ++q) {
+                        block[row + q] -= l * diagBlock[diagRow + q];
+                    }
+                }
+            }
+
+        }
+
+        return true;
+
+    }
+
+    /** Compute one block of U on the right of a diagonal block.
+     * @param kBlock index of the diagonal block
+     * @param jBlock index of the block column to compute
+     */
+    private void solveUpperBlock(final int kBlock, final int jBlock) {
+        final double[] lBlock = blocks[kBlock * nb + kBlock];
+        final double[] uBlock = blocks[kBlock * nb + jBlock];
+        final int      kWidth = blockSize(kBlock);
+        final int      jWidth = blockSize(jBlock);
+        // solve L.X = B, where L is the unit lower triangular part of the diagonal block
+        for (int p = 1; p < kWidth; ++p) {
+            final int pRow = p * jWidth;
+            for (int q = 0; q < p; ++q) {
+                final double l    = lBlock[p * kWidth + q];
+                final int    qRow = q * jWidth;
+                for (int t = 0; t < jWidth; ++t) {
+                    uBlock[pRow + t] -= l * uBlock[qRow + t];
+                }
+            }
+        }
+    }
+
+    /** Update one block of the trailing matrix.
+     * @param kBlock index of the current block column
+     * @param iBlock block row of the block to update
+     * @param jBlock block column of the block to update
+     */
+    private void updateTrailingBlock(final int kBlock, final int iBlock, final int jBlock) {
+        final double[] cBlock  = blocks[iBlock * nb + jBlock];
+        final double[] lBlock  = blocks[iBlock * nb + kBlock];
+        final double[] uBlock  = blocks[kBlock * nb + jBlock];
+        final int      iHeight = blockSize(iBlock);
+        final int      kWidth  = blockSize(kBlock);
+        final int      jWidth  = blockSize(jBlock);
+        for (int p = 0; p < iHeight; ++p) {
+            final int cRow = p * jWidth;
+            final int lRow = p * kWidth;
+            for (int q = 0; q < kWidth; ++q) {
+                final double l    = lBlock[lRow + q];
+                final int    uRow = q * jWidth;
+                for (int t = 0; t < jWidth; ++t) {
+                    cBlock[cRow + t] -= l * uBlock[uRow + t];
+                }
+            }
+        }
+    }
+
+    /** Swap two rows.
+     * @param r1 index of the first row
+     * @param r2 index of the second row
+     */
+    private void swapRows(final int r1, final int r2) {
+        final int i1 = r1 / BLOCK_SIZE;
+        final int p1 = r1 - i1 * BLOCK_SIZE;
+        final int i2 = r2 / BLOCK_SIZE;
+        final int p2 = r2 - i2 * BLOCK_SIZE;
+        for (int jBlock = 0; jBlock < nb; ++jBlock) {
+            final double[] block1 = blocks[i1 * nb + jBlock];
+            final double[] block2 = blocks[i2 * nb + jBlock];
+            final int      width  = blockSize(jBlock);
+            final int      start1 = p1 * width;
+            final int      start2 = p2 * width;
+            for (int q = 0; q < width; ++q) {
+                final double tmp = block1[start1 + q];
+                block1[start1 + q] = block2[start2 + q];
+                block2[start2 + q] = tmp;
+            }
+        }
+    }
+
+    /** Get an entry of the decomposition.
+     * @param row row index
+     * @param column column index
+     * @return entry at specified row and column
+     */
+    private double getEntry(final int row, final int column) {
+        final int iBlock = row / BLOCK_SIZE;
+        final int jBlock = column / BLOCK_SIZE;
+        return blocks[iBlock * nb + jBlock][(row - iBlock * BLOCK_SIZE) * blockSize(jBlock) +
+                                            (column - jBlock * BLOCK_SIZE)];
+    }
+
+    /** Get the size of a block row or block column.
+     * @param index index of the block row or block column
+     * @return size of the block row or block column
+     */
+    private int blockSize(final int index) {
+        return (index == nb - 1) ? n - index * BLOCK_SIZE : BLOCK_SIZE;
+    }
+
+    /**
+     * Returns the matrix L of the decomposition.
+     * <p>L is a lower-triangular matrix</p>
+     * @return the L matrix (or null if decomposed matrix is singular)
+     */
+    public RealMatrix getL() {
+        if ((cachedL == null) && !singular) {
+            final BlockRealMatrix l = new BlockRealMatrix(n, n);
+            final double[][] lBlocks = l.getBlocks();
+            for (int iBlock = 0; iBlock < nb; ++iBlock) {
+                for (int jBlock = 0; jBlock < iBlock; ++jBlock) {
+                    final int index = iBlock * nb + jBlock;
+                    System.arraycopy(blocks[index], 0, lBlocks[index], 0, blocks[index].length);
+                }
+                final double[] diag  = blocks[iBlock * nb + iBlock];
+                final double[] lDiag = lBlocks[iBlock * nb + iBlock];
+                final int      size  = blockSize(iBlock);
+                for (int p = 0; p < size; ++p) {
+                    System.arraycopy(diag, p * size, lDiag, p * size, p);
+                    lDiag[p * size + p] = 1.0;
+                }
+            }
+            cachedL = l;
+        }
+        return cachedL;
+    }
+
+    /**
+     * Returns the matrix U of the decomposition.
+     * <p>U is an upper-triangular matrix</p>
+     * @return the U matrix (or null if decomposed matrix is singular)
+     */
+    public RealMatrix getU() {
+        if ((cachedU == null) && !singular) {
+            final BlockRealMatrix u = new BlockRealMatrix(n, n);
+            final double[][] uBlocks = u.getBlocks();
+            for (int iBlock = 0; iBlock < nb; ++iBlock) {
+                final double[] diag  = blocks[iBlock * nb + iBlock];
+                final double[] uDiag = uBlocks[iBlock * nb + iBlock];
+                final int      size  = blockSize(iBlock);
+                for (int p = 0; p < size; ++p) {
+                    System.arraycopy(diag, p * size + p, uDiag, p * size + p, size - p);
+                }
+                for (int jBlock = iBlock + 1; jBlock < nb; ++jBlock) {
+                    final int index = iBlock * nb + jBlock;
+                    System.arraycopy(blocks[index], 0, uBlocks[index], 0, blocks[index].length);
+                }
+            }
+            cachedU = u;
+        }
+        return cachedU;
+    }
+
+    /**
+     * Returns the P rows permutation matrix.
+     * <p>P is a sparse matrix with exactly one element set to 1.0 in
+     * each row and each column, all other elements being set to 0.0.</p>
+     * <p>The positions of the 1 elements are given by the {@link #getPivot()
+     * pivot permutation vector}.</p>
+     * @return the P rows permutation matrix (or null if decomposed matrix is singular)
+     * @see #getPivot()
+     */
+    public RealMatrix getP() {
+        if ((cachedP == null) && !singular) {
+            cachedP = MatrixUtils.createRealMatrix(n, n);
+            for (int i = 0; i < n; ++i) {
+                cachedP.setEntry(i, pivot[i], 1.0);
+            }
+        }
+        return cachedP;
+    }
+
+    /**
+     * Returns the pivot permutation vector.
+     * @return the pivot permutation vector
+     * @see #getP()
+     */
+    public int[] getPivot() {
+        return pivot.clone();
+    }
+
+    /**
+     * Return the determinant of the matrix
+     * @return determinant of the matrix
+     */
+    public double getDeterminant() {
+        if (singular) {
+            return 0;
+        } else {
+            double determinant = even ? 1 : -1;
+            for (int i = 0; i < n; i++) {
+                determinant *= getEntry(i, i);
+            }
+            return determinant;
+        }
+    }
+
+    /**
+     * Get a solver for finding the A &times; X = B solution in exact linear
+     * sense.
+     * <p>
+     * When solving for several right hand sides, the columns of B are split
+     * between the threads of the pool used for the decomposition.
+     * </p>
+     * @return a solver
+     */
+    public DecompositionSolver getSolver() {
+        return new Solver();
+    }
+
+    /** Specialized solver. */
+    private class Solver implements DecompositionSolver {
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isNonSingular() {
+            return !singular;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public RealVector solve(final RealVector b) {
+            if (b.getDimension() != n) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       b.getDimension(), n);
+            }
+            if (singular) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.SINGULAR_MATRIX);
+            }
+
+            // Apply permutations to b
+            final double[] bp = new double[n];
+            for (int row = 0; row < n; row++) {
+                bp[row] = b.getEntry(pivot[row]);
+            }
+
+            solveInPlace(bp);
+            return new ArrayRealVector(bp, false);
+
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public RealMatrix solve(final RealMatrix b) {
+
+            if (b.getRowDimension() != n) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       b.getRowDimension(), n);
+            }
+            if (singular) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.SINGULAR_MATRIX);
+            }
+
+            // solve independently for each column of b, using one
+            // block product as the cost unit for parallel splitting
+            final int nColB = b.getColumnDimension();
+            final double[][] columns = new double[nColB][];
+            final long cost = ((long) n) * n / (BLOCK_SIZE * BLOCK_SIZE * BLOCK_SIZE);
+            BlockProductTask.compute(pool, nColB, (int) FastMath.min(cost, Integer.MAX_VALUE),
+                                     col -> {
+                                         // Apply permutations to b
+                                         final double[] bp = new double[n];
+                                         for (int row = 0; row < n; row++) {
+                                             bp[row] = b.getEntry(pivot[row], col);
+                                         }
+                                         solveInPlace(bp);
+                                         columns[col] = bp;
+                                     });
+
+            final double[][] x = new double[n][nColB];
+            for (int col = 0; col < nColB; ++col) {
+                final double[] column = columns[col];
+                for (int row = 0; row < n; ++row) {
+                    x[row][col] = column[row];
+                }
+            }
+
+            return new Array2DRowRealMatrix(x, false);
+
+        }
+
+        /**
+         * Get the inverse of the decomposed matrix.
+         *
+         * @return the inverse matrix.
+         * @throws MathIllegalArgumentException if the decomposed matrix is singular.
+         */
+        @Override
+        public RealMatrix getInverse() {
+            return solve(MatrixUtils.createRealIdentityMatrix(n));
+        }
+
+        /** Solve L.U.X = B in place.
+         * @param bp permuted right hand side, replaced by solution on output
+         */
+        private void solveInPlace(final double[] bp) {
+
+            // Solve LY = b
+            for (int iBlock = 0; iBlock < nb; ++iBlock) {
+                final int iStart  = iBlock * BLOCK_SIZE;
+                final int iHeight = blockSize(iBlock);
+                for (int jBlock = 0; jBlock < iBlock; ++jBlock) {
+                    subtractProduct(blocks[iBlock * nb + jBlock], iHeight, blockSize(jBlock),
+                                    bp, jBlock * BLOCK_SIZE, iStart);
+                }
+                final double[] diag = blocks[iBlock * nb + iBlock];
+                for (int p = 1; p < iHeight; ++p) {
+                    double sum = bp[iStart + p];
+                    for (int q = 0; q < p; ++q) {
+                        sum -= diag[p * iHeight + q] * bp[iStart + q];
+                    }
+                    bp[iStart + p] = sum;
+                }
+            }
+
+            // Solve UX = Y
+            for (int iBlock = nb - 1; iBlock >= 0; --iBlock) {
+                final int iStart  = iBlock * BLOCK_SIZE;
+                final int iHeight = blockSize(iBlock);
+                for (int jBlock = iBlock + 1; jBlock < nb; ++jBlock) {
+                    subtractProduct(blocks[iBlock * nb + jBlock], iHeight, blockSize(jBlock),
+                                    bp, jBlock * BLOCK_SIZE, iStart);
+                }
+                final double[] diag = blocks[iBlock * nb + iBlock];
+                for (int p = iHeight - 1; p >= 0; --p) {
+                    double sum = bp[iStart + p];
+                    for (int q = p + 1; q < iHeight; ++q) {
+                        sum -= diag[p * iHeight + q] * bp[iStart + q];
+                    }
+                    bp[iStart + p] = sum / diag[p * iHeight + p];
+                }
+            }
+
+        }
+
+        /** Subtract a block-vector product from a vector part.
+         * @param block block
+         * @param height block height
+         * @param width block width
+         * @param v vector
+         * @param vStart start index of the vector part to multiply
+         * @param rStart start index of the vector part to update
+         */
+        private void subtractProduct(final double[] block, final int height, final int width,
+                                     final double[] v, final int vStart, final int rStart) {
+            for (int p = 0; p < height; ++p) {
+                double sum = 0;
+                final int row = p * width;
+                for (int q = 0; q < width; ++q) {
+                    sum += block[row + q] * v[vStart + q];
+                }
+                v[rStart + p] -= sum;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/** Fork/join task computing a range of independent output blocks.
+ * <p>
+ * This class is used by block matrices to split products between
+ * the threads of a {@link ForkJoinPool}. Each output block is computed
+ * entirely by one thread, so results do not depend on the number of
+ * threads and no synchronization is needed between blocks.
+ * </p>
+ * @since 1.7
+ */
+class BlockProductTask extends RecursiveAction {
+
+    /** Minimum number of elementary block products for parallel computation.
+     * <p>
+     * Below this threshold (i.e. about 1.1 million multiply-add operations
+     * with 52x52 blocks), scheduling overhead outweighs the parallel speed-up
+     * and the computation is performed sequentially in the calling thread.
+     * </p>
+     */
+    static final int MIN_PARALLEL_BLOCK_PRODUCTS = 8;
+
+    /** Number of tasks per thread, to balance uneven blocks sizes. */
+    private static final int TASKS_PER_THREAD = 4;
+
+    /** Serializable UID. */
+    private static final long serialVersionUID = 20201015L;
+
+    /** Kernel computing one output block. */
+    private final transient IntConsumer kernel;
+
+    /** Index of the first block to compute. */
+    private final int start;
+
+    /** Index after the last block to compute. */
+    private final int end;
+
+    /** Maximum number of blocks computed without splitting the task. */
+    private final int grain;
+
+    /** Simple constructor.
+     * @param kernel kernel computing one output block
+     * @param start index of the first block to compute
+     * @param end index after the last block to compute
+     * @param grain maximum number of blocks computed without splitting the task
+     */
+    private BlockProductTask(final IntConsumer kernel, final int start, final int end, final int grain) {
+        this.kernel = kernel;
+        this.start  = start;
+        this.end    = end;
+        this.grain  = grain;
+    }
+
+    /** Compute all output blocks sequentially.
+     * @param nbBlocks number of output blocks
+     * @param kernel kernel computing one output block
+     */
+    static void computeSequentially(final int nbBlocks, final IntConsumer kernel) {
+        for (int blockIndex = 0; blockIndex < nbBlocks; ++blockIndex) {
+            kernel.accept(blockIndex);
+        }
+    }
+
+    /** Compute all output blocks, in parallel if worth it.
+     * @param pool pool to use for parallel computation
+     * @param nbBlocks number of output blocks
+     * @param innerBlocks number of elementary block products per output block
+     * @param kernel kernel computing one output block
+     */
+    static void compute(final ForkJoinPool pool, final int nbBlocks, final int innerBlocks,
+                        final IntConsumer kernel) {
+        final int parallelism = pool.getParallelism();
+        if (parallelism < 2 || nbBlocks < 2 ||
+            ((long) nbBlocks) * innerBlocks < MIN_PARALLEL_BLOCK_PRODUCTS) {
+            computeSequentially(nbBlocks, kernel);
+        } else {
+            final int grain = Math.max(1, nbBlocks / (TASKS_PER_THREAD * parallelism));
+            pool.invoke(new BlockProductTask(kernel, 0, nbBlocks, grain));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void compute() {
+        if (end - start <= grain) {
+            for (int blockIndex = start; blockIndex < end; ++blockIndex) {
+                kernel.accept(blockIndex);
+            }
+        } else {
+            final int middle = (start + end) >>> 1;
+            invokeAll(new BlockProductTask(kernel, start, middle, grain),
+                      new BlockProductTask(kernel, middle, end, grain));
+        }
+    }
+
+}
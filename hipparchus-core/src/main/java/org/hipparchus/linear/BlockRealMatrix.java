@@ -24,10 +24,12 @@ package org.hipparchus.linear;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.NullArgumentException;
+import org.hipparchus.util.DenseKernels;
 import org.hipparchus.util.FastMath;
 import org.hipparchus.util.MathUtils;
 
@@ -537,59 +539,67 @@ public class BlockRealMatrix extends AbstractRealMatrix implements Serializable
         MatrixUtils.checkMultiplicationCompatible(this, m);
 
         final BlockRealMatrix out = new BlockRealMatrix(rows, m.columns);
+        BlockProductTask.computeSequentially(out.blocks.length,
+                                             blockIndex -> multiplyBlock(m, out, blockIndex));
+        return out;
+    }
 
-        // perform multiplication block-wise, to ensure good cache behavior
-        int blockIndex = 0;
-        for (int iBlock = 0; iBlock < out.blockRows; ++iBlock) {
+    /**
+     * Returns the result of postmultiplying this by {@code m}, using a fork/join pool.
+     * <p>
+     * The output blocks are split between the threads of the pool. If the
+     * matrices are too small for parallelism to be worth its overhead, the
+     * product is computed sequentially in the calling thread. The result
+     * is exactly the same as the one from {@link #multiply(BlockRealMatrix)}.
+     * Callers that do not manage their own pool can use {@link ForkJoinPool#commonPool()}.
+     * </p>
+     *
+     * @param m Matrix to postmultiply by.
+     * @param pool pool to use for parallel computation
+     * @return {@code this} * m.
+     * @throws MathIllegalArgumentException if the matrices are not compatible.
+     * @throws NullArgumentException if pool is null
+     * @since 1.7
+     */
+    public BlockRealMatrix multiply(final BlockRealMatrix m, final ForkJoinPool pool)
+        throws MathIllegalArgumentException, NullArgumentException {
+        // safety checks
+        MathUtils.checkNotNull(pool);
+        MatrixUtils.checkMultiplicationCompatible(this, m);
 
-            final int pStart = iBlock * BLOCK_SIZE;
-            final int pEnd   = FastMath.min(pStart + BLOCK_SIZE, rows);
+        final BlockRealMatrix out = new BlockRealMatrix(rows, m.columns);
+        BlockProductTask.compute(pool, out.blocks.length, blockColumns,
+                                 blockIndex -> multiplyBlock(m, out, blockIndex));
+        return out;
+    }
 
-            for (int jBlock = 0; jBlock < out.blockColumns; ++jBlock) {
-                final int jWidth = out.blockWidth(jBlock);
-                final int jWidth2 = jWidth  + jWidth;
-                final int jWidth3 = jWidth2 + jWidth;
-                final int jWidth4 = jWidth3 + jWidth;
+    /**
+     * Compute one block of {@code this * m}.
+     * @param m Matrix to postmultiply by.
+     * @param out output matrix
+     * @param blockIndex index of the output block to compute
+     */
+    private void multiplyBlock(final BlockRealMatrix m, final BlockRealMatrix out, final int blockIndex) {
 
-                // select current block
-                final double[] outBlock = out.blocks[blockIndex];
+        final int iBlock = blockIndex / out.blockColumns;
+        final int jBlock = blockIndex - iBlock * out.blockColumns;
 
-                // perform multiplication on current block
-                for (int kBlock = 0; kBlock < blockColumns; ++kBlock) {
-                    final int kWidth = blockWidth(kBlock);
-                    final double[] tBlock = blocks[iBlock * blockColumns + kBlock];
-                    final double[] mBlock = m.blocks[kBlock * m.blockColumns + jBlock];
-                    int k = 0;
-                    for (int p = pStart; p < pEnd; ++p) {
-                        final int lStart = (p - pStart) * kWidth;
-                        final int lEnd   = lStart + kWidth;
-                        for (int nStart = 0; nStart < jWidth; ++nStart) {
-                            double sum = 0;
-                            int l = lStart;
-                            int n = nStart;
-                            while (l < lEnd - 3) {
-                                sum += tBlock[l] * mBlock[n] +
-                                       tBlock[l + 1] * mBlock[n + jWidth] +
-                                       tBlock[l + 2] * mBlock[n + jWidth2] +
-                                       tBlock[l + 3] * mBlock[n + jWidth3];
-                                l += 4;
-                                n += jWidth4;
-                            }
-                            while (l < lEnd) {
-                                sum += tBlock[l++] * mBlock[n];
-                                n += jWidth;
-                            }
-                            outBlock[k] += sum;
-                            ++k;
-                        }
-                    }
-                }
-                // go to next block
-                ++blockIndex;
-            }
+        final int pStart = iBlock * BLOCK_SIZE;
+        final int pEnd   = FastMath.min(pStart + BLOCK_SIZE, rows);
+
+        final int jWidth = out.blockWidth(jBlock);
+
+        // select current block
+        final double[] outBlock = out.blocks[blockIndex];
+
+        // perform multiplication on current block
+        for (int kBlock = 0; kBlock < blockColumns; ++kBlock) {
+            final int kWidth = blockWidth(kBlock);
+            final double[] tBlock = blocks[iBlock * blockColumns + kBlock];
+            final double[] mBlock = m.blocks[kBlock * m.blockColumns + jBlock];
+            DenseKernels.matrixMultiplyAdd(tBlock, mBlock, outBlock, pEnd - pStart, kWidth, jWidth);
         }
 
-        return out;
     }
 
     /**
@@ -606,55 +616,90 @@ public class BlockRealMatrix extends AbstractRealMatrix implements Serializable
         MatrixUtils.checkSameColumnDimension(this, m);
 
         final BlockRealMatrix out = new BlockRealMatrix(rows, m.rows);
+        BlockProductTask.computeSequentially(out.blocks.length,
+                                             blockIndex -> multiplyTransposedBlock(m, out, blockIndex));
+        return out;
+    }
 
-        // perform multiplication block-wise, to ensure good cache behavior
-        int blockIndex = 0;
-        for (int iBlock = 0; iBlock < out.blockRows; ++iBlock) {
+    /**
+     * Returns the result of postmultiplying {@code this} by {@code m^T}, using a fork/join pool.
+     * <p>
+     * The output blocks are split between the threads of the pool. If the
+     * matrices are too small for parallelism to be worth its overhead, the
+     * product is computed sequentially in the calling thread. The result
+     * is exactly the same as the one from {@link #multiplyTransposed(BlockRealMatrix)}.
+     * Callers that do not manage their own pool can use {@link ForkJoinPool#commonPool()}.
+     * </p>
+     * @param m matrix to first transpose and second postmultiply by
+     * @param pool pool to use for parallel computation
+     * @return {@code this * m^T}
+     * @throws MathIllegalArgumentException if
+     * {@code columnDimension(this) != columnDimension(m)}
+     * @throws NullArgumentException if pool is null
+     * @since 1.7
+     */
+    public BlockRealMatrix multiplyTransposed(final BlockRealMatrix m, final ForkJoinPool pool)
+        throws MathIllegalArgumentException, NullArgumentException {
+        // safety checks
+        MathUtils.checkNotNull(pool);
+        MatrixUtils.checkSameColumnDimension(this, m);
 
-            final int pStart = iBlock * BLOCK_SIZE;
-            final int pEnd   = FastMath.min(pStart + BLOCK_SIZE, rows);
+        final BlockRealMatrix out = new BlockRealMatrix(rows, m.rows);
+        BlockProductTask.compute(pool, out.blocks.length, blockColumns,
+                                 blockIndex -> multiplyTransposedBlock(m, out, blockIndex));
+        return out;
+    }
 
-            for (int jBlock = 0; jBlock < out.blockColumns; ++jBlock) {
-                final int jWidth = out.blockWidth(jBlock);
+    /**
+     * Compute one block of {@code this * m^T}.
+     * @param m matrix to first transpose and second postmultiply by
+     * @param out output matrix
+     * @param blockIndex index of the output block to compute
+     */
+    private void multiplyTransposedBlock(final BlockRealMatrix m, final BlockRealMatrix out,
+                                         final int blockIndex) {
 
-                // select current block
-                final double[] outBlock = out.blocks[blockIndex];
+        final int iBlock = blockIndex / out.blockColumns;
+        final int jBlock = blockIndex - iBlock * out.blockColumns;
 
-                // perform multiplication on current block
-                for (int kBlock = 0; kBlock < blockColumns; ++kBlock) {
-                    final int kWidth = blockWidth(kBlock);
-                    final double[] tBlock = blocks[iBlock * blockColumns + kBlock];
-                    final double[] mBlock = m.blocks[jBlock * m.blockColumns + kBlock];
-                    int k = 0;
-                    for (int p = pStart; p < pEnd; ++p) {
-                        final int lStart = (p - pStart) * kWidth;
-                        final int lEnd   = lStart + kWidth;
-                        for (int nStart = 0; nStart < jWidth * kWidth; nStart += kWidth) {
-                            double sum = 0;
-                            int l = lStart;
-                            int n = nStart;
-                            while (l < lEnd - 3) {
-                                sum += tBlock[l]     * mBlock[n]     +
-                                       tBlock[l + 1] * mBlock[n + 1] +
-                                       tBlock[l + 2] * mBlock[n + 2] +
-                                       tBlock[l + 3] * mBlock[n + 3];
-                                l += 4;
-                                n += 4;
-                            }
-                            while (l < lEnd) {
-                                sum += tBlock[l++] * mBlock[n++];
-                            }
-                            outBlock[k] += sum;
-                            ++k;
-                        }
+        final int pStart = iBlock * BLOCK_SIZE;
+        final int pEnd   = FastMath.min(pStart + BLOCK_SIZE, rows);
+
+        final int jWidth = out.blockWidth(jBlock);
+
+        // select current block
+        final double[] outBlock = out.blocks[blockIndex];
+
+        // perform multiplication on current block
+        for (int kBlock = 0; kBlock < blockColumns; ++kBlock) {
+            final int kWidth = blockWidth(kBlock);
+            final double[] tBlock = blocks[iBlock * blockColumns + kBlock];
+            final double[] mBlock = m.blocks[jBlock * m.blockColumns + kBlock];
+            int k = 0;
+            for (int p = pStart; p < pEnd; ++p) {
+                final int lStart = (p - pStart) * kWidth;
+                final int lEnd   = lStart + kWidth;
+                for (int nStart = 0; nStart < jWidth * kWidth; nStart += kWidth) {
+                    double sum = 0;
+                    int l = lStart;
+                    int n = nStart;
+                    while (l < lEnd - 3) {
+                        sum += tBlock[l]     * mBlock[n]     +
+                               tBlock[l + 1] * mBlock[n + 1] +
+                               tBlock[l + 2] * mBlock[n + 2] +
+                               tBlock[l + 3] * mBlock[n + 3];
+                        l += 4;
+                        n += 4;
+                    }
+                    while (l < lEnd) {
+                        sum += tBlock[l++] * mBlock[n++];
                     }
+                    outBlock[k] += sum;
+                    ++k;
                 }
-                // go to next block
-                ++blockIndex;
             }
         }
 
-        return out;
     }
 
     /** {@inheritDoc} */
@@ -725,64 +770,99 @@ public class BlockRealMatrix extends AbstractRealMatrix implements Serializable
         MatrixUtils.checkSameRowDimension(this, m);
 
         final BlockRealMatrix out = new BlockRealMatrix(columns, m.columns);
+        BlockProductTask.computeSequentially(out.blocks.length,
+                                             blockIndex -> transposeMultiplyBlock(m, out, blockIndex));
+        return out;
+    }
 
-        // perform multiplication block-wise, to ensure good cache behavior
-        int blockIndex = 0;
-        for (int iBlock = 0; iBlock < out.blockRows; ++iBlock) {
-
-            final int iHeight  = out.blockHeight(iBlock);
-            final int iHeight2 = iHeight  + iHeight;
-            final int iHeight3 = iHeight2 + iHeight;
-            final int iHeight4 = iHeight3 + iHeight;
-            final int pStart   = iBlock * BLOCK_SIZE;
-            final int pEnd     = FastMath.min(pStart + BLOCK_SIZE, columns);
-
-            for (int jBlock = 0; jBlock < out.blockColumns; ++jBlock) {
-                final int jWidth  = out.blockWidth(jBlock);
-                final int jWidth2 = jWidth  + jWidth;
-                final int jWidth3 = jWidth2 + jWidth;
-                final int jWidth4 = jWidth3 + jWidth;
+    /**
+     * Returns the result of postmultiplying {@code this^T} by {@code m}, using a fork/join pool.
+     * <p>
+     * The output blocks are split between the threads of the pool. If the
+     * matrices are too small for parallelism to be worth its overhead, the
+     * product is computed sequentially in the calling thread. The result
+     * is exactly the same as the one from {@link #transposeMultiply(BlockRealMatrix)}.
+     * Callers that do not manage their own pool can use {@link ForkJoinPool#commonPool()}.
+     * </p>
+     * @param m matrix to postmultiply by
+     * @param pool pool to use for parallel computation
+     * @return {@code this^T * m}
+     * @throws MathIllegalArgumentException if
+     * {@code columnDimension(this) != columnDimension(m)}
+     * @throws NullArgumentException if pool is null
+     * @since 1.7
+     */
+    public BlockRealMatrix transposeMultiply(final BlockRealMatrix m, final ForkJoinPool pool)
+        throws MathIllegalArgumentException, NullArgumentException {
+        // safety checks
+        MathUtils.checkNotNull(pool);
+        MatrixUtils.checkSameRowDimension(this, m);
 
-                // select current block
-                final double[] outBlock = out.blocks[blockIndex];
+        final BlockRealMatrix out = new BlockRealMatrix(columns, m.columns);
+        BlockProductTask.compute(pool, out.blocks.length, blockRows,
+                                 blockIndex -> transposeMultiplyBlock(m, out, blockIndex));
+        return out;
+    }
 
-                // perform multiplication on current block
-                for (int kBlock = 0; kBlock < blockRows; ++kBlock) {
-                    final int      kHeight = blockHeight(kBlock);
-                    final double[] tBlock  = blocks[kBlock * blockColumns + iBlock];
-                    final double[] mBlock  = m.blocks[kBlock * m.blockColumns + jBlock];
-                    int k = 0;
-                    for (int p = pStart; p < pEnd; ++p) {
-                        final int lStart = p - pStart;
-                        final int lEnd   = lStart + iHeight * kHeight;
-                        for (int nStart = 0; nStart < jWidth; ++nStart) {
-                            double sum = 0;
-                            int l = lStart;
-                            int n = nStart;
-                            while (l < lEnd - iHeight3) {
-                                sum += tBlock[l]            * mBlock[n] +
-                                       tBlock[l + iHeight]  * mBlock[n + jWidth] +
-                                       tBlock[l + iHeight2] * mBlock[n + jWidth2] +
-                                       tBlock[l + iHeight3] * mBlock[n + jWidth3];
-                                l += iHeight4;
-                                n += jWidth4;
-                            }
-                            while (l < lEnd) {
-                                sum += tBlock[l] * mBlock[n];
-                                l += iHeight;
-                                n += jWidth;
-                            }
-                            outBlock[k] += sum;
-                            ++k;
-                        }
+    /**
+     * Compute one block of {@code this^T * m}.
+     * @param m matrix to postmultiply by
+     * @param out output matrix
+     * @param blockIndex index of the output block to compute
+     */
+    private void transposeMultiplyBlock(final BlockRealMatrix m, final BlockRealMatrix out,
+                                        final int blockIndex) {
+
+        final int iBlock = blockIndex / out.blockColumns;
+        final int jBlock = blockIndex - iBlock * out.blockColumns;
+
+        final int iHeight  = out.blockHeight(iBlock);
+        final int iHeight2 = iHeight  + iHeight;
+        final int iHeight3 = iHeight2 + iHeight;
+        final int iHeight4 = iHeight3 + iHeight;
+        final int pStart   = iBlock * BLOCK_SIZE;
+        final int pEnd     = FastMath.min(pStart + BLOCK_SIZE, columns);
+
+        final int jWidth  = out.blockWidth(jBlock);
+        final int jWidth2 = jWidth  + jWidth;
+        final int jWidth3 = jWidth2 + jWidth;
+        final int jWidth4 = jWidth3 + jWidth;
+
+        // select current block
+        final double[] outBlock = out.blocks[blockIndex];
+
+        // perform multiplication on current block
+        for (int kBlock = 0; kBlock < blockRows; ++kBlock) {
+            final int      kHeight = blockHeight(kBlock);
+            final double[] tBlock  = blocks[kBlock * blockColumns + iBlock];
+            final double[] mBlock  = m.blocks[kBlock * m.blockColumns + jBlock];
+            int k = 0;
+            for (int p = pStart; p < pEnd; ++p) {
+                final int lStart = p - pStart;
+                final int lEnd   = lStart + iHeight * kHeight;
+                for (int nStart = 0; nStart < jWidth; ++nStart) {
+                    double sum = 0;
+                    int l = lStart;
+                    int n = nStart;
+                    while (l < lEnd - iHeight3) {
+                        sum += tBlock[l]            * mBlock[n] +
+                               tBlock[l + iHeight]  * mBlock[n + jWidth] +
+                               tBlock[l + iHeight2] * mBlock[n + jWidth2] +
+                               tBlock[l + iHeight3] * mBlock[n + jWidth3];
+                        l += iHeight4;
+                        n += jWidth4;
+                    }
+                    while (l < lEnd) {
+                        sum += tBlock[l] * mBlock[n];
+                        l += iHeight;
+                        n += jWidth;
                     }
+                    outBlock[k] += sum;
+                    ++k;
                 }
-                // go to next block
-                ++blockIndex;
             }
         }
 
-        return out;
     }
 
     /** {@inheritDoc} */
@@ -1555,23 +1635,7 @@ public class BlockRealMatrix extends AbstractRealMatrix implements Serializable
                 final double[] block  = blocks[iBlock * blockColumns + jBlock];
                 final int qStart = jBlock * BLOCK_SIZE;
                 final int qEnd   = FastMath.min(qStart + BLOCK_SIZE, columns);
-                int k = 0;
-                for (int p = pStart; p < pEnd; ++p) {
-                    double sum = 0;
-                    int q = qStart;
-                    while (q < qEnd - 3) {
-                        sum += block[k]     * v[q]     +
-                               block[k + 1] * v[q + 1] +
-                               block[k + 2] * v[q + 2] +
-                               block[k + 3] * v[q + 3];
-                        k += 4;
-                        q += 4;
-                    }
-                    while (q < qEnd) {
-                        sum += block[k++] * v[q++];
-                    }
-                    out[p] += sum;
-                }
+                DenseKernels.matrixVectorMultiplyAdd(block, pEnd - pStart, qEnd - qStart, v, qStart, out, pStart);
             }
         }
 
@@ -1844,6 +1908,20 @@ public class BlockRealMatrix extends AbstractRealMatrix implements Serializable
         return visitor.end();
     }
 
+    /**
+     * Get a reference to the underlying blocks.
+     * <p>
+     * This method is package private and intended only for algorithms that
+     * work directly in blocks layout (like blocked decompositions), it does
+     * <em>not</em> copy the blocks.
+     * </p>
+     * @return reference to the underlying blocks
+     * @since 1.7
+     */
+    double[][] getBlocks() {
+        return blocks;
+    }
+
     /**
      * Get the height of a block.
      * @param blockRow row index (in block sense) of the block
@@ -17,7 +17,21 @@
 
 package org.hipparchus.linear;
 
+import java.util.concurrent.ForkJoinPool;
+
 /** Matrix decomposer using Cholseky decomposition.
+ * <p>
+ * If the decomposer is built with a {@link ForkJoinPool}, {@link BlockRealMatrix}
+ * instances are decomposed using the parallel {@link BlockCholeskyDecomposition},
+ * other matrices are decomposed using {@link CholeskyDecomposition}.
+ * </p>
+ * <p>
+ * No pool is ever created implicitly. Classes that only receive a
+ * {@link MatrixDecomposer}, like the Kalman filters or the Gauss-Newton
+ * least squares optimizer, therefore use the parallel decomposition only
+ * if their caller provides a decomposer built with a pool, and only for
+ * the matrices that are {@link BlockRealMatrix} instances.
+ * </p>
  * @since 1.3
  */
 public class CholeskyDecomposer implements MatrixDecomposer {
@@ -28,6 +42,9 @@ public class CholeskyDecomposer implements MatrixDecomposer {
     /** Threshold below which diagonal elements are considered null and matrix not positive definite. */
     private final double absolutePositivityThreshold;
 
+    /** Pool to use for parallel decomposition of block matrices (may be null). */
+    private final ForkJoinPool pool;
+
     /**
      * Creates a Cholesky decomposer with specify threshold for several matrices.
      * @param relativeSymmetryThreshold threshold above which off-diagonal
@@ -37,15 +54,40 @@ public class CholeskyDecomposer implements MatrixDecomposer {
      */
     public CholeskyDecomposer(final double relativeSymmetryThreshold,
                               final double absolutePositivityThreshold) {
+        this(relativeSymmetryThreshold, absolutePositivityThreshold, null);
+    }
+
+    /**
+     * Creates a Cholesky decomposer with specify threshold for several matrices,
+     * using parallel computation for block matrices.
+     * @param relativeSymmetryThreshold threshold above which off-diagonal
+     * elements are considered too different and matrix not symmetric
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     * @param pool pool to use for parallel decomposition of {@link BlockRealMatrix}
+     * instances (if null, all matrices are decomposed sequentially
+     * using {@link CholeskyDecomposition})
+     * @since 1.7
+     */
+    public CholeskyDecomposer(final double relativeSymmetryThreshold,
+                              final double absolutePositivityThreshold,
+                              final ForkJoinPool pool) {
         this.relativeSymmetryThreshold   = relativeSymmetryThreshold;
         this.absolutePositivityThreshold = absolutePositivityThreshold;
+        this.pool                        = pool;
     }
 
     /** {@inheritDoc} */
     @Override
     public DecompositionSolver decompose(final RealMatrix a) {
-        return new CholeskyDecomposition(a, relativeSymmetryThreshold, absolutePositivityThreshold).
-               getSolver();
+        if (pool != null && a instanceof BlockRealMatrix) {
+            return new BlockCholeskyDecomposition((BlockRealMatrix) a,
+                                                  relativeSymmetryThreshold, absolutePositivityThreshold,
+                                                  pool).getSolver();
+        } else {
+            return new CholeskyDecomposition(a, relativeSymmetryThreshold, absolutePositivityThreshold).
+                   getSolver();
+        }
     }
 
 }
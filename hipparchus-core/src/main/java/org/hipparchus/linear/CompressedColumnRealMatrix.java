@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.io.Serializable;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathRuntimeException;
+
+/**
+ * Immutable sparse matrix stored in compressed sparse column (CSC) format.
+ * <p>
+ * The non-zero entries are stored column after column in contiguous arrays, with
+ * increasing row indices in each column. This makes {@link #preMultiply(double[])}
+ * a sequence of dot products over contiguous memory, and column access cheap,
+ * which is the layout expected by direct sparse solvers. Entry access is a
+ * binary search within one column.
+ * </p>
+ * <p>
+ * Instances are created using {@link CompressedMatrixBuilder}. They cannot
+ * be modified: {@link #setEntry(int, int, double)}, {@link #addToEntry(int, int, double)}
+ * and {@link #multiplyEntry(int, int, double)} throw an exception. Operations
+ * like {@link #multiply(RealMatrix)}, {@link #add(RealMatrix)} or
+ * {@link #scalarMultiply(double)} preserve sparsity when both operands are
+ * compressed matrices. {@link #transpose()} does not copy anything, it returns
+ * a {@link CompressedRowRealMatrix} sharing the same storage.
+ * </p>
+ * @see CompressedRowRealMatrix
+ * @see CompressedMatrixBuilder
+ * @since 1.7
+ */
+public class CompressedColumnRealMatrix extends AbstractRealMatrix
+    implements SparseRealMatrix, Serializable {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20201016L;
+
+    /** Storage, with columns as the major dimension. */
+    private final CompressedStorage storage;
+
+    /** Build a matrix from its storage.
+     * @param storage storage, with columns as the major dimension
+     */
+    CompressedColumnRealMatrix(final CompressedStorage storage) {
+        super(storage.getMinorDimension(), storage.getMajorDimension());
+        this.storage = storage;
+    }
+
+    /** Get the underlying storage.
+     * @return underlying storage, with columns as the major dimension
+     */
+    CompressedStorage getStorage() {
+        return storage;
+    }
+
+    /** Get the number of non-zero entries.
+     * @return number of non-zero entries
+     */
+    public int getNonZeros() {
+        return storage.getNonZeros();
+    }
+
+    /** Convert to compressed sparse row format.
+     * @return matrix with the same entries, in compressed sparse row format
+     */
+    public CompressedRowRealMatrix toRowCompressed() {
+        return new CompressedRowRealMatrix(storage.transpose());
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * As compressed matrices are immutable, the returned matrix is an
+     * {@link OpenMapRealMatrix}.
+     * </p>
+     */
+    @Override
+    public OpenMapRealMatrix createMatrix(final int rowDimension, final int columnDimension)
+        throws MathIllegalArgumentException {
+        return new OpenMapRealMatrix(rowDimension, columnDimension);
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * As compressed matrices are immutable, the copy shares the storage of this matrix.
+     * </p>
+     */
+    @Override
+    public CompressedColumnRealMatrix copy() {
+        return new CompressedColumnRealMatrix(storage);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return storage.getMinorDimension();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return storage.getMajorDimension();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int row, final int column)
+        throws MathIllegalArgumentException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        return storage.getEntry(column, row);
+    }
+
+    /** {@inheritDoc}
+     * @exception MathRuntimeException always, as compressed matrices are immutable
+     */
+    @Override
+    public void setEntry(final int row, final int column, final double value)
+        throws MathRuntimeException {
+        throw new MathRuntimeException(LocalizedCoreFormats.UNSUPPORTED_OPERATION);
+    }
+
+    /** {@inheritDoc}
+     * @exception MathRuntimeException always, as compressed matrices are immutable
+     */
+    @Override
+    public void addToEntry(final int row, final int column, final double increment)
+        throws MathRuntimeException {
+        throw new MathRuntimeException(LocalizedCoreFormats.UNSUPPORTED_OPERATION);
+    }
+
+    /** {@inheritDoc}
+     * @exception MathRuntimeException always, as compressed matrices are immutable
+     */
+    @Override
+    public void multiplyEntry(final int row, final int column, final double factor)
+        throws MathRuntimeException {
+        throw new MathRuntimeException(LocalizedCoreFormats.UNSUPPORTED_OPERATION);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] getColumn(final int column) throws MathIllegalArgumentException {
+        MatrixUtils.checkColumnIndex(this, column);
+        final double[] out     = new double[getRowDimension()];
+        final int[]    indices = storage.getIndices();
+        final double[] values  = storage.getValues();
+        for (int p = storage.getPointers()[column]; p < storage.getPointers()[column + 1]; ++p) {
+            out[indices[p]] = values[p];
+        }
+        return out;
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * The transposed matrix shares the storage of this matrix.
+     * </p>
+     */
+    @Override
+    public CompressedRowRealMatrix transpose() {
+        return new CompressedRowRealMatrix(storage);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix add(final RealMatrix m)
+        throws MathIllegalArgumentException {
+        if (m instanceof CompressedRowRealMatrix || m instanceof CompressedColumnRealMatrix) {
+            MatrixUtils.checkAdditionCompatible(this, m);
+            return new CompressedColumnRealMatrix(storage.combine(1.0, columnStorage(m)));
+        } else {
+            return super.add(m);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix subtract(final RealMatrix m)
+        throws MathIllegalArgumentException {
+        if (m instanceof CompressedRowRealMatrix || m instanceof CompressedColumnRealMatrix) {
+            MatrixUtils.checkAdditionCompatible(this, m);
+            return new CompressedColumnRealMatrix(storage.combine(-1.0, columnStorage(m)));
+        } else {
+            return super.subtract(m);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompressedColumnRealMatrix scalarMultiply(final double d) {
+        return new CompressedColumnRealMatrix(storage.scalarMultiply(d));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If {@code m} is a {@link SparseRealMatrix}, the product is computed
+     * using sparse algorithms and the result is a {@link CompressedColumnRealMatrix}.
+     * </p>
+     */
+    @Override
+    public RealMatrix multiply(final RealMatrix m)
+        throws MathIllegalArgumentException {
+
+        MatrixUtils.checkMultiplicationCompatible(this, m);
+
+        if (m instanceof SparseRealMatrix) {
+            // (this m)^T = m^T this^T, and the column storage of a matrix is the row storage of its transpose
+            return new CompressedColumnRealMatrix(columnStorage(m).multiply(storage));
+        }
+
+        // dense right hand side, we scatter each column of this matrix in the product
+        final int        outCols  = m.getColumnDimension();
+        final double[][] data     = m.getData();
+        final int[]      pointers = storage.getPointers();
+        final int[]      indices  = storage.getIndices();
+        final double[]   values   = storage.getValues();
+        final double[][] outData  = new double[getRowDimension()][outCols];
+        for (int k = 0; k < getColumnDimension(); ++k) {
+            final double[] mRow = data[k];
+            for (int p = pointers[k]; p < pointers[k + 1]; ++p) {
+                final double   a      = values[p];
+                final double[] outRow = outData[indices[p]];
+                for (int j = 0; j < outCols; ++j) {
+                    outRow[j] += a * mRow[j];
+                }
+            }
+        }
+        final RealMatrix out = m.createMatrix(getRowDimension(), outCols);
+        out.setSubMatrix(outData, 0, 0);
+
+        return out;
+
+    }
+
+    /**
+     * Postmultiply this matrix by another compressed sparse column matrix.
+     *
+     * @param m Matrix to postmultiply by.
+     * @return {@code this} * {@code m}.
+     * @throws MathIllegalArgumentException if the number of rows of {@code m}
+     * differ from the number of columns of {@code this} matrix.
+     */
+    public CompressedColumnRealMatrix multiply(final CompressedColumnRealMatrix m)
+        throws MathIllegalArgumentException {
+        MatrixUtils.checkMultiplicationCompatible(this, m);
+        return new CompressedColumnRealMatrix(m.storage.multiply(storage));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] operate(final double[] v)
+        throws MathIllegalArgumentException {
+        if (v.length != getColumnDimension()) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                   v.length, getColumnDimension());
+        }
+        return storage.scatter(v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operate(final RealVector v)
+        throws MathIllegalArgumentException {
+        if (v instanceof ArrayRealVector) {
+            return new ArrayRealVector(operate(((ArrayRealVector) v).getDataRef()), false);
+        } else {
+            return new ArrayRealVector(operate(v.toArray()), false);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] preMultiply(final double[] v)
+        throws MathIllegalArgumentException {
+        if (v.length != getRowDimension()) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                   v.length, getRowDimension());
+        }
+        return storage.gather(v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector preMultiply(final RealVector v)
+        throws MathIllegalArgumentException {
+        if (v instanceof ArrayRealVector) {
+            return new ArrayRealVector(preMultiply(((ArrayRealVector) v).getDataRef()), false);
+        } else {
+            return new ArrayRealVector(preMultiply(v.toArray()), false);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operateTranspose(final RealVector x)
+        throws MathIllegalArgumentException {
+        return preMultiply(x);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isTransposable() {
+        return true;
+    }
+
+    /** Get the storage of a sparse matrix, with columns as the major dimension.
+     * @param m sparse matrix
+     * @return storage of the matrix, with columns as the major dimension
+     */
+    static CompressedStorage columnStorage(final RealMatrix m) {
+        if (m instanceof CompressedColumnRealMatrix) {
+            return ((CompressedColumnRealMatrix) m).storage;
+        } else if (m instanceof CompressedRowRealMatrix) {
+            return ((CompressedRowRealMatrix) m).getStorage().transpose();
+        } else {
+            return new CompressedMatrixBuilder(m).buildColumnCompressed().storage;
+        }
+    }
+
+}
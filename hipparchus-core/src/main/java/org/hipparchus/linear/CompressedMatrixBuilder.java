@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.Arrays;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.OpenIntToDoubleHashMap;
+
+/**
+ * Builder for {@link CompressedRowRealMatrix compressed sparse row} and
+ * {@link CompressedColumnRealMatrix compressed sparse column} matrices.
+ * <p>
+ * Entries are accumulated in any order as (row, column, value) triplets,
+ * either one at a time or from existing matrices, and compressed only when
+ * one of the {@code build} methods is called. Entries added several times
+ * at the same position are summed, and entries that end up exactly zero
+ * are not stored. The builder can be reused after a build, for example to
+ * build both a row and a column compressed version of the same matrix.
+ * </p>
+ * <p>
+ * Converting an {@link OpenMapRealMatrix} only iterates over its non-zero
+ * entries, whereas converting other non-compressed matrices requires
+ * scanning all their entries.
+ * </p>
+ * @since 1.7
+ */
+public class CompressedMatrixBuilder {
+
+    /** Initial capacity of the triplets arrays. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Number of rows of the matrix. */
+    private final int rows;
+
+    /** Number of columns of the matrix. */
+    private final int columns;
+
+    /** Row indices of the triplets. */
+    private int[] rowIndices;
+
+    /** Column indices of the triplets. */
+    private int[] columnIndices;
+
+    /** Values of the triplets. */
+    private double[] values;
+
+    /** Number of triplets. */
+    private int size;
+
+    /**
+     * Create a builder for a matrix with the supplied row and column dimensions.
+     *
+     * @param rowDimension Number of rows of the matrix.
+     * @param columnDimension Number of columns of the matrix.
+     * @throws MathIllegalArgumentException if row or column dimension is not
+     * positive.
+     */
+    public CompressedMatrixBuilder(final int rowDimension, final int columnDimension)
+        throws MathIllegalArgumentException {
+        if (rowDimension < 1) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.AT_LEAST_ONE_ROW);
+        }
+        if (columnDimension < 1) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.AT_LEAST_ONE_COLUMN);
+        }
+        this.rows          = rowDimension;
+        this.columns       = columnDimension;
+        this.rowIndices    = new int[INITIAL_CAPACITY];
+        this.columnIndices = new int[INITIAL_CAPACITY];
+        this.values        = new double[INITIAL_CAPACITY];
+        this.size          = 0;
+    }
+
+    /**
+     * Create a builder initialized with the non-zero entries of a matrix.
+     *
+     * @param matrix matrix to convert
+     */
+    public CompressedMatrixBuilder(final RealMatrix matrix) {
+        this(matrix.getRowDimension(), matrix.getColumnDimension());
+        addMatrix(matrix);
+    }
+
+    /** Get the number of entries added so far.
+     * <p>
+     * Entries added several times at the same position are counted several times.
+     * </p>
+     * @return number of entries added so far
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Add an entry.
+     *
+     * @param row row index of the entry
+     * @param column column index of the entry
+     * @param value value to add at the entry position
+     * @return this builder
+     * @throws MathIllegalArgumentException if the row or column index is not valid
+     */
+    public CompressedMatrixBuilder addEntry(final int row, final int column, final double value)
+        throws MathIllegalArgumentException {
+        checkIndices(row, column);
+        if (value != 0.0) {
+            ensureCapacity(1);
+            rowIndices[size]    = row;
+            columnIndices[size] = column;
+            values[size++]      = value;
+        }
+        return this;
+    }
+
+    /**
+     * Add all entries of a matrix.
+     *
+     * @param matrix matrix to add, must have the same dimensions as the built matrix
+     * @return this builder
+     * @throws MathIllegalArgumentException if the matrix dimensions do not match
+     */
+    public CompressedMatrixBuilder addMatrix(final RealMatrix matrix)
+        throws MathIllegalArgumentException {
+
+        if (matrix.getRowDimension() != rows || matrix.getColumnDimension() != columns) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH_2x2,
+                                                   matrix.getRowDimension(), matrix.getColumnDimension(),
+                                                   rows, columns);
+        }
+
+        if (matrix instanceof CompressedRowRealMatrix) {
+            addStorage(((CompressedRowRealMatrix) matrix).getStorage(), true);
+        } else if (matrix instanceof CompressedColumnRealMatrix) {
+            addStorage(((CompressedColumnRealMatrix) matrix).getStorage(), false);
+        } else if (matrix instanceof OpenMapRealMatrix) {
+            for (OpenIntToDoubleHashMap.Iterator iterator = ((OpenMapRealMatrix) matrix).nonZeroEntries();
+                 iterator.hasNext();) {
+                iterator.advance();
+                final int row = iterator.key() / columns;
+                addEntry(row, iterator.key() - row * columns, iterator.value());
+            }
+        } else {
+            matrix.walkInOptimizedOrder(new DefaultRealMatrixPreservingVisitor() {
+                /** {@inheritDoc} */
+                @Override
+                public void visit(final int row, final int column, final double value) {
+                    addEntry(row, column, value);
+                }
+            });
+        }
+
+        return this;
+
+    }
+
+    /** Build a matrix in compressed sparse row format.
+     * @return matrix in compressed sparse row format
+     */
+    public CompressedRowRealMatrix buildRowCompressed() {
+        return new CompressedRowRealMatrix(CompressedStorage.fromTriplets(rows, columns, size,
+                                                                          rowIndices, columnIndices,
+                                                                          values));
+    }
+
+    /** Build a matrix in compressed sparse column format.
+     * @return matrix in compressed sparse column format
+     */
+    public CompressedColumnRealMatrix buildColumnCompressed() {
+        return new CompressedColumnRealMatrix(CompressedStorage.fromTriplets(columns, rows, size,
+                                                                             columnIndices, rowIndices,
+                                                                             values));
+    }
+
+    /** Add all entries from a compressed storage.
+     * @param storage storage to add
+     * @param rowMajor if true, rows are the major dimension of the storage
+     */
+    private void addStorage(final CompressedStorage storage, final boolean rowMajor) {
+        ensureCapacity(storage.getNonZeros());
+        final int[]    pointers = storage.getPointers();
+        final int[]    indices  = storage.getIndices();
+        final double[] vals     = storage.getValues();
+        final int[]    major    = rowMajor ? rowIndices    : columnIndices;
+        final int[]    minor    = rowMajor ? columnIndices : rowIndices;
+        for (int i = 0; i < storage.getMajorDimension(); ++i) {
+            for (int p = pointers[i]; p < pointers[i + 1]; ++p) {
+                major[size]    = i;
+                minor[size]    = indices[p];
+                values[size++] = vals[p];
+            }
+        }
+    }
+
+    /** Ensure there is room for additional triplets.
+     * @param additional number of additional triplets
+     */
+    private void ensureCapacity(final int additional) {
+        if (size + additional > values.length) {
+            final int capacity = FastMath.max(size + additional, 2 * values.length);
+            rowIndices    = Arrays.copyOf(rowIndices,    capacity);
+            columnIndices = Arrays.copyOf(columnIndices, capacity);
+            values        = Arrays.copyOf(values,        capacity);
+        }
+    }
+
+    /** Check indices.
+     * @param row row index
+     * @param column column index
+     * @throws MathIllegalArgumentException if the row or column index is not valid
+     */
+    private void checkIndices(final int row, final int column)
+        throws MathIllegalArgumentException {
+        if (row < 0 || row >= rows) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.ROW_INDEX,
+                                                   row, 0, rows - 1);
+        }
+        if (column < 0 || column >= columns) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.COLUMN_INDEX,
+                                                   column, 0, columns - 1);
+        }
+    }
+
+}
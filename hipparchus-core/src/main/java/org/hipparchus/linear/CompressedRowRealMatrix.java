@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathRuntimeException;
+
+/**
+ * Immutable sparse matrix stored in compressed sparse row (CSR) format.
+ * <p>
+ * The non-zero entries are stored row after row in contiguous arrays, with
+ * increasing column indices in each row. This makes {@link #operate(double[])}
+ * a sequence of dot products over contiguous memory, which is the core
+ * operation of iterative solvers like {@link ConjugateGradient} or {@link SymmLQ}.
+ * Entry access is a binary search within one row.
+ * </p>
+ * <p>
+ * Instances are created using {@link CompressedMatrixBuilder}. They cannot
+ * be modified: {@link #setEntry(int, int, double)}, {@link #addToEntry(int, int, double)}
+ * and {@link #multiplyEntry(int, int, double)} throw an exception. Operations
+ * like {@link #multiply(RealMatrix)}, {@link #add(RealMatrix)} or
+ * {@link #scalarMultiply(double)} preserve sparsity when both operands are
+ * compressed matrices. {@link #transpose()} does not copy anything, it returns
+ * a {@link CompressedColumnRealMatrix} sharing the same storage.
+ * </p>
+ * @see CompressedColumnRealMatrix
+ * @see CompressedMatrixBuilder
+ * @since 1.7
+ */
+public class CompressedRowRealMatrix extends AbstractRealMatrix
+    implements SparseRealMatrix, Serializable {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20201016L;
+
+    /** Storage, with rows as the major dimension. */
+    private final CompressedStorage storage;
+
+    /** Build a matrix from its storage.
+     * @param storage storage, with rows as the major dimension
+     */
+    CompressedRowRealMatrix(final CompressedStorage storage) {
+        super(storage.getMajorDimension(), storage.getMinorDimension());
+        this.storage = storage;
+    }
+
+    /** Get the underlying storage.
+     * @return underlying storage, with rows as the major dimension
+     */
+    CompressedStorage getStorage() {
+        return storage;
+    }
+
+    /** Get the number of non-zero entries.
+     * @return number of non-zero entries
+     */
+    public int getNonZeros() {
+        return storage.getNonZeros();
+    }
+
+    /** Convert to compressed sparse column format.
+     * @return matrix with the same entries, in compressed sparse column format
+     */
+    public CompressedColumnRealMatrix toColumnCompressed() {
+        return new CompressedColumnRealMatrix(storage.transpose());
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * As compressed matrices are immutable, the returned matrix is an
+     * {@link OpenMapRealMatrix}.
+     * </p>
+     */
+    @Override
+    public OpenMapRealMatrix createMatrix(final int rowDimension, final int columnDimension)
+        throws MathIllegalArgumentException {
+        return new OpenMapRealMatrix(rowDimension, columnDimension);
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * As compressed matrices are immutable, the copy shares the storage of this matrix.
+     * </p>
+     */
+    @Override
+    public CompressedRowRealMatrix copy() {
+        return new CompressedRowRealMatrix(storage);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getRowDimension() {
+        return storage.getMajorDimension();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getColumnDimension() {
+        return storage.getMinorDimension();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getEntry(final int row, final int column)
+        throws MathIllegalArgumentException {
+        MatrixUtils.checkMatrixIndex(this, row, column);
+        return storage.getEntry(row, column);
+    }
+
+    /** {@inheritDoc}
+     * @exception MathRuntimeException always, as compressed matrices are immutable
+     */
+    @Override
+    public void setEntry(final int row, final int column, final double value)
+        throws MathRuntimeException {
+        throw new MathRuntimeException(LocalizedCoreFormats.UNSUPPORTED_OPERATION);
+    }
+
+    /** {@inheritDoc}
+     * @exception MathRuntimeException always, as compressed matrices are immutable
+     */
+    @Override
+    public void addToEntry(final int row, final int column, final double increment)
+        throws MathRuntimeException {
+        throw new MathRuntimeException(LocalizedCoreFormats.UNSUPPORTED_OPERATION);
+    }
+
+    /** {@inheritDoc}
+     * @exception MathRuntimeException always, as compressed matrices are immutable
+     */
+    @Override
+    public void multiplyEntry(final int row, final int column, final double factor)
+        throws MathRuntimeException {
+        throw new MathRuntimeException(LocalizedCoreFormats.UNSUPPORTED_OPERATION);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] getRow(final int row) throws MathIllegalArgumentException {
+        MatrixUtils.checkRowIndex(this, row);
+        final double[] out     = new double[getColumnDimension()];
+        final int[]    indices = storage.getIndices();
+        final double[] values  = storage.getValues();
+        for (int p = storage.getPointers()[row]; p < storage.getPointers()[row + 1]; ++p) {
+            out[indices[p]] = values[p];
+        }
+        return out;
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * The transposed matrix shares the storage of this matrix.
+     * </p>
+     */
+    @Override
+    public CompressedColumnRealMatrix transpose() {
+        return new CompressedColumnRealMatrix(storage);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix add(final RealMatrix m)
+        throws MathIllegalArgumentException {
+        if (m instanceof CompressedRowRealMatrix || m instanceof CompressedColumnRealMatrix) {
+            MatrixUtils.checkAdditionCompatible(this, m);
+            return new CompressedRowRealMatrix(storage.combine(1.0, rowStorage(m)));
+        } else {
+            return super.add(m);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealMatrix subtract(final RealMatrix m)
+        throws MathIllegalArgumentException {
+        if (m instanceof CompressedRowRealMatrix || m instanceof CompressedColumnRealMatrix) {
+            MatrixUtils.checkAdditionCompatible(this, m);
+            return new CompressedRowRealMatrix(storage.combine(-1.0, rowStorage(m)));
+        } else {
+            return super.subtract(m);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CompressedRowRealMatrix scalarMultiply(final double d) {
+        return new CompressedRowRealMatrix(storage.scalarMultiply(d));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If {@code m} is a {@link SparseRealMatrix}, the product is computed
+     * using sparse algorithms and the result is a {@link CompressedRowRealMatrix}.
+     * </p>
+     */
+    @Override
+    public RealMatrix multiply(final RealMatrix m)
+        throws MathIllegalArgumentException {
+
+        MatrixUtils.checkMultiplicationCompatible(this, m);
+
+        if (m instanceof SparseRealMatrix) {
+            return new CompressedRowRealMatrix(storage.multiply(rowStorage(m)));
+        }
+
+        // dense right hand side, we accumulate each row of the product
+        final int        outCols  = m.getColumnDimension();
+        final double[][] data     = m.getData();
+        final int[]      pointers = storage.getPointers();
+        final int[]      indices  = storage.getIndices();
+        final double[]   values   = storage.getValues();
+        final RealMatrix out      = m.createMatrix(getRowDimension(), outCols);
+        final double[]   outRow   = new double[outCols];
+        for (int i = 0; i < getRowDimension(); ++i) {
+            Arrays.fill(outRow, 0.0);
+            for (int p = pointers[i]; p < pointers[i + 1]; ++p) {
+                final double   a    = values[p];
+                final double[] mRow = data[indices[p]];
+                for (int j = 0; j < outCols; ++j) {
+                    outRow[j] += a * mRow[j];
+                }
+            }
+            out.setRow(i, outRow);
+        }
+
+        return out;
+
+    }
+
+    /**
+     * Postmultiply this matrix by another compressed sparse row matrix.
+     *
+     * @param m Matrix to postmultiply by.
+     * @return {@code this} * {@code m}.
+     * @throws MathIllegalArgumentException if the number of rows of {@code m}
+     * differ from the number of columns of {@code this} matrix.
+     */
+    public CompressedRowRealMatrix multiply(final CompressedRowRealMatrix m)
+        throws MathIllegalArgumentException {
+        MatrixUtils.checkMultiplicationCompatible(this, m);
+        return new CompressedRowRealMatrix(storage.multiply(m.storage));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] operate(final double[] v)
+        throws MathIllegalArgumentException {
+        if (v.length != getColumnDimension()) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                   v.length, getColumnDimension());
+        }
+        return storage.gather(v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operate(final RealVector v)
+        throws MathIllegalArgumentException {
+        if (v instanceof ArrayRealVector) {
+            return new ArrayRealVector(operate(((ArrayRealVector) v).getDataRef()), false);
+        } else {
+            return new ArrayRealVector(operate(v.toArray()), false);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] preMultiply(final double[] v)
+        throws MathIllegalArgumentException {
+        if (v.length != getRowDimension()) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                   v.length, getRowDimension());
+        }
+        return storage.scatter(v);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector preMultiply(final RealVector v)
+        throws MathIllegalArgumentException {
+        if (v instanceof ArrayRealVector) {
+            return new ArrayRealVector(preMultiply(((ArrayRealVector) v).getDataRef()), false);
+        } else {
+            return new ArrayRealVector(preMultiply(v.toArray()), false);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RealVector operateTranspose(final RealVector x)
+        throws MathIllegalArgumentException {
+        return preMultiply(x);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isTransposable() {
+        return true;
+    }
+
+    /** Get the storage of a sparse matrix, with rows as the major dimension.
+     * @param m sparse matrix
+     * @return storage of the matrix, with rows as the major dimension
+     */
+    static CompressedStorage rowStorage(final RealMatrix m) {
+        if (m instanceof CompressedRowRealMatrix) {
+            return ((CompressedRowRealMatrix) m).storage;
+        } else if (m instanceof CompressedColumnRealMatrix) {
+            return ((CompressedColumnRealMatrix) m).getStorage().transpose();
+        } else {
+            return new CompressedMatrixBuilder(m).buildRowCompressed().storage;
+        }
+    }
+
+}
@@ -0,0 +1,424 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.hipparchus.util.FastMath;
+
+/** Compressed storage shared by {@link CompressedRowRealMatrix} and {@link CompressedColumnRealMatrix}.
+ * <p>
+ * The storage is organized along a major dimension (rows for compressed sparse row,
+ * columns for compressed sparse column) and a minor dimension. The non-zero entries
+ * of major index {@code i} are stored at positions {@code pointers[i]} (included)
+ * to {@code pointers[i + 1]} (excluded) in the {@code indices} and {@code values}
+ * arrays, with strictly increasing minor indices.
+ * </p>
+ * <p>
+ * As the compressed storage of a matrix along columns is also its storage along
+ * rows of its transpose, all algorithms are written once here in terms of major
+ * and minor indices. Instances are immutable, so they can be shared between matrices.
+ * </p>
+ * @since 1.7
+ */
+final class CompressedStorage implements Serializable {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20201016L;
+
+    /** Major dimension. */
+    private final int majorDimension;
+
+    /** Minor dimension. */
+    private final int minorDimension;
+
+    /** Start of each major index in the entries arrays (size majorDimension + 1). */
+    private final int[] pointers;
+
+    /** Minor indices of the non-zero entries. */
+    private final int[] indices;
+
+    /** Values of the non-zero entries. */
+    private final double[] values;
+
+    /** Simple constructor.
+     * <p>
+     * The arrays are stored by reference, they must not be changed afterwards.
+     * </p>
+     * @param majorDimension major dimension
+     * @param minorDimension minor dimension
+     * @param pointers start of each major index in the entries arrays (size majorDimension + 1)
+     * @param indices minor indices of the non-zero entries
+     * @param values values of the non-zero entries
+     */
+    CompressedStorage(final int majorDimension, final int minorDimension,
+                      final int[] pointers, final int[] indices, final double[] values) {
+        this.majorDimension = majorDimension;
+        this.minorDimension = minorDimension;
+        this.pointers       = pointers;
+        this.indices        = indices;
+        this.values         = values;
+    }
+
+    /** Build a storage from unordered triplets.
+     * <p>
+     * Duplicated entries are summed and entries that are exactly zero are dropped.
+     * </p>
+     * @param majorDimension major dimension
+     * @param minorDimension minor dimension
+     * @param n number of triplets
+     * @param major major indices of the triplets
+     * @param minor minor indices of the triplets
+     * @param value values of the triplets
+     * @return compressed storage
+     */
+    static CompressedStorage fromTriplets(final int majorDimension, final int minorDimension,
+                                          final int n, final int[] major, final int[] minor,
+                                          final double[] value) {
+
+        // counting sort along major index
+        final int[] start = new int[majorDimension + 1];
+        for (int k = 0; k < n; ++k) {
+            ++start[major[k] + 1];
+        }
+        for (int i = 0; i < majorDimension; ++i) {
+            start[i + 1] += start[i];
+        }
+        final int[]    next   = start.clone();
+        final int[]    sorted = new int[n];
+        final double[] vals   = new double[n];
+        for (int k = 0; k < n; ++k) {
+            final int p = next[major[k]]++;
+            sorted[p] = minor[k];
+            vals[p]   = value[k];
+        }
+
+        // sort each major index, merging duplicates and dropping zeros
+        final int[]    pointers = new int[majorDimension + 1];
+        final int[]    indices  = new int[n];
+        final double[] values   = new double[n];
+        int nnz = 0;
+        for (int i = 0; i < majorDimension; ++i) {
+            sortSegment(sorted, vals, start[i], start[i + 1]);
+            int p = start[i];
+            while (p < start[i + 1]) {
+                final int j = sorted[p];
+                double sum = 0;
+                while (p < start[i + 1] && sorted[p] == j) {
+                    sum += vals[p++];
+                }
+                if (sum != 0.0) {
+                    indices[nnz]  = j;
+                    values[nnz++] = sum;
+                }
+            }
+            pointers[i + 1] = nnz;
+        }
+
+        return new CompressedStorage(majorDimension, minorDimension, pointers,
+                                     Arrays.copyOf(indices, nnz), Arrays.copyOf(values, nnz));
+
+    }
+
+    /** Sort a segment of entries according to their indices.
+     * @param idx indices of the entries
+     * @param val values of the entries
+     * @param from start of the segment (included)
+     * @param to end of the segment (excluded)
+     */
+    private static void sortSegment(final int[] idx, final double[] val, final int from, final int to) {
+        // insertion sort, segments are usually short and often already sorted
+        for (int p = from + 1; p < to; ++p) {
+            final int    j = idx[p];
+            final double v = val[p];
+            int q = p - 1;
+            while (q >= from && idx[q] > j) {
+                idx[q + 1] = idx[q];
+                val[q + 1] = val[q];
+                --q;
+            }
+            idx[q + 1] = j;
+            val[q + 1] = v;
+        }
+    }
+
+    /** Get the major dimension.
+     * @return major dimension
+     */
+    int getMajorDimension() {
+        return majorDimension;
+    }
+
+    /** Get the minor dimension.
+     * @return minor dimension
+     */
+    int getMinorDimension() {
+        return minorDimension;
+    }
+
+    /** Get the start of each major index in the entries arrays.
+     * <p>
+     * The array is returned by reference, it must not be changed.
+     * </p>
+     * @return start of each major index in the entries arrays
+     */
+    int[] getPointers() {
+        return pointers;
+    }
+
+    /** Get the minor indices of the non-zero entries.
+     * <p>
+     * The array is returned by reference, it must not be changed.
+     * </p>
+     * @return minor indices of the non-zero entries
+     */
+    int[] getIndices() {
+        return indices;
+    }
+
+    /** Get the values of the non-zero entries.
+     * <p>
+     * The array is returned by reference, it must not be changed.
+     * </p>
+     * @return values of the non-zero entries
+     */
+    double[] getValues() {
+        return values;
+    }
+
+    /** Get the number of non-zero entries.
+     * @return number of non-zero entries
+     */
+    int getNonZeros() {
+        return pointers[majorDimension];
+    }
+
+    /** Get an entry.
+     * @param major major index
+     * @param minor minor index
+     * @return entry value (0 if the entry is not stored)
+     */
+    double getEntry(final int major, final int minor) {
+        final int p = Arrays.binarySearch(indices, pointers[major], pointers[major + 1], minor);
+        return (p < 0) ? 0.0 : values[p];
+    }
+
+    /** Find an entry outside of a reference pattern.
+     * @param reference reference storage, with the same dimensions
+     * @return major and minor indices of the first entry of this storage
+     * that is not present in the reference, or null if all entries are present
+     */
+    int[] findEntryOutside(final CompressedStorage reference) {
+        for (int i = 0; i < majorDimension; ++i) {
+            int q = reference.pointers[i];
+            for (int p = pointers[i]; p < pointers[i + 1]; ++p) {
+                while (q < reference.pointers[i + 1] && reference.indices[q] < indices[p]) {
+                    ++q;
+                }
+                if (q == reference.pointers[i + 1] || reference.indices[q] != indices[p]) {
+                    return new int[] { i, indices[p] };
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Multiply by a vector indexed along minor dimension.
+     * <p>
+     * This is the cache-friendly product: each output element is a dot product
+     * between contiguous entries and the vector.
+     * </p>
+     * @param x vector indexed along minor dimension
+     * @return product, indexed along major dimension
+     */
+    double[] gather(final double[] x) {
+        final double[] y = new double[majorDimension];
+        for (int i = 0; i < majorDimension; ++i) {
+            double sum = 0;
+            for (int p = pointers[i]; p < pointers[i + 1]; ++p) {
+                sum += values[p] * x[indices[p]];
+            }
+            y[i] = sum;
+        }
+        return y;
+    }
+
+    /** Multiply the transpose by a vector indexed along major dimension.
+     * <p>
+     * Entries are still read contiguously, but the output is updated in scattered order.
+     * </p>
+     * @param x vector indexed along major dimension
+     * @return product, indexed along minor dimension
+     */
+    double[] scatter(final double[] x) {
+        final double[] y = new double[minorDimension];
+        for (int i = 0; i < majorDimension; ++i) {
+            final double xi = x[i];
+            if (xi != 0.0) {
+                for (int p = pointers[i]; p < pointers[i + 1]; ++p) {
+                    y[indices[p]] += values[p] * xi;
+                }
+            }
+        }
+        return y;
+    }
+
+    /** Compute the storage along the other dimension.
+     * @return storage with major and minor dimensions exchanged
+     */
+    CompressedStorage transpose() {
+        final int nnz = getNonZeros();
+        final int[] tPointers = new int[minorDimension + 1];
+        for (int p = 0; p < nnz; ++p) {
+            ++tPointers[indices[p] + 1];
+        }
+        for (int j = 0; j < minorDimension; ++j) {
+            tPointers[j + 1] += tPointers[j];
+        }
+        final int[]    next     = Arrays.copyOf(tPointers, minorDimension);
+        final int[]    tIndices = new int[nnz];
+        final double[] tValues  = new double[nnz];
+        for (int i = 0; i < majorDimension; ++i) {
+            // scanning major indices in increasing order keeps the transposed segments sorted
+            for (int p = pointers[i]; p < pointers[i + 1]; ++p) {
+                final int q = next[indices[p]]++;
+                tIndices[q] = i;
+                tValues[q]  = values[p];
+            }
+        }
+        return new CompressedStorage(minorDimension, majorDimension, tPointers, tIndices, tValues);
+    }
+
+    /** Multiply by a scalar.
+     * @param d scalar factor
+     * @return this &times; d
+     */
+    CompressedStorage scalarMultiply(final double d) {
+        if (d == 0.0) {
+            return new CompressedStorage(majorDimension, minorDimension,
+                                         new int[majorDimension + 1], new int[0], new double[0]);
+        }
+        final double[] scaled = new double[values.length];
+        for (int p = 0; p < scaled.length; ++p) {
+            scaled[p] = d * values[p];
+        }
+        return new CompressedStorage(majorDimension, minorDimension, pointers, indices, scaled);
+    }
+
+    /** Compute a linear combination with another storage with the same dimensions.
+     * @param factor factor to apply to the other storage entries
+     * @param other other storage
+     * @return this + factor &times; other
+     */
+    CompressedStorage combine(final double factor, final CompressedStorage other) {
+        final int[]    cPointers = new int[majorDimension + 1];
+        final int[]    cIndices  = new int[getNonZeros() + other.getNonZeros()];
+        final double[] cValues   = new double[cIndices.length];
+        int nnz = 0;
+        for (int i = 0; i < majorDimension; ++i) {
+            // merge the two sorted segments
+            int p = pointers[i];
+            int q = other.pointers[i];
+            while (p < pointers[i + 1] || q < other.pointers[i + 1]) {
+                final int    j;
+                final double v;
+                if (q >= other.pointers[i + 1] ||
+                    (p < pointers[i + 1] && indices[p] < other.indices[q])) {
+                    j = indices[p];
+                    v = values[p++];
+                } else if (p >= pointers[i + 1] || other.indices[q] < indices[p]) {
+                    j = other.indices[q];
+                    v = factor * other.values[q++];
+                } else {
+                    j = indices[p];
+                    v = values[p++] + factor * other.values[q++];
+                }
+                if (v != 0.0) {
+                    cIndices[nnz]  = j;
+                    cValues[nnz++] = v;
+                }
+            }
+            cPointers[i + 1] = nnz;
+        }
+        return new CompressedStorage(majorDimension, minorDimension, cPointers,
+                                     Arrays.copyOf(cIndices, nnz), Arrays.copyOf(cValues, nnz));
+    }
+
+    /** Multiply by another storage.
+     * <p>
+     * This method uses Gustavson's algorithm: each major index of the product
+     * is accumulated in a dense work array, so the cost is proportional to the
+     * number of elementary multiplications and not to the matrices dimensions.
+     * </p>
+     * @param other other storage, its major dimension must be this minor dimension
+     * @return product, with this major dimension and other minor dimension
+     */
+    CompressedStorage multiply(final CompressedStorage other) {
+
+        final int outMinor = other.minorDimension;
+        final int[]    marker      = new int[outMinor];
+        final double[] accumulator = new double[outMinor];
+        Arrays.fill(marker, -1);
+
+        final int[] pPointers = new int[majorDimension + 1];
+        int[]    pIndices = new int[FastMath.max(getNonZeros(), other.getNonZeros())];
+        double[] pValues  = new double[pIndices.length];
+        int nnz = 0;
+        for (int i = 0; i < majorDimension; ++i) {
+            final int segmentStart = nnz;
+            for (int p = pointers[i]; p < pointers[i + 1]; ++p) {
+                final int    k = indices[p];
+                final double a = values[p];
+                for (int q = other.pointers[k]; q < other.pointers[k + 1]; ++q) {
+                    final int j = other.indices[q];
+                    if (marker[j] != i) {
+                        // first contribution to this entry
+                        marker[j] = i;
+                        accumulator[j] = a * other.values[q];
+                        if (nnz == pIndices.length) {
+                            pIndices = Arrays.copyOf(pIndices, 2 * nnz);
+                            pValues  = Arrays.copyOf(pValues,  2 * nnz);
+                        }
+                        pIndices[nnz++] = j;
+                    } else {
+                        accumulator[j] += a * other.values[q];
+                    }
+                }
+            }
+
+            // gather the accumulated values, sorted and without cancelled entries
+            Arrays.sort(pIndices, segmentStart, nnz);
+            int kept = segmentStart;
+            for (int p = segmentStart; p < nnz; ++p) {
+                final int j = pIndices[p];
+                if (accumulator[j] != 0.0) {
+                    pIndices[kept]  = j;
+                    pValues[kept++] = accumulator[j];
+                }
+            }
+            nnz = kept;
+            pPointers[i + 1] = nnz;
+
+        }
+
+        return new CompressedStorage(majorDimension, outMinor, pPointers,
+                                     Arrays.copyOf(pIndices, nnz), Arrays.copyOf(pValues, nnz));
+
+    }
+
+}
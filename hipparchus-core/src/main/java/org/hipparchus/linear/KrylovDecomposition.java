@@ -0,0 +1,351 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937c;
+import org.hipparchus.util.DenseKernels;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathUtils;
+
+/** Krylov decomposition A V = V H + f e<sup>T</sup> of a square linear operator.
+ * <p>
+ * This class holds the orthonormal basis V (n &times; m), the projected
+ * matrix H (m &times; m) and the normalized residual f / ||f|| shared by the
+ * {@link LanczosEigenSolver Lanczos} and {@link ArnoldiEigenSolver Arnoldi}
+ * partial eigen solvers. The basis is expanded by the Arnoldi process with
+ * full re-orthogonalization (classical Gram-Schmidt with the Daniel-Gragg-Kaufman-Stewart
+ * correction) and restarted Krylov-Schur style, by compressing it onto an
+ * invariant subspace of H. When started from a Krylov decomposition, this
+ * is equivalent to Sorensen's implicit restart with exact shifts.
+ * </p>
+ * <p>
+ * The basis vectors are stored as rows of a (m + 1) &times; n array, so memory
+ * is O(m n) and one expansion costs m operator applications and O(m<sup>2</sup> n)
+ * floating point operations for orthogonalization.
+ * </p>
+ * @since 1.7
+ */
+class KrylovDecomposition {
+
+    /** Seed for the default start vector and breakdown directions. */
+    private static final long SEED = 0x5d2a81c64f93b7e1L;
+
+    /** Minimum dimension of the Krylov subspace. */
+    private static final int MIN_DIMENSION = 20;
+
+    /** Threshold for the Daniel-Gragg-Kaufman-Stewart re-orthogonalization criterion. */
+    private static final double DGKS = FastMath.sqrt(0.5);
+
+    /** Operator. */
+    private final RealLinearOperator a;
+
+    /** Dimension of the operator. */
+    private final int n;
+
+    /** Maximum dimension of the Krylov subspace. */
+    private final int m;
+
+    /** Basis vectors (m + 1 rows, the last one being the normalized residual once expanded). */
+    private final double[][] v;
+
+    /** Spare rows used during restart. */
+    private final double[][] work;
+
+    /** Projected matrix. */
+    private final double[][] h;
+
+    /** Generator used to replace the residual after an exact breakdown. */
+    private final RandomGenerator random;
+
+    /** Number of basis vectors for which H is already known. */
+    private int size;
+
+    /** Norm of the residual f. */
+    private double beta;
+
+    /** Simple constructor.
+     * @param a square operator
+     * @param m maximum dimension of the Krylov subspace
+     * @param start unit norm start vector
+     * @param random generator used to replace the residual after an exact breakdown
+     */
+    KrylovDecomposition(final RealLinearOperator a, final int m,
+                        final double[] start, final RandomGenerator random) {
+        this.a      = a;
+        this.n      = a.getColumnDimension();
+        this.m      = m;
+        this.v      = new double[m + 1][];
+        this.work   = new double[m][];
+        this.h      = new double[m][m];
+        this.random = random;
+        this.size   = 0;
+        this.beta   = 0;
+        v[0] = start.clone();
+        for (int i = 1; i <= m; ++i) {
+            v[i] = new double[n];
+        }
+    }
+
+    /** Create a Krylov decomposition for a partial eigen solver.
+     * <p>
+     * The maximum subspace dimension is min(n, max(2k + 1, 20)).
+     * </p>
+     * @param a square operator
+     * @param k number of wanted eigenpairs
+     * @param start start vector (if null, a pseudo-random vector with a fixed seed is used)
+     * @return an empty decomposition, ready to be expanded
+     * @exception MathIllegalArgumentException if operator is not square,
+     * if k is not between 1 and the operator dimension or if start vector
+     * dimension does not match operator dimension
+     */
+    static KrylovDecomposition create(final RealLinearOperator a, final int k, final RealVector start)
+        throws MathIllegalArgumentException {
+
+        MathUtils.checkNotNull(a);
+        final int n = a.getColumnDimension();
+        if (a.getRowDimension() != n) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NON_SQUARE_OPERATOR,
+                                                   a.getRowDimension(), n);
+        }
+        MathUtils.checkRangeInclusive(k, 1, n);
+
+        final RandomGenerator random = new Well19937c(SEED);
+        final double[] unit;
+        if (start == null) {
+            final double[] x = new double[n];
+            for (int l = 0; l < n; ++l) {
+                x[l] = random.nextGaussian();
+            }
+            unit = new ArrayRealVector(x, false).unitVector().toArray();
+        } else {
+            if (start.getDimension() != n) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       start.getDimension(), n);
+            }
+            unit = start.unitVector().toArray();
+        }
+
+        final int m = FastMath.min(n, FastMath.max(2 * k + 1, MIN_DIMENSION));
+        return new KrylovDecomposition(a, m, unit, random);
+
+    }
+
+    /** Expand the decomposition up to the maximum subspace dimension.
+     * <p>
+     * After this call, A V<sub>m</sub> = V<sub>m</sub> H + &beta; v<sub>m+1</sub> e<sub>m</sub><sup>T</sup>.
+     * </p>
+     */
+    void expand() {
+        final double[] coefficients = new double[m];
+        for (int j = size; j < m; ++j) {
+
+            final double[] w = a.operate(new ArrayRealVector(v[j], false)).toArray();
+
+            final double norm = orthogonalize(w, j + 1, coefficients);
+            for (int i = 0; i <= j; ++i) {
+                h[i][j] = coefficients[i];
+            }
+
+            final double[] next = v[j + 1];
+            if (norm > 0) {
+                final double inv = 1.0 / norm;
+                for (int l = 0; l < n; ++l) {
+                    next[l] = w[l] * inv;
+                }
+            } else {
+                // exact breakdown: the subspace is invariant, continue with a fresh direction
+                randomOrthogonal(next, j + 1);
+            }
+
+            if (j + 1 < m) {
+                h[j + 1][j] = norm;
+            } else {
+                beta = norm;
+            }
+
+        }
+        size = m;
+    }
+
+    /** Orthogonalize a vector against the first basis vectors.
+     * @param w vector to orthogonalize (modified in place)
+     * @param count number of basis vectors to orthogonalize against
+     * @param coefficients placeholder for the projections of w on the basis vectors
+     * @return norm of the orthogonalized vector, or 0 if w lies numerically in the basis span
+     */
+    private double orthogonalize(final double[] w, final int count, final double[] coefficients) {
+        double norm = FastMath.sqrt(DenseKernels.dotProduct(w, 0, w, 0, n));
+        for (int i = 0; i < count; ++i) {
+            coefficients[i] = 0;
+        }
+        for (int pass = 0; pass < 2; ++pass) {
+            for (int i = 0; i < count; ++i) {
+                final double c = DenseKernels.dotProduct(v[i], 0, w, 0, n);
+                coefficients[i] += c;
+                final double[] vi = v[i];
+                for (int l = 0; l < n; ++l) {
+                    w[l] -= c * vi[l];
+                }
+            }
+            final double newNorm = FastMath.sqrt(DenseKernels.dotProduct(w, 0, w, 0, n));
+            if (newNorm > DGKS * norm) {
+                return newNorm;
+            }
+            norm = newNorm;
+        }
+        // even after re-orthogonalization, w has lost most of its norm, it is in the span
+        return 0;
+    }
+
+    /** Fill a vector with a random direction orthogonal to the first basis vectors.
+     * @param w placeholder for the vector
+     * @param count number of basis vectors to orthogonalize against
+     */
+    private void randomOrthogonal(final double[] w, final int count) {
+        final double[] coefficients = new double[count];
+        for (int l = 0; l < n; ++l) {
+            w[l] = random.nextGaussian();
+        }
+        final double norm = orthogonalize(w, count, coefficients);
+        if (norm > 0) {
+            final double inv = 1.0 / norm;
+            for (int l = 0; l < n; ++l) {
+                w[l] *= inv;
+            }
+        } else {
+            // the basis already spans the whole space
+            for (int l = 0; l < n; ++l) {
+                w[l] = 0;
+            }
+        }
+    }
+
+    /** Get the maximum dimension of the Krylov subspace.
+     * @return maximum dimension of the Krylov subspace
+     */
+    int getMaxDimension() {
+        return m;
+    }
+
+    /** Get a copy of the projected matrix H.
+     * @return copy of the projected matrix H
+     */
+    double[][] getH() {
+        final double[][] copy = new double[m][];
+        for (int i = 0; i < m; ++i) {
+            copy[i] = h[i].clone();
+        }
+        return copy;
+    }
+
+    /** Get the norm of the residual.
+     * @return norm &beta; of the residual
+     */
+    double getResidualNorm() {
+        return beta;
+    }
+
+    /** Compute a Ritz vector V y.
+     * @param y coordinates in the Krylov basis (m elements)
+     * @return V y
+     */
+    double[] ritzVector(final double[] y) {
+        final double[] x = new double[n];
+        for (int i = 0; i < m; ++i) {
+            final double yi = y[i];
+            final double[] vi = v[i];
+            for (int l = 0; l < n; ++l) {
+                x[l] += yi * vi[l];
+            }
+        }
+        return x;
+    }
+
+    /** Restart the decomposition by compressing it onto an invariant subspace of H.
+     * <p>
+     * If the columns of Q span an invariant subspace of H, then
+     * A (V Q) = (V Q) (Q<sup>T</sup> H Q) + &beta; v<sub>m+1</sub> (e<sub>m</sub><sup>T</sup> Q),
+     * which is a Krylov decomposition of dimension p that can be expanded again.
+     * </p>
+     * @param q m &times; p matrix with orthonormal columns spanning an invariant subspace of H
+     * @param p number of columns of q, must be smaller than the maximum subspace dimension
+     */
+    void restart(final double[][] q, final int p) {
+
+        // compressed basis V Q
+        for (int c = 0; c < p; ++c) {
+            if (work[c] == null) {
+                work[c] = new double[n];
+            }
+            final double[] x = work[c];
+            for (int l = 0; l < n; ++l) {
+                x[l] = 0;
+            }
+            for (int i = 0; i < m; ++i) {
+                final double qic = q[i][c];
+                final double[] vi = v[i];
+                for (int l = 0; l < n; ++l) {
+                    x[l] += qic * vi[l];
+                }
+            }
+        }
+        for (int c = 0; c < p; ++c) {
+            final double[] tmp = v[c];
+            v[c] = work[c];
+            work[c] = tmp;
+        }
+        final double[] residual = v[m];
+        v[m] = v[p];
+        v[p] = residual;
+
+        // projected matrix Q^T H Q, bordered by the residual coupling row
+        final double[][] hq = new double[m][p];
+        for (int i = 0; i < m; ++i) {
+            for (int c = 0; c < p; ++c) {
+                double sum = 0;
+                for (int l = 0; l < m; ++l) {
+                    sum += h[i][l] * q[l][c];
+                }
+                hq[i][c] = sum;
+            }
+        }
+        for (int r = 0; r < m; ++r) {
+            for (int c = 0; c < m; ++c) {
+                h[r][c] = 0;
+            }
+        }
+        for (int r = 0; r < p; ++r) {
+            for (int c = 0; c < p; ++c) {
+                double sum = 0;
+                for (int l = 0; l < m; ++l) {
+                    sum += q[l][r] * hq[l][c];
+                }
+                h[r][c] = sum;
+            }
+        }
+        for (int c = 0; c < p; ++c) {
+            h[p][c] = beta * q[m - 1][c];
+        }
+
+        size = p;
+
+    }
+
+}
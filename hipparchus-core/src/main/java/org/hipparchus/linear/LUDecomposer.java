@@ -17,7 +17,21 @@
 
 package org.hipparchus.linear;
 
+import java.util.concurrent.ForkJoinPool;
+
 /** Matrix decomposer using LU-decomposition.
+ * <p>
+ * If the decomposer is built with a {@link ForkJoinPool}, {@link BlockRealMatrix}
+ * instances are decomposed using the parallel {@link BlockLUDecomposition},
+ * other matrices are decomposed using {@link LUDecomposition}.
+ * </p>
+ * <p>
+ * No pool is ever created implicitly. Classes that only receive a
+ * {@link MatrixDecomposer}, like the Kalman filters or the Gauss-Newton
+ * least squares optimizer, therefore use the parallel decomposition only
+ * if their caller provides a decomposer built with a pool, and only for
+ * the matrices that are {@link BlockRealMatrix} instances.
+ * </p>
  * @since 1.3
  */
 public class LUDecomposer implements MatrixDecomposer {
@@ -25,19 +39,41 @@ public class LUDecomposer implements MatrixDecomposer {
     /** Threshold under which a matrix is considered singular. */
     private final double singularityThreshold;
 
+    /** Pool to use for parallel decomposition of block matrices (may be null). */
+    private final ForkJoinPool pool;
+
     /**
      * Creates a LU decomposer with specify threshold for several matrices.
      * @param singularityThreshold threshold (based on partial row norm)
      * under which a matrix is considered singular
      */
     public LUDecomposer(final double singularityThreshold) {
+        this(singularityThreshold, null);
+    }
+
+    /**
+     * Creates a LU decomposer with specify threshold for several matrices,
+     * using parallel computation for block matrices.
+     * @param singularityThreshold threshold (based on partial row norm)
+     * under which a matrix is considered singular
+     * @param pool pool to use for parallel decomposition of {@link BlockRealMatrix}
+     * instances (if null, all matrices are decomposed sequentially
+     * using {@link LUDecomposition})
+     * @since 1.7
+     */
+    public LUDecomposer(final double singularityThreshold, final ForkJoinPool pool) {
         this.singularityThreshold = singularityThreshold;
+        this.pool                 = pool;
     }
 
     /** {@inheritDoc} */
     @Override
     public DecompositionSolver decompose(final RealMatrix a) {
-        return new LUDecomposition(a, singularityThreshold).getSolver();
+        if (pool != null && a instanceof BlockRealMatrix) {
+            return new BlockLUDecomposition((BlockRealMatrix) a, singularityThreshold, pool).getSolver();
+        } else {
+            return new LUDecomposition(a, singularityThreshold).getSolver();
+        }
     }
 
 }
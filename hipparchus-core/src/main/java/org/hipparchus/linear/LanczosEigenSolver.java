@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.Incrementor;
+
+/** Implicitly restarted Lanczos solver for the largest eigenpairs of a symmetric operator.
+ * <p>
+ * This solver computes the k algebraically largest eigenvalues and the
+ * associated eigenvectors of a symmetric {@link RealLinearOperator} without
+ * ever building a matrix, using only operator applications. It is intended
+ * for large sparse or implicit operators (for example covariance operators
+ * in principal component analysis) when only a few eigenpairs are needed,
+ * where {@link EigenDecomposition} would need the full dense matrix and
+ * compute the whole spectrum.
+ * </p>
+ * <p>
+ * The Krylov subspace dimension is m = min(n, max(2k + 1, 20)). Each cycle
+ * expands the Lanczos basis up to m vectors (with full re-orthogonalization),
+ * computes the Ritz pairs from the small projected matrix and, if the k
+ * wanted ones have not converged yet, restarts by keeping the best Ritz vectors
+ * (thick restart, which is equivalent to implicit restart with exact shifts).
+ * Memory is therefore O(k n) and each cycle costs O(k) operator applications,
+ * i.e. O(k nnz) for a sparse matrix, plus O(k<sup>2</sup> n) for orthogonalization.
+ * </p>
+ * <p>
+ * A Ritz pair (&theta;, x) is considered converged when ||A x - &theta; x|| &le;
+ * &epsilon; max|&theta;<sub>i</sub>|, the maximum being taken over all current Ritz values,
+ * which is an estimate of the operator norm.
+ * </p>
+ * <p>
+ * As with all single-vector Krylov methods, eigenvalues with multiplicity
+ * greater than one are found only once (at least in exact arithmetic).
+ * </p>
+ * <p>
+ * The symmetry of the operator is <em>not</em> checked. For non-symmetric operators,
+ * use {@link ArnoldiEigenSolver}.
+ * </p>
+ * @see ArnoldiEigenSolver
+ * @see EigenDecomposition
+ * @since 1.7
+ */
+public class LanczosEigenSolver {
+
+    /** Maximum number of restarts. */
+    private final int maxRestarts;
+
+    /** Relative tolerance for residuals. */
+    private final double epsilon;
+
+    /** Simple constructor.
+     * @param maxRestarts maximum number of restarts
+     * @param epsilon relative tolerance for residuals
+     */
+    public LanczosEigenSolver(final int maxRestarts, final double epsilon) {
+        this.maxRestarts = maxRestarts;
+        this.epsilon     = epsilon;
+    }
+
+    /** Compute the largest eigenpairs of a symmetric operator, using a default start vector.
+     * @param a symmetric operator
+     * @param k number of wanted eigenpairs
+     * @return the k algebraically largest eigenpairs, sorted in decreasing eigenvalues order
+     * @exception MathIllegalArgumentException if operator is not square or
+     * if k is not between 1 and the operator dimension
+     * @exception MathIllegalStateException if the maximum number of restarts is exceeded
+     */
+    public PartialEigenDecomposition solve(final RealLinearOperator a, final int k)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+        return solve(a, k, null);
+    }
+
+    /** Compute the largest eigenpairs of a symmetric operator.
+     * @param a symmetric operator
+     * @param k number of wanted eigenpairs
+     * @param start start vector (if null, a pseudo-random vector with a fixed seed is used)
+     * @return the k algebraically largest eigenpairs, sorted in decreasing eigenvalues order
+     * @exception MathIllegalArgumentException if operator is not square,
+     * if k is not between 1 and the operator dimension or if start vector
+     * dimension does not match operator dimension
+     * @exception MathIllegalStateException if the maximum number of restarts is exceeded
+     */
+    public PartialEigenDecomposition solve(final RealLinearOperator a, final int k, final RealVector start)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+
+        final KrylovDecomposition krylov = KrylovDecomposition.create(a, k, start);
+        final int m                      = krylov.getMaxDimension();
+        final Incrementor restarts       = new Incrementor(maxRestarts);
+
+        while (true) {
+
+            krylov.expand();
+
+            // Ritz pairs, from the (symmetrized) projected matrix
+            final double[][] h = krylov.getH();
+            for (int i = 0; i < m; ++i) {
+                for (int j = 0; j < i; ++j) {
+                    final double hij = 0.5 * (h[i][j] + h[j][i]);
+                    h[i][j] = hij;
+                    h[j][i] = hij;
+                }
+            }
+            final EigenDecomposition ed = new EigenDecomposition(MatrixUtils.createRealMatrix(h));
+            final double[] theta = ed.getRealEigenvalues();
+            final Integer[] order = new Integer[m];
+            double largest = 0;
+            for (int i = 0; i < m; ++i) {
+                order[i] = i;
+                largest  = FastMath.max(largest, FastMath.abs(theta[i]));
+            }
+            Arrays.sort(order, Comparator.comparingDouble(i -> -theta[i]));
+
+            // residuals ||A V y - theta V y|| = beta |y_m|
+            final double beta      = krylov.getResidualNorm();
+            final double threshold = epsilon * largest;
+            boolean converged = true;
+            for (int i = 0; i < k && converged; ++i) {
+                final double ym = ed.getEigenvector(order[i]).getEntry(m - 1);
+                converged = beta * FastMath.abs(ym) <= threshold;
+            }
+
+            if (converged) {
+                final double[] eigenvalues = new double[k];
+                final ArrayRealVector[] eigenvectors = new ArrayRealVector[k];
+                for (int i = 0; i < k; ++i) {
+                    eigenvalues[i]  = theta[order[i]];
+                    eigenvectors[i] = new ArrayRealVector(krylov.ritzVector(ed.getEigenvector(order[i]).toArray()),
+                                                          false);
+                    eigenvectors[i].mapDivideToSelf(eigenvectors[i].getNorm());
+                }
+                return new PartialEigenDecomposition(eigenvalues, eigenvectors);
+            }
+
+            restarts.increment();
+
+            // thick restart on the best Ritz vectors
+            final int p = FastMath.min(m - 1, k + (m - k) / 2);
+            final double[][] q = new double[m][p];
+            for (int c = 0; c < p; ++c) {
+                final RealVector y = ed.getEigenvector(order[c]);
+                for (int i = 0; i < m; ++i) {
+                    q[i][c] = y.getEntry(i);
+                }
+            }
+            krylov.restart(q, p);
+
+        }
+
+    }
+
+}
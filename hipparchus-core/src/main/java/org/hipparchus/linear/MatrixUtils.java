@@ -720,6 +720,59 @@ public class MatrixUtils {
         }
     }
 
+    /**
+     * Copy the entries of a matrix into an existing array.
+     * <p>
+     * The destination array must have exactly the dimensions of the matrix,
+     * this is not checked.
+     * </p>
+     * @param matrix matrix to copy
+     * @param destination destination array, indexed as [row][column]
+     * @since 1.7
+     */
+    static void copyData(final RealMatrix matrix, final double[][] destination) {
+        if (matrix instanceof Array2DRowRealMatrix) {
+            final double[][] data = ((Array2DRowRealMatrix) matrix).getDataRef();
+            for (int i = 0; i < data.length; ++i) {
+                System.arraycopy(data[i], 0, destination[i], 0, data[i].length);
+            }
+        } else {
+            matrix.copySubMatrix(0, matrix.getRowDimension() - 1, 0, matrix.getColumnDimension() - 1,
+                                 destination);
+        }
+    }
+
+    /**
+     * Copy the transposed entries of a matrix into an existing array.
+     * <p>
+     * This is equivalent to {@code matrix.transpose().getData()}, but avoids
+     * building the intermediate transposed matrix. The destination array must have
+     * exactly the dimensions of the transposed matrix, this is not checked.
+     * </p>
+     * @param matrix matrix to copy
+     * @param destination destination array, indexed as [column][row]
+     * @since 1.7
+     */
+    static void copyTransposedData(final RealMatrix matrix, final double[][] destination) {
+        if (matrix instanceof Array2DRowRealMatrix) {
+            final double[][] data = ((Array2DRowRealMatrix) matrix).getDataRef();
+            for (int i = 0; i < data.length; ++i) {
+                final double[] dataI = data[i];
+                for (int j = 0; j < dataI.length; ++j) {
+                    destination[j][i] = dataI[j];
+                }
+            }
+        } else {
+            matrix.walkInOptimizedOrder(new DefaultRealMatrixPreservingVisitor() {
+                /** {@inheritDoc} */
+                @Override
+                public void visit(final int row, final int column, final double value) {
+                    destination[column][row] = value;
+                }
+            });
+        }
+    }
+
     /**
      * Convert a {@link FieldMatrix}/{@link Fraction} matrix to a {@link RealMatrix}.
      * @param m Matrix to convert.
@@ -366,5 +366,17 @@ public class OpenMapRealMatrix extends AbstractRealMatrix
         return row * columns + column;
     }
 
+    /**
+     * Get an iterator over the non-zero entries.
+     * <p>
+     * Keys of the iterator are row * columns + column.
+     * </p>
+     * @return iterator over the non-zero entries
+     * @since 1.7
+     */
+    OpenIntToDoubleHashMap.Iterator nonZeroEntries() {
+        return entries.iterator();
+    }
+
 
 }
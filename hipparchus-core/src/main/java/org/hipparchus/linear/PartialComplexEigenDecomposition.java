@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import org.hipparchus.complex.Complex;
+
+/** Partial eigen decomposition of a general operator.
+ * <p>
+ * This class holds some eigenpairs of a real operator, as computed by
+ * {@link ArnoldiEigenSolver}. Eigenvalues and eigenvectors may be complex.
+ * The eigenvectors have unit norm.
+ * </p>
+ * @see ArnoldiEigenSolver
+ * @since 1.7
+ */
+public class PartialComplexEigenDecomposition {
+
+    /** Eigenvalues. */
+    private final Complex[] eigenvalues;
+
+    /** Eigenvectors. */
+    private final ArrayFieldVector<Complex>[] eigenvectors;
+
+    /** Simple constructor.
+     * @param eigenvalues eigenvalues (stored by reference)
+     * @param eigenvectors eigenvectors (stored by reference)
+     */
+    PartialComplexEigenDecomposition(final Complex[] eigenvalues, final ArrayFieldVector<Complex>[] eigenvectors) {
+        this.eigenvalues  = eigenvalues;
+        this.eigenvectors = eigenvectors;
+    }
+
+    /** Get the number of eigenpairs.
+     * @return number of eigenpairs
+     */
+    public int getNumberOfEigenpairs() {
+        return eigenvalues.length;
+    }
+
+    /** Get a copy of the eigenvalues.
+     * @return a copy of the eigenvalues, sorted in decreasing modulus order
+     */
+    public Complex[] getEigenvalues() {
+        return eigenvalues.clone();
+    }
+
+    /** Get an eigenvalue.
+     * @param i index of the eigenvalue
+     * @return i<sup>th</sup> eigenvalue
+     */
+    public Complex getEigenvalue(final int i) {
+        return eigenvalues[i];
+    }
+
+    /** Get a copy of an eigenvector.
+     * @param i index of the eigenvector
+     * @return copy of the i<sup>th</sup> eigenvector
+     */
+    public FieldVector<Complex> getEigenvector(final int i) {
+        return eigenvectors[i].copy();
+    }
+
+    /** Check if some eigenvalues are complex.
+     * @return true if some eigenvalues have a non-zero imaginary part
+     */
+    public boolean hasComplexEigenvalues() {
+        for (final Complex lambda : eigenvalues) {
+            if (lambda.getImaginary() != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+/** Partial eigen decomposition of a symmetric operator.
+ * <p>
+ * This class holds some eigenpairs of a symmetric operator, as computed by
+ * {@link LanczosEigenSolver}. The eigenvectors have unit norm.
+ * </p>
+ * @see LanczosEigenSolver
+ * @since 1.7
+ */
+public class PartialEigenDecomposition {
+
+    /** Eigenvalues. */
+    private final double[] eigenvalues;
+
+    /** Eigenvectors. */
+    private final ArrayRealVector[] eigenvectors;
+
+    /** Simple constructor.
+     * @param eigenvalues eigenvalues (stored by reference)
+     * @param eigenvectors eigenvectors (stored by reference)
+     */
+    PartialEigenDecomposition(final double[] eigenvalues, final ArrayRealVector[] eigenvectors) {
+        this.eigenvalues  = eigenvalues;
+        this.eigenvectors = eigenvectors;
+    }
+
+    /** Get the number of eigenpairs.
+     * @return number of eigenpairs
+     */
+    public int getNumberOfEigenpairs() {
+        return eigenvalues.length;
+    }
+
+    /** Get a copy of the eigenvalues.
+     * @return a copy of the eigenvalues, sorted in decreasing order
+     */
+    public double[] getEigenvalues() {
+        return eigenvalues.clone();
+    }
+
+    /** Get an eigenvalue.
+     * @param i index of the eigenvalue
+     * @return i<sup>th</sup> eigenvalue
+     */
+    public double getEigenvalue(final int i) {
+        return eigenvalues[i];
+    }
+
+    /** Get a copy of an eigenvector.
+     * @param i index of the eigenvector
+     * @return copy of the i<sup>th</sup> eigenvector
+     */
+    public RealVector getEigenvector(final int i) {
+        return eigenvectors[i].copy();
+    }
+
+    /** Get the n &times; k matrix whose columns are the eigenvectors.
+     * @return matrix whose columns are the eigenvectors
+     */
+    public RealMatrix getV() {
+        final RealMatrix v = MatrixUtils.createRealMatrix(eigenvectors[0].getDimension(), eigenvectors.length);
+        for (int i = 0; i < eigenvectors.length; ++i) {
+            v.setColumnVector(i, eigenvectors[i]);
+        }
+        return v;
+    }
+
+}
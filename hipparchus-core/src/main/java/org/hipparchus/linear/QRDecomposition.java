@@ -97,7 +97,8 @@ public class QRDecomposition {
 
         final int m = matrix.getRowDimension();
         final int n = matrix.getColumnDimension();
-        qrt = matrix.transpose().getData();
+        qrt = new double[n][m];
+        MatrixUtils.copyTransposedData(matrix, qrt);
         rDiag = new double[FastMath.min(m, n)];
         cachedQ  = null;
         cachedQT = null;
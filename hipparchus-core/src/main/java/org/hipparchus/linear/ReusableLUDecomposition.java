@@ -0,0 +1,521 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.util.FastMath;
+
+/**
+ * Calculates the LUP-decomposition of square matrices, reusing its workspace.
+ * <p>This class computes the same decomposition as {@link LUDecomposition}, but
+ * it is intended for applications that decompose many matrices with the same
+ * dimension, like filters or implicit integrators. All arrays are allocated
+ * once at construction, and each call to {@link #reset(RealMatrix)} copies the
+ * new matrix into the existing workspace before factoring it. The matrices
+ * returned by {@link #getL()}, {@link #getU()} and {@link #getP()}, as well as
+ * the solver returned by {@link #getSolver()}, are also allocated once and
+ * refreshed in place, so the steady state does not allocate anything when
+ * solving with {@link #solve(double[], double[])}.</p>
+ * <p>As a consequence, all objects returned by an instance of this class are
+ * <em>views</em> that change when the instance is reset: they must be used or
+ * copied before the next call to {@link #reset(RealMatrix)}, for example using
+ * {@link #copy()}. Instances of this class are <em>not</em> thread-safe.</p>
+ *
+ * @see LUDecomposition
+ * @see ReusableLUDecomposer
+ * @since 1.7
+ */
+public class ReusableLUDecomposition {
+
+    /** Default bound to determine effective singularity in LU decomposition. */
+    private static final double DEFAULT_TOO_SMALL = 1e-11;
+
+    /** Threshold under which a matrix is considered singular. */
+    private final double singularityThreshold;
+
+    /** Entries of LU decomposition. */
+    private final double[][] lu;
+
+    /** Pivot permutation associated with LU decomposition. */
+    private final int[] pivot;
+
+    /** Work array for solving. */
+    private final double[] work;
+
+    /** Reusable solver. */
+    private final Solver solver;
+
+    /** Parity of the permutation associated with the LU decomposition. */
+    private boolean even;
+
+    /** Singularity indicator. */
+    private boolean singular;
+
+    /** Reusable L matrix (allocated at first use). */
+    private Array2DRowRealMatrix reusableL;
+
+    /** Reusable U matrix (allocated at first use). */
+    private Array2DRowRealMatrix reusableU;
+
+    /** Reusable P matrix (allocated at first use). */
+    private Array2DRowRealMatrix reusableP;
+
+    /** Indicator for L being up to date with the current decomposition. */
+    private boolean lUpToDate;
+
+    /** Indicator for U being up to date with the current decomposition. */
+    private boolean uUpToDate;
+
+    /** Indicator for P being up to date with the current decomposition. */
+    private boolean pUpToDate;
+
+    /**
+     * Calculates the LU-decomposition of the given matrix, allocating the workspace.
+     * This constructor uses 1e-11 as default value for the singularity
+     * threshold.
+     *
+     * @param matrix Matrix to decompose.
+     * @throws MathIllegalArgumentException if matrix is not square.
+     */
+    public ReusableLUDecomposition(final RealMatrix matrix) {
+        this(matrix, DEFAULT_TOO_SMALL);
+    }
+
+    /**
+     * Calculates the LU-decomposition of the given matrix, allocating the workspace.
+     * @param matrix The matrix to decompose.
+     * @param singularityThreshold threshold (based on partial row norm)
+     * under which a matrix is considered singular
+     * @throws MathIllegalArgumentException if matrix is not square
+     */
+    public ReusableLUDecomposition(final RealMatrix matrix, final double singularityThreshold) {
+        if (!matrix.isSquare()) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NON_SQUARE_MATRIX,
+                                                   matrix.getRowDimension(), matrix.getColumnDimension());
+        }
+        final int m = matrix.getRowDimension();
+        this.singularityThreshold = singularityThreshold;
+        this.lu                   = new double[m][m];
+        this.pivot                = new int[m];
+        this.work                 = new double[m];
+        this.solver               = new Solver();
+        reset(matrix);
+    }
+
+    /** Copy constructor.
+     * @param original decomposition to copy
+     */
+    private ReusableLUDecomposition(final ReusableLUDecomposition original) {
+        final int m = original.pivot.length;
+        this.singularityThreshold = original.singularityThreshold;
+        this.lu                   = new double[m][];
+        for (int i = 0; i < m; ++i) {
+            this.lu[i] = original.lu[i].clone();
+        }
+        this.pivot                = original.pivot.clone();
+        this.work                 = new double[m];
+        this.solver               = new Solver();
+        this.even                 = original.even;
+        this.singular             = original.singular;
+    }
+
+    /** Create an independent copy of the current decomposition.
+     * <p>
+     * The copy has its own workspace, so it is not affected by subsequent
+     * calls to {@link #reset(RealMatrix)} on the original instance.
+     * </p>
+     * @return independent copy of the current decomposition
+     */
+    public ReusableLUDecomposition copy() {
+        return new ReusableLUDecomposition(this);
+    }
+
+    /** Get the dimension of the decomposed matrices.
+     * @return dimension of the decomposed matrices
+     */
+    public int getDimension() {
+        return pivot.length;
+    }
+
+    /** Reset the decomposition with a new matrix.
+     * <p>
+     * The matrix is copied into the workspace, it is not modified.
+     * </p>
+     * @param matrix new matrix to decompose
+     * @throws MathIllegalArgumentException if matrix dimensions do not match
+     * the workspace dimension
+     */
+    public void reset(final RealMatrix matrix) {
+        final int m = pivot.length;
+        if (matrix.getRowDimension() != m || matrix.getColumnDimension() != m) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH_2x2,
+                                                   matrix.getRowDimension(), matrix.getColumnDimension(),
+                                                   m, m);
+        }
+        MatrixUtils.copyData(matrix, lu);
+        decompose();
+    }
+
+    /** Reset the decomposition with a new matrix.
+     * <p>
+     * The matrix is copied into the workspace, it is not modified.
+     * </p>
+     * @param matrix new matrix to decompose, indexed as [row][column]
+     * @throws MathIllegalArgumentException if matrix dimensions do not match
+     * the workspace dimension
+     */
+    public void reset(final double[][] matrix) {
+        final int m = pivot.length;
+        if (matrix.length != m) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                   matrix.length, m);
+        }
+        for (int row = 0; row < m; ++row) {
+            if (matrix[row].length != m) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       matrix[row].length, m);
+            }
+            System.arraycopy(matrix[row], 0, lu[row], 0, m);
+        }
+        decompose();
+    }
+
+    /** Decompose the matrix currently stored in the workspace. */
+    private void decompose() {
+
+        final int m = pivot.length;
+        lUpToDate = false;
+        uUpToDate = false;
+        pUpToDate = false;
+
+        // Initialize permutation array and parity
+        for (int row = 0; row < m; row++) {
+            pivot[row] = row;
+        }
+        even     = true;
+        singular = false;
+
+        // Loop over columns
+        for (int col = 0; col < m; col++) {
+
+            // upper
+            for (int row = 0; row < col; row++) {
+                final double[] luRow = lu[row];
+                double sum = luRow[col];
+                for (int i = 0; i < row; i++) {
+                    sum -= luRow[i] * lu[i][col];
+                }
+                luRow[col] = sum;
+            }
+
+            // lower
+            int max = col; // permutation row
+            double largest = Double.NEGATIVE_INFINITY;
+            for (int row = col; row < m; row++) {
+                final double[] luRow = lu[row];
+                double sum = luRow[col];
+                for (int i = 0; i < col; i++) {
+                    sum -= luRow[i] * lu[i][col];
+                }
+                luRow[col] = sum;
+
+                // maintain best permutation choice
+                if (FastMath.abs(sum) > largest) {
+                    largest = FastMath.abs(sum);
+                    max = row;
+                }
+            }
+
+            // Singularity check
+            if (FastMath.abs(lu[max][col]) < singularityThreshold) {
+                singular = true;
+                return;
+            }
+
+            // Pivot if necessary (swapping row references, not contents)
+            if (max != col) {
+                final double[] tmp = lu[max];
+                lu[max] = lu[col];
+                lu[col] = tmp;
+                final int temp = pivot[max];
+                pivot[max] = pivot[col];
+                pivot[col] = temp;
+                even = !even;
+            }
+
+            // Divide the lower elements by the "winning" diagonal elt.
+            final double luDiag = lu[col][col];
+            for (int row = col + 1; row < m; row++) {
+                lu[row][col] /= luDiag;
+            }
+        }
+    }
+
+    /**
+     * Returns the matrix L of the decomposition.
+     * <p>L is a lower-triangular matrix</p>
+     * <p>The returned matrix is reused and updated in place at each call
+     * following a {@link #reset(RealMatrix) reset}.</p>
+     * @return the L matrix (or null if decomposed matrix is singular)
+     */
+    public RealMatrix getL() {
+        if (singular) {
+            return null;
+        }
+        if (!lUpToDate) {
+            final int m = pivot.length;
+            if (reusableL == null) {
+                reusableL = new Array2DRowRealMatrix(m, m);
+            }
+            final double[][] l = reusableL.getDataRef();
+            for (int i = 0; i < m; ++i) {
+                System.arraycopy(lu[i], 0, l[i], 0, i);
+                l[i][i] = 1.0;
+            }
+            lUpToDate = true;
+        }
+        return reusableL;
+    }
+
+    /**
+     * Returns the matrix U of the decomposition.
+     * <p>U is an upper-triangular matrix</p>
+     * <p>The returned matrix is reused and updated in place at each call
+     * following a {@link #reset(RealMatrix) reset}.</p>
+     * @return the U matrix (or null if decomposed matrix is singular)
+     */
+    public RealMatrix getU() {
+        if (singular) {
+            return null;
+        }
+        if (!uUpToDate) {
+            final int m = pivot.length;
+            if (reusableU == null) {
+                reusableU = new Array2DRowRealMatrix(m, m);
+            }
+            final double[][] u = reusableU.getDataRef();
+            for (int i = 0; i < m; ++i) {
+                System.arraycopy(lu[i], i, u[i], i, m - i);
+            }
+            uUpToDate = true;
+        }
+        return reusableU;
+    }
+
+    /**
+     * Returns the P rows permutation matrix.
+     * <p>P is a sparse matrix with exactly one element set to 1.0 in
+     * each row and each column, all other elements being set to 0.0.</p>
+     * <p>The returned matrix is reused and updated in place at each call
+     * following a {@link #reset(RealMatrix) reset}.</p>
+     * @return the P rows permutation matrix (or null if decomposed matrix is singular)
+     * @see #getPivot()
+     */
+    public RealMatrix getP() {
+        if (singular) {
+            return null;
+        }
+        if (!pUpToDate) {
+            final int m = pivot.length;
+            if (reusableP == null) {
+                reusableP = new Array2DRowRealMatrix(m, m);
+            }
+            final double[][] p = reusableP.getDataRef();
+            for (int i = 0; i < m; ++i) {
+                final double[] pI = p[i];
+                for (int j = 0; j < m; ++j) {
+                    pI[j] = 0.0;
+                }
+                pI[pivot[i]] = 1.0;
+            }
+            pUpToDate = true;
+        }
+        return reusableP;
+    }
+
+    /**
+     * Returns the pivot permutation vector.
+     * @return the pivot permutation vector
+     * @see #getP()
+     */
+    public int[] getPivot() {
+        return pivot.clone();
+    }
+
+    /**
+     * Return the determinant of the matrix
+     * @return determinant of the matrix
+     */
+    public double getDeterminant() {
+        if (singular) {
+            return 0;
+        } else {
+            final int m = pivot.length;
+            double determinant = even ? 1 : -1;
+            for (int i = 0; i < m; i++) {
+                determinant *= lu[i][i];
+            }
+            return determinant;
+        }
+    }
+
+    /**
+     * Get a solver for finding the A &times; X = B solution in exact linear
+     * sense.
+     * <p>The same solver instance is returned at each call, it always
+     * uses the current decomposition.</p>
+     * @return a solver
+     */
+    public DecompositionSolver getSolver() {
+        return solver;
+    }
+
+    /** Solve A &times; X = B without allocating memory.
+     * @param b right hand side vector
+     * @param x placeholder for the solution (may be the same array as {@code b})
+     * @throws MathIllegalArgumentException if the arrays dimensions do not match
+     * the workspace dimension or if the decomposed matrix is singular
+     */
+    public void solve(final double[] b, final double[] x) {
+
+        final int m = pivot.length;
+        if (b.length != m) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                   b.length, m);
+        }
+        if (x.length != m) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                   x.length, m);
+        }
+        if (singular) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.SINGULAR_MATRIX);
+        }
+
+        // Apply permutations to b
+        for (int row = 0; row < m; row++) {
+            work[row] = b[pivot[row]];
+        }
+
+        // Solve LY = b
+        for (int col = 0; col < m; col++) {
+            final double bpCol = work[col];
+            for (int i = col + 1; i < m; i++) {
+                work[i] -= bpCol * lu[i][col];
+            }
+        }
+
+        // Solve UX = Y
+        for (int col = m - 1; col >= 0; col--) {
+            work[col] /= lu[col][col];
+            final double bpCol = work[col];
+            for (int i = 0; i < col; i++) {
+                work[i] -= bpCol * lu[i][col];
+            }
+        }
+
+        System.arraycopy(work, 0, x, 0, m);
+
+    }
+
+    /** Specialized solver. */
+    private class Solver implements DecompositionSolver {
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isNonSingular() {
+                return !singular;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public RealVector solve(final RealVector b) {
+            final double[] x = b.toArray();
+            ReusableLUDecomposition.this.solve(x, x);
+            return new ArrayRealVector(x, false);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public RealMatrix solve(final RealMatrix b) {
+
+            final int m = pivot.length;
+            if (b.getRowDimension() != m) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       b.getRowDimension(), m);
+            }
+                if (singular) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.SINGULAR_MATRIX);
+            }
+
+            final int nColB = b.getColumnDimension();
+
+            // Apply permutations to b
+            final double[][] bp = new double[m][nColB];
+            for (int row = 0; row < m; row++) {
+                final double[] bpRow = bp[row];
+                final int pRow = pivot[row];
+                for (int col = 0; col < nColB; col++) {
+                    bpRow[col] = b.getEntry(pRow, col);
+                }
+            }
+
+            // Solve LY = b
+            for (int col = 0; col < m; col++) {
+                final double[] bpCol = bp[col];
+                for (int i = col + 1; i < m; i++) {
+                    final double[] bpI = bp[i];
+                    final double luICol = lu[i][col];
+                    for (int j = 0; j < nColB; j++) {
+                        bpI[j] -= bpCol[j] * luICol;
+                    }
+                }
+            }
+
+            // Solve UX = Y
+            for (int col = m - 1; col >= 0; col--) {
+                final double[] bpCol = bp[col];
+                final double luDiag = lu[col][col];
+                for (int j = 0; j < nColB; j++) {
+                    bpCol[j] /= luDiag;
+                }
+                for (int i = 0; i < col; i++) {
+                    final double[] bpI = bp[i];
+                    final double luICol = lu[i][col];
+                    for (int j = 0; j < nColB; j++) {
+                        bpI[j] -= bpCol[j] * luICol;
+                    }
+                }
+            }
+
+            return new Array2DRowRealMatrix(bp, false);
+        }
+
+        /**
+         * Get the inverse of the decomposed matrix.
+         *
+         * @return the inverse matrix.
+         * @throws MathIllegalArgumentException if the decomposed matrix is singular.
+         */
+        @Override
+        public RealMatrix getInverse() {
+            return solve(MatrixUtils.createRealIdentityMatrix(pivot.length));
+        }
+
+    }
+
+}
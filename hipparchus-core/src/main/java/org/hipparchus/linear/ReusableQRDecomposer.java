@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+/** Matrix decomposer using QR-decomposition and reusing its workspace.
+ * <p>
+ * The decomposer keeps a {@link ReusableQRDecomposition} and resets it
+ * with each new matrix, so decomposing a sequence of matrices with the same
+ * dimensions does not allocate new workspaces. The workspace is reallocated
+ * only when the dimensions change.
+ * </p>
+ * <p>
+ * As required by the {@link MatrixDecomposer} contract, the solvers returned
+ * by {@link #decompose(RealMatrix)} are independent of each other: each one
+ * holds its own copy of the factors and remains valid after subsequent calls.
+ * Applications that do not need to keep solvers can avoid this copy by calling
+ * {@link #decomposeInPlace(RealMatrix)} and then
+ * {@link ReusableQRDecomposition#solve(double[], double[])}, which does not
+ * allocate anything in the steady state. Instances of this class are
+ * <em>not</em> thread-safe.
+ * </p>
+ * @see QRDecomposer
+ * @since 1.7
+ */
+public class ReusableQRDecomposer implements MatrixDecomposer {
+
+    /** Threshold under which a matrix is considered singular. */
+    private final double singularityThreshold;
+
+    /** Reusable decomposition (null before first use). */
+    private ReusableQRDecomposition decomposition;
+
+    /**
+     * Creates a reusable QR decomposer with specify threshold for several matrices.
+     * @param singularityThreshold threshold (based on partial row norm)
+     * under which a matrix is considered singular
+     */
+    public ReusableQRDecomposer(final double singularityThreshold) {
+        this.singularityThreshold = singularityThreshold;
+        this.decomposition        = null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DecompositionSolver decompose(final RealMatrix a) {
+        return decomposeInPlace(a).copy().getSolver();
+    }
+
+    /** Decompose a matrix in the reusable workspace.
+     * <p>
+     * As long as the matrix dimensions do not change, the same decomposition
+     * instance is returned at each call, reset with the new matrix. All
+     * objects previously obtained from it, including its solver, then refer
+     * to the new matrix.
+     * </p>
+     * @param a matrix to decompose
+     * @return reusable decomposition of the matrix
+     */
+    public ReusableQRDecomposition decomposeInPlace(final RealMatrix a) {
+        if (decomposition == null ||
+            decomposition.getRowDimension()    != a.getRowDimension() ||
+            decomposition.getColumnDimension() != a.getColumnDimension()) {
+            decomposition = new ReusableQRDecomposition(a, singularityThreshold);
+        } else {
+            decomposition.reset(a);
+        }
+        return decomposition;
+    }
+
+}
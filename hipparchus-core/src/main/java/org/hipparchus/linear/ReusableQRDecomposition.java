@@ -0,0 +1,536 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.Arrays;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.util.FastMath;
+
+/**
+ * Calculates the QR-decomposition of matrices, reusing its workspace.
+ * <p>This class computes the same decomposition as {@link QRDecomposition}, but
+ * it is intended for applications that decompose many matrices with the same
+ * dimensions, like filters or least squares solvers. All arrays are allocated
+ * once at construction, and each call to {@link #reset(RealMatrix)} copies the
+ * new matrix (directly in the transposed packed layout used for computation)
+ * into the existing workspace before factoring it. The matrices returned by
+ * {@link #getQ()}, {@link #getQT()}, {@link #getR()} and {@link #getH()}, as
+ * well as the solver returned by {@link #getSolver()}, are also allocated once
+ * and refreshed in place, so the steady state does not allocate anything when
+ * solving with {@link #solve(double[], double[])}.</p>
+ * <p>As a consequence, all objects returned by an instance of this class are
+ * <em>views</em> that change when the instance is reset: they must be used or
+ * copied before the next call to {@link #reset(RealMatrix)}, for example using
+ * {@link #copy()}. Instances of this class are <em>not</em> thread-safe.</p>
+ *
+ * @see QRDecomposition
+ * @see ReusableQRDecomposer
+ * @since 1.7
+ */
+public class ReusableQRDecomposition {
+
+    /**
+     * A packed TRANSPOSED representation of the QR decomposition.
+     * <p>The elements BELOW the diagonal are the elements of the UPPER triangular
+     * matrix R, and the rows ABOVE the diagonal are the Householder reflector vectors
+     * from which an explicit form of Q can be recomputed if desired.</p>
+     */
+    private final double[][] qrt;
+
+    /** The diagonal elements of R. */
+    private final double[] rDiag;
+
+    /** Work array for solving. */
+    private final double[] work;
+
+    /** Singularity threshold. */
+    private final double threshold;
+
+    /** Reusable solver. */
+    private final Solver solver;
+
+    /** Reusable Q matrix (allocated at first use). */
+    private Array2DRowRealMatrix reusableQ;
+
+    /** Reusable QT matrix (allocated at first use). */
+    private Array2DRowRealMatrix reusableQT;
+
+    /** Reusable R matrix (allocated at first use). */
+    private Array2DRowRealMatrix reusableR;
+
+    /** Reusable H matrix (allocated at first use). */
+    private Array2DRowRealMatrix reusableH;
+
+    /** Indicator for Q being up to date with the current decomposition. */
+    private boolean qUpToDate;
+
+    /** Indicator for QT being up to date with the current decomposition. */
+    private boolean qtUpToDate;
+
+    /** Indicator for R being up to date with the current decomposition. */
+    private boolean rUpToDate;
+
+    /** Indicator for H being up to date with the current decomposition. */
+    private boolean hUpToDate;
+
+    /**
+     * Calculates the QR-decomposition of the given matrix, allocating the workspace.
+     * The singularity threshold defaults to zero.
+     *
+     * @param matrix The matrix to decompose.
+     *
+     * @see #ReusableQRDecomposition(RealMatrix,double)
+     */
+    public ReusableQRDecomposition(final RealMatrix matrix) {
+        this(matrix, 0d);
+    }
+
+    /**
+     * Calculates the QR-decomposition of the given matrix, allocating the workspace.
+     *
+     * @param matrix The matrix to decompose.
+     * @param threshold Singularity threshold.
+     */
+    public ReusableQRDecomposition(final RealMatrix matrix, final double threshold) {
+        final int m = matrix.getRowDimension();
+        final int n = matrix.getColumnDimension();
+        this.threshold = threshold;
+        this.qrt       = new double[n][m];
+        this.rDiag     = new double[FastMath.min(m, n)];
+        this.work      = new double[m];
+        this.solver    = new Solver();
+        reset(matrix);
+    }
+
+    /** Copy constructor.
+     * @param original decomposition to copy
+     */
+    private ReusableQRDecomposition(final ReusableQRDecomposition original) {
+        final int n = original.qrt.length;
+        this.threshold = original.threshold;
+        this.qrt       = new double[n][];
+        for (int i = 0; i < n; ++i) {
+            this.qrt[i] = original.qrt[i].clone();
+        }
+        this.rDiag     = original.rDiag.clone();
+        this.work      = new double[original.work.length];
+        this.solver    = new Solver();
+    }
+
+    /** Create an independent copy of the current decomposition.
+     * <p>
+     * The copy has its own workspace, so it is not affected by subsequent
+     * calls to {@link #reset(RealMatrix)} on the original instance.
+     * </p>
+     * @return independent copy of the current decomposition
+     */
+    public ReusableQRDecomposition copy() {
+        return new ReusableQRDecomposition(this);
+    }
+
+    /** Get the row dimension of the decomposed matrices.
+     * @return row dimension of the decomposed matrices
+     */
+    public int getRowDimension() {
+        return work.length;
+    }
+
+    /** Get the column dimension of the decomposed matrices.
+     * @return column dimension of the decomposed matrices
+     */
+    public int getColumnDimension() {
+        return qrt.length;
+    }
+
+    /** Reset the decomposition with a new matrix.
+     * <p>
+     * The matrix is copied into the workspace, it is not modified.
+     * </p>
+     * @param matrix new matrix to decompose
+     * @throws MathIllegalArgumentException if matrix dimensions do not match
+     * the workspace dimensions
+     */
+    public void reset(final RealMatrix matrix) {
+        final int m = work.length;
+        final int n = qrt.length;
+        if (matrix.getRowDimension() != m || matrix.getColumnDimension() != n) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH_2x2,
+                                                   matrix.getRowDimension(), matrix.getColumnDimension(),
+                                                   m, n);
+        }
+        MatrixUtils.copyTransposedData(matrix, qrt);
+        decompose();
+    }
+
+    /** Reset the decomposition with a new matrix.
+     * <p>
+     * The matrix is copied into the workspace, it is not modified.
+     * </p>
+     * @param matrix new matrix to decompose, indexed as [row][column]
+     * @throws MathIllegalArgumentException if matrix dimensions do not match
+     * the workspace dimensions
+     */
+    public void reset(final double[][] matrix) {
+        final int m = work.length;
+        final int n = qrt.length;
+        if (matrix.length != m) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                   matrix.length, m);
+        }
+        for (int row = 0; row < m; ++row) {
+            final double[] matrixRow = matrix[row];
+            if (matrixRow.length != n) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       matrixRow.length, n);
+            }
+            for (int col = 0; col < n; ++col) {
+                qrt[col][row] = matrixRow[col];
+            }
+        }
+        decompose();
+    }
+
+    /** Decompose the matrix currently stored in the workspace. */
+    private void decompose() {
+        qUpToDate  = false;
+        qtUpToDate = false;
+        rUpToDate  = false;
+        hUpToDate  = false;
+        for (int minor = 0; minor < rDiag.length; minor++) {
+            performHouseholderReflection(minor);
+        }
+    }
+
+    /** Perform Householder reflection for a minor A(minor, minor) of A.
+     * @param minor minor index
+     */
+    private void performHouseholderReflection(final int minor) {
+
+        final double[] qrtMinor = qrt[minor];
+
+        // Let x be the first column of the minor, and a^2 = |x|^2,
+        // the sign of a is chosen to be opposite to the sign of the first
+        // component of x (see QRDecomposition for the full derivation)
+        double xNormSqr = 0;
+        for (int row = minor; row < qrtMinor.length; row++) {
+            final double c = qrtMinor[row];
+            xNormSqr += c * c;
+        }
+        final double a = (qrtMinor[minor] > 0) ? -FastMath.sqrt(xNormSqr) : FastMath.sqrt(xNormSqr);
+        rDiag[minor] = a;
+
+        if (a != 0.0) {
+
+            // v = x-ae is stored in the column at qr, now |v|^2 = -2a*(qr[minor][minor])
+            qrtMinor[minor] -= a;
+
+            // transform the rest of the columns of the minor
+            // by the matrix H = I-2vv'/|v|^2
+            for (int col = minor + 1; col < qrt.length; col++) {
+                final double[] qrtCol = qrt[col];
+                double alpha = 0;
+                for (int row = minor; row < qrtCol.length; row++) {
+                    alpha -= qrtCol[row] * qrtMinor[row];
+                }
+                alpha /= a * qrtMinor[minor];
+
+                // Subtract the column vector alpha*v from x.
+                for (int row = minor; row < qrtCol.length; row++) {
+                    qrtCol[row] -= alpha * qrtMinor[row];
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the matrix R of the decomposition.
+     * <p>R is an upper-triangular matrix</p>
+     * <p>The returned matrix is reused and updated in place at each call
+     * following a {@link #reset(RealMatrix) reset}.</p>
+     * @return the R matrix
+     */
+    public RealMatrix getR() {
+        if (!rUpToDate) {
+
+            // R is supposed to be m x n
+            final int n = qrt.length;
+            final int m = work.length;
+            if (reusableR == null) {
+                reusableR = new Array2DRowRealMatrix(m, n);
+            }
+            final double[][] ra = reusableR.getDataRef();
+
+            // copy the diagonal from rDiag and the upper triangle of qr
+            for (int row = rDiag.length - 1; row >= 0; row--) {
+                ra[row][row] = rDiag[row];
+                for (int col = row + 1; col < n; col++) {
+                    ra[row][col] = qrt[col][row];
+                }
+            }
+            rUpToDate = true;
+        }
+        return reusableR;
+    }
+
+    /**
+     * Returns the matrix Q of the decomposition.
+     * <p>Q is an orthogonal matrix</p>
+     * <p>The returned matrix is reused and updated in place at each call
+     * following a {@link #reset(RealMatrix) reset}.</p>
+     * @return the Q matrix
+     */
+    public RealMatrix getQ() {
+        if (!qUpToDate) {
+            final int m = work.length;
+            final double[][] qta = ((Array2DRowRealMatrix) getQT()).getDataRef();
+            if (reusableQ == null) {
+                reusableQ = new Array2DRowRealMatrix(m, m);
+            }
+            final double[][] qa = reusableQ.getDataRef();
+            for (int i = 0; i < m; ++i) {
+                final double[] qtaI = qta[i];
+                for (int j = 0; j < m; ++j) {
+                    qa[j][i] = qtaI[j];
+                }
+            }
+            qUpToDate = true;
+        }
+        return reusableQ;
+    }
+
+    /**
+     * Returns the transpose of the matrix Q of the decomposition.
+     * <p>Q is an orthogonal matrix</p>
+     * <p>The returned matrix is reused and updated in place at each call
+     * following a {@link #reset(RealMatrix) reset}.</p>
+     * @return the transpose of the Q matrix, Q<sup>T</sup>
+     */
+    public RealMatrix getQT() {
+        if (!qtUpToDate) {
+
+            // QT is supposed to be m x m
+            final int m = work.length;
+            if (reusableQT == null) {
+                reusableQT = new Array2DRowRealMatrix(m, m);
+            }
+            final double[][] qta = reusableQT.getDataRef();
+            for (final double[] qtaRow : qta) {
+                Arrays.fill(qtaRow, 0.0);
+            }
+
+            // Q = Q1 Q2 ... Q_m, so Q is formed by first constructing Q_m and then
+            // applying the Householder transformations Q_(m-1),Q_(m-2),...,Q1 in
+            // succession to the result
+            for (int minor = m - 1; minor >= rDiag.length; minor--) {
+                qta[minor][minor] = 1.0d;
+            }
+
+            for (int minor = rDiag.length - 1; minor >= 0; minor--) {
+                final double[] qrtMinor = qrt[minor];
+                qta[minor][minor] = 1.0d;
+                if (qrtMinor[minor] != 0.0) {
+                    for (int col = minor; col < m; col++) {
+                        double alpha = 0;
+                        for (int row = minor; row < m; row++) {
+                            alpha -= qta[col][row] * qrtMinor[row];
+                        }
+                        alpha /= rDiag[minor] * qrtMinor[minor];
+
+                        for (int row = minor; row < m; row++) {
+                            qta[col][row] += -alpha * qrtMinor[row];
+                        }
+                    }
+                }
+            }
+            qtUpToDate = true;
+        }
+        return reusableQT;
+    }
+
+    /**
+     * Returns the Householder reflector vectors.
+     * <p>H is a lower trapezoidal matrix whose columns represent
+     * each successive Householder reflector vector. This matrix is used
+     * to compute Q.</p>
+     * <p>The returned matrix is reused and updated in place at each call
+     * following a {@link #reset(RealMatrix) reset}.</p>
+     * @return a matrix containing the Householder reflector vectors
+     */
+    public RealMatrix getH() {
+        if (!hUpToDate) {
+            final int n = qrt.length;
+            final int m = work.length;
+            if (reusableH == null) {
+                reusableH = new Array2DRowRealMatrix(m, n);
+            }
+            final double[][] ha = reusableH.getDataRef();
+            for (int i = 0; i < m; ++i) {
+                for (int j = 0; j < FastMath.min(i + 1, n); ++j) {
+                    ha[i][j] = qrt[j][i] / -rDiag[j];
+                }
+            }
+            hUpToDate = true;
+        }
+        return reusableH;
+    }
+
+    /**
+     * Get a solver for finding the A &times; X = B solution in least square sense.
+     * <p>The same solver instance is returned at each call, it always
+     * uses the current decomposition.</p>
+     * @return a solver
+     * @see QRDecomposition#getSolver()
+     */
+    public DecompositionSolver getSolver() {
+        return solver;
+    }
+
+    /** Solve A &times; X = B in least square sense without allocating memory.
+     * @param b right hand side vector (dimension must be the row dimension)
+     * @param x placeholder for the solution (dimension must be the column dimension,
+     * may be the same array as {@code b} if the matrix is square)
+     * @throws MathIllegalArgumentException if the arrays dimensions do not match
+     * the workspace dimensions or if the decomposed matrix is singular
+     */
+    public void solve(final double[] b, final double[] x) {
+
+        final int n = qrt.length;
+        final int m = work.length;
+        if (b.length != m) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                   b.length, m);
+        }
+        if (x.length != n) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                   x.length, n);
+        }
+        checkSingular(true);
+
+        final double[] y = work;
+        System.arraycopy(b, 0, y, 0, m);
+
+        // apply Householder transforms to solve Q.y = b
+        for (int minor = 0; minor < rDiag.length; minor++) {
+
+            final double[] qrtMinor = qrt[minor];
+            double dotProduct = 0;
+            for (int row = minor; row < m; row++) {
+                dotProduct += y[row] * qrtMinor[row];
+            }
+            dotProduct /= rDiag[minor] * qrtMinor[minor];
+
+            for (int row = minor; row < m; row++) {
+                y[row] += dotProduct * qrtMinor[row];
+            }
+        }
+
+        // solve triangular system R.x = y
+        Arrays.fill(x, 0.0);
+        for (int row = rDiag.length - 1; row >= 0; --row) {
+            y[row] /= rDiag[row];
+            final double yRow = y[row];
+            final double[] qrtRow = qrt[row];
+            x[row] = yRow;
+            for (int i = 0; i < row; i++) {
+                y[i] -= yRow * qrtRow[i];
+            }
+        }
+
+    }
+
+    /**
+     * Check singularity.
+     *
+     * @param raise Whether to raise a {@link MathIllegalArgumentException}
+     * if any element of the diagonal fails the check.
+     * @return {@code true} if any element of the diagonal is smaller
+     * or equal to the singularity threshold.
+     * @throws MathIllegalArgumentException if the matrix is singular and
+     * {@code raise} is {@code true}.
+     */
+    private boolean checkSingular(final boolean raise) {
+        for (final double d : rDiag) {
+            if (FastMath.abs(d) <= threshold) {
+                if (raise) {
+                    throw new MathIllegalArgumentException(LocalizedCoreFormats.SINGULAR_MATRIX);
+                } else {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Specialized solver. */
+    private class Solver implements DecompositionSolver {
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isNonSingular() {
+            return !checkSingular(false);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public RealVector solve(final RealVector b) {
+            final double[] x = new double[qrt.length];
+            ReusableQRDecomposition.this.solve(b.toArray(), x);
+            return new ArrayRealVector(x, false);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public RealMatrix solve(final RealMatrix b) {
+
+            final int n = qrt.length;
+            final int m = work.length;
+            if (b.getRowDimension() != m) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       b.getRowDimension(), m);
+            }
+
+            final int columns = b.getColumnDimension();
+            final double[][] x = new double[n][columns];
+            final double[] bCol = new double[m];
+            final double[] xCol = new double[n];
+            for (int col = 0; col < columns; ++col) {
+                for (int row = 0; row < m; ++row) {
+                    bCol[row] = b.getEntry(row, col);
+                }
+                ReusableQRDecomposition.this.solve(bCol, xCol);
+                for (int row = 0; row < n; ++row) {
+                    x[row][col] = xCol[row];
+                }
+            }
+
+            return new Array2DRowRealMatrix(x, false);
+        }
+
+        /**
+         * {@inheritDoc}
+         * @throws MathIllegalArgumentException if the decomposed matrix is singular.
+         */
+        @Override
+        public RealMatrix getInverse() {
+            return solve(MatrixUtils.createRealIdentityMatrix(work.length));
+        }
+
+    }
+
+}
@@ -94,9 +94,10 @@ public class SingularValueDecomposition {
          // "m" is always the largest dimension.
         if (matrix.getRowDimension() < matrix.getColumnDimension()) {
             transposed = true;
-            A = matrix.transpose().getData();
             m = matrix.getColumnDimension();
             n = matrix.getRowDimension();
+            A = new double[m][n];
+            MatrixUtils.copyTransposedData(matrix, A);
         } else {
             transposed = false;
             A = matrix.getData();
@@ -0,0 +1,650 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.Arrays;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.util.FastMath;
+
+/**
+ * Calculates the Cholesky decomposition of a sparse matrix.
+ * <p>The decomposition is P A P<sup>T</sup> = L L<sup>T</sup>, where P is a
+ * fill-reducing permutation computed by an approximate minimum degree ordering
+ * and L is a sparse lower-triangular matrix. Only the non-zero entries of the
+ * matrix are used, so matrices are never densified: the input should be a
+ * {@link CompressedColumnRealMatrix}, a {@link CompressedRowRealMatrix} or an
+ * {@link OpenMapRealMatrix} (other matrices are accepted but all their entries
+ * are scanned once).</p>
+ * <p>The computation is split in two phases. The {@link #analyze(RealMatrix)
+ * symbolic analysis} depends only on the sparsity pattern of the matrix: it
+ * computes the ordering, the elimination tree and the pattern of L. The numeric
+ * factorization then computes the values of L using an up-looking algorithm.
+ * The symbolic analysis can be reused for all matrices whose non-zero entries
+ * are within the analyzed pattern, which is the common case when the same
+ * problem is solved repeatedly with different values.</p>
+ *
+ * @see CholeskyDecomposition
+ * @see SparseCholeskyDecomposer
+ * @since 1.7
+ */
+public class SparseCholeskyDecomposition {
+
+    /** Symbolic analysis. */
+    private final Symbolic symbolic;
+
+    /** Storage of L, with columns as the major dimension (hence diagonal first in each column). */
+    private final CompressedStorage l;
+
+    /** Cached value of L. */
+    private CompressedColumnRealMatrix cachedL;
+
+    /**
+     * Calculates the Cholesky decomposition of the given matrix.
+     * <p>
+     * Calling this constructor is equivalent to call {@link
+     * #SparseCholeskyDecomposition(RealMatrix, double, double)} with the
+     * thresholds set to the default values {@link
+     * CholeskyDecomposition#DEFAULT_RELATIVE_SYMMETRY_THRESHOLD} and {@link
+     * CholeskyDecomposition#DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD}
+     * </p>
+     * @param matrix the matrix to decompose
+     * @throws MathIllegalArgumentException if the matrix is not square.
+     * @throws MathIllegalArgumentException if the matrix is not symmetric.
+     * @throws MathIllegalArgumentException if the matrix is not
+     * strictly positive definite.
+     */
+    public SparseCholeskyDecomposition(final RealMatrix matrix) {
+        this(matrix,
+             CholeskyDecomposition.DEFAULT_RELATIVE_SYMMETRY_THRESHOLD,
+             CholeskyDecomposition.DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD);
+    }
+
+    /**
+     * Calculates the Cholesky decomposition of the given matrix.
+     * @param matrix the matrix to decompose
+     * @param relativeSymmetryThreshold threshold above which off-diagonal
+     * elements are considered too different and matrix not symmetric
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     * @throws MathIllegalArgumentException if the matrix is not square.
+     * @throws MathIllegalArgumentException if the matrix is not symmetric.
+     * @throws MathIllegalArgumentException if the matrix is not
+     * strictly positive definite.
+     */
+    public SparseCholeskyDecomposition(final RealMatrix matrix,
+                                       final double relativeSymmetryThreshold,
+                                       final double absolutePositivityThreshold) {
+        this(columnStorage(matrix), null, relativeSymmetryThreshold, absolutePositivityThreshold);
+    }
+
+    /**
+     * Calculates the Cholesky decomposition of the given matrix, reusing a symbolic analysis.
+     * @param matrix the matrix to decompose
+     * @param symbolic symbolic analysis of a matrix whose pattern includes the pattern of {@code matrix}
+     * (if null, a new symbolic analysis is performed)
+     * @param relativeSymmetryThreshold threshold above which off-diagonal
+     * elements are considered too different and matrix not symmetric
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     * @throws MathIllegalArgumentException if the matrix dimension does not
+     * match the symbolic analysis
+     * @throws MathIllegalArgumentException if the matrix has non-zero entries
+     * outside of the pattern used for the symbolic analysis
+     * @throws MathIllegalArgumentException if the matrix is not symmetric.
+     * @throws MathIllegalArgumentException if the matrix is not
+     * strictly positive definite.
+     */
+    public SparseCholeskyDecomposition(final RealMatrix matrix, final Symbolic symbolic,
+                                       final double relativeSymmetryThreshold,
+                                       final double absolutePositivityThreshold) {
+        this(columnStorage(matrix), symbolic, relativeSymmetryThreshold, absolutePositivityThreshold);
+    }
+
+    /**
+     * Calculates the Cholesky decomposition of a matrix given by its column storage.
+     * @param a storage of the matrix, with columns as the major dimension
+     * @param symbolic symbolic analysis to reuse (if null, a new analysis is performed)
+     * @param relativeSymmetryThreshold threshold above which off-diagonal
+     * elements are considered too different and matrix not symmetric
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     */
+    SparseCholeskyDecomposition(final CompressedStorage a, final Symbolic symbolic,
+                                final double relativeSymmetryThreshold,
+                                final double absolutePositivityThreshold) {
+
+        checkSymmetry(a, relativeSymmetryThreshold);
+        if (symbolic == null) {
+            this.symbolic = new Symbolic(a);
+        } else {
+            symbolic.checkPattern(a);
+            this.symbolic = symbolic;
+        }
+        this.l       = factorize(a, absolutePositivityThreshold);
+        this.cachedL = null;
+
+    }
+
+    /** Perform the symbolic analysis of a matrix.
+     * <p>
+     * Only the sparsity pattern of the matrix is used, not its values.
+     * </p>
+     * @param matrix matrix to analyze (must be square)
+     * @return symbolic analysis
+     * @throws MathIllegalArgumentException if the matrix is not square.
+     */
+    public static Symbolic analyze(final RealMatrix matrix) {
+        return new Symbolic(columnStorage(matrix));
+    }
+
+    /** Get the symbolic analysis used for this decomposition.
+     * @return symbolic analysis used for this decomposition
+     */
+    public Symbolic getSymbolic() {
+        return symbolic;
+    }
+
+    /**
+     * Returns the matrix L of the decomposition.
+     * <p>L is a lower-triangular matrix, it corresponds to the permuted matrix P A P<sup>T</sup></p>
+     * @return the L matrix
+     */
+    public CompressedColumnRealMatrix getL() {
+        if (cachedL == null) {
+            cachedL = new CompressedColumnRealMatrix(l);
+        }
+        return cachedL;
+    }
+
+    /**
+     * Returns the transpose of the matrix L of the decomposition.
+     * <p>L<sup>T</sup> is an upper-triangular matrix</p>
+     * @return the transpose of the matrix L of the decomposition
+     */
+    public CompressedRowRealMatrix getLT() {
+        return getL().transpose();
+    }
+
+    /**
+     * Returns the fill-reducing permutation.
+     * <p>Element k of the array is the index in the original matrix of
+     * row and column k in the permuted matrix P A P<sup>T</sup>.</p>
+     * @return fill-reducing permutation
+     */
+    public int[] getPermutation() {
+        return symbolic.getPermutation();
+    }
+
+    /**
+     * Return the determinant of the matrix
+     * @return determinant of the matrix
+     */
+    public double getDeterminant() {
+        final int[]    pointers = l.getPointers();
+        final double[] values   = l.getValues();
+        double determinant = 1.0;
+        for (int k = 0; k < symbolic.n; ++k) {
+            final double lKK = values[pointers[k]];
+            determinant *= lKK * lKK;
+        }
+        return determinant;
+    }
+
+    /**
+     * Get a solver for finding the A &times; X = B solution in least square sense.
+     * @return a solver
+     */
+    public DecompositionSolver getSolver() {
+        return new Solver();
+    }
+
+    /** Compute the numeric factorization.
+     * @param a storage of the matrix, with columns as the major dimension
+     * @param absolutePositivityThreshold threshold below which diagonal
+     * elements are considered null and matrix not positive definite
+     * @return storage of L, with columns as the major dimension
+     */
+    private CompressedStorage factorize(final CompressedStorage a, final double absolutePositivityThreshold) {
+
+        final int      n  = symbolic.n;
+        final CompressedStorage c = symbolic.permuteUpper(a, true);
+        final int[]    cp = c.getPointers();
+        final int[]    ci = c.getIndices();
+        final double[] cx = c.getValues();
+
+        final int[]    lp = symbolic.columnPointers;
+        final int[]    li = new int[lp[n]];
+        final double[] lx = new double[lp[n]];
+
+        final int[]    next  = Arrays.copyOf(lp, n);
+        final int[]    stack = new int[n];
+        final int[]    mark  = new int[n];
+        final double[] x     = new double[n];
+        Arrays.fill(mark, -1);
+
+        for (int k = 0; k < n; ++k) {
+
+            // scatter column k of the upper part into x, and find the pattern of row k of L
+            final int top = symbolic.reach(c, k, stack, mark);
+            x[k] = 0;
+            for (int p = cp[k]; p < cp[k + 1]; ++p) {
+                x[ci[p]] = cx[p];
+            }
+            double d = x[k];
+            x[k] = 0;
+
+            // sparse triangular solve for row k of L
+            for (int t = top; t < n; ++t) {
+                final int    i   = stack[t];
+                final double lki = x[i] / lx[lp[i]];
+                x[i] = 0;
+                for (int p = lp[i] + 1; p < next[i]; ++p) {
+                    x[li[p]] -= lx[p] * lki;
+                }
+                d -= lki * lki;
+                final int p = next[i]++;
+                li[p] = k;
+                lx[p] = lki;
+            }
+
+            // diagonal element
+            if (d <= absolutePositivityThreshold) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.NOT_POSITIVE_DEFINITE_MATRIX);
+            }
+            final int p = next[k]++;
+            li[p] = k;
+            lx[p] = FastMath.sqrt(d);
+
+        }
+
+        return new CompressedStorage(n, n, lp, li, lx);
+
+    }
+
+    /** Check the symmetry of a matrix.
+     * @param a storage of the matrix, with columns as the major dimension
+     * @param relativeSymmetryThreshold threshold above which off-diagonal
+     * elements are considered too different and matrix not symmetric
+     * @throws MathIllegalArgumentException if the matrix is not symmetric.
+     */
+    private static void checkSymmetry(final CompressedStorage a, final double relativeSymmetryThreshold) {
+        final int[]    pointers = a.getPointers();
+        final int[]    indices  = a.getIndices();
+        final double[] values   = a.getValues();
+        for (int j = 0; j < a.getMajorDimension(); ++j) {
+            for (int p = pointers[j]; p < pointers[j + 1]; ++p) {
+                final int i = indices[p];
+                if (i != j) {
+                    final double aIJ = values[p];
+                    final double aJI = a.getEntry(i, j);
+                    final double maxDelta =
+                        relativeSymmetryThreshold * FastMath.max(FastMath.abs(aIJ), FastMath.abs(aJI));
+                    if (FastMath.abs(aIJ - aJI) > maxDelta) {
+                        throw new MathIllegalArgumentException(LocalizedCoreFormats.NON_SYMMETRIC_MATRIX,
+                                                               FastMath.min(i, j), FastMath.max(i, j),
+                                                               relativeSymmetryThreshold);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Get the column storage of a square matrix.
+     * @param matrix matrix
+     * @return storage of the matrix, with columns as the major dimension
+     * @throws MathIllegalArgumentException if the matrix is not square.
+     */
+    static CompressedStorage columnStorage(final RealMatrix matrix) {
+        if (!matrix.isSquare()) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NON_SQUARE_MATRIX,
+                                                   matrix.getRowDimension(), matrix.getColumnDimension());
+        }
+        return CompressedColumnRealMatrix.columnStorage(matrix);
+    }
+
+    /** Symbolic analysis of a sparse symmetric matrix.
+     * <p>
+     * Instances of this class are immutable and can be shared between
+     * several decompositions, including decompositions computed concurrently.
+     * </p>
+     * @see SparseCholeskyDecomposition#analyze(RealMatrix)
+     * @see SparseCholeskyDecomposition#getSymbolic()
+     */
+    public static class Symbolic {
+
+        /** Dimension of the matrix. */
+        private final int n;
+
+        /** Analyzed pattern, with columns as the major dimension. */
+        private final CompressedStorage pattern;
+
+        /** Permutation (new index to original index). */
+        private final int[] permutation;
+
+        /** Inverse permutation (original index to new index). */
+        private final int[] inverse;
+
+        /** Elimination tree of the permuted matrix. */
+        private final int[] parent;
+
+        /** Start of each column of L in its storage. */
+        private final int[] columnPointers;
+
+        /** Perform symbolic analysis.
+         * @param a storage of the matrix, with columns as the major dimension
+         */
+        Symbolic(final CompressedStorage a) {
+
+            n           = a.getMajorDimension();
+            pattern     = a;
+            permutation = ApproximateMinimumDegree.order(a);
+            inverse     = new int[n];
+            for (int k = 0; k < n; ++k) {
+                inverse[permutation[k]] = k;
+            }
+
+            // elimination tree of the upper part of the permuted matrix
+            final CompressedStorage c = permuteUpper(a, false);
+            final int[] cp = c.getPointers();
+            final int[] ci = c.getIndices();
+            parent = new int[n];
+            final int[] ancestor = new int[n];
+            for (int k = 0; k < n; ++k) {
+                parent[k]   = -1;
+                ancestor[k] = -1;
+                for (int p = cp[k]; p < cp[k + 1]; ++p) {
+                    int i = ci[p];
+                    while (i != -1 && i < k) {
+                        // path compression
+                        final int iNext = ancestor[i];
+                        ancestor[i] = k;
+                        if (iNext == -1) {
+                            parent[i] = k;
+                        }
+                        i = iNext;
+                    }
+                }
+            }
+
+            // column counts of L, from the patterns of its rows
+            final int[] count = new int[n];
+            final int[] stack = new int[n];
+            final int[] mark  = new int[n];
+            Arrays.fill(mark, -1);
+            for (int k = 0; k < n; ++k) {
+                for (int t = reach(c, k, stack, mark); t < n; ++t) {
+                    ++count[stack[t]];
+                }
+                ++count[k];
+            }
+            columnPointers = new int[n + 1];
+            for (int k = 0; k < n; ++k) {
+                columnPointers[k + 1] = columnPointers[k] + count[k];
+            }
+
+        }
+
+        /** Get the dimension of the analyzed matrix.
+         * @return dimension of the analyzed matrix
+         */
+        public int getDimension() {
+            return n;
+        }
+
+        /**
+         * Returns the fill-reducing permutation.
+         * <p>Element k of the array is the index in the original matrix of
+         * row and column k in the permuted matrix P A P<sup>T</sup>.</p>
+         * @return fill-reducing permutation
+         */
+        public int[] getPermutation() {
+            return permutation.clone();
+        }
+
+        /** Get the number of non-zero entries in the L factor.
+         * @return number of non-zero entries in the L factor
+         */
+        public int getFactorNonZeros() {
+            return columnPointers[n];
+        }
+
+        /** Check if a matrix pattern is compatible with this analysis.
+         * @param matrix matrix to check
+         * @return true if the matrix has the analyzed dimension and all its
+         * non-zero entries are within the analyzed pattern
+         */
+        public boolean isCompatible(final RealMatrix matrix) {
+            return matrix.getRowDimension() == n && matrix.getColumnDimension() == n &&
+                   isCompatible(columnStorage(matrix));
+        }
+
+        /** Check if a matrix pattern is compatible with this analysis.
+         * @param a storage of the matrix, with columns as the major dimension
+         * @return true if the matrix has the analyzed dimension and all its
+         * non-zero entries are within the analyzed pattern
+         */
+        boolean isCompatible(final CompressedStorage a) {
+            return a.getMajorDimension() == n && a.findEntryOutside(pattern) == null;
+        }
+
+        /** Check a matrix pattern is compatible with this analysis.
+         * @param a storage of the matrix, with columns as the major dimension
+         * @throws MathIllegalArgumentException if the pattern is not compatible
+         */
+        void checkPattern(final CompressedStorage a) {
+            if (a.getMajorDimension() != n) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       a.getMajorDimension(), n);
+            }
+            final int[] outside = a.findEntryOutside(pattern);
+            if (outside != null) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.SPARSITY_PATTERN_MISMATCH,
+                                                       outside[1], outside[0]);
+            }
+        }
+
+        /** Compute the upper part of the permuted matrix P A P<sup>T</sup>.
+         * @param a storage of the matrix, with columns as the major dimension
+         * @param withValues if true, values are copied, otherwise only the pattern is computed
+         * @return storage of the upper part of the permuted matrix, with columns as the major dimension
+         */
+        CompressedStorage permuteUpper(final CompressedStorage a, final boolean withValues) {
+            final int[]    ap = a.getPointers();
+            final int[]    ai = a.getIndices();
+            final double[] ax = a.getValues();
+
+            // count entries in each column of the result
+            final int[] cp = new int[n + 1];
+            for (int j = 0; j < n; ++j) {
+                for (int p = ap[j]; p < ap[j + 1]; ++p) {
+                    final int i = ai[p];
+                    if (i <= j) {
+                        ++cp[FastMath.max(inverse[i], inverse[j]) + 1];
+                    }
+                }
+            }
+            for (int k = 0; k < n; ++k) {
+                cp[k + 1] += cp[k];
+            }
+
+            // fill the result
+            final int[]    next = Arrays.copyOf(cp, n);
+            final int[]    ci   = new int[cp[n]];
+            final double[] cx   = withValues ? new double[cp[n]] : null;
+            for (int j = 0; j < n; ++j) {
+                for (int p = ap[j]; p < ap[j + 1]; ++p) {
+                    final int i = ai[p];
+                    if (i <= j) {
+                        final int i2 = inverse[i];
+                        final int j2 = inverse[j];
+                        final int q  = next[FastMath.max(i2, j2)]++;
+                        ci[q] = FastMath.min(i2, j2);
+                        if (withValues) {
+                            cx[q] = ax[p];
+                        }
+                    }
+                }
+            }
+
+            return new CompressedStorage(n, n, cp, ci, cx);
+
+        }
+
+        /** Compute the pattern of a row of L.
+         * <p>
+         * The pattern is the set of nodes reachable in the elimination tree
+         * from the non-zero entries of the column of the upper part.
+         * </p>
+         * @param c upper part of the permuted matrix, with columns as the major dimension
+         * @param k row index
+         * @param stack placeholder for the pattern, which is stored in stack[top..n-1]
+         * @param mark marker array (entries equal to k are considered marked)
+         * @return top index of the pattern in the stack
+         */
+        int reach(final CompressedStorage c, final int k, final int[] stack, final int[] mark) {
+            final int[] cp = c.getPointers();
+            final int[] ci = c.getIndices();
+            int top = n;
+            mark[k] = k;
+            for (int p = cp[k]; p < cp[k + 1]; ++p) {
+                int i = ci[p];
+                if (i > k) {
+                    continue;
+                }
+                // climb up the elimination tree until a marked node is found
+                int length = 0;
+                while (mark[i] != k) {
+                    stack[length++] = i;
+                    mark[i] = k;
+                    i = parent[i];
+                }
+                // push the path on the top of the stack
+                while (length > 0) {
+                    stack[--top] = stack[--length];
+                }
+            }
+            return top;
+        }
+
+    }
+
+    /** Specialized solver. */
+    private class Solver implements DecompositionSolver {
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isNonSingular() {
+            // if we get this far, the matrix was positive definite, hence non-singular
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public RealVector solve(final RealVector b) {
+            if (b.getDimension() != symbolic.n) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       b.getDimension(), symbolic.n);
+            }
+            return new ArrayRealVector(solve(b.toArray()), false);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public RealMatrix solve(final RealMatrix b) {
+
+            final int n = symbolic.n;
+            if (b.getRowDimension() != n) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       b.getRowDimension(), n);
+            }
+
+            final int nColB = b.getColumnDimension();
+            final double[][] x = new double[n][nColB];
+            for (int col = 0; col < nColB; ++col) {
+                final double[] xCol = solve(b.getColumn(col));
+                for (int row = 0; row < n; ++row) {
+                    x[row][col] = xCol[row];
+                }
+            }
+
+            return new Array2DRowRealMatrix(x, false);
+
+        }
+
+        /**
+         * Get the inverse of the decomposed matrix.
+         * <p>
+         * Beware that the inverse of a sparse matrix is generally dense,
+         * it is returned as a dense matrix.
+         * </p>
+         * @return the inverse matrix.
+         */
+        @Override
+        public RealMatrix getInverse() {
+            return solve(MatrixUtils.createRealIdentityMatrix(symbolic.n));
+        }
+
+        /** Solve A.X = B.
+         * @param b right hand side
+         * @return solution
+         */
+        private double[] solve(final double[] b) {
+
+            final int      n        = symbolic.n;
+            final int[]    perm     = symbolic.permutation;
+            final int[]    pointers = l.getPointers();
+            final int[]    indices  = l.getIndices();
+            final double[] values   = l.getValues();
+
+            // permute right hand side
+            final double[] y = new double[n];
+            for (int k = 0; k < n; ++k) {
+                y[k] = b[perm[k]];
+            }
+
+            // solve L.Z = P.B (diagonal is the first entry of each column)
+            for (int j = 0; j < n; ++j) {
+                final double yJ = y[j] / values[pointers[j]];
+                y[j] = yJ;
+                for (int p = pointers[j] + 1; p < pointers[j + 1]; ++p) {
+                    y[indices[p]] -= values[p] * yJ;
+                }
+            }
+
+            // solve L^T.Y = Z
+            for (int j = n - 1; j >= 0; --j) {
+                double yJ = y[j];
+                for (int p = pointers[j] + 1; p < pointers[j + 1]; ++p) {
+                    yJ -= values[p] * y[indices[p]];
+                }
+                y[j] = yJ / values[pointers[j]];
+            }
+
+            // permute back solution
+            final double[] x = new double[n];
+            for (int k = 0; k < n; ++k) {
+                x[perm[k]] = y[k];
+            }
+            return x;
+
+        }
+
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+/** Matrix decomposer using sparse LU decomposition.
+ * <p>
+ * The decomposer keeps the symbolic analysis of the last decomposed matrix
+ * and reuses it as long as the sparsity pattern of the matrices to decompose
+ * remains compatible, so decomposing a sequence of matrices sharing the same
+ * pattern (as in Newton iterations or implicit time stepping) does not recompute
+ * the fill-reducing ordering. As it holds this mutable cache, instances
+ * of this class are <em>not</em> thread-safe.
+ * </p>
+ * @see SparseLUDecomposition
+ * @since 1.7
+ */
+public class SparseLUDecomposer implements MatrixDecomposer {
+
+    /** Threshold under which a matrix is considered singular. */
+    private final double singularityThreshold;
+
+    /** Threshold for pivots acceptance. */
+    private final double pivotingThreshold;
+
+    /** Symbolic analysis of the last decomposed matrix. */
+    private SparseLUDecomposition.Symbolic symbolic;
+
+    /**
+     * Creates a sparse LU decomposer with specific thresholds for several matrices.
+     * @param singularityThreshold threshold under which a matrix is considered singular
+     * @param pivotingThreshold threshold for pivots acceptance, between 0 and 1
+     */
+    public SparseLUDecomposer(final double singularityThreshold, final double pivotingThreshold) {
+        this.singularityThreshold = singularityThreshold;
+        this.pivotingThreshold    = pivotingThreshold;
+        this.symbolic             = null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public DecompositionSolver decompose(final RealMatrix a) {
+        final CompressedStorage storage = SparseCholeskyDecomposition.columnStorage(a);
+        if (symbolic != null && !symbolic.isCompatible(storage)) {
+            // the pattern has changed, a new symbolic analysis is needed
+            symbolic = null;
+        }
+        final SparseLUDecomposition decomposition =
+                        new SparseLUDecomposition(storage, symbolic, singularityThreshold, pivotingThreshold);
+        symbolic = decomposition.getSymbolic();
+        return decomposition.getSolver();
+    }
+
+}
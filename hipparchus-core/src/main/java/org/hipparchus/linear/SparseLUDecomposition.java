@@ -0,0 +1,598 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.Arrays;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.util.FastMath;
+
+/**
+ * Calculates the LU decomposition of a sparse matrix.
+ * <p>The decomposition is P A Q = L U, where Q is a fill-reducing column
+ * permutation computed by an approximate minimum degree ordering of the pattern
+ * of A + A<sup>T</sup>, P is a row permutation computed by threshold partial
+ * pivoting, L is a sparse lower-triangular matrix with unit diagonal and U is
+ * a sparse upper-triangular matrix. Only the non-zero entries of the matrix
+ * are used, so matrices are never densified: the input should be a
+ * {@link CompressedColumnRealMatrix}, a {@link CompressedRowRealMatrix} or an
+ * {@link OpenMapRealMatrix} (other matrices are accepted but all their entries
+ * are scanned once).</p>
+ * <p>Columns are factored one at a time using the left-looking algorithm of
+ * Gilbert and Peierls: each column of L and U is computed by a sparse triangular
+ * solve whose cost is proportional to the number of floating point operations.
+ * Among the acceptable pivots, whose magnitude is at least {@code pivotingThreshold}
+ * times the largest magnitude in the column, the diagonal entry is preferred, so
+ * the row permutation tends to follow the column ordering and preserve sparsity.</p>
+ * <p>The {@link #analyze(RealMatrix) symbolic analysis}, i.e. the column ordering,
+ * depends only on the sparsity pattern of the matrix. It can be reused to decompose
+ * other matrices with the same dimension: the decomposition is always correct, and
+ * the ordering is efficient as long as the pattern does not change. As pivoting
+ * depends on values, the row permutation is computed for each decomposition.</p>
+ *
+ * @see LUDecomposition
+ * @see SparseLUDecomposer
+ * @since 1.7
+ */
+public class SparseLUDecomposition {
+
+    /** Default bound to determine effective singularity in LU decomposition. */
+    public static final double DEFAULT_SINGULARITY_THRESHOLD = 1.0e-11;
+
+    /** Default threshold for pivots acceptance. */
+    public static final double DEFAULT_PIVOTING_THRESHOLD = 0.1;
+
+    /** Symbolic analysis. */
+    private final Symbolic symbolic;
+
+    /** Row permutation (pivot index to original row index). */
+    private final int[] rowPermutation;
+
+    /** Storage of L, with columns as the major dimension (hence unit diagonal first in each column). */
+    private final CompressedStorage l;
+
+    /** Storage of U, with columns as the major dimension (hence diagonal last in each column). */
+    private final CompressedStorage u;
+
+    /**
+     * Calculates the LU decomposition of the given matrix.
+     * <p>
+     * Calling this constructor is equivalent to call {@link
+     * #SparseLUDecomposition(RealMatrix, Symbolic, double, double)} with
+     * a null symbolic analysis and the thresholds set to the default values
+     * {@link #DEFAULT_SINGULARITY_THRESHOLD} and {@link #DEFAULT_PIVOTING_THRESHOLD}
+     * </p>
+     * @param matrix the matrix to decompose
+     * @throws MathIllegalArgumentException if the matrix is not square.
+     */
+    public SparseLUDecomposition(final RealMatrix matrix) {
+        this(matrix, null, DEFAULT_SINGULARITY_THRESHOLD, DEFAULT_PIVOTING_THRESHOLD);
+    }
+
+    /**
+     * Calculates the LU decomposition of the given matrix.
+     * @param matrix the matrix to decompose
+     * @param symbolic symbolic analysis to reuse (if null, a new symbolic analysis is performed)
+     * @param singularityThreshold threshold (based on partial row norm)
+     * under which a matrix is considered singular
+     * @param pivotingThreshold threshold for pivots acceptance, between 0 and 1 (1 for strict
+     * partial pivoting, lower values favor diagonal pivots, hence sparsity, over stability)
+     * @throws MathIllegalArgumentException if the matrix is not square
+     * or does not match the dimension of the symbolic analysis
+     * @throws MathIllegalArgumentException if the pivoting threshold is not between 0 and 1
+     */
+    public SparseLUDecomposition(final RealMatrix matrix, final Symbolic symbolic,
+                                 final double singularityThreshold, final double pivotingThreshold) {
+        this(SparseCholeskyDecomposition.columnStorage(matrix), symbolic,
+             singularityThreshold, pivotingThreshold);
+    }
+
+    /**
+     * Calculates the LU decomposition of a matrix given by its column storage.
+     * @param a storage of the matrix, with columns as the major dimension
+     * @param symbolic symbolic analysis to reuse (if null, a new symbolic analysis is performed)
+     * @param singularityThreshold threshold (based on partial row norm)
+     * under which a matrix is considered singular
+     * @param pivotingThreshold threshold for pivots acceptance, between 0 and 1
+     */
+    SparseLUDecomposition(final CompressedStorage a, final Symbolic symbolic,
+                          final double singularityThreshold, final double pivotingThreshold) {
+
+        if (pivotingThreshold <= 0.0 || pivotingThreshold > 1.0) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.OUT_OF_RANGE_LEFT,
+                                                   pivotingThreshold, 0.0, 1.0);
+        }
+        if (symbolic == null) {
+            this.symbolic = new Symbolic(a);
+        } else {
+            if (a.getMajorDimension() != symbolic.n) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       a.getMajorDimension(), symbolic.n);
+            }
+            this.symbolic = symbolic;
+        }
+
+        final int n = this.symbolic.n;
+        final int[] q = this.symbolic.columnPermutation;
+        final int[]    ap = a.getPointers();
+        final int[]    ai = a.getIndices();
+        final double[] ax = a.getValues();
+
+        // factors storage, grown as needed
+        final int[] lp = new int[n + 1];
+        final int[] up = new int[n + 1];
+        int      capacity = 4 * a.getNonZeros() + n;
+        int[]    li = new int[capacity];
+        double[] lx = new double[capacity];
+        int[]    ui = new int[capacity];
+        double[] ux = new double[capacity];
+        int lnz = 0;
+        int unz = 0;
+
+        // work arrays
+        final int[]    pinv   = new int[n];
+        final int[]    xi     = new int[n];
+        final int[]    stack  = new int[n];
+        final int[]    pstack = new int[n];
+        final int[]    mark   = new int[n];
+        final double[] x      = new double[n];
+        Arrays.fill(pinv, -1);
+        Arrays.fill(mark, -1);
+
+        boolean isSingular = false;
+        for (int k = 0; k < n && !isSingular; ++k) {
+
+            lp[k] = lnz;
+            up[k] = unz;
+            if (lnz + n > li.length || unz + n > ui.length) {
+                capacity = 2 * capacity + n;
+                li = Arrays.copyOf(li, capacity);
+                lx = Arrays.copyOf(lx, capacity);
+                ui = Arrays.copyOf(ui, capacity);
+                ux = Arrays.copyOf(ux, capacity);
+            }
+
+            // find the pattern of column k of L and U: all nodes reachable in the graph of L
+            final int col = q[k];
+            int top = n;
+            for (int p = ap[col]; p < ap[col + 1]; ++p) {
+                if (mark[ai[p]] != k) {
+                    top = depthFirstSearch(ai[p], k, lp, li, pinv, top, xi, stack, pstack, mark);
+                }
+            }
+
+            // sparse triangular solve x = L \ A(:, col), in topological order
+            for (int t = top; t < n; ++t) {
+                x[xi[t]] = 0;
+            }
+            for (int p = ap[col]; p < ap[col + 1]; ++p) {
+                x[ai[p]] = ax[p];
+            }
+            for (int t = top; t < n; ++t) {
+                final int j = xi[t];
+                final int jPivot = pinv[j];
+                if (jPivot >= 0) {
+                    // L has unit diagonal, stored first in each column
+                    final double xJ = x[j];
+                    for (int p = lp[jPivot] + 1; p < lp[jPivot + 1]; ++p) {
+                        x[li[p]] -= lx[p] * xJ;
+                    }
+                }
+            }
+
+            // select pivot, and store the part of the column in U
+            int    iPivot = -1;
+            double max    = -1.0;
+            for (int t = top; t < n; ++t) {
+                final int i = xi[t];
+                if (pinv[i] < 0) {
+                    final double abs = FastMath.abs(x[i]);
+                    if (abs > max) {
+                        max    = abs;
+                        iPivot = i;
+                    }
+                } else {
+                    ui[unz]   = pinv[i];
+                    ux[unz++] = x[i];
+                }
+            }
+            if (iPivot < 0 || max <= singularityThreshold) {
+                isSingular = true;
+            } else {
+
+                if (pinv[col] < 0 && FastMath.abs(x[col]) >= pivotingThreshold * max) {
+                    // prefer diagonal pivot
+                    iPivot = col;
+                }
+                final double pivot = x[iPivot];
+                ui[unz]      = k;
+                ux[unz++]    = pivot;
+                pinv[iPivot] = k;
+                li[lnz]      = iPivot;
+                lx[lnz++]    = 1.0;
+
+                // store the remaining part of the column in L
+                for (int t = top; t < n; ++t) {
+                    final int i = xi[t];
+                    if (pinv[i] < 0) {
+                        li[lnz]   = i;
+                        lx[lnz++] = x[i] / pivot;
+                    }
+                    x[i] = 0;
+                }
+
+            }
+
+        }
+
+        if (isSingular) {
+            rowPermutation = null;
+            l              = null;
+            u              = null;
+        } else {
+            lp[n] = lnz;
+            up[n] = unz;
+
+            // L row indices were stored as original rows, convert them to pivot order
+            for (int p = 0; p < lnz; ++p) {
+                li[p] = pinv[li[p]];
+            }
+            rowPermutation = new int[n];
+            for (int i = 0; i < n; ++i) {
+                rowPermutation[pinv[i]] = i;
+            }
+
+            // transposing twice sorts the entries in each column
+            l = new CompressedStorage(n, n, lp, Arrays.copyOf(li, lnz), Arrays.copyOf(lx, lnz)).transpose().transpose();
+            u = new CompressedStorage(n, n, up, Arrays.copyOf(ui, unz), Arrays.copyOf(ux, unz)).transpose().transpose();
+        }
+
+    }
+
+    /** Perform the symbolic analysis of a matrix.
+     * <p>
+     * Only the sparsity pattern of the matrix is used, not its values.
+     * </p>
+     * @param matrix matrix to analyze (must be square)
+     * @return symbolic analysis
+     * @throws MathIllegalArgumentException if the matrix is not square.
+     */
+    public static Symbolic analyze(final RealMatrix matrix) {
+        return new Symbolic(SparseCholeskyDecomposition.columnStorage(matrix));
+    }
+
+    /** Get the symbolic analysis used for this decomposition.
+     * @return symbolic analysis used for this decomposition
+     */
+    public Symbolic getSymbolic() {
+        return symbolic;
+    }
+
+    /**
+     * Returns the matrix L of the decomposition.
+     * <p>L is a lower-triangular matrix with unit diagonal</p>
+     * @return the L matrix (or null if decomposed matrix is singular)
+     */
+    public CompressedColumnRealMatrix getL() {
+        return (l == null) ? null : new CompressedColumnRealMatrix(l);
+    }
+
+    /**
+     * Returns the matrix U of the decomposition.
+     * <p>U is an upper-triangular matrix</p>
+     * @return the U matrix (or null if decomposed matrix is singular)
+     */
+    public CompressedColumnRealMatrix getU() {
+        return (u == null) ? null : new CompressedColumnRealMatrix(u);
+    }
+
+    /**
+     * Returns the rows permutation.
+     * <p>Element k of the array is the index in the original matrix of row k in P A Q.</p>
+     * @return the rows permutation (or null if decomposed matrix is singular)
+     */
+    public int[] getRowPermutation() {
+        return (rowPermutation == null) ? null : rowPermutation.clone();
+    }
+
+    /**
+     * Returns the columns permutation.
+     * <p>Element k of the array is the index in the original matrix of column k in P A Q.</p>
+     * @return the columns permutation
+     */
+    public int[] getColumnPermutation() {
+        return symbolic.getColumnPermutation();
+    }
+
+    /**
+     * Return the determinant of the matrix
+     * @return determinant of the matrix
+     */
+    public double getDeterminant() {
+        if (u == null) {
+            return 0;
+        }
+        final int[]    pointers = u.getPointers();
+        final double[] values   = u.getValues();
+        double determinant = (isEven(rowPermutation) == isEven(symbolic.columnPermutation)) ? 1 : -1;
+        for (int k = 0; k < symbolic.n; ++k) {
+            determinant *= values[pointers[k + 1] - 1];
+        }
+        return determinant;
+    }
+
+    /**
+     * Get a solver for finding the A &times; X = B solution in exact linear
+     * sense.
+     * @return a solver
+     */
+    public DecompositionSolver getSolver() {
+        return new Solver();
+    }
+
+    /** Check the parity of a permutation.
+     * @param permutation permutation to check
+     * @return true if the permutation is even
+     */
+    private static boolean isEven(final int[] permutation) {
+        final boolean[] visited = new boolean[permutation.length];
+        boolean even = true;
+        for (int i = 0; i < permutation.length; ++i) {
+            if (!visited[i]) {
+                // a cycle of length m is the product of m - 1 transpositions
+                int j = i;
+                while (!visited[j]) {
+                    visited[j] = true;
+                    j = permutation[j];
+                    even = !even;
+                }
+                even = !even;
+            }
+        }
+        return even;
+    }
+
+    /** Non-recursive depth-first search in the graph of the already computed columns of L.
+     * @param start start node (original row index)
+     * @param k index of the current column, used to mark visited nodes
+     * @param lp start of each column of L
+     * @param li row indices of L (original rows)
+     * @param pinv inverse row permutation (original row to pivot index, -1 if not yet pivotal)
+     * @param top current top of the output stack
+     * @param xi output stack, where nodes are stored in topological order
+     * @param stack work stack of nodes
+     * @param pstack work stack of positions in L columns
+     * @param mark marker array (entries equal to k are considered visited)
+     * @return new top of the output stack
+     */
+    private static int depthFirstSearch(final int start, final int k,
+                                        final int[] lp, final int[] li, final int[] pinv,
+                                        final int top, final int[] xi,
+                                        final int[] stack, final int[] pstack, final int[] mark) {
+        int newTop = top;
+        int head   = 0;
+        stack[0] = start;
+        while (head >= 0) {
+            final int j      = stack[head];
+            final int jPivot = pinv[j];
+            if (mark[j] != k) {
+                // first visit of the node
+                mark[j]      = k;
+                pstack[head] = (jPivot < 0) ? 0 : lp[jPivot];
+            }
+            boolean done = true;
+            final int end = (jPivot < 0) ? 0 : lp[jPivot + 1];
+            for (int p = pstack[head]; p < end; ++p) {
+                final int i = li[p];
+                if (mark[i] != k) {
+                    // suspend the search of j and start the search of i
+                    pstack[head]  = p;
+                    stack[++head] = i;
+                    done = false;
+                    break;
+                }
+            }
+            if (done) {
+                // all nodes reachable from j have been output, output j
+                --head;
+                xi[--newTop] = j;
+            }
+        }
+        return newTop;
+    }
+
+    /** Symbolic analysis of a sparse matrix for LU decomposition.
+     * <p>
+     * Instances of this class are immutable and can be shared between
+     * several decompositions, including decompositions computed concurrently.
+     * </p>
+     * @see SparseLUDecomposition#analyze(RealMatrix)
+     * @see SparseLUDecomposition#getSymbolic()
+     */
+    public static class Symbolic {
+
+        /** Dimension of the matrix. */
+        private final int n;
+
+        /** Analyzed pattern, with columns as the major dimension. */
+        private final CompressedStorage pattern;
+
+        /** Columns permutation. */
+        private final int[] columnPermutation;
+
+        /** Perform symbolic analysis.
+         * @param a storage of the matrix, with columns as the major dimension
+         */
+        Symbolic(final CompressedStorage a) {
+            n                 = a.getMajorDimension();
+            pattern           = a;
+            columnPermutation = ApproximateMinimumDegree.order(a);
+        }
+
+        /** Get the dimension of the analyzed matrix.
+         * @return dimension of the analyzed matrix
+         */
+        public int getDimension() {
+            return n;
+        }
+
+        /**
+         * Returns the fill-reducing columns permutation.
+         * <p>Element k of the array is the index in the original matrix of column k in P A Q.</p>
+         * @return fill-reducing columns permutation
+         */
+        public int[] getColumnPermutation() {
+            return columnPermutation.clone();
+        }
+
+        /** Check if a matrix pattern is compatible with this analysis.
+         * <p>
+         * The analysis can be used for any matrix with the same dimension, this
+         * method checks if the ordering is still efficient for the matrix, i.e.
+         * if all its non-zero entries are within the analyzed pattern.
+         * </p>
+         * @param matrix matrix to check
+         * @return true if the matrix has the analyzed dimension and all its
+         * non-zero entries are within the analyzed pattern
+         */
+        public boolean isCompatible(final RealMatrix matrix) {
+            return matrix.getRowDimension() == n && matrix.getColumnDimension() == n &&
+                   isCompatible(SparseCholeskyDecomposition.columnStorage(matrix));
+        }
+
+        /** Check if a matrix pattern is compatible with this analysis.
+         * @param a storage of the matrix, with columns as the major dimension
+         * @return true if the matrix has the analyzed dimension and all its
+         * non-zero entries are within the analyzed pattern
+         */
+        boolean isCompatible(final CompressedStorage a) {
+            return a.getMajorDimension() == n && a.findEntryOutside(pattern) == null;
+        }
+
+    }
+
+    /** Specialized solver. */
+    private class Solver implements DecompositionSolver {
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isNonSingular() {
+            return u != null;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public RealVector solve(final RealVector b) {
+            if (b.getDimension() != symbolic.n) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       b.getDimension(), symbolic.n);
+            }
+            return new ArrayRealVector(solve(b.toArray()), false);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public RealMatrix solve(final RealMatrix b) {
+
+            final int n = symbolic.n;
+            if (b.getRowDimension() != n) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                       b.getRowDimension(), n);
+            }
+
+            final int nColB = b.getColumnDimension();
+            final double[][] x = new double[n][nColB];
+            for (int col = 0; col < nColB; ++col) {
+                final double[] xCol = solve(b.getColumn(col));
+                for (int row = 0; row < n; ++row) {
+                    x[row][col] = xCol[row];
+                }
+            }
+
+            return new Array2DRowRealMatrix(x, false);
+
+        }
+
+        /**
+         * Get the inverse of the decomposed matrix.
+         * <p>
+         * Beware that the inverse of a sparse matrix is generally dense,
+         * it is returned as a dense matrix.
+         * </p>
+         * @return the inverse matrix.
+         * @throws MathIllegalArgumentException if the decomposed matrix is singular.
+         */
+        @Override
+        public RealMatrix getInverse() {
+            return solve(MatrixUtils.createRealIdentityMatrix(symbolic.n));
+        }
+
+        /** Solve A.X = B.
+         * @param b right hand side
+         * @return solution
+         * @throws MathIllegalArgumentException if the decomposed matrix is singular.
+         */
+        private double[] solve(final double[] b) {
+
+            if (u == null) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.SINGULAR_MATRIX);
+            }
+
+            final int      n  = symbolic.n;
+            final int[]    lp = l.getPointers();
+            final int[]    li = l.getIndices();
+            final double[] lx = l.getValues();
+            final int[]    up = u.getPointers();
+            final int[]    ui = u.getIndices();
+            final double[] ux = u.getValues();
+
+            // permute right hand side
+            final double[] y = new double[n];
+            for (int k = 0; k < n; ++k) {
+                y[k] = b[rowPermutation[k]];
+            }
+
+            // solve L.Z = P.B (unit diagonal is the first entry of each column)
+            for (int j = 0; j < n; ++j) {
+                final double yJ = y[j];
+                for (int p = lp[j] + 1; p < lp[j + 1]; ++p) {
+                    y[li[p]] -= lx[p] * yJ;
+                }
+            }
+
+            // solve U.W = Z (diagonal is the last entry of each column)
+            for (int j = n - 1; j >= 0; --j) {
+                final double yJ = y[j] / ux[up[j + 1] - 1];
+                y[j] = yJ;
+                for (int p = up[j]; p < up[j + 1] - 1; ++p) {
+                    y[ui[p]] -= ux[p] * yJ;
+                }
+            }
+
+            // permute back solution
+            final double[] x = new double[n];
+            for (int k = 0; k < n; ++k) {
+                x[symbolic.columnPermutation[k]] = y[k];
+            }
+            return x;
+
+        }
+
+    }
+
+}
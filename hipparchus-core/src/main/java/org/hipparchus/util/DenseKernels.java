@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.util;
+
+/**
+ * Low level kernels for dense arrays of doubles.
+ * <p>
+ * This class gathers the innermost loops of dense vectors and matrices
+ * operations, so they can be implemented using platform-specific
+ * features. Hipparchus is distributed as a multi-release jar: when running
+ * on Java 17 or above with the incubating Vector API module enabled (i.e.
+ * when the JVM is started with {@code --add-modules jdk.incubator.vector}),
+ * an implementation using explicit SIMD instructions is selected at class
+ * loading time. In all other cases, the plain Java 8 implementation is used.
+ * Callers like {@link MathArrays#linearCombination(double[], double[])},
+ * {@code ArrayRealVector} or {@code BlockRealMatrix} dispatch to these kernels
+ * transparently.
+ * </p>
+ * <p>
+ * The plain Java 8 implementation performs exactly the same operations in
+ * the same order as the historical code of the callers, so results are
+ * unchanged when SIMD instructions are not available. The SIMD implementation
+ * changes the summation order in reductions (and uses fused multiply-add), so
+ * results may differ in the last bits, except for {@link #combine(double, double[],
+ * double, double[], double[], int) combine} which is element-wise and is therefore
+ * reproducible. The accuracy properties of {@link #accurateDotProduct(double[],
+ * double[], int) accurateDotProduct} are preserved by both implementations.
+ * </p>
+ * <p>
+ * No dimension checks are performed by these methods: callers must ensure
+ * the arrays are large enough.
+ * </p>
+ * @since 1.7
+ */
+public final class DenseKernels {
+
+    /** Name of the class providing SIMD kernels (only available in the Java 17 part of the multi-release jar). */
+    private static final String VECTOR_KERNELS = "org.hipparchus.util.VectorKernels";
+
+    /** Selected implementation. */
+    private static final Kernels KERNELS = selectKernels();
+
+    /** Private constructor for a utility class.
+     */
+    private DenseKernels() {
+    }
+
+    /** Select the kernels implementation.
+     * @return SIMD kernels if available, plain Java kernels otherwise
+     */
+    private static Kernels selectKernels() {
+        try {
+            return (Kernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // either we run on an older JVM, or the jdk.incubator.vector
+            // module is not enabled, or the platform has no SIMD support
+            return new ScalarKernels();
+        }
+    }
+
+    /** Check if SIMD kernels are used.
+     * @return true if SIMD kernels are used, false if plain Java kernels are used
+     */
+    public static boolean isVectorized() {
+        return KERNELS.getClass() != ScalarKernels.class;
+    }
+
+    /** Compute the dot product of two arrays slices.
+     * @param a first array
+     * @param aStart index of the first element in the first array
+     * @param b second array
+     * @param bStart index of the first element in the second array
+     * @param length number of elements in the slices
+     * @return &sum; a[aStart + i] &times; b[bStart + i]
+     */
+    public static double dotProduct(final double[] a, final int aStart,
+                                    final double[] b, final int bStart,
+                                    final int length) {
+        return KERNELS.dotProduct(a, aStart, b, bStart, length);
+    }
+
+    /** Compute the dot product of two arrays accurately.
+     * <p>
+     * The result is computed as if it was computed with twice the working precision
+     * and then rounded, using the algorithm from the 2005 paper <a
+     * href="http://citeseerx.ist.psu.edu/viewdoc/summary?doi=10.1.1.2.1547">
+     * Accurate Sum and Dot Product</a> by Takeshi Ogita, Siegfried M. Rump,
+     * and Shin'ichi Oishi published in SIAM J. Sci. Comput.
+     * </p>
+     * <p>
+     * Special values (infinities and NaN) are not handled specifically, they
+     * generally lead to a NaN result, see {@link MathArrays#linearCombination(double[], double[])}
+     * for a method that handles them.
+     * </p>
+     * @param a first array
+     * @param b second array
+     * @param length number of elements to use (starting from index 0)
+     * @return &sum; a[i] &times; b[i]
+     */
+    public static double accurateDotProduct(final double[] a, final double[] b, final int length) {
+        return KERNELS.accurateDotProduct(a, b, length);
+    }
+
+    /** Compute a linear combination of two arrays.
+     * @param a coefficient of the first array
+     * @param x first array
+     * @param b coefficient of the second array
+     * @param y second array
+     * @param result placeholder for the result (may be the same array as {@code x} or {@code y})
+     * @param length number of elements to use (starting from index 0)
+     */
+    public static void combine(final double a, final double[] x, final double b, final double[] y,
+                               final double[] result, final int length) {
+        KERNELS.combine(a, x, b, y, result, length);
+    }
+
+    /** Accumulate the product of two matrices stored in row major arrays.
+     * <p>
+     * This method computes C += A &times; B where A is a rows &times; inner
+     * matrix, B is an inner &times; columns matrix and C is a rows &times;
+     * columns matrix, all stored in row major order.
+     * </p>
+     * @param a entries of matrix A
+     * @param b entries of matrix B
+     * @param c entries of matrix C (updated in place)
+     * @param rows number of rows of A and C
+     * @param inner number of columns of A and rows of B
+     * @param columns number of columns of B and C
+     */
+    public static void matrixMultiplyAdd(final double[] a, final double[] b, final double[] c,
+                                         final int rows, final int inner, final int columns) {
+        KERNELS.matrixMultiplyAdd(a, b, c, rows, inner, columns);
+    }
+
+    /** Accumulate the product of a matrix stored in a row major array by a vector slice.
+     * <p>
+     * This method computes y[yStart + p] += &sum; A[p][q] &times; x[xStart + q]
+     * where A is a rows &times; columns matrix stored in row major order.
+     * </p>
+     * @param a entries of matrix A
+     * @param rows number of rows of A
+     * @param columns number of columns of A
+     * @param x vector to multiply
+     * @param xStart index of the first element of the slice in the vector to multiply
+     * @param y vector to update in place
+     * @param yStart index of the first element of the slice in the vector to update
+     */
+    public static void matrixVectorMultiplyAdd(final double[] a, final int rows, final int columns,
+                                               final double[] x, final int xStart,
+                                               final double[] y, final int yStart) {
+        KERNELS.matrixVectorMultiplyAdd(a, rows, columns, x, xStart, y, yStart);
+    }
+
+    /** Interface for kernels implementations. */
+    interface Kernels {
+
+        /** Compute the dot product of two arrays slices.
+         * @param a first array
+         * @param aStart index of the first element in the first array
+         * @param b second array
+         * @param bStart index of the first element in the second array
+         * @param length number of elements in the slices
+         * @return dot product
+         */
+        double dotProduct(double[] a, int aStart, double[] b, int bStart, int length);
+
+        /** Compute the dot product of two arrays accurately.
+         * @param a first array
+         * @param b second array
+         * @param length number of elements to use
+         * @return dot product
+         */
+        double accurateDotProduct(double[] a, double[] b, int length);
+
+        /** Compute a linear combination of two arrays.
+         * @param a coefficient of the first array
+         * @param x first array
+         * @param b coefficient of the second array
+         * @param y second array
+         * @param result placeholder for the result
+         * @param length number of elements to use
+         */
+        void combine(double a, double[] x, double b, double[] y, double[] result, int length);
+
+        /** Accumulate the product of two matrices stored in row major arrays.
+         * @param a entries of matrix A
+         * @param b entries of matrix B
+         * @param c entries of matrix C (updated in place)
+         * @param rows number of rows of A and C
+         * @param inner number of columns of A and rows of B
+         * @param columns number of columns of B and C
+         */
+        void matrixMultiplyAdd(double[] a, double[] b, double[] c, int rows, int inner, int columns);
+
+        /** Accumulate the product of a matrix stored in a row major array by a vector slice.
+         * @param a entries of matrix A
+         * @param rows number of rows of A
+         * @param columns number of columns of A
+         * @param x vector to multiply
+         * @param xStart index of the first element of the slice in the vector to multiply
+         * @param y vector to update in place
+         * @param yStart index of the first element of the slice in the vector to update
+         */
+        void matrixVectorMultiplyAdd(double[] a, int rows, int columns,
+                                     double[] x, int xStart, double[] y, int yStart);
+
+    }
+
+    /** Plain Java kernels. */
+    static class ScalarKernels implements Kernels {
+
+        /** {@inheritDoc} */
+        @Override
+        public double dotProduct(final double[] a, final int aStart,
+                                 final double[] b, final int bStart,
+                                 final int length) {
+            double dot = 0;
+            for (int i = 0; i < length; i++) {
+                dot += a[aStart + i] * b[bStart + i];
+            }
+            return dot;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public double accurateDotProduct(final double[] a, final double[] b, final int length) {
+
+            double prodLowSum = 0;
+            double sHigh      = 0;
+            double sLowSum    = 0;
+            for (int i = 0; i < length; i++) {
+
+                // exact product, using Dekker's splitting
+                final double ai    = a[i];
+                final double aHigh = Double.longBitsToDouble(Double.doubleToRawLongBits(ai) & ((-1L) << 27));
+                final double aLow  = ai - aHigh;
+
+                final double bi    = b[i];
+                final double bHigh = Double.longBitsToDouble(Double.doubleToRawLongBits(bi) & ((-1L) << 27));
+                final double bLow  = bi - bHigh;
+                final double prodHigh = ai * bi;
+                final double prodLow  = aLow * bLow - (((prodHigh -
+                                                         aHigh * bHigh) -
+                                                        aLow * bHigh) -
+                                                       aHigh * bLow);
+                prodLowSum += prodLow;
+
+                // exact sum, using Knuth's algorithm
+                final double sHighCur = sHigh + prodHigh;
+                final double sPrime   = sHighCur - prodHigh;
+                sLowSum += (prodHigh - (sHighCur - sPrime)) + (sHigh - sPrime);
+                sHigh    = sHighCur;
+
+            }
+
+            return sHigh + (prodLowSum + sLowSum);
+
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void combine(final double a, final double[] x, final double b, final double[] y,
+                            final double[] result, final int length) {
+            for (int i = 0; i < length; i++) {
+                result[i] = a * x[i] + b * y[i];
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void matrixMultiplyAdd(final double[] a, final double[] b, final double[] c,
+                                      final int rows, final int inner, final int columns) {
+            final int columns2 = columns  + columns;
+            final int columns3 = columns2 + columns;
+            final int columns4 = columns3 + columns;
+            int k = 0;
+            for (int p = 0; p < rows; ++p) {
+                final int lStart = p * inner;
+                final int lEnd   = lStart + inner;
+                for (int nStart = 0; nStart < columns; ++nStart) {
+                    double sum = 0;
+                    int l = lStart;
+                    int n = nStart;
+                    while (l < lEnd - 3) {
+                        sum += a[l]     * b[n] +
+                               a[l + 1] * b[n + columns] +
+                               a[l + 2] * b[n + columns2] +
+                               a[l + 3] * b[n + columns3];
+                        l += 4;
+                        n += columns4;
+                    }
+                    while (l < lEnd) {
+                        sum += a[l++] * b[n];
+                        n += columns;
+                    }
+                    c[k] += sum;
+                    ++k;
+                }
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void matrixVectorMultiplyAdd(final double[] a, final int rows, final int columns,
+                                            final double[] x, final int xStart,
+                                            final double[] y, final int yStart) {
+            final int xEnd = xStart + columns;
+            int k = 0;
+            for (int p = 0; p < rows; ++p) {
+                double sum = 0;
+                int q = xStart;
+                while (q < xEnd - 3) {
+                    sum += a[k]     * x[q]     +
+                           a[k + 1] * x[q + 1] +
+                           a[k + 2] * x[q + 2] +
+                           a[k + 3] * x[q + 3];
+                    k += 4;
+                    q += 4;
+                }
+                while (q < xEnd) {
+                    sum += a[k++] * x[q++];
+                }
+                y[yStart + p] += sum;
+            }
+        }
+
+    }
+
+}
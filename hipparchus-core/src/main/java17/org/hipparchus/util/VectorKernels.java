@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD kernels for dense arrays of doubles, based on the incubating Vector API.
+ * <p>
+ * This class is compiled only in the Java 17 part of the multi-release jar and is
+ * loaded reflectively by {@link DenseKernels}, which falls back to the plain Java
+ * kernels if the {@code jdk.incubator.vector} module is not enabled. Short arrays,
+ * for which SIMD does not pay off, are delegated to the plain Java kernels.
+ * </p>
+ * @since 1.7
+ */
+final class VectorKernels extends DenseKernels.ScalarKernels {
+
+    /** Preferred species for the platform. */
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /** Number of lanes. */
+    private static final int LANES = SPECIES.length();
+
+    /** Simple constructor.
+     * @exception IllegalStateException if the platform does not support SIMD
+     */
+    VectorKernels() {
+        if (LANES < 2) {
+            throw new IllegalStateException();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double dotProduct(final double[] a, final int aStart,
+                             final double[] b, final int bStart,
+                             final int length) {
+
+        if (length < 2 * LANES) {
+            return super.dotProduct(a, aStart, b, bStart, length);
+        }
+
+        // two independent accumulators hide the latency of fused multiply-add
+        DoubleVector acc0 = DoubleVector.zero(SPECIES);
+        DoubleVector acc1 = DoubleVector.zero(SPECIES);
+        final int bound2 = length - length % (2 * LANES);
+        int i = 0;
+        for (; i < bound2; i += 2 * LANES) {
+            acc0 = DoubleVector.fromArray(SPECIES, a, aStart + i).
+                   fma(DoubleVector.fromArray(SPECIES, b, bStart + i), acc0);
+            acc1 = DoubleVector.fromArray(SPECIES, a, aStart + i + LANES).
+                   fma(DoubleVector.fromArray(SPECIES, b, bStart + i + LANES), acc1);
+        }
+        double dot = acc0.add(acc1).reduceLanes(VectorOperators.ADD);
+        for (; i < length; ++i) {
+            dot += a[aStart + i] * b[bStart + i];
+        }
+        return dot;
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double accurateDotProduct(final double[] a, final double[] b, final int length) {
+
+        if (length < 2 * LANES) {
+            return super.accurateDotProduct(a, b, length);
+        }
+
+        // each lane accumulates its own error-free transformations
+        DoubleVector sHigh = DoubleVector.zero(SPECIES);
+        DoubleVector sLow  = DoubleVector.zero(SPECIES);
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            final DoubleVector va = DoubleVector.fromArray(SPECIES, a, i);
+            final DoubleVector vb = DoubleVector.fromArray(SPECIES, b, i);
+
+            // exact product, using fused multiply-add
+            final DoubleVector prodHigh = va.mul(vb);
+            final DoubleVector prodLow  = va.fma(vb, prodHigh.neg());
+
+            // exact sum, using Knuth's algorithm
+            final DoubleVector sHighCur = sHigh.add(prodHigh);
+            final DoubleVector sPrime   = sHighCur.sub(prodHigh);
+            sLow  = sLow.add(prodHigh.sub(sHighCur.sub(sPrime)).add(sHigh.sub(sPrime))).add(prodLow);
+            sHigh = sHighCur;
+        }
+
+        // merge lanes, still using error-free transformations
+        double high = 0;
+        double low  = sLow.reduceLanes(VectorOperators.ADD);
+        for (int lane = 0; lane < LANES; ++lane) {
+            final double term     = sHigh.lane(lane);
+            final double highCur  = high + term;
+            final double prime    = highCur - term;
+            low  += (term - (highCur - prime)) + (high - prime);
+            high  = highCur;
+        }
+
+        // remaining elements
+        for (; i < length; ++i) {
+            final double prodHigh = a[i] * b[i];
+            final double prodLow  = Math.fma(a[i], b[i], -prodHigh);
+            final double highCur  = high + prodHigh;
+            final double prime    = highCur - prodHigh;
+            low  += (prodHigh - (highCur - prime)) + (high - prime) + prodLow;
+            high  = highCur;
+        }
+
+        return high + low;
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void combine(final double a, final double[] x, final double b, final double[] y,
+                        final double[] result, final int length) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            // no fused multiply-add here, so results are identical to plain Java
+            DoubleVector.fromArray(SPECIES, x, i).mul(a).
+            add(DoubleVector.fromArray(SPECIES, y, i).mul(b)).
+            intoArray(result, i);
+        }
+        for (; i < length; ++i) {
+            result[i] = a * x[i] + b * y[i];
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void matrixMultiplyAdd(final double[] a, final double[] b, final double[] c,
+                                  final int rows, final int inner, final int columns) {
+
+        if (columns < LANES) {
+            super.matrixMultiplyAdd(a, b, c, rows, inner, columns);
+            return;
+        }
+
+        final int bound  = SPECIES.loopBound(columns);
+        final int bound2 = columns - columns % (2 * LANES);
+        for (int p = 0; p < rows; ++p) {
+            final int aRow = p * inner;
+            final int cRow = p * columns;
+
+            // two vectors of the output row at a time, sharing the broadcast of A entries
+            int j = 0;
+            for (; j < bound2; j += 2 * LANES) {
+                DoubleVector acc0 = DoubleVector.fromArray(SPECIES, c, cRow + j);
+                DoubleVector acc1 = DoubleVector.fromArray(SPECIES, c, cRow + j + LANES);
+                int n = j;
+                for (int l = 0; l < inner; ++l) {
+                    final DoubleVector al = DoubleVector.broadcast(SPECIES, a[aRow + l]);
+                    acc0 = al.fma(DoubleVector.fromArray(SPECIES, b, n), acc0);
+                    acc1 = al.fma(DoubleVector.fromArray(SPECIES, b, n + LANES), acc1);
+                    n += columns;
+                }
+                acc0.intoArray(c, cRow + j);
+                acc1.intoArray(c, cRow + j + LANES);
+            }
+
+            // remaining full vector
+            for (; j < bound; j += LANES) {
+                DoubleVector acc = DoubleVector.fromArray(SPECIES, c, cRow + j);
+                int n = j;
+                for (int l = 0; l < inner; ++l) {
+                    acc = DoubleVector.broadcast(SPECIES, a[aRow + l]).
+                          fma(DoubleVector.fromArray(SPECIES, b, n), acc);
+                    n += columns;
+                }
+                acc.intoArray(c, cRow + j);
+            }
+
+            // remaining columns
+            for (; j < columns; ++j) {
+                double sum = 0;
+                int n = j;
+                for (int l = 0; l < inner; ++l) {
+                    sum += a[aRow + l] * b[n];
+                    n += columns;
+                }
+                c[cRow + j] += sum;
+            }
+
+        }
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void matrixVectorMultiplyAdd(final double[] a, final int rows, final int columns,
+                                        final double[] x, final int xStart,
+                                        final double[] y, final int yStart) {
+        if (columns < 2 * LANES) {
+            super.matrixVectorMultiplyAdd(a, rows, columns, x, xStart, y, yStart);
+            return;
+        }
+        for (int p = 0; p < rows; ++p) {
+            y[yStart + p] += dotProduct(a, p * columns, x, xStart, columns);
+        }
+    }
+
+}
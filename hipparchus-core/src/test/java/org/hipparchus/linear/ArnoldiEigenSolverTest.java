@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.Arrays;
+
+import org.hipparchus.complex.Complex;
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArnoldiEigenSolverTest {
+
+    @Test
+    public void testRotationBlocks() {
+
+        // block diagonal matrix with 2x2 blocks r (cos t, sin t; -sin t, cos t),
+        // the three first blocks having the largest radii
+        final int blocks = 150;
+        final OpenMapRealMatrix a = new OpenMapRealMatrix(2 * blocks, 2 * blocks);
+        for (int b = 0; b < blocks; ++b) {
+            final double r = radius(b);
+            final double t = 0.1 + 0.01 * b;
+            a.setEntry(2 * b,     2 * b,      r * FastMath.cos(t));
+            a.setEntry(2 * b,     2 * b + 1,  r * FastMath.sin(t));
+            a.setEntry(2 * b + 1, 2 * b,     -r * FastMath.sin(t));
+            a.setEntry(2 * b + 1, 2 * b + 1,  r * FastMath.cos(t));
+        }
+
+        final PartialComplexEigenDecomposition ped = new ArnoldiEigenSolver(100, 1.0e-12).solve(a, 5);
+        Assert.assertEquals(5, ped.getNumberOfEigenpairs());
+        Assert.assertTrue(ped.hasComplexEigenvalues());
+        for (int i = 0; i < 5; ++i) {
+            final Complex lambda = ped.getEigenvalue(i);
+            final int b    = 2 - i / 2;
+            final double r = radius(b);
+            final double t = 0.1 + 0.01 * b;
+            Assert.assertEquals(r, lambda.abs(), 1.0e-10 * r);
+            Assert.assertEquals(r * FastMath.cos(t), lambda.getReal(), 1.0e-10 * r);
+            // the eigenvalue with positive imaginary part comes first
+            Assert.assertEquals((i % 2 == 0 ? 1 : -1) * r * FastMath.sin(t), lambda.getImaginary(), 1.0e-10 * r);
+        }
+        checkEigenpairs(a, ped, 1.0e-10);
+
+    }
+
+    @Test
+    public void testAgainstEigenDecomposition() {
+        final RandomGenerator random = new Well19937a(0x7c2d51e0a94b3f86L);
+        final int n = 200;
+        final Array2DRowRealMatrix a = new Array2DRowRealMatrix(n, n);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                a.setEntry(i, j, random.nextGaussian());
+            }
+            // a few isolated eigenvalues outside of the circular law disk
+            a.addToEntry(i, i, i < 4 ? 30.0 + 5 * i : 0.0);
+        }
+
+        final PartialComplexEigenDecomposition ped = new ArnoldiEigenSolver(200, 1.0e-12).solve(a, 4);
+        final EigenDecomposition ed = new EigenDecomposition(a);
+        final Complex[] reference = new Complex[n];
+        for (int i = 0; i < n; ++i) {
+            reference[i] = new Complex(ed.getRealEigenvalue(i), ed.getImagEigenvalue(i));
+        }
+        Arrays.sort(reference, (c1, c2) -> Double.compare(c2.abs(), c1.abs()));
+        for (int i = 0; i < 4; ++i) {
+            Assert.assertEquals(reference[i].abs(), ped.getEigenvalue(i).abs(), 1.0e-10 * reference[0].abs());
+            Assert.assertEquals(reference[i].getReal(), ped.getEigenvalue(i).getReal(), 1.0e-10 * reference[0].abs());
+            Assert.assertEquals(FastMath.abs(reference[i].getImaginary()),
+                                FastMath.abs(ped.getEigenvalue(i).getImaginary()),
+                                1.0e-10 * reference[0].abs());
+        }
+        checkEigenpairs(a, ped, 1.0e-10);
+    }
+
+    @Test
+    public void testSymmetricSameAsLanczos() {
+        final OpenMapRealMatrix a = SparseCholeskyDecompositionTest.randomSPD(300, 0.02, 0x44b1e9a07d3c5f28L);
+        final PartialComplexEigenDecomposition arnoldi = new ArnoldiEigenSolver(100, 1.0e-12).solve(a, 6);
+        final PartialEigenDecomposition lanczos = new LanczosEigenSolver(100, 1.0e-12).solve(a, 6);
+        Assert.assertFalse(arnoldi.hasComplexEigenvalues());
+        for (int i = 0; i < 6; ++i) {
+            Assert.assertEquals(lanczos.getEigenvalue(i), arnoldi.getEigenvalue(i).getReal(),
+                                1.0e-10 * lanczos.getEigenvalue(0));
+        }
+        checkEigenpairs(a, arnoldi, 1.0e-10);
+    }
+
+    @Test
+    public void testRestartsExhausted() {
+        try {
+            new ArnoldiEigenSolver(0, 1.0e-14).solve(LanczosEigenSolverTest.laplacian1D(500), 5);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalStateException mise) {
+            Assert.assertEquals(LocalizedCoreFormats.MAX_COUNT_EXCEEDED, mise.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testNonSquare() {
+        try {
+            new ArnoldiEigenSolver(10, 1.0e-10).solve(new Array2DRowRealMatrix(3, 4), 1);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NON_SQUARE_OPERATOR, miae.getSpecifier());
+        }
+    }
+
+    private void checkEigenpairs(final RealLinearOperator a, final PartialComplexEigenDecomposition ped,
+                                 final double tolerance) {
+        final double scale = ped.getEigenvalue(0).abs();
+        for (int i = 0; i < ped.getNumberOfEigenpairs(); ++i) {
+            final Complex lambda = ped.getEigenvalue(i);
+            final Complex[] z = ped.getEigenvector(i).toArray();
+            final RealVector x = new ArrayRealVector(z.length);
+            final RealVector y = new ArrayRealVector(z.length);
+            for (int l = 0; l < z.length; ++l) {
+                x.setEntry(l, z[l].getReal());
+                y.setEntry(l, z[l].getImaginary());
+            }
+            Assert.assertEquals(1.0, FastMath.hypot(x.getNorm(), y.getNorm()), 1.0e-12);
+            // A (x + i y) = (a + i b) (x + i y)
+            final double re = lambda.getReal();
+            final double im = lambda.getImaginary();
+            Assert.assertEquals(0.0, a.operate(x).subtract(x.mapMultiply(re)).add(y.mapMultiply(im)).getNorm(),
+                                tolerance * scale);
+            Assert.assertEquals(0.0, a.operate(y).subtract(y.mapMultiply(re)).subtract(x.mapMultiply(im)).getNorm(),
+                                tolerance * scale);
+        }
+    }
+
+    private double radius(final int block) {
+        return block < 3 ? 200.0 + 100.0 * block : 1.0 + 0.5 * block;
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.NullArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
+import org.hipparchus.util.FastMath;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BlockCholeskyDecompositionTest {
+
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testNonSquare() {
+        try {
+            new BlockCholeskyDecomposition(new BlockRealMatrix(3, 2), pool);
+            Assert.fail("Expecting MathIllegalArgumentException");
+        } catch (MathIllegalArgumentException ime) {
+            Assert.assertEquals(LocalizedCoreFormats.NON_SQUARE_MATRIX, ime.getSpecifier());
+        }
+    }
+
+    @Test(expected=NullArgumentException.class)
+    public void testNullPool() {
+        new BlockCholeskyDecomposition(new BlockRealMatrix(3, 3), null);
+    }
+
+    @Test
+    public void testNotSymmetric() {
+        final BlockRealMatrix a = createSPDMatrix(new Well1024a(0x6c2e4a8f1b3d5970l), 80);
+        a.addToEntry(7, 63, 1.0e-3);
+        try {
+            new BlockCholeskyDecomposition(a, pool);
+            Assert.fail("Expecting MathIllegalArgumentException");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NON_SYMMETRIC_MATRIX, miae.getSpecifier());
+            Assert.assertEquals( 7, ((Integer) miae.getParts()[0]).intValue());
+            Assert.assertEquals(63, ((Integer) miae.getParts()[1]).intValue());
+        }
+    }
+
+    @Test
+    public void testNotPositiveDefinite() {
+        final BlockRealMatrix a = createSPDMatrix(new Well1024a(0x2b4d6f8a0c1e3579l), 90);
+        a.setEntry(70, 70, -1.0);
+        try {
+            new BlockCholeskyDecomposition(a, pool);
+            Assert.fail("Expecting MathIllegalArgumentException");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NOT_POSITIVE_DEFINITE_MATRIX, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testAEqualLLT() {
+        RandomGenerator random = new Well1024a(0x8d3f5b7e9a1c2460l);
+        for (int n : new int[] { 1, 2, 17, 51, 52, 53, 150, 213 }) {
+            final BlockRealMatrix a = createSPDMatrix(random, n);
+            final BlockCholeskyDecomposition cholesky = new BlockCholeskyDecomposition(a, pool);
+            final RealMatrix l  = cholesky.getL();
+            final RealMatrix lT = cholesky.getLT();
+            Assert.assertEquals(0, l.multiply(lT).subtract(a).getNorm1(), 1.0e-13 * n * a.getNorm1());
+            for (int i = 0; i < n; ++i) {
+                for (int j = i + 1; j < n; ++j) {
+                    Assert.assertEquals(0.0, l.getEntry(i, j), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSameAsUnblocked() {
+        RandomGenerator random = new Well1024a(0x5e7a9c1b3d2f4068l);
+        for (int n : new int[] { 5, 60, 130 }) {
+            final BlockRealMatrix a = createSPDMatrix(random, n);
+            final BlockCholeskyDecomposition blocked   = new BlockCholeskyDecomposition(a, pool);
+            final CholeskyDecomposition      unblocked = new CholeskyDecomposition(a);
+            Assert.assertEquals(unblocked.getDeterminant(), blocked.getDeterminant(),
+                                1.0e-10 * FastMath.abs(unblocked.getDeterminant()));
+            Assert.assertEquals(0, unblocked.getL().subtract(blocked.getL()).getNorm1(), 1.0e-12 * n);
+        }
+    }
+
+    @Test
+    public void testSolve() {
+        RandomGenerator random = new Well1024a(0x1a3c5e7f9b2d4860l);
+        for (int n : new int[] { 3, 52, 180 }) {
+            final BlockRealMatrix a = createSPDMatrix(random, n);
+            final DecompositionSolver solver = new BlockCholeskyDecomposition(a, pool).getSolver();
+            Assert.assertTrue(solver.isNonSingular());
+
+            final RealVector b = new ArrayRealVector(n);
+            for (int i = 0; i < n; ++i) {
+                b.setEntry(i, random.nextDouble());
+            }
+            Assert.assertEquals(0, a.operate(solver.solve(b)).subtract(b).getNorm(), 1.0e-12 * n);
+
+            final RealMatrix bm = createSPDMatrix(random, n).getSubMatrix(0, n - 1, 0, (n + 1) / 2);
+            Assert.assertEquals(0, a.multiply(solver.solve(bm)).subtract(bm).getNorm1(), 1.0e-12 * n * n);
+
+            final RealMatrix inverse = solver.getInverse();
+            Assert.assertEquals(0,
+                                a.multiply(inverse).subtract(MatrixUtils.createRealIdentityMatrix(n)).getNorm1(),
+                                1.0e-12 * n);
+        }
+    }
+
+    @Test
+    public void testSolveDimensionErrors() {
+        final DecompositionSolver solver =
+                        new BlockCholeskyDecomposition(createSPDMatrix(new Well1024a(0x1l), 4), pool).getSolver();
+        try {
+            solver.solve(new ArrayRealVector(3));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+        try {
+            solver.solve(new BlockRealMatrix(3, 2));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testDecomposer() {
+        final BlockRealMatrix a = createSPDMatrix(new Well1024a(0x4d6f8a1c3e5b7092l), 100);
+        final RealVector b = new ArrayRealVector(100, 1.0);
+        final RealVector sequential = new CholeskyDecomposer(1.0e-15, 1.0e-10).decompose(a).solve(b);
+        final RealVector parallel   = new CholeskyDecomposer(1.0e-15, 1.0e-10, pool).decompose(a).solve(b);
+        Assert.assertEquals(0, sequential.subtract(parallel).getNorm(), 1.0e-12);
+        // non-block matrices are handled by the regular decomposition
+        final RealVector array = new CholeskyDecomposer(1.0e-15, 1.0e-10, pool).
+                                 decompose(new Array2DRowRealMatrix(a.getData())).solve(b);
+        Assert.assertEquals(0, sequential.subtract(array).getNorm(), 0.0);
+    }
+
+    private BlockRealMatrix createSPDMatrix(final RandomGenerator random, final int n) {
+        final BlockRealMatrix m = new BlockRealMatrix(n, n);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                m.setEntry(i, j, 2 * random.nextDouble() - 1);
+            }
+        }
+        final BlockRealMatrix spd = m.transposeMultiply(m);
+        for (int i = 0; i < n; ++i) {
+            spd.addToEntry(i, i, 1.0);
+        }
+        return spd;
+    }
+
+}
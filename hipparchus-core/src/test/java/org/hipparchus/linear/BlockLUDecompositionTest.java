@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.NullArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
+import org.hipparchus.util.FastMath;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BlockLUDecompositionTest {
+
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testNonSquare() {
+        try {
+            new BlockLUDecomposition(new BlockRealMatrix(3, 2), pool);
+            Assert.fail("Expecting MathIllegalArgumentException");
+        } catch (MathIllegalArgumentException ime) {
+            Assert.assertEquals(LocalizedCoreFormats.NON_SQUARE_MATRIX, ime.getSpecifier());
+        }
+    }
+
+    @Test(expected=NullArgumentException.class)
+    public void testNullPool() {
+        new BlockLUDecomposition(new BlockRealMatrix(3, 3), null);
+    }
+
+    @Test
+    public void testPAEqualLU() {
+        RandomGenerator random = new Well1024a(0x4a8d3c9b2e7f1065l);
+        for (int n : new int[] { 1, 2, 17, 51, 52, 53, 150, 213 }) {
+            final BlockRealMatrix a = createRandomMatrix(random, n);
+            final BlockLUDecomposition lu = new BlockLUDecomposition(a, pool);
+            final RealMatrix l = lu.getL();
+            final RealMatrix u = lu.getU();
+            final RealMatrix p = lu.getP();
+            Assert.assertEquals(0, l.multiply(u).subtract(p.multiply(a)).getNorm1(), 1.0e-13 * n);
+            for (int i = 0; i < n; ++i) {
+                Assert.assertEquals(1.0, l.getEntry(i, i), 0.0);
+                for (int j = i + 1; j < n; ++j) {
+                    Assert.assertEquals(0.0, l.getEntry(i, j), 0.0);
+                    Assert.assertEquals(0.0, u.getEntry(j, i), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSameAsUnblocked() {
+        RandomGenerator random = new Well1024a(0x7b2e58c1d9a3f460l);
+        for (int n : new int[] { 5, 60, 130 }) {
+            final BlockRealMatrix a = createRandomMatrix(random, n);
+            final BlockLUDecomposition blocked   = new BlockLUDecomposition(a, pool);
+            final LUDecomposition      unblocked = new LUDecomposition(a);
+            Assert.assertArrayEquals(unblocked.getPivot(), blocked.getPivot());
+            Assert.assertEquals(unblocked.getDeterminant(), blocked.getDeterminant(),
+                                1.0e-10 * FastMath.abs(unblocked.getDeterminant()));
+            Assert.assertEquals(0, unblocked.getL().subtract(blocked.getL()).getNorm1(), 1.0e-12 * n);
+            Assert.assertEquals(0, unblocked.getU().subtract(blocked.getU()).getNorm1(), 1.0e-12 * n);
+        }
+    }
+
+    @Test
+    public void testSolve() {
+        RandomGenerator random = new Well1024a(0x2c7f9e3a5b1d8046l);
+        for (int n : new int[] { 3, 52, 180 }) {
+            final BlockRealMatrix a = createRandomMatrix(random, n);
+            final DecompositionSolver solver = new BlockLUDecomposition(a, pool).getSolver();
+            Assert.assertTrue(solver.isNonSingular());
+
+            final RealVector b = new ArrayRealVector(n);
+            for (int i = 0; i < n; ++i) {
+                b.setEntry(i, random.nextDouble());
+            }
+            Assert.assertEquals(0, a.operate(solver.solve(b)).subtract(b).getNorm(), 1.0e-12 * n);
+
+            final RealMatrix bm = createRandomMatrix(random, n).getSubMatrix(0, n - 1, 0, (n + 1) / 2);
+            Assert.assertEquals(0, a.multiply(solver.solve(bm)).subtract(bm).getNorm1(), 1.0e-12 * n);
+
+            final RealMatrix inverse = solver.getInverse();
+            Assert.assertEquals(0,
+                                a.multiply(inverse).subtract(MatrixUtils.createRealIdentityMatrix(n)).getNorm1(),
+                                1.0e-12 * n);
+        }
+    }
+
+    @Test
+    public void testSolveDimensionErrors() {
+        final DecompositionSolver solver =
+                        new BlockLUDecomposition(createRandomMatrix(new Well1024a(0x1l), 4), pool).getSolver();
+        try {
+            solver.solve(new ArrayRealVector(3));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+        try {
+            solver.solve(new BlockRealMatrix(3, 2));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testSingular() {
+        final int n = 120;
+        final BlockRealMatrix a = createRandomMatrix(new Well1024a(0x9e1d4b7c3a6f2058l), n);
+        // last row is the sum of the first two rows
+        a.setRow(n - 1, a.getRowVector(0).add(a.getRowVector(1)).toArray());
+        final BlockLUDecomposition lu = new BlockLUDecomposition(a, pool);
+        Assert.assertFalse(lu.getSolver().isNonSingular());
+        Assert.assertEquals(0.0, lu.getDeterminant(), 0.0);
+        Assert.assertNull(lu.getL());
+        Assert.assertNull(lu.getU());
+        Assert.assertNull(lu.getP());
+        try {
+            lu.getSolver().solve(new ArrayRealVector(n));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.SINGULAR_MATRIX, miae.getSpecifier());
+        }
+        try {
+            lu.getSolver().solve(new BlockRealMatrix(n, 2));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.SINGULAR_MATRIX, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testDecomposer() {
+        final RandomGenerator random = new Well1024a(0x3f5a7c9e1b2d4068l);
+        final BlockRealMatrix a = createRandomMatrix(random, 100);
+        final RealVector b = new ArrayRealVector(100, 1.0);
+        final RealVector sequential = new LUDecomposer(1.0e-11).decompose(a).solve(b);
+        final RealVector parallel   = new LUDecomposer(1.0e-11, pool).decompose(a).solve(b);
+        Assert.assertEquals(0, sequential.subtract(parallel).getNorm(), 1.0e-10);
+        // non-block matrices are handled by the regular decomposition
+        final RealVector array = new LUDecomposer(1.0e-11, pool).
+                                 decompose(new Array2DRowRealMatrix(a.getData())).solve(b);
+        Assert.assertEquals(0, sequential.subtract(array).getNorm(), 0.0);
+    }
+
+    private BlockRealMatrix createRandomMatrix(final RandomGenerator random, final int n) {
+        final BlockRealMatrix m = new BlockRealMatrix(n, n);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                m.setEntry(i, j, 2 * random.nextDouble() - 1);
+            }
+        }
+        return m;
+    }
+
+}
@@ -23,6 +23,7 @@ package org.hipparchus.linear;
 
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import org.hipparchus.UnitTestUtils;
 import org.hipparchus.exception.LocalizedCoreFormats;
@@ -30,6 +31,7 @@ import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.NullArgumentException;
 import org.hipparchus.random.RandomGenerator;
 import org.hipparchus.random.Well1024a;
+import org.hipparchus.util.DenseKernels;
 import org.hipparchus.util.FastMath;
 import org.junit.Assert;
 import org.junit.Test;
@@ -327,7 +329,7 @@ public final class BlockRealMatrixTest {
                     });
                     Assert.assertEquals(0.0,
                                         a.multiplyTransposed(b).subtract(a.multiply(b.transpose())).getNorm1(),
-                                        1.0e-15);
+                                        kernelsTolerance(1.0e-15, 1.0e-12));
                 }
             }
         }
@@ -350,7 +352,7 @@ public final class BlockRealMatrixTest {
                     b.walkInOptimizedOrder(randomSetter);
                     Assert.assertEquals(0.0,
                                         a.multiplyTransposed(b).subtract(a.multiply(b.transpose())).getNorm1(),
-                                        1.0e-15);
+                                        kernelsTolerance(1.0e-15, 1.0e-12));
                 }
             }
         }
@@ -388,7 +390,7 @@ public final class BlockRealMatrixTest {
                     });
                     Assert.assertEquals(0.0,
                                         a.transposeMultiply(b).subtract(a.transpose().multiply(b)).getNorm1(),
-                                        1.0e-15);
+                                        kernelsTolerance(1.0e-15, 1.0e-12));
                 }
             }
         }
@@ -411,7 +413,7 @@ public final class BlockRealMatrixTest {
                     b.walkInOptimizedOrder(randomSetter);
                     Assert.assertEquals(0.0,
                                         a.transposeMultiply(b).subtract(a.transpose().multiply(b)).getNorm1(),
-                                        1.0e-15);
+                                        kernelsTolerance(1.0e-15, 1.0e-12));
                 }
             }
         }
@@ -429,6 +431,56 @@ public final class BlockRealMatrixTest {
         }
     }
 
+    @Test
+    public void testParallelProducts() {
+        final Random r = new Random(0x5a1c2e4f6b8d0a3cl);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (final int[] dims : new int[][] { { 1, 1, 1 }, { 53, 60, 2 }, { 250, 110, 170 }, { 120, 300, 90 } }) {
+                final BlockRealMatrix a  = createRandomMatrix(r, dims[0], dims[1]);
+                final BlockRealMatrix b  = createRandomMatrix(r, dims[1], dims[2]);
+                final BlockRealMatrix bT = b.transpose();
+                final BlockRealMatrix aT = a.transpose();
+                // parallel computation splits only whole blocks, so results are identical
+                Assert.assertEquals(0.0, a.multiply(b, pool).subtract(a.multiply(b)).getNorm1(), 0.0);
+                Assert.assertEquals(0.0, a.multiplyTransposed(bT, pool).subtract(a.multiplyTransposed(bT)).getNorm1(), 0.0);
+                Assert.assertEquals(0.0, aT.transposeMultiply(b, pool).subtract(aT.transposeMultiply(b)).getNorm1(), 0.0);
+                Assert.assertEquals(0.0, a.multiply(b, ForkJoinPool.commonPool()).subtract(a.multiply(b)).getNorm1(), 0.0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelProductsErrors() {
+        final BlockRealMatrix m = new BlockRealMatrix(2, 3);
+        try {
+            m.multiply(m.transpose(), null);
+            Assert.fail("an exception should have been thrown");
+        } catch (NullArgumentException nae) {
+            // expected
+        }
+        try {
+            m.multiply(m, ForkJoinPool.commonPool());
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+        try {
+            m.multiplyTransposed(m.transpose(), ForkJoinPool.commonPool());
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+        try {
+            m.transposeMultiply(m.transpose(), ForkJoinPool.commonPool());
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
     /** test trace */
     @Test
     public void testTrace() {
@@ -475,7 +527,7 @@ public final class BlockRealMatrixTest {
         RealMatrix m2 = createRandomMatrix(random, q, r);
         RealMatrix m1m2 = m1.multiply(m2);
         for (int i = 0; i < r; ++i) {
-            checkArrays(m1m2.getColumn(i), m1.operate(m2.getColumn(i)));
+            checkArrays(m1m2.getColumn(i), m1.operate(m2.getColumn(i)), kernelsTolerance(0.0, 1.0e-12));
         }
     }
 
@@ -489,7 +541,7 @@ public final class BlockRealMatrixTest {
         RealMatrix m2 = createRandomMatrix(random, q, r);
         RealMatrix m1m2 = m1.multiply(m2);
         for (int i = 0; i < p; ++i) {
-            checkArrays(m1m2.getRow(i), m2.preMultiply(m1.getRow(i)));
+            checkArrays(m1m2.getRow(i), m2.preMultiply(m1.getRow(i)), kernelsTolerance(0.0, 1.0e-12));
         }
     }
 
@@ -1142,6 +1194,33 @@ public final class BlockRealMatrixTest {
         }
     }
 
+    /** verifies that two vectors are close (tolerance relative to the largest entry) */
+    private void checkArrays(double[] expected, double[] actual, double relativeTolerance) {
+        Assert.assertEquals(expected.length, actual.length);
+        double max = 0;
+        for (final double e : expected) {
+            max = FastMath.max(max, FastMath.abs(e));
+        }
+        for (int i = 0; i < expected.length; ++i) {
+            Assert.assertEquals(expected[i], actual[i], relativeTolerance * max);
+        }
+    }
+
+    /** Select a tolerance depending on the dense kernels in use.
+     * <p>
+     * Plain Java kernels perform all products in the same order, so they give
+     * identical results for different products computing the same entries. SIMD
+     * kernels use a different summation order in some products (but not all),
+     * so results may differ in the last bits.
+     * </p>
+     * @param scalarTolerance tolerance for plain Java kernels
+     * @param vectorizedTolerance tolerance for SIMD kernels
+     * @return tolerance to use
+     */
+    private double kernelsTolerance(final double scalarTolerance, final double vectorizedTolerance) {
+        return DenseKernels.isVectorized() ? vectorizedTolerance : scalarTolerance;
+    }
+
     @Test
     public void testEqualsAndHashCode() {
         BlockRealMatrix m = new BlockRealMatrix(testData);
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathRuntimeException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressedColumnRealMatrixTest {
+
+    @Test
+    public void testEntries() {
+        final OpenMapRealMatrix reference = CompressedRowRealMatrixTest.randomSparse(9, 6, 0.3, 0x3e5a7c9b1d2f4a86L);
+        final CompressedColumnRealMatrix csc = new CompressedMatrixBuilder(reference).buildColumnCompressed();
+        Assert.assertEquals(9, csc.getRowDimension());
+        Assert.assertEquals(6, csc.getColumnDimension());
+        CompressedRowRealMatrixTest.checkEquals(reference, csc, 0.0);
+        for (int j = 0; j < 6; ++j) {
+            Assert.assertArrayEquals(reference.getColumn(j), csc.getColumn(j), 0.0);
+        }
+        Assert.assertTrue(csc.createMatrix(3, 3) instanceof OpenMapRealMatrix);
+        CompressedRowRealMatrixTest.checkEquals(csc, csc.copy(), 0.0);
+        try {
+            csc.setEntry(0, 0, 1.0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathRuntimeException mre) {
+            Assert.assertEquals(LocalizedCoreFormats.UNSUPPORTED_OPERATION, mre.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testOperate() {
+        final OpenMapRealMatrix reference = CompressedRowRealMatrixTest.randomSparse(13, 17, 0.2, 0x8c1e3a5d7f9b2c46L);
+        final CompressedColumnRealMatrix csc = new CompressedMatrixBuilder(reference).buildColumnCompressed();
+        final RandomGenerator random = new Well19937a(0x5e7a9c1b3d4f6a82L);
+        final double[] x = new double[17];
+        final double[] y = new double[13];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = random.nextDouble();
+        }
+        for (int i = 0; i < y.length; ++i) {
+            y[i] = random.nextDouble();
+        }
+        Assert.assertArrayEquals(reference.operate(x), csc.operate(x), 1.0e-14);
+        Assert.assertArrayEquals(reference.operate(x), csc.operate(new OpenMapRealVector(x)).toArray(), 1.0e-14);
+        Assert.assertArrayEquals(reference.preMultiply(y), csc.preMultiply(y), 1.0e-14);
+        Assert.assertArrayEquals(reference.preMultiply(y), csc.preMultiply(new OpenMapRealVector(y)).toArray(), 1.0e-14);
+        Assert.assertTrue(csc.isTransposable());
+        Assert.assertArrayEquals(reference.preMultiply(y), csc.operateTranspose(new ArrayRealVector(y)).toArray(), 1.0e-14);
+        try {
+            csc.operate(y);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testSparseProducts() {
+        final OpenMapRealMatrix a = CompressedRowRealMatrixTest.randomSparse(10, 8, 0.25, 0x2a4c6e8b1d3f5a97L);
+        final OpenMapRealMatrix b = CompressedRowRealMatrixTest.randomSparse(8, 11, 0.25, 0x7c9e1a3b5d2f4c68L);
+        final RealMatrix reference = MatrixUtils.createRealMatrix(a.getData()).
+                                     multiply(MatrixUtils.createRealMatrix(b.getData()));
+        final CompressedColumnRealMatrix cscA = new CompressedMatrixBuilder(a).buildColumnCompressed();
+
+        final CompressedColumnRealMatrix cscProduct = cscA.multiply(new CompressedMatrixBuilder(b).buildColumnCompressed());
+        CompressedRowRealMatrixTest.checkEquals(reference, cscProduct, 1.0e-14);
+
+        final RealMatrix mixedProduct = cscA.multiply((RealMatrix) new CompressedMatrixBuilder(b).buildRowCompressed());
+        Assert.assertTrue(mixedProduct instanceof CompressedColumnRealMatrix);
+        CompressedRowRealMatrixTest.checkEquals(reference, mixedProduct, 1.0e-14);
+
+        final RealMatrix openMapProduct = cscA.multiply((RealMatrix) b);
+        Assert.assertTrue(openMapProduct instanceof CompressedColumnRealMatrix);
+        CompressedRowRealMatrixTest.checkEquals(reference, openMapProduct, 1.0e-14);
+
+        final RealMatrix denseProduct = cscA.multiply(MatrixUtils.createRealMatrix(b.getData()));
+        Assert.assertTrue(denseProduct instanceof Array2DRowRealMatrix);
+        CompressedRowRealMatrixTest.checkEquals(reference, denseProduct, 1.0e-14);
+    }
+
+    @Test
+    public void testTranspose() {
+        final OpenMapRealMatrix reference = CompressedRowRealMatrixTest.randomSparse(5, 12, 0.3, 0x1b3d5f7a9c2e4b68L);
+        final CompressedColumnRealMatrix csc = new CompressedMatrixBuilder(reference).buildColumnCompressed();
+        final CompressedRowRealMatrix transposed = csc.transpose();
+        CompressedRowRealMatrixTest.checkEquals(reference.transpose(), transposed, 0.0);
+        final CompressedRowRealMatrix csr = csc.toRowCompressed();
+        CompressedRowRealMatrixTest.checkEquals(reference, csr, 0.0);
+        Assert.assertEquals(csc.getNonZeros(), csr.getNonZeros());
+    }
+
+    @Test
+    public void testLinearOperations() {
+        final OpenMapRealMatrix a = CompressedRowRealMatrixTest.randomSparse(6, 7, 0.4, 0x4e6a8c1b3d5f7a92L);
+        final OpenMapRealMatrix b = CompressedRowRealMatrixTest.randomSparse(6, 7, 0.4, 0x9a1c3e5b7d2f4a68L);
+        final CompressedColumnRealMatrix cscA = new CompressedMatrixBuilder(a).buildColumnCompressed();
+        final CompressedColumnRealMatrix cscB = new CompressedMatrixBuilder(b).buildColumnCompressed();
+        CompressedRowRealMatrixTest.checkEquals(a.add(b),      cscA.add(cscB),      1.0e-15);
+        CompressedRowRealMatrixTest.checkEquals(a.add(b),      cscA.add(b),         1.0e-15);
+        CompressedRowRealMatrixTest.checkEquals(a.subtract(b), cscA.subtract(cscB), 1.0e-15);
+        CompressedRowRealMatrixTest.checkEquals(a.scalarMultiply(-3.0), cscA.scalarMultiply(-3.0), 1.0e-15);
+        Assert.assertTrue(cscA.subtract(cscB.toRowCompressed()) instanceof CompressedColumnRealMatrix);
+    }
+
+    @Test
+    public void testConjugateGradient() {
+        final int n = 1000;
+        final CompressedColumnRealMatrix laplacian = CompressedRowRealMatrixTest.laplacian(n).toColumnCompressed();
+        final RealVector expected = new ArrayRealVector(n);
+        for (int i = 0; i < n; ++i) {
+            expected.setEntry(i, FastMath.sin(0.02 * i));
+        }
+        final RealVector b = laplacian.operate(expected);
+        final RealVector x = new ConjugateGradient(5 * n, 1.0e-12, true).solve(laplacian, b);
+        Assert.assertEquals(0.0, x.subtract(expected).getLInfNorm(), 1.0e-8);
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressedMatrixBuilderTest {
+
+    @Test
+    public void testWrongDimensions() {
+        try {
+            new CompressedMatrixBuilder(0, 3);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.AT_LEAST_ONE_ROW, miae.getSpecifier());
+        }
+        try {
+            new CompressedMatrixBuilder(3, 0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.AT_LEAST_ONE_COLUMN, miae.getSpecifier());
+        }
+        try {
+            new CompressedMatrixBuilder(3, 4).addMatrix(new OpenMapRealMatrix(4, 3));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH_2x2, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testWrongIndices() {
+        final CompressedMatrixBuilder builder = new CompressedMatrixBuilder(3, 4);
+        try {
+            builder.addEntry(3, 0, 1.0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.ROW_INDEX, miae.getSpecifier());
+        }
+        try {
+            builder.addEntry(0, -1, 1.0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.COLUMN_INDEX, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testDuplicatesAndZeros() {
+        final CompressedMatrixBuilder builder = new CompressedMatrixBuilder(3, 3);
+        builder.addEntry(2, 1, 1.5).addEntry(0, 2, 4.0).addEntry(2, 1, 2.0);
+        builder.addEntry(1, 1, 0.0).addEntry(0, 0, 3.0).addEntry(0, 0, -3.0);
+        Assert.assertEquals(5, builder.getSize());
+        for (final RealMatrix m : new RealMatrix[] { builder.buildRowCompressed(), builder.buildColumnCompressed() }) {
+            Assert.assertEquals(0.0, m.getEntry(0, 0), 0.0);
+            Assert.assertEquals(4.0, m.getEntry(0, 2), 0.0);
+            Assert.assertEquals(0.0, m.getEntry(1, 1), 0.0);
+            Assert.assertEquals(3.5, m.getEntry(2, 1), 0.0);
+        }
+        Assert.assertEquals(2, builder.buildRowCompressed().getNonZeros());
+        Assert.assertEquals(2, builder.buildColumnCompressed().getNonZeros());
+    }
+
+    @Test
+    public void testAddMatrices() {
+        final OpenMapRealMatrix a = CompressedRowRealMatrixTest.randomSparse(7, 9, 0.3, 0x6c8e1a3b5d7f9c24L);
+        final OpenMapRealMatrix b = CompressedRowRealMatrixTest.randomSparse(7, 9, 0.3, 0x2e4a6c8b1d3f5e79L);
+        final OpenMapRealMatrix c = CompressedRowRealMatrixTest.randomSparse(7, 9, 0.3, 0x8a2c4e6b1d3f5a97L);
+        final RealMatrix d = MatrixUtils.createRealMatrix(CompressedRowRealMatrixTest.randomSparse(7, 9, 0.3, 0x5f7a9c1e3b2d4f68L).getData());
+        final CompressedMatrixBuilder builder = new CompressedMatrixBuilder(a);
+        builder.addMatrix(new CompressedMatrixBuilder(b).buildRowCompressed());
+        builder.addMatrix(new CompressedMatrixBuilder(c).buildColumnCompressed());
+        builder.addMatrix(d);
+        CompressedRowRealMatrixTest.checkEquals(a.add(b).add(c).add(d), builder.buildRowCompressed(), 1.0e-15);
+        CompressedRowRealMatrixTest.checkEquals(a.add(b).add(c).add(d), builder.buildColumnCompressed(), 1.0e-15);
+    }
+
+    @Test
+    public void testLargeDimension() {
+        // such a matrix cannot be represented as an OpenMapRealMatrix
+        final int n = 1000000;
+        final CompressedMatrixBuilder builder = new CompressedMatrixBuilder(n, n);
+        for (int i = 0; i < n; ++i) {
+            builder.addEntry(i, n - 1 - i, i + 1);
+        }
+        final CompressedRowRealMatrix csr = builder.buildRowCompressed();
+        Assert.assertEquals(n, csr.getNonZeros());
+        Assert.assertEquals(1.0, csr.getEntry(0, n - 1), 0.0);
+        final double[] x = new double[n];
+        x[0] = 1.0;
+        final double[] y = csr.operate(x);
+        Assert.assertEquals(n, y[n - 1], 0.0);
+        Assert.assertEquals(0, y[0], 0.0);
+    }
+
+}
@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathRuntimeException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressedRowRealMatrixTest {
+
+    @Test
+    public void testEntries() {
+        final OpenMapRealMatrix reference = randomSparse(7, 11, 0.3, 0x8a3e1c5f2b7d6e90L);
+        final CompressedRowRealMatrix csr = new CompressedMatrixBuilder(reference).buildRowCompressed();
+        Assert.assertEquals(7,  csr.getRowDimension());
+        Assert.assertEquals(11, csr.getColumnDimension());
+        checkEquals(reference, csr, 0.0);
+        int nnz = 0;
+        for (int i = 0; i < 7; ++i) {
+            Assert.assertArrayEquals(reference.getRow(i), csr.getRow(i), 0.0);
+            for (int j = 0; j < 11; ++j) {
+                if (reference.getEntry(i, j) != 0.0) {
+                    ++nnz;
+                }
+            }
+        }
+        Assert.assertEquals(nnz, csr.getNonZeros());
+    }
+
+    @Test
+    public void testImmutable() {
+        final CompressedRowRealMatrix csr =
+                        new CompressedMatrixBuilder(randomSparse(3, 3, 0.5, 0x2c4a8e9f1b3d5e7aL)).buildRowCompressed();
+        try {
+            csr.setEntry(0, 0, 1.0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathRuntimeException mre) {
+            Assert.assertEquals(LocalizedCoreFormats.UNSUPPORTED_OPERATION, mre.getSpecifier());
+        }
+        try {
+            csr.addToEntry(0, 0, 1.0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathRuntimeException mre) {
+            Assert.assertEquals(LocalizedCoreFormats.UNSUPPORTED_OPERATION, mre.getSpecifier());
+        }
+        try {
+            csr.multiplyEntry(0, 0, 2.0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathRuntimeException mre) {
+            Assert.assertEquals(LocalizedCoreFormats.UNSUPPORTED_OPERATION, mre.getSpecifier());
+        }
+        Assert.assertTrue(csr.createMatrix(3, 3) instanceof OpenMapRealMatrix);
+        checkEquals(csr, csr.copy(), 0.0);
+    }
+
+    @Test(expected=MathIllegalArgumentException.class)
+    public void testWrongIndex() {
+        new CompressedMatrixBuilder(3, 4).buildRowCompressed().getEntry(3, 0);
+    }
+
+    @Test
+    public void testOperate() {
+        final OpenMapRealMatrix reference = randomSparse(20, 15, 0.2, 0x5b9d3f7e1a2c4e68L);
+        final CompressedRowRealMatrix csr = new CompressedMatrixBuilder(reference).buildRowCompressed();
+        final RandomGenerator random = new Well19937a(0x3d5f7b9e2a4c6e81L);
+        final double[] x = new double[15];
+        final double[] y = new double[20];
+        for (int i = 0; i < x.length; ++i) {
+            x[i] = random.nextDouble();
+        }
+        for (int i = 0; i < y.length; ++i) {
+            y[i] = random.nextDouble();
+        }
+        Assert.assertArrayEquals(reference.operate(x), csr.operate(x), 1.0e-14);
+        Assert.assertArrayEquals(reference.operate(x), csr.operate(new ArrayRealVector(x)).toArray(), 1.0e-14);
+        Assert.assertArrayEquals(reference.operate(x), csr.operate(new OpenMapRealVector(x)).toArray(), 1.0e-14);
+        Assert.assertArrayEquals(reference.preMultiply(y), csr.preMultiply(y), 1.0e-14);
+        Assert.assertArrayEquals(reference.preMultiply(y), csr.preMultiply(new ArrayRealVector(y)).toArray(), 1.0e-14);
+        Assert.assertArrayEquals(reference.preMultiply(y), csr.preMultiply(new OpenMapRealVector(y)).toArray(), 1.0e-14);
+        Assert.assertTrue(csr.isTransposable());
+        Assert.assertArrayEquals(reference.preMultiply(y), csr.operateTranspose(new ArrayRealVector(y)).toArray(), 1.0e-14);
+        try {
+            csr.operate(y);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+        try {
+            csr.preMultiply(x);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testSparseProducts() {
+        final OpenMapRealMatrix a = randomSparse(12, 9, 0.25, 0x7e1a3c5b9d2f4e60L);
+        final OpenMapRealMatrix b = randomSparse(9, 14, 0.25, 0x1f3b5d7a9c2e4b68L);
+        final RealMatrix reference = MatrixUtils.createRealMatrix(a.getData()).
+                                     multiply(MatrixUtils.createRealMatrix(b.getData()));
+        final CompressedRowRealMatrix csrA = new CompressedMatrixBuilder(a).buildRowCompressed();
+
+        final CompressedRowRealMatrix csrProduct = csrA.multiply(new CompressedMatrixBuilder(b).buildRowCompressed());
+        checkEquals(reference, csrProduct, 1.0e-14);
+
+        final RealMatrix mixedProduct = csrA.multiply((RealMatrix) new CompressedMatrixBuilder(b).buildColumnCompressed());
+        Assert.assertTrue(mixedProduct instanceof CompressedRowRealMatrix);
+        checkEquals(reference, mixedProduct, 1.0e-14);
+
+        final RealMatrix openMapProduct = csrA.multiply((RealMatrix) b);
+        Assert.assertTrue(openMapProduct instanceof CompressedRowRealMatrix);
+        checkEquals(reference, openMapProduct, 1.0e-14);
+
+        final RealMatrix denseProduct = csrA.multiply(MatrixUtils.createRealMatrix(b.getData()));
+        Assert.assertTrue(denseProduct instanceof Array2DRowRealMatrix);
+        checkEquals(reference, denseProduct, 1.0e-14);
+
+        try {
+            csrA.multiply(csrA);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testCancellation() {
+        // product of a matrix by its inverse has cancelled entries that must not be stored
+        final CompressedRowRealMatrix a =
+                        new CompressedMatrixBuilder(2, 2).addEntry(0, 0, 1.0).addEntry(0, 1, 1.0).
+                        addEntry(1, 1, 1.0).buildRowCompressed();
+        final CompressedRowRealMatrix inverse =
+                        new CompressedMatrixBuilder(2, 2).addEntry(0, 0, 1.0).addEntry(0, 1, -1.0).
+                        addEntry(1, 1, 1.0).buildRowCompressed();
+        final CompressedRowRealMatrix product = a.multiply(inverse);
+        Assert.assertEquals(2, product.getNonZeros());
+        checkEquals(MatrixUtils.createRealIdentityMatrix(2), product, 0.0);
+        Assert.assertEquals(0, ((CompressedRowRealMatrix) a.subtract(a)).getNonZeros());
+    }
+
+    @Test
+    public void testTranspose() {
+        final OpenMapRealMatrix reference = randomSparse(6, 10, 0.3, 0x4c6e8a2b1d3f5e79L);
+        final CompressedRowRealMatrix csr = new CompressedMatrixBuilder(reference).buildRowCompressed();
+        final CompressedColumnRealMatrix transposed = csr.transpose();
+        checkEquals(reference.transpose(), transposed, 0.0);
+        checkEquals(reference, transposed.transpose(), 0.0);
+        final CompressedColumnRealMatrix csc = csr.toColumnCompressed();
+        checkEquals(reference, csc, 0.0);
+        Assert.assertEquals(csr.getNonZeros(), csc.getNonZeros());
+    }
+
+    @Test
+    public void testLinearOperations() {
+        final OpenMapRealMatrix a = randomSparse(8, 5, 0.4, 0x9e2b4d6f8a1c3e57L);
+        final OpenMapRealMatrix b = randomSparse(8, 5, 0.4, 0x6a8c2e4b1f3d5a79L);
+        final CompressedRowRealMatrix csrA = new CompressedMatrixBuilder(a).buildRowCompressed();
+        final CompressedRowRealMatrix csrB = new CompressedMatrixBuilder(b).buildRowCompressed();
+        final CompressedColumnRealMatrix cscB = new CompressedMatrixBuilder(b).buildColumnCompressed();
+        checkEquals(a.add(b),      csrA.add(csrB),      1.0e-15);
+        checkEquals(a.add(b),      csrA.add(cscB),      1.0e-15);
+        checkEquals(a.add(b),      csrA.add(b),         1.0e-15);
+        checkEquals(a.subtract(b), csrA.subtract(csrB), 1.0e-15);
+        checkEquals(a.subtract(b), csrA.subtract(cscB), 1.0e-15);
+        checkEquals(a.subtract(b), csrA.subtract(b),    1.0e-15);
+        checkEquals(a.scalarMultiply(2.5), csrA.scalarMultiply(2.5), 1.0e-15);
+        Assert.assertEquals(0, csrA.scalarMultiply(0.0).getNonZeros());
+        Assert.assertTrue(csrA.add(csrB) instanceof CompressedRowRealMatrix);
+        try {
+            csrA.add(csrA.transpose());
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH_2x2, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testConjugateGradient() {
+        final int n = 2000;
+        final CompressedRowRealMatrix laplacian = laplacian(n);
+        final RealVector expected = new ArrayRealVector(n);
+        for (int i = 0; i < n; ++i) {
+            expected.setEntry(i, FastMath.sin(0.01 * i));
+        }
+        final RealVector b = laplacian.operate(expected);
+        final RealVector x = new ConjugateGradient(5 * n, 1.0e-12, true).solve(laplacian, b);
+        Assert.assertEquals(0.0, x.subtract(expected).getLInfNorm(), 1.0e-7);
+    }
+
+    @Test
+    public void testSymmLQ() {
+        final int n = 500;
+        final CompressedRowRealMatrix laplacian = laplacian(n);
+        final RealVector expected = new ArrayRealVector(n);
+        for (int i = 0; i < n; ++i) {
+            expected.setEntry(i, FastMath.cos(0.01 * i));
+        }
+        final RealVector b = laplacian.operate(expected);
+        final RealVector x = new SymmLQ(5 * n, 1.0e-14, true).solve(laplacian, b);
+        Assert.assertEquals(0.0, x.subtract(expected).getLInfNorm(), 1.0e-7);
+    }
+
+    /** Build the matrix of the 1D discrete Laplacian.
+     * @param n dimension
+     * @return Laplacian matrix
+     */
+    static CompressedRowRealMatrix laplacian(final int n) {
+        final CompressedMatrixBuilder builder = new CompressedMatrixBuilder(n, n);
+        for (int i = 0; i < n; ++i) {
+            builder.addEntry(i, i, 2.0);
+            if (i > 0) {
+                builder.addEntry(i, i - 1, -1.0);
+            }
+            if (i < n - 1) {
+                builder.addEntry(i, i + 1, -1.0);
+            }
+        }
+        return builder.buildRowCompressed();
+    }
+
+    /** Build a random sparse matrix.
+     * @param rows number of rows
+     * @param columns number of columns
+     * @param density density of non-zero entries
+     * @param seed random generator seed
+     * @return random sparse matrix
+     */
+    static OpenMapRealMatrix randomSparse(final int rows, final int columns,
+                                          final double density, final long seed) {
+        final RandomGenerator random = new Well19937a(seed);
+        final OpenMapRealMatrix m = new OpenMapRealMatrix(rows, columns);
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                if (random.nextDouble() < density) {
+                    m.setEntry(i, j, 2 * random.nextDouble() - 1);
+                }
+            }
+        }
+        return m;
+    }
+
+    /** Check two matrices have the same entries.
+     * @param expected expected matrix
+     * @param actual actual matrix
+     * @param tolerance tolerance on entries
+     */
+    static void checkEquals(final RealMatrix expected, final RealMatrix actual, final double tolerance) {
+        Assert.assertEquals(expected.getRowDimension(),    actual.getRowDimension());
+        Assert.assertEquals(expected.getColumnDimension(), actual.getColumnDimension());
+        for (int i = 0; i < expected.getRowDimension(); ++i) {
+            for (int j = 0; j < expected.getColumnDimension(); ++j) {
+                Assert.assertEquals(expected.getEntry(i, j), actual.getEntry(i, j), tolerance);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import java.util.Arrays;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LanczosEigenSolverTest {
+
+    @Test
+    public void testDiagonal() {
+        final int n = 1000;
+        final double[] d = new double[n];
+        for (int i = 0; i < n; ++i) {
+            d[i] = (i * 389) % n + 1;
+        }
+        final PartialEigenDecomposition ped =
+                        new LanczosEigenSolver(100, 1.0e-12).solve(new DiagonalMatrix(d), 10);
+        Assert.assertEquals(10, ped.getNumberOfEigenpairs());
+        for (int i = 0; i < 10; ++i) {
+            Assert.assertEquals(n - i, ped.getEigenvalue(i), 1.0e-9);
+            final RealVector x = ped.getEigenvector(i);
+            Assert.assertEquals(1.0, FastMath.abs(x.getEntry(maxAbsIndex(x))), 1.0e-9);
+            Assert.assertEquals(n - i, d[maxAbsIndex(x)], 1.0e-15);
+        }
+    }
+
+    @Test
+    public void testAgainstEigenDecomposition() {
+        final OpenMapRealMatrix a = SparseCholeskyDecompositionTest.randomSPD(300, 0.02, 0x3a5e8c9d40f1b627L);
+        final PartialEigenDecomposition ped = new LanczosEigenSolver(100, 1.0e-12).solve(a, 8);
+        final double[] reference = new EigenDecomposition(MatrixUtils.createRealMatrix(a.getData())).getRealEigenvalues();
+        Arrays.sort(reference);
+        for (int i = 0; i < 8; ++i) {
+            Assert.assertEquals(reference[reference.length - 1 - i], ped.getEigenvalue(i), 1.0e-10);
+        }
+        checkEigenpairs(a, ped, 1.0e-10);
+    }
+
+    @Test
+    public void testImplicitCovarianceOperator() {
+
+        // samples with a few dominant directions, never forming the covariance matrix
+        final RandomGenerator random = new Well19937a(0x1e6b47f3c09d28a5L);
+        final int samples = 400;
+        final int n       = 120;
+        final RealMatrix x = MatrixUtils.createRealMatrix(samples, n);
+        for (int i = 0; i < samples; ++i) {
+            for (int j = 0; j < n; ++j) {
+                final double scale = j < 5 ? 10.0 / (j + 1) : 0.1;
+                x.setEntry(i, j, scale * random.nextGaussian());
+            }
+        }
+        final RealMatrix mixed = x.multiply(new QRDecomposition(randomMatrix(random, n)).getQ());
+        final RealLinearOperator covariance = new RealLinearOperator() {
+            @Override
+            public int getRowDimension() {
+                return n;
+            }
+            @Override
+            public int getColumnDimension() {
+                return n;
+            }
+            @Override
+            public RealVector operate(final RealVector v) {
+                return mixed.preMultiply(mixed.operate(v)).mapDivideToSelf(samples);
+            }
+        };
+
+        final PartialEigenDecomposition ped = new LanczosEigenSolver(100, 1.0e-12).solve(covariance, 5);
+        final double[] reference =
+                        new EigenDecomposition(mixed.transposeMultiply(mixed).scalarMultiply(1.0 / samples)).getRealEigenvalues();
+        Arrays.sort(reference);
+        for (int i = 0; i < 5; ++i) {
+            Assert.assertEquals(reference[n - 1 - i], ped.getEigenvalue(i), 1.0e-10 * reference[n - 1]);
+        }
+        checkEigenpairs(covariance, ped, 1.0e-10);
+
+    }
+
+    @Test
+    public void testFullSpectrum() {
+        final Array2DRowRealMatrix a = new Array2DRowRealMatrix(new double[][] {
+            {  4.0, 1.0, -2.0,  0.5 },
+            {  1.0, 3.0,  0.0,  1.0 },
+            { -2.0, 0.0,  5.0, -1.0 },
+            {  0.5, 1.0, -1.0,  2.0 }
+        });
+        final PartialEigenDecomposition ped = new LanczosEigenSolver(10, 1.0e-14).solve(a, 4);
+        final double[] reference = new EigenDecomposition(a).getRealEigenvalues();
+        Arrays.sort(reference);
+        for (int i = 0; i < 4; ++i) {
+            Assert.assertEquals(reference[3 - i], ped.getEigenvalue(i), 1.0e-13);
+        }
+        checkEigenpairs(a, ped, 1.0e-13);
+    }
+
+    @Test
+    public void testInvariantStartVector() {
+        // the start vector is an eigenvector, so the first Krylov subspace is invariant
+        final DiagonalMatrix a = new DiagonalMatrix(new double[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
+        final RealVector start = new ArrayRealVector(10);
+        start.setEntry(2, 1.0);
+        final PartialEigenDecomposition ped = new LanczosEigenSolver(10, 1.0e-14).solve(a, 3, start);
+        Assert.assertArrayEquals(new double[] { 10, 9, 8 }, ped.getEigenvalues(), 1.0e-13);
+        checkEigenpairs(a, ped, 1.0e-13);
+    }
+
+    @Test
+    public void testRestartsExhausted() {
+        try {
+            new LanczosEigenSolver(0, 1.0e-14).solve(laplacian1D(500), 5);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalStateException mise) {
+            Assert.assertEquals(LocalizedCoreFormats.MAX_COUNT_EXCEEDED, mise.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testClusteredSpectrumWithRestarts() {
+        final PartialEigenDecomposition ped = new LanczosEigenSolver(1000, 1.0e-10).solve(laplacian1D(200), 4);
+        for (int i = 0; i < 4; ++i) {
+            Assert.assertEquals(2 - 2 * FastMath.cos((200 - i) * FastMath.PI / 201), ped.getEigenvalue(i), 1.0e-9);
+        }
+        checkEigenpairs(laplacian1D(200), ped, 1.0e-9);
+    }
+
+    @Test
+    public void testNonSquare() {
+        try {
+            new LanczosEigenSolver(10, 1.0e-10).solve(new Array2DRowRealMatrix(3, 4), 1);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NON_SQUARE_OPERATOR, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testWrongNumberOfEigenpairs() {
+        for (final int k : new int[] { 0, 5 }) {
+            try {
+                new LanczosEigenSolver(10, 1.0e-10).solve(new DiagonalMatrix(new double[] { 1, 1, 1, 1 }), k);
+                Assert.fail("an exception should have been thrown");
+            } catch (MathIllegalArgumentException miae) {
+                Assert.assertEquals(LocalizedCoreFormats.OUT_OF_RANGE_SIMPLE, miae.getSpecifier());
+            }
+        }
+    }
+
+    @Test
+    public void testStartVectorDimensionMismatch() {
+        try {
+            new LanczosEigenSolver(10, 1.0e-10).solve(new DiagonalMatrix(new double[] { 1, 1, 1, 1 }), 1,
+                                                      new ArrayRealVector(3, 1.0));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+    private void checkEigenpairs(final RealLinearOperator a, final PartialEigenDecomposition ped,
+                                 final double tolerance) {
+        final double scale = FastMath.abs(ped.getEigenvalue(0));
+        final RealMatrix v = ped.getV();
+        final RealMatrix identity = MatrixUtils.createRealIdentityMatrix(ped.getNumberOfEigenpairs());
+        Assert.assertEquals(0.0, v.transposeMultiply(v).subtract(identity).getNorm(), 1.0e-12);
+        for (int i = 0; i < ped.getNumberOfEigenpairs(); ++i) {
+            final RealVector x = ped.getEigenvector(i);
+            Assert.assertEquals(0.0, a.operate(x).subtract(x.mapMultiply(ped.getEigenvalue(i))).getNorm(),
+                                tolerance * scale);
+        }
+    }
+
+    private int maxAbsIndex(final RealVector x) {
+        int index = 0;
+        for (int i = 1; i < x.getDimension(); ++i) {
+            if (FastMath.abs(x.getEntry(i)) > FastMath.abs(x.getEntry(index))) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    private RealMatrix randomMatrix(final RandomGenerator random, final int n) {
+        final RealMatrix m = MatrixUtils.createRealMatrix(n, n);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                m.setEntry(i, j, random.nextGaussian());
+            }
+        }
+        return m;
+    }
+
+    static OpenMapRealMatrix laplacian1D(final int n) {
+        final OpenMapRealMatrix m = new OpenMapRealMatrix(n, n);
+        for (int i = 0; i < n; ++i) {
+            m.setEntry(i, i, 2.0);
+            if (i > 0) {
+                m.setEntry(i, i - 1, -1.0);
+                m.setEntry(i - 1, i, -1.0);
+            }
+        }
+        return m;
+    }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReusableLUDecompositionTest {
+
+    @Test
+    public void testSameAsLUDecomposition() {
+        final RandomGenerator random = new Well19937a(0x8d6c3f40e5b21a97L);
+        final RealMatrix first = randomMatrix(random, 12);
+        final ReusableLUDecomposition reusable = new ReusableLUDecomposition(first);
+        Assert.assertEquals(12, reusable.getDimension());
+        final RealMatrix l = reusable.getL();
+        final RealMatrix u = reusable.getU();
+        final RealMatrix p = reusable.getP();
+        final DecompositionSolver solver = reusable.getSolver();
+        for (int k = 0; k < 10; ++k) {
+            final RealMatrix a = (k == 0) ? first : randomMatrix(random, 12);
+            if (k > 0) {
+                reusable.reset(a);
+            }
+            final LUDecomposition reference = new LUDecomposition(a);
+
+            // the same instances are refreshed in place
+            Assert.assertSame(l, reusable.getL());
+            Assert.assertSame(u, reusable.getU());
+            Assert.assertSame(p, reusable.getP());
+            Assert.assertSame(solver, reusable.getSolver());
+
+            Assert.assertEquals(0.0, reference.getL().subtract(l).getNorm1(), 0.0);
+            Assert.assertEquals(0.0, reference.getU().subtract(u).getNorm1(), 0.0);
+            Assert.assertEquals(0.0, reference.getP().subtract(p).getNorm1(), 0.0);
+            Assert.assertArrayEquals(reference.getPivot(), reusable.getPivot());
+            Assert.assertEquals(reference.getDeterminant(), reusable.getDeterminant(), 0.0);
+            Assert.assertEquals(0.0, p.multiply(a).subtract(l.multiply(u)).getNorm1(), 1.0e-13);
+
+            final RealVector b = new ArrayRealVector(12, 1.0);
+            Assert.assertEquals(0.0, reference.getSolver().solve(b).subtract(solver.solve(b)).getNorm(), 0.0);
+            Assert.assertEquals(0.0,
+                                reference.getSolver().getInverse().subtract(solver.getInverse()).getNorm1(),
+                                0.0);
+        }
+    }
+
+    @Test
+    public void testSolveInPlace() {
+        final RealMatrix a = randomMatrix(new Well19937a(0x4f1e2d3c5b6a7980L), 5);
+        final ReusableLUDecomposition reusable = new ReusableLUDecomposition(a);
+        final double[] b = { 1, -2, 3, -4, 5 };
+        final double[] expected = new LUDecomposition(a).getSolver().solve(new ArrayRealVector(b)).toArray();
+        final double[] x = new double[5];
+        reusable.solve(b, x);
+        Assert.assertArrayEquals(expected, x, 0.0);
+        reusable.solve(b, b);
+        Assert.assertArrayEquals(expected, b, 0.0);
+    }
+
+    @Test
+    public void testResetFromArray() {
+        final RealMatrix a1 = randomMatrix(new Well19937a(0x1f2e3d4c5b6a7988L), 4);
+        final RealMatrix a2 = randomMatrix(new Well19937a(0x9a8b7c6d5e4f3021L), 4);
+        final ReusableLUDecomposition reusable = new ReusableLUDecomposition(a1);
+        final double[][] data = a2.getData();
+        reusable.reset(data);
+        Assert.assertEquals(new LUDecomposition(a2).getDeterminant(), reusable.getDeterminant(), 0.0);
+        // input array is not modified
+        Assert.assertEquals(0.0, a2.subtract(new Array2DRowRealMatrix(data)).getNorm1(), 0.0);
+    }
+
+    @Test
+    public void testSingular() {
+        final RealMatrix singular = MatrixUtils.createRealMatrix(new double[][] {
+            { 1.0, 2.0, 3.0 }, { 2.0, 4.0, 6.0 }, { 1.0, 0.0, 1.0 }
+        });
+        final RealMatrix regular = MatrixUtils.createRealMatrix(new double[][] {
+            { 1.0, 2.0, 3.0 }, { 2.0, 5.0, 3.0 }, { 1.0, 0.0, 8.0 }
+        });
+        final ReusableLUDecomposition reusable = new ReusableLUDecomposition(singular);
+        Assert.assertFalse(reusable.getSolver().isNonSingular());
+        Assert.assertNull(reusable.getL());
+        Assert.assertEquals(0.0, reusable.getDeterminant(), 0.0);
+        try {
+            reusable.solve(new double[3], new double[3]);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.SINGULAR_MATRIX, miae.getSpecifier());
+        }
+
+        // the workspace can recover from a singular matrix
+        reusable.reset(regular);
+        Assert.assertTrue(reusable.getSolver().isNonSingular());
+        Assert.assertEquals(-1.0, reusable.getDeterminant(), 1.0e-14);
+    }
+
+    @Test
+    public void testDimensions() {
+        try {
+            new ReusableLUDecomposition(new Array2DRowRealMatrix(2, 3));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NON_SQUARE_MATRIX, miae.getSpecifier());
+        }
+        final ReusableLUDecomposition reusable =
+                        new ReusableLUDecomposition(MatrixUtils.createRealIdentityMatrix(3));
+        try {
+            reusable.reset(MatrixUtils.createRealIdentityMatrix(4));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH_2x2, miae.getSpecifier());
+        }
+        try {
+            reusable.reset(new double[3][4]);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+        try {
+            reusable.solve(new double[3], new double[2]);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testDecomposer() {
+        final RandomGenerator random = new Well19937a(0x62d5c4b3a2918f70L);
+        final ReusableLUDecomposer decomposer = new ReusableLUDecomposer(1.0e-11);
+        final RealMatrix a0 = randomMatrix(random, 6);
+        final DecompositionSolver solver0 = decomposer.decompose(a0);
+        for (int k = 0; k < 5; ++k) {
+            final RealMatrix a = randomMatrix(random, 6);
+            final RealVector b = new ArrayRealVector(6, k + 1.0);
+            final DecompositionSolver solver = decomposer.decompose(a);
+            Assert.assertNotSame(solver0, solver);
+            Assert.assertEquals(0.0, a.operate(solver.solve(b)).subtract(b).getNorm(), 1.0e-12);
+
+            // solvers obtained earlier are not affected by new decompositions
+            Assert.assertEquals(0.0, a0.operate(solver0.solve(b)).subtract(b).getNorm(), 1.0e-12);
+        }
+
+        // dimension change
+        final RealMatrix a = randomMatrix(random, 4);
+        final DecompositionSolver other = decomposer.decompose(a);
+        final RealVector b = new ArrayRealVector(4, 1.0);
+        Assert.assertEquals(0.0, a.operate(other.solve(b)).subtract(b).getNorm(), 1.0e-12);
+    }
+
+    @Test
+    public void testDecomposeInPlace() {
+        final RandomGenerator random = new Well19937a(0x3a8c0d5e7f912b46L);
+        final ReusableLUDecomposer decomposer = new ReusableLUDecomposer(1.0e-11);
+        final ReusableLUDecomposition decomposition = decomposer.decomposeInPlace(randomMatrix(random, 5));
+        final double[] x = new double[5];
+        for (int k = 0; k < 5; ++k) {
+            final RealMatrix a = randomMatrix(random, 5);
+            final double[] b = new double[] { 1, 2, 3, 4, k };
+            Assert.assertSame(decomposition, decomposer.decomposeInPlace(a));
+            decomposition.solve(b, x);
+            Assert.assertEquals(0.0,
+                                a.operate(new ArrayRealVector(x)).subtract(new ArrayRealVector(b)).getNorm(),
+                                1.0e-12);
+        }
+    }
+
+    @Test
+    public void testCopy() {
+        final RandomGenerator random = new Well19937a(0x4be1c9d03f27a865L);
+        final RealMatrix a = randomMatrix(random, 5);
+        final ReusableLUDecomposition decomposition = new ReusableLUDecomposition(a);
+        final ReusableLUDecomposition copy = decomposition.copy();
+        decomposition.reset(randomMatrix(random, 5));
+        Assert.assertEquals(new LUDecomposition(a).getDeterminant(), copy.getDeterminant(), 1.0e-15);
+        final RealVector b = new ArrayRealVector(5, 1.0);
+        Assert.assertEquals(0.0, a.operate(copy.getSolver().solve(b)).subtract(b).getNorm(), 1.0e-12);
+    }
+
+    private RealMatrix randomMatrix(final RandomGenerator random, final int n) {
+        final double[][] data = new double[n][n];
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                data[i][j] = 2 * random.nextDouble() - 1;
+            }
+        }
+        return MatrixUtils.createRealMatrix(data);
+    }
+
+}
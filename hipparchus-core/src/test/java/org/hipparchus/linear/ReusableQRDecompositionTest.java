@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReusableQRDecompositionTest {
+
+    @Test
+    public void testSameAsQRDecompositionSquare() {
+        doTestSameAsQRDecomposition(7, 7);
+    }
+
+    @Test
+    public void testSameAsQRDecompositionTall() {
+        doTestSameAsQRDecomposition(9, 4);
+    }
+
+    @Test
+    public void testSameAsQRDecompositionWide() {
+        doTestSameAsQRDecomposition(3, 8);
+    }
+
+    private void doTestSameAsQRDecomposition(final int rows, final int columns) {
+        final RandomGenerator random = new Well19937a(0x3c4d5e6f7a8b9c0dL);
+        final ReusableQRDecomposition reusable =
+                        new ReusableQRDecomposition(randomMatrix(random, rows, columns));
+        Assert.assertEquals(rows,    reusable.getRowDimension());
+        Assert.assertEquals(columns, reusable.getColumnDimension());
+        final RealMatrix q  = reusable.getQ();
+        final RealMatrix qT = reusable.getQT();
+        final RealMatrix r  = reusable.getR();
+        final RealMatrix h  = reusable.getH();
+        final DecompositionSolver solver = reusable.getSolver();
+        for (int k = 0; k < 8; ++k) {
+            final RealMatrix a = randomMatrix(random, rows, columns);
+            reusable.reset(a);
+            final QRDecomposition reference = new QRDecomposition(a);
+
+            // the same instances are refreshed in place
+            Assert.assertSame(q,      reusable.getQ());
+            Assert.assertSame(qT,     reusable.getQT());
+            Assert.assertSame(r,      reusable.getR());
+            Assert.assertSame(h,      reusable.getH());
+            Assert.assertSame(solver, reusable.getSolver());
+
+            Assert.assertEquals(0.0, reference.getQ().subtract(q).getNorm1(),   0.0);
+            Assert.assertEquals(0.0, reference.getQT().subtract(qT).getNorm1(), 0.0);
+            Assert.assertEquals(0.0, reference.getR().subtract(r).getNorm1(),   0.0);
+            Assert.assertEquals(0.0, reference.getH().subtract(h).getNorm1(),   0.0);
+            Assert.assertEquals(0.0, a.subtract(q.multiply(r)).getNorm1(), 1.0e-13);
+
+            if (rows >= columns) {
+                final RealVector b = new ArrayRealVector(rows, 1.0);
+                Assert.assertEquals(0.0, reference.getSolver().solve(b).subtract(solver.solve(b)).getNorm(), 0.0);
+                Assert.assertEquals(0.0,
+                                    reference.getSolver().getInverse().subtract(solver.getInverse()).getNorm1(),
+                                    1.0e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testSolveInPlace() {
+        final RealMatrix a = randomMatrix(new Well19937a(0x0a1b2c3d4e5f6071L), 5, 5);
+        final ReusableQRDecomposition reusable = new ReusableQRDecomposition(a);
+        final double[] b = { 1, -2, 3, -4, 5 };
+        final double[] expected = new QRDecomposition(a).getSolver().solve(new ArrayRealVector(b)).toArray();
+        final double[] x = new double[5];
+        reusable.solve(b, x);
+        Assert.assertArrayEquals(expected, x, 0.0);
+        reusable.solve(b, b);
+        Assert.assertArrayEquals(expected, b, 0.0);
+    }
+
+    @Test
+    public void testResetFromArray() {
+        final RealMatrix a1 = randomMatrix(new Well19937a(0x7766554433221100L), 6, 3);
+        final RealMatrix a2 = randomMatrix(new Well19937a(0x0011223344556677L), 6, 3);
+        final ReusableQRDecomposition reusable = new ReusableQRDecomposition(a1);
+        reusable.reset(a2.getData());
+        Assert.assertEquals(0.0, new QRDecomposition(a2).getR().subtract(reusable.getR()).getNorm1(), 0.0);
+    }
+
+    @Test
+    public void testSingular() {
+        final RealMatrix singular = MatrixUtils.createRealMatrix(new double[][] {
+            { 1.0, 2.0, 3.0 }, { 2.0, 4.0, 6.0 }, { 1.0, 0.0, 1.0 }
+        });
+        final ReusableQRDecomposition reusable = new ReusableQRDecomposition(singular, 1.0e-12);
+        Assert.assertFalse(reusable.getSolver().isNonSingular());
+        try {
+            reusable.getSolver().solve(new ArrayRealVector(3, 1.0));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.SINGULAR_MATRIX, miae.getSpecifier());
+        }
+        reusable.reset(MatrixUtils.createRealIdentityMatrix(3));
+        Assert.assertTrue(reusable.getSolver().isNonSingular());
+    }
+
+    @Test
+    public void testDimensions() {
+        final ReusableQRDecomposition reusable = new ReusableQRDecomposition(new Array2DRowRealMatrix(4, 3));
+        try {
+            reusable.reset(new Array2DRowRealMatrix(3, 4));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH_2x2, miae.getSpecifier());
+        }
+        try {
+            reusable.reset(new double[4][4]);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+        try {
+            reusable.solve(new double[4], new double[4]);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testDecomposer() {
+        final RandomGenerator random = new Well19937a(0x13579bdf2468ace0L);
+        final ReusableQRDecomposer decomposer = new ReusableQRDecomposer(1.0e-11);
+        final RealMatrix a0 = randomMatrix(random, 6, 6);
+        final DecompositionSolver solver0 = decomposer.decompose(a0);
+        for (int k = 0; k < 5; ++k) {
+            final RealMatrix a = randomMatrix(random, 6, 6);
+            final RealVector b = new ArrayRealVector(6, k + 1.0);
+            final DecompositionSolver solver = decomposer.decompose(a);
+            Assert.assertNotSame(solver0, solver);
+            Assert.assertEquals(0.0, a.operate(solver.solve(b)).subtract(b).getNorm(), 1.0e-12);
+
+            // solvers obtained earlier are not affected by new decompositions
+            Assert.assertEquals(0.0, a0.operate(solver0.solve(b)).subtract(b).getNorm(), 1.0e-12);
+        }
+
+        // dimension change
+        final RealMatrix a = randomMatrix(random, 6, 4);
+        final DecompositionSolver other = decomposer.decompose(a);
+        final RealMatrix b = randomMatrix(random, 6, 2);
+        Assert.assertEquals(0.0,
+                            new QRDecomposition(a).getSolver().solve(b).subtract(other.solve(b)).getNorm1(),
+                            1.0e-14);
+    }
+
+    @Test
+    public void testDecomposeInPlace() {
+        final RandomGenerator random = new Well19937a(0x6f0e2d4c8b1a3957L);
+        final ReusableQRDecomposer decomposer = new ReusableQRDecomposer(1.0e-11);
+        final ReusableQRDecomposition decomposition = decomposer.decomposeInPlace(randomMatrix(random, 5, 5));
+        final double[] x = new double[5];
+        for (int k = 0; k < 5; ++k) {
+            final RealMatrix a = randomMatrix(random, 5, 5);
+            final double[] b = new double[] { 1, 2, 3, 4, k };
+            Assert.assertSame(decomposition, decomposer.decomposeInPlace(a));
+            decomposition.solve(b, x);
+            Assert.assertEquals(0.0,
+                                a.operate(new ArrayRealVector(x)).subtract(new ArrayRealVector(b)).getNorm(),
+                                1.0e-12);
+        }
+    }
+
+    @Test
+    public void testCopy() {
+        final RandomGenerator random = new Well19937a(0x2d9e7a1f5c3b8046L);
+        final RealMatrix a = randomMatrix(random, 6, 4);
+        final ReusableQRDecomposition decomposition = new ReusableQRDecomposition(a);
+        final ReusableQRDecomposition copy = decomposition.copy();
+        decomposition.reset(randomMatrix(random, 6, 4));
+        Assert.assertEquals(0.0,
+                            new QRDecomposition(a).getR().subtract(copy.getR()).getNorm1(),
+                            1.0e-15);
+        final RealMatrix b = randomMatrix(random, 6, 2);
+        Assert.assertEquals(0.0,
+                            new QRDecomposition(a).getSolver().solve(b).subtract(copy.getSolver().solve(b)).getNorm1(),
+                            1.0e-14);
+    }
+
+    private RealMatrix randomMatrix(final RandomGenerator random, final int rows, final int columns) {
+        final double[][] data = new double[rows][columns];
+        for (int i = 0; i < rows; ++i) {
+            for (int j = 0; j < columns; ++j) {
+                data[i][j] = 2 * random.nextDouble() - 1;
+            }
+        }
+        return MatrixUtils.createRealMatrix(data);
+    }
+
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SparseCholeskyDecompositionTest {
+
+    @Test
+    public void testFactors() {
+        final RealMatrix a = laplacian2D(7);
+        final SparseCholeskyDecomposition cholesky = new SparseCholeskyDecomposition(a);
+        final int[] p = cholesky.getPermutation();
+        final RealMatrix pApT = a.getSubMatrix(p, p);
+        final CompressedColumnRealMatrix l = cholesky.getL();
+        for (int i = 0; i < l.getRowDimension(); ++i) {
+            for (int j = i + 1; j < l.getColumnDimension(); ++j) {
+                Assert.assertEquals(0.0, l.getEntry(i, j), 0.0);
+            }
+        }
+        CompressedRowRealMatrixTest.checkEquals(pApT, l.multiply(cholesky.getLT()), 1.0e-14);
+        CompressedRowRealMatrixTest.checkEquals(l.transpose(), cholesky.getLT(), 0.0);
+    }
+
+    @Test
+    public void testSolveAgainstDense() {
+        final RealMatrix a = randomSPD(60, 0.05, 0x3d4f1b2a01c2e5b9L);
+        final RealVector b = new ArrayRealVector(60, 1.0);
+        final SparseCholeskyDecomposition sparse = new SparseCholeskyDecomposition(a);
+        final CholeskyDecomposition dense = new CholeskyDecomposition(new Array2DRowRealMatrix(a.getData()));
+        Assert.assertTrue(sparse.getSolver().isNonSingular());
+        final RealVector x = sparse.getSolver().solve(b);
+        Assert.assertEquals(0.0, x.subtract(dense.getSolver().solve(b)).getNorm(), 1.0e-12);
+        Assert.assertEquals(0.0, a.operate(x).subtract(b).getNorm(), 1.0e-12);
+        Assert.assertEquals(dense.getDeterminant(), sparse.getDeterminant(),
+                            1.0e-12 * FastMath.abs(dense.getDeterminant()));
+        CompressedRowRealMatrixTest.checkEquals(dense.getSolver().getInverse(), sparse.getSolver().getInverse(), 1.0e-12);
+    }
+
+    @Test
+    public void testLargeLaplacian() {
+        final int side = 60;
+        final RealMatrix a = laplacian2D(side);
+        final SparseCholeskyDecomposition cholesky = new SparseCholeskyDecomposition(a);
+
+        // the fill-reducing ordering must beat the natural band ordering,
+        // which has about side non-zero entries per column in L
+        Assert.assertTrue(cholesky.getSymbolic().getFactorNonZeros() < side * side * side / 2);
+        Assert.assertEquals(cholesky.getSymbolic().getFactorNonZeros(), cholesky.getL().getNonZeros());
+
+        final RealVector b = new ArrayRealVector(side * side, 1.0);
+        final RealVector x = cholesky.getSolver().solve(b);
+        Assert.assertEquals(0.0, a.operate(x).subtract(b).getNorm(), 1.0e-10);
+    }
+
+    @Test
+    public void testSymbolicReuse() {
+        final RealMatrix a1 = laplacian2D(5);
+        final SparseCholeskyDecomposition.Symbolic symbolic = SparseCholeskyDecomposition.analyze(a1);
+        Assert.assertEquals(25, symbolic.getDimension());
+        Assert.assertTrue(symbolic.isCompatible(a1));
+
+        // same pattern, different values
+        final RealMatrix a2 = a1.scalarMultiply(3.0).add(MatrixUtils.createRealIdentityMatrix(25));
+        Assert.assertTrue(symbolic.isCompatible(a2));
+        final SparseCholeskyDecomposition cholesky =
+                        new SparseCholeskyDecomposition(a2, symbolic,
+                                                        CholeskyDecomposition.DEFAULT_RELATIVE_SYMMETRY_THRESHOLD,
+                                                        CholeskyDecomposition.DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD);
+        Assert.assertSame(symbolic, cholesky.getSymbolic());
+        Assert.assertArrayEquals(symbolic.getPermutation(), cholesky.getPermutation());
+        final RealVector b = new ArrayRealVector(25, 1.0);
+        Assert.assertEquals(0.0, a2.operate(cholesky.getSolver().solve(b)).subtract(b).getNorm(), 1.0e-13);
+
+        // sub-pattern is also compatible
+        final RealMatrix a3 = mutable(a1);
+        a3.setEntry(0, 1, 0.0);
+        a3.setEntry(1, 0, 0.0);
+        Assert.assertTrue(symbolic.isCompatible(a3));
+        Assert.assertEquals(0.0,
+                            a3.operate(new SparseCholeskyDecomposition(a3, symbolic, 1.0e-15, 1.0e-10).
+                                       getSolver().solve(b)).subtract(b).getNorm(),
+                            1.0e-13);
+
+    }
+
+    @Test
+    public void testPatternMismatch() {
+        final RealMatrix a = laplacian2D(4);
+        final SparseCholeskyDecomposition.Symbolic symbolic = SparseCholeskyDecomposition.analyze(a);
+        final RealMatrix modified = mutable(a);
+        modified.setEntry(0, 15, 0.25);
+        modified.setEntry(15, 0, 0.25);
+        Assert.assertFalse(symbolic.isCompatible(modified));
+        try {
+            new SparseCholeskyDecomposition(modified, symbolic, 1.0e-15, 1.0e-10);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.SPARSITY_PATTERN_MISMATCH, miae.getSpecifier());
+        }
+        Assert.assertFalse(symbolic.isCompatible(laplacian2D(3)));
+        try {
+            new SparseCholeskyDecomposition(laplacian2D(3), symbolic, 1.0e-15, 1.0e-10);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testNonSquare() {
+        try {
+            new SparseCholeskyDecomposition(new OpenMapRealMatrix(3, 4));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NON_SQUARE_MATRIX, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testNotSymmetric() {
+        final RealMatrix a = mutable(laplacian2D(3));
+        a.setEntry(0, 1, -0.5);
+        try {
+            new SparseCholeskyDecomposition(a);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NON_SYMMETRIC_MATRIX, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testNotPositiveDefinite() {
+        final RealMatrix a = mutable(laplacian2D(3));
+        a.setEntry(4, 4, -4.0);
+        try {
+            new SparseCholeskyDecomposition(a);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NOT_POSITIVE_DEFINITE_MATRIX, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testDecomposer() {
+        final SparseCholeskyDecomposer decomposer =
+                        new SparseCholeskyDecomposer(CholeskyDecomposition.DEFAULT_RELATIVE_SYMMETRY_THRESHOLD,
+                                                     CholeskyDecomposition.DEFAULT_ABSOLUTE_POSITIVITY_THRESHOLD);
+        final RealMatrix a = laplacian2D(6);
+        for (int k = 1; k < 4; ++k) {
+            final RealMatrix ak = a.add(MatrixUtils.createRealIdentityMatrix(36).scalarMultiply(k));
+            final RealVector b  = new ArrayRealVector(36, k);
+            Assert.assertEquals(0.0, ak.operate(decomposer.decompose(ak).solve(b)).subtract(b).getNorm(), 1.0e-13);
+        }
+        // pattern change
+        final RealMatrix other = randomSPD(20, 0.1, 0x68a1c2bb4e3f9d17L);
+        final RealVector b     = new ArrayRealVector(20, 1.0);
+        Assert.assertEquals(0.0, other.operate(decomposer.decompose(other).solve(b)).subtract(b).getNorm(), 1.0e-12);
+    }
+
+    /** Build the 5 points Laplacian on a square grid.
+     * @param side number of points on each side of the grid
+     * @return Laplacian matrix
+     */
+    static CompressedColumnRealMatrix laplacian2D(final int side) {
+        final int n = side * side;
+        final CompressedMatrixBuilder builder = new CompressedMatrixBuilder(n, n);
+        for (int i = 0; i < side; ++i) {
+            for (int j = 0; j < side; ++j) {
+                final int k = i * side + j;
+                builder.addEntry(k, k, 4.0);
+                if (i > 0) {
+                    builder.addEntry(k, k - side, -1.0);
+                }
+                if (i < side - 1) {
+                    builder.addEntry(k, k + side, -1.0);
+                }
+                if (j > 0) {
+                    builder.addEntry(k, k - 1, -1.0);
+                }
+                if (j < side - 1) {
+                    builder.addEntry(k, k + 1, -1.0);
+                }
+            }
+        }
+        return builder.buildColumnCompressed();
+    }
+
+    /** Copy a matrix into a mutable sparse matrix.
+     * @param m matrix to copy
+     * @return mutable copy
+     */
+    static OpenMapRealMatrix mutable(final RealMatrix m) {
+        final OpenMapRealMatrix copy = new OpenMapRealMatrix(m.getRowDimension(), m.getColumnDimension());
+        for (int i = 0; i < m.getRowDimension(); ++i) {
+            for (int j = 0; j < m.getColumnDimension(); ++j) {
+                copy.setEntry(i, j, m.getEntry(i, j));
+            }
+        }
+        return copy;
+    }
+
+    /** Build a random sparse symmetric positive definite matrix.
+     * @param n dimension of the matrix
+     * @param density density of non-zero off-diagonal entries
+     * @param seed random generator seed
+     * @return random sparse symmetric positive definite matrix
+     */
+    static OpenMapRealMatrix randomSPD(final int n, final double density, final long seed) {
+        final RandomGenerator random = new Well19937a(seed);
+        final OpenMapRealMatrix m = new OpenMapRealMatrix(n, n);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < i; ++j) {
+                if (random.nextDouble() < density) {
+                    final double x = 2 * random.nextDouble() - 1;
+                    m.setEntry(i, j, x);
+                    m.setEntry(j, i, x);
+                    // ensure diagonal dominance
+                    m.addToEntry(i, i, FastMath.abs(x));
+                    m.addToEntry(j, j, FastMath.abs(x));
+                }
+            }
+            m.addToEntry(i, i, 0.5);
+        }
+        return m;
+    }
+
+}
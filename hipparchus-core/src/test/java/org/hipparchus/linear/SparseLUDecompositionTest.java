@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.linear;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SparseLUDecompositionTest {
+
+    @Test
+    public void testFactors() {
+        final RealMatrix a = randomNonSymmetric(40, 0.08, 1.0e-3, 0x1f6c9a2e7b4d3851L);
+        final SparseLUDecomposition lu = new SparseLUDecomposition(a);
+        final RealMatrix pAQ = a.getSubMatrix(lu.getRowPermutation(), lu.getColumnPermutation());
+        final CompressedColumnRealMatrix l = lu.getL();
+        final CompressedColumnRealMatrix u = lu.getU();
+        for (int i = 0; i < l.getRowDimension(); ++i) {
+            Assert.assertEquals(1.0, l.getEntry(i, i), 0.0);
+            for (int j = i + 1; j < l.getColumnDimension(); ++j) {
+                Assert.assertEquals(0.0, l.getEntry(i, j), 0.0);
+                Assert.assertEquals(0.0, u.getEntry(j, i), 0.0);
+            }
+        }
+        CompressedRowRealMatrixTest.checkEquals(pAQ, l.multiply(u), 1.0e-13);
+    }
+
+    @Test
+    public void testPivoting() {
+        // zero diagonal entries force off-diagonal pivots
+        final OpenMapRealMatrix a = new OpenMapRealMatrix(3, 3);
+        a.setEntry(0, 1, 2.0);
+        a.setEntry(1, 0, 3.0);
+        a.setEntry(1, 2, 1.0);
+        a.setEntry(2, 1, 1.0);
+        a.setEntry(2, 2, 4.0);
+        final SparseLUDecomposition lu = new SparseLUDecomposition(a);
+        Assert.assertEquals(new LUDecomposition(a).getDeterminant(), lu.getDeterminant(), 1.0e-14);
+        final RealVector b = new ArrayRealVector(new double[] { 1, 2, 3 });
+        final RealVector x = lu.getSolver().solve(b);
+        Assert.assertEquals(0.0, a.operate(x).subtract(b).getNorm(), 1.0e-14);
+        CompressedRowRealMatrixTest.checkEquals(MatrixUtils.createRealIdentityMatrix(3),
+                                                a.multiply(lu.getSolver().getInverse()),
+                                                1.0e-14);
+    }
+
+    @Test
+    public void testSolveAgainstDense() {
+        final RealMatrix a = randomNonSymmetric(80, 0.05, 0.1, 0x5a3bd8e19c42f706L);
+        final SparseLUDecomposition sparse = new SparseLUDecomposition(a);
+        final LUDecomposition dense = new LUDecomposition(new Array2DRowRealMatrix(a.getData()));
+        Assert.assertTrue(sparse.getSolver().isNonSingular());
+        final RealMatrix b = CompressedRowRealMatrixTest.randomSparse(80, 3, 0.5, 0x7e21c05da9f3b468L);
+        final RealMatrix x = sparse.getSolver().solve(b);
+        CompressedRowRealMatrixTest.checkEquals(dense.getSolver().solve(b), x, 1.0e-10);
+        Assert.assertEquals(dense.getDeterminant(), sparse.getDeterminant(),
+                            1.0e-10 * FastMath.abs(dense.getDeterminant()));
+    }
+
+    @Test
+    public void testLargeLaplacian() {
+        final int side = 60;
+        final RealMatrix a = SparseCholeskyDecompositionTest.laplacian2D(side);
+        final SparseLUDecomposition lu = new SparseLUDecomposition(a);
+
+        // the fill-reducing ordering must beat the natural band ordering,
+        // which has about side non-zero entries per column in each factor
+        Assert.assertTrue(lu.getL().getNonZeros() < side * side * side / 2);
+        Assert.assertTrue(lu.getU().getNonZeros() < side * side * side / 2);
+
+        final RealVector b = new ArrayRealVector(side * side, 1.0);
+        final RealVector x = lu.getSolver().solve(b);
+        Assert.assertEquals(0.0, a.operate(x).subtract(b).getNorm(), 1.0e-10);
+    }
+
+    @Test
+    public void testSingular() {
+        final OpenMapRealMatrix a = new OpenMapRealMatrix(4, 4);
+        a.setEntry(0, 0, 1.0);
+        a.setEntry(1, 1, 2.0);
+        a.setEntry(1, 3, 1.0);
+        a.setEntry(2, 2, 3.0);
+        a.setEntry(3, 1, 4.0);
+        a.setEntry(3, 3, 2.0);
+        final SparseLUDecomposition lu = new SparseLUDecomposition(a);
+        Assert.assertFalse(lu.getSolver().isNonSingular());
+        Assert.assertEquals(0.0, lu.getDeterminant(), 0.0);
+        Assert.assertNull(lu.getL());
+        Assert.assertNull(lu.getU());
+        Assert.assertNull(lu.getRowPermutation());
+        try {
+            lu.getSolver().solve(new ArrayRealVector(4, 1.0));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.SINGULAR_MATRIX, miae.getSpecifier());
+        }
+
+        // empty column
+        final OpenMapRealMatrix b = new OpenMapRealMatrix(3, 3);
+        b.setEntry(0, 0, 1.0);
+        b.setEntry(2, 2, 1.0);
+        Assert.assertFalse(new SparseLUDecomposition(b).getSolver().isNonSingular());
+    }
+
+    @Test
+    public void testSymbolicReuse() {
+        final RealMatrix a1 = randomNonSymmetric(30, 0.1, 0.5, 0x2c7e93fa61b0d548L);
+        final SparseLUDecomposition.Symbolic symbolic = SparseLUDecomposition.analyze(a1);
+        Assert.assertEquals(30, symbolic.getDimension());
+        Assert.assertTrue(symbolic.isCompatible(a1));
+
+        // same pattern, different values
+        final RealMatrix a2 = a1.scalarMultiply(-2.0);
+        Assert.assertTrue(symbolic.isCompatible(a2));
+        final SparseLUDecomposition lu =
+                        new SparseLUDecomposition(a2, symbolic,
+                                                  SparseLUDecomposition.DEFAULT_SINGULARITY_THRESHOLD,
+                                                  SparseLUDecomposition.DEFAULT_PIVOTING_THRESHOLD);
+        Assert.assertSame(symbolic, lu.getSymbolic());
+        Assert.assertArrayEquals(symbolic.getColumnPermutation(), lu.getColumnPermutation());
+        final RealVector b = new ArrayRealVector(30, 1.0);
+        Assert.assertEquals(0.0, a2.operate(lu.getSolver().solve(b)).subtract(b).getNorm(), 1.0e-12);
+
+        // a different pattern can still be decomposed, but is not considered compatible
+        final RealMatrix a3 = randomNonSymmetric(30, 0.1, 0.5, 0x4b19e07c3d8a2f65L);
+        Assert.assertFalse(symbolic.isCompatible(a3));
+        final SparseLUDecomposition lu3 = new SparseLUDecomposition(a3, symbolic, 1.0e-11, 1.0);
+        Assert.assertEquals(0.0, a3.operate(lu3.getSolver().solve(b)).subtract(b).getNorm(), 1.0e-12);
+
+        Assert.assertFalse(symbolic.isCompatible(new OpenMapRealMatrix(20, 20)));
+        try {
+            new SparseLUDecomposition(new OpenMapRealMatrix(20, 20), symbolic, 1.0e-11, 0.1);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+
+    }
+
+    @Test
+    public void testWrongPivotingThreshold() {
+        for (final double threshold : new double[] { 0.0, -0.5, 1.5 }) {
+            try {
+                new SparseLUDecomposition(MatrixUtils.createRealIdentityMatrix(3), null, 1.0e-11, threshold);
+                Assert.fail("an exception should have been thrown");
+            } catch (MathIllegalArgumentException miae) {
+                Assert.assertEquals(LocalizedCoreFormats.OUT_OF_RANGE_LEFT, miae.getSpecifier());
+            }
+        }
+    }
+
+    @Test
+    public void testDecomposer() {
+        final SparseLUDecomposer decomposer =
+                        new SparseLUDecomposer(SparseLUDecomposition.DEFAULT_SINGULARITY_THRESHOLD,
+                                               SparseLUDecomposition.DEFAULT_PIVOTING_THRESHOLD);
+        final RealMatrix a = randomNonSymmetric(50, 0.05, 0.2, 0x09d3e6f2a57c41b8L);
+        for (int k = 1; k < 4; ++k) {
+            final RealMatrix ak = a.scalarMultiply(k);
+            final RealVector b  = new ArrayRealVector(50, k);
+            Assert.assertEquals(0.0, ak.operate(decomposer.decompose(ak).solve(b)).subtract(b).getNorm(), 1.0e-11);
+        }
+        // pattern change
+        final RealMatrix other = SparseCholeskyDecompositionTest.laplacian2D(5);
+        final RealVector b     = new ArrayRealVector(25, 1.0);
+        Assert.assertEquals(0.0, other.operate(decomposer.decompose(other).solve(b)).subtract(b).getNorm(), 1.0e-13);
+    }
+
+    /** Build a random sparse non-symmetric non-singular matrix.
+     * @param n dimension of the matrix
+     * @param density density of non-zero off-diagonal entries
+     * @param diagonal magnitude of the diagonal entries (small values force pivoting)
+     * @param seed random generator seed
+     * @return random sparse matrix
+     */
+    private static OpenMapRealMatrix randomNonSymmetric(final int n, final double density,
+                                                        final double diagonal, final long seed) {
+        final RandomGenerator random = new Well19937a(seed);
+        final OpenMapRealMatrix m = new OpenMapRealMatrix(n, n);
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                if (i != j && random.nextDouble() < density) {
+                    m.setEntry(i, j, 2 * random.nextDouble() - 1);
+                }
+            }
+            m.setEntry(i, i, diagonal);
+            // a permuted diagonal of large entries ensures non-singularity
+            m.addToEntry(i, (i + n / 2) % n, 2.0);
+        }
+        return m;
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.util;
+
+import java.math.BigDecimal;
+
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well19937a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DenseKernelsTest {
+
+    /** Plain Java kernels, used as reference. */
+    private final DenseKernels.Kernels scalar = new DenseKernels.ScalarKernels();
+
+    @Test
+    public void testDotProduct() {
+        final RandomGenerator random = new Well19937a(0x2b8e4f61d03c7a95L);
+        for (int length = 0; length < 100; ++length) {
+            final double[] a = randomArray(random, length + 3);
+            final double[] b = randomArray(random, length + 5);
+            final double reference = scalar.dotProduct(a, 3, b, 5, length);
+            Assert.assertEquals(reference, DenseKernels.dotProduct(a, 3, b, 5, length), 1.0e-14 * (length + 1));
+            double naive = 0;
+            for (int i = 0; i < length; ++i) {
+                naive += a[3 + i] * b[5 + i];
+            }
+            Assert.assertEquals(naive, reference, 0.0);
+        }
+    }
+
+    @Test
+    public void testAccurateDotProduct() {
+        final RandomGenerator random = new Well19937a(0x61f0c3a87d5e4b29L);
+        for (int length = 1; length < 100; ++length) {
+
+            // build an ill-conditioned dot product, with large cancellations
+            final double[] a = new double[length];
+            final double[] b = new double[length];
+            for (int i = 0; i < length; ++i) {
+                a[i] = FastMath.scalb(2 * random.nextDouble() - 1, random.nextInt(60) - 30);
+                b[i] = FastMath.scalb(2 * random.nextDouble() - 1, random.nextInt(60) - 30);
+            }
+            final double partial = DenseKernels.dotProduct(a, 0, b, 0, length - 1);
+            b[length - 1] = -partial / a[length - 1];
+
+            BigDecimal exact = BigDecimal.ZERO;
+            double absSum = 0;
+            for (int i = 0; i < length; ++i) {
+                exact   = exact.add(new BigDecimal(a[i]).multiply(new BigDecimal(b[i])));
+                absSum += FastMath.abs(a[i] * b[i]);
+            }
+            final double expected = exact.doubleValue();
+
+            // error bound for computation in twice the working precision (Ogita, Rump and Oishi)
+            final double gamma     = length * Precision.EPSILON / (1 - length * Precision.EPSILON);
+            final double tolerance = Precision.EPSILON * FastMath.abs(expected) + gamma * gamma * absSum;
+            Assert.assertEquals(expected, scalar.accurateDotProduct(a, b, length), tolerance);
+            Assert.assertEquals(expected, DenseKernels.accurateDotProduct(a, b, length), tolerance);
+
+            // naive computation is much worse
+            Assert.assertTrue(FastMath.abs(partial + a[length - 1] * b[length - 1] - expected) > tolerance ||
+                              length < 3);
+
+        }
+    }
+
+    @Test
+    public void testCombine() {
+        final RandomGenerator random = new Well19937a(0x0d9a2c4b6e8f1357L);
+        for (int length = 0; length < 100; ++length) {
+            final double[] x = randomArray(random, length);
+            final double[] y = randomArray(random, length);
+            final double[] reference = new double[length];
+            scalar.combine(1.25, x, -0.75, y, reference, length);
+            final double[] result = new double[length];
+            DenseKernels.combine(1.25, x, -0.75, y, result, length);
+            // element-wise operations are reproducible
+            Assert.assertArrayEquals(reference, result, 0.0);
+
+            // in place
+            DenseKernels.combine(1.25, x, -0.75, y, x, length);
+            Assert.assertArrayEquals(reference, x, 0.0);
+        }
+    }
+
+    @Test
+    public void testMatrixMultiplyAdd() {
+        final RandomGenerator random = new Well19937a(0x7c3e5a1f9b2d4068L);
+        final int[] sizes = { 1, 3, 4, 7, 8, 15, 16, 17, 33, 52 };
+        for (final int rows : new int[] { 1, 5, 52 }) {
+            for (final int inner : sizes) {
+                for (final int columns : sizes) {
+                    final double[] a = randomArray(random, rows * inner);
+                    final double[] b = randomArray(random, inner * columns);
+                    final double[] c = randomArray(random, rows * columns);
+
+                    final double[] naive = c.clone();
+                    for (int p = 0; p < rows; ++p) {
+                        for (int n = 0; n < columns; ++n) {
+                            double sum = 0;
+                            for (int l = 0; l < inner; ++l) {
+                                sum += a[p * inner + l] * b[l * columns + n];
+                            }
+                            naive[p * columns + n] += sum;
+                        }
+                    }
+
+                    final double[] reference = c.clone();
+                    scalar.matrixMultiplyAdd(a, b, reference, rows, inner, columns);
+                    DenseKernels.matrixMultiplyAdd(a, b, c, rows, inner, columns);
+                    Assert.assertArrayEquals(naive, reference, 1.0e-14 * inner);
+                    Assert.assertArrayEquals(naive, c,         1.0e-14 * inner);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMatrixVectorMultiplyAdd() {
+        final RandomGenerator random = new Well19937a(0x3f5b7d9e1a2c4e60L);
+        for (final int rows : new int[] { 1, 5, 52 }) {
+            for (int columns = 1; columns < 60; ++columns) {
+                final double[] a = randomArray(random, rows * columns);
+                final double[] x = randomArray(random, columns + 2);
+                final double[] y = randomArray(random, rows + 4);
+
+                final double[] naive = y.clone();
+                for (int p = 0; p < rows; ++p) {
+                    double sum = 0;
+                    for (int q = 0; q < columns; ++q) {
+                        sum += a[p * columns + q] * x[2 + q];
+                    }
+                    naive[4 + p] += sum;
+                }
+
+                final double[] reference = y.clone();
+                scalar.matrixVectorMultiplyAdd(a, rows, columns, x, 2, reference, 4);
+                DenseKernels.matrixVectorMultiplyAdd(a, rows, columns, x, 2, y, 4);
+                Assert.assertArrayEquals(naive, reference, 1.0e-14 * columns);
+                Assert.assertArrayEquals(naive, y,         1.0e-14 * columns);
+            }
+        }
+    }
+
+    private double[] randomArray(final RandomGenerator random, final int length) {
+        final double[] array = new double[length];
+        for (int i = 0; i < length; ++i) {
+            array[i] = 2 * random.nextDouble() - 1;
+        }
+        return array;
+    }
+
+}
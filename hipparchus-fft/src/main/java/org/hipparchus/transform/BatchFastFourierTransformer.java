@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.transform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathArrays;
+import org.hipparchus.util.MathUtils;
+
+/**
+ * Fourier transforms of batches of signals and of multi-dimensional arrays.
+ * <p>
+ * All data are stored in flat arrays of real and imaginary parts. A batch
+ * is a sequence of equal-length signals stored one after the other. A
+ * multi-dimensional array with dimensions n<sub>0</sub>, n<sub>1</sub>,
+ * &hellip;, n<sub>d-1</sub> is stored in row-major order, i.e. element
+ * (i<sub>0</sub>, i<sub>1</sub>, i<sub>2</sub>) of a 3D array is at index
+ * (i<sub>0</sub> n<sub>1</sub> + i<sub>1</sub>) n<sub>2</sub> + i<sub>2</sub>.
+ * Multi-dimensional transforms are computed as one-dimensional transforms
+ * along each axis in turn, so the normalization is the product of the
+ * one-dimensional normalizations, as for example 1 / (n<sub>0</sub>
+ * n<sub>1</sub>) for a 2D {@link DftNormalization#STANDARD standard} inverse
+ * transform.
+ * </p>
+ * <p>
+ * Each one-dimensional transform is computed by a {@link FastFourierTransformPlan}.
+ * If a pool is provided, the signals (or the lines along each axis) are split
+ * in several partitions transformed concurrently, each partition using its
+ * own plan. Results do not depend on the pool. Instances of this class hold
+ * no mutable state and can be shared between threads.
+ * </p>
+ * @see FastFourierTransformPlan
+ * @since 1.7
+ */
+public class BatchFastFourierTransformer {
+
+    /** Minimum number of complex points per task in parallel transforms. */
+    private static final int MIN_POINTS_PER_TASK = 1 << 14;
+
+    /** Number of tasks per pool thread in parallel transforms. */
+    private static final int TASKS_PER_THREAD = 4;
+
+    /** Normalization to be applied to the transformed data. */
+    private final DftNormalization normalization;
+
+    /** Type of transform. */
+    private final TransformType type;
+
+    /** Pool for parallel transforms (may be null for sequential transforms). */
+    private final ForkJoinPool pool;
+
+    /** Simple constructor.
+     * @param normalization the normalization to be applied to the transformed data
+     * @param type the type of transform (forward, inverse) to be performed
+     * @param pool pool to use for parallel transforms (may be null for sequential transforms)
+     */
+    public BatchFastFourierTransformer(final DftNormalization normalization,
+                                       final TransformType type,
+                                       final ForkJoinPool pool) {
+        MathUtils.checkNotNull(normalization);
+        MathUtils.checkNotNull(type);
+        this.normalization = normalization;
+        this.type          = type;
+        this.pool          = pool;
+    }
+
+    /** Get the normalization applied to the transformed data.
+     * @return normalization applied to the transformed data
+     */
+    public DftNormalization getNormalization() {
+        return normalization;
+    }
+
+    /** Get the type of transform.
+     * @return type of transform
+     */
+    public TransformType getType() {
+        return type;
+    }
+
+    /** Get the pool used for parallel transforms.
+     * @return pool used for parallel transforms (null for sequential transforms)
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /** Transform in place a batch of signals stored contiguously.
+     * @param dataR real parts of the signals, one signal after the other
+     * @param dataI imaginary parts of the signals, one signal after the other
+     * @param length length of each signal
+     * @exception MathIllegalArgumentException if arrays lengths differ, if length
+     * is not strictly positive or if arrays lengths are not a multiple of length
+     */
+    public void transformBatch(final double[] dataR, final double[] dataI, final int length)
+        throws MathIllegalArgumentException {
+        MathArrays.checkEqualLength(dataR, dataI);
+        if (length < 1) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL, length, 1);
+        }
+        if (dataR.length % length != 0) {
+            throw new MathIllegalArgumentException(LocalizedFFTFormats.NOT_MULTIPLE_OF_SIGNAL_LENGTH,
+                                                   dataR.length, length);
+        }
+        transformAxis(dataR, dataI, length, 1);
+    }
+
+    /** Transform in place a multi-dimensional array.
+     * <p>
+     * With one dimension, this is a single one-dimensional transform, with two
+     * dimensions (rows, columns) this is a 2D transform, with three dimensions
+     * this is a 3D transform, and so on.
+     * </p>
+     * @param dataR real parts of the array, in row-major order
+     * @param dataI imaginary parts of the array, in row-major order
+     * @param dimensions dimensions of the array, from slowest to fastest varying index
+     * @exception MathIllegalArgumentException if arrays lengths differ, if some
+     * dimensions are not strictly positive or if arrays lengths are not equal
+     * to the product of dimensions
+     */
+    public void transform(final double[] dataR, final double[] dataI, final int... dimensions)
+        throws MathIllegalArgumentException {
+
+        MathArrays.checkEqualLength(dataR, dataI);
+        long size = 1;
+        for (final int dimension : dimensions) {
+            if (dimension < 1) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL, dimension, 1);
+            }
+            size *= dimension;
+        }
+        if (size != dataR.length) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.DIMENSIONS_MISMATCH,
+                                                   dataR.length, size);
+        }
+
+        // transform along each axis, from fastest to slowest varying index,
+        // skipping axes of length 1 for which the transform is the identity
+        int stride = 1;
+        for (int axis = dimensions.length - 1; axis >= 0; --axis) {
+            if (dimensions[axis] > 1) {
+                transformAxis(dataR, dataI, dimensions[axis], stride);
+            }
+            stride *= dimensions[axis];
+        }
+
+    }
+
+    /** Transform all lines along one axis.
+     * @param dataR real parts of the array
+     * @param dataI imaginary parts of the array
+     * @param length number of elements along the axis
+     * @param stride distance between consecutive elements along the axis
+     */
+    private void transformAxis(final double[] dataR, final double[] dataI,
+                               final int length, final int stride) {
+
+        final int nbLines = dataR.length / length;
+        final int nbTasks = (pool == null) ?
+                            1 :
+                            FastMath.min(FastMath.min(nbLines, dataR.length / MIN_POINTS_PER_TASK),
+                                         TASKS_PER_THREAD * pool.getParallelism());
+        if (nbTasks < 2) {
+            transformLines(dataR, dataI, length, stride, 0, nbLines);
+        } else {
+            final List<ForkJoinTask<?>> tasks = new ArrayList<>(nbTasks);
+            for (int t = 0; t < nbTasks; ++t) {
+                final int from = (int) (((long) t * nbLines) / nbTasks);
+                final int to   = (int) (((long) (t + 1) * nbLines) / nbTasks);
+                tasks.add(pool.submit(() -> transformLines(dataR, dataI, length, stride, from, to)));
+            }
+            for (final ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        }
+
+    }
+
+    /** Transform a range of lines along one axis.
+     * <p>
+     * Line l starts at index (l / stride) &times; length &times; stride + l % stride.
+     * </p>
+     * @param dataR real parts of the array
+     * @param dataI imaginary parts of the array
+     * @param length number of elements along the axis
+     * @param stride distance between consecutive elements along the axis
+     * @param from index of the first line to transform (included)
+     * @param to index of the last line to transform (excluded)
+     */
+    private void transformLines(final double[] dataR, final double[] dataI,
+                                final int length, final int stride,
+                                final int from, final int to) {
+
+        final FastFourierTransformPlan plan = new FastFourierTransformPlan(length, normalization, type);
+        final double[] lineR = new double[length];
+        final double[] lineI = new double[length];
+
+        for (int l = from; l < to; ++l) {
+            final int start = (l / stride) * length * stride + l % stride;
+            if (stride == 1) {
+                System.arraycopy(dataR, start, lineR, 0, length);
+                System.arraycopy(dataI, start, lineI, 0, length);
+                plan.transform(lineR, lineI);
+                System.arraycopy(lineR, 0, dataR, start, length);
+                System.arraycopy(lineI, 0, dataI, start, length);
+            } else {
+                for (int k = 0, index = start; k < length; ++k, index += stride) {
+                    lineR[k] = dataR[index];
+                    lineI[k] = dataI[index];
+                }
+                plan.transform(lineR, lineI);
+                for (int k = 0, index = start; k < length; ++k, index += stride) {
+                    dataR[index] = lineR[k];
+                    dataI[index] = lineI[k];
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.transform;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.util.FastMath;
+
+/**
+ * Bluestein's algorithm for forward Fourier transform of arbitrary length.
+ * <p>
+ * Using n k = (n&sup2; + k&sup2; - (k - n)&sup2;) / 2, the discrete Fourier
+ * transform of length n is rewritten as a convolution with the chirp
+ * sequence exp(i&pi;k&sup2;/n), multiplied before and after by the conjugate
+ * chirp. The convolution is evaluated using {@link MixedRadixFFT mixed-radix}
+ * transforms of a padded power of two length m &ge; 2n - 1, which keeps an
+ * O(n log n) complexity even when n is a large prime.
+ * </p>
+ * <p>
+ * The transform is unnormalized and forward only, inverse transforms
+ * are obtained by conjugating input and output.
+ * </p>
+ * @since 1.7
+ */
+final class BluesteinFFT {
+
+    /** Transform length. */
+    private final int n;
+
+    /** Padded power of two length. */
+    private final int m;
+
+    /** Transform for the padded length. */
+    private final MixedRadixFFT padded;
+
+    /** Real parts of the chirp exp(-i&pi;k&sup2;/n). */
+    private final double[] chirpR;
+
+    /** Imaginary parts of the chirp exp(-i&pi;k&sup2;/n). */
+    private final double[] chirpI;
+
+    /** Real parts of the transformed convolution kernel, including 1/m scaling. */
+    private final double[] kernelR;
+
+    /** Imaginary parts of the transformed convolution kernel, including 1/m scaling. */
+    private final double[] kernelI;
+
+    /** Largest padded length, as arrays lengths are limited to 2<sup>31</sup> - 1. */
+    private static final long MAX_PADDED_LENGTH = 1L << 30;
+
+    /** Simple constructor.
+     * @param n transform length
+     * @exception MathIllegalArgumentException if n is too large for the
+     * padded length to fit in an array
+     */
+    BluesteinFFT(final int n) throws MathIllegalArgumentException {
+
+        // compute the padded length in long to avoid overflow for large n
+        final long minLength = 2L * n - 1;
+        if (minLength > MAX_PADDED_LENGTH) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_LARGE,
+                                                   n, MAX_PADDED_LENGTH / 2);
+        }
+        long length = 1;
+        while (length < minLength) {
+            length <<= 1;
+        }
+
+        this.n      = n;
+        this.m      = (int) length;
+        this.padded = new MixedRadixFFT(m);
+
+        // k² is reduced modulo 2n to preserve accuracy of the angle for large k
+        chirpR = new double[n];
+        chirpI = new double[n];
+        final long twoN = 2L * n;
+        for (int k = 0; k < n; ++k) {
+            final double angle = FastMath.PI * (((long) k * k) % twoN) / n;
+            chirpR[k] =  FastMath.cos(angle);
+            chirpI[k] = -FastMath.sin(angle);
+        }
+
+        // the kernel is the conjugate chirp, wrapped around for negative indices
+        kernelR = new double[m];
+        kernelI = new double[m];
+        kernelR[0] =  chirpR[0];
+        kernelI[0] = -chirpI[0];
+        for (int k = 1; k < n; ++k) {
+            kernelR[k]     =  chirpR[k];
+            kernelI[k]     = -chirpI[k];
+            kernelR[m - k] =  chirpR[k];
+            kernelI[m - k] = -chirpI[k];
+        }
+        padded.transform(kernelR, kernelI, new double[m], new double[m]);
+        final double scale = 1.0 / m;
+        for (int k = 0; k < m; ++k) {
+            kernelR[k] *= scale;
+            kernelI[k] *= scale;
+        }
+
+    }
+
+    /** Get the padded length.
+     * @return padded power of two length, which is the minimum size of workspace arrays
+     */
+    int getPaddedLength() {
+        return m;
+    }
+
+    /** Compute the unnormalized forward transform in place.
+     * @param re real parts of the data
+     * @param im imaginary parts of the data
+     * @param workR workspace for real parts, at least {@link #getPaddedLength()} long
+     * @param workI workspace for imaginary parts, at least {@link #getPaddedLength()} long
+     * @param scratchR scratch array for real parts, at least {@link #getPaddedLength()} long
+     * @param scratchI scratch array for imaginary parts, at least {@link #getPaddedLength()} long
+     */
+    void transform(final double[] re, final double[] im,
+                   final double[] workR, final double[] workI,
+                   final double[] scratchR, final double[] scratchI) {
+
+        // premultiply by chirp and pad with zeros
+        for (int k = 0; k < n; ++k) {
+            workR[k] = re[k] * chirpR[k] - im[k] * chirpI[k];
+            workI[k] = re[k] * chirpI[k] + im[k] * chirpR[k];
+        }
+        for (int k = n; k < m; ++k) {
+            workR[k] = 0;
+            workI[k] = 0;
+        }
+
+        // circular convolution with the kernel,
+        // the inverse transform being computed as the conjugate of the forward transform of the conjugate
+        padded.transform(workR, workI, scratchR, scratchI);
+        for (int k = 0; k < m; ++k) {
+            final double r = workR[k] * kernelR[k] - workI[k] * kernelI[k];
+            final double i = workR[k] * kernelI[k] + workI[k] * kernelR[k];
+            workR[k] =  r;
+            workI[k] = -i;
+        }
+        padded.transform(workR, workI, scratchR, scratchI);
+
+        // postmultiply by chirp
+        for (int k = 0; k < n; ++k) {
+            re[k] = workR[k] * chirpR[k] + workI[k] * chirpI[k];
+            im[k] = workR[k] * chirpI[k] - workI[k] * chirpR[k];
+        }
+
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.transform;
+
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.util.ArithmeticUtils;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathUtils;
+
+/**
+ * Precomputed plan for repeated DCT-I transforms of one fixed length.
+ * <p>
+ * A plan is built once for a given length, normalization and transform
+ * type. The sines and cosines used for pre-processing, the underlying
+ * {@link RealFastFourierTransformPlan real Fourier transform plan} and the workspace
+ * are computed at construction, so {@link #transform(double[])} transforms
+ * caller-provided arrays in place without allocating any memory. The results
+ * are the same as the ones of {@link FastCosineTransformer}, up to rounding
+ * errors.
+ * </p>
+ * <p>
+ * As plans hold their own workspace, they are <em>not</em> thread-safe.
+ * Each thread must use its own plan.
+ * </p>
+ * @see FastCosineTransformer
+ * @since 1.7
+ */
+public class FastCosineTransformPlan {
+
+    /** Length of the data sets. */
+    private final int length;
+
+    /** Normalization to be applied to the transformed data. */
+    private final DctNormalization normalization;
+
+    /** Type of transform. */
+    private final TransformType type;
+
+    /** Scale factor applied after the unnormalized transform. */
+    private final double scale;
+
+    /** Sines of i&pi;/(length - 1). */
+    private final double[] sin;
+
+    /** Cosines of i&pi;/(length - 1). */
+    private final double[] cos;
+
+    /** Underlying real Fourier transform plan (null for length 2). */
+    private final RealFastFourierTransformPlan fft;
+
+    /** Workspace for pre-processed data. */
+    private final double[] work;
+
+    /** Real parts of the half-spectrum of pre-processed data. */
+    private final double[] spectrumR;
+
+    /** Imaginary parts of the half-spectrum of pre-processed data. */
+    private final double[] spectrumI;
+
+    /** Simple constructor.
+     * @param length length of the data sets to transform
+     * @param normalization the normalization to be applied to the transformed data
+     * @param type the type of transform (forward, inverse) to be performed
+     * @exception MathIllegalArgumentException if length is not a power of two plus one
+     */
+    public FastCosineTransformPlan(final int length,
+                                   final DctNormalization normalization,
+                                   final TransformType type)
+        throws MathIllegalArgumentException {
+
+        final int n = length - 1;
+        if (!ArithmeticUtils.isPowerOfTwo(n)) {
+            throw new MathIllegalArgumentException(LocalizedFFTFormats.NOT_POWER_OF_TWO_PLUS_ONE,
+                                                   Integer.valueOf(length));
+        }
+        MathUtils.checkNotNull(normalization);
+        MathUtils.checkNotNull(type);
+
+        this.length        = length;
+        this.normalization = normalization;
+        this.type          = type;
+        if (type == TransformType.FORWARD) {
+            scale = (normalization == DctNormalization.ORTHOGONAL_DCT_I) ? FastMath.sqrt(2.0 / n) : 1.0;
+        } else {
+            scale = (normalization == DctNormalization.ORTHOGONAL_DCT_I) ? FastMath.sqrt(2.0 / n) : 2.0 / n;
+        }
+
+        sin = new double[n >> 1];
+        cos = new double[n >> 1];
+        for (int i = 1; i < (n >> 1); i++) {
+            sin[i] = FastMath.sin(i * FastMath.PI / n);
+            cos[i] = FastMath.cos(i * FastMath.PI / n);
+        }
+
+        if (n == 1) {
+            fft       = null;
+            work      = null;
+            spectrumR = null;
+            spectrumI = null;
+        } else {
+            fft       = new RealFastFourierTransformPlan(n, DftNormalization.STANDARD);
+            work      = new double[n];
+            spectrumR = new double[fft.getSpectrumLength()];
+            spectrumI = new double[fft.getSpectrumLength()];
+        }
+
+    }
+
+    /** Get the length of the data sets.
+     * @return length of the data sets
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /** Get the normalization applied to the transformed data.
+     * @return normalization applied to the transformed data
+     */
+    public DctNormalization getNormalization() {
+        return normalization;
+    }
+
+    /** Get the type of transform.
+     * @return type of transform
+     */
+    public TransformType getType() {
+        return type;
+    }
+
+    /** Transform real data in place.
+     * @param f data, replaced by its transform
+     * @exception MathIllegalArgumentException if the array length is not
+     * equal to the plan length
+     */
+    public void transform(final double[] f) throws MathIllegalArgumentException {
+
+        MathUtils.checkDimension(f.length, length);
+
+        final int n = length - 1;
+        if (n == 1) {       // trivial case
+            final double f0 = f[0];
+            final double f1 = f[1];
+            f[0] = scale * 0.5 * (f0 + f1);
+            f[1] = scale * 0.5 * (f0 - f1);
+            return;
+        }
+
+        // pre-process data for FFT
+        work[0] = 0.5 * (f[0] + f[n]);
+        work[n >> 1] = f[n >> 1];
+        // temporary variable for transformed[1]
+        double t1 = 0.5 * (f[0] - f[n]);
+        for (int i = 1; i < (n >> 1); i++) {
+            final double a = 0.5 * (f[i] + f[n - i]);
+            final double b = sin[i] * (f[i] - f[n - i]);
+            final double c = cos[i] * (f[i] - f[n - i]);
+            work[i] = a - b;
+            work[n - i] = a + b;
+            t1 += c;
+        }
+        fft.transform(work, spectrumR, spectrumI);
+
+        // reconstruct the FCT result for the original array
+        f[0] = spectrumR[0];
+        f[1] = t1;
+        for (int i = 1; i < (n >> 1); i++) {
+            f[2 * i]     = spectrumR[i];
+            f[2 * i + 1] = f[2 * i - 1] - spectrumI[i];
+        }
+        f[n] = spectrumR[n >> 1];
+
+        if (scale != 1.0) {
+            for (int i = 0; i < length; i++) {
+                f[i] *= scale;
+            }
+        }
+
+    }
+
+}
@@ -25,9 +25,7 @@ import java.io.Serializable;
 
 import org.hipparchus.analysis.FunctionUtils;
 import org.hipparchus.analysis.UnivariateFunction;
-import org.hipparchus.complex.Complex;
 import org.hipparchus.exception.MathIllegalArgumentException;
-import org.hipparchus.util.ArithmeticUtils;
 import org.hipparchus.util.FastMath;
 
 /**
@@ -63,7 +61,10 @@ import org.hipparchus.util.FastMath;
  * transform requires the length of the data set to be a power of two plus one
  * (N&nbsp;=&nbsp;2<sup>n</sup>&nbsp;+&nbsp;1). Besides, it implicitly assumes
  * that the sampled function is even.
- *
+ * <p>
+ * For repeated transforms of data sets with the same length, {@link
+ * FastCosineTransformPlan} avoids recomputing the length-dependent data
+ * and transforms arrays in place without allocating memory.
  */
 public class FastCosineTransformer implements RealTransformer, Serializable {
 
@@ -140,46 +141,9 @@ public class FastCosineTransformer implements RealTransformer, Serializable {
     protected double[] fct(double[] f)
         throws MathIllegalArgumentException {
 
-        final double[] transformed = new double[f.length];
-
-        final int n = f.length - 1;
-        if (!ArithmeticUtils.isPowerOfTwo(n)) {
-            throw new MathIllegalArgumentException(LocalizedFFTFormats.NOT_POWER_OF_TWO_PLUS_ONE,
-                                                   Integer.valueOf(f.length));
-        }
-        if (n == 1) {       // trivial case
-            transformed[0] = 0.5 * (f[0] + f[1]);
-            transformed[1] = 0.5 * (f[0] - f[1]);
-            return transformed;
-        }
-
-        // construct a new array and perform FFT on it
-        final double[] x = new double[n];
-        x[0] = 0.5 * (f[0] + f[n]);
-        x[n >> 1] = f[n >> 1];
-        // temporary variable for transformed[1]
-        double t1 = 0.5 * (f[0] - f[n]);
-        for (int i = 1; i < (n >> 1); i++) {
-            final double a = 0.5 * (f[i] + f[n - i]);
-            final double b = FastMath.sin(i * FastMath.PI / n) * (f[i] - f[n - i]);
-            final double c = FastMath.cos(i * FastMath.PI / n) * (f[i] - f[n - i]);
-            x[i] = a - b;
-            x[n - i] = a + b;
-            t1 += c;
-        }
-        FastFourierTransformer transformer;
-        transformer = new FastFourierTransformer(DftNormalization.STANDARD);
-        Complex[] y = transformer.transform(x, TransformType.FORWARD);
-
-        // reconstruct the FCT result for the original array
-        transformed[0] = y[0].getReal();
-        transformed[1] = t1;
-        for (int i = 1; i < (n >> 1); i++) {
-            transformed[2 * i]     = y[i].getReal();
-            transformed[2 * i + 1] = transformed[2 * i - 1] - y[i].getImaginary();
-        }
-        transformed[n] = y[n >> 1].getReal();
-
+        final double[] transformed = f.clone();
+        new FastCosineTransformPlan(f.length, DctNormalization.STANDARD_DCT_I, TransformType.FORWARD).
+            transform(transformed);
         return transformed;
     }
 }
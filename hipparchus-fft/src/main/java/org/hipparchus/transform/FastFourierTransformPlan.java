@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.transform;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathRuntimeException;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathArrays;
+import org.hipparchus.util.MathUtils;
+
+/**
+ * Precomputed plan for repeated Fourier transforms of one fixed length.
+ * <p>
+ * A plan is built once for a given length, normalization and transform
+ * type. All length-dependent data (factorization, twiddle factors, chirp
+ * sequences and workspace) are computed at construction, so
+ * {@link #transform(double[], double[])} transforms caller-provided arrays
+ * in place without allocating any memory. This is the preferred way to
+ * transform many data sets of the same length. The results are the same
+ * as the ones of {@link FastFourierTransformer#transformInPlace(double[][],
+ * DftNormalization, TransformType)}, up to rounding errors.
+ * </p>
+ * <p>
+ * Lengths whose prime factors are all 2, 3, 5 or 7, which includes powers
+ * of two, use a self-sorting mixed-radix algorithm with radix 4 stages
+ * whenever possible. As this algorithm produces results in natural order,
+ * no bit-reversal permutation is needed. Other lengths use Bluestein's
+ * algorithm.
+ * </p>
+ * <p>
+ * As plans hold their own workspace, they are <em>not</em> thread-safe.
+ * Each thread must use its own plan.
+ * </p>
+ * @see FastFourierTransformer
+ * @since 1.7
+ */
+public class FastFourierTransformPlan {
+
+    /** Transform length. */
+    private final int n;
+
+    /** Normalization to be applied to the transformed data. */
+    private final DftNormalization normalization;
+
+    /** Type of transform. */
+    private final TransformType type;
+
+    /** Scale factor applied after the unnormalized transform. */
+    private final double scale;
+
+    /** Kernel for lengths with only 2, 3, 5 and 7 factors, including powers of two (null for other lengths). */
+    private final MixedRadixFFT mixedRadix;
+
+    /** Kernel for lengths with large prime factors (null for other lengths). */
+    private final BluesteinFFT bluestein;
+
+    /** Workspace for real parts. */
+    private final double[] workR;
+
+    /** Workspace for imaginary parts. */
+    private final double[] workI;
+
+    /** Scratch array for real parts. */
+    private final double[] scratchR;
+
+    /** Scratch array for imaginary parts. */
+    private final double[] scratchI;
+
+    /** Simple constructor.
+     * @param n length of the data sets to transform
+     * @param normalization the normalization to be applied to the transformed data
+     * @param type the type of transform (forward, inverse) to be performed
+     * @exception MathIllegalArgumentException if n is not strictly positive, or
+     * if it has prime factors other than 2, 3, 5 and 7 and is larger than 2<sup>29</sup>
+     */
+    public FastFourierTransformPlan(final int n,
+                                    final DftNormalization normalization,
+                                    final TransformType type)
+        throws MathIllegalArgumentException {
+
+        if (n < 1) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL, n, 1);
+        }
+        MathUtils.checkNotNull(normalization);
+        MathUtils.checkNotNull(type);
+
+        this.n             = n;
+        this.normalization = normalization;
+        this.type          = type;
+
+        switch (normalization) {
+            case STANDARD :
+                scale = (type == TransformType.INVERSE) ? 1.0 / n : 1.0;
+                break;
+            case UNITARY :
+                scale = 1.0 / FastMath.sqrt(n);
+                break;
+            default :
+                // this should never happen
+                throw MathRuntimeException.createInternalError();
+        }
+
+        if (MixedRadixFFT.supports(n)) {
+            mixedRadix = new MixedRadixFFT(n);
+            bluestein  = null;
+            workR      = new double[n];
+            workI      = new double[n];
+            scratchR   = null;
+            scratchI   = null;
+        } else {
+            mixedRadix = null;
+            bluestein  = new BluesteinFFT(n);
+            final int m = bluestein.getPaddedLength();
+            workR      = new double[m];
+            workI      = new double[m];
+            scratchR   = new double[m];
+            scratchI   = new double[m];
+        }
+
+    }
+
+    /** Get the length of the data sets.
+     * @return length of the data sets
+     */
+    public int getLength() {
+        return n;
+    }
+
+    /** Get the normalization applied to the transformed data.
+     * @return normalization applied to the transformed data
+     */
+    public DftNormalization getNormalization() {
+        return normalization;
+    }
+
+    /** Get the type of transform.
+     * @return type of transform
+     */
+    public TransformType getType() {
+        return type;
+    }
+
+    /** Transform complex data in place.
+     * @param dataR real parts of the data, replaced by the real parts of the transform
+     * @param dataI imaginary parts of the data, replaced by the imaginary parts of the transform
+     * @exception MathIllegalArgumentException if the arrays lengths are not
+     * equal to the plan length
+     */
+    public void transform(final double[] dataR, final double[] dataI)
+        throws MathIllegalArgumentException {
+
+        MathArrays.checkEqualLength(dataR, dataI);
+        MathUtils.checkDimension(dataR.length, n);
+
+        // inverse transform is computed as the conjugate of the forward transform of the conjugate
+        if (type == TransformType.INVERSE) {
+            negate(dataI);
+        }
+
+        if (mixedRadix != null) {
+            mixedRadix.transform(dataR, dataI, workR, workI);
+        } else {
+            bluestein.transform(dataR, dataI, workR, workI, scratchR, scratchI);
+        }
+
+        if (type == TransformType.INVERSE) {
+            // combine conjugation with scaling
+            for (int i = 0; i < n; ++i) {
+                dataR[i] *=  scale;
+                dataI[i] *= -scale;
+            }
+        } else if (scale != 1.0) {
+            for (int i = 0; i < n; ++i) {
+                dataR[i] *= scale;
+                dataI[i] *= scale;
+            }
+        }
+
+    }
+
+    /** Negate all elements of an array.
+     * @param a array to negate in place
+     */
+    private static void negate(final double[] a) {
+        for (int i = 0; i < a.length; ++i) {
+            a[i] = -a[i];
+        }
+    }
+
+}
@@ -26,6 +26,7 @@ import java.io.Serializable;
 import org.hipparchus.analysis.FunctionUtils;
 import org.hipparchus.analysis.UnivariateFunction;
 import org.hipparchus.complex.Complex;
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.MathRuntimeException;
 import org.hipparchus.util.ArithmeticUtils;
@@ -42,13 +43,21 @@ import org.hipparchus.util.MathUtils;
  * normalization conventions, which are specified by the parameter
  * {@link DftNormalization}.
  * <p>
- * The current implementation of the discrete Fourier transform as a fast
- * Fourier transform requires the length of the data set to be a power of 2.
- * This greatly simplifies and speeds up the code. Users can pad the data with
- * zeros to meet this requirement. There are other flavors of FFT, for
- * reference, see S. Winograd,
+ * Data sets of any length can be transformed. Lengths that are powers of 2
+ * use a radix 2 algorithm, which is the fastest one. Lengths whose prime
+ * factors are all 2, 3, 5 or 7 use a self-sorting mixed-radix algorithm
+ * and other lengths use Bluestein's algorithm, which computes the transform
+ * as a convolution evaluated with power of 2 transforms, hence keeping
+ * an O(n log n) complexity even for prime lengths. There are other flavors
+ * of FFT, for reference, see S. Winograd,
  * <i>On computing the discrete Fourier transform</i>, Mathematics of
  * Computation, 32 (1978), 175 - 199.
+ * <p>
+ * For repeated transforms of data sets with the same length, {@link
+ * FastFourierTransformPlan} avoids recomputing the length-dependent data
+ * and transforms arrays in place without allocating memory. For real data,
+ * {@link RealFastFourierTransformPlan} computes only the non-redundant
+ * half of the spectrum, with about half the computation time and memory.
  *
  * @see DftNormalization
  */
@@ -202,14 +211,18 @@ public class FastFourierTransformer implements Serializable {
      *   <li>{@code dataRI[0][i]} is the real part of the {@code i}-th data point,</li>
      *   <li>{@code dataRI[1][i]} is the imaginary part of the {@code i}-th data point.</li>
      * </ul>
+     * <p>
+     * Power of two lengths use a radix 2 algorithm, lengths whose prime
+     * factors are only 2, 3, 5 and 7 use a mixed-radix algorithm and all
+     * other lengths use Bluestein's chirp-z algorithm.
+     * </p>
      *
      * @param dataRI the two dimensional array of real and imaginary parts of the data
      * @param normalization the normalization to be applied to the transformed data
      * @param type the type of transform (forward, inverse) to be performed
      * @throws MathIllegalArgumentException if the number of rows of the specified
      *   array is not two, or the array is not rectangular
-     * @throws MathIllegalArgumentException if the number of data points is not
-     *   a power of two
+     * @throws MathIllegalArgumentException if the array is empty
      */
     public static void transformInPlace(final double[][] dataRI,
         final DftNormalization normalization, final TransformType type) {
@@ -220,11 +233,54 @@ public class FastFourierTransformer implements Serializable {
         MathArrays.checkEqualLength(dataR, dataI);
 
         final int n = dataR.length;
-        if (!ArithmeticUtils.isPowerOfTwo(n)) {
-            throw new MathIllegalArgumentException(LocalizedFFTFormats.NOT_POWER_OF_TWO_CONSIDER_PADDING,
-                                                   Integer.valueOf(n));
+        if (n == 0) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL, n, 1);
         }
 
+        if (ArithmeticUtils.isPowerOfTwo(n)) {
+            transformPowerOfTwo(dataR, dataI, type);
+        } else {
+
+            // inverse transform is computed as the conjugate of the forward transform of the conjugate
+            if (type == TransformType.INVERSE) {
+                conjugate(dataI);
+            }
+            if (MixedRadixFFT.supports(n)) {
+                new MixedRadixFFT(n).transform(dataR, dataI, new double[n], new double[n]);
+            } else {
+                final BluesteinFFT bluestein = new BluesteinFFT(n);
+                final int m = bluestein.getPaddedLength();
+                bluestein.transform(dataR, dataI,
+                                    new double[m], new double[m], new double[m], new double[m]);
+            }
+            if (type == TransformType.INVERSE) {
+                conjugate(dataI);
+            }
+
+        }
+
+        normalizeTransformedData(dataRI, normalization, type);
+    }
+
+    /** Negate all elements of an array.
+     * @param a array to negate in place
+     */
+    private static void conjugate(final double[] a) {
+        for (int i = 0; i < a.length; ++i) {
+            a[i] = -a[i];
+        }
+    }
+
+    /**
+     * Computes the unnormalized transform of complex data whose length is a power of two.
+     *
+     * @param dataR real parts of the data, transformed in place
+     * @param dataI imaginary parts of the data, transformed in place
+     * @param type the type of transform (forward, inverse) to be performed
+     */
+    private static void transformPowerOfTwo(final double[] dataR, final double[] dataI, final TransformType type) {
+
+        final int n = dataR.length;
         if (n == 1) {
             return;
         } else if (n == 2) {
@@ -240,7 +296,6 @@ public class FastFourierTransformer implements Serializable {
             dataR[1] = srcR0 - srcR1;
             dataI[1] = srcI0 - srcI1;
 
-            normalizeTransformedData(dataRI, normalization, type);
             return;
         }
 
@@ -350,7 +405,6 @@ public class FastFourierTransformer implements Serializable {
             lastLogN0 = logN0;
         }
 
-        normalizeTransformedData(dataRI, normalization, type);
     }
 
     /**
@@ -359,12 +413,39 @@ public class FastFourierTransformer implements Serializable {
      * @param f the real data array to be transformed
      * @param type the type of transform (forward, inverse) to be performed
      * @return the complex transformed array
-     * @throws MathIllegalArgumentException if the length of the data array is not a power of two
+     * @throws MathIllegalArgumentException if the array is empty
      */
     public Complex[] transform(final double[] f, final TransformType type) {
-        final double[][] dataRI = new double[][] { f.clone(), new double[f.length] };
-        transformInPlace(dataRI, normalization, type);
-        return TransformUtils.createComplexArray(dataRI);
+
+        final int n = f.length;
+        if (n == 0) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL, n, 1);
+        }
+
+        // the transform of real data has Hermitian symmetry, only half of it needs to be computed
+        final RealFastFourierTransformPlan plan = new RealFastFourierTransformPlan(n, DftNormalization.STANDARD);
+        final double[] spectrumR = new double[plan.getSpectrumLength()];
+        final double[] spectrumI = new double[plan.getSpectrumLength()];
+        plan.transform(f, spectrumR, spectrumI);
+
+        // the inverse transform of real data is the conjugate of the forward transform
+        final double scale;
+        if (normalization == DftNormalization.UNITARY) {
+            scale = 1.0 / FastMath.sqrt(n);
+        } else {
+            scale = (type == TransformType.INVERSE) ? 1.0 / n : 1.0;
+        }
+        final double sign = (type == TransformType.INVERSE) ? -scale : scale;
+
+        final Complex[] transformed = new Complex[n];
+        for (int k = 0; k < spectrumR.length; ++k) {
+            transformed[k] = new Complex(scale * spectrumR[k], sign * spectrumI[k]);
+        }
+        for (int k = spectrumR.length; k < n; ++k) {
+            transformed[k] = transformed[n - k].conjugate();
+        }
+        return transformed;
+
     }
 
     /**
@@ -381,8 +462,6 @@ public class FastFourierTransformer implements Serializable {
      *   if the lower bound is greater than, or equal to the upper bound
      * @throws org.hipparchus.exception.MathIllegalArgumentException
      *   if the number of sample points {@code n} is negative
-     * @throws MathIllegalArgumentException if the number of sample points
-     *   {@code n} is not a power of two
      */
     public Complex[] transform(final UnivariateFunction f,
                                final double min, final double max, final int n,
@@ -398,7 +477,7 @@ public class FastFourierTransformer implements Serializable {
      * @param f the complex data array to be transformed
      * @param type the type of transform (forward, inverse) to be performed
      * @return the complex transformed array
-     * @throws MathIllegalArgumentException if the length of the data array is not a power of two
+     * @throws MathIllegalArgumentException if the array is empty
      */
     public Complex[] transform(final Complex[] f, final TransformType type) {
         final double[][] dataRI = TransformUtils.createRealImaginaryArray(f);
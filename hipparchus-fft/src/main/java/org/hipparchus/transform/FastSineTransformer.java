@@ -25,9 +25,7 @@ import java.io.Serializable;
 
 import org.hipparchus.analysis.FunctionUtils;
 import org.hipparchus.analysis.UnivariateFunction;
-import org.hipparchus.complex.Complex;
 import org.hipparchus.exception.MathIllegalArgumentException;
-import org.hipparchus.util.ArithmeticUtils;
 import org.hipparchus.util.FastMath;
 
 /**
@@ -68,7 +66,10 @@ import org.hipparchus.util.FastMath;
  * first element of the data set must be 0, which is enforced in
  * {@link #transform(UnivariateFunction, double, double, int, TransformType)},
  * after sampling.
- *
+ * <p>
+ * For repeated transforms of data sets with the same length, {@link
+ * FastSineTransformPlan} avoids recomputing the length-dependent data
+ * and transforms arrays in place without allocating memory.
  */
 public class FastSineTransformer implements RealTransformer, Serializable {
 
@@ -140,46 +141,9 @@ public class FastSineTransformer implements RealTransformer, Serializable {
      */
     protected double[] fst(double[] f) throws MathIllegalArgumentException {
 
-        final double[] transformed = new double[f.length];
-
-        if (!ArithmeticUtils.isPowerOfTwo(f.length)) {
-            throw new MathIllegalArgumentException(
-                    LocalizedFFTFormats.NOT_POWER_OF_TWO_CONSIDER_PADDING,
-                    Integer.valueOf(f.length));
-        }
-        if (f[0] != 0.0) {
-            throw new MathIllegalArgumentException(
-                    LocalizedFFTFormats.FIRST_ELEMENT_NOT_ZERO,
-                    Double.valueOf(f[0]));
-        }
-        final int n = f.length;
-        if (n == 1) {       // trivial case
-            transformed[0] = 0.0;
-            return transformed;
-        }
-
-        // construct a new array and perform FFT on it
-        final double[] x = new double[n];
-        x[0] = 0.0;
-        x[n >> 1] = 2.0 * f[n >> 1];
-        for (int i = 1; i < (n >> 1); i++) {
-            final double a = FastMath.sin(i * FastMath.PI / n) * (f[i] + f[n - i]);
-            final double b = 0.5 * (f[i] - f[n - i]);
-            x[i]     = a + b;
-            x[n - i] = a - b;
-        }
-        FastFourierTransformer transformer;
-        transformer = new FastFourierTransformer(DftNormalization.STANDARD);
-        Complex[] y = transformer.transform(x, TransformType.FORWARD);
-
-        // reconstruct the FST result for the original array
-        transformed[0] = 0.0;
-        transformed[1] = 0.5 * y[0].getReal();
-        for (int i = 1; i < (n >> 1); i++) {
-            transformed[2 * i]     = -y[i].getImaginary();
-            transformed[2 * i + 1] = y[i].getReal() + transformed[2 * i - 1];
-        }
-
+        final double[] transformed = f.clone();
+        new FastSineTransformPlan(f.length, DstNormalization.STANDARD_DST_I, TransformType.FORWARD).
+            transform(transformed);
         return transformed;
     }
 }
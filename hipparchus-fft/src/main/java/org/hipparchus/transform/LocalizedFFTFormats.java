@@ -50,7 +50,8 @@ public enum LocalizedFFTFormats implements Localizable {
     FIRST_ELEMENT_NOT_ZERO("first element is not 0: {0}"),
     NOT_POWER_OF_TWO("{0} is not a power of 2"),
     NOT_POWER_OF_TWO_CONSIDER_PADDING("{0} is not a power of 2, consider padding for fix"),
-    NOT_POWER_OF_TWO_PLUS_ONE("{0} is not a power of 2 plus one");
+    NOT_POWER_OF_TWO_PLUS_ONE("{0} is not a power of 2 plus one"),
+    NOT_MULTIPLE_OF_SIGNAL_LENGTH("array length {0} is not a multiple of signal length {1}");
 
     // CHECKSTYLE: resume JavadocVariable
     // CHECKSTYLE: resume MultipleVariableDeclarations
@@ -0,0 +1,398 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.transform;
+
+import org.hipparchus.util.FastMath;
+
+/**
+ * Mixed-radix forward Fourier transform for lengths whose prime factors
+ * are all 2, 3, 5 or 7.
+ * <p>
+ * This is a self-sorting Stockham decimation in frequency algorithm,
+ * which ping-pongs between the data and a workspace of the same size
+ * and produces results in natural order without bit-reversal. Radix 4
+ * and 2 stages use dedicated butterflies, radix 3, 5 and 7 stages use
+ * a generic odd radix butterfly that exploits the symmetry of the
+ * roots of unity. Twiddle factors are computed once at construction.
+ * </p>
+ * <p>
+ * The transform is unnormalized and forward only, inverse transforms
+ * are obtained by conjugating input and output. Instances hold a small
+ * scratch area for odd radix butterflies and are therefore not thread-safe.
+ * </p>
+ * @since 1.7
+ */
+final class MixedRadixFFT {
+
+    /** Supported radices, in order of preference. */
+    private static final int[] RADICES = { 4, 2, 3, 5, 7 };
+
+    /** Transform length. */
+    private final int n;
+
+    /** Radices of the successive stages. */
+    private final int[] radices;
+
+    /** Real parts of twiddle factors for each stage, indexed as j * (p - 1) + t - 1. */
+    private final double[][] twiddlesR;
+
+    /** Imaginary parts of twiddle factors for each stage, indexed as j * (p - 1) + t - 1. */
+    private final double[][] twiddlesI;
+
+    /** Cosines of 2&pi;k/p for odd radices p, indexed by p. */
+    private final double[][] rootsCos;
+
+    /** Sines of 2&pi;k/p for odd radices p, indexed by p. */
+    private final double[][] rootsSin;
+
+    /** Scratch array for sums of real parts in odd radix butterflies. */
+    private final double[] sR;
+
+    /** Scratch array for sums of imaginary parts in odd radix butterflies. */
+    private final double[] sI;
+
+    /** Scratch array for differences of real parts in odd radix butterflies. */
+    private final double[] dR;
+
+    /** Scratch array for differences of imaginary parts in odd radix butterflies. */
+    private final double[] dI;
+
+    /** Simple constructor.
+     * @param n transform length (must be {@link #supports(int) supported})
+     */
+    MixedRadixFFT(final int n) {
+
+        this.n = n;
+
+        // factor the length
+        int[] factors = new int[32];
+        int nbFactors = 0;
+        int remaining = n;
+        for (final int radix : RADICES) {
+            while (remaining % radix == 0) {
+                factors[nbFactors++] = radix;
+                remaining /= radix;
+            }
+        }
+        radices = new int[nbFactors];
+        System.arraycopy(factors, 0, radices, 0, nbFactors);
+
+        // roots of unity of order n
+        final double[] cos = new double[n];
+        final double[] sin = new double[n];
+        for (int k = 0; k < n; ++k) {
+            final double angle = 2 * FastMath.PI * k / n;
+            cos[k] = FastMath.cos(angle);
+            sin[k] = FastMath.sin(angle);
+        }
+
+        // twiddle factors exp(-2 i pi j t s / n) for each stage
+        twiddlesR = new double[radices.length][];
+        twiddlesI = new double[radices.length][];
+        rootsCos  = new double[8][];
+        rootsSin  = new double[8][];
+        int length = n;
+        int stride = 1;
+        for (int stage = 0; stage < radices.length; ++stage) {
+            final int p = radices[stage];
+            final int m = length / p;
+            twiddlesR[stage] = new double[m * (p - 1)];
+            twiddlesI[stage] = new double[m * (p - 1)];
+            for (int j = 0; j < m; ++j) {
+                for (int t = 1; t < p; ++t) {
+                    final int k = j * t * stride;
+                    twiddlesR[stage][j * (p - 1) + t - 1] =  cos[k];
+                    twiddlesI[stage][j * (p - 1) + t - 1] = -sin[k];
+                }
+            }
+            if ((p & 0x1) == 1 && rootsCos[p] == null) {
+                rootsCos[p] = new double[p];
+                rootsSin[p] = new double[p];
+                for (int k = 0; k < p; ++k) {
+                    rootsCos[p][k] = cos[k * (n / p)];
+                    rootsSin[p][k] = sin[k * (n / p)];
+                }
+            }
+            length  = m;
+            stride *= p;
+        }
+
+        // the largest odd radix is 7, hence the largest number of symmetric pairs is 3
+        sR = new double[4];
+        sI = new double[4];
+        dR = new double[4];
+        dI = new double[4];
+
+    }
+
+    /** Check if a length is supported.
+     * @param n transform length
+     * @return true if n is positive and all its prime factors are 2, 3, 5 or 7
+     */
+    static boolean supports(final int n) {
+        if (n < 1) {
+            return false;
+        }
+        int remaining = n;
+        for (final int radix : RADICES) {
+            while (remaining % radix == 0) {
+                remaining /= radix;
+            }
+        }
+        return remaining == 1;
+    }
+
+    /** Get the transform length.
+     * @return transform length
+     */
+    int getLength() {
+        return n;
+    }
+
+    /** Compute the unnormalized forward transform in place.
+     * @param re real parts of the data
+     * @param im imaginary parts of the data
+     * @param workR workspace for real parts, at least as long as the data
+     * @param workI workspace for imaginary parts, at least as long as the data
+     */
+    void transform(final double[] re, final double[] im, final double[] workR, final double[] workI) {
+
+        double[] xR = re;
+        double[] xI = im;
+        double[] yR = workR;
+        double[] yI = workI;
+
+        int length = n;
+        int stride = 1;
+        for (int stage = 0; stage < radices.length; ++stage) {
+            final int p = radices[stage];
+            final int m = length / p;
+            switch (p) {
+                case 2 :
+                    radix2(xR, xI, yR, yI, m, stride, twiddlesR[stage], twiddlesI[stage]);
+                    break;
+                case 4 :
+                    radix4(xR, xI, yR, yI, m, stride, twiddlesR[stage], twiddlesI[stage]);
+                    break;
+                default :
+                    radixOdd(p, xR, xI, yR, yI, m, stride, twiddlesR[stage], twiddlesI[stage]);
+            }
+
+            // the output of this stage is the input of the next one
+            final double[] tmpR = xR;
+            final double[] tmpI = xI;
+            xR = yR;
+            xI = yI;
+            yR = tmpR;
+            yI = tmpI;
+
+            length  = m;
+            stride *= p;
+        }
+
+        if (xR != re) {
+            System.arraycopy(xR, 0, re, 0, n);
+            System.arraycopy(xI, 0, im, 0, n);
+        }
+
+    }
+
+    /** Radix 2 stage.
+     * @param xR real parts of stage input
+     * @param xI imaginary parts of stage input
+     * @param yR real parts of stage output
+     * @param yI imaginary parts of stage output
+     * @param m length of the sub-transforms after this stage
+     * @param s stride of the sub-transforms before this stage
+     * @param wR real parts of stage twiddle factors
+     * @param wI imaginary parts of stage twiddle factors
+     */
+    private static void radix2(final double[] xR, final double[] xI,
+                               final double[] yR, final double[] yI,
+                               final int m, final int s,
+                               final double[] wR, final double[] wI) {
+        for (int j = 0; j < m; ++j) {
+            final double w1R = wR[j];
+            final double w1I = wI[j];
+            for (int q = 0; q < s; ++q) {
+                final int    i0  = q + s * j;
+                final int    i1  = i0 + s * m;
+                final double a0R = xR[i0];
+                final double a0I = xI[i0];
+                final double a1R = xR[i1];
+                final double a1I = xI[i1];
+                final int    o   = q + s * 2 * j;
+                yR[o] = a0R + a1R;
+                yI[o] = a0I + a1I;
+                final double b1R = a0R - a1R;
+                final double b1I = a0I - a1I;
+                yR[o + s] = b1R * w1R - b1I * w1I;
+                yI[o + s] = b1R * w1I + b1I * w1R;
+            }
+        }
+    }
+
+    /** Radix 4 stage.
+     * @param xR real parts of stage input
+     * @param xI imaginary parts of stage input
+     * @param yR real parts of stage output
+     * @param yI imaginary parts of stage output
+     * @param m length of the sub-transforms after this stage
+     * @param s stride of the sub-transforms before this stage
+     * @param wR real parts of stage twiddle factors
+     * @param wI imaginary parts of stage twiddle factors
+     */
+    private static void radix4(final double[] xR, final double[] xI,
+                               final double[] yR, final double[] yI,
+                               final int m, final int s,
+                               final double[] wR, final double[] wI) {
+        final int sm = s * m;
+        for (int j = 0; j < m; ++j) {
+            final double w1R = wR[3 * j];
+            final double w1I = wI[3 * j];
+            final double w2R = wR[3 * j + 1];
+            final double w2I = wI[3 * j + 1];
+            final double w3R = wR[3 * j + 2];
+            final double w3I = wI[3 * j + 2];
+            for (int q = 0; q < s; ++q) {
+                final int    i0  = q + s * j;
+                final double a0R = xR[i0];
+                final double a0I = xI[i0];
+                final double a1R = xR[i0 + sm];
+                final double a1I = xI[i0 + sm];
+                final double a2R = xR[i0 + 2 * sm];
+                final double a2I = xI[i0 + 2 * sm];
+                final double a3R = xR[i0 + 3 * sm];
+                final double a3I = xI[i0 + 3 * sm];
+
+                final double t0R = a0R + a2R;
+                final double t0I = a0I + a2I;
+                final double t1R = a0R - a2R;
+                final double t1I = a0I - a2I;
+                final double t2R = a1R + a3R;
+                final double t2I = a1I + a3I;
+                final double t3R = a1R - a3R;
+                final double t3I = a1I - a3I;
+
+                // b1 = t1 - i t3, b2 = t0 - t2, b3 = t1 + i t3
+                final double b1R = t1R + t3I;
+                final double b1I = t1I - t3R;
+                final double b2R = t0R - t2R;
+                final double b2I = t0I - t2I;
+                final double b3R = t1R - t3I;
+                final double b3I = t1I + t3R;
+
+                final int o = q + s * 4 * j;
+                yR[o]         = t0R + t2R;
+                yI[o]         = t0I + t2I;
+                yR[o + s]     = b1R * w1R - b1I * w1I;
+                yI[o + s]     = b1R * w1I + b1I * w1R;
+                yR[o + 2 * s] = b2R * w2R - b2I * w2I;
+                yI[o + 2 * s] = b2R * w2I + b2I * w2R;
+                yR[o + 3 * s] = b3R * w3R - b3I * w3I;
+                yI[o + 3 * s] = b3R * w3I + b3I * w3R;
+            }
+        }
+    }
+
+    /** Odd radix stage.
+     * <p>
+     * For r from 1 to h = (p - 1) / 2, the inputs a<sub>r</sub> and a<sub>p-r</sub>
+     * are combined into their sum s<sub>r</sub> and difference d<sub>r</sub>, and
+     * outputs t and p - t are computed as A &#x2213; i B, with
+     * A = a<sub>0</sub> + &sum; cos(2&pi;rt/p) s<sub>r</sub> and
+     * B = &sum; sin(2&pi;rt/p) d<sub>r</sub>.
+     * </p>
+     * @param p radix
+     * @param xR real parts of stage input
+     * @param xI imaginary parts of stage input
+     * @param yR real parts of stage output
+     * @param yI imaginary parts of stage output
+     * @param m length of the sub-transforms after this stage
+     * @param s stride of the sub-transforms before this stage
+     * @param wR real parts of stage twiddle factors
+     * @param wI imaginary parts of stage twiddle factors
+     */
+    private void radixOdd(final int p,
+                          final double[] xR, final double[] xI,
+                          final double[] yR, final double[] yI,
+                          final int m, final int s,
+                          final double[] wR, final double[] wI) {
+        final double[] cos = rootsCos[p];
+        final double[] sin = rootsSin[p];
+        final int      h   = (p - 1) / 2;
+        final int      sm  = s * m;
+        for (int j = 0; j < m; ++j) {
+            final int wOffset = j * (p - 1) - 1;
+            for (int q = 0; q < s; ++q) {
+                final int    i0  = q + s * j;
+                final double a0R = xR[i0];
+                final double a0I = xI[i0];
+                double b0R = a0R;
+                double b0I = a0I;
+                for (int r = 1; r <= h; ++r) {
+                    final double arR = xR[i0 + r * sm];
+                    final double arI = xI[i0 + r * sm];
+                    final double amR = xR[i0 + (p - r) * sm];
+                    final double amI = xI[i0 + (p - r) * sm];
+                    sR[r] = arR + amR;
+                    sI[r] = arI + amI;
+                    dR[r] = arR - amR;
+                    dI[r] = arI - amI;
+                    b0R  += sR[r];
+                    b0I  += sI[r];
+                }
+
+                final int o = q + s * p * j;
+                yR[o] = b0R;
+                yI[o] = b0I;
+                for (int t = 1; t <= h; ++t) {
+                    double aR = a0R;
+                    double aI = a0I;
+                    double bR = 0;
+                    double bI = 0;
+                    int    k  = 0;
+                    for (int r = 1; r <= h; ++r) {
+                        k += t;
+                        if (k >= p) {
+                            k -= p;
+                        }
+                        aR += cos[k] * sR[r];
+                        aI += cos[k] * sI[r];
+                        bR += sin[k] * dR[r];
+                        bI += sin[k] * dI[r];
+                    }
+
+                    // output t is A - i B, output p - t is A + i B
+                    final double btR  = aR + bI;
+                    final double btI  = aI - bR;
+                    final double bmR  = aR - bI;
+                    final double bmI  = aI + bR;
+                    final double wtR  = wR[wOffset + t];
+                    final double wtI  = wI[wOffset + t];
+                    final double wmR  = wR[wOffset + p - t];
+                    final double wmI  = wI[wOffset + p - t];
+                    yR[o + t * s]       = btR * wtR - btI * wtI;
+                    yI[o + t * s]       = btR * wtI + btI * wtR;
+                    yR[o + (p - t) * s] = bmR * wmR - bmI * wmI;
+                    yI[o + (p - t) * s] = bmR * wmI + bmI * wmR;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.transform;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathRuntimeException;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathArrays;
+import org.hipparchus.util.MathUtils;
+
+/**
+ * Precomputed plan for repeated Fourier transforms of real data of one fixed length.
+ * <p>
+ * The Fourier transform X<sub>0</sub>, &hellip;, X<sub>n-1</sub> of real data
+ * x<sub>0</sub>, &hellip;, x<sub>n-1</sub> has Hermitian symmetry:
+ * X<sub>n-k</sub> = conj(X<sub>k</sub>). This plan therefore only computes
+ * and stores the non-redundant half-spectrum X<sub>0</sub>, &hellip;,
+ * X<sub>&lfloor;n/2&rfloor;</sub>. For even lengths, the n real samples are
+ * packed into n/2 complex samples, transformed using a complex transform of
+ * length n/2 and unpacked, which roughly halves both computation time and
+ * memory with respect to a complex transform of length n. Odd lengths use a
+ * complex transform of length n.
+ * </p>
+ * <p>
+ * The {@link #inverseTransform(double[], double[], double[]) inverse transform}
+ * reconstructs real data from a half-spectrum, assuming Hermitian symmetry. The
+ * imaginary part of X<sub>0</sub> (and of X<sub>n/2</sub> for even lengths) is
+ * ignored as it is zero for the spectrum of real data.
+ * </p>
+ * <p>
+ * As plans hold their own workspace, they are <em>not</em> thread-safe.
+ * Each thread must use its own plan.
+ * </p>
+ * @see FastFourierTransformPlan
+ * @since 1.7
+ */
+public class RealFastFourierTransformPlan {
+
+    /** Length of the real data sets. */
+    private final int n;
+
+    /** Normalization to be applied to the transformed data. */
+    private final DftNormalization normalization;
+
+    /** Scale factor applied after the unnormalized forward transform. */
+    private final double forwardScale;
+
+    /** Scale factor applied after the unnormalized inverse transform. */
+    private final double inverseScale;
+
+    /** Complex transform (of length n/2 for even n, n for odd n). */
+    private final FastFourierTransformPlan fft;
+
+    /** Cosines of 2&pi;k/n for k &le; n/4 (null for odd n). */
+    private final double[] cos;
+
+    /** Sines of 2&pi;k/n for k &le; n/4 (null for odd n). */
+    private final double[] sin;
+
+    /** Workspace for real parts. */
+    private final double[] workR;
+
+    /** Workspace for imaginary parts. */
+    private final double[] workI;
+
+    /** Simple constructor.
+     * @param n length of the real data sets to transform
+     * @param normalization the normalization to be applied to the transformed data
+     * @exception MathIllegalArgumentException if n is not strictly positive
+     */
+    public RealFastFourierTransformPlan(final int n, final DftNormalization normalization)
+        throws MathIllegalArgumentException {
+
+        if (n < 1) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL, n, 1);
+        }
+        MathUtils.checkNotNull(normalization);
+
+        this.n             = n;
+        this.normalization = normalization;
+        switch (normalization) {
+            case STANDARD :
+                forwardScale = 1.0;
+                inverseScale = 1.0 / n;
+                break;
+            case UNITARY :
+                forwardScale = 1.0 / FastMath.sqrt(n);
+                inverseScale = forwardScale;
+                break;
+            default :
+                // this should never happen
+                throw MathRuntimeException.createInternalError();
+        }
+
+        if ((n & 0x1) == 0) {
+            final int h = n / 2;
+            fft = new FastFourierTransformPlan(h, DftNormalization.STANDARD, TransformType.FORWARD);
+            cos = new double[h / 2 + 1];
+            sin = new double[h / 2 + 1];
+            for (int k = 0; k <= h / 2; ++k) {
+                final double angle = 2 * FastMath.PI * k / n;
+                cos[k] = FastMath.cos(angle);
+                sin[k] = FastMath.sin(angle);
+            }
+            workR = new double[h];
+            workI = new double[h];
+        } else {
+            fft   = new FastFourierTransformPlan(n, DftNormalization.STANDARD, TransformType.FORWARD);
+            cos   = null;
+            sin   = null;
+            workR = new double[n];
+            workI = new double[n];
+        }
+
+    }
+
+    /** Get the length of the real data sets.
+     * @return length of the real data sets
+     */
+    public int getLength() {
+        return n;
+    }
+
+    /** Get the length of the half-spectrum.
+     * @return length of the half-spectrum, i.e. &lfloor;n/2&rfloor; + 1
+     */
+    public int getSpectrumLength() {
+        return n / 2 + 1;
+    }
+
+    /** Get the normalization applied to the transformed data.
+     * @return normalization applied to the transformed data
+     */
+    public DftNormalization getNormalization() {
+        return normalization;
+    }
+
+    /** Compute the forward transform of real data.
+     * @param f real data (not modified)
+     * @param spectrumR array where to store the real parts of the half-spectrum
+     * @param spectrumI array where to store the imaginary parts of the half-spectrum
+     * @exception MathIllegalArgumentException if the data array length is not
+     * equal to the plan length or the spectrum arrays lengths are not equal to
+     * {@link #getSpectrumLength()}
+     */
+    public void transform(final double[] f, final double[] spectrumR, final double[] spectrumI)
+        throws MathIllegalArgumentException {
+
+        MathUtils.checkDimension(f.length, n);
+        MathArrays.checkEqualLength(spectrumR, spectrumI);
+        MathUtils.checkDimension(spectrumR.length, getSpectrumLength());
+
+        if ((n & 0x1) == 1) {
+            System.arraycopy(f, 0, workR, 0, n);
+            for (int k = 0; k < n; ++k) {
+                workI[k] = 0;
+            }
+            fft.transform(workR, workI);
+            for (int k = 0; k < spectrumR.length; ++k) {
+                spectrumR[k] = forwardScale * workR[k];
+                spectrumI[k] = forwardScale * workI[k];
+            }
+            return;
+        }
+
+        // pack even and odd samples as real and imaginary parts
+        final int h = n / 2;
+        for (int k = 0; k < h; ++k) {
+            workR[k] = f[2 * k];
+            workI[k] = f[2 * k + 1];
+        }
+        fft.transform(workR, workI);
+
+        // unpack X[k] = E[k] + exp(-2i pi k / n) O[k], with
+        // E[k] = (Z[k] + conj(Z[h-k])) / 2 and O[k] = (Z[k] - conj(Z[h-k])) / 2i,
+        // processing k and h - k together
+        spectrumR[0] = forwardScale * (workR[0] + workI[0]);
+        spectrumI[0] = 0;
+        spectrumR[h] = forwardScale * (workR[0] - workI[0]);
+        spectrumI[h] = 0;
+        for (int k = 1; k <= h / 2; ++k) {
+            final int    j   = h - k;
+            final double zkR = workR[k];
+            final double zkI = workI[k];
+            final double zjR = workR[j];
+            final double zjI = workI[j];
+            final double eR  = 0.5 * (zkR + zjR);
+            final double eI  = 0.5 * (zkI - zjI);
+            final double oR  = 0.5 * (zkI + zjI);
+            final double oI  = 0.5 * (zjR - zkR);
+
+            // exp(-2i pi j / n) = -exp(2i pi k / n)
+            final double tR  = cos[k] * oR + sin[k] * oI;
+            final double tI  = cos[k] * oI - sin[k] * oR;
+            spectrumR[k] = forwardScale * (eR + tR);
+            spectrumI[k] = forwardScale * (eI + tI);
+            if (j != k) {
+                spectrumR[j] = forwardScale * (eR - tR);
+                spectrumI[j] = forwardScale * (tI - eI);
+            }
+        }
+
+    }
+
+    /** Compute the inverse transform of a half-spectrum.
+     * @param spectrumR real parts of the half-spectrum (not modified)
+     * @param spectrumI imaginary parts of the half-spectrum (not modified)
+     * @param f array where to store the real data
+     * @exception MathIllegalArgumentException if the data array length is not
+     * equal to the plan length or the spectrum arrays lengths are not equal to
+     * {@link #getSpectrumLength()}
+     */
+    public void inverseTransform(final double[] spectrumR, final double[] spectrumI, final double[] f)
+        throws MathIllegalArgumentException {
+
+        MathUtils.checkDimension(f.length, n);
+        MathArrays.checkEqualLength(spectrumR, spectrumI);
+        MathUtils.checkDimension(spectrumR.length, getSpectrumLength());
+
+        // inverse transforms are computed as the conjugate of the forward transform of the conjugate
+        if ((n & 0x1) == 1) {
+            workR[0] = spectrumR[0];
+            workI[0] = 0;
+            for (int k = 1; k < spectrumR.length; ++k) {
+                workR[k]     =  spectrumR[k];
+                workI[k]     = -spectrumI[k];
+                workR[n - k] =  spectrumR[k];
+                workI[n - k] =  spectrumI[k];
+            }
+            fft.transform(workR, workI);
+            for (int k = 0; k < n; ++k) {
+                f[k] = inverseScale * workR[k];
+            }
+            return;
+        }
+
+        // pack into Z[k] = E[k] + i O[k], with E[k] = X[k] + conj(X[h-k])
+        // and O[k] = (X[k] - conj(X[h-k])) exp(2i pi k / n), conjugated
+        final int h = n / 2;
+        workR[0] =  spectrumR[0] + spectrumR[h];
+        workI[0] = -(spectrumR[0] - spectrumR[h]);
+        for (int k = 1; k <= h / 2; ++k) {
+            final int    j   = h - k;
+            final double xkR = spectrumR[k];
+            final double xkI = spectrumI[k];
+            final double xjR = spectrumR[j];
+            final double xjI = spectrumI[j];
+            final double eR  = xkR + xjR;
+            final double eI  = xkI - xjI;
+            final double dR  = xkR - xjR;
+            final double dI  = xkI + xjI;
+            final double oR  = cos[k] * dR - sin[k] * dI;
+            final double oI  = cos[k] * dI + sin[k] * dR;
+
+            // Z[k] = E[k] + i O[k], Z[j] = conj(E[k]) + i O[j] with O[j] = conj(O[k])
+            // as exp(2i pi j / n) = -exp(-2i pi k / n)
+            workR[k] =  (eR - oI);
+            workI[k] = -(eI + oR);
+            if (j != k) {
+                workR[j] =  (eR + oI);
+                workI[j] = -(oR - eI);
+            }
+        }
+        fft.transform(workR, workI);
+
+        // unpack even and odd samples from real and imaginary parts
+        for (int k = 0; k < h; ++k) {
+            f[2 * k]     =  inverseScale * workR[k];
+            f[2 * k + 1] = -inverseScale * workI[k];
+        }
+
+    }
+
+}
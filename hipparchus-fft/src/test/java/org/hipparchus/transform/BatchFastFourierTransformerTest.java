@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.transform;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.SinCos;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchFastFourierTransformerTest {
+
+    @Test
+    public void testBatch() {
+        final RandomGenerator random = new Well1024a(0x5d3b1f7e9a0c2468l);
+        for (final DftNormalization normalization : DftNormalization.values()) {
+            for (final TransformType type : TransformType.values()) {
+                for (final int length : new int[] { 1, 8, 12, 13 }) {
+                    final int nbSignals = 7;
+                    final double[] dataR = createData(random, nbSignals * length);
+                    final double[] dataI = createData(random, nbSignals * length);
+                    final double[] expectedR = dataR.clone();
+                    final double[] expectedI = dataI.clone();
+                    final FastFourierTransformPlan plan = new FastFourierTransformPlan(length, normalization, type);
+                    for (int s = 0; s < nbSignals; ++s) {
+                        final double[] re = new double[length];
+                        final double[] im = new double[length];
+                        System.arraycopy(expectedR, s * length, re, 0, length);
+                        System.arraycopy(expectedI, s * length, im, 0, length);
+                        plan.transform(re, im);
+                        System.arraycopy(re, 0, expectedR, s * length, length);
+                        System.arraycopy(im, 0, expectedI, s * length, length);
+                    }
+                    final BatchFastFourierTransformer transformer =
+                                    new BatchFastFourierTransformer(normalization, type, null);
+                    Assert.assertEquals(normalization, transformer.getNormalization());
+                    Assert.assertEquals(type, transformer.getType());
+                    Assert.assertNull(transformer.getPool());
+                    transformer.transformBatch(dataR, dataI, length);
+                    Assert.assertArrayEquals(expectedR, dataR, 0.0);
+                    Assert.assertArrayEquals(expectedI, dataI, 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test2D() {
+        final RandomGenerator random = new Well1024a(0x1b3d5f7092a4c6e8l);
+        for (final DftNormalization normalization : DftNormalization.values()) {
+            for (final TransformType type : TransformType.values()) {
+                final int rows    = 6;
+                final int columns = 5;
+                final double[] dataR = createData(random, rows * columns);
+                final double[] dataI = createData(random, rows * columns);
+                final double[][] expected = dft(dataR, dataI, normalization, type, rows, columns);
+                new BatchFastFourierTransformer(normalization, type, null).transform(dataR, dataI, rows, columns);
+                Assert.assertArrayEquals(expected[0], dataR, 1.0e-13);
+                Assert.assertArrayEquals(expected[1], dataI, 1.0e-13);
+            }
+        }
+    }
+
+    @Test
+    public void test3D() {
+        final RandomGenerator random = new Well1024a(0x7f5d3b19e8c6a420l);
+        for (final DftNormalization normalization : DftNormalization.values()) {
+            for (final TransformType type : TransformType.values()) {
+                final double[] dataR = createData(random, 4 * 3 * 7);
+                final double[] dataI = createData(random, 4 * 3 * 7);
+                final double[][] expected = dft(dataR, dataI, normalization, type, 4, 3, 7);
+                new BatchFastFourierTransformer(normalization, type, null).transform(dataR, dataI, 4, 3, 7);
+                Assert.assertArrayEquals(expected[0], dataR, 1.0e-13);
+                Assert.assertArrayEquals(expected[1], dataI, 1.0e-13);
+            }
+        }
+    }
+
+    @Test
+    public void testDegenerateDimensions() {
+        final RandomGenerator random = new Well1024a(0x2e4c6a8b0d1f3957l);
+        final double[] dataR = createData(random, 12);
+        final double[] dataI = createData(random, 12);
+        final double[][] expected = dft(dataR, dataI, DftNormalization.STANDARD, TransformType.FORWARD, 12);
+        new BatchFastFourierTransformer(DftNormalization.STANDARD, TransformType.FORWARD, null).
+            transform(dataR, dataI, 1, 12, 1);
+        Assert.assertArrayEquals(expected[0], dataR, 1.0e-14);
+        Assert.assertArrayEquals(expected[1], dataI, 1.0e-14);
+    }
+
+    @Test
+    public void testRoundTrip2D() {
+        final RandomGenerator random = new Well1024a(0x68a4c2e0f1d3b597l);
+        final double[] dataR = createData(random, 64 * 45);
+        final double[] dataI = createData(random, 64 * 45);
+        final double[] copyR = dataR.clone();
+        final double[] copyI = dataI.clone();
+        new BatchFastFourierTransformer(DftNormalization.STANDARD, TransformType.FORWARD, null).transform(dataR, dataI, 64, 45);
+        new BatchFastFourierTransformer(DftNormalization.STANDARD, TransformType.INVERSE, null).transform(dataR, dataI, 64, 45);
+        Assert.assertArrayEquals(copyR, dataR, 1.0e-14);
+        Assert.assertArrayEquals(copyI, dataI, 1.0e-14);
+    }
+
+    @Test
+    public void testParallel() {
+        final RandomGenerator random = new Well1024a(0x3a5c7e9f1b2d4068l);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final BatchFastFourierTransformer sequential =
+                            new BatchFastFourierTransformer(DftNormalization.UNITARY, TransformType.FORWARD, null);
+            final BatchFastFourierTransformer parallel =
+                            new BatchFastFourierTransformer(DftNormalization.UNITARY, TransformType.FORWARD, pool);
+            Assert.assertSame(pool, parallel.getPool());
+
+            // batch
+            final double[] batchR = createData(random, 200 * 1024);
+            final double[] batchI = createData(random, 200 * 1024);
+            final double[] copyR  = batchR.clone();
+            final double[] copyI  = batchI.clone();
+            sequential.transformBatch(batchR, batchI, 1024);
+            parallel.transformBatch(copyR, copyI, 1024);
+            Assert.assertArrayEquals(batchR, copyR, 0.0);
+            Assert.assertArrayEquals(batchI, copyI, 0.0);
+
+            // 3D
+            final double[] cubeR = createData(random, 40 * 30 * 50);
+            final double[] cubeI = createData(random, 40 * 30 * 50);
+            final double[] cubeCopyR = cubeR.clone();
+            final double[] cubeCopyI = cubeI.clone();
+            sequential.transform(cubeR, cubeI, 40, 30, 50);
+            parallel.transform(cubeCopyR, cubeCopyI, 40, 30, 50);
+            Assert.assertArrayEquals(cubeR, cubeCopyR, 0.0);
+            Assert.assertArrayEquals(cubeI, cubeCopyI, 0.0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testWrongDimensions() {
+        final BatchFastFourierTransformer transformer =
+                        new BatchFastFourierTransformer(DftNormalization.STANDARD, TransformType.FORWARD, null);
+        try {
+            transformer.transformBatch(new double[20], new double[20], 6);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedFFTFormats.NOT_MULTIPLE_OF_SIGNAL_LENGTH, miae.getSpecifier());
+        }
+        try {
+            transformer.transformBatch(new double[20], new double[20], 0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, miae.getSpecifier());
+        }
+        try {
+            transformer.transform(new double[20], new double[20], 4, 6);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+        try {
+            transformer.transform(new double[20], new double[19], 4, 5);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+    private static double[] createData(final RandomGenerator random, final int size) {
+        final double[] data = new double[size];
+        for (int i = 0; i < size; ++i) {
+            data[i] = 2 * random.nextDouble() - 1;
+        }
+        return data;
+    }
+
+    /** Naive multi-dimensional DFT. */
+    private static double[][] dft(final double[] dataR, final double[] dataI,
+                                  final DftNormalization normalization, final TransformType type,
+                                  final int... dimensions) {
+        final int size = dataR.length;
+        final double sign = (type == TransformType.FORWARD) ? -1 : 1;
+        final double scale;
+        if (normalization == DftNormalization.UNITARY) {
+            scale = 1.0 / FastMath.sqrt(size);
+        } else {
+            scale = (type == TransformType.FORWARD) ? 1.0 : 1.0 / size;
+        }
+        final double[][] result = new double[2][size];
+        final int[] k = new int[dimensions.length];
+        final int[] j = new int[dimensions.length];
+        for (int p = 0; p < size; ++p) {
+            unravel(p, dimensions, k);
+            double sumR = 0;
+            double sumI = 0;
+            for (int q = 0; q < size; ++q) {
+                unravel(q, dimensions, j);
+                double phase = 0;
+                for (int d = 0; d < dimensions.length; ++d) {
+                    phase += ((double) ((k[d] * j[d]) % dimensions[d])) / dimensions[d];
+                }
+                final SinCos sc = FastMath.sinCos(sign * 2 * FastMath.PI * phase);
+                sumR += dataR[q] * sc.cos() - dataI[q] * sc.sin();
+                sumI += dataR[q] * sc.sin() + dataI[q] * sc.cos();
+            }
+            result[0][p] = scale * sumR;
+            result[1][p] = scale * sumI;
+        }
+        return result;
+    }
+
+    private static void unravel(final int index, final int[] dimensions, final int[] indices) {
+        int remaining = index;
+        for (int d = dimensions.length - 1; d >= 0; --d) {
+            indices[d] = remaining % dimensions[d];
+            remaining /= dimensions[d];
+        }
+    }
+
+}
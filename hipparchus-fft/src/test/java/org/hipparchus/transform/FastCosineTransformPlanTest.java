@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.transform;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FastCosineTransformPlanTest {
+
+    @Test
+    public void testConsistencyWithTransformer() {
+        final RandomGenerator random = new Well1024a(0x1f3e5d7c9b2a4068l);
+        for (final DctNormalization normalization : DctNormalization.values()) {
+            for (final TransformType type : TransformType.values()) {
+                final FastCosineTransformer transformer = new FastCosineTransformer(normalization);
+                for (final int n : new int[] { 2, 3, 5, 9, 17, 65, 1025 }) {
+                    final FastCosineTransformPlan plan = new FastCosineTransformPlan(n, normalization, type);
+                    Assert.assertEquals(n, plan.getLength());
+                    Assert.assertEquals(normalization, plan.getNormalization());
+                    Assert.assertEquals(type, plan.getType());
+                    for (int k = 0; k < 3; ++k) {
+                        final double[] f = new double[n];
+                        for (int i = 0; i < n; ++i) {
+                            f[i] = 2 * random.nextDouble() - 1;
+                        }
+                        final double[] expected = transformer.transform(f, type);
+                        plan.transform(f);
+                        Assert.assertArrayEquals(expected, f, 1.0e-15);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final RandomGenerator random = new Well1024a(0x5a7c9e1b3d2f4061l);
+        final int n = 1025;
+        final FastCosineTransformPlan forward = new FastCosineTransformPlan(n, DctNormalization.ORTHOGONAL_DCT_I, TransformType.FORWARD);
+        final FastCosineTransformPlan inverse = new FastCosineTransformPlan(n, DctNormalization.ORTHOGONAL_DCT_I, TransformType.INVERSE);
+        final double[] f = new double[n];
+        for (int i = 0; i < n; ++i) {
+            f[i] = random.nextGaussian();
+        }
+        final double[] f0 = f.clone();
+        forward.transform(f);
+        inverse.transform(f);
+
+        // the odd terms of the transform are computed by a running sum, so rounding
+        // errors accumulate towards both ends of the round trip result; over random
+        // data sets of this length, the largest error is about 2.7e-13 whether the
+        // pre-processed data is transformed using a complex or a real Fourier
+        // transform, whereas the root mean square error remains close to 1.0e-14
+        double sum2 = 0;
+        for (int i = 0; i < n; ++i) {
+            sum2 += (f[i] - f0[i]) * (f[i] - f0[i]);
+        }
+        Assert.assertEquals(0.0, FastMath.sqrt(sum2 / n), 2.0e-14);
+        Assert.assertArrayEquals(f0, f, 5.0e-13);
+    }
+
+    @Test
+    public void testWrongLength() {
+        try {
+            new FastCosineTransformPlan(16, DctNormalization.STANDARD_DCT_I, TransformType.FORWARD);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedFFTFormats.NOT_POWER_OF_TWO_PLUS_ONE, miae.getSpecifier());
+        }
+        try {
+            new FastCosineTransformPlan(17, DctNormalization.STANDARD_DCT_I, TransformType.FORWARD).transform(new double[16]);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.transform;
+
+import org.hipparchus.complex.Complex;
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FastFourierTransformPlanTest {
+
+    @Test
+    public void testConsistencyWithTransformer() {
+        final RandomGenerator random = new Well1024a(0x3c7b0a5f4e1d2b69l);
+        for (final DftNormalization normalization : DftNormalization.values()) {
+            for (final TransformType type : TransformType.values()) {
+                final FastFourierTransformer transformer = new FastFourierTransformer(normalization);
+                for (final int n : new int[] { 1, 2, 4, 8, 64, 1024, 3, 6, 35, 360, 11, 127, 1031 }) {
+                    final FastFourierTransformPlan plan = new FastFourierTransformPlan(n, normalization, type);
+                    Assert.assertEquals(n, plan.getLength());
+                    Assert.assertEquals(normalization, plan.getNormalization());
+                    Assert.assertEquals(type, plan.getType());
+                    final Complex[] x = new Complex[n];
+                    final double[] re = new double[n];
+                    final double[] im = new double[n];
+                    for (int i = 0; i < n; ++i) {
+                        re[i] = 2 * random.nextDouble() - 1;
+                        im[i] = 2 * random.nextDouble() - 1;
+                        x[i]  = new Complex(re[i], im[i]);
+                    }
+                    final Complex[] expected = transformer.transform(x, type);
+                    plan.transform(re, im);
+                    for (int i = 0; i < n; ++i) {
+                        Assert.assertEquals(expected[i].getReal(),      re[i], 1.0e-12 * n);
+                        Assert.assertEquals(expected[i].getImaginary(), im[i], 1.0e-12 * n);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReuse() {
+        final RandomGenerator random = new Well1024a(0x6e1f4a2b9d3c5e07l);
+        for (final int n : new int[] { 1024, 360, 127 }) {
+            final FastFourierTransformPlan forward = new FastFourierTransformPlan(n, DftNormalization.STANDARD, TransformType.FORWARD);
+            final FastFourierTransformPlan inverse = new FastFourierTransformPlan(n, DftNormalization.STANDARD, TransformType.INVERSE);
+            for (int k = 0; k < 5; ++k) {
+                final double[] re = new double[n];
+                final double[] im = new double[n];
+                for (int i = 0; i < n; ++i) {
+                    re[i] = random.nextGaussian();
+                    im[i] = random.nextGaussian();
+                }
+                final double[] re0 = re.clone();
+                final double[] im0 = im.clone();
+                forward.transform(re, im);
+                inverse.transform(re, im);
+                for (int i = 0; i < n; ++i) {
+                    Assert.assertEquals(re0[i], re[i], 1.0e-14);
+                    Assert.assertEquals(im0[i], im[i], 1.0e-14);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAccurateTwiddles() {
+        // impulse at index 1 transforms to exact roots of unity
+        final int n = 1 << 16;
+        final double[] re = new double[n];
+        final double[] im = new double[n];
+        re[1] = 1.0;
+        new FastFourierTransformPlan(n, DftNormalization.STANDARD, TransformType.FORWARD).transform(re, im);
+        for (int k = 0; k < n; k += 97) {
+            Assert.assertEquals( FastMath.cos(2 * FastMath.PI * k / n), re[k], 1.0e-15);
+            Assert.assertEquals(-FastMath.sin(2 * FastMath.PI * k / n), im[k], 1.0e-15);
+        }
+    }
+
+    @Test
+    public void testWrongLength() {
+        final FastFourierTransformPlan plan = new FastFourierTransformPlan(16, DftNormalization.STANDARD, TransformType.FORWARD);
+        try {
+            plan.transform(new double[15], new double[15]);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+        try {
+            plan.transform(new double[16], new double[15]);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testNotPositiveLength() {
+        try {
+            new FastFourierTransformPlan(0, DftNormalization.STANDARD, TransformType.FORWARD);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testTooLargeForBluestein() {
+        // the padded length of these lengths does not fit in an array,
+        // the second one even overflows 2n - 1
+        for (final int n : new int[] { (1 << 29) + 1, Integer.MAX_VALUE }) {
+            try {
+                new FastFourierTransformPlan(n, DftNormalization.STANDARD, TransformType.FORWARD);
+                Assert.fail("an exception should have been thrown");
+            } catch (MathIllegalArgumentException miae) {
+                Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_LARGE, miae.getSpecifier());
+                Assert.assertEquals(n, ((Integer) miae.getParts()[0]).intValue());
+            }
+        }
+    }
+
+}
@@ -27,6 +27,7 @@ import org.hipparchus.analysis.UnivariateFunction;
 import org.hipparchus.analysis.function.Sin;
 import org.hipparchus.analysis.function.Sinc;
 import org.hipparchus.complex.Complex;
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.util.FastMath;
 import org.junit.Assert;
@@ -47,75 +48,6 @@ public final class FastFourierTransformerTest {
      * Precondition checks.
      */
 
-    @Test
-    public void testTransformComplexSizeNotAPowerOfTwo() {
-        final int n = 127;
-        final Complex[] x = createComplexData(n);
-        final DftNormalization[] norm;
-        norm = DftNormalization.values();
-        final TransformType[] type;
-        type = TransformType.values();
-        for (int i = 0; i < norm.length; i++) {
-            for (int j = 0; j < type.length; j++) {
-                final FastFourierTransformer fft;
-                fft = new FastFourierTransformer(norm[i]);
-                try {
-                    fft.transform(x, type[j]);
-                    Assert.fail(norm[i] + ", " + type[j] +
-                        ": MathIllegalArgumentException was expected");
-                } catch (MathIllegalArgumentException e) {
-                    // Expected behaviour
-                }
-            }
-        }
-    }
-
-    @Test
-    public void testTransformRealSizeNotAPowerOfTwo() {
-        final int n = 127;
-        final double[] x = createRealData(n);
-        final DftNormalization[] norm;
-        norm = DftNormalization.values();
-        final TransformType[] type;
-        type = TransformType.values();
-        for (int i = 0; i < norm.length; i++) {
-            for (int j = 0; j < type.length; j++) {
-                final FastFourierTransformer fft;
-                fft = new FastFourierTransformer(norm[i]);
-                try {
-                    fft.transform(x, type[j]);
-                    Assert.fail(norm[i] + ", " + type[j] +
-                        ": MathIllegalArgumentException was expected");
-                } catch (MathIllegalArgumentException e) {
-                    // Expected behaviour
-                }
-            }
-        }
-    }
-
-    @Test
-    public void testTransformFunctionSizeNotAPowerOfTwo() {
-        final int n = 127;
-        final UnivariateFunction f = new Sin();
-        final DftNormalization[] norm;
-        norm = DftNormalization.values();
-        final TransformType[] type;
-        type = TransformType.values();
-        for (int i = 0; i < norm.length; i++) {
-            for (int j = 0; j < type.length; j++) {
-                final FastFourierTransformer fft;
-                fft = new FastFourierTransformer(norm[i]);
-                try {
-                    fft.transform(f, 0.0, Math.PI, n, type[j]);
-                    Assert.fail(norm[i] + ", " + type[j] +
-                        ": MathIllegalArgumentException was expected");
-                } catch (MathIllegalArgumentException e) {
-                    // Expected behaviour
-                }
-            }
-        }
-    }
-
     @Test
     public void testTransformFunctionNotStrictlyPositiveNumberOfSamples() {
         final int n = -128;
@@ -373,6 +305,100 @@ public final class FastFourierTransformerTest {
         }
     }
 
+    @Test
+    public void testTransformComplexArbitrarySize() {
+        final DftNormalization[] norm;
+        norm = DftNormalization.values();
+        final TransformType[] type;
+        type = TransformType.values();
+        for (int i = 0; i < norm.length; i++) {
+            for (int j = 0; j < type.length; j++) {
+                // mixed-radix lengths
+                doTestTransformComplex(3, 1.0E-12, norm[i], type[j]);
+                doTestTransformComplex(5, 1.0E-12, norm[i], type[j]);
+                doTestTransformComplex(6, 1.0E-12, norm[i], type[j]);
+                doTestTransformComplex(7, 1.0E-12, norm[i], type[j]);
+                doTestTransformComplex(12, 1.0E-12, norm[i], type[j]);
+                doTestTransformComplex(49, 1.0E-12, norm[i], type[j]);
+                doTestTransformComplex(105, 1.0E-10, norm[i], type[j]);
+                doTestTransformComplex(360, 1.0E-10, norm[i], type[j]);
+                // Bluestein lengths
+                doTestTransformComplex(11, 1.0E-12, norm[i], type[j]);
+                doTestTransformComplex(127, 1.0E-10, norm[i], type[j]);
+                doTestTransformComplex(253, 1.0E-10, norm[i], type[j]);
+            }
+        }
+    }
+
+    @Test
+    public void testTransformRealArbitrarySize() {
+        final DftNormalization[] norm;
+        norm = DftNormalization.values();
+        final TransformType[] type;
+        type = TransformType.values();
+        for (int i = 0; i < norm.length; i++) {
+            for (int j = 0; j < type.length; j++) {
+                doTestTransformReal(15, 1.0E-12, norm[i], type[j]);
+                doTestTransformReal(100, 1.0E-10, norm[i], type[j]);
+                doTestTransformReal(127, 1.0E-10, norm[i], type[j]);
+            }
+        }
+    }
+
+    @Test
+    public void testTransformFunctionArbitrarySize() {
+        final UnivariateFunction f = new Sinc();
+        final double min = -FastMath.PI;
+        final double max = FastMath.PI;
+        final DftNormalization[] norm;
+        norm = DftNormalization.values();
+        final TransformType[] type;
+        type = TransformType.values();
+        for (int i = 0; i < norm.length; i++) {
+            for (int j = 0; j < type.length; j++) {
+                doTestTransformFunction(f, min, max, 21, 1.0E-12, norm[i], type[j]);
+                doTestTransformFunction(f, min, max, 35, 1.0E-12, norm[i], type[j]);
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTripArbitrarySize() {
+        for (final int n : new int[] { 1, 3, 30, 1001, 2310, 4099 }) {
+            final double[][] dataRI = new double[][] { createRealData(n), createRealData(n) };
+            final double[][] copy   = new double[][] { dataRI[0].clone(), dataRI[1].clone() };
+            FastFourierTransformer.transformInPlace(dataRI, DftNormalization.UNITARY, TransformType.FORWARD);
+            FastFourierTransformer.transformInPlace(dataRI, DftNormalization.UNITARY, TransformType.INVERSE);
+            for (int i = 0; i < n; ++i) {
+                Assert.assertEquals(copy[0][i], dataRI[0][i], 1.0e-12);
+                Assert.assertEquals(copy[1][i], dataRI[1][i], 1.0e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        try {
+            FastFourierTransformer.transformInPlace(new double[2][0], DftNormalization.STANDARD, TransformType.FORWARD);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, miae.getSpecifier());
+        }
+        final FastFourierTransformer fft = new FastFourierTransformer(DftNormalization.STANDARD);
+        try {
+            fft.transform(new double[0], TransformType.FORWARD);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, miae.getSpecifier());
+        }
+        try {
+            fft.transform(new Complex[0], TransformType.INVERSE);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, miae.getSpecifier());
+        }
+    }
+
     @Test
     public void testStandardTransformFunction() {
         final UnivariateFunction f = new Sinc();
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.transform;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FastSineTransformPlanTest {
+
+    @Test
+    public void testConsistencyWithTransformer() {
+        final RandomGenerator random = new Well1024a(0x2d4f6b8a0c1e3057l);
+        for (final DstNormalization normalization : DstNormalization.values()) {
+            for (final TransformType type : TransformType.values()) {
+                final FastSineTransformer transformer = new FastSineTransformer(normalization);
+                for (final int n : new int[] { 1, 2, 4, 8, 16, 64, 1024 }) {
+                    final FastSineTransformPlan plan = new FastSineTransformPlan(n, normalization, type);
+                    Assert.assertEquals(n, plan.getLength());
+                    Assert.assertEquals(normalization, plan.getNormalization());
+                    Assert.assertEquals(type, plan.getType());
+                    for (int k = 0; k < 3; ++k) {
+                        final double[] f = new double[n];
+                        for (int i = 1; i < n; ++i) {
+                            f[i] = 2 * random.nextDouble() - 1;
+                        }
+                        final double[] expected = transformer.transform(f, type);
+                        plan.transform(f);
+                        Assert.assertArrayEquals(expected, f, 1.0e-15);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final RandomGenerator random = new Well1024a(0x7b9d1f3a5c2e4086l);
+        final int n = 1024;
+        final FastSineTransformPlan forward = new FastSineTransformPlan(n, DstNormalization.STANDARD_DST_I, TransformType.FORWARD);
+        final FastSineTransformPlan inverse = new FastSineTransformPlan(n, DstNormalization.STANDARD_DST_I, TransformType.INVERSE);
+        final double[] f = new double[n];
+        for (int i = 1; i < n; ++i) {
+            f[i] = random.nextGaussian();
+        }
+        final double[] f0 = f.clone();
+        forward.transform(f);
+        inverse.transform(f);
+        Assert.assertArrayEquals(f0, f, 1.0e-13);
+    }
+
+    @Test
+    public void testFirstElementNotZero() {
+        try {
+            new FastSineTransformPlan(8, DstNormalization.STANDARD_DST_I, TransformType.FORWARD).transform(new double[] { 1, 0, 0, 0, 0, 0, 0, 0 });
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedFFTFormats.FIRST_ELEMENT_NOT_ZERO, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testWrongLength() {
+        try {
+            new FastSineTransformPlan(17, DstNormalization.STANDARD_DST_I, TransformType.FORWARD);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedFFTFormats.NOT_POWER_OF_TWO_CONSIDER_PADDING, miae.getSpecifier());
+        }
+        try {
+            new FastSineTransformPlan(16, DstNormalization.STANDARD_DST_I, TransformType.FORWARD).transform(new double[17]);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.hipparchus.transform;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RealFastFourierTransformPlanTest {
+
+    private static final int[] SIZES = { 1, 2, 3, 4, 5, 6, 7, 8, 12, 16, 30, 127, 128, 254, 1000, 1024 };
+
+    @Test
+    public void testForwardConsistencyWithComplexPlan() {
+        final RandomGenerator random = new Well1024a(0x4b6d8f0a2c1e3759l);
+        for (final DftNormalization normalization : DftNormalization.values()) {
+            for (final int n : SIZES) {
+                final RealFastFourierTransformPlan plan = new RealFastFourierTransformPlan(n, normalization);
+                Assert.assertEquals(n, plan.getLength());
+                Assert.assertEquals(n / 2 + 1, plan.getSpectrumLength());
+                Assert.assertEquals(normalization, plan.getNormalization());
+                final double[] f  = new double[n];
+                for (int i = 0; i < n; ++i) {
+                    f[i] = 2 * random.nextDouble() - 1;
+                }
+                final double[] f0 = f.clone();
+                final double[] re = f.clone();
+                final double[] im = new double[n];
+                new FastFourierTransformPlan(n, normalization, TransformType.FORWARD).transform(re, im);
+                final double[] spectrumR = new double[plan.getSpectrumLength()];
+                final double[] spectrumI = new double[plan.getSpectrumLength()];
+                plan.transform(f, spectrumR, spectrumI);
+                Assert.assertArrayEquals(f0, f, 0.0);
+                for (int k = 0; k < spectrumR.length; ++k) {
+                    Assert.assertEquals(re[k], spectrumR[k], 1.0e-13 * n);
+                    Assert.assertEquals(im[k], spectrumI[k], 1.0e-13 * n);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInverseConsistencyWithComplexPlan() {
+        final RandomGenerator random = new Well1024a(0x0e2c4a6b8d1f3957l);
+        for (final DftNormalization normalization : DftNormalization.values()) {
+            for (final int n : SIZES) {
+                final RealFastFourierTransformPlan plan = new RealFastFourierTransformPlan(n, normalization);
+
+                // build a Hermitian spectrum
+                final double[] spectrumR = new double[plan.getSpectrumLength()];
+                final double[] spectrumI = new double[plan.getSpectrumLength()];
+                final double[] re = new double[n];
+                final double[] im = new double[n];
+                for (int k = 0; k < spectrumR.length; ++k) {
+                    spectrumR[k] = 2 * random.nextDouble() - 1;
+                    spectrumI[k] = (k == 0 || 2 * k == n) ? 0 : 2 * random.nextDouble() - 1;
+                    re[k]        = spectrumR[k];
+                    im[k]        = spectrumI[k];
+                    if (k > 0) {
+                        re[n - k] =  spectrumR[k];
+                        im[n - k] = -spectrumI[k];
+                    }
+                }
+
+                new FastFourierTransformPlan(n, normalization, TransformType.INVERSE).transform(re, im);
+                final double[] f = new double[n];
+                plan.inverseTransform(spectrumR, spectrumI, f);
+                for (int i = 0; i < n; ++i) {
+                    Assert.assertEquals(re[i], f[i], 1.0e-14 * n);
+                    Assert.assertEquals(0.0,   im[i], 1.0e-14 * n);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final RandomGenerator random = new Well1024a(0x79a3c5e1b0d2f486l);
+        for (final int n : SIZES) {
+            final RealFastFourierTransformPlan plan = new RealFastFourierTransformPlan(n, DftNormalization.UNITARY);
+            final double[] f = new double[n];
+            for (int i = 0; i < n; ++i) {
+                f[i] = random.nextGaussian();
+            }
+            final double[] spectrumR = new double[plan.getSpectrumLength()];
+            final double[] spectrumI = new double[plan.getSpectrumLength()];
+            final double[] g = new double[n];
+            plan.transform(f, spectrumR, spectrumI);
+            plan.inverseTransform(spectrumR, spectrumI, g);
+            Assert.assertArrayEquals(f, g, 1.0e-14);
+        }
+    }
+
+    @Test
+    public void testIgnoredImaginaryParts() {
+        final int n = 16;
+        final RealFastFourierTransformPlan plan = new RealFastFourierTransformPlan(n, DftNormalization.STANDARD);
+        final double[] spectrumR = new double[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 };
+        final double[] spectrumI = new double[] { 0, 1, 2, 3, 4, 3, 2, 1, 0 };
+        final double[] f1 = new double[n];
+        plan.inverseTransform(spectrumR, spectrumI, f1);
+        spectrumI[0] = 10;
+        spectrumI[8] = 20;
+        final double[] f2 = new double[n];
+        plan.inverseTransform(spectrumR, spectrumI, f2);
+        Assert.assertArrayEquals(f1, f2, 1.0e-15);
+    }
+
+    @Test
+    public void testWrongLength() {
+        final RealFastFourierTransformPlan plan = new RealFastFourierTransformPlan(16, DftNormalization.STANDARD);
+        try {
+            plan.transform(new double[15], new double[9], new double[9]);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+        try {
+            plan.transform(new double[16], new double[16], new double[16]);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+        try {
+            plan.inverseTransform(new double[9], new double[8], new double[16]);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+        try {
+            new RealFastFourierTransformPlan(0, DftNormalization.STANDARD);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, miae.getSpecifier());
+        }
+    }
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.util.MathUtils;
+
+/**
+ * Base class for continuous models of ODE solutions using one Chebyshev
+ * polynomial per step.
+ *
+ * <p>This class holds the step search and the polynomial evaluation shared by
+ * {@link CompactDenseOutputModel}, which stores its data in heap arrays, and
+ * {@link MappedDenseOutputModel}, which reads it from a memory-mapped file.
+ * Subclasses only provide access to the step boundaries and coefficients
+ * through indices, using the layout documented in {@link MappedDenseOutputModel}.</p>
+ *
+ * @since 1.7
+ */
+abstract class AbstractChebyshevDenseOutputModel {
+
+    /** Get the degree of the polynomials.
+     * @return degree of the polynomials
+     */
+    public abstract int getDegree();
+
+    /** Get the number of steps.
+     * @return number of steps
+     */
+    public abstract int getNumberOfSteps();
+
+    /** Get the dimension of the complete state.
+     * @return dimension of the complete state
+     */
+    public abstract int getCompleteStateDimension();
+
+    /** Check if the natural integration direction is forward.
+     * @return true if the integration direction is forward
+     */
+    public abstract boolean isForward();
+
+    /** Get the dimensions of primary and secondary states.
+     * @return dimensions of primary and secondary states (reference to internal array)
+     */
+    abstract int[] getDimensions();
+
+    /** Get a step boundary.
+     * @param index index of the boundary, between 0 and the number of steps (included)
+     * @return step boundary
+     */
+    abstract double getTime(int index);
+
+    /** Get a Chebyshev coefficient.
+     * @param index index of the coefficient, equal to
+     * ((step * (degree + 1)) + k) * completeDimension + component
+     * @return Chebyshev coefficient
+     */
+    abstract double getCoefficient(long index);
+
+    /** Get the initial integration time.
+     * @return initial integration time
+     */
+    public double getInitialTime() {
+        return getTime(0);
+    }
+
+    /** Get the final integration time.
+     * @return final integration time
+     */
+    public double getFinalTime() {
+        return getTime(getNumberOfSteps());
+    }
+
+    /** Get the state at interpolated time.
+     * <p>
+     * Times outside of the integration range are extrapolated
+     * using the first or last step.
+     * </p>
+     * @param time time of the interpolated point
+     * @return state at interpolated time
+     */
+    public ODEStateAndDerivative getInterpolatedState(final double time) {
+
+        final double[] state      = new double[getCompleteStateDimension()];
+        final double[] derivative = new double[getCompleteStateDimension()];
+        getInterpolatedCompleteState(time, state, derivative);
+
+        return buildState(time, getDimensions(), state, derivative);
+
+    }
+
+    /** Get the complete state at interpolated time, without allocating memory.
+     * <p>
+     * Times outside of the integration range are extrapolated
+     * using the first or last step.
+     * </p>
+     * @param time time of the interpolated point
+     * @param state placeholder where to put the complete state at interpolated time
+     * @param derivative placeholder where to put the complete state derivative at
+     * interpolated time (may be null if derivatives are not needed)
+     * @exception MathIllegalArgumentException if the placeholders dimensions do
+     * not match the complete state dimension
+     */
+    public void getInterpolatedCompleteState(final double time, final double[] state, final double[] derivative)
+        throws MathIllegalArgumentException {
+
+        final int degree            = getDegree();
+        final int completeDimension = getCompleteStateDimension();
+        MathUtils.checkDimension(state.length, completeDimension);
+        if (derivative != null) {
+            MathUtils.checkDimension(derivative.length, completeDimension);
+        }
+
+        // locate the step
+        final int    step = locateStep(time);
+        final double t0   = getTime(step);
+        final double h    = getTime(step + 1) - t0;
+        final double x    = 2 * (time - t0) / h - 1;
+
+        // evaluate the Chebyshev series and its derivative, using
+        // T_{k+1} = 2 x T_k - T_{k-1} and T'_{k+1} = 2 T_k + 2 x T'_{k} - T'_{k-1}
+        final long offset = ((long) step) * (degree + 1) * completeDimension;
+        for (int i = 0; i < completeDimension; ++i) {
+            state[i] = getCoefficient(offset + i);
+            if (derivative != null) {
+                derivative[i] = 0;
+            }
+        }
+        double tkM1  = 1;
+        double tk    = x;
+        double dtkM1 = 0;
+        double dtk   = 1;
+        for (int k = 1; k <= degree; ++k) {
+            final long kOffset = offset + k * completeDimension;
+            for (int i = 0; i < completeDimension; ++i) {
+                final double c = getCoefficient(kOffset + i);
+                state[i] += c * tk;
+                if (derivative != null) {
+                    derivative[i] += c * dtk;
+                }
+            }
+            final double tkP1  = 2 * x * tk - tkM1;
+            final double dtkP1 = 2 * tk + 2 * x * dtk - dtkM1;
+            tkM1  = tk;
+            tk    = tkP1;
+            dtkM1 = dtk;
+            dtk   = dtkP1;
+        }
+
+        // convert derivative with respect to x into derivative with respect to time
+        if (derivative != null) {
+            final double scale = 2 / h;
+            for (int i = 0; i < completeDimension; ++i) {
+                derivative[i] *= scale;
+            }
+        }
+
+    }
+
+    /** Locate the step containing a time.
+     * @param time time to locate
+     * @return index of the step containing time (0 or nbSteps - 1 if time is out of range)
+     */
+    private int locateStep(final double time) {
+
+        // use a signed time so the search is the same in both directions
+        final double sign = isForward() ? 1 : -1;
+        final double st   = sign * time;
+
+        int low  = 0;
+        int high = getNumberOfSteps() - 1;
+        while (low < high) {
+            // invariant: the step is between low and high (both included)
+            final int mid = (low + high + 1) >>> 1;
+            if (st < sign * getTime(mid)) {
+                high = mid - 1;
+            } else {
+                low = mid;
+            }
+        }
+
+        return low;
+
+    }
+
+    /** Build a state by splitting a complete state into primary and secondary states.
+     * @param time time of the state
+     * @param dimensions dimensions of primary and secondary states
+     * @param state complete state
+     * @param derivative complete state derivative
+     * @return state
+     */
+    private static ODEStateAndDerivative buildState(final double time, final int[] dimensions,
+                                                    final double[] state, final double[] derivative) {
+        final double[] primaryState      = new double[dimensions[0]];
+        final double[] primaryDerivative = new double[dimensions[0]];
+        System.arraycopy(state,      0, primaryState,      0, dimensions[0]);
+        System.arraycopy(derivative, 0, primaryDerivative, 0, dimensions[0]);
+        if (dimensions.length == 1) {
+            return new ODEStateAndDerivative(time, primaryState, primaryDerivative);
+        }
+        final double[][] secondaryState      = new double[dimensions.length - 1][];
+        final double[][] secondaryDerivative = new double[dimensions.length - 1][];
+        int offset = dimensions[0];
+        for (int i = 1; i < dimensions.length; ++i) {
+            secondaryState[i - 1]      = new double[dimensions[i]];
+            secondaryDerivative[i - 1] = new double[dimensions[i]];
+            System.arraycopy(state,      offset, secondaryState[i - 1],      0, dimensions[i]);
+            System.arraycopy(derivative, offset, secondaryDerivative[i - 1], 0, dimensions[i]);
+            offset += dimensions[i];
+        }
+        return new ODEStateAndDerivative(time, primaryState, primaryDerivative,
+                                         secondaryState, secondaryDerivative);
+    }
+
+}
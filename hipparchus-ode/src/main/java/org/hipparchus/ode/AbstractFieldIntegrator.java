@@ -44,6 +44,8 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Base class managing common boilerplate for all integrators.
@@ -87,6 +89,12 @@ public abstract class AbstractFieldIntegrator<T extends RealFieldElement<T>> imp
     /** Counter for number of evaluations. */
     private Incrementor evaluations;
 
+    /** Pool for parallel evaluation of events states (null for sequential evaluation). */
+    private ForkJoinPool eventsPool;
+
+    /** Integration listener (null if integration is not instrumented). */
+    private FieldODEIntegrationListener<T> integrationListener;
+
     /** Differential equations to integrate. */
     private transient FieldExpandableODE<T> equations;
 
@@ -157,8 +165,10 @@ public abstract class AbstractFieldIntegrator<T extends RealFieldElement<T>> imp
                                 final double convergence,
                                 final int maxIterationCount,
                                 final BracketedRealFieldUnivariateSolver<T> solver) {
-        eventsStates.add(new FieldEventState<T>(handler, maxCheckInterval, field.getZero().add(convergence),
-                                                maxIterationCount, solver));
+        final FieldEventState<T> state = new FieldEventState<T>(handler, maxCheckInterval, field.getZero().add(convergence),
+                                                                maxIterationCount, solver);
+        state.setIntegrationListener(integrationListener);
+        eventsStates.add(state);
     }
 
     /** {@inheritDoc} */
@@ -177,6 +187,60 @@ public abstract class AbstractFieldIntegrator<T extends RealFieldElement<T>> imp
         eventsStates.clear();
     }
 
+    /** Set the pool for parallel evaluation of events states.
+     * <p>
+     * When a pool is set and there are at least two events handlers, the events
+     * states are evaluated concurrently at the start of each step, as they are
+     * independent from each other. In this case, the switching functions of
+     * different handlers may be called concurrently, and handlers must not share
+     * root solvers (the solvers set up by the {@code addEventHandler} methods
+     * without explicit solver are never shared). Events are still handled
+     * sequentially, in chronological order. Sequential evaluation is the default.
+     * </p>
+     * @param eventsPool pool for parallel evaluation of events states
+     * (null for sequential evaluation)
+     * @see #getEventsPool()
+     * @since 1.7
+     */
+    public void setEventsPool(final ForkJoinPool eventsPool) {
+        this.eventsPool = eventsPool;
+    }
+
+    /** Get the pool for parallel evaluation of events states.
+     * @return pool for parallel evaluation of events states (null for sequential evaluation)
+     * @see #setEventsPool(ForkJoinPool)
+     * @since 1.7
+     */
+    public ForkJoinPool getEventsPool() {
+        return eventsPool;
+    }
+
+    /** Set the integration listener.
+     * <p>
+     * The listener receives instrumentation data (accepted and rejected steps,
+     * derivatives computation time, events evaluations, step handlers time).
+     * Instrumentation is disabled when there is no listener, which is the default.
+     * </p>
+     * @param listener integration listener (null to disable instrumentation)
+     * @see #getIntegrationListener()
+     * @since 1.7
+     */
+    public void setIntegrationListener(final FieldODEIntegrationListener<T> listener) {
+        this.integrationListener = listener;
+        for (final FieldEventState<T> state : eventsStates) {
+            state.setIntegrationListener(listener);
+        }
+    }
+
+    /** Get the integration listener.
+     * @return integration listener (null if instrumentation is disabled)
+     * @see #setIntegrationListener(FieldODEIntegrationListener)
+     * @since 1.7
+     */
+    public FieldODEIntegrationListener<T> getIntegrationListener() {
+        return integrationListener;
+    }
+
     /** {@inheritDoc} */
     @Override
     public T getCurrentSignedStepsize() {
@@ -213,6 +277,10 @@ public abstract class AbstractFieldIntegrator<T extends RealFieldElement<T>> imp
         this.equations = eqn;
         evaluations    = evaluations.withCount(0);
 
+        if (integrationListener != null) {
+            integrationListener.init(s0, t);
+        }
+
         // initialize ODE
         eqn.init(s0, t);
 
@@ -268,7 +336,13 @@ public abstract class AbstractFieldIntegrator<T extends RealFieldElement<T>> imp
     public T[] computeDerivatives(final T t, final T[] y)
         throws MathIllegalArgumentException, MathIllegalStateException, NullPointerException {
         evaluations.increment();
-        return equations.computeDerivatives(t, y);
+        if (integrationListener == null) {
+            return equations.computeDerivatives(t, y);
+        }
+        final long start = System.nanoTime();
+        final T[] yDot = equations.computeDerivatives(t, y);
+        integrationListener.derivativesComputed(System.nanoTime() - start);
+        return yDot;
     }
 
     /** Set the stateInitialized flag.
@@ -300,6 +374,9 @@ public abstract class AbstractFieldIntegrator<T extends RealFieldElement<T>> imp
 
         FieldODEStateAndDerivative<T> previousState = interpolator.getGlobalPreviousState();
         final FieldODEStateAndDerivative<T> currentState = interpolator.getGlobalCurrentState();
+        if (integrationListener != null) {
+            integrationListener.stepAccepted(currentState.getTime().subtract(previousState.getTime()));
+        }
         AbstractFieldODEStateInterpolator<T> restricted = interpolator;
 
         // initialize the events states if needed
@@ -327,12 +404,7 @@ public abstract class AbstractFieldIntegrator<T extends RealFieldElement<T>> imp
 
             // Evaluate all event detectors for events
             occurringEvents.clear();
-            for (final FieldEventState<T> state : eventsStates) {
-                if (state.evaluateStep(restricted)) {
-                    // the event occurs during the current step
-                    occurringEvents.add(state);
-                }
-            }
+            evaluateEventsStates(restricted, occurringEvents);
 
 
             do {
@@ -378,9 +450,7 @@ public abstract class AbstractFieldIntegrator<T extends RealFieldElement<T>> imp
                     }
 
                     // handle the first part of the step, up to the event
-                    for (final FieldODEStepHandler<T> handler : stepHandlers) {
-                        handler.handleStep(restricted, isLastStep);
-                    }
+                    callStepHandlers(restricted, isLastStep);
 
                     if (isLastStep) {
                         // the event asked to stop integration
@@ -433,14 +503,85 @@ public abstract class AbstractFieldIntegrator<T extends RealFieldElement<T>> imp
         isLastStep = isLastStep || currentState.getTime().subtract(tEnd).abs().getReal() <= FastMath.ulp(tEnd.getReal());
 
         // handle the remaining part of the step, after all events if any
-        for (FieldODEStepHandler<T> handler : stepHandlers) {
-            handler.handleStep(restricted, isLastStep);
-        }
+        callStepHandlers(restricted, isLastStep);
 
         return currentState;
 
     }
 
+    /** Evaluate all events states on a step, queuing the ones triggering an event.
+     * @param interpolator step interpolator
+     * @param occurringEvents queue where to add events states triggering an event
+     */
+    private void evaluateEventsStates(final AbstractFieldODEStateInterpolator<T> interpolator,
+                                      final Queue<FieldEventState<T>> occurringEvents) {
+        if (eventsPool == null || eventsStates.size() < 2) {
+            for (final FieldEventState<T> state : eventsStates) {
+                if (state.evaluateStep(interpolator)) {
+                    // the event occurs during the current step
+                    occurringEvents.add(state);
+                }
+            }
+        } else {
+            // events states are independent from each other, evaluate them concurrently
+            final List<ForkJoinTask<Boolean>> tasks = new ArrayList<>(eventsStates.size());
+            for (final FieldEventState<T> state : eventsStates) {
+                tasks.add(eventsPool.submit(() -> state.evaluateStep(interpolator)));
+            }
+            // wait for all tasks, even if one fails, so no evaluation is still running
+            // when we return, and queue the events in the same order as sequential evaluation
+            RuntimeException failure = null;
+            int i = 0;
+            for (final FieldEventState<T> state : eventsStates) {
+                try {
+                    if (tasks.get(i++).join()) {
+                        // the event occurs during the current step
+                        occurringEvents.add(state);
+                    }
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /** Call the step handlers.
+     * @param interpolator step interpolator
+     * @param isLast true if the step is the last one
+     */
+    private void callStepHandlers(final AbstractFieldODEStateInterpolator<T> interpolator, final boolean isLast) {
+        if (integrationListener == null) {
+            for (final FieldODEStepHandler<T> handler : stepHandlers) {
+                handler.handleStep(interpolator, isLast);
+            }
+        } else {
+            final long start = System.nanoTime();
+            for (final FieldODEStepHandler<T> handler : stepHandlers) {
+                handler.handleStep(interpolator, isLast);
+            }
+            integrationListener.stepHandled(System.nanoTime() - start);
+        }
+    }
+
+    /** Notify the integration listener, if any, that a step has been rejected.
+     * <p>
+     * This method must be called by adaptive integrators each time
+     * step size control rejects a trial step.
+     * </p>
+     * @param rejectedStepSize signed size of the rejected step
+     * @since 1.7
+     */
+    protected void stepRejected(final T rejectedStepSize) {
+        if (integrationListener != null) {
+            integrationListener.stepRejected(rejectedStepSize);
+        }
+    }
+
     /** Check the integration span.
      * @param initialState initial state
      * @param t target time for the integration
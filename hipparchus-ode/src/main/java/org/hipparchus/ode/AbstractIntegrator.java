@@ -43,6 +43,8 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Base class managing common boilerplate for all integrators.
@@ -82,9 +84,21 @@ public abstract class AbstractIntegrator implements ODEIntegrator {
     /** Counter for number of evaluations. */
     private Incrementor evaluations;
 
+    /** Pool for parallel evaluation of events states (null for sequential evaluation). */
+    private ForkJoinPool eventsPool;
+
+    /** Integration listener (null if integration is not instrumented). */
+    private ODEIntegrationListener integrationListener;
+
     /** Differential equations to integrate. */
     private transient ExpandableODE equations;
 
+    /** Ordering sign for events (+1 for forward integration, -1 for backward integration). */
+    private int orderingSign;
+
+    /** Events occurring during current step, reused from step to step to avoid allocation. */
+    private final Queue<EventState> occurringEvents;
+
     /** Build an instance.
      * @param name name of the method
      */
@@ -96,6 +110,14 @@ public abstract class AbstractIntegrator implements ODEIntegrator {
         eventsStates      = new ArrayList<>();
         statesInitialized = false;
         evaluations       = new Incrementor();
+        orderingSign      = +1;
+        occurringEvents   = new PriorityQueue<>(new Comparator<EventState>() {
+            /** {@inheritDoc} */
+            @Override
+            public int compare(final EventState es0, final EventState es1) {
+                return orderingSign * Double.compare(es0.getEventTime(), es1.getEventTime());
+            }
+        });
     }
 
     /** {@inheritDoc} */
@@ -143,8 +165,10 @@ public abstract class AbstractIntegrator implements ODEIntegrator {
                                 final double convergence,
                                 final int maxIterationCount,
                                 final BracketedUnivariateSolver<UnivariateFunction> solver) {
-        eventsStates.add(new EventState(handler, maxCheckInterval, convergence,
-                                        maxIterationCount, solver));
+        final EventState state = new EventState(handler, maxCheckInterval, convergence,
+                                                maxIterationCount, solver);
+        state.setIntegrationListener(integrationListener);
+        eventsStates.add(state);
     }
 
     /** {@inheritDoc} */
@@ -163,6 +187,60 @@ public abstract class AbstractIntegrator implements ODEIntegrator {
         eventsStates.clear();
     }
 
+    /** Set the pool for parallel evaluation of events states.
+     * <p>
+     * When a pool is set and there are at least two events handlers, the events
+     * states are evaluated concurrently at the start of each step, as they are
+     * independent from each other. In this case, the switching functions of
+     * different handlers may be called concurrently, and handlers must not share
+     * root solvers (the solvers set up by the {@code addEventHandler} methods
+     * without explicit solver are never shared). Events are still handled
+     * sequentially, in chronological order. Sequential evaluation is the default.
+     * </p>
+     * @param eventsPool pool for parallel evaluation of events states
+     * (null for sequential evaluation)
+     * @see #getEventsPool()
+     * @since 1.7
+     */
+    public void setEventsPool(final ForkJoinPool eventsPool) {
+        this.eventsPool = eventsPool;
+    }
+
+    /** Get the pool for parallel evaluation of events states.
+     * @return pool for parallel evaluation of events states (null for sequential evaluation)
+     * @see #setEventsPool(ForkJoinPool)
+     * @since 1.7
+     */
+    public ForkJoinPool getEventsPool() {
+        return eventsPool;
+    }
+
+    /** Set the integration listener.
+     * <p>
+     * The listener receives instrumentation data (accepted and rejected steps,
+     * derivatives computation time, events evaluations, step handlers time).
+     * Instrumentation is disabled when there is no listener, which is the default.
+     * </p>
+     * @param listener integration listener (null to disable instrumentation)
+     * @see #getIntegrationListener()
+     * @since 1.7
+     */
+    public void setIntegrationListener(final ODEIntegrationListener listener) {
+        this.integrationListener = listener;
+        for (final EventState state : eventsStates) {
+            state.setIntegrationListener(listener);
+        }
+    }
+
+    /** Get the integration listener.
+     * @return integration listener (null if instrumentation is disabled)
+     * @see #setIntegrationListener(ODEIntegrationListener)
+     * @since 1.7
+     */
+    public ODEIntegrationListener getIntegrationListener() {
+        return integrationListener;
+    }
+
     /** {@inheritDoc} */
     @Override
     @Deprecated
@@ -208,6 +286,10 @@ public abstract class AbstractIntegrator implements ODEIntegrator {
         this.equations = eqn;
         evaluations    = evaluations.withCount(0);
 
+        if (integrationListener != null) {
+            integrationListener.init(s0, t);
+        }
+
         // initialize ODE
         eqn.init(s0, t);
 
@@ -262,7 +344,40 @@ public abstract class AbstractIntegrator implements ODEIntegrator {
     public double[] computeDerivatives(final double t, final double[] y)
         throws MathIllegalArgumentException, MathIllegalStateException, NullPointerException {
         evaluations.increment();
-        return equations.computeDerivatives(t, y);
+        if (integrationListener == null) {
+            return equations.computeDerivatives(t, y);
+        }
+        final long start = System.nanoTime();
+        final double[] yDot = equations.computeDerivatives(t, y);
+        integrationListener.derivativesComputed(System.nanoTime() - start);
+        return yDot;
+    }
+
+    /** Compute the derivatives and check the number of evaluations, storing them in a caller-provided array.
+     * <p>
+     * This method avoids allocating the derivative array, it is intended for integrators
+     * that reuse their internal buffers between steps.
+     * </p>
+     * @param t current value of the independent <I>time</I> variable
+     * @param y array containing the current value of the state vector (must not be modified)
+     * @param yDot placeholder array where to put the time derivative of the state vector
+     * @exception MathIllegalArgumentException if arrays dimensions do not match equations settings
+     * @exception MathIllegalStateException if the number of functions evaluations is exceeded
+     * @exception NullPointerException if the ODE equations have not been set (i.e. if this method
+     * is called outside of a call to {@link #integrate(ExpandableODE, ODEState, double) integrate}
+     * @see ExpandableODE#computeDerivatives(double, double[], double[])
+     * @since 1.7
+     */
+    protected void computeDerivatives(final double t, final double[] y, final double[] yDot)
+        throws MathIllegalArgumentException, MathIllegalStateException, NullPointerException {
+        evaluations.increment();
+        if (integrationListener == null) {
+            equations.computeDerivatives(t, y, yDot);
+        } else {
+            final long start = System.nanoTime();
+            equations.computeDerivatives(t, y, yDot);
+            integrationListener.derivativesComputed(System.nanoTime() - start);
+        }
     }
 
     /** Set the stateInitialized flag.
@@ -290,6 +405,9 @@ public abstract class AbstractIntegrator implements ODEIntegrator {
 
         ODEStateAndDerivative previousState = interpolator.getGlobalPreviousState();
         final ODEStateAndDerivative currentState = interpolator.getGlobalCurrentState();
+        if (integrationListener != null) {
+            integrationListener.stepAccepted(currentState.getTime() - previousState.getTime());
+        }
         AbstractODEStateInterpolator restricted = interpolator;
 
 
@@ -302,14 +420,7 @@ public abstract class AbstractIntegrator implements ODEIntegrator {
         }
 
         // search for next events that may occur during the step
-        final int orderingSign = interpolator.isForward() ? +1 : -1;
-        final Queue<EventState> occurringEvents = new PriorityQueue<>(new Comparator<EventState>() {
-            /** {@inheritDoc} */
-            @Override
-            public int compare(final EventState es0, final EventState es1) {
-                return orderingSign * Double.compare(es0.getEventTime(), es1.getEventTime());
-            }
-        });
+        orderingSign = interpolator.isForward() ? +1 : -1;
 
         resetOccurred = false;
         boolean doneWithStep = false;
@@ -318,12 +429,7 @@ public abstract class AbstractIntegrator implements ODEIntegrator {
 
             // Evaluate all event detectors for events
             occurringEvents.clear();
-            for (final EventState state : eventsStates) {
-                if (state.evaluateStep(restricted)) {
-                    // the event occurs during the current step
-                    occurringEvents.add(state);
-                }
-            }
+            evaluateEventsStates(restricted);
 
             do {
 
@@ -367,9 +473,7 @@ public abstract class AbstractIntegrator implements ODEIntegrator {
                     }
 
                     // handle the first part of the step, up to the event
-                    for (final ODEStepHandler handler : stepHandlers) {
-                        handler.handleStep(restricted, isLastStep);
-                    }
+                    callStepHandlers(restricted, isLastStep);
 
                     if (isLastStep) {
                         // the event asked to stop integration
@@ -425,14 +529,83 @@ public abstract class AbstractIntegrator implements ODEIntegrator {
         isLastStep = isLastStep || FastMath.abs(currentState.getTime() - tEnd) <= FastMath.ulp(tEnd);
 
         // handle the remaining part of the step, after all events if any
-        for (ODEStepHandler handler : stepHandlers) {
-            handler.handleStep(restricted, isLastStep);
-        }
+        callStepHandlers(restricted, isLastStep);
 
         return currentState;
 
     }
 
+    /** Evaluate all events states on a step, queuing the ones triggering an event.
+     * @param interpolator step interpolator
+     */
+    private void evaluateEventsStates(final AbstractODEStateInterpolator interpolator) {
+        if (eventsPool == null || eventsStates.size() < 2) {
+            for (final EventState state : eventsStates) {
+                if (state.evaluateStep(interpolator)) {
+                    // the event occurs during the current step
+                    occurringEvents.add(state);
+                }
+            }
+        } else {
+            // events states are independent from each other, evaluate them concurrently
+            final List<ForkJoinTask<Boolean>> tasks = new ArrayList<>(eventsStates.size());
+            for (final EventState state : eventsStates) {
+                tasks.add(eventsPool.submit(() -> state.evaluateStep(interpolator)));
+            }
+            // wait for all tasks, even if one fails, so no evaluation is still running
+            // when we return, and queue the events in the same order as sequential evaluation
+            RuntimeException failure = null;
+            int i = 0;
+            for (final EventState state : eventsStates) {
+                try {
+                    if (tasks.get(i++).join()) {
+                        // the event occurs during the current step
+                        occurringEvents.add(state);
+                    }
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /** Call the step handlers.
+     * @param interpolator step interpolator
+     * @param isLast true if the step is the last one
+     */
+    private void callStepHandlers(final AbstractODEStateInterpolator interpolator, final boolean isLast) {
+        if (integrationListener == null) {
+            for (final ODEStepHandler handler : stepHandlers) {
+                handler.handleStep(interpolator, isLast);
+            }
+        } else {
+            final long start = System.nanoTime();
+            for (final ODEStepHandler handler : stepHandlers) {
+                handler.handleStep(interpolator, isLast);
+            }
+            integrationListener.stepHandled(System.nanoTime() - start);
+        }
+    }
+
+    /** Notify the integration listener, if any, that a step has been rejected.
+     * <p>
+     * This method must be called by adaptive integrators each time
+     * step size control rejects a trial step.
+     * </p>
+     * @param rejectedStepSize signed size of the rejected step
+     * @since 1.7
+     */
+    protected void stepRejected(final double rejectedStepSize) {
+        if (integrationListener != null) {
+            integrationListener.stepRejected(rejectedStepSize);
+        }
+    }
+
     /** Check the integration span.
      * @param initialState initial state
      * @param t target time for the integration
@@ -0,0 +1,348 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import java.io.Serializable;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.ode.sampling.ODEStateInterpolator;
+import org.hipparchus.ode.sampling.ODEStepHandler;
+import org.hipparchus.util.FastMath;
+
+/**
+ * Compact and thread-safe continuous model of an ODE solution.
+ *
+ * <p>This class is an alternative to {@link DenseOutputModel} for long
+ * trajectories that must be queried concurrently. Instead of keeping one
+ * interpolator object per step, each step is represented by a Chebyshev
+ * polynomial of fixed degree for the complete state (primary and secondary
+ * states), fitted at Chebyshev-Gauss-Lobatto points using the step
+ * interpolator. Step boundaries and polynomial coefficients are stored in
+ * two flat primitive arrays. If the integrator interpolators are polynomials
+ * of degree at most the model degree, as is the case for all Runge-Kutta
+ * integrators with the default degree, the model reproduces them exactly,
+ * up to rounding errors. Derivatives are the derivatives of the polynomials.</p>
+ *
+ * <p>Models are built by a {@link Builder}, registered as a step handler
+ * in the integrator. Once built, models are immutable and hold no search
+ * hint, so {@link #getInterpolatedState(double)} performs a binary search
+ * and can be called concurrently from any number of threads without
+ * locking.</p>
+ *
+ * <pre>
+ *   CompactDenseOutputModel.Builder builder = new CompactDenseOutputModel.Builder();
+ *   integrator.addStepHandler(builder);
+ *   integrator.integrate(ode, initialState, finalTime);
+ *   CompactDenseOutputModel model = builder.build();
+ * </pre>
+ *
+ * <p>Models can be saved to files and mapped back in memory using
+ * {@link MappedDenseOutputModel}.</p>
+ *
+ * @see DenseOutputModel
+ * @see MappedDenseOutputModel
+ * @since 1.7
+ */
+public class CompactDenseOutputModel extends AbstractChebyshevDenseOutputModel implements Serializable {
+
+    /** Default degree of the polynomials. */
+    public static final int DEFAULT_DEGREE = 8;
+
+    /** Serializable version identifier */
+    private static final long serialVersionUID = 20201015L;
+
+    /** Degree of the polynomials. */
+    private final int degree;
+
+    /** Dimensions of primary and secondary states. */
+    private final int[] dimensions;
+
+    /** Dimension of the complete state. */
+    private final int completeDimension;
+
+    /** Integration direction indicator. */
+    private final boolean forward;
+
+    /** Number of steps. */
+    private final int nbSteps;
+
+    /** Step boundaries (nbSteps + 1 elements). */
+    private final double[] times;
+
+    /** Chebyshev coefficients, indexed as ((step * (degree + 1)) + k) * completeDimension + component. */
+    private final double[] coefficients;
+
+    /** Simple constructor.
+     * @param degree degree of the polynomials
+     * @param dimensions dimensions of primary and secondary states
+     * @param forward integration direction indicator
+     * @param nbSteps number of steps
+     * @param times step boundaries
+     * @param coefficients Chebyshev coefficients
+     */
+    private CompactDenseOutputModel(final int degree, final int[] dimensions, final boolean forward,
+                                    final int nbSteps, final double[] times, final double[] coefficients) {
+        this.degree     = degree;
+        this.dimensions = dimensions;
+        int complete = 0;
+        for (final int dimension : dimensions) {
+            complete += dimension;
+        }
+        this.completeDimension = complete;
+        this.forward           = forward;
+        this.nbSteps           = nbSteps;
+        this.times             = times;
+        this.coefficients      = coefficients;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getDegree() {
+        return degree;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getNumberOfSteps() {
+        return nbSteps;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getCompleteStateDimension() {
+        return completeDimension;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isForward() {
+        return forward;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    int[] getDimensions() {
+        return dimensions;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    double getTime(final int index) {
+        return times[index];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    double getCoefficient(final long index) {
+        return coefficients[(int) index];
+    }
+
+    /** Get the step boundaries.
+     * @return step boundaries (reference to internal array)
+     */
+    double[] getTimes() {
+        return times;
+    }
+
+    /** Get the Chebyshev coefficients.
+     * @return Chebyshev coefficients (reference to internal array)
+     */
+    double[] getCoefficients() {
+        return coefficients;
+    }
+
+    /** Builder for {@link CompactDenseOutputModel}.
+     * <p>
+     * The builder must be registered as a step handler in the integrator.
+     * As for {@link DenseOutputModel}, the steps are cleared at integration
+     * start, so a builder models only the last integration performed.
+     * </p>
+     */
+    public static class Builder implements ODEStepHandler {
+
+        /** Degree of the polynomials. */
+        private final int degree;
+
+        /** Matrix converting values at Chebyshev-Gauss-Lobatto points into Chebyshev coefficients. */
+        private final double[][] fit;
+
+        /** Normalized times of Chebyshev-Gauss-Lobatto points in [0; 1]. */
+        private final double[] nodes;
+
+        /** Dimensions of primary and secondary states. */
+        private int[] dimensions;
+
+        /** Dimension of the complete state. */
+        private int completeDimension;
+
+        /** Integration direction indicator. */
+        private boolean forward;
+
+        /** Number of steps. */
+        private int nbSteps;
+
+        /** Step boundaries. */
+        private double[] times;
+
+        /** Chebyshev coefficients. */
+        private double[] coefficients;
+
+        /** Build a builder with {@link CompactDenseOutputModel#DEFAULT_DEGREE default degree}.
+         */
+        public Builder() {
+            this(DEFAULT_DEGREE);
+        }
+
+        /** Build a builder with specified degree.
+         * @param degree degree of the polynomials
+         * @exception MathIllegalArgumentException if degree is smaller than 1
+         */
+        public Builder(final int degree) throws MathIllegalArgumentException {
+
+            if (degree < 1) {
+                throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL, degree, 1);
+            }
+            this.degree = degree;
+
+            // Chebyshev-Gauss-Lobatto points x_j = cos(j pi / d), from x = 1 to x = -1
+            nodes = new double[degree + 1];
+            final double[] cos = new double[2 * degree];
+            for (int j = 0; j < cos.length; ++j) {
+                cos[j] = FastMath.cos(j * FastMath.PI / degree);
+            }
+            for (int j = 0; j <= degree; ++j) {
+                nodes[j] = 0.5 * (1 + cos[j]);
+            }
+
+            // discrete Chebyshev transform, with halved first and last terms
+            fit = new double[degree + 1][degree + 1];
+            for (int k = 0; k <= degree; ++k) {
+                final double wk = (k == 0 || k == degree) ? 1.0 / degree : 2.0 / degree;
+                for (int j = 0; j <= degree; ++j) {
+                    final double wj = (j == 0 || j == degree) ? 0.5 : 1.0;
+                    fit[k][j] = wk * wj * cos[(j * k) % (2 * degree)];
+                }
+            }
+
+            clear();
+
+        }
+
+        /** Clear the steps. */
+        private void clear() {
+            dimensions        = null;
+            completeDimension = 0;
+            forward           = true;
+            nbSteps           = 0;
+            times             = new double[16];
+            coefficients      = new double[0];
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void init(final ODEStateAndDerivative initialState, final double targetTime) {
+            clear();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void handleStep(final ODEStateInterpolator interpolator, final boolean isLast) {
+
+            final ODEStateAndDerivative previous = interpolator.getPreviousState();
+            final double t0 = previous.getTime();
+            final double h  = interpolator.getCurrentState().getTime() - t0;
+            if (h == 0) {
+                // ignore degenerate steps
+                return;
+            }
+
+            if (dimensions == null) {
+                dimensions = new int[previous.getNumberOfSecondaryStates() + 1];
+                for (int i = 0; i < dimensions.length; ++i) {
+                    dimensions[i] = previous.getSecondaryStateDimension(i);
+                }
+                completeDimension = previous.getCompleteStateDimension();
+                forward           = interpolator.isForward();
+                times[0]          = t0;
+                coefficients      = new double[16 * (degree + 1) * completeDimension];
+            }
+
+            // make room for the new step
+            final int stride = (degree + 1) * completeDimension;
+            if (nbSteps + 2 > times.length) {
+                final double[] newTimes = new double[2 * times.length];
+                System.arraycopy(times, 0, newTimes, 0, nbSteps + 1);
+                times = newTimes;
+            }
+            if ((nbSteps + 1) * stride > coefficients.length) {
+                final double[] newCoefficients = new double[2 * coefficients.length];
+                System.arraycopy(coefficients, 0, newCoefficients, 0, nbSteps * stride);
+                coefficients = newCoefficients;
+            }
+
+            // sample the step at Chebyshev-Gauss-Lobatto points
+            final double[][] samples = new double[degree + 1][];
+            for (int j = 0; j <= degree; ++j) {
+                final ODEStateAndDerivative s = (j == degree) ?
+                                                previous :
+                                                interpolator.getInterpolatedState(t0 + nodes[j] * h);
+                samples[j] = s.getCompleteState();
+            }
+
+            // convert the samples into Chebyshev coefficients
+            final int offset = nbSteps * stride;
+            for (int k = 0; k <= degree; ++k) {
+                final int kOffset = offset + k * completeDimension;
+                for (int j = 0; j <= degree; ++j) {
+                    final double   f = fit[k][j];
+                    final double[] y = samples[j];
+                    for (int i = 0; i < completeDimension; ++i) {
+                        coefficients[kOffset + i] += f * y[i];
+                    }
+                }
+            }
+
+            times[++nbSteps] = t0 + h;
+
+        }
+
+        /** Build the model.
+         * <p>
+         * The builder can be used again after this call, the model
+         * built will not be affected.
+         * </p>
+         * @return immutable model for the steps handled so far
+         * @exception MathIllegalStateException if no steps have been handled
+         */
+        public CompactDenseOutputModel build() throws MathIllegalStateException {
+            if (nbSteps == 0) {
+                throw new MathIllegalStateException(LocalizedCoreFormats.NO_DATA);
+            }
+            final double[] builtTimes = new double[nbSteps + 1];
+            System.arraycopy(times, 0, builtTimes, 0, nbSteps + 1);
+            final double[] builtCoefficients = new double[nbSteps * (degree + 1) * completeDimension];
+            System.arraycopy(coefficients, 0, builtCoefficients, 0, builtCoefficients.length);
+            return new CompactDenseOutputModel(degree, dimensions.clone(), forward,
+                                               nbSteps, builtTimes, builtCoefficients);
+        }
+
+    }
+
+}
@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.ode.sampling.ODEStateInterpolator;
+import org.hipparchus.ode.sampling.ODEStepHandler;
+import org.hipparchus.util.MathUtils;
+
+/**
+ * Integrator for ensembles of initial states of the same differential equations.
+ *
+ * <p>This class is intended for Monte Carlo dispersion studies and similar
+ * use cases where the same equations must be integrated from many initial
+ * states. Each member of the ensemble is integrated by its own integrator
+ * instance, built by a user-provided factory (typically a lambda building a
+ * {@link org.hipparchus.ode.nonstiff.RungeKuttaIntegrator fixed step} or
+ * {@link org.hipparchus.ode.nonstiff.EmbeddedRungeKuttaIntegrator adaptive
+ * step} Runge-Kutta integrator), so step size control is independent for
+ * each member. Per-member step handlers and event handlers can be registered
+ * using a {@link MemberConfigurator}.</p>
+ *
+ * <p>Members are integrated in parallel if a {@link ForkJoinPool} is provided.
+ * In this case, the differential equations and the configurator are shared
+ * between threads and must be thread-safe, but each step handler or event
+ * handler registered by the configurator is only called by the thread
+ * integrating its member.</p>
+ *
+ * @since 1.7
+ */
+public class EnsembleIntegrator {
+
+    /** Factory for integrators. */
+    private final Supplier<? extends ODEIntegrator> factory;
+
+    /** Pool for parallel integration (may be null for sequential integration). */
+    private final ForkJoinPool pool;
+
+    /** Simple constructor.
+     * @param factory factory for integrators, called once for each member
+     * @param pool pool for parallel integration (may be null for sequential integration)
+     */
+    public EnsembleIntegrator(final Supplier<? extends ODEIntegrator> factory, final ForkJoinPool pool) {
+        MathUtils.checkNotNull(factory);
+        this.factory = factory;
+        this.pool    = pool;
+    }
+
+    /** Get the pool for parallel integration.
+     * @return pool for parallel integration (may be null for sequential integration)
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /** Integrate an ensemble up to the given time.
+     * @param equations differential equations to integrate (must be thread-safe
+     * if a pool is used)
+     * @param initialStates initial states of all ensemble members
+     * @param finalTime target time for the integration
+     * @return integration results for all members
+     * @exception MathIllegalArgumentException if there are no initial states
+     * or if one integration fails
+     * @exception MathIllegalStateException if one integration fails
+     */
+    public Result integrate(final OrdinaryDifferentialEquation equations,
+                            final ODEState[] initialStates, final double finalTime)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+        return integrate(new ExpandableODE(equations), initialStates, finalTime, null);
+    }
+
+    /** Integrate an ensemble up to the given time.
+     * <p>
+     * The configurator is called once for each member, with a fresh integrator
+     * built by the factory, before integration starts.
+     * </p>
+     * @param equations differential equations to integrate (must be thread-safe
+     * if a pool is used)
+     * @param initialStates initial states of all ensemble members
+     * @param finalTime target time for the integration
+     * @param configurator configurator for per-member step and event handlers
+     * (may be null)
+     * @return integration results for all members
+     * @exception MathIllegalArgumentException if there are no initial states
+     * or if one integration fails
+     * @exception MathIllegalStateException if one integration fails
+     */
+    public Result integrate(final ExpandableODE equations,
+                            final ODEState[] initialStates, final double finalTime,
+                            final MemberConfigurator configurator)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+
+        MathUtils.checkNotNull(equations);
+        MathUtils.checkNotNull(initialStates);
+        if (initialStates.length < 1) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL,
+                                                   initialStates.length, 1);
+        }
+
+        final ODEStateAndDerivative[] finalStates = new ODEStateAndDerivative[initialStates.length];
+        final int[]                   evaluations = new int[initialStates.length];
+        final int[]                   steps       = new int[initialStates.length];
+
+        if (pool == null || initialStates.length < 2) {
+            for (int i = 0; i < initialStates.length; ++i) {
+                integrateMember(equations, initialStates, finalTime, configurator, i,
+                                finalStates, evaluations, steps);
+            }
+        } else {
+            // members may have very different costs, so we use one task per member
+            // and let the pool balance the load
+            final List<ForkJoinTask<?>> tasks = new ArrayList<>(initialStates.length);
+            for (int i = 0; i < initialStates.length; ++i) {
+                final int member = i;
+                tasks.add(pool.submit(() -> integrateMember(equations, initialStates, finalTime, configurator,
+                                                            member, finalStates, evaluations, steps)));
+            }
+            for (final ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        }
+
+        return new Result(finalStates, evaluations, steps);
+
+    }
+
+    /** Integrate one member.
+     * @param equations differential equations to integrate
+     * @param initialStates initial states of all ensemble members
+     * @param finalTime target time for the integration
+     * @param configurator configurator for per-member step and event handlers (may be null)
+     * @param member index of the member to integrate
+     * @param finalStates placeholder for final states
+     * @param evaluations placeholder for evaluations counts
+     * @param steps placeholder for steps counts
+     */
+    private void integrateMember(final ExpandableODE equations,
+                                 final ODEState[] initialStates, final double finalTime,
+                                 final MemberConfigurator configurator, final int member,
+                                 final ODEStateAndDerivative[] finalStates,
+                                 final int[] evaluations, final int[] steps) {
+
+        final ODEIntegrator integrator = factory.get();
+        if (configurator != null) {
+            configurator.configure(member, integrator);
+        }
+        final StepCounter counter = new StepCounter();
+        integrator.addStepHandler(counter);
+
+        finalStates[member] = integrator.integrate(equations, initialStates[member], finalTime);
+        evaluations[member] = integrator.getEvaluations();
+        steps[member]       = counter.count;
+
+    }
+
+    /** Interface for configuring the integrator of each ensemble member.
+     * <p>
+     * This interface is typically used to register per-member step handlers
+     * (for example one {@link CompactDenseOutputModel.Builder} for each member)
+     * and event handlers.
+     * </p>
+     */
+    @FunctionalInterface
+    public interface MemberConfigurator {
+
+        /** Configure the integrator of one member.
+         * @param member index of the member in the initial states array
+         * @param integrator fresh integrator dedicated to this member
+         */
+        void configure(int member, ODEIntegrator integrator);
+
+    }
+
+    /** Container for ensemble integration results. */
+    public static class Result {
+
+        /** Final states. */
+        private final ODEStateAndDerivative[] finalStates;
+
+        /** Number of evaluations of the differential equations. */
+        private final int[] evaluations;
+
+        /** Number of accepted steps. */
+        private final int[] steps;
+
+        /** Simple constructor.
+         * @param finalStates final states
+         * @param evaluations number of evaluations of the differential equations
+         * @param steps number of accepted steps
+         */
+        private Result(final ODEStateAndDerivative[] finalStates, final int[] evaluations, final int[] steps) {
+            this.finalStates = finalStates;
+            this.evaluations = evaluations;
+            this.steps       = steps;
+        }
+
+        /** Get the number of members.
+         * @return number of members
+         */
+        public int getSize() {
+            return finalStates.length;
+        }
+
+        /** Get the final state of one member.
+         * @param member index of the member
+         * @return final state of the member
+         */
+        public ODEStateAndDerivative getFinalState(final int member) {
+            return finalStates[member];
+        }
+
+        /** Get the final states of all members.
+         * @return final states of all members
+         */
+        public ODEStateAndDerivative[] getFinalStates() {
+            return finalStates.clone();
+        }
+
+        /** Get the number of evaluations of the differential equations for one member.
+         * @param member index of the member
+         * @return number of evaluations of the differential equations for the member
+         */
+        public int getEvaluations(final int member) {
+            return evaluations[member];
+        }
+
+        /** Get the number of accepted steps for one member.
+         * @param member index of the member
+         * @return number of accepted steps for the member
+         */
+        public int getSteps(final int member) {
+            return steps[member];
+        }
+
+        /** Get the total number of evaluations of the differential equations.
+         * @return total number of evaluations of the differential equations
+         */
+        public long getTotalEvaluations() {
+            long total = 0;
+            for (final int e : evaluations) {
+                total += e;
+            }
+            return total;
+        }
+
+        /** Get the total number of accepted steps.
+         * @return total number of accepted steps
+         */
+        public long getTotalSteps() {
+            long total = 0;
+            for (final int s : steps) {
+                total += s;
+            }
+            return total;
+        }
+
+    }
+
+    /** Step handler counting accepted steps. */
+    private static class StepCounter implements ODEStepHandler {
+
+        /** Number of accepted steps. */
+        private int count;
+
+        /** {@inheritDoc} */
+        @Override
+        public void init(final ODEStateAndDerivative initialState, final double finalTime) {
+            count = 0;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void handleStep(final ODEStateInterpolator interpolator, final boolean isLast) {
+            ++count;
+        }
+
+    }
+
+}
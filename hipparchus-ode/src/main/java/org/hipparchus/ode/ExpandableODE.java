@@ -21,6 +21,7 @@ import java.util.List;
 
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.util.MathUtils;
 
 
 /**
@@ -151,4 +152,30 @@ public class ExpandableODE {
 
     }
 
+    /** Get the current time derivative of the complete state vector, storing it in a caller-provided array.
+     * <p>
+     * When there are no secondary equations, the complete state array is passed
+     * directly to the primary equations, without the intermediate copies performed
+     * by {@link #computeDerivatives(double, double[])}. The equations must
+     * therefore not modify it.
+     * </p>
+     * @param t current value of the independent <I>time</I> variable
+     * @param y array containing the current value of the complete state vector
+     * @param yDot placeholder array where to put the time derivative of the complete state vector
+     * @exception MathIllegalStateException if the number of functions evaluations is exceeded
+     * @exception MathIllegalArgumentException if arrays dimensions do not match equations settings
+     * @since 1.7
+     */
+    public void computeDerivatives(final double t, final double[] y, final double[] yDot)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+        if (components.isEmpty()) {
+            MathUtils.checkDimension(y.length, mapper.getTotalDimension());
+            mapper.insertEquationData(0, primary.computeDerivatives(t, y), yDot);
+        } else {
+            final double[] complete = computeDerivatives(t, y);
+            MathUtils.checkDimension(yDot.length, complete.length);
+            System.arraycopy(complete, 0, yDot, 0, complete.length);
+        }
+    }
+
 }
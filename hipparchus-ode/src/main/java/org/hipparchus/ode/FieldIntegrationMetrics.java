@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import org.hipparchus.RealFieldElement;
+import org.hipparchus.ode.events.FieldEventState;
+import org.hipparchus.ode.events.FieldODEEventHandler;
+
+/** Integration listener collecting metrics about field integration.
+ * <p>
+ * The metrics are the same as the ones gathered by {@link IntegrationMetrics}
+ * for primitive double integrators, step sizes are recorded using their real part.
+ * </p>
+ * <p>
+ * Instances of this class are thread-safe.
+ * </p>
+ * @param <T> the type of the field elements
+ * @see AbstractFieldIntegrator#setIntegrationListener(FieldODEIntegrationListener)
+ * @since 1.7
+ */
+public class FieldIntegrationMetrics<T extends RealFieldElement<T>>
+    extends IntegrationMetrics implements FieldODEIntegrationListener<T> {
+
+    /** Simple constructor.
+     */
+    public FieldIntegrationMetrics() {
+        super();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void init(final FieldODEState<T> initialState, final T finalTime) {
+        reset();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void stepAccepted(final T stepSize) {
+        recordAcceptedStep(stepSize.getReal());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void stepRejected(final T stepSize) {
+        stepRejected(stepSize.getReal());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void gEvaluated(final FieldEventState<T> state) {
+        recordGEvaluation(state.getEventHandler());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void rootSearched(final FieldEventState<T> state, final int iterations) {
+        recordRootSearch(state.getEventHandler(), iterations);
+    }
+
+    /** Get the metrics for one event handler.
+     * @param handler event handler
+     * @return snapshot of the metrics for the event handler (all counts are
+     * zero if the handler was not used during integration)
+     */
+    public EventMetrics getEventMetrics(final FieldODEEventHandler<T> handler) {
+        return getMetrics(handler);
+    }
+
+}
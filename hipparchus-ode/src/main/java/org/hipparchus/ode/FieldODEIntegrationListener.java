@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import org.hipparchus.RealFieldElement;
+import org.hipparchus.ode.events.FieldEventState;
+
+/** Listener receiving instrumentation data from a field integrator.
+ * <p>
+ * A listener is registered using {@link
+ * AbstractFieldIntegrator#setIntegrationListener(FieldODEIntegrationListener)}.
+ * When no listener is registered, integrators neither read the clock nor call any method
+ * from this interface, so instrumentation does not cost anything.
+ * </p>
+ * <p>
+ * All methods have an empty default implementation, so implementations only need to
+ * override the notifications they are interested in. Events notifications may be
+ * triggered from several threads when events states are evaluated in parallel, so
+ * implementations must be thread-safe.
+ * </p>
+ * @param <T> the type of the field elements
+ * @see FieldIntegrationMetrics
+ * @see ODEIntegrationListener
+ * @since 1.7
+ */
+public interface FieldODEIntegrationListener<T extends RealFieldElement<T>> {
+
+    /** Initialize listener at the start of an integration.
+     * @param initialState initial time and state
+     * @param finalTime target time for the integration
+     */
+    default void init(FieldODEState<T> initialState, T finalTime) {
+        // nothing by default
+    }
+
+    /** Notify that derivatives have been computed.
+     * @param nanos time spent in derivatives computation (ns)
+     */
+    default void derivativesComputed(long nanos) {
+        // nothing by default
+    }
+
+    /** Notify that a step has been accepted.
+     * <p>
+     * The step size is the full accepted step, before it is split by events.
+     * </p>
+     * @param stepSize signed size of the accepted step
+     */
+    default void stepAccepted(T stepSize) {
+        // nothing by default
+    }
+
+    /** Notify that a step has been rejected by step size control.
+     * @param stepSize signed size of the rejected step
+     */
+    default void stepRejected(T stepSize) {
+        // nothing by default
+    }
+
+    /** Notify that the switching function of an event has been evaluated.
+     * @param state event state whose switching function has been evaluated
+     */
+    default void gEvaluated(FieldEventState<T> state) {
+        // nothing by default
+    }
+
+    /** Notify that a root search has been performed for an event.
+     * @param state event state for which the root search has been performed
+     * @param iterations number of iterations of the root solver
+     */
+    default void rootSearched(FieldEventState<T> state, int iterations) {
+        // nothing by default
+    }
+
+    /** Notify that step handlers have been called.
+     * @param nanos time spent in step handlers (ns)
+     */
+    default void stepHandled(long nanos) {
+        // nothing by default
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hipparchus.analysis.differentiation.Gradient;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.util.MathUtils;
+
+/** Provider computing exact Jacobian matrices by automatic differentiation.
+ * <p>
+ * This class wraps {@link FieldOrdinaryDifferentialEquation differential equations}
+ * written against {@link Gradient} into an {@link ODEJacobiansProvider}. Both the
+ * Jacobian with respect to state and the Jacobians with respect to all parameters
+ * are computed by one single evaluation of the equations in forward mode, with one
+ * free variable per state component and per parameter. This avoids both the extra
+ * evaluations and the truncation errors of the finite differences used when {@link
+ * VariationalEquation} is built from a simple {@link OrdinaryDifferentialEquation}.
+ * </p>
+ * <p>
+ * The last evaluation is cached, so the calls to {@link #computeParameterJacobian(double,
+ * double[], double[], String) computeParameterJacobian} that follow a call to {@link
+ * #computeMainStateJacobian(double, double[], double[]) computeMainStateJacobian} at the
+ * same point do not evaluate the equations again. Instances of this class are therefore
+ * not thread-safe.
+ * </p>
+ * <p>
+ * If the equations depend on parameters, they must implement {@link
+ * GradientParametersController}, which will be used to set the parameters before
+ * each evaluation, as free variables for the selected ones and as constants for
+ * the other ones. As all operands must have the same number of free variables,
+ * constants used inside the equations must be created from the arguments, for
+ * example using {@link Gradient#newInstance(double) t.newInstance(value)}.
+ * </p>
+ * @see VariationalEquation#VariationalEquation(ExpandableODE, FieldOrdinaryDifferentialEquation, String...)
+ * @since 1.7
+ */
+public class GradientJacobiansProvider implements ODEJacobiansProvider {
+
+    /** Differential equations written against {@link Gradient}. */
+    private final FieldOrdinaryDifferentialEquation<Gradient> ode;
+
+    /** Names of the parameters to consider. */
+    private final List<String> parameters;
+
+    /** Time of the cached evaluation. */
+    private double cachedT;
+
+    /** State of the cached evaluation. */
+    private double[] cachedY;
+
+    /** Cached Jacobian with respect to parameters (one row per parameter). */
+    private double[][] cachedDFDP;
+
+    /** Simple constructor.
+     * @param ode differential equations written against {@link Gradient}
+     * @param parameters names of the parameters to consider (if not empty,
+     * {@code ode} must implement {@link GradientParametersController})
+     * @exception MathIllegalArgumentException if a parameter is not supported
+     */
+    public GradientJacobiansProvider(final FieldOrdinaryDifferentialEquation<Gradient> ode,
+                                     final String... parameters)
+        throws MathIllegalArgumentException {
+        MathUtils.checkNotNull(ode);
+        for (final String name : parameters) {
+            if (!(ode instanceof GradientParametersController) ||
+                !((GradientParametersController) ode).isSupported(name)) {
+                throw new MathIllegalArgumentException(LocalizedODEFormats.UNKNOWN_PARAMETER, name);
+            }
+        }
+        this.ode        = ode;
+        this.parameters = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(parameters)));
+        this.cachedT    = Double.NaN;
+    }
+
+    /** Get the underlying differential equations.
+     * @return underlying differential equations
+     */
+    public FieldOrdinaryDifferentialEquation<Gradient> getODE() {
+        return ode;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getDimension() {
+        return ode.getDimension();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void init(final double t0, final double[] y0, final double finalTime) {
+        setParameters(0);
+        ode.init(Gradient.constant(0, t0), constants(y0), Gradient.constant(0, finalTime));
+    }
+
+    /** {@inheritDoc}
+     * <p>
+     * The derivatives are computed using {@link Gradient} instances without
+     * free variables.
+     * </p>
+     */
+    @Override
+    public double[] computeDerivatives(final double t, final double[] y)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+        setParameters(0);
+        final Gradient[] yDot = ode.computeDerivatives(Gradient.constant(0, t), constants(y));
+        final double[] values = new double[yDot.length];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = yDot[i].getValue();
+        }
+        return values;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[][] computeMainStateJacobian(final double t, final double[] y, final double[] yDot)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+
+        // set up state and parameters as free variables
+        final int n        = y.length;
+        final int nbParams = parameters.size();
+        final int free     = n + nbParams;
+        final Gradient[] yG = new Gradient[n];
+        for (int i = 0; i < n; ++i) {
+            yG[i] = Gradient.variable(free, i, y[i]);
+        }
+        setParameters(free);
+
+        // single evaluation in forward mode
+        final Gradient[] yDotG = ode.computeDerivatives(Gradient.constant(free, t), yG);
+
+        // dispatch partial derivatives
+        final double[][] dFdY = new double[n][n];
+        final double[][] dFdP = new double[nbParams][n];
+        for (int i = 0; i < n; ++i) {
+            final double[] gradient = yDotG[i].getGradient();
+            System.arraycopy(gradient, 0, dFdY[i], 0, n);
+            for (int k = 0; k < nbParams; ++k) {
+                dFdP[k][i] = gradient[n + k];
+            }
+        }
+
+        cachedT    = t;
+        cachedY    = y.clone();
+        cachedDFDP = dFdP;
+
+        return dFdY;
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<String> getParametersNames() {
+        return parameters;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isSupported(final String name) {
+        return parameters.contains(name);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double[] computeParameterJacobian(final double t, final double[] y, final double[] yDot,
+                                             final String paramName)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+
+        final int k = parameters.indexOf(paramName);
+        if (k < 0) {
+            throw new MathIllegalArgumentException(LocalizedODEFormats.UNKNOWN_PARAMETER, paramName);
+        }
+
+        if (!(t == cachedT && Arrays.equals(y, cachedY))) {
+            // the Jacobians have not been computed at this point yet
+            computeMainStateJacobian(t, y, yDot);
+        }
+
+        return cachedDFDP[k].clone();
+
+    }
+
+    /** Set the parameters before evaluation.
+     * <p>
+     * Selected parameters are set as free variables, the other
+     * supported parameters are set as constants.
+     * </p>
+     * @param free number of free variables (if 0, all parameters are set as constants)
+     */
+    private void setParameters(final int free) {
+        if (ode instanceof GradientParametersController) {
+            final GradientParametersController controller = (GradientParametersController) ode;
+            final int offset = free - parameters.size();
+            for (final String name : controller.getParametersNames()) {
+                final int    k     = parameters.indexOf(name);
+                final double value = controller.getParameter(name);
+                controller.setParameter(name,
+                                        (free == 0 || k < 0) ?
+                                        Gradient.constant(free, value) :
+                                        Gradient.variable(free, offset + k, value));
+            }
+        }
+    }
+
+    /** Convert an array of doubles into constant gradients.
+     * @param values values to convert
+     * @return gradients without free variables
+     */
+    private static Gradient[] constants(final double[] values) {
+        final Gradient[] g = new Gradient[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            g[i] = Gradient.constant(0, values[i]);
+        }
+        return g;
+    }
+
+}
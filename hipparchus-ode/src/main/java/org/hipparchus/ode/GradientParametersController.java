@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import org.hipparchus.analysis.differentiation.Gradient;
+import org.hipparchus.exception.MathIllegalArgumentException;
+
+/** Interface to set parameters as {@link Gradient} instances when computing
+ *  Jacobian matrices by automatic differentiation.
+ * <p>
+ * This interface is intended to be implemented by {@link FieldOrdinaryDifferentialEquation
+ * FieldOrdinaryDifferentialEquation&lt;Gradient&gt;} instances that depend on parameters,
+ * so that {@link GradientJacobiansProvider} can set the parameters as free variables
+ * before evaluating the equations.
+ * </p>
+ * @see GradientJacobiansProvider
+ * @since 1.7
+ */
+public interface GradientParametersController extends Parameterizable {
+
+    /** Get parameter value from its name.
+     * @param name parameter name
+     * @return parameter value
+     * @exception MathIllegalArgumentException if parameter is not supported
+     */
+    double getParameter(String name) throws MathIllegalArgumentException;
+
+    /** Set the value for a given parameter.
+     * <p>
+     * All supported parameters are set before each evaluation of the differential
+     * equations, with the same number of free variables as the state. The partial
+     * derivatives of selected parameters identify them among the free variables,
+     * the other parameters are constants.
+     * </p>
+     * @param name parameter name
+     * @param value parameter value
+     * @exception MathIllegalArgumentException if parameter is not supported
+     */
+    void setParameter(String name, Gradient value) throws MathIllegalArgumentException;
+
+}
@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.hipparchus.ode.events.EventState;
+import org.hipparchus.ode.events.ODEEventHandler;
+import org.hipparchus.util.FastMath;
+
+/** Integration listener collecting metrics about integration.
+ * <p>
+ * The metrics are reset at the start of each integration, so after an integration
+ * has completed they correspond to this integration only. Accepted step sizes are
+ * gathered in a histogram with logarithmic bins, each bin containing the steps
+ * whose absolute size lies between two consecutive powers of 2.
+ * </p>
+ * <p>
+ * Instances of this class are thread-safe.
+ * </p>
+ * @see AbstractIntegrator#setIntegrationListener(ODEIntegrationListener)
+ * @since 1.7
+ */
+public class IntegrationMetrics implements ODEIntegrationListener {
+
+    /** Number of accepted steps. */
+    private int acceptedSteps;
+
+    /** Number of rejected steps. */
+    private int rejectedSteps;
+
+    /** Histogram of accepted steps sizes, indexed by binary exponent. */
+    private final SortedMap<Integer, Integer> histogram;
+
+    /** Smallest absolute accepted step size. */
+    private double minStepSize;
+
+    /** Largest absolute accepted step size. */
+    private double maxStepSize;
+
+    /** Number of derivatives computations. */
+    private int derivativesEvaluations;
+
+    /** Time spent in derivatives computation (ns). */
+    private long derivativesTime;
+
+    /** Time spent in step handlers (ns). */
+    private long stepHandlersTime;
+
+    /** Metrics for events, indexed by event handler. */
+    private final Map<Object, EventMetrics> eventsMetrics;
+
+    /** Simple constructor.
+     */
+    public IntegrationMetrics() {
+        histogram     = new TreeMap<>();
+        eventsMetrics = new IdentityHashMap<>();
+        reset();
+    }
+
+    /** Reset all metrics.
+     */
+    public synchronized void reset() {
+        acceptedSteps          = 0;
+        rejectedSteps          = 0;
+        histogram.clear();
+        minStepSize            = Double.NaN;
+        maxStepSize            = Double.NaN;
+        derivativesEvaluations = 0;
+        derivativesTime        = 0L;
+        stepHandlersTime       = 0L;
+        eventsMetrics.clear();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void init(final ODEState initialState, final double finalTime) {
+        reset();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void derivativesComputed(final long nanos) {
+        ++derivativesEvaluations;
+        derivativesTime += nanos;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void stepAccepted(final double stepSize) {
+        recordAcceptedStep(stepSize);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void stepRejected(final double stepSize) {
+        ++rejectedSteps;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void gEvaluated(final EventState state) {
+        recordGEvaluation(state.getEventHandler());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void rootSearched(final EventState state, final int iterations) {
+        recordRootSearch(state.getEventHandler(), iterations);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void stepHandled(final long nanos) {
+        stepHandlersTime += nanos;
+    }
+
+    /** Record an accepted step.
+     * @param stepSize signed size of the accepted step
+     */
+    synchronized void recordAcceptedStep(final double stepSize) {
+        final double abs = FastMath.abs(stepSize);
+        ++acceptedSteps;
+        histogram.merge(FastMath.getExponent(abs), 1, Integer::sum);
+        if (acceptedSteps == 1) {
+            minStepSize = abs;
+            maxStepSize = abs;
+        } else {
+            minStepSize = FastMath.min(minStepSize, abs);
+            maxStepSize = FastMath.max(maxStepSize, abs);
+        }
+    }
+
+    /** Record a switching function evaluation.
+     * @param handler event handler
+     */
+    synchronized void recordGEvaluation(final Object handler) {
+        eventsMetrics.computeIfAbsent(handler, h -> new EventMetrics()).gEvaluations++;
+    }
+
+    /** Record a root search.
+     * @param handler event handler
+     * @param iterations number of iterations of the root solver
+     */
+    synchronized void recordRootSearch(final Object handler, final int iterations) {
+        final EventMetrics metrics = eventsMetrics.computeIfAbsent(handler, h -> new EventMetrics());
+        metrics.rootSearches++;
+        metrics.rootSearchesIterations += iterations;
+    }
+
+    /** Get a copy of the metrics for one event handler.
+     * @param handler event handler
+     * @return copy of the metrics (all counts are zero for unknown handlers)
+     */
+    synchronized EventMetrics getMetrics(final Object handler) {
+        final EventMetrics metrics = eventsMetrics.get(handler);
+        return metrics == null ? new EventMetrics() : new EventMetrics(metrics);
+    }
+
+    /** Get the number of accepted steps.
+     * @return number of accepted steps
+     */
+    public synchronized int getAcceptedSteps() {
+        return acceptedSteps;
+    }
+
+    /** Get the number of rejected steps.
+     * @return number of rejected steps
+     */
+    public synchronized int getRejectedSteps() {
+        return rejectedSteps;
+    }
+
+    /** Get the histogram of accepted steps sizes.
+     * <p>
+     * The keys of the map are the lower bounds of the bins (always powers of 2),
+     * the values are the number of accepted steps whose absolute size is between
+     * the key (included) and twice the key (excluded).
+     * </p>
+     * @return histogram of accepted steps sizes, sorted by increasing sizes
+     */
+    public synchronized SortedMap<Double, Integer> getStepSizeHistogram() {
+        final SortedMap<Double, Integer> copy = new TreeMap<>();
+        for (final Map.Entry<Integer, Integer> entry : histogram.entrySet()) {
+            copy.put(FastMath.scalb(1.0, entry.getKey()), entry.getValue());
+        }
+        return copy;
+    }
+
+    /** Get the smallest absolute accepted step size.
+     * @return smallest absolute accepted step size (NaN if no steps were accepted)
+     */
+    public synchronized double getMinStepSize() {
+        return minStepSize;
+    }
+
+    /** Get the largest absolute accepted step size.
+     * @return largest absolute accepted step size (NaN if no steps were accepted)
+     */
+    public synchronized double getMaxStepSize() {
+        return maxStepSize;
+    }
+
+    /** Get the number of derivatives computations.
+     * @return number of derivatives computations
+     */
+    public synchronized int getDerivativesEvaluations() {
+        return derivativesEvaluations;
+    }
+
+    /** Get the time spent in derivatives computation.
+     * @return time spent in derivatives computation (ns)
+     */
+    public synchronized long getDerivativesTime() {
+        return derivativesTime;
+    }
+
+    /** Get the time spent in step handlers.
+     * @return time spent in step handlers (ns)
+     */
+    public synchronized long getStepHandlersTime() {
+        return stepHandlersTime;
+    }
+
+    /** Get the metrics for one event handler.
+     * @param handler event handler
+     * @return snapshot of the metrics for the event handler (all counts are
+     * zero if the handler was not used during integration)
+     */
+    public EventMetrics getEventMetrics(final ODEEventHandler handler) {
+        return getMetrics(handler);
+    }
+
+    /** Metrics for one event handler. */
+    public static class EventMetrics {
+
+        /** Number of switching function evaluations. */
+        private long gEvaluations;
+
+        /** Number of root searches. */
+        private int rootSearches;
+
+        /** Total number of root solver iterations. */
+        private long rootSearchesIterations;
+
+        /** Simple constructor.
+         */
+        EventMetrics() {
+            // nothing to do, all counts are zero
+        }
+
+        /** Copy constructor.
+         * @param metrics metrics to copy
+         */
+        EventMetrics(final EventMetrics metrics) {
+            this.gEvaluations           = metrics.gEvaluations;
+            this.rootSearches           = metrics.rootSearches;
+            this.rootSearchesIterations = metrics.rootSearchesIterations;
+        }
+
+        /** Get the number of switching function evaluations.
+         * <p>
+         * This number includes the evaluations performed during root searches.
+         * </p>
+         * @return number of switching function evaluations
+         */
+        public long getGEvaluations() {
+            return gEvaluations;
+        }
+
+        /** Get the number of root searches.
+         * @return number of root searches
+         */
+        public int getRootSearches() {
+            return rootSearches;
+        }
+
+        /** Get the total number of root solver iterations.
+         * @return total number of root solver iterations, for all root searches
+         */
+        public long getRootSearchesIterations() {
+            return rootSearchesIterations;
+        }
+
+    }
+
+}
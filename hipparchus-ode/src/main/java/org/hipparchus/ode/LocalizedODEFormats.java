@@ -55,7 +55,9 @@ public enum LocalizedODEFormats implements Localizable {
     TOO_SMALL_INTEGRATION_INTERVAL("too small integration interval: length = {0}"),
     UNKNOWN_PARAMETER("unknown parameter {0}"),
     UNMATCHED_ODE_IN_EXPANDED_SET("ode does not match the main ode set in the extended set"),
-    NAN_APPEARING_DURING_INTEGRATION("NaN appears during integration near time {0}");
+    NAN_APPEARING_DURING_INTEGRATION("NaN appears during integration near time {0}"),
+    NOT_A_DENSE_OUTPUT_FILE("file {0} is not a dense output file"),
+    UNSUPPORTED_DENSE_OUTPUT_FILE_VERSION("unsupported format version {0} in dense output file {1}");
 
     // CHECKSTYLE: resume JavadocVariable
     // CHECKSTYLE: resume MultipleVariableDeclarations
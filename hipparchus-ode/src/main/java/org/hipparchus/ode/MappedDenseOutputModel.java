@@ -0,0 +1,365 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.util.MathUtils;
+
+/**
+ * Continuous model of an ODE solution read directly from a memory-mapped file.
+ *
+ * <p>This class is the persistent counterpart of {@link CompactDenseOutputModel}.
+ * A compact model is saved to a file using {@link #write(CompactDenseOutputModel, Path)},
+ * and the file is reopened using {@link #open(Path)}. Opening a file only reads
+ * its header and maps the data in memory, interpolation queries read the step
+ * boundaries and polynomial coefficients directly from the mapping. Trajectories
+ * larger than the heap can therefore be used, loading is almost instantaneous
+ * and the file pages are shared through the operating system cache between all
+ * the processes that map the same file.</p>
+ *
+ * <p>The file format is versioned. All values are stored in little-endian byte order:</p>
+ * <ul>
+ *   <li>8 bytes: {@link #MAGIC magic number}</li>
+ *   <li>4 bytes: {@link #FORMAT_VERSION format version}</li>
+ *   <li>4 bytes: polynomials degree d</li>
+ *   <li>4 bytes: integration direction (1 for forward, 0 for backward)</li>
+ *   <li>4 bytes: number p of primary and secondary states</li>
+ *   <li>4 bytes: number n of steps</li>
+ *   <li>4 &times; p bytes: dimensions of primary and secondary states, m being their sum</li>
+ *   <li>padding up to a multiple of 8 bytes</li>
+ *   <li>8 &times; (n + 1) bytes: step boundaries</li>
+ *   <li>8 &times; n &times; (d + 1) &times; m bytes: Chebyshev coefficients, for each step,
+ *   for each polynomial degree, for each component</li>
+ * </ul>
+ *
+ * <p>Instances of this class are immutable and can be queried concurrently
+ * from several threads. As mappings cannot be explicitly unmapped in Java 8,
+ * the mapping is released when the model is garbage collected.</p>
+ *
+ * @see CompactDenseOutputModel
+ * @since 1.7
+ */
+public class MappedDenseOutputModel extends AbstractChebyshevDenseOutputModel {
+
+    /** Magic number identifying dense output files ("HIPDENSE" in ASCII). */
+    public static final long MAGIC = 0x48495044454E5345L;
+
+    /** Current version of the file format. */
+    public static final int FORMAT_VERSION = 1;
+
+    /** Default base 2 logarithm of the number of doubles in each mapped chunk (1 GiB chunks). */
+    private static final int DEFAULT_CHUNK_SHIFT = 27;
+
+    /** Size of the fixed part of the header. */
+    private static final int FIXED_HEADER_SIZE = 28;
+
+    /** Size of the buffer used for writing. */
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    /** Degree of the polynomials. */
+    private final int degree;
+
+    /** Dimensions of primary and secondary states. */
+    private final int[] dimensions;
+
+    /** Dimension of the complete state. */
+    private final int completeDimension;
+
+    /** Integration direction indicator. */
+    private final boolean forward;
+
+    /** Number of steps. */
+    private final int nbSteps;
+
+    /** Base 2 logarithm of the number of doubles in each chunk. */
+    private final int chunkShift;
+
+    /** Mask for index within chunks. */
+    private final long chunkMask;
+
+    /** Mapped chunks, containing step boundaries followed by Chebyshev coefficients. */
+    private final DoubleBuffer[] chunks;
+
+    /** Simple constructor.
+     * @param degree degree of the polynomials
+     * @param dimensions dimensions of primary and secondary states
+     * @param forward integration direction indicator
+     * @param nbSteps number of steps
+     * @param chunkShift base 2 logarithm of the number of doubles in each chunk
+     * @param chunks mapped chunks
+     */
+    private MappedDenseOutputModel(final int degree, final int[] dimensions, final boolean forward,
+                                   final int nbSteps, final int chunkShift, final DoubleBuffer[] chunks) {
+        this.degree     = degree;
+        this.dimensions = dimensions;
+        int complete = 0;
+        for (final int dimension : dimensions) {
+            complete += dimension;
+        }
+        this.completeDimension = complete;
+        this.forward           = forward;
+        this.nbSteps           = nbSteps;
+        this.chunkShift        = chunkShift;
+        this.chunkMask         = (1L << chunkShift) - 1;
+        this.chunks            = chunks;
+    }
+
+    /** Write a model to a file.
+     * <p>
+     * If the file already exists, it is overwritten.
+     * </p>
+     * @param model model to write
+     * @param path path of the file
+     * @exception IOException if file cannot be written
+     */
+    public static void write(final CompactDenseOutputModel model, final Path path)
+        throws IOException {
+
+        MathUtils.checkNotNull(model);
+        final int[] dimensions = model.getDimensions();
+
+        try (FileChannel channel = FileChannel.open(path,
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+            // header
+            buffer.putLong(MAGIC);
+            buffer.putInt(FORMAT_VERSION);
+            buffer.putInt(model.getDegree());
+            buffer.putInt(model.isForward() ? 1 : 0);
+            buffer.putInt(dimensions.length);
+            buffer.putInt(model.getNumberOfSteps());
+            for (final int dimension : dimensions) {
+                buffer.putInt(dimension);
+            }
+            while (buffer.position() % 8 != 0) {
+                buffer.put((byte) 0);
+            }
+
+            // data
+            putAll(channel, buffer, model.getTimes());
+            putAll(channel, buffer, model.getCoefficients());
+
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+        }
+
+    }
+
+    /** Put an array in a buffer, flushing it to the channel as needed.
+     * @param channel channel to write to
+     * @param buffer write buffer
+     * @param data data to put
+     * @exception IOException if file cannot be written
+     */
+    private static void putAll(final FileChannel channel, final ByteBuffer buffer, final double[] data)
+        throws IOException {
+        for (final double d : data) {
+            if (buffer.remaining() < Double.BYTES) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            }
+            buffer.putDouble(d);
+        }
+    }
+
+    /** Open a model stored in a file.
+     * @param path path of the file
+     * @return model mapped from the file
+     * @exception IOException if file cannot be read or mapped
+     * @exception MathIllegalStateException if file is not a dense output file
+     * or has an unsupported format version
+     */
+    public static MappedDenseOutputModel open(final Path path)
+        throws IOException, MathIllegalStateException {
+        return open(path, DEFAULT_CHUNK_SHIFT);
+    }
+
+    /** Open a model stored in a file.
+     * <p>
+     * This method is visible for testing purposes only, to check mapping
+     * in several chunks with small files.
+     * </p>
+     * @param path path of the file
+     * @param chunkShift base 2 logarithm of the number of doubles in each chunk
+     * @return model mapped from the file
+     * @exception IOException if file cannot be read or mapped
+     * @exception MathIllegalStateException if file is not a dense output file
+     * or has an unsupported format version
+     */
+    static MappedDenseOutputModel open(final Path path, final int chunkShift)
+        throws IOException, MathIllegalStateException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            final long size = channel.size();
+            if (size < FIXED_HEADER_SIZE) {
+                throw new MathIllegalStateException(LocalizedODEFormats.NOT_A_DENSE_OUTPUT_FILE, path);
+            }
+
+            // fixed part of the header
+            final ByteBuffer fixed = readFully(channel, 0, FIXED_HEADER_SIZE);
+            if (fixed.getLong() != MAGIC) {
+                throw new MathIllegalStateException(LocalizedODEFormats.NOT_A_DENSE_OUTPUT_FILE, path);
+            }
+            final int version = fixed.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new MathIllegalStateException(LocalizedODEFormats.UNSUPPORTED_DENSE_OUTPUT_FILE_VERSION,
+                                                    version, path);
+            }
+            final int     degree       = fixed.getInt();
+            final boolean forward      = fixed.getInt() != 0;
+            final int     nbComponents = fixed.getInt();
+            final int     nbSteps      = fixed.getInt();
+            if (degree < 1 || nbComponents < 1 || nbSteps < 1 ||
+                FIXED_HEADER_SIZE + 4L * nbComponents > size) {
+                throw new MathIllegalStateException(LocalizedODEFormats.NOT_A_DENSE_OUTPUT_FILE, path);
+            }
+
+            // variable part of the header
+            final int[] dimensions = new int[nbComponents];
+            final ByteBuffer variable = readFully(channel, FIXED_HEADER_SIZE, 4 * nbComponents);
+            long complete = 0;
+            for (int i = 0; i < nbComponents; ++i) {
+                dimensions[i] = variable.getInt();
+                if (dimensions[i] < (i == 0 ? 1 : 0)) {
+                    // primary state cannot be empty, secondary states can
+                    throw new MathIllegalStateException(LocalizedODEFormats.NOT_A_DENSE_OUTPUT_FILE, path);
+                }
+                complete += dimensions[i];
+            }
+
+            // check data size
+            final long dataOffset = (FIXED_HEADER_SIZE + 4L * nbComponents + 7) & ~7L;
+            final long nbDoubles  = nbSteps + 1L + ((long) nbSteps) * (degree + 1) * complete;
+            if (size != dataOffset + Double.BYTES * nbDoubles) {
+                throw new MathIllegalStateException(LocalizedODEFormats.NOT_A_DENSE_OUTPUT_FILE, path);
+            }
+
+            // map data, chunk by chunk
+            final long chunkDoubles = 1L << chunkShift;
+            final DoubleBuffer[] chunks = new DoubleBuffer[(int) ((nbDoubles + chunkDoubles - 1) >>> chunkShift)];
+            for (int i = 0; i < chunks.length; ++i) {
+                final long start = i * chunkDoubles;
+                final long count = Math.min(chunkDoubles, nbDoubles - start);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                                        dataOffset + Double.BYTES * start,
+                                        Double.BYTES * count).
+                            order(ByteOrder.LITTLE_ENDIAN).
+                            asDoubleBuffer();
+            }
+
+            return new MappedDenseOutputModel(degree, dimensions, forward, nbSteps, chunkShift, chunks);
+
+        }
+
+    }
+
+    /** Read a part of a file.
+     * @param channel channel to read from
+     * @param position position of the first byte to read
+     * @param length number of bytes to read
+     * @return buffer containing the bytes read, ready for reading
+     * @exception IOException if file cannot be read
+     */
+    private static ByteBuffer readFully(final FileChannel channel, final long position, final int length)
+        throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException(channel.toString());
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getDegree() {
+        return degree;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getNumberOfSteps() {
+        return nbSteps;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getCompleteStateDimension() {
+        return completeDimension;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isForward() {
+        return forward;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    int[] getDimensions() {
+        return dimensions;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    double getTime(final int index) {
+        return get(index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    double getCoefficient(final long index) {
+        return get(nbSteps + 1 + index);
+    }
+
+    /** Get a value from the mapped data.
+     * <p>
+     * Indices below nbSteps + 1 correspond to step boundaries,
+     * indices above correspond to Chebyshev coefficients.
+     * </p>
+     * @param index index of the value
+     * @return value at index
+     */
+    private double get(final long index) {
+        // absolute get does not change buffer state, so it is safe for concurrent use
+        return chunks[(int) (index >>> chunkShift)].get((int) (index & chunkMask));
+    }
+
+}
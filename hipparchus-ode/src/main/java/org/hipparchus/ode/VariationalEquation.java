@@ -18,6 +18,7 @@ package org.hipparchus.ode;
 
 import java.lang.reflect.Array;
 
+import org.hipparchus.analysis.differentiation.Gradient;
 import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.MathIllegalStateException;
@@ -31,6 +32,11 @@ import org.hipparchus.exception.MathIllegalStateException;
  * <ul>
  * <li>a full-fledged {@link ODEJacobiansProvider} that computes by itself
  * both the ODE and its local partial derivatives,</li>
+ * <li>a simple {@link OrdinaryDifferentialEquation} completed with the same
+ * equations written as a {@link FieldOrdinaryDifferentialEquation
+ * FieldOrdinaryDifferentialEquation&lt;Gradient&gt;}, from which local partial
+ * derivatives are computed exactly by automatic differentiation (see {@link
+ * GradientJacobiansProvider}),</li>
  * <li>a simple {@link OrdinaryDifferentialEquation} which must therefore
  * be completed with a finite differences configuration to compute local
  * partial derivatives (so-called internal differentiation).</li>
@@ -77,6 +83,7 @@ import org.hipparchus.exception.MathIllegalStateException;
  * @see OrdinaryDifferentialEquation
  * @see NamedParameterJacobianProvider
  * @see ParametersController
+ * @see GradientJacobiansProvider
  *
  */
 public class VariationalEquation {
@@ -128,15 +135,53 @@ public class VariationalEquation {
     public VariationalEquation(final ExpandableODE expandable,
                                final ODEJacobiansProvider jode)
         throws MismatchedEquations {
+        this(expandable, jode,
+             (jode instanceof ParameterJacobianWrapper) ? ((ParameterJacobianWrapper) jode).getODE() : jode);
+    }
+
+    /** Build variational equation using automatic differentiation for local
+     * partial derivatives.
+     * <p>
+     * The primary set of differential equations is used as is for integration,
+     * whereas {@code ode}, which must represent the same equations, is used only
+     * to compute the local partial derivatives. All Jacobian columns, with respect
+     * to both state and parameters, are computed by a single evaluation of {@code
+     * ode} in forward mode, so no finite differences steps are needed.
+     * </p>
+     * @param expandable expandable set into which variational equations should be registered
+     * @param ode differential equations written against {@link Gradient}
+     * @param parameters names of the parameters to consider (if not empty,
+     * {@code ode} must implement {@link GradientParametersController})
+     * @exception MismatchedEquations if the dimension of the primary set of the
+     * expandable set does not match the {@code ode}
+     * @exception MathIllegalArgumentException if a parameter is not supported
+     * @see GradientJacobiansProvider
+     * @since 1.7
+     */
+    public VariationalEquation(final ExpandableODE expandable,
+                               final FieldOrdinaryDifferentialEquation<Gradient> ode,
+                               final String ... parameters)
+        throws MismatchedEquations, MathIllegalArgumentException {
+        this(expandable, new GradientJacobiansProvider(ode, parameters), null);
+    }
+
+    /** Build variational equation.
+     * @param expandable expandable set into which variational equations should be registered
+     * @param jode provider for local partial derivatives
+     * @param ode ordinary differential equations that must be the primary set of
+     * the expandable set (if null, only the dimensions are checked)
+     * @exception MismatchedEquations if the primary set of the expandable set does
+     * not match the {@code ode}
+     */
+    private VariationalEquation(final ExpandableODE expandable,
+                                final ODEJacobiansProvider jode,
+                                final OrdinaryDifferentialEquation ode)
+        throws MismatchedEquations {
 
         // safety checks
-        final OrdinaryDifferentialEquation ode;
-        if (jode instanceof ParameterJacobianWrapper) {
-            ode = ((ParameterJacobianWrapper) jode).getODE();
-        } else {
-            ode = jode;
-        }
-        if (expandable.getPrimary() != ode) {
+        if (ode == null ?
+            expandable.getPrimary().getDimension() != jode.getDimension() :
+            expandable.getPrimary() != ode) {
             throw new MismatchedEquations();
         }
 
@@ -198,6 +198,13 @@ public class EventFilter implements ODEEventHandler {
 
     }
 
+    /**  {@inheritDoc} */
+    @Override
+    public double getSignChangeHorizon(final ODEStateAndDerivative state, final boolean forward) {
+        // the filtered switching function changes sign only where the raw one does
+        return rawHandler.getSignChangeHorizon(state, forward);
+    }
+
     /**  {@inheritDoc} */
     @Override
     public Action eventOccurred(final ODEStateAndDerivative state, final boolean increasing) {
@@ -28,6 +28,7 @@ import org.hipparchus.analysis.solvers.BracketedUnivariateSolver.Interval;
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.MathIllegalStateException;
 import org.hipparchus.exception.MathRuntimeException;
+import org.hipparchus.ode.ODEIntegrationListener;
 import org.hipparchus.ode.ODEState;
 import org.hipparchus.ode.ODEStateAndDerivative;
 import org.hipparchus.ode.sampling.ODEStateInterpolator;
@@ -100,6 +101,9 @@ public class EventState {
     /** Root-finding algorithm to use to detect state events. */
     private final BracketedUnivariateSolver<UnivariateFunction> solver;
 
+    /** Integration listener (null if integration is not instrumented). */
+    private ODEIntegrationListener listener;
+
     /** Simple constructor.
      * @param handler event handler
      * @param maxCheckInterval maximal time interval between switching
@@ -159,6 +163,14 @@ public class EventState {
         return maxIterationCount;
     }
 
+    /** Set the integration listener.
+     * @param listener integration listener (null if integration is not instrumented)
+     * @since 1.7
+     */
+    public void setIntegrationListener(final ODEIntegrationListener listener) {
+        this.listener = listener;
+    }
+
     /** Reinitialize the beginning of the step.
      * @param interpolator valid for the current step
      * @exception MathIllegalStateException if the interpolator throws one because
@@ -170,7 +182,7 @@ public class EventState {
         forward = interpolator.isForward();
         final ODEStateAndDerivative s0 = interpolator.getPreviousState();
         t0 = s0.getTime();
-        g0 = handler.g(s0);
+        g0 = g(s0);
         while (g0 == 0) {
             // excerpt from MATH-421 issue:
             // If an ODE solver is setup with an ODEEventHandler that return STOP
@@ -194,7 +206,7 @@ public class EventState {
                 tStart = nextAfter(t0);
             }
             t0 = tStart;
-            g0 = handler.g(interpolator.getInterpolatedState(tStart));
+            g0 = g(interpolator.getInterpolatedState(tStart));
         }
         g0Positive = g0 > 0;
         // "last" event was increasing
@@ -223,18 +235,34 @@ public class EventState {
             // we cannot do anything on such a small step, don't trigger any events
             return false;
         }
-        // number of points to check in the current step
-        final int n = FastMath.max(1, (int) FastMath.ceil(FastMath.abs(dt) / maxCheckInterval));
-        final double h = dt / n;
+        // skip the part of the step where the handler guarantees no sign change
+        final double horizon = handler.getSignChangeHorizon(interpolator.getPreviousState(), forward);
+        final double tStart;
+        if (strictlyAfter(t0, horizon)) {
+            if (!strictlyAfter(horizon, t1)) {
+                // the switching function cannot change sign during the remaining part of the step
+                pendingEvent     = false;
+                pendingEventTime = Double.NaN;
+                return false;
+            }
+            tStart = horizon;
+        } else {
+            tStart = t0;
+        }
 
+        // number of points to check in the current step
+        final int n = FastMath.max(1, (int) FastMath.ceil(FastMath.abs(t1 - tStart) / maxCheckInterval));
+        final double h = (t1 - tStart) / n;
 
-        double ta = t0;
+        // the switching function has the same sign at tStart as at t0,
+        // findRoot will check it anyway if a sign change is found later
+        double ta = tStart;
         double ga = g0;
         for (int i = 0; i < n; ++i) {
 
             // evaluate handler value at the end of the substep
-            final double tb = (i == n - 1) ? t1 : t0 + (i + 1) * h;
-            final double gb = handler.g(interpolator.getInterpolatedState(tb));
+            final double tb = (i == n - 1) ? t1 : tStart + (i + 1) * h;
+            final double gb = g(interpolator.getInterpolatedState(tb));
 
             // check events occurrence
             if (gb == 0.0 || (g0Positive ^ (gb > 0))) {
@@ -278,7 +306,7 @@ public class EventState {
         // check there appears to be a root in [ta, tb]
         check(ga == 0.0 || gb == 0.0 || (ga > 0.0 && gb < 0.0) || (ga < 0.0 && gb > 0.0));
 
-        final UnivariateFunction f = t -> handler.g(interpolator.getInterpolatedState(t));
+        final UnivariateFunction f = t -> g(interpolator.getInterpolatedState(t));
 
         // event time, just at or before the actual root.
         double beforeRootT = Double.NaN;
@@ -334,6 +362,9 @@ public class EventState {
                 if (forward) {
                     final Interval interval =
                             solver.solveInterval(maxIterationCount, f, loopT, tb);
+                    if (listener != null) {
+                        listener.rootSearched(this, solver.getEvaluations());
+                    }
                     beforeRootT = interval.getLeftAbscissa();
                     beforeRootG = interval.getLeftValue();
                     afterRootT = interval.getRightAbscissa();
@@ -341,6 +372,9 @@ public class EventState {
                 } else {
                     final Interval interval =
                             solver.solveInterval(maxIterationCount, f, tb, loopT);
+                    if (listener != null) {
+                        listener.rootSearched(this, solver.getEvaluations());
+                    }
                     beforeRootT = interval.getRightAbscissa();
                     beforeRootG = interval.getRightValue();
                     afterRootT = interval.getLeftAbscissa();
@@ -396,6 +430,17 @@ public class EventState {
         return FastMath.nextAfter(t, dir);
     }
 
+    /** Evaluate the switching function, notifying the integration listener if any.
+     * @param state state at which the switching function must be evaluated
+     * @return value of the switching function
+     */
+    private double g(final ODEStateAndDerivative state) {
+        if (listener != null) {
+            listener.gEvaluated(this);
+        }
+        return handler.g(state);
+    }
+
     /**
      * Get the occurrence time of the event triggered in the current step.
      *
@@ -435,7 +480,7 @@ public class EventState {
             meFirst = false;
         } else {
             // check g function to see if there is a new event
-            final double g = handler.g(state);
+            final double g = g(state);
             final boolean positive = g > 0;
 
             if (positive == g0Positive) {
@@ -29,6 +29,7 @@ import org.hipparchus.analysis.solvers.BracketedRealFieldUnivariateSolver.Interv
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.MathIllegalStateException;
 import org.hipparchus.exception.MathRuntimeException;
+import org.hipparchus.ode.FieldODEIntegrationListener;
 import org.hipparchus.ode.FieldODEState;
 import org.hipparchus.ode.FieldODEStateAndDerivative;
 import org.hipparchus.ode.sampling.FieldODEStateInterpolator;
@@ -101,6 +102,9 @@ public class FieldEventState<T extends RealFieldElement<T>> {
     /** Root-finding algorithm to use to detect state events. */
     private final BracketedRealFieldUnivariateSolver<T> solver;
 
+    /** Integration listener (null if integration is not instrumented). */
+    private FieldODEIntegrationListener<T> listener;
+
     /** Simple constructor.
      * @param handler event handler
      * @param maxCheckInterval maximal time interval between switching
@@ -161,6 +165,14 @@ public class FieldEventState<T extends RealFieldElement<T>> {
         return maxIterationCount;
     }
 
+    /** Set the integration listener.
+     * @param listener integration listener (null if integration is not instrumented)
+     * @since 1.7
+     */
+    public void setIntegrationListener(final FieldODEIntegrationListener<T> listener) {
+        this.listener = listener;
+    }
+
     /** Reinitialize the beginning of the step.
      * @param interpolator valid for the current step
      * @exception MathIllegalStateException if the interpolator throws one because
@@ -172,7 +184,7 @@ public class FieldEventState<T extends RealFieldElement<T>> {
         forward = interpolator.isForward();
         final FieldODEStateAndDerivative<T> s0 = interpolator.getPreviousState();
         t0 = s0.getTime();
-        g0 = handler.g(s0);
+        g0 = g(s0);
         while (g0.getReal() == 0) {
             // excerpt from MATH-421 issue:
             // If an ODE solver is setup with a FieldODEEventHandler that return STOP
@@ -194,7 +206,7 @@ public class FieldEventState<T extends RealFieldElement<T>> {
                 tStart = nextAfter(t0);
             }
             t0 = tStart;
-            g0 = handler.g(interpolator.getInterpolatedState(tStart));
+            g0 = g(interpolator.getInterpolatedState(tStart));
         }
         g0Positive = g0.getReal() > 0;
         // "last" event was increasing
@@ -243,16 +255,34 @@ public class FieldEventState<T extends RealFieldElement<T>> {
             // we cannot do anything on such a small step, don't trigger any events
             return false;
         }
-        final int n = FastMath.max(1, (int) FastMath.ceil(FastMath.abs(dt.getReal()) / maxCheckInterval));
-        final T   h = dt.divide(n);
+        // skip the part of the step where the handler guarantees no sign change
+        final T horizon = handler.getSignChangeHorizon(interpolator.getPreviousState(), forward);
+        final T tStart;
+        if (strictlyAfter(t0, horizon)) {
+            if (!strictlyAfter(horizon, t1)) {
+                // the switching function cannot change sign during the remaining part of the step
+                pendingEvent     = false;
+                pendingEventTime = null;
+                return false;
+            }
+            tStart = horizon;
+        } else {
+            tStart = t0;
+        }
+
+        final T   span = t1.subtract(tStart);
+        final int n    = FastMath.max(1, (int) FastMath.ceil(FastMath.abs(span.getReal()) / maxCheckInterval));
+        final T   h    = span.divide(n);
 
-        T ta = t0;
+        // the switching function has the same sign at tStart as at t0,
+        // findRoot will check it anyway if a sign change is found later
+        T ta = tStart;
         T ga = g0;
         for (int i = 0; i < n; ++i) {
 
             // evaluate handler value at the end of the substep
-            final T tb = (i == n - 1) ? t1 : t0.add(h.multiply(i + 1));
-            final T gb = handler.g(interpolator.getInterpolatedState(tb));
+            final T tb = (i == n - 1) ? t1 : tStart.add(h.multiply(i + 1));
+            final T gb = g(interpolator.getInterpolatedState(tb));
 
             // check events occurrence
             if (gb.getReal() == 0.0 || (g0Positive ^ (gb.getReal() > 0))) {
@@ -299,7 +329,7 @@ public class FieldEventState<T extends RealFieldElement<T>> {
                 (ga.getReal() < 0.0 && gb.getReal() > 0.0));
 
         final RealFieldUnivariateFunction<T> f =
-                t -> handler.g(interpolator.getInterpolatedState(t));
+                t -> g(interpolator.getInterpolatedState(t));
 
         // event time, just at or before the actual root.
         T beforeRootT = null;
@@ -355,6 +385,9 @@ public class FieldEventState<T extends RealFieldElement<T>> {
                 if (forward) {
                     final Interval<T> interval =
                             solver.solveInterval(maxIterationCount, f, loopT, tb);
+                    if (listener != null) {
+                        listener.rootSearched(this, solver.getEvaluations());
+                    }
                     beforeRootT = interval.getLeftAbscissa();
                     beforeRootG = interval.getLeftValue();
                     afterRootT = interval.getRightAbscissa();
@@ -362,6 +395,9 @@ public class FieldEventState<T extends RealFieldElement<T>> {
                 } else {
                     final Interval<T> interval =
                             solver.solveInterval(maxIterationCount, f, tb, loopT);
+                    if (listener != null) {
+                        listener.rootSearched(this, solver.getEvaluations());
+                    }
                     beforeRootT = interval.getRightAbscissa();
                     beforeRootG = interval.getRightValue();
                     afterRootT = interval.getLeftAbscissa();
@@ -432,7 +468,7 @@ public class FieldEventState<T extends RealFieldElement<T>> {
             meFirst = false;
         } else {
             // check g function to see if there is a new event
-            final T g = handler.g(state);
+            final T g = g(state);
             final boolean positive = g.getReal() > 0;
 
             if (positive == g0Positive) {
@@ -573,6 +609,17 @@ public class FieldEventState<T extends RealFieldElement<T>> {
         }
     }
 
+    /** Evaluate the switching function, notifying the integration listener if any.
+     * @param state state at which the switching function must be evaluated
+     * @return value of the switching function
+     */
+    private T g(final FieldODEStateAndDerivative<T> state) {
+        if (listener != null) {
+            listener.gEvaluated(this);
+        }
+        return handler.g(state);
+    }
+
     /** Get the occurrence time of the event triggered in the current step.
      * @return occurrence time of the event triggered in the current
      * step or infinity if no events are triggered
@@ -112,6 +112,36 @@ public interface ODEEventHandler  {
      */
     double g(ODEStateAndDerivative state);
 
+    /** Get the horizon before which the switching function cannot change sign.
+     * <p>
+     * This method is an optional prefilter for event detection. It allows
+     * handlers that can cheaply bound the evolution of their switching function
+     * (for example using geometric arguments for eclipses or visibility) to declare
+     * a time window starting at {@code state} during which the switching function
+     * keeps the sign it has at {@code state} and does not vanish. Integrators do not
+     * evaluate the switching function within this window, the regular sampling
+     * every {@code maxCheckInterval} resumes at the horizon.
+     * </p>
+     * <p>
+     * The returned horizon must be after {@code state} time with respect to
+     * integration direction, i.e. greater for forward integration and smaller
+     * for backward integration. Returning a horizon too far away will make the
+     * integrator miss events. The horizon is requested at the start of each step
+     * and after each event, so it only needs to hold for the current state.
+     * </p>
+     * <p>
+     * The default implementation returns {@code state.getTime()}, which means the
+     * switching function may change sign at any time and prefiltering is disabled.
+     * </p>
+     * @param state state at the start of the window
+     * @param forward if true, integration is forward
+     * @return horizon before which the switching function cannot change sign
+     * @since 1.7
+     */
+    default double getSignChangeHorizon(ODEStateAndDerivative state, boolean forward) {
+        return state.getTime();
+    }
+
     /** Handle an event and choose what to do next.
 
      * <p>This method is called when the integrator has accepted a step
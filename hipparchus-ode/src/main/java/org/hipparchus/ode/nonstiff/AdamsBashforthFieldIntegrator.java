@@ -295,6 +295,7 @@ public class AdamsBashforthFieldIntegrator<T extends RealFieldElement<T>> extend
 
                 if (error.subtract(1.0).getReal() >= 0.0) {
                     // reject the step and attempt to reduce error by stepsize control
+                    stepRejected(getStepSize());
                     final T factor = computeStepGrowShrinkFactor(error);
                     rescale(filterStep(getStepSize().multiply(factor), forward, false));
                     stepEnd = AdamsFieldStateInterpolator.taylor(equations.getMapper(), getStepStart(),
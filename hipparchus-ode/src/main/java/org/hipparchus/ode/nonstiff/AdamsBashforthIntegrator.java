@@ -290,6 +290,7 @@ public class AdamsBashforthIntegrator extends AdamsIntegrator {
 
                 if (error >= 1.0) {
                     // reject the step and attempt to reduce error by stepsize control
+                    stepRejected(getStepSize());
                     final double factor = computeStepGrowShrinkFactor(error);
                     rescale(filterStep(getStepSize() * factor, forward, false));
                     stepEnd = AdamsStateInterpolator.taylor(equations.getMapper(), getStepStart(),
@@ -270,6 +270,7 @@ public class AdamsMoultonFieldIntegrator<T extends RealFieldElement<T>> extends
 
                 if (error.subtract(1.0).getReal() >= 0.0) {
                     // reject the step and attempt to reduce error by stepsize control
+                    stepRejected(getStepSize());
                     final T factor = computeStepGrowShrinkFactor(error);
                     rescale(filterStep(getStepSize().multiply(factor), forward, false));
                     stepEnd = AdamsFieldStateInterpolator.taylor(equations.getMapper(), getStepStart(),
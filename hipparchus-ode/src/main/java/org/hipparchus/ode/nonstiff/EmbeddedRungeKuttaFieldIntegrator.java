@@ -299,6 +299,7 @@ public abstract class EmbeddedRungeKuttaFieldIntegrator<T extends RealFieldEleme
                 error = estimateError(yDotK, y, yTmp, getStepSize());
                 if (error.subtract(1.0).getReal() >= 0) {
                     // reject the step and attempt to reduce error by stepsize control
+                    stepRejected(getStepSize());
                     final T factor = MathUtils.min(maxGrowth,
                                                    MathUtils.max(minReduction, safety.multiply(error.pow(exp))));
                     hNew = filterStep(getStepSize().multiply(factor), forward, false);
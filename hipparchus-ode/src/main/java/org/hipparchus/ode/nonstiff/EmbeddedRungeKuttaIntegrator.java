@@ -89,6 +89,9 @@ public abstract class EmbeddedRungeKuttaIntegrator
     /** Maximal growth factor for stepsize control. */
     private double maxGrowth;
 
+    /** Indicator for reusing internal buffers between steps. */
+    private boolean reuseBuffers;
+
     /** Build a Runge-Kutta integrator with the given Butcher array.
      * @param name name of the method
      * @param fsal index of the pre-computed derivative for <i>fsal</i> methods
@@ -186,6 +189,34 @@ public abstract class EmbeddedRungeKuttaIntegrator
         this.safety = safety;
     }
 
+    /** Set the buffers reuse mode.
+     * <p>
+     * In this mode, which is disabled by default, the state and stages derivatives
+     * arrays are allocated once at integration start and reused for all steps,
+     * including rejected ones, instead of being allocated for each trial step.
+     * Interpolators then share these arrays instead of copying them. As they are
+     * overwritten by the next step, this mode is only safe when step handlers do
+     * not keep references to interpolators after {@link
+     * org.hipparchus.ode.sampling.ODEStepHandler#handleStep handleStep} returns
+     * (which excludes {@link org.hipparchus.ode.DenseOutputModel}), and when the
+     * differential equations do not modify the state array they receive.
+     * </p>
+     * @param reuseBuffers if true, internal buffers are reused between steps
+     * @since 1.7
+     */
+    public void setReuseBuffers(final boolean reuseBuffers) {
+        this.reuseBuffers = reuseBuffers;
+    }
+
+    /** Check if internal buffers are reused between steps.
+     * @return true if internal buffers are reused between steps
+     * @see #setReuseBuffers(boolean)
+     * @since 1.7
+     */
+    public boolean isReuseBuffers() {
+        return reuseBuffers;
+    }
+
     /** {@inheritDoc} */
     @Override
     public ODEStateAndDerivative integrate(final ExpandableODE equations,
@@ -200,6 +231,18 @@ public abstract class EmbeddedRungeKuttaIntegrator
         final int        stages  = c.length + 1;
         final double[][] yDotK   = new double[stages][];
         final double[]   yTmp    = new double[equations.getMapper().getTotalDimension()];
+        double[]         y       = null;
+        final double[]   yDotEnd;
+        if (reuseBuffers) {
+            y = getStepStart().getCompleteState();
+            for (int k = 0; k < stages; ++k) {
+                yDotK[k] = new double[yTmp.length];
+            }
+            System.arraycopy(getStepStart().getCompleteDerivative(), 0, yDotK[0], 0, yTmp.length);
+            yDotEnd = (fsal >= 0) ? null : new double[yTmp.length];
+        } else {
+            yDotEnd = null;
+        }
 
         // set up integration control objects
         double  hNew      = 0;
@@ -214,8 +257,10 @@ public abstract class EmbeddedRungeKuttaIntegrator
             while (error >= 1.0) {
 
                 // first stage
-                final double[] y = getStepStart().getCompleteState();
-                yDotK[0] = getStepStart().getCompleteDerivative();
+                if (!reuseBuffers) {
+                    y        = getStepStart().getCompleteState();
+                    yDotK[0] = getStepStart().getCompleteDerivative();
+                }
 
                 if (firstTime) {
                     final double[] scale = new double[mainSetDimension];
@@ -254,7 +299,11 @@ public abstract class EmbeddedRungeKuttaIntegrator
                         yTmp[j] = y[j] + getStepSize() * sum;
                     }
 
-                    yDotK[k] = computeDerivatives(getStepStart().getTime() + c[k-1] * getStepSize(), yTmp);
+                    if (reuseBuffers) {
+                        computeDerivatives(getStepStart().getTime() + c[k-1] * getStepSize(), yTmp, yDotK[k]);
+                    } else {
+                        yDotK[k] = computeDerivatives(getStepStart().getTime() + c[k-1] * getStepSize(), yTmp);
+                    }
 
                 }
 
@@ -275,6 +324,7 @@ public abstract class EmbeddedRungeKuttaIntegrator
                 }
                 if (error >= 1.0) {
                     // reject the step and attempt to reduce error by stepsize control
+                    stepRejected(getStepSize());
                     final double factor =
                                     FastMath.min(maxGrowth,
                                                  FastMath.max(minReduction, safety * FastMath.pow(error, exp)));
@@ -283,13 +333,32 @@ public abstract class EmbeddedRungeKuttaIntegrator
 
             }
             final double   stepEnd = getStepStart().getTime() + getStepSize();
-            final double[] yDotTmp = (fsal >= 0) ? yDotK[fsal] : computeDerivatives(stepEnd, yTmp);
+            final double[] yDotTmp;
+            if (fsal >= 0) {
+                yDotTmp = yDotK[fsal];
+            } else if (reuseBuffers) {
+                computeDerivatives(stepEnd, yTmp, yDotEnd);
+                yDotTmp = yDotEnd;
+            } else {
+                yDotTmp = computeDerivatives(stepEnd, yTmp);
+            }
             final ODEStateAndDerivative stateTmp = equations.getMapper().mapStateAndDerivative(stepEnd, yTmp, yDotTmp);
 
             // local error is small enough: accept the step, trigger events and step handlers
             setStepStart(acceptStep(createInterpolator(forward, yDotK, getStepStart(), stateTmp, equations.getMapper()),
                                     finalTime));
 
+            if (reuseBuffers) {
+                // prepare first stage of next step
+                if (resetOccurred()) {
+                    System.arraycopy(getStepStart().getCompleteState(),      0, y,        0, y.length);
+                    System.arraycopy(getStepStart().getCompleteDerivative(), 0, yDotK[0], 0, y.length);
+                } else {
+                    System.arraycopy(yTmp,    0, y,        0, y.length);
+                    System.arraycopy(yDotTmp, 0, yDotK[0], 0, y.length);
+                }
+            }
+
             if (!isLastStep()) {
 
                 // stepsize control for next step
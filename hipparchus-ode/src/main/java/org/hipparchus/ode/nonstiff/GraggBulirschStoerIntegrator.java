@@ -17,10 +17,17 @@
 
 package org.hipparchus.ode.nonstiff;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.MathIllegalStateException;
 import org.hipparchus.ode.ExpandableODE;
 import org.hipparchus.ode.LocalizedODEFormats;
+import org.hipparchus.ode.ODEIntegrationListener;
 import org.hipparchus.ode.ODEState;
 import org.hipparchus.ode.ODEStateAndDerivative;
 import org.hipparchus.util.FastMath;
@@ -87,6 +94,16 @@ import org.hipparchus.util.FastMath;
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.</strong></td></tr>
  * </table>
  *
+ * <p>
+ * The modified midpoint sequences of the extrapolation tableau are independent
+ * from each other for a given step. If a {@link #setSequencesPool(ForkJoinPool)
+ * pool} is set, they are computed concurrently. The order selection then uses
+ * the wall-clock cost of the sequences balanced between the threads of the pool
+ * instead of their cumulated cost, so the integrator favors higher orders when
+ * more threads are available. This mode is worth it only for expensive
+ * differential equations, which must support concurrent calls.
+ * </p>
+ *
  */
 
 public class GraggBulirschStoerIntegrator extends AdaptiveStepsizeIntegrator {
@@ -148,6 +165,9 @@ public class GraggBulirschStoerIntegrator extends AdaptiveStepsizeIntegrator {
     /** interpolation order control parameter. */
     private int mudif;
 
+    /** Pool for concurrent computation of the sequences (null for sequential computation). */
+    private ForkJoinPool sequencesPool;
+
     /** Simple constructor.
      * Build a Gragg-Bulirsch-Stoer integrator with the given step
      * bounds. All tuning parameters are set to their default
@@ -350,10 +370,14 @@ public class GraggBulirschStoerIntegrator extends AdaptiveStepsizeIntegrator {
         }
 
         // initialize the order selection cost array
-        // (number of function calls for each column of the extrapolation table)
-        costPerStep[0] = sequence[0] + 1;
-        for (int k = 1; k < size; ++k) {
-            costPerStep[k] = costPerStep[k - 1] + sequence[k];
+        // (number of function calls for each column of the extrapolation table,
+        // when sequences are computed concurrently, the calls are balanced between
+        // threads and the cost is the number of calls in the critical path)
+        final int parallelism = (sequencesPool == null) ? 1 : sequencesPool.getParallelism();
+        int cumulated = 0;
+        for (int k = 0; k < size; ++k) {
+            cumulated     += sequence[k];
+            costPerStep[k] = 1 + FastMath.max(sequence[k], (cumulated + parallelism - 1) / parallelism);
         }
 
         // initialize the extrapolation tables
@@ -390,6 +414,39 @@ public class GraggBulirschStoerIntegrator extends AdaptiveStepsizeIntegrator {
 
     }
 
+    /** Set the pool for concurrent computation of the modified midpoint sequences.
+     * <p>
+     * When a pool is set, all the sequences that may be needed for a step are
+     * computed concurrently at the start of the step, before the convergence
+     * checks. Some sequences may therefore be computed and not used, which
+     * increases the number of evaluations, but decreases wall-clock time.
+     * The cost model used for order selection is updated to take the
+     * {@link ForkJoinPool#getParallelism() parallelism} of the pool into account,
+     * so higher orders are selected as more threads are available. As
+     * evaluations are counted only once all sequences have been computed,
+     * the {@link #setMaxEvaluations(int) maximal number of evaluations}
+     * may be slightly exceeded before integration stops. Sequential
+     * computation is the default.
+     * </p>
+     * @param sequencesPool pool for concurrent computation of the sequences
+     * (null for sequential computation)
+     * @see #getSequencesPool()
+     * @since 1.7
+     */
+    public void setSequencesPool(final ForkJoinPool sequencesPool) {
+        this.sequencesPool = sequencesPool;
+        initializeArrays();
+    }
+
+    /** Get the pool for concurrent computation of the modified midpoint sequences.
+     * @return pool for concurrent computation of the sequences (null for sequential computation)
+     * @see #setSequencesPool(ForkJoinPool)
+     * @since 1.7
+     */
+    public ForkJoinPool getSequencesPool() {
+        return sequencesPool;
+    }
+
     /** Update scaling array.
      * @param y1 first state vector to use for scaling
      * @param y2 second state vector to use for scaling
@@ -420,6 +477,8 @@ public class GraggBulirschStoerIntegrator extends AdaptiveStepsizeIntegrator {
      *          (element 0 already contains initial derivative)
      * @param yMiddle placeholder where to put the state vector at the middle of the step
      * @param yEnd placeholder where to put the state vector at the end
+     * @param concurrentEvaluations counter for evaluations performed concurrently
+     * (null if the sequence is computed in the integrator thread)
      * @return true if computation was done properly,
      *         false if stability check failed before end of computation
      * @exception MathIllegalStateException if the number of functions evaluations is exceeded
@@ -427,7 +486,8 @@ public class GraggBulirschStoerIntegrator extends AdaptiveStepsizeIntegrator {
      */
     private boolean tryStep(final double t0, final double[] y0, final double step, final int k,
                             final double[] scale, final double[][] f,
-                            final double[] yMiddle, final double[] yEnd)
+                            final double[] yMiddle, final double[] yEnd,
+                            final AtomicInteger concurrentEvaluations)
         throws MathIllegalArgumentException, MathIllegalStateException {
 
         final int    n        = sequence[k];
@@ -439,7 +499,7 @@ public class GraggBulirschStoerIntegrator extends AdaptiveStepsizeIntegrator {
         for (int i = 0; i < y0.length; ++i) {
             yEnd[i] = y0[i] + subStep * f[0][i];
         }
-        f[1] = computeDerivatives(t, yEnd);
+        f[1] = computeDerivatives(t, yEnd, concurrentEvaluations);
 
         // other substeps
         final double[] yTmp = y0.clone();
@@ -457,7 +517,7 @@ public class GraggBulirschStoerIntegrator extends AdaptiveStepsizeIntegrator {
                 yTmp[i]       = middle;
             }
 
-            f[j + 1] = computeDerivatives(t, yEnd);
+            f[j + 1] = computeDerivatives(t, yEnd, concurrentEvaluations);
 
             // stability check
             if (performTest && (j <= maxChecks) && (k < maxIter)) {
@@ -487,6 +547,82 @@ public class GraggBulirschStoerIntegrator extends AdaptiveStepsizeIntegrator {
 
     }
 
+    /** Compute the derivatives, possibly from a pool thread.
+     * @param t current value of the independent <I>time</I> variable
+     * @param y array containing the current value of the state vector
+     * @param concurrentEvaluations counter for evaluations performed concurrently
+     * (null if the derivatives are computed in the integrator thread)
+     * @return state completed with derivatives
+     */
+    private double[] computeDerivatives(final double t, final double[] y,
+                                        final AtomicInteger concurrentEvaluations) {
+
+        if (concurrentEvaluations == null) {
+            return computeDerivatives(t, y);
+        }
+
+        // the evaluations counter is not thread-safe, it will be updated
+        // by the integrator thread once all sequences have been computed
+        concurrentEvaluations.incrementAndGet();
+        final ODEIntegrationListener listener = getIntegrationListener();
+        if (listener == null) {
+            return getEquations().computeDerivatives(t, y);
+        }
+        final long start = System.nanoTime();
+        final double[] yDot = getEquations().computeDerivatives(t, y);
+        listener.derivativesComputed(System.nanoTime() - start);
+        return yDot;
+
+    }
+
+    /** Compute concurrently all the sequences that may be needed for a step.
+     * @param t0 initial time
+     * @param y0 initial value of the state vector at t0
+     * @param step global step
+     * @param kMax index of the last sequence to compute
+     * @param scale scaling array (can be shorter than state)
+     * @param fk placeholders where to put the state vector derivatives at each substep
+     * @param yMiddle placeholders where to put the state vector at the middle of the step
+     * @param yEnd placeholders where to put the state vector at the end
+     * @return array indicating for each sequence if the computation was done properly
+     * @exception MathIllegalStateException if the number of functions evaluations is exceeded
+     * @exception MathIllegalArgumentException if arrays dimensions do not match equations settings
+     */
+    private boolean[] trySteps(final double t0, final double[] y0, final double step, final int kMax,
+                               final double[] scale, final double[][][] fk,
+                               final double[][] yMiddle, final double[][] yEnd)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+
+        // larger sequences are submitted first so they start as early as possible
+        final AtomicInteger evaluations = new AtomicInteger(0);
+        final List<ForkJoinTask<Boolean>> tasks = new ArrayList<>(kMax + 1);
+        for (int k = kMax; k >= 0; --k) {
+            final int index = k;
+            tasks.add(sequencesPool.submit(() -> tryStep(t0, y0, step, index, scale, fk[index],
+                                                         yMiddle[index], yEnd[index], evaluations)));
+        }
+
+        // wait for all tasks, even if one fails, so no computation is still running when we return
+        final boolean[] success = new boolean[kMax + 1];
+        RuntimeException failure = null;
+        for (int i = 0; i < tasks.size(); ++i) {
+            try {
+                success[kMax - i] = tasks.get(i).join();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        getEvaluationsCounter().increment(evaluations.get());
+        if (failure != null) {
+            throw failure;
+        }
+
+        return success;
+
+    }
+
     /** Extrapolate a vector.
      * @param offset offset to use in the coefficients table
      * @param k index of the last updated point
@@ -538,6 +674,10 @@ public class GraggBulirschStoerIntegrator extends AdaptiveStepsizeIntegrator {
             fk[k] = new double[sequence[k] + 1][];
         }
 
+        // placeholders for the concurrent computation of sequences
+        final double[][] yMiddles = new double[sequence.length][];
+        final double[][] yEnds    = new double[sequence.length][];
+
         // scaled derivatives at the middle of the step $\tau$
         // (element k is $h^{k} d^{k}y(\tau)/dt^{k}$ where h is step size...)
         final double[][] yMidDots = new double[1 + 2 * sequence.length][y.length];
@@ -598,6 +738,20 @@ public class GraggBulirschStoerIntegrator extends AdaptiveStepsizeIntegrator {
             final double nextT = getStepStart().getTime() + getStepSize();
             setIsLastStep(forward ? (nextT >= finalTime) : (nextT <= finalTime));
 
+            // compute concurrently all the sequences that may be needed
+            final boolean[] concurrentSuccess;
+            if (sequencesPool == null) {
+                concurrentSuccess = null;
+            } else {
+                final int kMax = FastMath.min(targetIter + 1, sequence.length - 1);
+                for (int k = 0; k <= kMax; ++k) {
+                    yMiddles[k] = (k == 0) ? yMidDots[0] : diagonal[k - 1];
+                    yEnds[k]    = (k == 0) ? y1 : y1Diag[k - 1];
+                }
+                concurrentSuccess = trySteps(getStepStart().getTime(), y, getStepSize(), kMax,
+                                             scale, fk, yMiddles, yEnds);
+            }
+
             // iterate over several substep sizes
             int k = -1;
             for (boolean loop = true; loop; ) {
@@ -605,9 +759,17 @@ public class GraggBulirschStoerIntegrator extends AdaptiveStepsizeIntegrator {
                 ++k;
 
                 // modified midpoint integration with the current substep
-                if ( ! tryStep(getStepStart().getTime(), y, getStepSize(), k, scale, fk[k],
-                               (k == 0) ? yMidDots[0] : diagonal[k - 1],
-                               (k == 0) ? y1 : y1Diag[k - 1])) {
+                final boolean success;
+                if (concurrentSuccess != null && k < concurrentSuccess.length) {
+                    // the sequence has already been computed
+                    success = concurrentSuccess[k];
+                } else {
+                    success = tryStep(getStepStart().getTime(), y, getStepSize(), k, scale, fk[k],
+                                      (k == 0) ? yMidDots[0] : diagonal[k - 1],
+                                      (k == 0) ? y1 : y1Diag[k - 1],
+                                      null);
+                }
+                if (!success) {
 
                     // the stability check failed, we reduce the global step
                     hNew   = FastMath.abs(filterStep(getStepSize() * stabilityReduction, forward, false));
@@ -878,6 +1040,7 @@ public class GraggBulirschStoerIntegrator extends AdaptiveStepsizeIntegrator {
 
             if (reject) {
                 setIsLastStep(false);
+                stepRejected(getStepSize());
                 previousRejected = true;
             } else {
                 previousRejected = false;
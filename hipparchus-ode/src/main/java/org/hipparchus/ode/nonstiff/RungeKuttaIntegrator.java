@@ -66,6 +66,9 @@ public abstract class RungeKuttaIntegrator extends AbstractIntegrator implements
     /** Integration step. */
     private final double step;
 
+    /** Indicator for reusing internal buffers between steps. */
+    private boolean reuseBuffers;
+
     /** Simple constructor.
      * Build a Runge-Kutta integrator with the given
      * step. The default step handler does nothing.
@@ -80,6 +83,35 @@ public abstract class RungeKuttaIntegrator extends AbstractIntegrator implements
         this.step = FastMath.abs(step);
     }
 
+    /** Set the buffers reuse mode.
+     * <p>
+     * By default, new arrays are allocated for the state, the stages derivatives
+     * and the interpolators at each step. If this mode is enabled, these arrays
+     * are allocated once at integration start and overwritten at each step,
+     * which removes most per-step allocations for small systems. The interpolators
+     * passed to step handlers then share the integrator buffers, so this mode
+     * must only be used if no step handler (for example a {@link
+     * org.hipparchus.ode.DenseOutputModel}) keeps references to interpolators
+     * once {@link org.hipparchus.ode.sampling.ODEStepHandler#handleStep
+     * handleStep} has returned. It also requires that the differential equations
+     * do not modify the state array they receive.
+     * </p>
+     * @param reuseBuffers if true, internal buffers are reused between steps
+     * @since 1.7
+     */
+    public void setReuseBuffers(final boolean reuseBuffers) {
+        this.reuseBuffers = reuseBuffers;
+    }
+
+    /** Check if internal buffers are reused between steps.
+     * @return true if internal buffers are reused between steps
+     * @see #setReuseBuffers(boolean)
+     * @since 1.7
+     */
+    public boolean isReuseBuffers() {
+        return reuseBuffers;
+    }
+
     /** Create an interpolator.
      * @param forward integration direction indicator
      * @param yDotK slopes at the intermediate points
@@ -108,6 +140,16 @@ public abstract class RungeKuttaIntegrator extends AbstractIntegrator implements
         double[]         y      = getStepStart().getCompleteState();
         final double[][] yDotK  = new double[stages][];
         final double[]   yTmp   = new double[y.length];
+        final double[]   yDotEnd;
+        if (reuseBuffers) {
+            for (int k = 0; k < stages; ++k) {
+                yDotK[k] = new double[y.length];
+            }
+            System.arraycopy(getStepStart().getCompleteDerivative(), 0, yDotK[0], 0, y.length);
+            yDotEnd = new double[y.length];
+        } else {
+            yDotEnd = null;
+        }
 
         // set up integration control objects
         if (forward) {
@@ -129,8 +171,10 @@ public abstract class RungeKuttaIntegrator extends AbstractIntegrator implements
         do {
 
             // first stage
-            y        = getStepStart().getCompleteState();
-            yDotK[0] = getStepStart().getCompleteDerivative();
+            if (!reuseBuffers) {
+                y        = getStepStart().getCompleteState();
+                yDotK[0] = getStepStart().getCompleteDerivative();
+            }
 
             // next stages
             for (int k = 1; k < stages; ++k) {
@@ -143,7 +187,11 @@ public abstract class RungeKuttaIntegrator extends AbstractIntegrator implements
                     yTmp[j] = y[j] + getStepSize() * sum;
                 }
 
-                yDotK[k] = computeDerivatives(getStepStart().getTime() + c[k-1] * getStepSize(), yTmp);
+                if (reuseBuffers) {
+                    computeDerivatives(getStepStart().getTime() + c[k-1] * getStepSize(), yTmp, yDotK[k]);
+                } else {
+                    yDotK[k] = computeDerivatives(getStepStart().getTime() + c[k-1] * getStepSize(), yTmp);
+                }
 
             }
 
@@ -161,7 +209,13 @@ public abstract class RungeKuttaIntegrator extends AbstractIntegrator implements
 
             }
             final double stepEnd   = getStepStart().getTime() + getStepSize();
-            final double[] yDotTmp = computeDerivatives(stepEnd, yTmp);
+            final double[] yDotTmp;
+            if (reuseBuffers) {
+                computeDerivatives(stepEnd, yTmp, yDotEnd);
+                yDotTmp = yDotEnd;
+            } else {
+                yDotTmp = computeDerivatives(stepEnd, yTmp);
+            }
             final ODEStateAndDerivative stateTmp =
                 equations.getMapper().mapStateAndDerivative(stepEnd, yTmp, yDotTmp);
 
@@ -171,6 +225,16 @@ public abstract class RungeKuttaIntegrator extends AbstractIntegrator implements
                                                        equations.getMapper()),
                                     finalTime));
 
+            if (reuseBuffers) {
+                // prepare first stage of next step
+                if (resetOccurred()) {
+                    System.arraycopy(getStepStart().getCompleteState(),      0, y,        0, y.length);
+                    System.arraycopy(getStepStart().getCompleteDerivative(), 0, yDotK[0], 0, y.length);
+                } else {
+                    System.arraycopy(yDotTmp, 0, yDotK[0], 0, y.length);
+                }
+            }
+
             if (!isLastStep()) {
 
                 // stepsize control for next step
@@ -39,7 +39,7 @@ abstract class RungeKuttaStateInterpolator extends AbstractODEStateInterpolator
 
     /** Simple constructor.
      * @param forward integration direction indicator
-     * @param yDotK slopes at the intermediate points
+     * @param yDotK slopes at the intermediate points (the slopes arrays are not copied)
      * @param globalPreviousState start of the global step
      * @param globalCurrentState end of the global step
      * @param softPreviousState start of the restricted step
@@ -54,10 +54,10 @@ abstract class RungeKuttaStateInterpolator extends AbstractODEStateInterpolator
                                           final ODEStateAndDerivative softCurrentState,
                                           final EquationsMapper mapper) {
         super(forward, globalPreviousState, globalCurrentState, softPreviousState, softCurrentState, mapper);
-        this.yDotK = new double[yDotK.length][];
-        for (int i = 0; i < yDotK.length; ++i) {
-            this.yDotK[i] = yDotK[i].clone();
-        }
+        // only the outer array is copied, the slopes arrays themselves are shared:
+        // integrators either provide fresh arrays at each step, or reuse their buffers
+        // only when users guarantee interpolators are not referenced after step handling
+        this.yDotK = yDotK.clone();
     }
 
     /** {@inheritDoc} */
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.sampling;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.ode.ODEStateAndDerivative;
+import org.hipparchus.util.MathUtils;
+
+/**
+ * This class wraps step handlers so they are called asynchronously.
+ *
+ * <p>Integrators call their step handlers synchronously inside the step loop,
+ * so expensive handlers (for example handlers writing to disk or {@link
+ * StepNormalizer step normalizers} sampling many points) stall the integration.
+ * This wrapper hands each step over to one dedicated thread per wrapped handler,
+ * through a bounded queue. The integrator thread only blocks when a queue is full,
+ * i.e. when the corresponding handler falls behind (backpressure), and at the last
+ * step, where it waits until all handlers have processed all steps. Each handler
+ * sees all steps in order, in its own thread.</p>
+ *
+ * <p>The interpolators and states handed over to the handlers are immutable snapshots,
+ * so they can safely be used from another thread. This does not hold when explicit
+ * Runge-Kutta integrators are configured to reuse their internal buffers, so this
+ * wrapper must not be used in this mode.</p>
+ *
+ * <p>If a wrapped handler throws an exception, the remaining steps are discarded
+ * for this handler and the exception is rethrown in the integrator thread at the
+ * next step. If the integration is aborted before its last step, the dispatching
+ * threads remain blocked until the next integration starts, they are daemon threads
+ * so they do not prevent the JVM from exiting.</p>
+ *
+ * @see ODEStepHandler
+ * @since 1.7
+ */
+public class AsynchronousStepHandler implements ODEStepHandler {
+
+    /** Default capacity of the queues. */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /** Capacity of the queues. */
+    private final int capacity;
+
+    /** Wrapped handlers. */
+    private final ODEStepHandler[] handlers;
+
+    /** First failure encountered by the dispatchers. */
+    private final AtomicReference<Throwable> failure;
+
+    /** Dispatchers for the current integration. */
+    private Dispatcher[] dispatchers;
+
+    /** Simple constructor.
+     * @param capacity capacity of the queue for each handler
+     * @param handlers step handlers to call asynchronously
+     * @exception MathIllegalArgumentException if capacity is smaller than 1
+     * or if there are no handlers
+     */
+    public AsynchronousStepHandler(final int capacity, final ODEStepHandler... handlers)
+        throws MathIllegalArgumentException {
+        if (capacity < 1) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL,
+                                                   capacity, 1);
+        }
+        if (handlers.length < 1) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.NUMBER_TOO_SMALL,
+                                                   handlers.length, 1);
+        }
+        for (final ODEStepHandler handler : handlers) {
+            MathUtils.checkNotNull(handler);
+        }
+        this.capacity = capacity;
+        this.handlers = handlers.clone();
+        this.failure  = new AtomicReference<>();
+    }
+
+    /** Get the capacity of the queues.
+     * @return capacity of the queue for each handler
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void init(final ODEStateAndDerivative initialState, final double finalTime) {
+
+        // abandon the dispatchers of an aborted previous integration, if any
+        if (dispatchers != null) {
+            for (final Dispatcher dispatcher : dispatchers) {
+                dispatcher.interrupt();
+            }
+        }
+
+        failure.set(null);
+        dispatchers = new Dispatcher[handlers.length];
+        for (int i = 0; i < handlers.length; ++i) {
+            dispatchers[i] = new Dispatcher(handlers[i]);
+            dispatchers[i].start();
+        }
+
+        for (final Dispatcher dispatcher : dispatchers) {
+            dispatcher.put(new Message(initialState, finalTime, null, false));
+        }
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void handleStep(final ODEStateInterpolator interpolator, final boolean isLast)
+        throws MathIllegalStateException {
+
+        checkFailure();
+
+        final Message message = new Message(null, Double.NaN, interpolator, isLast);
+        for (final Dispatcher dispatcher : dispatchers) {
+            dispatcher.put(message);
+        }
+
+        if (isLast) {
+            // wait until all handlers have processed all steps
+            for (final Dispatcher dispatcher : dispatchers) {
+                try {
+                    dispatcher.join();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new MathIllegalStateException(ie, LocalizedCoreFormats.ILLEGAL_STATE);
+                }
+            }
+            dispatchers = null;
+            checkFailure();
+        }
+
+    }
+
+    /** Rethrow in the integrator thread the first failure of a wrapped handler.
+     */
+    private void checkFailure() {
+        final Throwable t = failure.get();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw new MathIllegalStateException(t, LocalizedCoreFormats.ILLEGAL_STATE);
+        }
+    }
+
+    /** Message sent to dispatchers. */
+    private static class Message {
+
+        /** Initial state (null for steps). */
+        private final ODEStateAndDerivative initialState;
+
+        /** Final time (only for initialization). */
+        private final double finalTime;
+
+        /** Interpolator (null for initialization). */
+        private final ODEStateInterpolator interpolator;
+
+        /** Last step indicator. */
+        private final boolean isLast;
+
+        /** Simple constructor.
+         * @param initialState initial state (null for steps)
+         * @param finalTime final time (only for initialization)
+         * @param interpolator interpolator (null for initialization)
+         * @param isLast last step indicator
+         */
+        Message(final ODEStateAndDerivative initialState, final double finalTime,
+                final ODEStateInterpolator interpolator, final boolean isLast) {
+            this.initialState = initialState;
+            this.finalTime    = finalTime;
+            this.interpolator = interpolator;
+            this.isLast       = isLast;
+        }
+
+    }
+
+    /** Thread calling one handler. */
+    private class Dispatcher extends Thread {
+
+        /** Wrapped handler. */
+        private final ODEStepHandler handler;
+
+        /** Queue of pending messages. */
+        private final BlockingQueue<Message> queue;
+
+        /** Simple constructor.
+         * @param handler wrapped handler
+         */
+        Dispatcher(final ODEStepHandler handler) {
+            super("step-handler-" + handler.getClass().getSimpleName());
+            setDaemon(true);
+            this.handler = handler;
+            this.queue   = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /** Add a message to the queue, waiting if the handler falls behind.
+         * @param message message to add
+         */
+        void put(final Message message) {
+            try {
+                queue.put(message);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new MathIllegalStateException(ie, LocalizedCoreFormats.ILLEGAL_STATE);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void run() {
+            boolean failed = false;
+            try {
+                while (true) {
+                    final Message message = queue.take();
+                    if (!failed) {
+                        try {
+                            if (message.interpolator == null) {
+                                handler.init(message.initialState, message.finalTime);
+                            } else {
+                                handler.handleStep(message.interpolator, message.isLast);
+                            }
+                        } catch (RuntimeException | Error e) { // NOPMD - the failure is rethrown in integrator thread
+                            failure.compareAndSet(null, e);
+                            failed = true;
+                        }
+                    }
+                    if (message.isLast) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException ie) {
+                // the integration has been abandoned
+            }
+        }
+
+    }
+
+}
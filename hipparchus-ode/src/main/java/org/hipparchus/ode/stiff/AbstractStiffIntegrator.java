@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.stiff;
+
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.linear.Array2DRowRealMatrix;
+import org.hipparchus.linear.ArrayRealVector;
+import org.hipparchus.linear.DecompositionSolver;
+import org.hipparchus.linear.LUDecomposition;
+import org.hipparchus.ode.ExpandableODE;
+import org.hipparchus.ode.ODEJacobiansProvider;
+import org.hipparchus.ode.nonstiff.AdaptiveStepsizeIntegrator;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.Precision;
+
+/**
+ * Base class for stiff integrators with adaptive step size.
+ *
+ * <p>This class manages the Jacobian of the differential equations with
+ * respect to the complete state and the LU decompositions of the iteration
+ * matrices built from it. If the primary equations implement {@link
+ * ODEJacobiansProvider} and there are no secondary equations, the exact Jacobian
+ * is used, otherwise it is computed by forward finite differences, at the
+ * cost of one evaluation of the differential equations per state component.</p>
+ *
+ * @since 1.7
+ */
+public abstract class AbstractStiffIntegrator extends AdaptiveStepsizeIntegrator {
+
+    /** Relative step for finite differences. */
+    private static final double FINITE_DIFFERENCES_STEP = FastMath.sqrt(Precision.EPSILON);
+
+    /** Number of Jacobian evaluations. */
+    private int jacobianEvaluations;
+
+    /** Number of LU decompositions. */
+    private int decompositions;
+
+    /** Build a stiff integrator with the given step bounds.
+     * @param name name of the method
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param scalAbsoluteTolerance allowed absolute error
+     * @param scalRelativeTolerance allowed relative error
+     */
+    protected AbstractStiffIntegrator(final String name,
+                                      final double minStep, final double maxStep,
+                                      final double scalAbsoluteTolerance,
+                                      final double scalRelativeTolerance) {
+        super(name, minStep, maxStep, scalAbsoluteTolerance, scalRelativeTolerance);
+    }
+
+    /** Build a stiff integrator with the given step bounds.
+     * @param name name of the method
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param vecAbsoluteTolerance allowed absolute error
+     * @param vecRelativeTolerance allowed relative error
+     */
+    protected AbstractStiffIntegrator(final String name,
+                                      final double minStep, final double maxStep,
+                                      final double[] vecAbsoluteTolerance,
+                                      final double[] vecRelativeTolerance) {
+        super(name, minStep, maxStep, vecAbsoluteTolerance, vecRelativeTolerance);
+    }
+
+    /** Get the number of Jacobian evaluations performed during the last integration.
+     * @return number of Jacobian evaluations
+     */
+    public int getJacobianEvaluations() {
+        return jacobianEvaluations;
+    }
+
+    /** Get the number of LU decompositions performed during the last integration.
+     * @return number of LU decompositions
+     */
+    public int getDecompositions() {
+        return decompositions;
+    }
+
+    /** Reset the statistics at integration start.
+     */
+    protected void resetStatistics() {
+        jacobianEvaluations = 0;
+        decompositions      = 0;
+    }
+
+    /** Compute the Jacobian of the complete differential equations with respect to complete state.
+     * @param t current value of the independent <I>time</I> variable
+     * @param y array containing the current value of the complete state vector
+     * @param yDot array containing the current value of the complete state derivative
+     * @return Jacobian matrix, as a row-major array
+     * @exception MathIllegalArgumentException if arrays dimensions do not match equations settings
+     * @exception MathIllegalStateException if the number of functions evaluations is exceeded
+     */
+    protected double[][] computeJacobian(final double t, final double[] y, final double[] yDot)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+
+        ++jacobianEvaluations;
+
+        final ExpandableODE equations = getEquations();
+        if (equations.getPrimary() instanceof ODEJacobiansProvider &&
+            equations.getMapper().getNumberOfEquations() == 1) {
+            // exact Jacobian provided by the user
+            return ((ODEJacobiansProvider) equations.getPrimary()).computeMainStateJacobian(t, y, yDot);
+        }
+
+        // forward finite differences, column by column
+        final int n = y.length;
+        final double[][] jacobian = new double[n][n];
+        final double[] yShifted = y.clone();
+        for (int j = 0; j < n; ++j) {
+            final double threshold = (vecAbsoluteTolerance == null) ?
+                                     scalAbsoluteTolerance :
+                                     (j < vecAbsoluteTolerance.length ? vecAbsoluteTolerance[j] : 0.0);
+            final double delta = FINITE_DIFFERENCES_STEP *
+                                 FastMath.max(FastMath.abs(y[j]), threshold > 0 ? threshold : 1.0);
+            yShifted[j] = y[j] + delta;
+            final double[] yDotShifted = computeDerivatives(t, yShifted);
+            final double inv = 1.0 / (yShifted[j] - y[j]);
+            for (int i = 0; i < n; ++i) {
+                jacobian[i][j] = (yDotShifted[i] - yDot[i]) * inv;
+            }
+            yShifted[j] = y[j];
+        }
+
+        return jacobian;
+
+    }
+
+    /** Decompose an iteration matrix a I + b J.
+     * @param a coefficient of the identity matrix
+     * @param b coefficient of the Jacobian
+     * @param jacobian Jacobian matrix
+     * @return solver for the iteration matrix
+     */
+    protected DecompositionSolver decompose(final double a, final double b, final double[][] jacobian) {
+        ++decompositions;
+        final int n = jacobian.length;
+        final double[][] m = new double[n][n];
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                m[i][j] = b * jacobian[i][j];
+            }
+            m[i][i] += a;
+        }
+        return new LUDecomposition(new Array2DRowRealMatrix(m, false), Precision.SAFE_MIN).getSolver();
+    }
+
+    /** Solve a linear system using a decomposed iteration matrix.
+     * @param solver solver for the iteration matrix
+     * @param rhs right hand side of the linear system
+     * @return solution of the linear system
+     * @exception MathIllegalArgumentException if the iteration matrix is singular
+     */
+    protected double[] solve(final DecompositionSolver solver, final double[] rhs)
+        throws MathIllegalArgumentException {
+        return solver.solve(new ArrayRealVector(rhs, false)).toArray();
+    }
+
+    /** Compute the tolerance for one component of the primary state.
+     * @param index index of the component
+     * @param yScale scale of the component
+     * @return tolerance for the component
+     */
+    protected double tolerance(final int index, final double yScale) {
+        return (vecAbsoluteTolerance == null) ?
+               (scalAbsoluteTolerance + scalRelativeTolerance * yScale) :
+               (vecAbsoluteTolerance[index] + vecRelativeTolerance[index] * yScale);
+    }
+
+}
@@ -0,0 +1,561 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.stiff;
+
+import java.util.Arrays;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.linear.DecompositionSolver;
+import org.hipparchus.ode.EquationsMapper;
+import org.hipparchus.ode.ExpandableODE;
+import org.hipparchus.ode.LocalizedODEFormats;
+import org.hipparchus.ode.ODEState;
+import org.hipparchus.ode.ODEStateAndDerivative;
+import org.hipparchus.util.FastMath;
+
+/**
+ * This class implements a variable order Backward Differentiation Formulas
+ * integrator for stiff Ordinary Differential Equations.
+ *
+ * <p>The method uses orders 1 to 5 (or less if a lower maximal order is
+ * specified) in quasi-constant step size form: the solution history is stored
+ * as modified divided differences which are rescaled when the step size changes.
+ * The implicit equations are solved by a simplified Newton iteration, the Jacobian
+ * and the LU decomposition of the iteration matrix are kept from step to step
+ * as long as the Newton iteration converges and the step size and order do not
+ * change. The iteration matrix is decomposed again with the same Jacobian each
+ * time the step size or order changes, including after a step rejected by the
+ * error test. The Jacobian is only recomputed when Newton iteration fails with
+ * an outdated Jacobian. Newton convergence is checked component-wise against
+ * the same absolute and relative tolerances as the local error.</p>
+ *
+ * <p>The order and step size are selected after each run of order + 1 steps
+ * with equal size, by comparing the error estimates at the current order and
+ * at the neighbouring orders. The dense output is the interpolating polynomial
+ * of the method, so it is consistent with the current order.</p>
+ *
+ * <p>This implementation follows the description of the BDF method from
+ * L. F. Shampine and M. W. Reichelt, "The MATLAB ODE Suite", SIAM J. Sci.
+ * Comput. 18 (1), 1997, without the numerical differentiation formulas
+ * modification.</p>
+ *
+ * @since 1.7
+ */
+public class BDFIntegrator extends AbstractStiffIntegrator {
+
+    /** Integrator method name. */
+    private static final String METHOD_NAME = "BDF";
+
+    /** Maximal supported order. */
+    public static final int MAX_ORDER = 5;
+
+    /** Maximal number of Newton iterations per step. */
+    private static final int NEWTON_MAXITER = 4;
+
+    /** Minimal step size reduction factor. */
+    private static final double MIN_FACTOR = 0.2;
+
+    /** Maximal step size growth factor. */
+    private static final double MAX_FACTOR = 10.0;
+
+    /** Maximal order. */
+    private final int maxOrder;
+
+    /** Cumulative sums of 1/k (gamma<sub>k</sub> = &sum;<sub>i&le;k</sub> 1/i). */
+    private final double[] gamma;
+
+    /** Error constants. */
+    private final double[] errorConst;
+
+    /** Simple constructor.
+     * Build a variable order BDF integrator with the given step bounds
+     * @param maxOrder maximal order of the method (between 1 and {@link #MAX_ORDER})
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param scalAbsoluteTolerance allowed absolute error
+     * @param scalRelativeTolerance allowed relative error
+     * @exception MathIllegalArgumentException if maximal order is out of range
+     */
+    public BDFIntegrator(final int maxOrder, final double minStep, final double maxStep,
+                         final double scalAbsoluteTolerance,
+                         final double scalRelativeTolerance)
+        throws MathIllegalArgumentException {
+        super(METHOD_NAME, minStep, maxStep, scalAbsoluteTolerance, scalRelativeTolerance);
+        this.maxOrder   = checkOrder(maxOrder);
+        this.gamma      = new double[MAX_ORDER + 2];
+        this.errorConst = new double[MAX_ORDER + 2];
+        initializeCoefficients();
+    }
+
+    /** Simple constructor.
+     * Build a variable order BDF integrator with the given step bounds
+     * @param maxOrder maximal order of the method (between 1 and {@link #MAX_ORDER})
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param vecAbsoluteTolerance allowed absolute error
+     * @param vecRelativeTolerance allowed relative error
+     * @exception MathIllegalArgumentException if maximal order is out of range
+     */
+    public BDFIntegrator(final int maxOrder, final double minStep, final double maxStep,
+                         final double[] vecAbsoluteTolerance,
+                         final double[] vecRelativeTolerance)
+        throws MathIllegalArgumentException {
+        super(METHOD_NAME, minStep, maxStep, vecAbsoluteTolerance, vecRelativeTolerance);
+        this.maxOrder   = checkOrder(maxOrder);
+        this.gamma      = new double[MAX_ORDER + 2];
+        this.errorConst = new double[MAX_ORDER + 2];
+        initializeCoefficients();
+    }
+
+    /** Check the maximal order.
+     * @param order maximal order to check
+     * @return order
+     * @exception MathIllegalArgumentException if order is out of range
+     */
+    private static int checkOrder(final int order) throws MathIllegalArgumentException {
+        if (order < 1 || order > MAX_ORDER) {
+            throw new MathIllegalArgumentException(LocalizedCoreFormats.OUT_OF_RANGE_SIMPLE,
+                                                   order, 1, MAX_ORDER);
+        }
+        return order;
+    }
+
+    /** Initialize the method coefficients.
+     */
+    private void initializeCoefficients() {
+        for (int k = 1; k < gamma.length; ++k) {
+            gamma[k] = gamma[k - 1] + 1.0 / k;
+        }
+        for (int k = 0; k < errorConst.length; ++k) {
+            errorConst[k] = 1.0 / (k + 1);
+        }
+    }
+
+    /** Get the maximal order of the method.
+     * @return maximal order of the method
+     */
+    public int getMaxOrder() {
+        return maxOrder;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ODEStateAndDerivative integrate(final ExpandableODE equations,
+                                           final ODEState initialState, final double finalTime)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+
+        sanityChecks(initialState, finalTime);
+        resetStatistics();
+        setStepStart(initIntegration(equations, initialState, finalTime));
+        final boolean         forward = finalTime > initialState.getTime();
+        final EquationsMapper mapper  = equations.getMapper();
+        final int             n       = mapper.getTotalDimension();
+
+        // Newton iteration tolerances, one per primary state component
+        final double[] newtonTol = new double[mainSetDimension];
+        for (int i = 0; i < newtonTol.length; ++i) {
+            final double rTol = (vecRelativeTolerance == null) ? scalRelativeTolerance : vecRelativeTolerance[i];
+            newtonTol[i] = rTol <= 0 ?
+                           0.03 :
+                           FastMath.max(10 * FastMath.ulp(1.0) / rTol, FastMath.min(0.03, FastMath.sqrt(rTol)));
+        }
+
+        // initial step
+        final double[] scale = new double[mainSetDimension];
+        final double[] y0    = getStepStart().getCompleteState();
+        for (int i = 0; i < scale.length; ++i) {
+            scale[i] = tolerance(i, FastMath.abs(y0[i]));
+        }
+        double h = filterStep(initializeStep(forward, 1, scale, getStepStart(), mapper), forward, true);
+
+        // modified divided differences, with two extra rows for order selection
+        final double[][] differences = new double[MAX_ORDER + 3][n];
+        int order = restart(differences, h);
+        int nEqual = 0;
+        double[][] jacobian = computeJacobian(getStepStart().getTime(),
+                                              getStepStart().getCompleteState(),
+                                              getStepStart().getCompleteDerivative());
+        boolean currentJacobian = true;
+        DecompositionSolver solver = null;
+
+        final double[] yPredict = new double[n];
+        final double[] psi      = new double[n];
+        final double[] yNew     = new double[n];
+        final double[] d        = new double[n];
+
+        // main integration loop
+        setIsLastStep(false);
+        do {
+
+            final double t0 = getStepStart().getTime();
+            double tNew       = t0;
+            double errorNorm  = 0;
+            double safety     = 0;
+            boolean accepted  = false;
+            while (!accepted) {
+
+                final double minStep = 10 * FastMath.ulp(t0);
+                if (FastMath.abs(h) < minStep) {
+                    throw new MathIllegalArgumentException(LocalizedODEFormats.MINIMAL_STEPSIZE_REACHED_DURING_INTEGRATION,
+                                                           FastMath.abs(h), minStep, true);
+                }
+
+                tNew = t0 + h;
+                if (forward ? (tNew >= finalTime) : (tNew <= finalTime)) {
+                    // truncate step to reach exactly final time
+                    tNew = finalTime;
+                    final double hNew = finalTime - t0;
+                    changeDifferences(differences, order, hNew / h);
+                    h      = hNew;
+                    nEqual = 0;
+                    solver = null;
+                }
+                setStepSize(h);
+
+                // prediction
+                for (int j = 0; j < n; ++j) {
+                    double sumY   = differences[0][j];
+                    double sumPsi = 0;
+                    for (int k = 1; k <= order; ++k) {
+                        sumY   += differences[k][j];
+                        sumPsi += gamma[k] * differences[k][j];
+                    }
+                    yPredict[j] = sumY;
+                    psi[j]      = sumPsi / gamma[order];
+                }
+                final double c = h / gamma[order];
+
+                // correction
+                int nIter = -1;
+                while (nIter < 0) {
+                    if (solver == null) {
+                        solver = decompose(1.0, -c, jacobian);
+                    }
+                    nIter = solveBDFSystem(tNew, yPredict, c, psi, solver, newtonTol, yNew, d);
+                    if (nIter < 0) {
+                        if (currentJacobian) {
+                            break;
+                        }
+                        jacobian        = computeJacobian(tNew, yPredict, computeDerivatives(tNew, yPredict));
+                        currentJacobian = true;
+                        solver          = null;
+                    }
+                }
+
+                if (nIter < 0) {
+                    // Newton iteration failed, halve the step
+                    stepRejected(h);
+                    final double hNew = filterStep(0.5 * h, forward, false);
+                    changeDifferences(differences, order, hNew / h);
+                    h      = hNew;
+                    nEqual = 0;
+                    solver = null;
+                    continue;
+                }
+
+                // error estimate
+                safety = 0.9 * (2 * NEWTON_MAXITER + 1) / (2 * NEWTON_MAXITER + nIter);
+                errorNorm = norm(d, errorConst[order], yNew);
+                if (Double.isNaN(errorNorm)) {
+                    throw new MathIllegalStateException(LocalizedODEFormats.NAN_APPEARING_DURING_INTEGRATION,
+                                                        tNew);
+                }
+
+                if (errorNorm > 1) {
+                    // reject the step, the Jacobian is kept as Newton converged,
+                    // but the iteration matrix depends on the step size
+                    stepRejected(h);
+                    final double factor = FastMath.max(MIN_FACTOR,
+                                                       safety * FastMath.pow(errorNorm, -1.0 / (order + 1)));
+                    final double hNew = filterStep(factor * h, forward, false);
+                    changeDifferences(differences, order, hNew / h);
+                    h      = hNew;
+                    nEqual = 0;
+                    solver = null;
+                } else {
+                    accepted = true;
+                }
+
+            }
+
+            // update the differences
+            ++nEqual;
+            currentJacobian = false;
+            for (int j = 0; j < n; ++j) {
+                differences[order + 2][j] = d[j] - differences[order + 1][j];
+                differences[order + 1][j] = d[j];
+            }
+            for (int k = order; k >= 0; --k) {
+                for (int j = 0; j < n; ++j) {
+                    differences[k][j] += differences[k + 1][j];
+                }
+            }
+
+            // the derivative is consistent with the corrector equation
+            final double   c    = h / gamma[order];
+            final double[] yDot = new double[n];
+            for (int j = 0; j < n; ++j) {
+                yDot[j] = (psi[j] + d[j]) / c;
+            }
+            final ODEStateAndDerivative stateNew = mapper.mapStateAndDerivative(tNew, yNew.clone(), yDot);
+
+            // local error is small enough: accept the step, trigger events and step handlers
+            final double[][] polynomial = new double[order + 1][];
+            for (int k = 0; k <= order; ++k) {
+                polynomial[k] = differences[k].clone();
+            }
+            setStepStart(acceptStep(new BDFStateInterpolator(forward,
+                                                             getStepStart(), stateNew,
+                                                             getStepStart(), stateNew,
+                                                             mapper, polynomial, h),
+                                    finalTime));
+
+            if (!isLastStep()) {
+
+                if (resetOccurred()) {
+                    // the history is not valid anymore, restart at order 1
+                    h               = filterStep(h, forward, true);
+                    order           = restart(differences, h);
+                    nEqual          = 0;
+                    jacobian        = computeJacobian(getStepStart().getTime(),
+                                                      getStepStart().getCompleteState(),
+                                                      getStepStart().getCompleteDerivative());
+                    currentJacobian = true;
+                    solver          = null;
+                } else if (nEqual > order) {
+
+                    // select order and step size for next steps
+                    final double errorMinus = order > 1 ?
+                                              norm(differences[order], errorConst[order - 1], yNew) :
+                                              Double.POSITIVE_INFINITY;
+                    final double errorPlus  = order < maxOrder ?
+                                              norm(differences[order + 2], errorConst[order + 1], yNew) :
+                                              Double.POSITIVE_INFINITY;
+                    final double factorMinus = FastMath.pow(errorMinus, -1.0 / order);
+                    final double factorSame  = FastMath.pow(errorNorm,  -1.0 / (order + 1));
+                    final double factorPlus  = FastMath.pow(errorPlus,  -1.0 / (order + 2));
+                    double best = factorSame;
+                    int newOrder = order;
+                    if (factorMinus > best) {
+                        best     = factorMinus;
+                        newOrder = order - 1;
+                    }
+                    if (factorPlus > best) {
+                        best     = factorPlus;
+                        newOrder = order + 1;
+                    }
+                    order = newOrder;
+
+                    final double  scaledH    = FastMath.min(MAX_FACTOR, safety * best) * h;
+                    final double  nextT      = getStepStart().getTime() + scaledH;
+                    final boolean nextIsLast = forward ? (nextT >= finalTime) : (nextT <= finalTime);
+                    final double  hNew       = filterStep(scaledH, forward, nextIsLast);
+                    changeDifferences(differences, order, hNew / h);
+                    h      = hNew;
+                    nEqual = 0;
+                    solver = null;
+
+                }
+
+            }
+
+        } while (!isLastStep());
+
+        final ODEStateAndDerivative finalState = getStepStart();
+        resetInternalState();
+        return finalState;
+
+    }
+
+    /** Restart the method at order 1 from the current step start.
+     * @param differences modified divided differences to reset
+     * @param h signed step size
+     * @return new order (always 1)
+     */
+    private int restart(final double[][] differences, final double h) {
+        final double[] y    = getStepStart().getCompleteState();
+        final double[] yDot = getStepStart().getCompleteDerivative();
+        for (final double[] row : differences) {
+            Arrays.fill(row, 0.0);
+        }
+        for (int j = 0; j < y.length; ++j) {
+            differences[0][j] = y[j];
+            differences[1][j] = h * yDot[j];
+        }
+        return 1;
+    }
+
+    /** Solve the implicit BDF system using simplified Newton iteration.
+     * @param tNew time at step end
+     * @param yPredict predicted state at step end
+     * @param c scaled step size
+     * @param psi history term
+     * @param solver solver for the iteration matrix
+     * @param newtonTol convergence tolerances for the primary state components
+     * @param yNew placeholder for the corrected state (output)
+     * @param d placeholder for the difference between corrected and predicted states (output)
+     * @return number of iterations performed, or -1 if iteration did not converge
+     */
+    private int solveBDFSystem(final double tNew, final double[] yPredict,
+                               final double c, final double[] psi,
+                               final DecompositionSolver solver, final double[] newtonTol,
+                               final double[] yNew, final double[] d) {
+
+        final int n = yPredict.length;
+        System.arraycopy(yPredict, 0, yNew, 0, n);
+        Arrays.fill(d, 0.0);
+        final double[] rhs = new double[n];
+        double dyNormOld = Double.NaN;
+
+        for (int k = 0; k < NEWTON_MAXITER; ++k) {
+
+            final double[] f = computeDerivatives(tNew, yNew);
+            for (int j = 0; j < n; ++j) {
+                if (Double.isInfinite(f[j]) || Double.isNaN(f[j])) {
+                    return -1;
+                }
+                rhs[j] = c * f[j] - psi[j] - d[j];
+            }
+            final double[] dy = solve(solver, rhs);
+
+            final double dyNorm = newtonNorm(dy, yNew, newtonTol);
+            final double rate   = dyNorm / dyNormOld;
+            if (!Double.isNaN(rate) &&
+                (rate >= 1 || FastMath.pow(rate, NEWTON_MAXITER - k) / (1 - rate) * dyNorm > 1)) {
+                return -1;
+            }
+
+            for (int j = 0; j < n; ++j) {
+                yNew[j] += dy[j];
+                d[j]    += dy[j];
+            }
+
+            if (dyNorm == 0 || !Double.isNaN(rate) && rate / (1 - rate) * dyNorm < 1) {
+                return k + 1;
+            }
+
+            dyNormOld = dyNorm;
+
+        }
+
+        return -1;
+
+    }
+
+    /** Compute the scaled RMS norm of a vector.
+     * @param v vector (only the primary state components are used)
+     * @param factor multiplication factor for the vector
+     * @param y state used to compute the relative tolerance
+     * @return scaled RMS norm of factor &times; v
+     */
+    private double norm(final double[] v, final double factor, final double[] y) {
+        double sum = 0;
+        for (int j = 0; j < mainSetDimension; ++j) {
+            final double ratio = factor * v[j] / tolerance(j, FastMath.abs(y[j]));
+            sum += ratio * ratio;
+        }
+        return FastMath.sqrt(sum / mainSetDimension);
+    }
+
+    /** Compute the scaled RMS norm of a Newton correction.
+     * <p>
+     * Each component is scaled by its tolerance and by its Newton convergence
+     * tolerance, so convergence is reached when the norm falls below 1.
+     * </p>
+     * @param dy Newton correction (only the primary state components are used)
+     * @param y state used to compute the relative tolerance
+     * @param newtonTol convergence tolerances for the primary state components
+     * @return scaled RMS norm of dy
+     */
+    private double newtonNorm(final double[] dy, final double[] y, final double[] newtonTol) {
+        double sum = 0;
+        for (int j = 0; j < mainSetDimension; ++j) {
+            final double ratio = dy[j] / (newtonTol[j] * tolerance(j, FastMath.abs(y[j])));
+            sum += ratio * ratio;
+        }
+        return FastMath.sqrt(sum / mainSetDimension);
+    }
+
+    /** Compute the matrix used to rescale differences.
+     * @param order current order
+     * @param factor step size change factor
+     * @return rescaling matrix
+     */
+    private static double[][] computeR(final int order, final double factor) {
+        final double[][] r = new double[order + 1][order + 1];
+        Arrays.fill(r[0], 1.0);
+        for (int i = 1; i <= order; ++i) {
+            for (int j = 1; j <= order; ++j) {
+                r[i][j] = r[i - 1][j] * (i - 1 - factor * j) / i;
+            }
+        }
+        return r;
+    }
+
+    /** Rescale the modified divided differences after a step size change.
+     * @param differences modified divided differences
+     * @param order current order
+     * @param factor step size change factor
+     */
+    private static void changeDifferences(final double[][] differences, final int order, final double factor) {
+
+        final double[][] r = computeR(order, factor);
+        final double[][] u = computeR(order, 1.0);
+
+        // RU matrix
+        final double[][] ru = new double[order + 1][order + 1];
+        for (int i = 0; i <= order; ++i) {
+            for (int j = 0; j <= order; ++j) {
+                double sum = 0;
+                for (int k = 0; k <= order; ++k) {
+                    sum += r[i][k] * u[k][j];
+                }
+                ru[i][j] = sum;
+            }
+        }
+
+        // D = (R U)^T D
+        final int n = differences[0].length;
+        final double[][] updated = new double[order + 1][n];
+        for (int i = 0; i <= order; ++i) {
+            for (int k = 0; k <= order; ++k) {
+                final double coeff = ru[k][i];
+                if (coeff != 0) {
+                    for (int j = 0; j < n; ++j) {
+                        updated[i][j] += coeff * differences[k][j];
+                    }
+                }
+            }
+        }
+        for (int i = 0; i <= order; ++i) {
+            System.arraycopy(updated[i], 0, differences[i], 0, n);
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.stiff;
+
+import org.hipparchus.ode.EquationsMapper;
+import org.hipparchus.ode.ODEStateAndDerivative;
+import org.hipparchus.ode.sampling.AbstractODEStateInterpolator;
+
+/**
+ * This class implements an interpolator for BDF steps.
+ *
+ * <p>The interpolating polynomial is the one underlying the BDF formula
+ * at the current order, represented by the modified divided differences
+ * y(t) = D<sub>0</sub> + &sum;<sub>j=1..k</sub> D<sub>j</sub> &prod;<sub>m&lt;j</sub>
+ * (t - t<sub>n</sub> + m h) / ((m + 1) h), where t<sub>n</sub> is the step end.</p>
+ *
+ * @see BDFIntegrator
+ * @since 1.7
+ */
+class BDFStateInterpolator extends AbstractODEStateInterpolator {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20201015L;
+
+    /** Modified divided differences at step end. */
+    private final double[][] differences;
+
+    /** Signed step size. */
+    private final double h;
+
+    /** Simple constructor.
+     * @param forward integration direction indicator
+     * @param globalPreviousState start of the global step
+     * @param globalCurrentState end of the global step
+     * @param softPreviousState start of the restricted step
+     * @param softCurrentState end of the restricted step
+     * @param mapper equations mapper for the all equations
+     * @param differences modified divided differences at step end (the
+     * number of rows is the order plus one, the array is stored as is)
+     * @param h signed step size
+     */
+    BDFStateInterpolator(final boolean forward,
+                         final ODEStateAndDerivative globalPreviousState,
+                         final ODEStateAndDerivative globalCurrentState,
+                         final ODEStateAndDerivative softPreviousState,
+                         final ODEStateAndDerivative softCurrentState,
+                         final EquationsMapper mapper,
+                         final double[][] differences, final double h) {
+        super(forward, globalPreviousState, globalCurrentState, softPreviousState, softCurrentState, mapper);
+        this.differences = differences;
+        this.h           = h;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected BDFStateInterpolator create(final boolean newForward,
+                                          final ODEStateAndDerivative newGlobalPreviousState,
+                                          final ODEStateAndDerivative newGlobalCurrentState,
+                                          final ODEStateAndDerivative newSoftPreviousState,
+                                          final ODEStateAndDerivative newSoftCurrentState,
+                                          final EquationsMapper newMapper) {
+        return new BDFStateInterpolator(newForward,
+                                        newGlobalPreviousState, newGlobalCurrentState,
+                                        newSoftPreviousState, newSoftCurrentState,
+                                        newMapper, differences, h);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected ODEStateAndDerivative computeInterpolatedStateAndDerivatives(final EquationsMapper mapper,
+                                                                           final double time, final double theta,
+                                                                           final double thetaH, final double oneMinusThetaH) {
+
+        final int      n                       = differences[0].length;
+        final double[] interpolatedState       = differences[0].clone();
+        final double[] interpolatedDerivatives = new double[n];
+
+        // shifted time with respect to step end
+        final double tau = -oneMinusThetaH;
+        double p  = 1;
+        double dp = 0;
+        for (int j = 1; j < differences.length; ++j) {
+            final double denominator = j * h;
+            final double x           = (tau + (j - 1) * h) / denominator;
+            dp = dp * x + p / denominator;
+            p  = p * x;
+            for (int i = 0; i < n; ++i) {
+                interpolatedState[i]       += differences[j][i] * p;
+                interpolatedDerivatives[i] += differences[j][i] * dp;
+            }
+        }
+
+        return mapper.mapStateAndDerivative(time, interpolatedState, interpolatedDerivatives);
+
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.stiff;
+
+/**
+ * This class implements the RODAS3 Rosenbrock integrator for stiff
+ * Ordinary Differential Equations.
+ *
+ * <p>This integrator is an embedded Rosenbrock integrator of order 3(2)
+ * from Sandu et al., with stepsize control and continuous output. Both
+ * the main and the embedded methods are stiffly accurate, so the method
+ * is L-stable and well suited to very stiff problems and differential
+ * algebraic-like behaviour. This method uses 4 stages, 3 functions
+ * evaluations and one LU decomposition per step, plus the Jacobian and
+ * time derivative evaluations at step start.</p>
+ *
+ * @since 1.7
+ */
+public class Rodas3Integrator extends RosenbrockIntegrator {
+
+    /** Integrator method name. */
+    private static final String METHOD_NAME = "RODAS3";
+
+    /** Diagonal coefficient. */
+    private static final double GAMMA = 0.5;
+
+    /** Stages arguments coefficients. */
+    private static final double[][] STATIC_ALPHA = {
+        { 0.0 },
+        { 1.0, 0.0 },
+        { 3.0 / 4.0, -1.0 / 4.0, 1.0 / 2.0 }
+    };
+
+    /** Off-diagonal coefficients. */
+    private static final double[][] STATIC_GAMMA = {
+        { 1.0 },
+        { -1.0 / 4.0, -1.0 / 4.0 },
+        { 1.0 / 12.0, 1.0 / 12.0, -2.0 / 3.0 }
+    };
+
+    /** Solution weights. */
+    private static final double[] STATIC_B = {
+        5.0 / 6.0, -1.0 / 6.0, -1.0 / 6.0, 1.0 / 2.0
+    };
+
+    /** Embedded solution weights. */
+    private static final double[] STATIC_B_HAT = {
+        3.0 / 4.0, -1.0 / 4.0, 1.0 / 2.0, 0.0
+    };
+
+    /** Simple constructor.
+     * Build a third order RODAS3 integrator with the given step bounds
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param scalAbsoluteTolerance allowed absolute error
+     * @param scalRelativeTolerance allowed relative error
+     */
+    public Rodas3Integrator(final double minStep, final double maxStep,
+                            final double scalAbsoluteTolerance,
+                            final double scalRelativeTolerance) {
+        super(METHOD_NAME, GAMMA, STATIC_ALPHA, STATIC_GAMMA, STATIC_B, STATIC_B_HAT, 3,
+              minStep, maxStep, scalAbsoluteTolerance, scalRelativeTolerance);
+    }
+
+    /** Simple constructor.
+     * Build a third order RODAS3 integrator with the given step bounds
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param vecAbsoluteTolerance allowed absolute error
+     * @param vecRelativeTolerance allowed relative error
+     */
+    public Rodas3Integrator(final double minStep, final double maxStep,
+                            final double[] vecAbsoluteTolerance,
+                            final double[] vecRelativeTolerance) {
+        super(METHOD_NAME, GAMMA, STATIC_ALPHA, STATIC_GAMMA, STATIC_B, STATIC_B_HAT, 3,
+              minStep, maxStep, vecAbsoluteTolerance, vecRelativeTolerance);
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.stiff;
+
+/**
+ * This class implements the ROS3 Rosenbrock integrator for stiff
+ * Ordinary Differential Equations.
+ *
+ * <p>This integrator is an embedded Rosenbrock integrator of order 3(2)
+ * from Sandu et al. ("Benchmarking stiff ODE solvers for atmospheric
+ * chemistry problems II: Rosenbrock solvers", Atmospheric Environment 31,
+ * 1997), with stepsize control and continuous output. It is L-stable and
+ * its embedded formula is independent of the main one even for linear
+ * problems. This method uses 3 stages, 2 functions evaluations and one
+ * LU decomposition per step, plus the Jacobian and time derivative
+ * evaluations at step start.</p>
+ *
+ * @since 1.7
+ */
+public class Ros3Integrator extends RosenbrockIntegrator {
+
+    /** Integrator method name. */
+    private static final String METHOD_NAME = "ROS3";
+
+    /** Diagonal coefficient. */
+    private static final double GAMMA = 0.43586652150845899941601945119356;
+
+    /** Stages arguments coefficients. */
+    private static final double[][] STATIC_ALPHA = {
+        { GAMMA },
+        { GAMMA, 0.0 }
+    };
+
+    /** Off-diagonal coefficients. */
+    private static final double[][] STATIC_GAMMA = {
+        { -0.19294655696029095575009695436041 },
+        { 0.0, 1.74927148125794685173529749738962 }
+    };
+
+    /** Solution weights. */
+    private static final double[] STATIC_B = {
+        -0.75457412385404315829818998646588, 1.94100407061964420292840123379420, -0.18642994676560104463021124732830
+    };
+
+    /** Embedded solution weights. */
+    private static final double[] STATIC_B_HAT = {
+        -1.53358745784149585370766523913001, 2.81745131148625772213931745457623, -0.28386385364476186843165221544620
+    };
+
+    /** Simple constructor.
+     * Build a third order ROS3 integrator with the given step bounds
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param scalAbsoluteTolerance allowed absolute error
+     * @param scalRelativeTolerance allowed relative error
+     */
+    public Ros3Integrator(final double minStep, final double maxStep,
+                           final double scalAbsoluteTolerance,
+                           final double scalRelativeTolerance) {
+        super(METHOD_NAME, GAMMA, STATIC_ALPHA, STATIC_GAMMA, STATIC_B, STATIC_B_HAT, 3,
+              minStep, maxStep, scalAbsoluteTolerance, scalRelativeTolerance);
+    }
+
+    /** Simple constructor.
+     * Build a third order ROS3 integrator with the given step bounds
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param vecAbsoluteTolerance allowed absolute error
+     * @param vecRelativeTolerance allowed relative error
+     */
+    public Ros3Integrator(final double minStep, final double maxStep,
+                           final double[] vecAbsoluteTolerance,
+                           final double[] vecRelativeTolerance) {
+        super(METHOD_NAME, GAMMA, STATIC_ALPHA, STATIC_GAMMA, STATIC_B, STATIC_B_HAT, 3,
+              minStep, maxStep, vecAbsoluteTolerance, vecRelativeTolerance);
+    }
+
+}
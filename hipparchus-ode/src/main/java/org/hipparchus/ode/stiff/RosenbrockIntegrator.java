@@ -0,0 +1,478 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.stiff;
+
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.linear.DecompositionSolver;
+import org.hipparchus.ode.EquationsMapper;
+import org.hipparchus.ode.ExpandableODE;
+import org.hipparchus.ode.LocalizedODEFormats;
+import org.hipparchus.ode.ODEState;
+import org.hipparchus.ode.ODEStateAndDerivative;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.Precision;
+
+/**
+ * This class implements the common part of all embedded Rosenbrock integrators
+ * for stiff Ordinary Differential Equations.
+ *
+ * <p>Rosenbrock methods (also known as linearly implicit Runge-Kutta methods)
+ * use the Jacobian of the differential equations directly in the integration
+ * formula, so each stage requires one linear system solution but no Newton
+ * iteration. The methods are defined by their classical coefficients:</p>
+ * <pre>
+ *   (I - &gamma; h J) k<sub>i</sub> = h f(t<sub>n</sub> + &alpha;<sub>i</sub> h, y<sub>n</sub> + &sum;<sub>j&lt;i</sub> &alpha;<sub>ij</sub> k<sub>j</sub>)
+ *                     + h J &sum;<sub>j&lt;i</sub> &gamma;<sub>ij</sub> k<sub>j</sub> + &gamma;<sub>i</sub> h<sup>2</sup> &part;f/&part;t
+ *   y<sub>n+1</sub> = y<sub>n</sub> + &sum; b<sub>i</sub> k<sub>i</sub>
+ * </pre>
+ * <p>with &alpha;<sub>i</sub> = &sum;<sub>j</sub> &alpha;<sub>ij</sub> and
+ * &gamma;<sub>i</sub> = &gamma; + &sum;<sub>j</sub> &gamma;<sub>ij</sub>. They
+ * are implemented in the transformed form from Hairer and Wanner, which avoids
+ * matrix-vector products with the Jacobian. The error is estimated using an
+ * embedded formula with weights b&#770;<sub>i</sub>.</p>
+ *
+ * <p>The Jacobian and the time derivative of the equations are computed once at
+ * the start of each step and reused for all trial step sizes if the step is rejected.
+ * Only the LU decomposition of the iteration matrix is recomputed when the step size
+ * changes, it is shared by all stages.</p>
+ *
+ * @see Ros3Integrator
+ * @see Rodas3Integrator
+ * @since 1.7
+ */
+public abstract class RosenbrockIntegrator extends AbstractStiffIntegrator {
+
+    /** Relative step for time derivative finite differences. */
+    private static final double TIME_STEP = FastMath.sqrt(Precision.EPSILON);
+
+    /** Diagonal coefficient. */
+    private final double gamma;
+
+    /** Time steps of the stages (&alpha;<sub>i</sub>). */
+    private final double[] stageTimes;
+
+    /** Time derivative coefficients of the stages (&gamma;<sub>i</sub>). */
+    private final double[] stageGammas;
+
+    /** Transformed coefficients for the stages arguments. */
+    private final double[][] a;
+
+    /** Transformed coefficients for the stages right hand sides. */
+    private final double[][] c;
+
+    /** Transformed weights for the solution. */
+    private final double[] m;
+
+    /** Transformed weights for the error estimate. */
+    private final double[] e;
+
+    /** Indicator for stages evaluated at the same point as the previous stage. */
+    private final boolean[] reusePrevious;
+
+    /** Order of the method. */
+    private final int order;
+
+    /** Stepsize control exponent. */
+    private final double exp;
+
+    /** Safety factor for stepsize control. */
+    private double safety;
+
+    /** Minimal reduction factor for stepsize control. */
+    private double minReduction;
+
+    /** Maximal growth factor for stepsize control. */
+    private double maxGrowth;
+
+    /** Build a Rosenbrock integrator with the given coefficients.
+     * @param name name of the method
+     * @param gamma diagonal coefficient &gamma;
+     * @param alpha coefficients &alpha;<sub>ij</sub> (row i-1 has i elements)
+     * @param gammaij off-diagonal coefficients &gamma;<sub>ij</sub> (row i-1 has i elements)
+     * @param b weights for the solution
+     * @param bHat weights for the embedded solution
+     * @param order order of the method
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param scalAbsoluteTolerance allowed absolute error
+     * @param scalRelativeTolerance allowed relative error
+     */
+    protected RosenbrockIntegrator(final String name, final double gamma,
+                                   final double[][] alpha, final double[][] gammaij,
+                                   final double[] b, final double[] bHat, final int order,
+                                   final double minStep, final double maxStep,
+                                   final double scalAbsoluteTolerance,
+                                   final double scalRelativeTolerance) {
+        super(name, minStep, maxStep, scalAbsoluteTolerance, scalRelativeTolerance);
+        this.gamma         = gamma;
+        this.order         = order;
+        this.exp           = -1.0 / order;
+        this.stageTimes    = new double[b.length];
+        this.stageGammas   = new double[b.length];
+        this.a             = new double[b.length][];
+        this.c             = new double[b.length][];
+        this.m             = new double[b.length];
+        this.e             = new double[b.length];
+        this.reusePrevious = new boolean[b.length];
+        transform(alpha, gammaij, b, bHat);
+        setSafety(0.9);
+        setMinReduction(0.2);
+        setMaxGrowth(10.0);
+    }
+
+    /** Build a Rosenbrock integrator with the given coefficients.
+     * @param name name of the method
+     * @param gamma diagonal coefficient &gamma;
+     * @param alpha coefficients &alpha;<sub>ij</sub> (row i-1 has i elements)
+     * @param gammaij off-diagonal coefficients &gamma;<sub>ij</sub> (row i-1 has i elements)
+     * @param b weights for the solution
+     * @param bHat weights for the embedded solution
+     * @param order order of the method
+     * @param minStep minimal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param maxStep maximal step (sign is irrelevant, regardless of
+     * integration direction, forward or backward), the last step can
+     * be smaller than this
+     * @param vecAbsoluteTolerance allowed absolute error
+     * @param vecRelativeTolerance allowed relative error
+     */
+    protected RosenbrockIntegrator(final String name, final double gamma,
+                                   final double[][] alpha, final double[][] gammaij,
+                                   final double[] b, final double[] bHat, final int order,
+                                   final double minStep, final double maxStep,
+                                   final double[] vecAbsoluteTolerance,
+                                   final double[] vecRelativeTolerance) {
+        super(name, minStep, maxStep, vecAbsoluteTolerance, vecRelativeTolerance);
+        this.gamma         = gamma;
+        this.order         = order;
+        this.exp           = -1.0 / order;
+        this.stageTimes    = new double[b.length];
+        this.stageGammas   = new double[b.length];
+        this.a             = new double[b.length][];
+        this.c             = new double[b.length][];
+        this.m             = new double[b.length];
+        this.e             = new double[b.length];
+        this.reusePrevious = new boolean[b.length];
+        transform(alpha, gammaij, b, bHat);
+        setSafety(0.9);
+        setMinReduction(0.2);
+        setMaxGrowth(10.0);
+    }
+
+    /** Compute the transformed coefficients from the classical ones.
+     * @param alpha coefficients &alpha;<sub>ij</sub> (row i-1 has i elements)
+     * @param gammaij off-diagonal coefficients &gamma;<sub>ij</sub> (row i-1 has i elements)
+     * @param b weights for the solution
+     * @param bHat weights for the embedded solution
+     */
+    private void transform(final double[][] alpha, final double[][] gammaij,
+                           final double[] b, final double[] bHat) {
+
+        final int s = b.length;
+
+        // full lower triangular matrices
+        final double[][] fullAlpha = new double[s][s];
+        final double[][] fullGamma = new double[s][s];
+        for (int i = 0; i < s; ++i) {
+            for (int j = 0; j < i; ++j) {
+                fullAlpha[i][j] = alpha[i - 1][j];
+                fullGamma[i][j] = gammaij[i - 1][j];
+            }
+            fullGamma[i][i] = gamma;
+        }
+
+        // inverse of the lower triangular matrix by forward substitution
+        final double[][] inverse = new double[s][s];
+        for (int j = 0; j < s; ++j) {
+            inverse[j][j] = 1.0 / gamma;
+            for (int i = j + 1; i < s; ++i) {
+                double sum = 0;
+                for (int k = j; k < i; ++k) {
+                    sum += fullGamma[i][k] * inverse[k][j];
+                }
+                inverse[i][j] = -sum / gamma;
+            }
+        }
+
+        final double[] mHat = new double[s];
+        for (int i = 0; i < s; ++i) {
+            a[i] = new double[i];
+            c[i] = new double[i];
+            for (int j = 0; j < i; ++j) {
+                double sum = 0;
+                for (int k = j; k < i; ++k) {
+                    sum += fullAlpha[i][k] * inverse[k][j];
+                }
+                a[i][j] = sum;
+                c[i][j] = -inverse[i][j];
+            }
+            for (int j = 0; j <= i; ++j) {
+                stageTimes[i]  += fullAlpha[i][j];
+                stageGammas[i] += fullGamma[i][j];
+            }
+            for (int k = i; k < s; ++k) {
+                m[i]    += b[k]    * inverse[k][i];
+                mHat[i] += bHat[k] * inverse[k][i];
+            }
+            e[i] = m[i] - mHat[i];
+        }
+
+        // identify stages that share the same evaluation point
+        // (the first stage is always evaluated at step start)
+        reusePrevious[0] = true;
+        for (int i = 1; i < s; ++i) {
+            boolean same = a[i][i - 1] == 0 && stageTimes[i] == stageTimes[i - 1];
+            for (int j = 0; j < i - 1; ++j) {
+                same &= a[i][j] == a[i - 1][j];
+            }
+            reusePrevious[i] = same;
+        }
+
+    }
+
+    /** Get the order of the method.
+     * @return order of the method
+     */
+    public int getOrder() {
+        return order;
+    }
+
+    /** Get the safety factor for stepsize control.
+     * @return safety factor
+     */
+    public double getSafety() {
+        return safety;
+    }
+
+    /** Set the safety factor for stepsize control.
+     * @param safety safety factor
+     */
+    public void setSafety(final double safety) {
+        this.safety        = safety;
+    }
+
+    /** Get the minimal reduction factor for stepsize control.
+     * @return minimal reduction factor
+     */
+    public double getMinReduction() {
+        return minReduction;
+    }
+
+    /** Set the minimal reduction factor for stepsize control.
+     * @param minReduction minimal reduction factor
+     */
+    public void setMinReduction(final double minReduction) {
+        this.minReduction  = minReduction;
+    }
+
+    /** Get the maximal growth factor for stepsize control.
+     * @return maximal growth factor
+     */
+    public double getMaxGrowth() {
+        return maxGrowth;
+    }
+
+    /** Set the maximal growth factor for stepsize control.
+     * @param maxGrowth maximal growth factor
+     */
+    public void setMaxGrowth(final double maxGrowth) {
+        this.maxGrowth     = maxGrowth;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ODEStateAndDerivative integrate(final ExpandableODE equations,
+                                           final ODEState initialState, final double finalTime)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+
+        sanityChecks(initialState, finalTime);
+        resetStatistics();
+        setStepStart(initIntegration(equations, initialState, finalTime));
+        final boolean forward = finalTime > initialState.getTime();
+
+        // create some internal working arrays
+        final int        stages = m.length;
+        final double[][] u      = new double[stages][];
+        final int        n      = equations.getMapper().getTotalDimension();
+        final double[]   yTmp   = new double[n];
+        final double[]   rhs    = new double[n];
+        final double[]   yEnd   = new double[n];
+
+        // set up integration control objects
+        double  hNew      = 0;
+        boolean firstTime = true;
+
+        // main integration loop
+        setIsLastStep(false);
+        do {
+
+            final double   t0    = getStepStart().getTime();
+            final double[] y     = getStepStart().getCompleteState();
+            final double[] yDot0 = getStepStart().getCompleteDerivative();
+
+            if (firstTime) {
+                final double[] scale = new double[mainSetDimension];
+                for (int i = 0; i < scale.length; ++i) {
+                    scale[i] = tolerance(i, FastMath.abs(y[i]));
+                }
+                hNew = initializeStep(forward, getOrder(), scale, getStepStart(), equations.getMapper());
+                firstTime = false;
+            }
+
+            // Jacobian and time derivative, shared by all trial steps
+            final double[][] jacobian = computeJacobian(t0, y, yDot0);
+            final double     dt       = TIME_STEP * FastMath.max(FastMath.abs(t0), FastMath.abs(hNew)) *
+                                        (forward ? 1 : -1);
+            final double[]   yDotT    = computeDerivatives(t0 + dt, y);
+            for (int i = 0; i < n; ++i) {
+                yDotT[i] = (yDotT[i] - yDot0[i]) / dt;
+            }
+
+            // iterate over step size, ensuring local normalized error is smaller than 1
+            double error = 10;
+            while (error >= 1.0) {
+
+                setStepSize(hNew);
+                if (forward) {
+                    if (t0 + getStepSize() >= finalTime) {
+                        setStepSize(finalTime - t0);
+                    }
+                } else {
+                    if (t0 + getStepSize() <= finalTime) {
+                        setStepSize(finalTime - t0);
+                    }
+                }
+                final double h = getStepSize();
+
+                // single decomposition shared by all stages
+                final DecompositionSolver solver = decompose(1.0 / (h * gamma), -1.0, jacobian);
+
+                double[] yDotK = yDot0;
+                for (int k = 0; k < stages; ++k) {
+
+                    if (!reusePrevious[k]) {
+                        for (int j = 0; j < n; ++j) {
+                            double sum = 0;
+                            for (int l = 0; l < k; ++l) {
+                                sum += a[k][l] * u[l][j];
+                            }
+                            yTmp[j] = y[j] + sum;
+                        }
+                        yDotK = computeDerivatives(t0 + stageTimes[k] * h, yTmp);
+                    }
+
+                    for (int j = 0; j < n; ++j) {
+                        double sum = 0;
+                        for (int l = 0; l < k; ++l) {
+                            sum += c[k][l] * u[l][j];
+                        }
+                        rhs[j] = yDotK[j] + sum / h + stageGammas[k] * h * yDotT[j];
+                    }
+                    u[k] = solve(solver, rhs);
+
+                }
+
+                // estimate the state at the end of the step
+                for (int j = 0; j < n; ++j) {
+                    double sum = 0;
+                    for (int l = 0; l < stages; ++l) {
+                        sum += m[l] * u[l][j];
+                    }
+                    yEnd[j] = y[j] + sum;
+                }
+
+                // estimate the error at the end of the step
+                error = estimateError(u, y, yEnd);
+                if (Double.isNaN(error)) {
+                    throw new MathIllegalStateException(LocalizedODEFormats.NAN_APPEARING_DURING_INTEGRATION,
+                                                        t0 + h);
+                }
+                if (error >= 1.0) {
+                    // reject the step and attempt to reduce error by stepsize control
+                    stepRejected(h);
+                    final double factor =
+                                    FastMath.min(maxGrowth,
+                                                 FastMath.max(minReduction, safety * FastMath.pow(error, exp)));
+                    hNew = filterStep(h * factor, forward, false);
+                }
+
+            }
+            final double   stepEnd = t0 + getStepSize();
+            final double[] yDotEnd = computeDerivatives(stepEnd, yEnd);
+            final EquationsMapper       mapper   = equations.getMapper();
+            final ODEStateAndDerivative stateEnd = mapper.mapStateAndDerivative(stepEnd, yEnd, yDotEnd);
+
+            // local error is small enough: accept the step, trigger events and step handlers
+            setStepStart(acceptStep(new RosenbrockStateInterpolator(forward,
+                                                                    getStepStart(), stateEnd,
+                                                                    getStepStart(), stateEnd,
+                                                                    mapper),
+                                    finalTime));
+
+            if (!isLastStep()) {
+
+                // stepsize control for next step
+                final double factor =
+                                FastMath.min(maxGrowth, FastMath.max(minReduction, safety * FastMath.pow(error, exp)));
+                final double  scaledH    = getStepSize() * factor;
+                final double  nextT      = getStepStart().getTime() + scaledH;
+                final boolean nextIsLast = forward ? (nextT >= finalTime) : (nextT <= finalTime);
+                hNew = filterStep(scaledH, forward, nextIsLast);
+
+                final double  filteredNextT      = getStepStart().getTime() + hNew;
+                final boolean filteredNextIsLast = forward ? (filteredNextT >= finalTime) : (filteredNextT <= finalTime);
+                if (filteredNextIsLast) {
+                    hNew = finalTime - getStepStart().getTime();
+                }
+
+            }
+
+        } while (!isLastStep());
+
+        final ODEStateAndDerivative finalState = getStepStart();
+        resetInternalState();
+        return finalState;
+
+    }
+
+    /** Compute the error ratio.
+     * @param u stages increments
+     * @param y0 estimate of the step at the start of the step
+     * @param y1 estimate of the step at the end of the step
+     * @return error ratio, greater than 1 if step should be rejected
+     */
+    private double estimateError(final double[][] u, final double[] y0, final double[] y1) {
+        double error = 0;
+        for (int j = 0; j < mainSetDimension; ++j) {
+            double errSum = 0;
+            for (int l = 0; l < e.length; ++l) {
+                errSum += e[l] * u[l][j];
+            }
+            final double ratio = errSum / tolerance(j, FastMath.max(FastMath.abs(y0[j]), FastMath.abs(y1[j])));
+            error += ratio * ratio;
+        }
+        return FastMath.sqrt(error / mainSetDimension);
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.stiff;
+
+import org.hipparchus.ode.EquationsMapper;
+import org.hipparchus.ode.ODEStateAndDerivative;
+import org.hipparchus.ode.sampling.AbstractODEStateInterpolator;
+
+/**
+ * This class implements a cubic Hermite interpolator for Rosenbrock steps.
+ *
+ * <p>The interpolating polynomial matches the state and derivatives
+ * at both ends of the step. It is third order accurate, which is
+ * consistent with the order of the integrators in this package.</p>
+ *
+ * @see RosenbrockIntegrator
+ * @since 1.7
+ */
+class RosenbrockStateInterpolator extends AbstractODEStateInterpolator {
+
+    /** Serializable version identifier. */
+    private static final long serialVersionUID = 20201015L;
+
+    /** Simple constructor.
+     * @param forward integration direction indicator
+     * @param globalPreviousState start of the global step
+     * @param globalCurrentState end of the global step
+     * @param softPreviousState start of the restricted step
+     * @param softCurrentState end of the restricted step
+     * @param mapper equations mapper for the all equations
+     */
+    RosenbrockStateInterpolator(final boolean forward,
+                                final ODEStateAndDerivative globalPreviousState,
+                                final ODEStateAndDerivative globalCurrentState,
+                                final ODEStateAndDerivative softPreviousState,
+                                final ODEStateAndDerivative softCurrentState,
+                                final EquationsMapper mapper) {
+        super(forward, globalPreviousState, globalCurrentState, softPreviousState, softCurrentState, mapper);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected RosenbrockStateInterpolator create(final boolean newForward,
+                                                 final ODEStateAndDerivative newGlobalPreviousState,
+                                                 final ODEStateAndDerivative newGlobalCurrentState,
+                                                 final ODEStateAndDerivative newSoftPreviousState,
+                                                 final ODEStateAndDerivative newSoftCurrentState,
+                                                 final EquationsMapper newMapper) {
+        return new RosenbrockStateInterpolator(newForward,
+                                               newGlobalPreviousState, newGlobalCurrentState,
+                                               newSoftPreviousState, newSoftCurrentState,
+                                               newMapper);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected ODEStateAndDerivative computeInterpolatedStateAndDerivatives(final EquationsMapper mapper,
+                                                                           final double time, final double theta,
+                                                                           final double thetaH, final double oneMinusThetaH) {
+
+        final double[] y0    = getGlobalPreviousState().getCompleteState();
+        final double[] yDot0 = getGlobalPreviousState().getCompleteDerivative();
+        final double[] y1    = getGlobalCurrentState().getCompleteState();
+        final double[] yDot1 = getGlobalCurrentState().getCompleteDerivative();
+        final double   h     = thetaH + oneMinusThetaH;
+
+        // Hermite basis functions and their derivatives
+        final double theta2 = theta * theta;
+        final double h00    = 1 + theta2 * (2 * theta - 3);
+        final double h10    = h * theta * (1 + theta * (theta - 2));
+        final double h01    = 1 - h00;
+        final double h11    = h * theta2 * (theta - 1);
+        final double dh01   = 6 * theta * (1 - theta) / h;
+        final double dh10   = 1 + theta * (3 * theta - 4);
+        final double dh11   = theta * (3 * theta - 2);
+
+        final double[] interpolatedState       = new double[y0.length];
+        final double[] interpolatedDerivatives = new double[y0.length];
+        for (int i = 0; i < y0.length; ++i) {
+            interpolatedState[i]       = h00 * y0[i] + h01 * y1[i] + h10 * yDot0[i] + h11 * yDot1[i];
+            interpolatedDerivatives[i] = dh01 * (y1[i] - y0[i]) + dh10 * yDot0[i] + dh11 * yDot1[i];
+        }
+
+        return mapper.mapStateAndDerivative(time, interpolatedState, interpolatedDerivatives);
+
+    }
+
+}
@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.ode.nonstiff.DormandPrince54Integrator;
+import org.hipparchus.ode.nonstiff.DormandPrince853Integrator;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactDenseOutputModelTest {
+
+    @Test
+    public void testMatchesDenseOutputModel() {
+
+        TestProblem3 pb = new TestProblem3(0.9);
+        ODEIntegrator integ = new DormandPrince853Integrator(0, pb.getFinalTime() - pb.getInitialTime(),
+                                                             1.0e-10, 1.0e-10);
+        DenseOutputModel dom = new DenseOutputModel();
+        CompactDenseOutputModel.Builder builder = new CompactDenseOutputModel.Builder();
+        integ.addStepHandler(dom);
+        integ.addStepHandler(builder);
+        integ.integrate(pb, pb.getInitialState(), pb.getFinalTime());
+        CompactDenseOutputModel model = builder.build();
+
+        Assert.assertEquals(CompactDenseOutputModel.DEFAULT_DEGREE, model.getDegree());
+        Assert.assertEquals(4, model.getCompleteStateDimension());
+        Assert.assertTrue(model.isForward());
+        Assert.assertTrue(model.getNumberOfSteps() > 10);
+        Assert.assertEquals(pb.getInitialTime(), model.getInitialTime(), 1.0e-15);
+        Assert.assertEquals(pb.getFinalTime(),   model.getFinalTime(),   1.0e-15);
+
+        // Dormand-Prince 8(5,3) interpolators are polynomials of degree 7,
+        // they are reproduced exactly by degree 8 Chebyshev polynomials
+        Random random = new Random(0x2b5f9a6e1c37d804l);
+        double maxError    = 0.0;
+        double maxErrorDot = 0.0;
+        for (int i = 0; i < 1000; ++i) {
+            double r = random.nextDouble();
+            double time = r * pb.getInitialTime() + (1.0 - r) * pb.getFinalTime();
+            ODEStateAndDerivative ref = dom.getInterpolatedState(time);
+            ODEStateAndDerivative sd  = model.getInterpolatedState(time);
+            Assert.assertEquals(time, sd.getTime(), 0.0);
+            for (int j = 0; j < 4; ++j) {
+                maxError    = FastMath.max(maxError,    FastMath.abs(sd.getPrimaryState()[j]      - ref.getPrimaryState()[j]));
+                maxErrorDot = FastMath.max(maxErrorDot, FastMath.abs(sd.getPrimaryDerivative()[j] - ref.getPrimaryDerivative()[j]));
+            }
+        }
+        Assert.assertEquals(0.0, maxError,    2.0e-13);
+        Assert.assertEquals(0.0, maxErrorDot, 1.0e-9);
+
+    }
+
+    @Test
+    public void testRandomAccess() {
+
+        TestProblem3 pb = new TestProblem3(0.9);
+        ODEIntegrator integ = new DormandPrince54Integrator(0, pb.getFinalTime() - pb.getInitialTime(),
+                                                            1.0e-8, 1.0e-8);
+        CompactDenseOutputModel.Builder builder = new CompactDenseOutputModel.Builder(5);
+        integ.addStepHandler(builder);
+        integ.integrate(pb, pb.getInitialState(), pb.getFinalTime());
+        CompactDenseOutputModel model = builder.build();
+
+        Random random = new Random(347588535632l);
+        double maxError    = 0.0;
+        double maxErrorDot = 0.0;
+        double[] y    = new double[4];
+        double[] yDot = new double[4];
+        for (int i = 0; i < 1000; ++i) {
+            double r = random.nextDouble();
+            double time = r * pb.getInitialTime() + (1.0 - r) * pb.getFinalTime();
+            model.getInterpolatedCompleteState(time, y, yDot);
+            double[] theoreticalY     = pb.computeTheoreticalState(time);
+            double[] theoreticalYDot  = pb.doComputeDerivatives(time, theoreticalY);
+            double dx = y[0] - theoreticalY[0];
+            double dy = y[1] - theoreticalY[1];
+            maxError = FastMath.max(maxError, dx * dx + dy * dy);
+            double dxDot = yDot[0] - theoreticalYDot[0];
+            double dyDot = yDot[1] - theoreticalYDot[1];
+            maxErrorDot = FastMath.max(maxErrorDot, dxDot * dxDot + dyDot * dyDot);
+        }
+
+        Assert.assertEquals(0.0, maxError,    1.0e-9);
+        Assert.assertEquals(0.0, maxErrorDot, 4.0e-7);
+
+    }
+
+    @Test
+    public void testBackwardAndBoundaries() {
+
+        // theoretical solution: y[0] = cos(t), y[1] = sin(t)
+        CompactDenseOutputModel.Builder builder = new CompactDenseOutputModel.Builder();
+        ODEIntegrator integ = new DormandPrince853Integrator(0, 1.0, 1.0e-12, 1.0e-12);
+        integ.addStepHandler(builder);
+        integ.integrate(new Circle(), new ODEState(2 * FastMath.PI, new double[] { 1.0, 0.0 }), 0);
+        CompactDenseOutputModel model = builder.build();
+
+        Assert.assertFalse(model.isForward());
+        Assert.assertEquals(2 * FastMath.PI, model.getInitialTime(), 1.0e-15);
+        Assert.assertEquals(0, model.getFinalTime(), 1.0e-15);
+        for (double t = 0; t <= 2.0 * FastMath.PI; t += 0.01) {
+            final double[] y = model.getInterpolatedState(t).getPrimaryState();
+            Assert.assertEquals(FastMath.cos(t), y[0], 1.0e-10);
+            Assert.assertEquals(FastMath.sin(t), y[1], 1.0e-10);
+        }
+
+        // step boundaries and slight extrapolation on both sides
+        for (double t : new double[] { -1.0e-6, 0.0, 2 * FastMath.PI, 2 * FastMath.PI + 1.0e-6 }) {
+            final ODEStateAndDerivative s = model.getInterpolatedState(t);
+            Assert.assertEquals(t, s.getTime(), 0.0);
+            Assert.assertEquals(FastMath.cos(t), s.getPrimaryState()[0], 1.0e-10);
+            Assert.assertEquals(FastMath.sin(t), s.getPrimaryState()[1], 1.0e-10);
+            Assert.assertEquals(-FastMath.sin(t), s.getPrimaryDerivative()[0], 1.0e-9);
+            Assert.assertEquals(FastMath.cos(t), s.getPrimaryDerivative()[1], 1.0e-9);
+        }
+
+    }
+
+    @Test
+    public void testSecondaryStates() {
+
+        // secondary state z' = y[0] gives z = sin(t)
+        ExpandableODE expandable = new ExpandableODE(new Circle());
+        expandable.addSecondaryEquations(new SecondaryODE() {
+            @Override
+            public int getDimension() {
+                return 1;
+            }
+            @Override
+            public double[] computeDerivatives(double t, double[] primary, double[] primaryDot, double[] secondary) {
+                return new double[] { primary[0] };
+            }
+        });
+
+        CompactDenseOutputModel.Builder builder = new CompactDenseOutputModel.Builder();
+        ODEIntegrator integ = new DormandPrince853Integrator(0, 1.0, 1.0e-12, 1.0e-12);
+        integ.addStepHandler(builder);
+        integ.integrate(expandable,
+                        new ODEState(0, new double[] { 1.0, 0.0 }, new double[][] { { 0.0 } }),
+                        3.0);
+        CompactDenseOutputModel model = builder.build();
+
+        Assert.assertEquals(3, model.getCompleteStateDimension());
+        for (double t = 0; t <= 3.0; t += 0.01) {
+            final ODEStateAndDerivative s = model.getInterpolatedState(t);
+            Assert.assertEquals(2, s.getPrimaryStateDimension());
+            Assert.assertEquals(1, s.getNumberOfSecondaryStates());
+            Assert.assertEquals(FastMath.sin(t), s.getSecondaryState(1)[0],      1.0e-10);
+            Assert.assertEquals(FastMath.cos(t), s.getSecondaryDerivative(1)[0], 1.0e-9);
+        }
+
+    }
+
+    @Test
+    public void testConcurrentQueries() throws InterruptedException, ExecutionException {
+
+        TestProblem3 pb = new TestProblem3(0.9);
+        ODEIntegrator integ = new DormandPrince853Integrator(0, pb.getFinalTime() - pb.getInitialTime(),
+                                                             1.0e-10, 1.0e-10);
+        CompactDenseOutputModel.Builder builder = new CompactDenseOutputModel.Builder();
+        integ.addStepHandler(builder);
+        integ.integrate(pb, pb.getInitialState(), pb.getFinalTime());
+        final CompactDenseOutputModel model = builder.build();
+
+        final int n = 2000;
+        final double[] times = new double[n];
+        final double[] expected = new double[n];
+        Random random = new Random(0x6c1d4e2b98a73f05l);
+        for (int i = 0; i < n; ++i) {
+            times[i]    = pb.getInitialTime() + random.nextDouble() * (pb.getFinalTime() - pb.getInitialTime());
+            expected[i] = model.getInterpolatedState(times[i]).getPrimaryState()[0];
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int k = 0; k < 8; ++k) {
+                final int shift = k;
+                results.add(executor.submit(() -> {
+                    final double[] y = new double[4];
+                    for (int i = 0; i < n; ++i) {
+                        final int index = (i * 7 + shift * 251) % n;
+                        model.getInterpolatedCompleteState(times[index], y, null);
+                        if (y[0] != expected[index]) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+    }
+
+    @Test
+    public void testBuilderReuse() {
+        CompactDenseOutputModel.Builder builder = new CompactDenseOutputModel.Builder(3);
+        ODEIntegrator integ = new DormandPrince54Integrator(0, 1.0, 1.0e-8, 1.0e-8);
+        integ.addStepHandler(builder);
+        integ.integrate(new Circle(), new ODEState(0, new double[] { 1.0, 0.0 }), 1.0);
+        CompactDenseOutputModel first = builder.build();
+        integ.integrate(new Circle(), new ODEState(10, new double[] { FastMath.cos(10), FastMath.sin(10) }), 12.0);
+        CompactDenseOutputModel second = builder.build();
+        Assert.assertEquals(0.0,  first.getInitialTime(),  1.0e-15);
+        Assert.assertEquals(1.0,  first.getFinalTime(),    1.0e-15);
+        Assert.assertEquals(10.0, second.getInitialTime(), 1.0e-15);
+        Assert.assertEquals(12.0, second.getFinalTime(),   1.0e-15);
+        Assert.assertEquals(FastMath.cos(0.5), first.getInterpolatedState(0.5).getPrimaryState()[0],  1.0e-6);
+        Assert.assertEquals(FastMath.cos(11),  second.getInterpolatedState(11).getPrimaryState()[0], 1.0e-6);
+    }
+
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+
+        CompactDenseOutputModel.Builder builder = new CompactDenseOutputModel.Builder();
+        ODEIntegrator integ = new DormandPrince853Integrator(0, 1.0, 1.0e-10, 1.0e-10);
+        integ.addStepHandler(builder);
+        integ.integrate(new Circle(), new ODEState(0, new double[] { 1.0, 0.0 }), 20.0);
+        CompactDenseOutputModel model = builder.build();
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream    oos = new ObjectOutputStream(bos);
+        oos.writeObject(model);
+
+        ByteArrayInputStream  bis = new ByteArrayInputStream(bos.toByteArray());
+        ObjectInputStream     ois = new ObjectInputStream(bis);
+        CompactDenseOutputModel deserialized  = (CompactDenseOutputModel) ois.readObject();
+
+        for (double t = 0; t <= 20.0; t += 0.1) {
+            Assert.assertArrayEquals(model.getInterpolatedState(t).getCompleteState(),
+                                     deserialized.getInterpolatedState(t).getCompleteState(),
+                                     0.0);
+        }
+
+    }
+
+    @Test
+    public void testErrorConditions() {
+
+        try {
+            new CompactDenseOutputModel.Builder(0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, miae.getSpecifier());
+        }
+
+        try {
+            new CompactDenseOutputModel.Builder().build();
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalStateException mise) {
+            Assert.assertEquals(LocalizedCoreFormats.NO_DATA, mise.getSpecifier());
+        }
+
+        CompactDenseOutputModel.Builder builder = new CompactDenseOutputModel.Builder();
+        ODEIntegrator integ = new DormandPrince54Integrator(0, 1.0, 1.0e-8, 1.0e-8);
+        integ.addStepHandler(builder);
+        integ.integrate(new Circle(), new ODEState(0, new double[] { 1.0, 0.0 }), 1.0);
+        try {
+            builder.build().getInterpolatedCompleteState(0.5, new double[3], null);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.DIMENSIONS_MISMATCH, miae.getSpecifier());
+        }
+
+    }
+
+    private static class Circle implements OrdinaryDifferentialEquation {
+        @Override
+        public int getDimension() {
+            return 2;
+        }
+        @Override
+        public double[] computeDerivatives(double t, double[] y) {
+            return new double[] { -y[1], y[0] };
+        }
+    }
+
+}
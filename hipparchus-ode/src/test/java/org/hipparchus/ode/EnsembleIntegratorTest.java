@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.ode.events.Action;
+import org.hipparchus.ode.events.ODEEventHandler;
+import org.hipparchus.ode.nonstiff.ClassicalRungeKuttaIntegrator;
+import org.hipparchus.ode.nonstiff.DormandPrince853Integrator;
+import org.hipparchus.ode.sampling.ODEStateInterpolator;
+import org.hipparchus.ode.sampling.ODEStepHandler;
+import org.hipparchus.random.RandomGenerator;
+import org.hipparchus.random.Well1024a;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EnsembleIntegratorTest {
+
+    @Test
+    public void testMatchesIndividualIntegrationsEmbedded() {
+        doTestMatchesIndividualIntegrations(() -> new DormandPrince853Integrator(1.0e-6, 10.0, 1.0e-10, 1.0e-10),
+                                            null);
+    }
+
+    @Test
+    public void testMatchesIndividualIntegrationsFixedStep() {
+        doTestMatchesIndividualIntegrations(() -> new ClassicalRungeKuttaIntegrator(0.01), null);
+    }
+
+    @Test
+    public void testParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            doTestMatchesIndividualIntegrations(() -> new DormandPrince853Integrator(1.0e-6, 10.0, 1.0e-10, 1.0e-10),
+                                                pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void doTestMatchesIndividualIntegrations(final Supplier<ODEIntegrator> factory,
+                                                     final ForkJoinPool pool) {
+
+        final TestProblem3 pb = new TestProblem3(0.9);
+        final ODEState[] initialStates = createInitialStates(pb, 200);
+        final EnsembleIntegrator.Result result =
+                        new EnsembleIntegrator(factory, pool).integrate(pb, initialStates, pb.getFinalTime());
+
+        Assert.assertEquals(initialStates.length, result.getSize());
+        long totalEvaluations = 0;
+        long totalSteps       = 0;
+        for (int i = 0; i < initialStates.length; ++i) {
+            final ODEIntegrator integrator = factory.get();
+            final int[] count = new int[1];
+            integrator.addStepHandler((interpolator, isLast) -> ++count[0]);
+            final ODEStateAndDerivative expected = integrator.integrate(pb, initialStates[i], pb.getFinalTime());
+            Assert.assertEquals(expected.getTime(), result.getFinalState(i).getTime(), 0.0);
+            Assert.assertArrayEquals(expected.getCompleteState(), result.getFinalState(i).getCompleteState(), 0.0);
+            Assert.assertEquals(integrator.getEvaluations(), result.getEvaluations(i));
+            Assert.assertEquals(count[0], result.getSteps(i));
+            totalEvaluations += result.getEvaluations(i);
+            totalSteps       += result.getSteps(i);
+        }
+        Assert.assertEquals(totalEvaluations, result.getTotalEvaluations());
+        Assert.assertEquals(totalSteps,       result.getTotalSteps());
+        Assert.assertEquals(initialStates.length, result.getFinalStates().length);
+
+    }
+
+    @Test
+    public void testPerMemberStepControl() {
+        // members with higher eccentricity need more steps
+        final ODEState[] initialStates = new ODEState[] {
+            new TestProblem3(0.1).getInitialState(),
+            new TestProblem3(0.9).getInitialState()
+        };
+        final TestProblem3 pb = new TestProblem3(0.1);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final EnsembleIntegrator.Result result =
+                            new EnsembleIntegrator(() -> new DormandPrince853Integrator(1.0e-6, 10.0, 1.0e-10, 1.0e-10),
+                                                   pool).
+                            integrate(pb, initialStates, pb.getFinalTime());
+            Assert.assertTrue(result.getSteps(1) > 2 * result.getSteps(0));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPerMemberHandlers() {
+
+        final TestProblem3 pb = new TestProblem3(0.9);
+        final ODEState[] initialStates = createInitialStates(pb, 50);
+        final CompactDenseOutputModel.Builder[] builders = new CompactDenseOutputModel.Builder[initialStates.length];
+        final double[] stopTimes = new double[initialStates.length];
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            final EnsembleIntegrator.Result result =
+                            new EnsembleIntegrator(() -> new DormandPrince853Integrator(1.0e-6, 10.0, 1.0e-10, 1.0e-10),
+                                                   pool).
+                            integrate(new ExpandableODE(pb), initialStates, pb.getFinalTime(),
+                                      (member, integrator) -> {
+                                          builders[member]  = new CompactDenseOutputModel.Builder();
+                                          stopTimes[member] = pb.getInitialTime() + (member + 1) * 0.1;
+                                          integrator.addStepHandler(builders[member]);
+                                          integrator.addEventHandler(new Stop(stopTimes[member]), 1.0, 1.0e-10, 100);
+                                      });
+
+            for (int i = 0; i < initialStates.length; ++i) {
+                Assert.assertEquals(stopTimes[i], result.getFinalState(i).getTime(), 1.0e-10);
+                final CompactDenseOutputModel model = builders[i].build();
+                Assert.assertEquals(stopTimes[i], model.getFinalTime(), 1.0e-10);
+                Assert.assertArrayEquals(result.getFinalState(i).getPrimaryState(),
+                                         model.getInterpolatedState(model.getFinalTime()).getPrimaryState(),
+                                         1.0e-12);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+    }
+
+    @Test
+    public void testErrors() {
+
+        try {
+            new EnsembleIntegrator(() -> new ClassicalRungeKuttaIntegrator(0.01), null).
+            integrate(new TestProblem3(), new ODEState[0], 1.0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, miae.getSpecifier());
+        }
+
+        // failure of one member is propagated
+        final TestProblem3 pb = new TestProblem3(0.9);
+        final ODEState[] initialStates = createInitialStates(pb, 10);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            new EnsembleIntegrator(() -> new DormandPrince853Integrator(1.0e-6, 10.0, 1.0e-10, 1.0e-10), pool).
+            integrate(new ExpandableODE(pb), initialStates, pb.getFinalTime(),
+                      (member, integrator) -> {
+                          if (member == 7) {
+                              integrator.addStepHandler(new ODEStepHandler() {
+                                  @Override
+                                  public void handleStep(ODEStateInterpolator interpolator,
+                                                         boolean isLast) {
+                                      throw new MathIllegalArgumentException(LocalizedCoreFormats.SIMPLE_MESSAGE,
+                                                                             "failure in member 7");
+                                  }
+                              });
+                          }
+                      });
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.SIMPLE_MESSAGE, miae.getSpecifier());
+        } finally {
+            pool.shutdown();
+        }
+
+    }
+
+    private ODEState[] createInitialStates(final TestProblem3 pb, final int n) {
+        final RandomGenerator random = new Well1024a(0x8e3a5c17b24f06d9l);
+        final ODEState[] initialStates = new ODEState[n];
+        final double[] y0 = pb.getInitialState().getPrimaryState();
+        for (int i = 0; i < n; ++i) {
+            final double[] y = y0.clone();
+            for (int j = 0; j < y.length; ++j) {
+                y[j] *= 1 + 0.01 * (2 * random.nextDouble() - 1);
+            }
+            initialStates[i] = new ODEState(pb.getInitialTime(), y);
+        }
+        return initialStates;
+    }
+
+    private static class Stop implements ODEEventHandler {
+        private final double stopTime;
+        Stop(final double stopTime) {
+            this.stopTime = stopTime;
+        }
+        @Override
+        public double g(ODEStateAndDerivative state) {
+            return state.getTime() - stopTime;
+        }
+        @Override
+        public Action eventOccurred(ODEStateAndDerivative state, boolean increasing) {
+            return Action.STOP;
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import org.hipparchus.Field;
+import org.hipparchus.RealFieldElement;
+import org.hipparchus.ode.events.FieldODEEventHandler;
+import org.hipparchus.ode.nonstiff.DormandPrince54FieldIntegrator;
+import org.hipparchus.util.Decimal64Field;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FieldIntegrationMetricsTest {
+
+    @Test
+    public void testSteps() {
+        doTestSteps(Decimal64Field.getInstance());
+    }
+
+    private <T extends RealFieldElement<T>> void doTestSteps(final Field<T> field) {
+        final TestFieldProblem4<T> pb = new TestFieldProblem4<>(field);
+        final double range = pb.getFinalTime().subtract(pb.getInitialTime()).getReal();
+        final DormandPrince54FieldIntegrator<T> integ =
+                        new DormandPrince54FieldIntegrator<>(field, 0, range, 1.0e-10, 1.0e-10);
+        Assert.assertNull(integ.getIntegrationListener());
+        // a too large initial step ensures some steps will be rejected
+        integ.setInitialStepSize(field.getZero().add(range));
+        final FieldIntegrationMetrics<T> metrics = new FieldIntegrationMetrics<>();
+        integ.setIntegrationListener(metrics);
+        Assert.assertSame(metrics, integ.getIntegrationListener());
+        integ.addStepHandler((interpolator, isLast) -> { });
+        final FieldODEEventHandler<T>[] handlers = pb.getEventsHandlers();
+        for (final FieldODEEventHandler<T> handler : handlers) {
+            integ.addEventHandler(handler, 0.1, 1.0e-10, 1000);
+        }
+        integ.integrate(new FieldExpandableODE<>(pb), pb.getInitialState(), pb.getFinalTime());
+
+        Assert.assertTrue(metrics.getAcceptedSteps() > 10);
+        Assert.assertTrue(metrics.getRejectedSteps() > 0);
+        int sum = 0;
+        for (final int count : metrics.getStepSizeHistogram().values()) {
+            sum += count;
+        }
+        Assert.assertEquals(metrics.getAcceptedSteps(), sum);
+        Assert.assertTrue(metrics.getMinStepSize() <= metrics.getMaxStepSize());
+        Assert.assertEquals(integ.getEvaluations(), metrics.getDerivativesEvaluations());
+        Assert.assertTrue(metrics.getDerivativesTime() > 0);
+        Assert.assertTrue(metrics.getStepHandlersTime() > 0);
+        for (final FieldODEEventHandler<T> handler : handlers) {
+            final IntegrationMetrics.EventMetrics em = metrics.getEventMetrics(handler);
+            Assert.assertTrue(em.getGEvaluations() > metrics.getAcceptedSteps());
+            Assert.assertTrue(em.getRootSearches() > 0);
+            Assert.assertTrue(em.getRootSearchesIterations() >= em.getRootSearches());
+        }
+
+        // metrics are reset at each integration start
+        integ.clearEventHandlers();
+        integ.integrate(new FieldExpandableODE<>(pb), pb.getInitialState(), pb.getFinalTime());
+        Assert.assertEquals(integ.getEvaluations(), metrics.getDerivativesEvaluations());
+        Assert.assertEquals(0, metrics.getEventMetrics(handlers[0]).getGEvaluations());
+
+    }
+
+}
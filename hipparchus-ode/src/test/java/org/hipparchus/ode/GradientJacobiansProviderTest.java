@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import org.hipparchus.analysis.differentiation.Gradient;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GradientJacobiansProviderTest {
+
+    @Test
+    public void testDerivatives() {
+        final LotkaVolterra lv = new LotkaVolterra(1.5, 0.8);
+        final GradientJacobiansProvider provider = new GradientJacobiansProvider(lv);
+        Assert.assertSame(lv, provider.getODE());
+        Assert.assertEquals(2, provider.getDimension());
+        Assert.assertTrue(provider.getParametersNames().isEmpty());
+        final double[] y    = { 2.0, 3.0 };
+        final double[] yDot = provider.computeDerivatives(0.0, y);
+        Assert.assertEquals(1.5 * 2.0 - 0.8 * 2.0 * 3.0, yDot[0], 1.0e-15);
+        Assert.assertEquals(2.0 * 3.0 - 3.0,             yDot[1], 1.0e-15);
+    }
+
+    @Test
+    public void testJacobians() {
+        final LotkaVolterra lv = new LotkaVolterra(1.5, 0.8);
+        final GradientJacobiansProvider provider =
+                        new GradientJacobiansProvider(lv, LotkaVolterra.ALPHA, LotkaVolterra.BETA);
+        Assert.assertTrue(provider.isSupported(LotkaVolterra.ALPHA));
+        Assert.assertTrue(provider.isSupported(LotkaVolterra.BETA));
+        Assert.assertFalse(provider.isSupported("gamma"));
+
+        final double[]   y    = { 2.0, 3.0 };
+        final double[]   yDot = provider.computeDerivatives(0.0, y);
+        final int        before = lv.calls;
+        final double[][] dFdY = provider.computeMainStateJacobian(0.0, y, yDot);
+        final double[]   dFdA = provider.computeParameterJacobian(0.0, y, yDot, LotkaVolterra.ALPHA);
+        final double[]   dFdB = provider.computeParameterJacobian(0.0, y, yDot, LotkaVolterra.BETA);
+
+        // all Jacobians come from one single evaluation
+        Assert.assertEquals(before + 1, lv.calls);
+
+        Assert.assertEquals(1.5 - 0.8 * 3.0, dFdY[0][0], 1.0e-15);
+        Assert.assertEquals(-0.8 * 2.0,      dFdY[0][1], 1.0e-15);
+        Assert.assertEquals(3.0,             dFdY[1][0], 1.0e-15);
+        Assert.assertEquals(2.0 - 1.0,       dFdY[1][1], 1.0e-15);
+        Assert.assertArrayEquals(new double[] { 2.0, 0.0 },        dFdA, 1.0e-15);
+        Assert.assertArrayEquals(new double[] { -2.0 * 3.0, 0.0 }, dFdB, 1.0e-15);
+
+        // a new point triggers a new evaluation
+        final double[] dFdA2 = provider.computeParameterJacobian(0.0, new double[] { 4.0, 3.0 }, yDot,
+                                                                 LotkaVolterra.ALPHA);
+        Assert.assertEquals(before + 2, lv.calls);
+        Assert.assertArrayEquals(new double[] { 4.0, 0.0 }, dFdA2, 1.0e-15);
+
+        // parameters are restored as constants for values computation
+        Assert.assertEquals(4, lv.alpha.getFreeParameters());
+        provider.computeDerivatives(0.0, y);
+        Assert.assertEquals(0, lv.alpha.getFreeParameters());
+
+    }
+
+    @Test
+    public void testUnknownParameter() {
+        final LotkaVolterra lv = new LotkaVolterra(1.5, 0.8);
+        try {
+            new GradientJacobiansProvider(lv, "gamma");
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedODEFormats.UNKNOWN_PARAMETER, miae.getSpecifier());
+            Assert.assertEquals("gamma", miae.getParts()[0]);
+        }
+        try {
+            new GradientJacobiansProvider(new FieldOrdinaryDifferentialEquation<Gradient>() {
+                public int getDimension() {
+                    return 1;
+                }
+                public Gradient[] computeDerivatives(Gradient t, Gradient[] y) {
+                    return y;
+                }
+            }, LotkaVolterra.ALPHA);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedODEFormats.UNKNOWN_PARAMETER, miae.getSpecifier());
+        }
+        try {
+            new GradientJacobiansProvider(lv, LotkaVolterra.ALPHA).
+            computeParameterJacobian(0, new double[] { 1, 1 }, new double[2], LotkaVolterra.BETA);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedODEFormats.UNKNOWN_PARAMETER, miae.getSpecifier());
+        }
+    }
+
+    private static class LotkaVolterra extends AbstractParameterizable
+        implements FieldOrdinaryDifferentialEquation<Gradient>, GradientParametersController {
+
+        public static final String ALPHA = "alpha";
+        public static final String BETA  = "beta";
+
+        private Gradient alpha;
+        private Gradient beta;
+        private int calls;
+
+        LotkaVolterra(final double alpha, final double beta) {
+            super(ALPHA, BETA);
+            this.alpha = Gradient.constant(0, alpha);
+            this.beta  = Gradient.constant(0, beta);
+        }
+
+        public int getDimension() {
+            return 2;
+        }
+
+        public Gradient[] computeDerivatives(Gradient t, Gradient[] y) {
+            ++calls;
+            return new Gradient[] {
+                alpha.multiply(y[0]).subtract(beta.multiply(y[0]).multiply(y[1])),
+                y[0].multiply(y[1]).subtract(y[1])
+            };
+        }
+
+        public double getParameter(final String name) {
+            return ALPHA.equals(name) ? alpha.getValue() : beta.getValue();
+        }
+
+        public void setParameter(final String name, final Gradient value) {
+            if (ALPHA.equals(name)) {
+                alpha = value;
+            } else {
+                beta = value;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import java.util.SortedMap;
+
+import org.hipparchus.ode.events.ODEEventHandler;
+import org.hipparchus.ode.nonstiff.DormandPrince54Integrator;
+import org.hipparchus.ode.sampling.ODEStateInterpolator;
+import org.hipparchus.ode.sampling.ODEStepHandler;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntegrationMetricsTest {
+
+    @Test
+    public void testNoListener() {
+        final DormandPrince54Integrator integ = new DormandPrince54Integrator(0, 1.0, 1.0e-8, 1.0e-8);
+        Assert.assertNull(integ.getIntegrationListener());
+        final TestProblem4 pb = new TestProblem4();
+        integ.integrate(pb, pb.getInitialState(), pb.getFinalTime());
+        Assert.assertNull(integ.getIntegrationListener());
+    }
+
+    @Test
+    public void testSteps() {
+        final TestProblem4 pb = new TestProblem4();
+        final DormandPrince54Integrator integ = new DormandPrince54Integrator(0, pb.getFinalTime() - pb.getInitialTime(),
+                                                                              1.0e-10, 1.0e-10);
+        // a too large initial step ensures some steps will be rejected
+        integ.setInitialStepSize(pb.getFinalTime() - pb.getInitialTime());
+        final IntegrationMetrics metrics = new IntegrationMetrics();
+        integ.setIntegrationListener(metrics);
+        Assert.assertSame(metrics, integ.getIntegrationListener());
+        final StepCounter counter = new StepCounter();
+        integ.addStepHandler(counter);
+        final ODEEventHandler[] handlers = pb.getEventsHandlers();
+        for (final ODEEventHandler handler : handlers) {
+            integ.addEventHandler(handler, 0.1, 1.0e-10, 1000);
+        }
+        integ.integrate(pb, pb.getInitialState(), pb.getFinalTime());
+
+        // all events reset or stop integration, so step handlers see the accepted steps only
+        Assert.assertTrue(metrics.getAcceptedSteps() > 10);
+        Assert.assertEquals(counter.steps, metrics.getAcceptedSteps());
+        Assert.assertTrue(metrics.getRejectedSteps() > 0);
+
+        // histogram
+        final SortedMap<Double, Integer> histogram = metrics.getStepSizeHistogram();
+        int sum = 0;
+        for (final SortedMap.Entry<Double, Integer> entry : histogram.entrySet()) {
+            Assert.assertEquals(0, FastMath.log(2.0, entry.getKey()) % 1.0, 1.0e-15);
+            sum += entry.getValue();
+        }
+        Assert.assertEquals(metrics.getAcceptedSteps(), sum);
+        Assert.assertTrue(histogram.firstKey() <= metrics.getMinStepSize());
+        Assert.assertTrue(2 * histogram.firstKey() > metrics.getMinStepSize());
+        Assert.assertTrue(histogram.lastKey() <= metrics.getMaxStepSize());
+        Assert.assertTrue(2 * histogram.lastKey() > metrics.getMaxStepSize());
+
+        // timing
+        Assert.assertEquals(integ.getEvaluations(), metrics.getDerivativesEvaluations());
+        Assert.assertTrue(metrics.getDerivativesTime() > 0);
+        Assert.assertTrue(metrics.getStepHandlersTime() > 0);
+
+        // events
+        for (final ODEEventHandler handler : handlers) {
+            final IntegrationMetrics.EventMetrics em = metrics.getEventMetrics(handler);
+            Assert.assertTrue(em.getGEvaluations() > metrics.getAcceptedSteps());
+            Assert.assertTrue(em.getRootSearches() > 0);
+            Assert.assertTrue(em.getRootSearchesIterations() >= em.getRootSearches());
+        }
+        Assert.assertNotSame(metrics.getEventMetrics(handlers[0]), metrics.getEventMetrics(handlers[0]));
+        Assert.assertEquals(0, metrics.getEventMetrics(new TestProblem4().getEventsHandlers()[0]).getGEvaluations());
+
+    }
+
+    @Test
+    public void testReset() {
+        final TestProblem3 pb = new TestProblem3();
+        final DormandPrince54Integrator integ = new DormandPrince54Integrator(0, pb.getFinalTime() - pb.getInitialTime(),
+                                                                              1.0e-10, 1.0e-10);
+        final IntegrationMetrics metrics = new IntegrationMetrics();
+        integ.setIntegrationListener(metrics);
+        integ.integrate(pb, pb.getInitialState(), pb.getFinalTime());
+        final int accepted = metrics.getAcceptedSteps();
+        Assert.assertTrue(accepted > 0);
+        Assert.assertEquals(integ.getEvaluations(), metrics.getDerivativesEvaluations());
+
+        // metrics are reset at each integration start
+        integ.integrate(pb, pb.getInitialState(), pb.getFinalTime());
+        Assert.assertEquals(accepted, metrics.getAcceptedSteps());
+        Assert.assertEquals(integ.getEvaluations(), metrics.getDerivativesEvaluations());
+
+        metrics.reset();
+        Assert.assertEquals(0, metrics.getAcceptedSteps());
+        Assert.assertEquals(0, metrics.getRejectedSteps());
+        Assert.assertTrue(metrics.getStepSizeHistogram().isEmpty());
+        Assert.assertTrue(Double.isNaN(metrics.getMinStepSize()));
+        Assert.assertTrue(Double.isNaN(metrics.getMaxStepSize()));
+        Assert.assertEquals(0, metrics.getDerivativesEvaluations());
+        Assert.assertEquals(0L, metrics.getDerivativesTime());
+
+        // removing the listener
+        integ.setIntegrationListener(null);
+        integ.integrate(pb, pb.getInitialState(), pb.getFinalTime());
+        Assert.assertEquals(0, metrics.getAcceptedSteps());
+
+    }
+
+    @Test
+    public void testListenerSetBeforeEvents() {
+        final TestProblem4 pb = new TestProblem4();
+        final DormandPrince54Integrator integ = new DormandPrince54Integrator(0, pb.getFinalTime() - pb.getInitialTime(),
+                                                                              1.0e-10, 1.0e-10);
+        final IntegrationMetrics before = new IntegrationMetrics();
+        final ODEEventHandler[] handlers = pb.getEventsHandlers();
+        integ.addEventHandler(handlers[0], 0.1, 1.0e-10, 1000);
+        integ.setIntegrationListener(before);
+        integ.addEventHandler(handlers[1], 0.1, 1.0e-10, 1000);
+        integ.integrate(pb, pb.getInitialState(), pb.getFinalTime());
+        Assert.assertTrue(before.getEventMetrics(handlers[0]).getGEvaluations() > 0);
+        Assert.assertTrue(before.getEventMetrics(handlers[1]).getGEvaluations() > 0);
+    }
+
+    private static class StepCounter implements ODEStepHandler {
+        private int steps;
+        @Override
+        public void init(final ODEStateAndDerivative initialState, final double finalTime) {
+            steps = 0;
+        }
+        @Override
+        public void handleStep(final ODEStateInterpolator interpolator, final boolean isLast) {
+            ++steps;
+        }
+    }
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.ode.nonstiff.DormandPrince853Integrator;
+import org.hipparchus.util.FastMath;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedDenseOutputModelTest {
+
+    private Path path;
+
+    @Test
+    public void testForward() throws IOException {
+        CompactDenseOutputModel model = integrate(0, 30);
+        MappedDenseOutputModel.write(model, path);
+        MappedDenseOutputModel mapped = MappedDenseOutputModel.open(path);
+        checkSame(model, mapped);
+        Assert.assertTrue(mapped.isForward());
+        Assert.assertEquals(0.0,  mapped.getInitialTime(), 0.0);
+        Assert.assertEquals(30.0, mapped.getFinalTime(),   0.0);
+        Assert.assertEquals(FastMath.cos(12.5), mapped.getInterpolatedState(12.5).getPrimaryState()[0], 1.0e-9);
+    }
+
+    @Test
+    public void testBackward() throws IOException {
+        CompactDenseOutputModel model = integrate(30, 0);
+        MappedDenseOutputModel.write(model, path);
+        MappedDenseOutputModel mapped = MappedDenseOutputModel.open(path);
+        checkSame(model, mapped);
+        Assert.assertFalse(mapped.isForward());
+        Assert.assertEquals(30.0, mapped.getInitialTime(), 0.0);
+        Assert.assertEquals(0.0,  mapped.getFinalTime(),   0.0);
+    }
+
+    @Test
+    public void testSmallChunks() throws IOException {
+        // chunks of 32 doubles, so steps records and step boundaries are split across chunks
+        CompactDenseOutputModel model = integrate(0, 30);
+        MappedDenseOutputModel.write(model, path);
+        checkSame(model, MappedDenseOutputModel.open(path, 5));
+        checkSame(model, MappedDenseOutputModel.open(path, 6));
+    }
+
+    @Test
+    public void testSecondaryStates() throws IOException {
+
+        CompactDenseOutputModel model = integrateWithSecondary();
+
+        MappedDenseOutputModel.write(model, path);
+        MappedDenseOutputModel mapped = MappedDenseOutputModel.open(path);
+        Assert.assertEquals(7, mapped.getDegree());
+        Assert.assertEquals(5, mapped.getCompleteStateDimension());
+        checkSame(model, mapped);
+        ODEStateAndDerivative s = mapped.getInterpolatedState(2.0);
+        Assert.assertEquals(1, s.getNumberOfSecondaryStates());
+        Assert.assertEquals(3, s.getSecondaryStateDimension(1));
+        Assert.assertEquals(FastMath.sin(2.0),  s.getSecondaryState(1)[0], 1.0e-9);
+        Assert.assertEquals(-FastMath.cos(2.0), s.getSecondaryState(1)[1], 1.0e-9);
+        Assert.assertEquals(2.0,                s.getSecondaryState(1)[2], 1.0e-12);
+
+    }
+
+    @Test
+    public void testConcurrentQueries() throws IOException, InterruptedException, ExecutionException {
+
+        CompactDenseOutputModel model = integrate(0, 100);
+        MappedDenseOutputModel.write(model, path);
+        final MappedDenseOutputModel mapped = MappedDenseOutputModel.open(path, 10);
+
+        final int n = 2000;
+        final double[] times    = new double[n];
+        final double[] expected = new double[n];
+        Random random = new Random(0x3f7a92c15d08e6b4l);
+        for (int i = 0; i < n; ++i) {
+            times[i]    = 100 * random.nextDouble();
+            expected[i] = model.getInterpolatedState(times[i]).getPrimaryState()[1];
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int k = 0; k < 8; ++k) {
+                final int shift = k;
+                results.add(executor.submit(() -> {
+                    final double[] y = new double[2];
+                    for (int i = 0; i < n; ++i) {
+                        final int index = (i * 11 + shift * 397) % n;
+                        mapped.getInterpolatedCompleteState(times[index], y, null);
+                        if (y[1] != expected[index]) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+    }
+
+    @Test
+    public void testNotADenseOutputFile() throws IOException {
+
+        // too short
+        Files.write(path, new byte[12]);
+        checkError(LocalizedODEFormats.NOT_A_DENSE_OUTPUT_FILE);
+
+        // wrong magic number
+        Files.write(path, "this is a text file and not a dense output file".getBytes("UTF-8"));
+        checkError(LocalizedODEFormats.NOT_A_DENSE_OUTPUT_FILE);
+
+        // truncated file
+        MappedDenseOutputModel.write(integrate(0, 1), path);
+        byte[] content = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(content, content.length - 8));
+        checkError(LocalizedODEFormats.NOT_A_DENSE_OUTPUT_FILE);
+
+    }
+
+    @Test
+    public void testNegativeSecondaryDimension() throws IOException {
+
+        // dimensions 8 and -3 have the same sum as the original 2 and 3,
+        // so the file size is consistent but the layout is corrupt
+        MappedDenseOutputModel.write(integrateWithSecondary(), path);
+        byte[] content = Files.readAllBytes(path);
+        ByteBuffer.wrap(content).order(ByteOrder.LITTLE_ENDIAN).putInt(28, 8).putInt(32, -3);
+        Files.write(path, content);
+        checkError(LocalizedODEFormats.NOT_A_DENSE_OUTPUT_FILE);
+
+    }
+
+    @Test
+    public void testUnsupportedVersion() throws IOException {
+        MappedDenseOutputModel.write(integrate(0, 1), path);
+        byte[] content = Files.readAllBytes(path);
+        ByteBuffer.wrap(content).order(ByteOrder.LITTLE_ENDIAN).putInt(8, MappedDenseOutputModel.FORMAT_VERSION + 1);
+        Files.write(path, content);
+        try {
+            MappedDenseOutputModel.open(path);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalStateException mise) {
+            Assert.assertEquals(LocalizedODEFormats.UNSUPPORTED_DENSE_OUTPUT_FILE_VERSION, mise.getSpecifier());
+            Assert.assertEquals(MappedDenseOutputModel.FORMAT_VERSION + 1, ((Integer) mise.getParts()[0]).intValue());
+        }
+    }
+
+    private void checkError(final LocalizedODEFormats expected) throws IOException {
+        try {
+            MappedDenseOutputModel.open(path);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalStateException mise) {
+            Assert.assertEquals(expected, mise.getSpecifier());
+        }
+    }
+
+    private CompactDenseOutputModel integrate(final double t0, final double t1) {
+        CompactDenseOutputModel.Builder builder = new CompactDenseOutputModel.Builder();
+        ODEIntegrator integ = new DormandPrince853Integrator(0, 1.0, 1.0e-10, 1.0e-10);
+        integ.addStepHandler(builder);
+        integ.integrate(new Circle(), new ODEState(t0, new double[] { FastMath.cos(t0), FastMath.sin(t0) }), t1);
+        return builder.build();
+    }
+
+    private CompactDenseOutputModel integrateWithSecondary() {
+        ExpandableODE expandable = new ExpandableODE(new Circle());
+        expandable.addSecondaryEquations(new SecondaryODE() {
+            @Override
+            public int getDimension() {
+                return 3;
+            }
+            @Override
+            public double[] computeDerivatives(double t, double[] primary, double[] primaryDot, double[] secondary) {
+                return new double[] { primary[0], primary[1], 1.0 };
+            }
+        });
+        CompactDenseOutputModel.Builder builder = new CompactDenseOutputModel.Builder(7);
+        ODEIntegrator integ = new DormandPrince853Integrator(0, 1.0, 1.0e-10, 1.0e-10);
+        integ.addStepHandler(builder);
+        integ.integrate(expandable,
+                        new ODEState(0, new double[] { 1.0, 0.0 }, new double[][] { { 0.0, -1.0, 0.0 } }),
+                        5.0);
+        return builder.build();
+    }
+
+    private void checkSame(final CompactDenseOutputModel model, final MappedDenseOutputModel mapped) {
+        Assert.assertEquals(model.getDegree(),                 mapped.getDegree());
+        Assert.assertEquals(model.getNumberOfSteps(),          mapped.getNumberOfSteps());
+        Assert.assertEquals(model.getCompleteStateDimension(), mapped.getCompleteStateDimension());
+        Assert.assertEquals(model.isForward(),                 mapped.isForward());
+        Assert.assertEquals(model.getInitialTime(),            mapped.getInitialTime(), 0.0);
+        Assert.assertEquals(model.getFinalTime(),              mapped.getFinalTime(),   0.0);
+        final double tMin = FastMath.min(model.getInitialTime(), model.getFinalTime()) - 0.5;
+        final double tMax = FastMath.max(model.getInitialTime(), model.getFinalTime()) + 0.5;
+        for (double t = tMin; t <= tMax; t += 0.01) {
+            final ODEStateAndDerivative expected = model.getInterpolatedState(t);
+            final ODEStateAndDerivative actual   = mapped.getInterpolatedState(t);
+            Assert.assertArrayEquals(expected.getCompleteState(),      actual.getCompleteState(),      0.0);
+            Assert.assertArrayEquals(expected.getCompleteDerivative(), actual.getCompleteDerivative(), 0.0);
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        path = Files.createTempFile("dense-output-", ".bin");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+        path = null;
+    }
+
+    private static class Circle implements OrdinaryDifferentialEquation {
+        @Override
+        public int getDimension() {
+            return 2;
+        }
+        @Override
+        public double[] computeDerivatives(double t, double[] y) {
+            return new double[] { -y[1], y[0] };
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.hipparchus.UnitTestUtils;
+import org.hipparchus.analysis.differentiation.Gradient;
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.MathIllegalStateException;
 import org.hipparchus.ode.VariationalEquation.MismatchedEquations;
@@ -309,6 +310,119 @@ public class VariationalEquationTest {
         }
     }
 
+    @Test
+    public void testAutomaticDifferentiation()
+        throws MathIllegalArgumentException, MathIllegalStateException, MismatchedEquations {
+
+        AbstractIntegrator integ =
+            new DormandPrince54Integrator(1.0e-8, 100.0, new double[] { 1.0e-10, 1.0e-10 }, new double[] { 1.0e-10, 1.0e-10 });
+        double[] y = new double[] { 0.0, 1.0 };
+        ParameterizedCircle pcircle = new ParameterizedCircle(y, 1.0, 1.0, 0.1);
+        GradientCircle      gcircle = new GradientCircle(1.0, 1.0, 0.1);
+
+        // the primary equations are used for integration, the gradient ones for Jacobians
+        ExpandableODE efode = new ExpandableODE(pcircle);
+        VariationalEquation jacob = new VariationalEquation(efode, gcircle,
+                                                            ParameterizedCircle.CX,
+                                                            ParameterizedCircle.CY,
+                                                            ParameterizedCircle.OMEGA);
+        jacob.setInitialMainStateJacobian(pcircle.exactDyDy0(0));
+        jacob.setInitialParameterJacobian(ParameterizedCircle.CX, pcircle.exactDyDcx(0));
+        jacob.setInitialParameterJacobian(ParameterizedCircle.CY, pcircle.exactDyDcy(0));
+        jacob.setInitialParameterJacobian(ParameterizedCircle.OMEGA, pcircle.exactDyDom(0));
+
+        integ.setMaxEvaluations(50000);
+
+        double t = 18 * FastMath.PI;
+        final ODEState initialState = jacob.setUpInitialState(new ODEState(0, y));
+        final ODEStateAndDerivative finalState = integ.integrate(efode, initialState, t);
+        y = finalState.getPrimaryState();
+        for (int i = 0; i < y.length; ++i) {
+            Assert.assertEquals(pcircle.exactY(t)[i], y[i], 1.0e-9);
+        }
+
+        // exact local derivatives are much more accurate than finite differences
+        double[][] dydy0 = jacob.extractMainSetJacobian(finalState);
+        for (int i = 0; i < dydy0.length; ++i) {
+            for (int j = 0; j < dydy0[i].length; ++j) {
+                Assert.assertEquals(pcircle.exactDyDy0(t)[i][j], dydy0[i][j], 1.0e-9);
+            }
+        }
+
+        double[] dydp0 = jacob.extractParameterJacobian(finalState, ParameterizedCircle.CX);
+        for (int i = 0; i < dydp0.length; ++i) {
+            Assert.assertEquals(pcircle.exactDyDcx(t)[i], dydp0[i], 1.0e-9);
+        }
+
+        double[] dydp1 = jacob.extractParameterJacobian(finalState, ParameterizedCircle.CY);
+        for (int i = 0; i < dydp1.length; ++i) {
+            Assert.assertEquals(pcircle.exactDyDcy(t)[i], dydp1[i], 1.0e-9);
+        }
+
+        double[] dydp2 = jacob.extractParameterJacobian(finalState, ParameterizedCircle.OMEGA);
+        for (int i = 0; i < dydp2.length; ++i) {
+            Assert.assertEquals(pcircle.exactDyDom(t)[i], dydp2[i], 1.0e-7);
+        }
+
+        // one gradient evaluation per evaluation of the expanded equations
+        Assert.assertEquals(integ.getEvaluations(), gcircle.getCalls());
+
+    }
+
+    @Test
+    public void testAutomaticDifferentiationAsPrimary()
+        throws MathIllegalArgumentException, MathIllegalStateException, MismatchedEquations {
+
+        AbstractIntegrator integ =
+            new DormandPrince54Integrator(1.0e-8, 100.0, new double[] { 1.0e-10, 1.0e-10 }, new double[] { 1.0e-10, 1.0e-10 });
+        double[] y = new double[] { 0.0, 1.0 };
+        ParameterizedCircle pcircle = new ParameterizedCircle(y, 1.0, 1.0, 0.1);
+
+        // the gradient equations are used for both integration and Jacobians
+        GradientJacobiansProvider provider = new GradientJacobiansProvider(new GradientCircle(1.0, 1.0, 0.1),
+                                                                           ParameterizedCircle.OMEGA);
+        ExpandableODE efode = new ExpandableODE(provider);
+        VariationalEquation jacob = new VariationalEquation(efode, provider);
+
+        double t = 18 * FastMath.PI;
+        final ODEStateAndDerivative finalState = integ.integrate(efode,
+                                                                 jacob.setUpInitialState(new ODEState(0, y)),
+                                                                 t);
+        y = finalState.getPrimaryState();
+        for (int i = 0; i < y.length; ++i) {
+            Assert.assertEquals(pcircle.exactY(t)[i], y[i], 1.0e-9);
+        }
+        double[][] dydy0 = jacob.extractMainSetJacobian(finalState);
+        for (int i = 0; i < dydy0.length; ++i) {
+            for (int j = 0; j < dydy0[i].length; ++j) {
+                Assert.assertEquals(pcircle.exactDyDy0(t)[i][j], dydy0[i][j], 1.0e-9);
+            }
+        }
+        double[] dydp = jacob.extractParameterJacobian(finalState, ParameterizedCircle.OMEGA);
+        for (int i = 0; i < dydp.length; ++i) {
+            Assert.assertEquals(pcircle.exactDyDom(t)[i], dydp[i], 1.0e-7);
+        }
+
+    }
+
+    @Test
+    public void testAutomaticDifferentiationMismatchedEquations() {
+        try {
+            ExpandableODE efode = new ExpandableODE(new Brusselator(2.88));
+            new VariationalEquation(efode, new FieldOrdinaryDifferentialEquation<Gradient>() {
+                public int getDimension() {
+                    return 3;
+                }
+                public Gradient[] computeDerivatives(Gradient t, Gradient[] y) {
+                    return y;
+                }
+            });
+            Assert.fail("an exception should have been thrown");
+        } catch (MismatchedEquations me) {
+            Assert.assertEquals(LocalizedODEFormats.UNMATCHED_ODE_IN_EXPANDED_SET, me.getSpecifier());
+        }
+    }
+
     private static class Brusselator implements ODEJacobiansProvider {
 
         public static final String B = "b";
@@ -637,4 +751,68 @@ public class VariationalEquationTest {
 
     }
 
+    private static class GradientCircle extends AbstractParameterizable
+        implements FieldOrdinaryDifferentialEquation<Gradient>, GradientParametersController {
+
+        private Gradient cx;
+        private Gradient cy;
+        private Gradient omega;
+        private int calls;
+
+        public GradientCircle(double cx, double cy, double omega) {
+            super(ParameterizedCircle.CX, ParameterizedCircle.CY, ParameterizedCircle.OMEGA);
+            this.cx    = Gradient.constant(0, cx);
+            this.cy    = Gradient.constant(0, cy);
+            this.omega = Gradient.constant(0, omega);
+            this.calls = 0;
+        }
+
+        @Override
+        public int getDimension() {
+            return 2;
+        }
+
+        @Override
+        public Gradient[] computeDerivatives(Gradient t, Gradient[] y) {
+            ++calls;
+            return new Gradient[] {
+                omega.multiply(cy.subtract(y[1])),
+                omega.multiply(y[0].subtract(cx))
+            };
+        }
+
+        @Override
+        public double getParameter(final String name)
+            throws MathIllegalArgumentException {
+            if (name.equals(ParameterizedCircle.CX)) {
+                return cx.getValue();
+            } else if (name.equals(ParameterizedCircle.CY)) {
+                return cy.getValue();
+            } else if (name.equals(ParameterizedCircle.OMEGA)) {
+                return omega.getValue();
+            } else {
+                throw new MathIllegalArgumentException(LocalizedODEFormats.UNKNOWN_PARAMETER, name);
+            }
+        }
+
+        @Override
+        public void setParameter(final String name, final Gradient value)
+            throws MathIllegalArgumentException {
+            if (name.equals(ParameterizedCircle.CX)) {
+                cx = value;
+            } else if (name.equals(ParameterizedCircle.CY)) {
+                cy = value;
+            } else if (name.equals(ParameterizedCircle.OMEGA)) {
+                omega = value;
+            } else {
+                throw new MathIllegalArgumentException(LocalizedODEFormats.UNKNOWN_PARAMETER, name);
+            }
+        }
+
+        public int getCalls() {
+            return calls;
+        }
+
+    }
+
 }
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.ode.IntegrationMetrics;
+import org.hipparchus.ode.ODEState;
+import org.hipparchus.ode.ODEStateAndDerivative;
+import org.hipparchus.ode.OrdinaryDifferentialEquation;
+import org.hipparchus.ode.nonstiff.ClassicalRungeKuttaIntegrator;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Check events prefilters and parallel evaluation of events states.
+ */
+public class EventPrefilterTest {
+
+    @Test
+    public void testPrefilterForward() {
+        doTestPrefilter(0.0, 20.0);
+    }
+
+    @Test
+    public void testPrefilterBackward() {
+        doTestPrefilter(20.0, 0.0);
+    }
+
+    @Test
+    public void testParallel() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (final boolean prefilter : new boolean[] { false, true }) {
+                final List<SineDetector> sequential = createDetectors(8, prefilter);
+                final List<SineDetector> parallel   = createDetectors(8, prefilter);
+                final IntegrationMetrics sequentialMetrics = integrate(sequential, null, 0.0, 20.0);
+                final IntegrationMetrics parallelMetrics   = integrate(parallel, pool, 0.0, 20.0);
+                for (int k = 0; k < sequential.size(); ++k) {
+                    Assert.assertTrue(sequential.get(k).events.size() > 5);
+                    Assert.assertEquals(sequential.get(k).events, parallel.get(k).events);
+                    Assert.assertEquals(sequentialMetrics.getEventMetrics(sequential.get(k)).getGEvaluations(),
+                                        parallelMetrics.getEventMetrics(parallel.get(k)).getGEvaluations());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelFailure() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final List<SineDetector> detectors = createDetectors(3, false);
+            detectors.add(new SineDetector(0.0, false) {
+                @Override
+                public double g(final ODEStateAndDerivative state) {
+                    if (state.getTime() > 3.0) {
+                        throw new MathIllegalStateException(LocalizedCoreFormats.SIMPLE_MESSAGE, "boom");
+                    }
+                    return super.g(state);
+                }
+            });
+            integrate(detectors, pool, 0.0, 20.0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalStateException mise) {
+            Assert.assertEquals(LocalizedCoreFormats.SIMPLE_MESSAGE, mise.getSpecifier());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testEventsPoolAccessors() {
+        final ClassicalRungeKuttaIntegrator integrator = new ClassicalRungeKuttaIntegrator(0.5);
+        Assert.assertNull(integrator.getEventsPool());
+        integrator.setEventsPool(ForkJoinPool.commonPool());
+        Assert.assertSame(ForkJoinPool.commonPool(), integrator.getEventsPool());
+        integrator.setEventsPool(null);
+        Assert.assertNull(integrator.getEventsPool());
+    }
+
+    @Test
+    public void testFilterDelegation() {
+        final SineDetector raw = new SineDetector(0.25, true);
+        final EventFilter filter = new EventFilter(raw, FilterType.TRIGGER_ONLY_INCREASING_EVENTS);
+        final ODEStateAndDerivative state = new ODEStateAndDerivative(1.0, new double[] { 1.0 }, new double[] { 1.0 });
+        Assert.assertEquals(raw.getSignChangeHorizon(state, true), filter.getSignChangeHorizon(state, true), 1.0e-15);
+        Assert.assertEquals(1.0, new SineDetector(0.25, false).getSignChangeHorizon(state, true), 1.0e-15);
+    }
+
+    private void doTestPrefilter(final double t0, final double t1) {
+        final List<SineDetector> regular  = createDetectors(3, false);
+        final List<SineDetector> filtered = createDetectors(3, true);
+        final IntegrationMetrics regularMetrics  = integrate(regular,  null, t0, t1);
+        final IntegrationMetrics filteredMetrics = integrate(filtered, null, t0, t1);
+        for (int k = 0; k < regular.size(); ++k) {
+            final List<Double> regularEvents  = regular.get(k).events;
+            final List<Double> filteredEvents = filtered.get(k).events;
+            Assert.assertTrue(regularEvents.size() > 5);
+            Assert.assertEquals(regularEvents.size(), filteredEvents.size());
+            for (int i = 0; i < regularEvents.size(); ++i) {
+                Assert.assertEquals(regularEvents.get(i), filteredEvents.get(i), 1.0e-10);
+            }
+            final long regularG  = regularMetrics.getEventMetrics(regular.get(k)).getGEvaluations();
+            final long filteredG = filteredMetrics.getEventMetrics(filtered.get(k)).getGEvaluations();
+            Assert.assertTrue(filteredG < regularG / 5);
+        }
+    }
+
+    private List<SineDetector> createDetectors(final int n, final boolean prefilter) {
+        final List<SineDetector> detectors = new ArrayList<>();
+        for (int k = 0; k < n; ++k) {
+            detectors.add(new SineDetector(0.1 + k * 0.3, prefilter));
+        }
+        return detectors;
+    }
+
+    private IntegrationMetrics integrate(final List<SineDetector> detectors, final ForkJoinPool pool,
+                                         final double t0, final double t1) {
+        final ClassicalRungeKuttaIntegrator integrator = new ClassicalRungeKuttaIntegrator(0.5);
+        final IntegrationMetrics metrics = new IntegrationMetrics();
+        integrator.setIntegrationListener(metrics);
+        integrator.setEventsPool(pool);
+        for (final SineDetector detector : detectors) {
+            integrator.addEventHandler(detector, 0.01, 1.0e-12, 100);
+        }
+        integrator.integrate(new Clock(), new ODEState(t0, new double[] { t0 }), t1);
+        return metrics;
+    }
+
+    /** Equation whose single component is the time itself. */
+    private static class Clock implements OrdinaryDifferentialEquation {
+
+        @Override
+        public int getDimension() {
+            return 1;
+        }
+
+        @Override
+        public double[] computeDerivatives(final double t, final double[] y) {
+            return new double[] { 1.0 };
+        }
+
+    }
+
+    /** Detector for the roots of sin(y - phase), y being the first state component. */
+    private static class SineDetector implements ODEEventHandler {
+
+        private final double phase;
+        private final boolean prefilter;
+        private final List<Double> events;
+
+        SineDetector(final double phase, final boolean prefilter) {
+            this.phase     = phase;
+            this.prefilter = prefilter;
+            this.events    = new ArrayList<>();
+        }
+
+        @Override
+        public double g(final ODEStateAndDerivative state) {
+            return FastMath.sin(state.getPrimaryState()[0] - phase);
+        }
+
+        @Override
+        public double getSignChangeHorizon(final ODEStateAndDerivative state, final boolean forward) {
+            if (!prefilter) {
+                return ODEEventHandler.super.getSignChangeHorizon(state, forward);
+            }
+            // the roots are phase + k pi, we stop slightly before the next one
+            final double x = (state.getPrimaryState()[0] - phase) / FastMath.PI;
+            final double margin = 1.0e-3;
+            return forward ?
+                   phase + FastMath.PI * (FastMath.floor(x) + 1) - margin :
+                   phase + FastMath.PI * (FastMath.ceil(x) - 1) + margin;
+        }
+
+        @Override
+        public Action eventOccurred(final ODEStateAndDerivative state, final boolean increasing) {
+            events.add(state.getTime());
+            return Action.CONTINUE;
+        }
+
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.hipparchus.Field;
+import org.hipparchus.ode.FieldExpandableODE;
+import org.hipparchus.ode.FieldIntegrationMetrics;
+import org.hipparchus.ode.FieldODEState;
+import org.hipparchus.ode.FieldODEStateAndDerivative;
+import org.hipparchus.ode.FieldOrdinaryDifferentialEquation;
+import org.hipparchus.ode.nonstiff.ClassicalRungeKuttaFieldIntegrator;
+import org.hipparchus.util.Decimal64;
+import org.hipparchus.util.Decimal64Field;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Check events prefilters and parallel evaluation of events states.
+ */
+public class FieldEventPrefilterTest {
+
+    /** type of field. */
+    private static final Field<Decimal64> field = Decimal64Field.getInstance();
+
+    @Test
+    public void testPrefilter() {
+        final List<SineDetector> regular  = createDetectors(3, false);
+        final List<SineDetector> filtered = createDetectors(3, true);
+        final FieldIntegrationMetrics<Decimal64> regularMetrics  = integrate(regular,  null);
+        final FieldIntegrationMetrics<Decimal64> filteredMetrics = integrate(filtered, null);
+        for (int k = 0; k < regular.size(); ++k) {
+            final List<Double> regularEvents  = regular.get(k).events;
+            final List<Double> filteredEvents = filtered.get(k).events;
+            Assert.assertTrue(regularEvents.size() > 5);
+            Assert.assertEquals(regularEvents.size(), filteredEvents.size());
+            for (int i = 0; i < regularEvents.size(); ++i) {
+                Assert.assertEquals(regularEvents.get(i), filteredEvents.get(i), 1.0e-10);
+            }
+            final long regularG  = regularMetrics.getEventMetrics(regular.get(k)).getGEvaluations();
+            final long filteredG = filteredMetrics.getEventMetrics(filtered.get(k)).getGEvaluations();
+            Assert.assertTrue(filteredG < regularG / 5);
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final List<SineDetector> sequential = createDetectors(8, true);
+            final List<SineDetector> parallel   = createDetectors(8, true);
+            integrate(sequential, null);
+            integrate(parallel, pool);
+            for (int k = 0; k < sequential.size(); ++k) {
+                Assert.assertTrue(sequential.get(k).events.size() > 5);
+                Assert.assertEquals(sequential.get(k).events, parallel.get(k).events);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private List<SineDetector> createDetectors(final int n, final boolean prefilter) {
+        final List<SineDetector> detectors = new ArrayList<>();
+        for (int k = 0; k < n; ++k) {
+            detectors.add(new SineDetector(0.1 + k * 0.3, prefilter));
+        }
+        return detectors;
+    }
+
+    private FieldIntegrationMetrics<Decimal64> integrate(final List<SineDetector> detectors,
+                                                         final ForkJoinPool pool) {
+        final ClassicalRungeKuttaFieldIntegrator<Decimal64> integrator =
+                        new ClassicalRungeKuttaFieldIntegrator<>(field, field.getZero().add(0.5));
+        final FieldIntegrationMetrics<Decimal64> metrics = new FieldIntegrationMetrics<>();
+        integrator.setIntegrationListener(metrics);
+        integrator.setEventsPool(pool);
+        for (final SineDetector detector : detectors) {
+            integrator.addEventHandler(detector, 0.01, 1.0e-12, 100);
+        }
+        integrator.integrate(new FieldExpandableODE<>(new Clock()),
+                             new FieldODEState<>(field.getZero(), new Decimal64[] { field.getZero() }),
+                             field.getZero().add(20.0));
+        return metrics;
+    }
+
+    /** Equation whose single component is the time itself. */
+    private static class Clock implements FieldOrdinaryDifferentialEquation<Decimal64> {
+
+        @Override
+        public int getDimension() {
+            return 1;
+        }
+
+        @Override
+        public Decimal64[] computeDerivatives(final Decimal64 t, final Decimal64[] y) {
+            return new Decimal64[] { field.getOne() };
+        }
+
+    }
+
+    /** Detector for the roots of sin(y - phase), y being the first state component. */
+    private static class SineDetector implements FieldODEEventHandler<Decimal64> {
+
+        private final double phase;
+        private final boolean prefilter;
+        private final List<Double> events;
+
+        SineDetector(final double phase, final boolean prefilter) {
+            this.phase     = phase;
+            this.prefilter = prefilter;
+            this.events    = new ArrayList<>();
+        }
+
+        @Override
+        public Decimal64 g(final FieldODEStateAndDerivative<Decimal64> state) {
+            return state.getPrimaryState()[0].subtract(phase).sin();
+        }
+
+        @Override
+        public Decimal64 getSignChangeHorizon(final FieldODEStateAndDerivative<Decimal64> state,
+                                              final boolean forward) {
+            if (!prefilter) {
+                return FieldODEEventHandler.super.getSignChangeHorizon(state, forward);
+            }
+            // the roots are phase + k pi, we stop slightly before the next one
+            final Decimal64 x = state.getPrimaryState()[0].subtract(phase).divide(FastMath.PI);
+            return x.floor().add(1).multiply(FastMath.PI).add(phase - 1.0e-3);
+        }
+
+        @Override
+        public Action eventOccurred(final FieldODEStateAndDerivative<Decimal64> state, final boolean increasing) {
+            events.add(state.getTime().getReal());
+            return Action.CONTINUE;
+        }
+
+    }
+
+}
@@ -18,6 +18,7 @@
 package org.hipparchus.ode.nonstiff;
 
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -35,6 +36,7 @@ import org.hipparchus.ode.TestProblem1;
 import org.hipparchus.ode.TestProblem3;
 import org.hipparchus.ode.TestProblem4;
 import org.hipparchus.ode.TestProblem5;
+import org.hipparchus.ode.TestProblemAbstract;
 import org.hipparchus.ode.TestProblemHandler;
 import org.hipparchus.ode.VariationalEquation;
 import org.hipparchus.ode.events.Action;
@@ -755,6 +757,53 @@ public abstract class EmbeddedRungeKuttaIntegratorAbstractTest {
 
     }
 
+    @Test
+    public void testReuseBuffers() {
+
+        for (TestProblemAbstract pb : new TestProblemAbstract[] { new TestProblem3(0.9), new TestProblem4() }) {
+            final List<double[]> reference = new ArrayList<>();
+            final EmbeddedRungeKuttaIntegrator integ1 = createIntegrator(0.0, 1.0, 1.0e-10, 1.0e-10);
+            integ1.addStepHandler((interpolator, isLast) -> reference.add(midStep(interpolator)));
+            for (ODEEventHandler handler : pb.getEventsHandlers()) {
+                integ1.addEventHandler(handler, 0.1, 1.0e-10, 1000);
+            }
+            final ODEStateAndDerivative final1 = integ1.integrate(pb, pb.getInitialState(), pb.getFinalTime());
+
+            final List<double[]> reused = new ArrayList<>();
+            final EmbeddedRungeKuttaIntegrator integ2 = createIntegrator(0.0, 1.0, 1.0e-10, 1.0e-10);
+            Assert.assertFalse(integ2.isReuseBuffers());
+            integ2.setReuseBuffers(true);
+            Assert.assertTrue(integ2.isReuseBuffers());
+            integ2.addStepHandler((interpolator, isLast) -> reused.add(midStep(interpolator)));
+            for (ODEEventHandler handler : pb.getEventsHandlers()) {
+                integ2.addEventHandler(handler, 0.1, 1.0e-10, 1000);
+            }
+            final ODEStateAndDerivative final2 = integ2.integrate(pb, pb.getInitialState(), pb.getFinalTime());
+
+            // results must be identical, not only close
+            Assert.assertEquals(integ1.getEvaluations(), integ2.getEvaluations());
+            Assert.assertEquals(final1.getTime(), final2.getTime(), 0.0);
+            Assert.assertArrayEquals(final1.getCompleteState(),      final2.getCompleteState(),      0.0);
+            Assert.assertArrayEquals(final1.getCompleteDerivative(), final2.getCompleteDerivative(), 0.0);
+            Assert.assertEquals(reference.size(), reused.size());
+            for (int i = 0; i < reference.size(); ++i) {
+                Assert.assertArrayEquals(reference.get(i), reused.get(i), 0.0);
+            }
+        }
+
+    }
+
+    private double[] midStep(final ODEStateInterpolator interpolator) {
+        final double t0 = interpolator.getPreviousState().getTime();
+        final double t1 = interpolator.getCurrentState().getTime();
+        final ODEStateAndDerivative mid = interpolator.getInterpolatedState(0.5 * (t0 + t1));
+        final double[] complete = mid.getCompleteState();
+        final double[] result   = Arrays.copyOf(complete, 2 * complete.length + 1);
+        System.arraycopy(mid.getCompleteDerivative(), 0, result, complete.length, complete.length);
+        result[2 * complete.length] = t1;
+        return result;
+    }
+
     @Test
     public void testNaNAppearing() {
         try {
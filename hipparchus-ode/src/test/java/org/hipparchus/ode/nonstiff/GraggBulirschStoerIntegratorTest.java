@@ -17,10 +17,15 @@
 
 package org.hipparchus.ode.nonstiff;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.hamcrest.Matchers;
+import org.hipparchus.exception.LocalizedCoreFormats;
 import org.hipparchus.exception.MathIllegalArgumentException;
 import org.hipparchus.exception.MathIllegalStateException;
 import org.hipparchus.ode.LocalizedODEFormats;
+import org.hipparchus.ode.IntegrationMetrics;
 import org.hipparchus.ode.ODEIntegrator;
 import org.hipparchus.ode.ODEState;
 import org.hipparchus.ode.ODEStateAndDerivative;
@@ -344,6 +349,126 @@ public class GraggBulirschStoerIntegratorTest {
         }
     }
 
+    @Test
+    public void testSequencesPoolSingleThread() {
+        // with one thread, the same orders and steps as sequential computation are selected
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            final TestProblem3 pb = new TestProblem3(0.9);
+            final Result sequential = integrateKepler(pb, null);
+            final Result parallel   = integrateKepler(pb, pool);
+            Assert.assertEquals(sequential.steps, parallel.steps);
+            Assert.assertArrayEquals(sequential.state, parallel.state, 1.0e-15);
+            Assert.assertTrue(parallel.evaluations >= sequential.evaluations);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSequencesPoolSeveralThreads() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final TestProblem3 pb = new TestProblem3(0.9);
+            final Result sequential = integrateKepler(pb, null);
+            final Result parallel   = integrateKepler(pb, pool);
+            Assert.assertEquals(parallel.evaluations, parallel.metricsEvaluations);
+
+            // cheaper high orders are selected, which improves accuracy
+            final double[] theoretical = pb.computeTheoreticalState(pb.getFinalTime());
+            double sequentialError = 0;
+            double parallelError   = 0;
+            for (int i = 0; i < theoretical.length; ++i) {
+                sequentialError = FastMath.max(sequentialError, FastMath.abs(theoretical[i] - sequential.state[i]));
+                parallelError   = FastMath.max(parallelError,   FastMath.abs(theoretical[i] - parallel.state[i]));
+            }
+            Assert.assertEquals(2.25e-6, sequentialError, 1.0e-8);
+            Assert.assertEquals(3.03e-7, parallelError,   1.0e-9);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSequencesPoolFailure() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final GraggBulirschStoerIntegrator integ =
+                            new GraggBulirschStoerIntegrator(0, 1.0, 1.0e-10, 1.0e-10);
+            integ.setSequencesPool(pool);
+            integ.integrate(new OrdinaryDifferentialEquation() {
+                public int getDimension() {
+                    return 1;
+                }
+                public double[] computeDerivatives(double t, double[] y) {
+                    if (t > 0.5) {
+                        throw new MathIllegalStateException(LocalizedCoreFormats.SIMPLE_MESSAGE, "failure");
+                    }
+                    return new double[] { -y[0] };
+                }
+            }, new ODEState(0.0, new double[] { 1.0 }), 1.0);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalStateException mise) {
+            Assert.assertEquals(LocalizedCoreFormats.SIMPLE_MESSAGE, mise.getSpecifier());
+            Assert.assertEquals("failure", mise.getParts()[0]);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSequencesPoolAccessors() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final GraggBulirschStoerIntegrator integ =
+                            new GraggBulirschStoerIntegrator(0, 1.0, 1.0e-10, 1.0e-10);
+            Assert.assertNull(integ.getSequencesPool());
+            integ.setSequencesPool(pool);
+            Assert.assertSame(pool, integ.getSequencesPool());
+            integ.setSequencesPool(null);
+            Assert.assertNull(integ.getSequencesPool());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Result integrateKepler(final TestProblem3 pb, final ForkJoinPool pool) {
+        final GraggBulirschStoerIntegrator integ =
+                        new GraggBulirschStoerIntegrator(0, pb.getFinalTime() - pb.getInitialTime(),
+                                                         1.0e-8, 1.0e-8);
+        integ.setSequencesPool(pool);
+        final IntegrationMetrics metrics = new IntegrationMetrics();
+        integ.setIntegrationListener(metrics);
+        final AtomicInteger calls = new AtomicInteger(0);
+        final ODEStateAndDerivative last =
+                        integ.integrate(new OrdinaryDifferentialEquation() {
+                            public int getDimension() {
+                                return pb.getDimension();
+                            }
+                            public double[] computeDerivatives(double t, double[] y) {
+                                calls.incrementAndGet();
+                                return pb.doComputeDerivatives(t, y);
+                            }
+                        }, pb.getInitialState(), pb.getFinalTime());
+        Assert.assertEquals(integ.getEvaluations(), calls.get());
+        return new Result(metrics.getAcceptedSteps(), calls.get(),
+                          metrics.getDerivativesEvaluations(), last.getPrimaryState());
+    }
+
+    private static class Result {
+        final long     steps;
+        final int      evaluations;
+        final long     metricsEvaluations;
+        final double[] state;
+        Result(final long steps, final int evaluations,
+               final long metricsEvaluations, final double[] state) {
+            this.steps              = steps;
+            this.evaluations        = evaluations;
+            this.metricsEvaluations = metricsEvaluations;
+            this.state              = state;
+        }
+    }
+
     private static class KeplerStepHandler implements ODEStepHandler {
         public KeplerStepHandler(TestProblem3 pb) {
             this.pb = pb;
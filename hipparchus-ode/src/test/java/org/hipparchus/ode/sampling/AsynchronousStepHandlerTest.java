@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.sampling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.ode.ODEIntegrator;
+import org.hipparchus.ode.ODEStateAndDerivative;
+import org.hipparchus.ode.TestProblem3;
+import org.hipparchus.ode.TestProblemAbstract;
+import org.hipparchus.ode.nonstiff.DormandPrince54Integrator;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AsynchronousStepHandlerTest {
+
+    @Test
+    public void testWrongCapacity() {
+        try {
+            new AsynchronousStepHandler(0, new Recorder(0));
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testNoHandlers() {
+        try {
+            new AsynchronousStepHandler(AsynchronousStepHandler.DEFAULT_CAPACITY);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalArgumentException miae) {
+            Assert.assertEquals(LocalizedCoreFormats.NUMBER_TOO_SMALL, miae.getSpecifier());
+        }
+    }
+
+    @Test
+    public void testSameStepsAsSynchronous() {
+        final Recorder synchronous  = new Recorder(0);
+        final Recorder asynchronous = new Recorder(0);
+        integrate(synchronous, null);
+        integrate(null, new AsynchronousStepHandler(AsynchronousStepHandler.DEFAULT_CAPACITY, asynchronous));
+        Assert.assertTrue(synchronous.times.size() > 10);
+        Assert.assertEquals(synchronous.initTime, asynchronous.initTime, 1.0e-15);
+        Assert.assertEquals(synchronous.times, asynchronous.times);
+        Assert.assertTrue(asynchronous.lastSeen);
+        Assert.assertNotSame(Thread.currentThread(), asynchronous.thread);
+    }
+
+    @Test
+    public void testBackpressure() {
+        final Recorder synchronous  = new Recorder(0);
+        final Recorder asynchronous = new Recorder(2);
+        final AsynchronousStepHandler handler = new AsynchronousStepHandler(1, asynchronous);
+        Assert.assertEquals(1, handler.getCapacity());
+        integrate(synchronous, null);
+        integrate(null, handler);
+        // all steps have been processed when integration returns
+        Assert.assertEquals(synchronous.times, asynchronous.times);
+        Assert.assertTrue(asynchronous.lastSeen);
+    }
+
+    @Test
+    public void testNormalizer() {
+        final List<Double> synchronous  = Collections.synchronizedList(new ArrayList<>());
+        final List<Double> asynchronous = Collections.synchronizedList(new ArrayList<>());
+        integrate(new StepNormalizer(0.1, (s, isLast) -> synchronous.add(s.getTime())), null);
+        integrate(null, new AsynchronousStepHandler(4, new StepNormalizer(0.1, (s, isLast) -> asynchronous.add(s.getTime()))));
+        Assert.assertTrue(synchronous.size() > 100);
+        Assert.assertEquals(synchronous, asynchronous);
+    }
+
+    @Test
+    public void testSeveralHandlers() {
+        final Recorder fast = new Recorder(0);
+        final Recorder slow = new Recorder(1);
+        final AsynchronousStepHandler handler = new AsynchronousStepHandler(3, fast, slow);
+        integrate(null, handler);
+        Assert.assertEquals(fast.times, slow.times);
+        Assert.assertNotSame(fast.thread, slow.thread);
+
+        // the handler can be reused for another integration
+        fast.times.clear();
+        slow.times.clear();
+        integrate(null, handler);
+        Assert.assertEquals(fast.times, slow.times);
+        Assert.assertTrue(fast.lastSeen);
+    }
+
+    @Test
+    public void testFailure() {
+        final Recorder recorder = new Recorder(0);
+        final AsynchronousStepHandler handler =
+                        new AsynchronousStepHandler(2, recorder, (interpolator, isLast) -> {
+                            if (interpolator.getCurrentState().getTime() > 2.0) {
+                                throw new MathIllegalStateException(LocalizedCoreFormats.SIMPLE_MESSAGE, "boom");
+                            }
+                        });
+        try {
+            integrate(null, handler);
+            Assert.fail("an exception should have been thrown");
+        } catch (MathIllegalStateException mise) {
+            Assert.assertEquals(LocalizedCoreFormats.SIMPLE_MESSAGE, mise.getSpecifier());
+            Assert.assertEquals("boom", mise.getParts()[0]);
+        }
+
+        // the failure only stopped the failing integration
+        recorder.times.clear();
+        integrate(null, new AsynchronousStepHandler(2, recorder));
+        Assert.assertTrue(recorder.lastSeen);
+    }
+
+    private void integrate(final ODEStepHandler synchronous, final ODEStepHandler asynchronous) {
+        final TestProblemAbstract pb = new TestProblem3();
+        final ODEIntegrator integ = new DormandPrince54Integrator(0, pb.getFinalTime() - pb.getInitialTime(),
+                                                                  1.0e-10, 1.0e-10);
+        if (synchronous != null) {
+            integ.addStepHandler(synchronous);
+        }
+        if (asynchronous != null) {
+            integ.addStepHandler(asynchronous);
+        }
+        integ.integrate(pb, pb.getInitialState(), pb.getFinalTime());
+    }
+
+    private static class Recorder implements ODEStepHandler {
+
+        private final long delay;
+        private final List<Double> times;
+        private double initTime;
+        private boolean lastSeen;
+        private Thread thread;
+
+        Recorder(final long delay) {
+            this.delay = delay;
+            this.times = new ArrayList<>();
+        }
+
+        @Override
+        public void init(final ODEStateAndDerivative initialState, final double finalTime) {
+            initTime = initialState.getTime();
+            lastSeen = false;
+            thread   = Thread.currentThread();
+        }
+
+        @Override
+        public void handleStep(final ODEStateInterpolator interpolator, final boolean isLast) {
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            times.add(interpolator.getCurrentState().getTime());
+            lastSeen = isLast;
+        }
+
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.stiff;
+
+
+import org.hipparchus.exception.LocalizedCoreFormats;
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.ode.ODEState;
+import org.hipparchus.ode.OrdinaryDifferentialEquation;
+import org.hipparchus.ode.TestProblem3;
+import org.hipparchus.ode.sampling.ODEStateInterpolator;
+import org.hipparchus.ode.sampling.ODEStepHandler;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BDFIntegratorTest extends StiffIntegratorAbstractTest {
+
+    protected AbstractStiffIntegrator
+    createIntegrator(final double minStep, final double maxStep,
+                     final double scalAbsoluteTolerance, final double scalRelativeTolerance) {
+        return new BDFIntegrator(BDFIntegrator.MAX_ORDER, minStep, maxStep,
+                                 scalAbsoluteTolerance, scalRelativeTolerance);
+    }
+
+    protected AbstractStiffIntegrator
+    createIntegrator(final double minStep, final double maxStep,
+                     final double[] vecAbsoluteTolerance, final double[] vecRelativeTolerance) {
+        return new BDFIntegrator(BDFIntegrator.MAX_ORDER, minStep, maxStep,
+                                 vecAbsoluteTolerance, vecRelativeTolerance);
+    }
+
+    @Override
+    public void testIncreasingTolerance() {
+        // the BDF global error accumulates over the many low order steps of this
+        // smooth problem, the 11.0 factor has been obtained from trial and error
+        doTestIncreasingTolerance(11.0);
+    }
+
+    @Override
+    public void testBackward() {
+        doTestBackward(7.3e-6, 7.3e-6, "BDF");
+    }
+
+    @Override
+    public void testEvents() {
+        doTestEvents(6.9e-7);
+    }
+
+    @Test
+    public void testOrderRange() {
+        for (final int order : new int[] { 0, BDFIntegrator.MAX_ORDER + 1 }) {
+            try {
+                new BDFIntegrator(order, 0, 1, 1.0e-6, 1.0e-6);
+                Assert.fail("an exception should have been thrown");
+            } catch (MathIllegalArgumentException miae) {
+                Assert.assertEquals(LocalizedCoreFormats.OUT_OF_RANGE_SIMPLE, miae.getSpecifier());
+            }
+        }
+        Assert.assertEquals(3, new BDFIntegrator(3, 0, 1, 1.0e-6, 1.0e-6).getMaxOrder());
+    }
+
+    @Test
+    public void testDecompositionsReuse() {
+
+        // linear problem: Newton iteration always converges with the first Jacobian
+        final OrdinaryDifferentialEquation linear = new OrdinaryDifferentialEquation() {
+            public int getDimension() {
+                return 2;
+            }
+            public double[] computeDerivatives(double t, double[] y) {
+                return new double[] { -1000.0 * y[0] + y[1], -0.5 * y[1] };
+            }
+        };
+
+        final StepCounter counter = new StepCounter();
+        final BDFIntegrator integ = new BDFIntegrator(5, 0, 100, 1.0e-8, 1.0e-8);
+        integ.addStepHandler(counter);
+        final double[] y = integ.integrate(linear, new ODEState(0, new double[] { 1.0, 1.0 }), 10.0).
+                           getPrimaryState();
+
+        Assert.assertEquals(FastMath.exp(-5.0), y[1], 1.0e-6);
+        Assert.assertEquals(1, integ.getJacobianEvaluations());
+        Assert.assertTrue(integ.getDecompositions() * 2 < counter.steps);
+
+    }
+
+    @Test
+    public void testMaxOrder() {
+        // higher orders allow larger steps for the same accuracy
+        final TestProblem3 pb = new TestProblem3(0.1);
+        int previousEvaluations = Integer.MAX_VALUE;
+        for (int maxOrder = 1; maxOrder <= BDFIntegrator.MAX_ORDER; ++maxOrder) {
+            final BDFIntegrator integ = new BDFIntegrator(maxOrder, 0, 1, 1.0e-8, 1.0e-8);
+            final double[] y   = integ.integrate(pb, pb.getInitialState(), pb.getFinalTime()).getPrimaryState();
+            final double[] ref = pb.computeTheoreticalState(pb.getFinalTime());
+            if (maxOrder > 1) {
+                Assert.assertEquals(ref[0], y[0], 1.0e-3);
+            }
+            Assert.assertTrue(integ.getEvaluations() < previousEvaluations);
+            previousEvaluations = integ.getEvaluations();
+        }
+    }
+
+    @Test
+    public void testComponentOrderIndependence() {
+        // the Newton convergence test must use the tolerance of each component,
+        // not the tolerance of the first one, so swapping components must give
+        // the same result up to round-off
+        final double[] yDirect  = integrateStiffPair(false);
+        final double[] ySwapped = integrateStiffPair(true);
+        Assert.assertEquals(yDirect[0], ySwapped[1], 1.0e-15);
+        Assert.assertEquals(yDirect[1], ySwapped[0], 1.0e-15);
+    }
+
+    private double[] integrateStiffPair(final boolean swapped) {
+        final int fast = swapped ? 1 : 0;
+        final int slow = swapped ? 0 : 1;
+        final OrdinaryDifferentialEquation ode = new OrdinaryDifferentialEquation() {
+            public int getDimension() {
+                return 2;
+            }
+            public double[] computeDerivatives(double t, double[] y) {
+                final double[] yDot = new double[2];
+                yDot[fast] = -1000.0 * (y[fast] - FastMath.cos(y[slow]));
+                yDot[slow] = -0.5 * y[slow] * y[slow];
+                return yDot;
+            }
+        };
+        final double[] absTol = new double[2];
+        final double[] relTol = new double[2];
+        absTol[fast] = 1.0e-2;
+        relTol[fast] = 1.0e-2;
+        absTol[slow] = 1.0e-10;
+        relTol[slow] = 1.0e-10;
+        final BDFIntegrator integ = new BDFIntegrator(5, 0, 1, absTol, relTol);
+        return integ.integrate(ode, new ODEState(0, new double[] { 1.0, 1.0 }), 10.0).getPrimaryState();
+    }
+
+    private static class StepCounter implements ODEStepHandler {
+        private int steps;
+        public void handleStep(ODEStateInterpolator interpolator, boolean isLast) {
+            ++steps;
+        }
+    }
+
+}
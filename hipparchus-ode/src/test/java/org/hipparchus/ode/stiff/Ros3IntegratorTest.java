@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.stiff;
+
+
+public class Ros3IntegratorTest extends StiffIntegratorAbstractTest {
+
+    protected AbstractStiffIntegrator
+    createIntegrator(final double minStep, final double maxStep,
+                     final double scalAbsoluteTolerance, final double scalRelativeTolerance) {
+        return new Ros3Integrator(minStep, maxStep, scalAbsoluteTolerance, scalRelativeTolerance);
+    }
+
+    protected AbstractStiffIntegrator
+    createIntegrator(final double minStep, final double maxStep,
+                     final double[] vecAbsoluteTolerance, final double[] vecRelativeTolerance) {
+        return new Ros3Integrator(minStep, maxStep, vecAbsoluteTolerance, vecRelativeTolerance);
+    }
+
+    @Override
+    public void testIncreasingTolerance() {
+        doTestIncreasingTolerance(0.7);
+    }
+
+    @Override
+    public void testBackward() {
+        doTestBackward(3.6e-7, 3.6e-7, "ROS3");
+    }
+
+    @Override
+    public void testEvents() {
+        doTestEvents(2.3e-7);
+    }
+
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Hipparchus project under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Hipparchus project licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.hipparchus.ode.stiff;
+
+
+import org.hipparchus.exception.MathIllegalArgumentException;
+import org.hipparchus.exception.MathIllegalStateException;
+import org.hipparchus.ode.ExpandableODE;
+import org.hipparchus.ode.ODEJacobiansProvider;
+import org.hipparchus.ode.ODEState;
+import org.hipparchus.ode.ODEStateAndDerivative;
+import org.hipparchus.ode.OrdinaryDifferentialEquation;
+import org.hipparchus.ode.TestProblem1;
+import org.hipparchus.ode.TestProblem4;
+import org.hipparchus.ode.TestProblem5;
+import org.hipparchus.ode.TestProblemHandler;
+import org.hipparchus.ode.events.ODEEventHandler;
+import org.hipparchus.ode.nonstiff.DormandPrince54Integrator;
+import org.hipparchus.ode.nonstiff.DormandPrince853Integrator;
+import org.hipparchus.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+public abstract class StiffIntegratorAbstractTest {
+
+    protected abstract AbstractStiffIntegrator
+    createIntegrator(final double minStep, final double maxStep,
+                     final double scalAbsoluteTolerance, final double scalRelativeTolerance);
+
+    protected abstract AbstractStiffIntegrator
+    createIntegrator(final double minStep, final double maxStep,
+                     final double[] vecAbsoluteTolerance, final double[] vecRelativeTolerance);
+
+    @Test
+    public abstract void testIncreasingTolerance();
+
+    protected void doTestIncreasingTolerance(double factor) {
+
+        int previousCalls = Integer.MAX_VALUE;
+        for (int i = -10; i < -3; ++i) {
+            TestProblem1 pb = new TestProblem1();
+            double minStep = 0;
+            double maxStep = pb.getFinalTime() - pb.getInitialState().getTime();
+            double scalAbsoluteTolerance = FastMath.pow(10.0, i);
+            double scalRelativeTolerance = 0.01 * scalAbsoluteTolerance;
+
+            AbstractStiffIntegrator integ = createIntegrator(minStep, maxStep,
+                                                             scalAbsoluteTolerance, scalRelativeTolerance);
+            TestProblemHandler handler = new TestProblemHandler(pb, integ);
+            integ.addStepHandler(handler);
+            integ.integrate(new ExpandableODE(pb), pb.getInitialState(), pb.getFinalTime());
+
+            Assert.assertTrue(handler.getMaximalValueError() < (factor * scalAbsoluteTolerance));
+            Assert.assertEquals(0, handler.getMaximalTimeError(), 1.0e-12);
+
+            int calls = pb.getCalls();
+            Assert.assertEquals(integ.getEvaluations(), calls);
+            Assert.assertTrue(calls <= previousCalls);
+            Assert.assertTrue(integ.getJacobianEvaluations() > 0);
+            Assert.assertTrue(integ.getDecompositions() >= integ.getJacobianEvaluations());
+            previousCalls = calls;
+
+        }
+
+    }
+
+    @Test
+    public abstract void testBackward();
+
+    protected void doTestBackward(final double epsilonLast, final double epsilonMaxValue,
+                                  final String name)
+        throws MathIllegalArgumentException, MathIllegalStateException {
+
+        TestProblem5 pb = new TestProblem5();
+        double minStep = 0;
+        double maxStep = FastMath.abs(pb.getFinalTime() - pb.getInitialState().getTime());
+        double scalAbsoluteTolerance = 1.0e-8;
+        double scalRelativeTolerance = 0.01 * scalAbsoluteTolerance;
+
+        AbstractStiffIntegrator integ = createIntegrator(minStep, maxStep,
+                                                         scalAbsoluteTolerance,
+                                                         scalRelativeTolerance);
+        TestProblemHandler handler = new TestProblemHandler(pb, integ);
+        integ.addStepHandler(handler);
+        integ.integrate(new ExpandableODE(pb), pb.getInitialState(), pb.getFinalTime());
+
+        Assert.assertEquals(0, handler.getLastError(),         epsilonLast);
+        Assert.assertEquals(0, handler.getMaximalValueError(), epsilonMaxValue);
+        Assert.assertEquals(0, handler.getMaximalTimeError(),  1.0e-12);
+        Assert.assertEquals(name, integ.getName());
+
+    }
+
+    @Test
+    public abstract void testEvents();
+
+    protected void doTestEvents(final double epsilonMaxValue) {
+
+      TestProblem4 pb = new TestProblem4();
+      double minStep = 0;
+      double maxStep = pb.getFinalTime() - pb.getInitialState().getTime();
+      double scalAbsoluteTolerance = 1.0e-8;
+      double scalRelativeTolerance = 0.01 * scalAbsoluteTolerance;
+
+      AbstractStiffIntegrator integ = createIntegrator(minStep, maxStep,
+                                                       scalAbsoluteTolerance, scalRelativeTolerance);
+      TestProblemHandler handler = new TestProblemHandler(pb, integ);
+      integ.addStepHandler(handler);
+      ODEEventHandler[] functions = pb.getEventsHandlers();
+      double convergence = 1.0e-8 * maxStep;
+      for (int l = 0; l < functions.length; ++l) {
+          integ.addEventHandler(functions[l], Double.POSITIVE_INFINITY, convergence, 1000);
+      }
+      integ.integrate(new ExpandableODE(pb), pb.getInitialState(), pb.getFinalTime());
+
+      Assert.assertEquals(0, handler.getMaximalValueError(), epsilonMaxValue);
+      Assert.assertEquals(0, handler.getMaximalTimeError(), convergence);
+      Assert.assertEquals(12.0, handler.getLastTime(), convergence);
+
+    }
+
+    @Test
+    public void testStiffVanDerPol() {
+
+        // reference solution, computed with a tight tolerance
+        final VanDerPol vdp = new VanDerPol(100.0);
+        final ODEState  s0  = new ODEState(0.0, new double[] { 2.0, 0.0 });
+        final double    t   = 300.0;
+        final double[]  ref = new DormandPrince853Integrator(0, t, 1.0e-12, 1.0e-12).
+                              integrate(vdp, s0, t).getPrimaryState();
+
+        // explicit integrator, limited by stability rather than accuracy
+        final DormandPrince54Integrator dp54 = new DormandPrince54Integrator(0, t, 1.0e-6, 1.0e-6);
+        dp54.integrate(vdp, s0, t);
+
+        final AbstractStiffIntegrator integ = createIntegrator(0, t, 1.0e-6, 1.0e-6);
+        final double[] y = integ.integrate(vdp, s0, t).getPrimaryState();
+        Assert.assertEquals(ref[0], y[0], 3.0e-4);
+        Assert.assertEquals(ref[1], y[1], 1.0e-5);
+        Assert.assertTrue(integ.getEvaluations() * 5 < dp54.getEvaluations());
+
+    }
+
+    @Test
+    public void testJacobianProvider() {
+
+        final ODEState s0 = new ODEState(0.0, new double[] { 2.0, 0.0 });
+        final double   t  = 3000.0;
+
+        // Jacobian by finite differences
+        final AbstractStiffIntegrator integFD = createIntegrator(0, t, 1.0e-6, 1.0e-6);
+        final double[] yFD = integFD.integrate(new VanDerPol(1000.0), s0, t).getPrimaryState();
+
+        // analytical Jacobian
+        final AbstractStiffIntegrator integJ = createIntegrator(0, t, 1.0e-6, 1.0e-6);
+        final double[] yJ = integJ.integrate(new VanDerPolWithJacobian(1000.0), s0, t).getPrimaryState();
+
+        Assert.assertEquals(yFD[0], yJ[0], 1.0e-4);
+        Assert.assertEquals(yFD[1], yJ[1], 1.0e-4);
+        Assert.assertTrue(integJ.getJacobianEvaluations() > 0);
+        Assert.assertTrue(integJ.getEvaluations() < integFD.getEvaluations());
+
+    }
+
+    @Test
+    public void testVectorTolerance() {
+
+        // Robertson chemical kinetics problem, with a tiny intermediate species
+        final OrdinaryDifferentialEquation robertson = new OrdinaryDifferentialEquation() {
+            public int getDimension() {
+                return 3;
+            }
+            public double[] computeDerivatives(double t, double[] y) {
+                final double r1 = 0.04 * y[0];
+                final double r2 = 1.0e4 * y[1] * y[2];
+                final double r3 = 3.0e7 * y[1] * y[1];
+                return new double[] { r2 - r1, r1 - r2 - r3, r3 };
+            }
+        };
+
+        final AbstractStiffIntegrator integ = createIntegrator(0, 1.0e11,
+                                                               new double[] { 1.0e-8, 1.0e-14, 1.0e-8 },
+                                                               new double[] { 1.0e-6, 1.0e-6,  1.0e-6 });
+        final ODEStateAndDerivative end = integ.integrate(robertson,
+                                                          new ODEState(0.0, new double[] { 1.0, 0.0, 0.0 }),
+                                                          4.0e10);
+
+        // mass conservation and reference values from Hairer and Wanner
+        final double[] y = end.getPrimaryState();
+        Assert.assertEquals(1.0, y[0] + y[1] + y[2], 1.0e-10);
+        Assert.assertEquals(5.2083e-8, y[0], 1.0e-8);
+        Assert.assertEquals(2.0833e-13, y[1], 5.0e-14);
+        Assert.assertTrue(integ.getEvaluations() < 20000);
+
+    }
+
+    private static class VanDerPol implements OrdinaryDifferentialEquation {
+
+        private final double mu;
+
+        VanDerPol(final double mu) {
+            this.mu = mu;
+        }
+
+        public int getDimension() {
+            return 2;
+        }
+
+        public double[] computeDerivatives(double t, double[] y) {
+            return new double[] { y[1], mu * (1 - y[0] * y[0]) * y[1] - y[0] };
+        }
+
+    }
+
+    private static class VanDerPolWithJacobian extends VanDerPol implements ODEJacobiansProvider {
+
+        private final double mu;
+
+        VanDerPolWithJacobian(final double mu) {
+            super(mu);
+            this.mu = mu;
+        }
+
+        public double[][] computeMainStateJacobian(double t, double[] y, double[] yDot) {
+            return new double[][] {
+                { 0, 1 },
+                { -2 * mu * y[0] * y[1] - 1, mu * (1 - y[0] * y[0]) }
+            };
+        }
+
+    }
+
+}